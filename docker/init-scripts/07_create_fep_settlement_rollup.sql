@@ -0,0 +1,28 @@
+-- ============================================================
+-- FEP_SETTLEMENT_ROLLUP - Settlement Record Rollups
+-- ============================================================
+
+-- Connect to FREEPDB1 as fep_user
+CONNECT fep_user/fep_password@//localhost:1521/FREEPDB1
+
+CREATE TABLE FEP_SETTLEMENT_ROLLUP (
+    FILE_ID                 VARCHAR2(32) NOT NULL,
+    SETTLEMENT_DATE         DATE NOT NULL,
+    ACQUIRING_BANK_CODE     VARCHAR2(7),
+    ISSUING_BANK_CODE       VARCHAR2(7),
+    TRANSACTION_TYPE        VARCHAR2(32),
+    CHANNEL                 VARCHAR2(16),
+    STATUS                  VARCHAR2(32) NOT NULL,
+    IS_REVERSAL             NUMBER(1) DEFAULT 0,
+    RECORD_COUNT            NUMBER(15) DEFAULT 0,
+    AMOUNT                  NUMBER(18,2) DEFAULT 0,
+    FEE_AMOUNT              NUMBER(18,2) DEFAULT 0,
+    CONSTRAINT FK_STLMT_ROLLUP_FILE FOREIGN KEY (FILE_ID)
+        REFERENCES FEP_SETTLEMENT_FILE(FILE_ID) ON DELETE CASCADE
+);
+
+CREATE INDEX IDX_STLMT_ROLLUP_DATE ON FEP_SETTLEMENT_ROLLUP(SETTLEMENT_DATE);
+CREATE INDEX IDX_STLMT_ROLLUP_FILE ON FEP_SETTLEMENT_ROLLUP(FILE_ID);
+
+COMMENT ON TABLE FEP_SETTLEMENT_ROLLUP IS 'Per-file record counts and amounts by bank, type, channel and status';
+COMMENT ON COLUMN FEP_SETTLEMENT_ROLLUP.RECORD_COUNT IS 'Number of settlement records in the cell';
@@ -70,6 +70,7 @@ public class BpmnIntegrationConfig {
     private final ApplicationEventPublisher eventPublisher;
     private final FiscCommunicationService fiscCommunicationService;
     private final DynamicConnectionManager connectionManager;
+    private final ChannelCircuitBreakerConfig channelCircuitBreakers;
 
     @Value("${fep.communication.server.message-handler:default}")
     private String messageHandlerType;
@@ -201,9 +202,12 @@ public class BpmnIntegrationConfig {
                     return CompletableFuture.failedFuture(e);
                 }
 
-                // 發送訊息並等待回應
-                return client.sendAndReceive(request)
-                        .orTimeout(fiscTimeoutMs, TimeUnit.MILLISECONDS)
+                // 發送訊息並等待回應（通道劣化時由熔斷器快速失敗）
+                String channel = (channelId != null && !channelId.isEmpty())
+                        ? channelId : defaultFiscChannel;
+                return channelCircuitBreakers.getCircuitBreaker(channel)
+                        .executeAsync(() -> client.sendAndReceive(request)
+                                .orTimeout(fiscTimeoutMs, TimeUnit.MILLISECONDS))
                         .thenApply(response -> {
                             return FiscResponse.builder()
                                     .mti(response.getMti())
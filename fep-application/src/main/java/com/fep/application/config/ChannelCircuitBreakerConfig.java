@@ -0,0 +1,78 @@
+package com.fep.application.config;
+
+import com.fep.communication.client.FiscDualChannelClient;
+import com.fep.communication.manager.ConnectionLifecycleListener;
+import com.fep.communication.manager.DynamicConnectionManager;
+import com.fep.transaction.risk.circuitbreaker.CircuitBreaker;
+import com.fep.transaction.risk.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 通道熔斷器整合配置
+ *
+ * <p>為 {@link DynamicConnectionManager} 管理的每個 FISC client 通道維護一個
+ * {@link CircuitBreaker}，讓 {@link BpmnIntegrationConfig} 的 FiscClientBridge
+ * 在銀行端連線劣化時能立即快速失敗，而不必等待逾時。
+ *
+ * <p>生命週期：
+ * <ul>
+ *   <li>通道新增時建立熔斷器</li>
+ *   <li>通道因設定變更重建時重置熔斷器</li>
+ *   <li>通道移除時一併移除熔斷器</li>
+ * </ul>
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ChannelCircuitBreakerConfig implements ConnectionLifecycleListener {
+
+    private final DynamicConnectionManager connectionManager;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    /**
+     * 註冊連線生命週期監聽，並為已存在的通道建立熔斷器
+     */
+    @PostConstruct
+    public void init() {
+        connectionManager.addLifecycleListener(this);
+        for (String channelId : connectionManager.getClientConnectionIds()) {
+            circuitBreakerRegistry.getOrCreateForChannel(channelId);
+        }
+        log.info("已啟用通道熔斷器: channels={}", connectionManager.getClientConnectionIds());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        connectionManager.removeLifecycleListener(this);
+    }
+
+    /**
+     * 取得指定通道的熔斷器
+     *
+     * @param channelId 通道 ID
+     * @return 通道熔斷器
+     */
+    public CircuitBreaker getCircuitBreaker(String channelId) {
+        return circuitBreakerRegistry.getOrCreateForChannel(channelId);
+    }
+
+    @Override
+    public void onConnectionAdded(String channelId, FiscDualChannelClient client) {
+        circuitBreakerRegistry.getOrCreateForChannel(channelId);
+    }
+
+    @Override
+    public void onConnectionRecreated(String channelId, FiscDualChannelClient client) {
+        // 新連線不應繼承舊連線的失敗統計
+        circuitBreakerRegistry.getOrCreateForChannel(channelId).reset();
+    }
+
+    @Override
+    public void onConnectionRemoved(String channelId) {
+        circuitBreakerRegistry.removeForChannel(channelId);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fep.application.config;
+
+import com.fep.application.profiling.ProfilingAccessFilter;
+import com.fep.application.profiling.ProfilingEndpoint;
+import com.fep.application.profiling.ProfilingProperties;
+import com.fep.application.profiling.ProfilingService;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 線上效能剖析配置
+ *
+ * <p>啟動常駐 JFR 環形錄製，並提供 {@code /actuator/profiling} 端點；
+ * 端點需列入 {@code management.endpoints.web.exposure.include} 才會對外開放，
+ * 目前只在 {@code profiling} profile 中開放。
+ * 預設停用，須設定 {@code fep.profiling.enabled=true} 與 {@code fep.profiling.access-token}；
+ * 端點請求須以該權杖驗證。
+ */
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+@ConditionalOnProperty(prefix = "fep.profiling", name = "enabled")
+public class ProfilingConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ProfilingService profilingService(ProfilingProperties properties) {
+        return new ProfilingService(properties);
+    }
+
+    @Bean
+    public ProfilingEndpoint profilingEndpoint(ProfilingService profilingService) {
+        return new ProfilingEndpoint(profilingService);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ProfilingAccessFilter> profilingAccessFilter(
+            ProfilingProperties properties, WebEndpointProperties webEndpointProperties) {
+        String path = webEndpointProperties.getBasePath() + "/profiling";
+        FilterRegistrationBean<ProfilingAccessFilter> registration =
+                new FilterRegistrationBean<>(new ProfilingAccessFilter(properties.getAccessToken()));
+        registration.addUrlPatterns(path, path + "/*");
+        registration.setName("profilingAccessFilter");
+        return registration;
+    }
+}
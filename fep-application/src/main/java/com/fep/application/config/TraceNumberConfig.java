@@ -0,0 +1,41 @@
+package com.fep.application.config;
+
+import com.fep.message.iso8583.trace.FileTraceNumberStore;
+import com.fep.message.iso8583.trace.InMemoryTraceNumberStore;
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
+import com.fep.message.iso8583.trace.TraceNumberStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+/**
+ * STAN/RRN 配號配置
+ *
+ * <p>建立全域 {@link TraceNumberAllocator} 並設為預設配號器，
+ * 供電文工廠、BPMN Delegate 等元件依通道與營業日取號。
+ * {@code DynamicConnectionManager} 以建構參數注入此 bean，
+ * 確保啟動時建立的 FISC 連線（含簽到電文）即使用持久化配號器。
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TraceNumberProperties.class)
+public class TraceNumberConfig {
+
+    @Bean(destroyMethod = "close")
+    public TraceNumberAllocator traceNumberAllocator(TraceNumberProperties properties) {
+        TraceNumberStore store = switch (properties.getStore()) {
+            case FILE -> new FileTraceNumberStore(Path.of(properties.getFile()));
+            case MEMORY -> new InMemoryTraceNumberStore();
+        };
+        TraceNumberAllocator allocator = new TraceNumberAllocator(
+                store, properties.getBlockSize(), Clock.systemDefaultZone(), properties.getCutover());
+        TraceNumberAllocator.setDefault(allocator);
+        log.info("STAN/RRN 配號器已啟用: store={}, blockSize={}, cutover={}",
+                properties.getStore(), properties.getBlockSize(), properties.getCutover());
+        return allocator;
+    }
+}
@@ -0,0 +1,42 @@
+package com.fep.application.config;
+
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalTime;
+
+/**
+ * STAN/RRN 配號設定
+ *
+ * <p>範例：
+ * <pre>
+ * fep:
+ *   trace-number:
+ *     store: file
+ *     file: data/trace-numbers.properties
+ *     block-size: 1000
+ *     cutover: "23:30"
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "fep.trace-number")
+public class TraceNumberProperties {
+
+    /** 高水位儲存方式：memory（重啟後從 1 開始）或 file（重啟後接續，可多節點共用） */
+    private Store store = Store.MEMORY;
+
+    /** store=file 時的高水位檔案路徑 */
+    private String file = "data/trace-numbers.properties";
+
+    /** 每次向儲存區預領的號碼數；越大寫入越少，但異常重啟時跳號越多 */
+    private int blockSize = TraceNumberAllocator.DEFAULT_BLOCK_SIZE;
+
+    /** 營業日切換時間；此時間之後的交易屬於次一營業日 */
+    private LocalTime cutover = LocalTime.MIDNIGHT;
+
+    public enum Store {
+        MEMORY,
+        FILE
+    }
+}
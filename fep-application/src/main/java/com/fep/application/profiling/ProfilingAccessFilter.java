@@ -0,0 +1,56 @@
+package com.fep.application.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 效能剖析端點的存取驗證
+ *
+ * <p>請求須帶 {@code Authorization: Bearer <fep.profiling.access-token>}，否則回應 401。
+ * JFR 檔含執行緒堆疊與交易資料，不得在未驗證的情況下下載。
+ */
+@Slf4j
+public class ProfilingAccessFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final byte[] accessToken;
+
+    public ProfilingAccessFilter(String accessToken) {
+        if (accessToken == null || accessToken.isBlank()) {
+            throw new IllegalStateException("fep.profiling.access-token is required when profiling is enabled");
+        }
+        this.accessToken = accessToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (isAuthorized(request.getHeader(HttpHeaders.AUTHORIZATION))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        log.warn("拒絕未授權的剖析端點存取: {} {} from {}",
+                request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer realm=\"profiling\"");
+        response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    boolean isAuthorized(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return false;
+        }
+        byte[] presented = authorization.substring(BEARER_PREFIX.length()).trim()
+                .getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(accessToken, presented);
+    }
+}
@@ -0,0 +1,94 @@
+package com.fep.application.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 效能剖析 Actuator 端點 ({@code /actuator/profiling})
+ *
+ * <ul>
+ *   <li>{@code GET /actuator/profiling} - 錄製狀態與各通道記憶體配置、CPU 統計</li>
+ *   <li>{@code POST /actuator/profiling} - 啟動限時錄製，body:
+ *       {@code {"durationSeconds": 60, "name": "...", "settings": "profile"}}</li>
+ *   <li>{@code GET /actuator/profiling/{id}} - 下載 .jfr 檔；{@code id=ring} 為常駐環形錄製</li>
+ *   <li>{@code POST /actuator/profiling/{id}} - 提前停止錄製</li>
+ *   <li>{@code DELETE /actuator/profiling/{id}} - 捨棄錄製</li>
+ *   <li>{@code DELETE /actuator/profiling} - 清除通道統計</li>
+ * </ul>
+ */
+@WebEndpoint(id = "profiling")
+@RequiredArgsConstructor
+public class ProfilingEndpoint {
+
+    private final ProfilingService profilingService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return profilingService.getStatus();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable Long durationSeconds, @Nullable String name,
+                                             @Nullable String settings) {
+        if (durationSeconds == null) {
+            return error("durationSeconds is required", WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        try {
+            return new WebEndpointResponse<>(
+                    profilingService.startRecording(name, Duration.ofSeconds(durationSeconds), settings));
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String id) {
+        return profilingService.dump(id)
+                .map(file -> new WebEndpointResponse<Resource>(new FileSystemResource(file)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> stop(@Selector String id) {
+        try {
+            return profilingService.stopRecording(id)
+                    .map(info -> new WebEndpointResponse<Object>(info))
+                    .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Object> discard(@Selector String id) {
+        try {
+            return new WebEndpointResponse<>(profilingService.discardRecording(id)
+                    ? WebEndpointResponse.STATUS_NO_CONTENT
+                    : WebEndpointResponse.STATUS_NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+
+    @DeleteOperation
+    public void resetChannels() {
+        profilingService.resetChannelUsage();
+    }
+
+    private static WebEndpointResponse<Object> error(String message, int status) {
+        return new WebEndpointResponse<>(Map.of("error", message), status);
+    }
+}
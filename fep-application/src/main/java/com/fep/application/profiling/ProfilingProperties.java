@@ -0,0 +1,71 @@
+package com.fep.application.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 線上效能剖析設定
+ *
+ * <p>範例：
+ * <pre>
+ * fep:
+ *   profiling:
+ *     enabled: true
+ *     access-token: ${PROFILING_ACCESS_TOKEN}
+ *     ring:
+ *       max-age: 10m
+ *       max-size: 64MB
+ *       event-threshold: 10ms
+ *     max-recording-duration: 10m
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "fep.profiling")
+public class ProfilingProperties {
+
+    /** 是否啟用剖析端點；預設停用 */
+    private boolean enabled = false;
+
+    /** 端點存取權杖（Bearer）；啟用時必須設定 */
+    private String accessToken;
+
+    /** 是否統計各通道的記憶體配置與 CPU 時間 */
+    private boolean channelAccounting = true;
+
+    /** JFR 檔案輸出目錄；未設定時使用系統暫存目錄 */
+    private String directory;
+
+    /** 單次錄製的最長時間 */
+    private Duration maxRecordingDuration = Duration.ofMinutes(10);
+
+    /** 單次錄製的最大檔案大小 */
+    private DataSize maxRecordingSize = DataSize.ofMegabytes(256);
+
+    /** 同時進行的錄製數上限（不含常駐環形錄製） */
+    private int maxConcurrentRecordings = 2;
+
+    /** 已結束的錄製保留多久供下載，逾時即關閉並刪除檔案 */
+    private Duration finishedRecordingRetention = Duration.ofMinutes(30);
+
+    /** 常駐環形錄製 */
+    private Ring ring = new Ring();
+
+    @Data
+    public static class Ring {
+
+        /** 是否啟用常駐環形錄製 */
+        private boolean enabled = true;
+
+        /** 保留最近多久的資料 */
+        private Duration maxAge = Duration.ofMinutes(10);
+
+        /** 保留資料的大小上限 */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        /** FEP 事件門檻：只記錄超過此時間的解碼、流程階段、HSM 與 FISC 事件，以控制開銷 */
+        private Duration eventThreshold = Duration.ofMillis(10);
+    }
+}
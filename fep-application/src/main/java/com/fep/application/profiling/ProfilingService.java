@@ -0,0 +1,331 @@
+package com.fep.application.profiling;
+
+import com.fep.common.profiling.ChannelResourceTracker;
+import com.fep.common.profiling.FepEvent;
+import com.fep.common.profiling.FiscRoundTripEvent;
+import com.fep.common.profiling.HsmCallEvent;
+import com.fep.common.profiling.MessageDecodeEvent;
+import com.fep.common.profiling.PipelineStageEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JFR 錄製管理
+ *
+ * <p>提供兩種錄製：
+ * <ul>
+ *   <li>常駐環形錄製 - 啟動後一直執行，只保留最近 {@code ring.max-age} 的資料；
+ *       FEP 事件只記錄超過門檻的慢交易，開銷極低。出問題時直接下載，不必重啟 JVM</li>
+ *   <li>限時錄製 - 依需求啟動，時間與大小受 {@code max-recording-duration}、
+ *       {@code max-recording-size} 限制，記錄全部 FEP 事件</li>
+ * </ul>
+ *
+ * <p>FEP 事件（訊息解碼、流程階段、HSM 呼叫、FISC 往返）都帶有通道、STAN 與 MTI，
+ * 可由慢交易直接定位到耗時的階段。
+ *
+ * <p>環境變數與系統屬性事件一律關閉，避免金鑰等機敏設定寫入 JFR 檔。
+ * 已結束的限時錄製保留 {@code finished-recording-retention} 後自動捨棄。
+ */
+@Slf4j
+public class ProfilingService implements AutoCloseable {
+
+    /** 常駐環形錄製的 ID */
+    public static final String RING_ID = "ring";
+
+    /** 限時錄製可使用的 JFR 設定 */
+    static final List<String> SETTINGS = List.of("default", "profile");
+
+    static final List<Class<? extends FepEvent>> FEP_EVENTS = List.of(
+            MessageDecodeEvent.class,
+            PipelineStageEvent.class,
+            HsmCallEvent.class,
+            FiscRoundTripEvent.class);
+
+    /** 可能含金鑰、密碼等機敏設定的 JDK 事件，所有錄製都停用 */
+    static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty");
+
+    private final ProfilingProperties properties;
+    private final ConcurrentMap<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private final Path directory;
+    private Recording ring;
+
+    public ProfilingService(ProfilingProperties properties) {
+        this.properties = properties;
+        this.directory = properties.getDirectory() != null
+                ? Paths.get(properties.getDirectory())
+                : Paths.get(System.getProperty("java.io.tmpdir"), "fep-jfr");
+    }
+
+    /**
+     * 啟動常駐環形錄製並套用通道統計設定
+     */
+    public synchronized void start() {
+        ChannelResourceTracker.getInstance().setEnabled(properties.isChannelAccounting());
+        ProfilingProperties.Ring ringProperties = properties.getRing();
+        if (!ringProperties.isEnabled() || ring != null) {
+            return;
+        }
+        ring = new Recording(configuration("default"));
+        ring.setName("fep-ring");
+        ring.setToDisk(true);
+        ring.setMaxAge(ringProperties.getMaxAge());
+        ring.setMaxSize(ringProperties.getMaxSize().toBytes());
+        disableSensitiveEvents(ring);
+        enableFepEvents(ring, ringProperties.getEventThreshold());
+        ring.start();
+        log.info("已啟動常駐 JFR 環形錄製: maxAge={}, maxSize={}, FEP 事件門檻={}",
+                ringProperties.getMaxAge(), ringProperties.getMaxSize(), ringProperties.getEventThreshold());
+    }
+
+    /**
+     * 啟動限時錄製
+     *
+     * @param name     錄製名稱（可為 null）
+     * @param duration 錄製時間，不可超過 {@code max-recording-duration}
+     * @param settings JFR 設定，{@code default} 或 {@code profile}（可為 null，預設 profile）
+     * @return 錄製資訊
+     * @throws IllegalArgumentException 參數不合法
+     * @throws IllegalStateException    同時錄製數已達上限
+     */
+    public synchronized RecordingInfo startRecording(String name, Duration duration, String settings) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Recording duration must be positive");
+        }
+        if (duration.compareTo(properties.getMaxRecordingDuration()) > 0) {
+            throw new IllegalArgumentException("Recording duration exceeds " + properties.getMaxRecordingDuration());
+        }
+        String settingsName = settings != null ? settings : "profile";
+        if (!SETTINGS.contains(settingsName)) {
+            throw new IllegalArgumentException("Unknown settings: " + settingsName + ", expected one of " + SETTINGS);
+        }
+        evictFinishedRecordings();
+        long running = recordings.values().stream()
+                .filter(recording -> recording.getState() == RecordingState.RUNNING)
+                .count();
+        if (running >= properties.getMaxConcurrentRecordings()) {
+            throw new IllegalStateException("Too many recordings in progress: " + running);
+        }
+
+        Recording recording = new Recording(configuration(settingsName));
+        recording.setName(name != null ? name : "fep-" + settingsName);
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setMaxSize(properties.getMaxRecordingSize().toBytes());
+        disableSensitiveEvents(recording);
+        enableFepEvents(recording, Duration.ZERO);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+
+        log.info("已啟動 JFR 錄製: id={}, name={}, duration={}, settings={}",
+                recording.getId(), recording.getName(), duration, settingsName);
+        return RecordingInfo.of(String.valueOf(recording.getId()), recording);
+    }
+
+    /**
+     * 提前停止限時錄製；資料保留至下載或捨棄
+     *
+     * @param id 錄製 ID
+     * @return 錄製資訊，找不到時為 empty
+     * @throws IllegalArgumentException 指定常駐環形錄製
+     */
+    public synchronized Optional<RecordingInfo> stopRecording(String id) {
+        rejectRing(id);
+        return findRecording(id).map(recording -> {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+                log.info("已停止 JFR 錄製: id={}", id);
+            }
+            return RecordingInfo.of(id, recording);
+        });
+    }
+
+    /**
+     * 捨棄限時錄製並刪除其檔案
+     *
+     * @param id 錄製 ID
+     * @return 是否找到該錄製
+     * @throws IllegalArgumentException 指定常駐環形錄製
+     */
+    public synchronized boolean discardRecording(String id) {
+        rejectRing(id);
+        Optional<Recording> recording = findRecording(id);
+        recording.ifPresent(found -> {
+            recordings.remove(found.getId());
+            found.close();
+            deleteQuietly(dumpFile(id));
+        });
+        return recording.isPresent();
+    }
+
+    /**
+     * 捨棄結束超過 {@code finished-recording-retention} 的限時錄製，釋放 JFR 資料與輸出檔
+     *
+     * @return 捨棄的錄製數
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public synchronized int evictFinishedRecordings() {
+        Instant cutoff = Instant.now().minus(properties.getFinishedRecordingRetention());
+        int evicted = 0;
+        for (Map.Entry<Long, Recording> entry : recordings.entrySet()) {
+            Recording recording = entry.getValue();
+            boolean finished = recording.getState() == RecordingState.CLOSED
+                    || (recording.getState() == RecordingState.STOPPED
+                        && (recording.getStopTime() == null || !recording.getStopTime().isAfter(cutoff)));
+            if (finished) {
+                String id = String.valueOf(entry.getKey());
+                recordings.remove(entry.getKey());
+                recording.close();
+                deleteQuietly(dumpFile(id));
+                evicted++;
+                log.info("已捨棄逾期的 JFR 錄製: id={}", id);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * 將錄製內容寫成 .jfr 檔，執行中的錄製寫出目前為止的資料
+     *
+     * <p>每個錄製只保留一個輸出檔，重複下載會覆寫，磁碟用量有上限。
+     *
+     * @param id 錄製 ID，或 {@link #RING_ID}
+     * @return 輸出檔，找不到錄製時為 empty
+     */
+    public synchronized Optional<Path> dump(String id) {
+        Optional<Recording> recording = RING_ID.equals(id) ? Optional.ofNullable(ring) : findRecording(id);
+        if (recording.isEmpty()) {
+            return Optional.empty();
+        }
+        Path file = dumpFile(id);
+        try {
+            Files.createDirectories(directory);
+            recording.get().dump(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to dump recording " + id, e);
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * 取得錄製與通道資源使用概況
+     */
+    public Map<String, Object> getStatus() {
+        evictFinishedRecordings();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ring", ring != null ? RecordingInfo.of(RING_ID, ring) : null);
+        List<RecordingInfo> infos = new ArrayList<>();
+        recordings.forEach((id, recording) -> infos.add(RecordingInfo.of(String.valueOf(id), recording)));
+        status.put("recordings", infos);
+        status.put("channelAccounting", ChannelResourceTracker.getInstance().isEnabled());
+        status.put("channels", getChannelUsage());
+        return status;
+    }
+
+    /**
+     * 取得各通道的記憶體配置與 CPU 時間統計
+     */
+    public Map<String, ChannelResourceTracker.ChannelUsage> getChannelUsage() {
+        return ChannelResourceTracker.getInstance().snapshot();
+    }
+
+    /**
+     * 清除通道統計
+     */
+    public void resetChannelUsage() {
+        ChannelResourceTracker.getInstance().reset();
+    }
+
+    @Override
+    public synchronized void close() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+        if (ring != null) {
+            ring.close();
+            ring = null;
+        }
+    }
+
+    private Optional<Recording> findRecording(String id) {
+        try {
+            return Optional.ofNullable(recordings.get(Long.parseLong(id)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Path dumpFile(String id) {
+        return directory.resolve("fep-" + id + ".jfr");
+    }
+
+    private static void rejectRing(String id) {
+        if (RING_ID.equals(id)) {
+            throw new IllegalArgumentException("The ring recording is always on and cannot be stopped or discarded");
+        }
+    }
+
+    private static void disableSensitiveEvents(Recording recording) {
+        SENSITIVE_EVENTS.forEach(recording::disable);
+    }
+
+    private static void enableFepEvents(Recording recording, Duration threshold) {
+        for (Class<? extends FepEvent> eventType : FEP_EVENTS) {
+            recording.enable(eventType).withThreshold(threshold);
+        }
+    }
+
+    private static Configuration configuration(String name) {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR configuration not available: " + name, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("無法刪除 JFR 檔案 {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 錄製資訊
+     *
+     * @param id        錄製 ID
+     * @param name      錄製名稱
+     * @param state     狀態（RUNNING、STOPPED ...）
+     * @param startTime 開始時間
+     * @param duration  設定的錄製時間，環形錄製為 null
+     * @param sizeBytes 目前資料大小
+     */
+    public record RecordingInfo(String id, String name, String state, Instant startTime,
+                                Duration duration, long sizeBytes) {
+
+        static RecordingInfo of(String id, Recording recording) {
+            return new RecordingInfo(id, recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.fep.application.profiling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProfilingAccessFilter.
+ */
+@DisplayName("ProfilingAccessFilter Tests")
+class ProfilingAccessFilterTest {
+
+    private final ProfilingAccessFilter filter = new ProfilingAccessFilter("s3cret-token");
+
+    @Test
+    @DisplayName("Should pass requests with the configured bearer token")
+    void shouldPassAuthorizedRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/profiling/ring");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer s3cret-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should reject requests without a valid token")
+    void shouldRejectUnauthorizedRequest() throws Exception {
+        for (String authorization : new String[]{null, "Bearer wrong", "Basic czNjcmV0LXRva2Vu"}) {
+            // Given
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/profiling/ring");
+            if (authorization != null) {
+                request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+            }
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            // When
+            filter.doFilter(request, response, chain);
+
+            // Then
+            assertThat(chain.getRequest()).isNull();
+            assertThat(response.getStatus()).isEqualTo(401);
+            assertThat(response.getHeader(HttpHeaders.WWW_AUTHENTICATE)).startsWith("Bearer");
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without an access token")
+    void shouldRequireAccessToken() {
+        assertThatThrownBy(() -> new ProfilingAccessFilter(" "))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
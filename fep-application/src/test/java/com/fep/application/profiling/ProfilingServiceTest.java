@@ -0,0 +1,185 @@
+package com.fep.application.profiling;
+
+import com.fep.common.profiling.ChannelResourceTracker;
+import com.fep.common.profiling.PipelineStageEvent;
+import com.fep.transaction.domain.TransactionRequest;
+import com.fep.transaction.pipeline.PipelineContext;
+import com.fep.transaction.pipeline.PipelineHandler;
+import com.fep.transaction.pipeline.PipelineStage;
+import com.fep.transaction.pipeline.TransactionPipeline;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProfilingService.
+ */
+@DisplayName("ProfilingService Tests")
+class ProfilingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ProfilingProperties properties;
+    private ProfilingService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProfilingProperties();
+        properties.setDirectory(directory.toString());
+        properties.setMaxRecordingDuration(Duration.ofMinutes(1));
+        properties.setMaxConcurrentRecordings(1);
+        properties.getRing().setEventThreshold(Duration.ZERO);
+        service = new ProfilingService(properties);
+        service.start();
+        ChannelResourceTracker.getInstance().reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    @DisplayName("Ring recording should capture pipeline stages with channel, STAN and MTI")
+    void ringRecordingShouldCapturePipelineStages() throws Exception {
+        // Given
+        runPipeline("ATM", "000123", "0200");
+
+        // When
+        Path file = service.dump(ProfilingService.RING_ID).orElseThrow();
+
+        // Then
+        List<RecordedEvent> stages = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(PipelineStageEvent.NAME))
+                .filter(event -> "000123".equals(event.getString("stan")))
+                .toList();
+        assertThat(stages).hasSize(1);
+        assertThat(stages.get(0).getString("channel")).isEqualTo("ATM");
+        assertThat(stages.get(0).getString("mti")).isEqualTo("0200");
+        assertThat(stages.get(0).getString("stage")).isEqualTo(PipelineStage.VALIDATION.name());
+    }
+
+    @Test
+    @DisplayName("Should attribute pipeline allocation and CPU time to the request channel")
+    void shouldAttributeResourceUsageToChannel() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            runPipeline("POS", String.format("%06d", i), "0200");
+        }
+
+        // Then
+        ChannelResourceTracker.ChannelUsage usage = service.getChannelUsage().get("POS");
+        assertThat(usage).isNotNull();
+        assertThat(usage.operations()).isEqualTo(10);
+        assertThat(usage.allocatedBytes()).isPositive();
+        assertThat(usage.getAllocatedBytesPerOperation()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should start, stop, download and discard a bounded recording")
+    void shouldManageBoundedRecording() throws Exception {
+        // Given
+        ProfilingService.RecordingInfo started = service.startRecording("incident", Duration.ofSeconds(30), null);
+        assertThat(started.state()).isEqualTo("RUNNING");
+        runPipeline("ATM", "000777", "0200");
+
+        // When
+        ProfilingService.RecordingInfo stopped = service.stopRecording(started.id()).orElseThrow();
+        Path file = service.dump(started.id()).orElseThrow();
+
+        // Then
+        assertThat(stopped.state()).isEqualTo("STOPPED");
+        assertThat(RecordingFile.readAllEvents(file))
+                .filteredOn(event -> event.getEventType().getName().equals(PipelineStageEvent.NAME))
+                .anyMatch(event -> "000777".equals(event.getString("stan")));
+        assertThat(service.discardRecording(started.id())).isTrue();
+        assertThat(file).doesNotExist();
+        assertThat(service.dump(started.id())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should enforce recording limits")
+    void shouldEnforceRecordingLimits() {
+        assertThatThrownBy(() -> service.startRecording(null, Duration.ofMinutes(5), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.startRecording(null, Duration.ofSeconds(10), "unknown"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        service.startRecording(null, Duration.ofSeconds(10), "default");
+        assertThatThrownBy(() -> service.startRecording(null, Duration.ofSeconds(10), "default"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Ring recording cannot be stopped or discarded")
+    void ringRecordingCannotBeStopped() {
+        assertThatThrownBy(() -> service.stopRecording(ProfilingService.RING_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.discardRecording(ProfilingService.RING_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.stopRecording("12345")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Recordings should not capture environment variables or system properties")
+    void shouldNotCaptureEnvironment() throws Exception {
+        // When
+        Path file = service.dump(ProfilingService.RING_ID).orElseThrow();
+
+        // Then
+        assertThat(RecordingFile.readAllEvents(file))
+                .extracting(event -> event.getEventType().getName())
+                .doesNotContainAnyElementsOf(ProfilingService.SENSITIVE_EVENTS);
+    }
+
+    @Test
+    @DisplayName("Should evict finished recordings after the retention period")
+    void shouldEvictFinishedRecordings() {
+        // Given
+        properties.setFinishedRecordingRetention(Duration.ZERO);
+        ProfilingService.RecordingInfo started = service.startRecording("incident", Duration.ofSeconds(30), null);
+        assertThat(service.evictFinishedRecordings()).isZero();
+        service.stopRecording(started.id());
+
+        // When
+        int evicted = service.evictFinishedRecordings();
+
+        // Then
+        assertThat(evicted).isEqualTo(1);
+        assertThat(service.dump(started.id())).isEmpty();
+        assertThat(service.getStatus().get("recordings")).asList().isEmpty();
+    }
+
+    private static void runPipeline(String channel, String stan, String mti) {
+        PipelineHandler validation = new PipelineHandler() {
+            @Override
+            public PipelineStage getStage() {
+                return PipelineStage.VALIDATION;
+            }
+
+            @Override
+            public void handle(PipelineContext context) {
+                context.setAttribute("validated", new byte[256]);
+            }
+        };
+        new TransactionPipeline()
+                .addHandler(validation)
+                .execute(TransactionRequest.builder()
+                        .transactionId("TXN-" + stan)
+                        .channel(channel)
+                        .stan(stan)
+                        .mti(mti)
+                        .build());
+    }
+}
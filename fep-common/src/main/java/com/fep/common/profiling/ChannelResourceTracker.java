@@ -0,0 +1,172 @@
+package com.fep.common.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Attributes heap allocation and CPU time to channels.
+ *
+ * <p>A {@link Scope} reads the current thread's allocated-bytes and CPU-time
+ * counters when opened and adds the difference to its channel when closed.
+ * Netty event loops and worker threads are shared between channels, so this
+ * per-unit-of-work accounting is what makes a per-channel figure possible.
+ *
+ * <pre>{@code
+ * try (ChannelResourceTracker.Scope scope = ChannelResourceTracker.getInstance().open(channelId)) {
+ *     ... decode or process one message ...
+ * }
+ * }</pre>
+ *
+ * <p>Opening a scope costs two thread-counter reads (well under a microsecond on
+ * Linux). Accounting can be switched off at runtime, after which {@link #open}
+ * returns a no-op scope.
+ */
+public final class ChannelResourceTracker {
+
+    private static final ChannelResourceTracker INSTANCE = new ChannelResourceTracker();
+
+    private static final Scope NOOP = new Scope(null, null, 0, 0);
+
+    private static final String UNKNOWN_CHANNEL = "UNKNOWN";
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final ConcurrentMap<String, Usage> usage = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    private ChannelResourceTracker() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mxBean
+                && mxBean.isThreadAllocatedMemorySupported() && mxBean.isThreadCpuTimeSupported()) {
+            mxBean.setThreadAllocatedMemoryEnabled(true);
+            mxBean.setThreadCpuTimeEnabled(true);
+            this.threads = mxBean;
+            this.enabled = true;
+        } else {
+            this.threads = null;
+        }
+    }
+
+    /**
+     * Gets the process-wide tracker.
+     */
+    public static ChannelResourceTracker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Opens a scope charging the current thread's work to a channel.
+     *
+     * @param channel channel ID; null is charged to {@code UNKNOWN}
+     * @return the scope; close it on the same thread
+     */
+    public Scope open(String channel) {
+        if (!enabled) {
+            return NOOP;
+        }
+        return new Scope(this, channel != null ? channel : UNKNOWN_CHANNEL,
+                threads.getCurrentThreadAllocatedBytes(), threads.getCurrentThreadCpuTime());
+    }
+
+    /**
+     * Whether accounting is on.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches accounting on or off; has no effect where the JVM lacks thread counters.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled && threads != null;
+    }
+
+    /**
+     * Gets the totals per channel, sorted by channel ID.
+     */
+    public Map<String, ChannelUsage> snapshot() {
+        Map<String, ChannelUsage> snapshot = new TreeMap<>();
+        usage.forEach((channel, totals) -> snapshot.put(channel, totals.toChannelUsage(channel)));
+        return snapshot;
+    }
+
+    /**
+     * Clears all totals.
+     */
+    public void reset() {
+        usage.clear();
+    }
+
+    private void charge(String channel, long allocatedBytes, long cpuNanos) {
+        Usage totals = usage.computeIfAbsent(channel, key -> new Usage());
+        totals.operations.increment();
+        totals.allocatedBytes.add(allocatedBytes);
+        totals.cpuNanos.add(cpuNanos);
+    }
+
+    /**
+     * An open unit of work on the current thread.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final ChannelResourceTracker tracker;
+        private final String channel;
+        private final long allocatedAtOpen;
+        private final long cpuAtOpen;
+
+        private Scope(ChannelResourceTracker tracker, String channel, long allocatedAtOpen, long cpuAtOpen) {
+            this.tracker = tracker;
+            this.channel = channel;
+            this.allocatedAtOpen = allocatedAtOpen;
+            this.cpuAtOpen = cpuAtOpen;
+        }
+
+        @Override
+        public void close() {
+            if (tracker == null) {
+                return;
+            }
+            tracker.charge(channel,
+                    tracker.threads.getCurrentThreadAllocatedBytes() - allocatedAtOpen,
+                    tracker.threads.getCurrentThreadCpuTime() - cpuAtOpen);
+        }
+    }
+
+    /**
+     * Totals for one channel.
+     *
+     * @param channel        channel ID
+     * @param operations     scopes closed
+     * @param allocatedBytes heap bytes allocated inside those scopes
+     * @param cpuNanos       CPU time spent inside those scopes
+     */
+    public record ChannelUsage(String channel, long operations, long allocatedBytes, long cpuNanos) {
+
+        /**
+         * Average bytes allocated per operation.
+         */
+        public long getAllocatedBytesPerOperation() {
+            return operations == 0 ? 0 : allocatedBytes / operations;
+        }
+
+        /**
+         * Average CPU microseconds per operation.
+         */
+        public double getCpuMicrosPerOperation() {
+            return operations == 0 ? 0 : cpuNanos / 1_000.0 / operations;
+        }
+    }
+
+    private static final class Usage {
+        final LongAdder operations = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final LongAdder cpuNanos = new LongAdder();
+
+        ChannelUsage toChannelUsage(String channel) {
+            return new ChannelUsage(channel, operations.sum(), allocatedBytes.sum(), cpuNanos.sum());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.fep.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the FEP flight-recorder events.
+ *
+ * <p>Every event carries the transaction keys, so a slow transaction found in a
+ * recording can be followed from decode through the pipeline to the HSM and FISC.
+ *
+ * <p>Usage follows the JFR pattern; when the event is disabled, the JIT removes
+ * the allocation and the calls:
+ * <pre>{@code
+ * HsmCallEvent event = new HsmCallEvent();
+ * event.begin();
+ * ... do the work ...
+ * if (event.shouldCommit()) {
+ *     event.setKeys(channel, stan, mti);
+ *     event.commit();
+ * }
+ * }</pre>
+ */
+@Category("FEP")
+@StackTrace(false)
+public abstract class FepEvent extends Event {
+
+    @Label("Channel")
+    @Description("Channel ID the message belongs to")
+    protected String channel;
+
+    @Label("STAN")
+    @Description("System trace audit number (field 11)")
+    protected String stan;
+
+    @Label("MTI")
+    @Description("Message type indicator")
+    protected String mti;
+
+    /**
+     * Sets the transaction keys.
+     *
+     * @param channel channel ID (may be null)
+     * @param stan    STAN (may be null)
+     * @param mti     MTI (may be null)
+     */
+    public void setKeys(String channel, String stan, String mti) {
+        this.channel = channel;
+        this.stan = stan;
+        this.mti = mti;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public String getStan() {
+        return stan;
+    }
+
+    public String getMti() {
+        return mti;
+    }
+}
@@ -0,0 +1,31 @@
+package com.fep.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One request to FISC, from send to the matched response.
+ */
+@Name(FiscRoundTripEvent.NAME)
+@Label("FISC Round Trip")
+@Description("One FISC request/response exchange")
+public class FiscRoundTripEvent extends FepEvent {
+
+    public static final String NAME = "com.fep.FiscRoundTrip";
+
+    @Label("Response Code")
+    @Description("Field 39 of the response, or null on timeout or send failure")
+    private String responseCode;
+
+    @Label("Error")
+    private String error;
+
+    public void setResponseCode(String responseCode) {
+        this.responseCode = responseCode;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,31 @@
+package com.fep.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One HSM command, from submission to response.
+ */
+@Name(HsmCallEvent.NAME)
+@Label("HSM Call")
+@Description("One HSM command round trip")
+public class HsmCallEvent extends FepEvent {
+
+    public static final String NAME = "com.fep.HsmCall";
+
+    @Label("Command")
+    private String command;
+
+    @Label("Response Code")
+    @Description("HSM error code, or null if the call failed without a response")
+    private String responseCode;
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public void setResponseCode(String responseCode) {
+        this.responseCode = responseCode;
+    }
+}
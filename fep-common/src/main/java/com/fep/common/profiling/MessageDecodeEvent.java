@@ -0,0 +1,25 @@
+package com.fep.common.profiling;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Parsing of one inbound frame into a message.
+ */
+@Name(MessageDecodeEvent.NAME)
+@Label("Message Decode")
+@Description("Parsing of one inbound ISO 8583 frame")
+public class MessageDecodeEvent extends FepEvent {
+
+    public static final String NAME = "com.fep.MessageDecode";
+
+    @Label("Frame Size")
+    @DataAmount
+    private int frameBytes;
+
+    public void setFrameBytes(int frameBytes) {
+        this.frameBytes = frameBytes;
+    }
+}
@@ -0,0 +1,31 @@
+package com.fep.common.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One stage of the transaction pipeline (validation, routing, processing, ...).
+ */
+@Name(PipelineStageEvent.NAME)
+@Label("Pipeline Stage")
+@Description("Execution of one transaction pipeline stage")
+public class PipelineStageEvent extends FepEvent {
+
+    public static final String NAME = "com.fep.PipelineStage";
+
+    @Label("Stage")
+    private String stage;
+
+    @Label("Continue")
+    @Description("Whether the pipeline continued after this stage")
+    private boolean continued;
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public void setContinued(boolean continued) {
+        this.continued = continued;
+    }
+}
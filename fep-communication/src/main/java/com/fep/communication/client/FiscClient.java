@@ -77,6 +77,7 @@ public class FiscClient implements AutoCloseable {
         this.config = config;
         this.messageFactory = new Iso8583MessageFactory();
         this.messageFactory.setInstitutionId(config.getInstitutionId());
+        this.messageFactory.setTraceChannel(config.getConnectionName());
         this.workerGroup = new NioEventLoopGroup();
         this.bootstrap = createBootstrap();
     }
@@ -1,9 +1,11 @@
 package com.fep.communication.client;
 
+import com.fep.common.profiling.FiscRoundTripEvent;
 import com.fep.communication.codec.FiscMessageDecoder;
 import com.fep.communication.codec.FiscMessageEncoder;
 import com.fep.communication.config.ChannelFailureStrategy;
 import com.fep.communication.config.DualChannelConfig;
+import com.fep.communication.config.MessageDecodeMode;
 import com.fep.communication.exception.CommunicationException;
 import com.fep.communication.handler.ReceiveChannelHandler;
 import com.fep.communication.handler.SendChannelHandler;
@@ -132,8 +134,8 @@ public class FiscDualChannelClient implements AutoCloseable {
     /**
      * Creates a new FISC dual-channel client with ChannelMessageService.
      *
-     * <p>When ChannelMessageService is provided and config.enableGenericMessageTransform is true,
-     * incoming messages will be transformed to GenericMessage using the configured channel schema.
+     * <p>When ChannelMessageService is provided and the effective decode mode is GENERIC_VIEW,
+     * incoming messages carry a GenericMessageView parsed lazily with the configured channel schema.
      *
      * @param config the dual-channel configuration
      * @param channelMessageService the channel message service for schema-based message processing (may be null)
@@ -144,6 +146,8 @@ public class FiscDualChannelClient implements AutoCloseable {
         this.channelMessageService = channelMessageService;
         this.messageFactory = new Iso8583MessageFactory();
         this.messageFactory.setInstitutionId(config.getInstitutionId());
+        this.messageFactory.setTraceChannel(
+            config.getChannelId() != null ? config.getChannelId() : config.getConnectionName());
         this.pendingRequestManager = new PendingRequestManager(
             config.getConnectionName(), config.getReadTimeoutMs());
         this.workerGroup = new NioEventLoopGroup();
@@ -183,6 +187,24 @@ public class FiscDualChannelClient implements AutoCloseable {
         this.unsolicitedMessageHandler = handler;
     }
 
+    /**
+     * Checks if inbound messages should carry a GenericMessageView.
+     */
+    private boolean isGenericViewEnabled() {
+        return config.getEffectiveDecodeMode() == MessageDecodeMode.GENERIC_VIEW
+            && channelMessageService != null && config.getChannelId() != null;
+    }
+
+    /**
+     * Creates the inbound decoder for the configured decode mode.
+     */
+    private FiscMessageDecoder createDecoder() {
+        if (isGenericViewEnabled()) {
+            return new FiscMessageDecoder(channelMessageService, config.getChannelId());
+        }
+        return new FiscMessageDecoder(config.getChannelId());
+    }
+
     /**
      * Creates a Netty bootstrap for the specified channel role.
      */
@@ -213,7 +235,7 @@ public class FiscDualChannelClient implements AutoCloseable {
                     }
 
                     // Message codec
-                    pipeline.addLast("decoder", new FiscMessageDecoder());
+                    pipeline.addLast("decoder", createDecoder());
                     pipeline.addLast("encoder", new FiscMessageEncoder());
 
                     // Business logic handler
@@ -235,7 +257,7 @@ public class FiscDualChannelClient implements AutoCloseable {
                             unsolicitedMessageHandler,
                             channelMessageService,
                             config.getChannelId(),
-                            config.isEnableGenericMessageTransform()
+                            isGenericViewEnabled()
                         );
                         pipeline.addLast("handler", receiveHandler);
                     }
@@ -266,7 +288,7 @@ public class FiscDualChannelClient implements AutoCloseable {
                         new IdleStateHandler(idleSeconds * 2, idleSeconds, 0));
 
                     // Message codec
-                    pipeline.addLast("decoder", new FiscMessageDecoder());
+                    pipeline.addLast("decoder", createDecoder());
                     pipeline.addLast("encoder", new FiscMessageEncoder());
 
                     // Unified handler
@@ -278,7 +300,7 @@ public class FiscDualChannelClient implements AutoCloseable {
                         unsolicitedMessageHandler,
                         channelMessageService,
                         config.getChannelId(),
-                        config.isEnableGenericMessageTransform()
+                        isGenericViewEnabled()
                     );
                     pipeline.addLast("handler", unifiedHandler);
                 }
@@ -525,6 +547,7 @@ public class FiscDualChannelClient implements AutoCloseable {
         // Register pending request BEFORE sending
         CompletableFuture<Iso8583Message> responseFuture =
             pendingRequestManager.register(stan, timeoutMs);
+        traceRoundTrip(request, stan, responseFuture);
 
         // Send via appropriate channel (fire-and-forget)
         outChannel.writeAndFlush(request).addListener((ChannelFutureListener) writeFuture -> {
@@ -542,6 +565,29 @@ public class FiscDualChannelClient implements AutoCloseable {
         return responseFuture;
     }
 
+    /**
+     * Emits a {@link FiscRoundTripEvent} when the response arrives, if the event is recorded.
+     */
+    private void traceRoundTrip(Iso8583Message request, String stan, CompletableFuture<Iso8583Message> responseFuture) {
+        FiscRoundTripEvent event = new FiscRoundTripEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.begin();
+        responseFuture.whenComplete((response, error) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setKeys(config.getChannelId(), stan, request.getMti());
+                if (response != null) {
+                    event.setResponseCode(response.getFieldAsString(39));
+                } else {
+                    event.setError(error.getClass().getSimpleName());
+                }
+                event.commit();
+            }
+        });
+    }
+
     /**
      * Sends a message without waiting for response (fire and forget).
      *
@@ -940,6 +986,54 @@ public class FiscDualChannelClient implements AutoCloseable {
         return channelMessageService;
     }
 
+    /**
+     * Gets the configuration this client is running with.
+     *
+     * @return the live configuration (tunable fields change via {@link #applyTuning(DualChannelConfig)})
+     */
+    public DualChannelConfig getConfig() {
+        return config;
+    }
+
+    // ==================== Runtime Tuning ====================
+
+    /**
+     * Applies the tunable settings of a reloaded configuration without dropping the connection.
+     *
+     * <p>Copies timeouts, retry, heartbeat and failure-strategy settings. Requests already
+     * in flight keep the timeout they were sent with; the new connect timeout applies to
+     * the next (re)connect, and a running heartbeat is rescheduled if its interval changed.
+     * Endpoint, mode and socket settings are ignored here - they need a new client.
+     *
+     * @param tuned the reloaded configuration
+     */
+    public synchronized void applyTuning(DualChannelConfig tuned) {
+        boolean heartbeatChanged = config.getHeartbeatIntervalMs() != tuned.getHeartbeatIntervalMs();
+
+        config.setConnectTimeoutMs(tuned.getConnectTimeoutMs());
+        config.setReadTimeoutMs(tuned.getReadTimeoutMs());
+        config.setWriteTimeoutMs(tuned.getWriteTimeoutMs());
+        config.setHeartbeatIntervalMs(tuned.getHeartbeatIntervalMs());
+        config.setMaxRetryAttempts(tuned.getMaxRetryAttempts());
+        config.setRetryDelayMs(tuned.getRetryDelayMs());
+        config.setAutoReconnect(tuned.isAutoReconnect());
+        config.setFailureStrategy(tuned.getFailureStrategy());
+        config.setHealthCheckIntervalMs(tuned.getHealthCheckIntervalMs());
+
+        for (Bootstrap bootstrap : new Bootstrap[] {sendBootstrap, receiveBootstrap, unifiedBootstrap}) {
+            if (bootstrap != null) {
+                bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, tuned.getConnectTimeoutMs());
+            }
+        }
+
+        if (heartbeatChanged && heartbeatTask != null) {
+            startHeartbeat();
+        }
+        log.info("[{}] Applied runtime tuning (connectTimeout={}ms, readTimeout={}ms, heartbeat={}ms)",
+            config.getConnectionName(), config.getConnectTimeoutMs(), config.getReadTimeoutMs(),
+            config.getHeartbeatIntervalMs());
+    }
+
     // ==================== Disconnect and Close ====================
 
     /**
@@ -1,8 +1,11 @@
 package com.fep.communication.codec;
 
+import com.fep.common.profiling.ChannelResourceTracker;
+import com.fep.common.profiling.MessageDecodeEvent;
 import com.fep.message.iso8583.Iso8583Message;
 import com.fep.message.iso8583.parser.FiscMessageParser;
 import com.fep.message.iso8583.parser.MessageParser;
+import com.fep.message.service.ChannelMessageService;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
@@ -29,6 +32,11 @@ import java.util.List;
  * | N bytes|  M bytes |
  * +--------+----------+
  * </pre>
+ *
+ * <p>When created with a ChannelMessageService, each decoded message also carries a
+ * GenericMessageView over the same bytes. The ISO parse then stops at the STAN the
+ * handlers match on; the remaining fields are decoded only if something reads them,
+ * so schema-driven channels do not parse every frame twice.
  */
 @Slf4j
 public class FiscMessageDecoder extends ByteToMessageDecoder {
@@ -43,10 +51,19 @@ public class FiscMessageDecoder extends ByteToMessageDecoder {
     /** Maximum message size (to prevent memory attacks) */
     private static final int MAX_MESSAGE_SIZE = 65535;
 
+    /** STAN, the last field decoded up front when a GenericMessageView is attached */
+    private static final int STAN_FIELD = 11;
+
     private final MessageParser parser;
     private final LengthEncoding lengthEncoding;
     private final int lengthFieldBytes;
 
+    /** Service for GenericMessage views (null when views are disabled) */
+    private final ChannelMessageService channelMessageService;
+
+    /** Channel ID for view schema resolution */
+    private final String channelId;
+
     /**
      * Creates a decoder with default settings (2 bytes BCD).
      */
@@ -89,11 +106,48 @@ public class FiscMessageDecoder extends ByteToMessageDecoder {
      * @param lengthFieldBytes the number of bytes for length field
      */
     public FiscMessageDecoder(MessageParser parser, LengthEncoding lengthEncoding, int lengthFieldBytes) {
+        this(parser, lengthEncoding, lengthFieldBytes, null, null);
+    }
+
+    /**
+     * Creates a decoder with default settings (2 bytes BCD) whose decode events
+     * and resource usage are attributed to a channel.
+     *
+     * @param channelId the channel ID
+     */
+    public FiscMessageDecoder(String channelId) {
+        this(new FiscMessageParser(false), LengthEncoding.BCD, 2, null, channelId);
+    }
+
+    /**
+     * Creates a decoder with default settings (2 bytes BCD) that attaches a
+     * GenericMessageView to every decoded message.
+     *
+     * @param channelMessageService the service resolving the channel schema
+     * @param channelId the channel ID for schema resolution
+     */
+    public FiscMessageDecoder(ChannelMessageService channelMessageService, String channelId) {
+        this(new FiscMessageParser(false), LengthEncoding.BCD, 2, channelMessageService, channelId);
+    }
+
+    /**
+     * Creates a decoder with full configuration and optional GenericMessage views.
+     *
+     * @param parser the message parser
+     * @param lengthEncoding the length field encoding
+     * @param lengthFieldBytes the number of bytes for length field
+     * @param channelMessageService the service for GenericMessage views (may be null)
+     * @param channelId the channel ID for schema resolution (may be null)
+     */
+    public FiscMessageDecoder(MessageParser parser, LengthEncoding lengthEncoding, int lengthFieldBytes,
+                              ChannelMessageService channelMessageService, String channelId) {
         this.parser = parser;
         this.lengthEncoding = lengthEncoding;
         this.lengthFieldBytes = lengthFieldBytes;
-        log.debug("FiscMessageDecoder initialized: encoding={}, lengthBytes={}",
-                lengthEncoding, lengthFieldBytes);
+        this.channelMessageService = channelId != null ? channelMessageService : null;
+        this.channelId = channelId;
+        log.debug("FiscMessageDecoder initialized: encoding={}, lengthBytes={}, genericView={}",
+                lengthEncoding, lengthFieldBytes, this.channelMessageService != null);
     }
 
     @Override
@@ -156,10 +210,22 @@ public class FiscMessageDecoder extends ByteToMessageDecoder {
         log.info("Received message: {} bytes (length field: {} {})",
                 messageLength, lengthFieldBytes, lengthEncoding);
 
-        try {
-            Iso8583Message message = parser.parse(messageData);
+        MessageDecodeEvent event = new MessageDecodeEvent();
+        event.begin();
+        try (ChannelResourceTracker.Scope ignored = ChannelResourceTracker.getInstance().open(channelId)) {
+            Iso8583Message message = channelMessageService != null
+                    ? parser.parseThrough(messageData, STAN_FIELD)
+                    : parser.parse(messageData);
             message.setRawData(messageData);
+            if (channelMessageService != null) {
+                message.setGenericView(channelMessageService.createView(channelId, message.getMti(), messageData));
+            }
             out.add(message);
+            if (event.shouldCommit()) {
+                event.setKeys(channelId, message.getFieldAsString(11), message.getMti());
+                event.setFrameBytes(messageLength);
+                event.commit();
+            }
             log.info("Decoded message: MTI={}, STAN={}", message.getMti(), message.getFieldAsString(11));
         } catch (Exception e) {
             log.error("Failed to decode message: {} | Raw data: {}",
@@ -252,4 +318,11 @@ public class FiscMessageDecoder extends ByteToMessageDecoder {
     public int getLengthFieldBytes() {
         return lengthFieldBytes;
     }
+
+    /**
+     * Checks if decoded messages carry a GenericMessageView.
+     */
+    public boolean isGenericViewEnabled() {
+        return channelMessageService != null;
+    }
 }
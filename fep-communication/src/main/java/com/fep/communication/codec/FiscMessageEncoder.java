@@ -11,6 +11,9 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Netty encoder for ISO 8583 messages.
  * Converts Iso8583Message objects to bytes for transmission.
+ *
+ * <p>The output buffer comes from the channel's (pooled) allocator, sized by the
+ * assembler's estimate, and the message is assembled straight into it.
  */
 @Slf4j
 public class FiscMessageEncoder extends MessageToByteEncoder<Iso8583Message> {
@@ -25,13 +28,19 @@ public class FiscMessageEncoder extends MessageToByteEncoder<Iso8583Message> {
         this.assembler = assembler;
     }
 
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Iso8583Message msg, boolean preferDirect) {
+        int size = assembler.estimateSize(msg);
+        return preferDirect ? ctx.alloc().ioBuffer(size) : ctx.alloc().heapBuffer(size);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, Iso8583Message msg, ByteBuf out) throws Exception {
         log.debug("Encoding message: MTI={}, traceId={}", msg.getMti(), msg.getTraceId());
 
-        byte[] data = assembler.assemble(msg);
-        out.writeBytes(data);
+        int start = out.writerIndex();
+        assembler.assemble(msg, out);
 
-        log.trace("Encoded {} bytes for MTI={}", data.length, msg.getMti());
+        log.trace("Encoded {} bytes for MTI={}", out.writerIndex() - start, msg.getMti());
     }
 }
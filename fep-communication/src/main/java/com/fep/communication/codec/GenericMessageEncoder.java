@@ -18,10 +18,16 @@ import lombok.extern.slf4j.Slf4j;
  *
  * <p>This encoder can handle both GenericMessage and Iso8583Message objects.
  * Iso8583Message objects are converted to GenericMessage before encoding.
+ *
+ * <p>The output buffer comes from the channel's (pooled) allocator, sized from the
+ * schema, and the message is assembled straight into it.
  */
 @Slf4j
 public class GenericMessageEncoder extends MessageToByteEncoder<Object> {
 
+    /** Initial output buffer size when the message must be converted before its size is known */
+    private static final int DEFAULT_BUFFER_SIZE = 512;
+
     private final MessageSchema schema;
     private final GenericMessageAssembler assembler;
 
@@ -42,6 +48,13 @@ public class GenericMessageEncoder extends MessageToByteEncoder<Object> {
         return msg instanceof GenericMessage || msg instanceof Iso8583Message;
     }
 
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Object msg, boolean preferDirect) {
+        int size = msg instanceof GenericMessage genericMessage
+                ? assembler.estimateSize(genericMessage) : DEFAULT_BUFFER_SIZE;
+        return preferDirect ? ctx.alloc().ioBuffer(size) : ctx.alloc().heapBuffer(size);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
         GenericMessage genericMessage;
@@ -57,13 +70,11 @@ public class GenericMessageEncoder extends MessageToByteEncoder<Object> {
         String mti = genericMessage.getFieldAsString("mti");
         log.debug("Encoding message: schema={}, MTI={}", schema.getName(), mti);
 
-        // Assemble message (includes length prefix based on schema config)
-        byte[] data = assembler.assemble(genericMessage);
-
-        // Write to output buffer
-        out.writeBytes(data);
+        // Assemble straight into the output buffer (includes length prefix based on schema config)
+        int start = out.writerIndex();
+        assembler.assemble(genericMessage, out);
 
-        log.debug("Encoded message: {} bytes, MTI={}", data.length, mti);
+        log.debug("Encoded message: {} bytes, MTI={}", out.writerIndex() - start, mti);
     }
 
     /**
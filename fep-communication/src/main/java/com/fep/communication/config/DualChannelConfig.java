@@ -15,6 +15,11 @@ import lombok.Setter;
  * </ul>
  *
  * <p>Each channel can have its own primary and backup host configuration.
+ *
+ * <p>The tunable settings (timeouts, retry, heartbeat, failure strategy and health
+ * check interval) are volatile: a running client's configuration is updated in
+ * place by {@code FiscDualChannelClient.applyTuning} while I/O and caller threads
+ * read it.
  */
 @Getter
 @Setter
@@ -53,15 +58,15 @@ public class DualChannelConfig {
 
     /** Connection timeout in milliseconds */
     @Builder.Default
-    private int connectTimeoutMs = 10000;
+    private volatile int connectTimeoutMs = 10000;
 
     /** Read timeout (response timeout) in milliseconds */
     @Builder.Default
-    private int readTimeoutMs = 30000;
+    private volatile int readTimeoutMs = 30000;
 
     /** Write timeout in milliseconds */
     @Builder.Default
-    private int writeTimeoutMs = 10000;
+    private volatile int writeTimeoutMs = 10000;
 
     /** Idle timeout before considering connection stale in milliseconds */
     @Builder.Default
@@ -69,19 +74,19 @@ public class DualChannelConfig {
 
     /** Heartbeat interval in milliseconds */
     @Builder.Default
-    private int heartbeatIntervalMs = 30000;
+    private volatile int heartbeatIntervalMs = 30000;
 
     /** Maximum retry attempts for reconnection */
     @Builder.Default
-    private int maxRetryAttempts = 3;
+    private volatile int maxRetryAttempts = 3;
 
     /** Delay between retry attempts in milliseconds */
     @Builder.Default
-    private int retryDelayMs = 5000;
+    private volatile int retryDelayMs = 5000;
 
     /** Whether to enable auto-reconnect */
     @Builder.Default
-    private boolean autoReconnect = true;
+    private volatile boolean autoReconnect = true;
 
     /** TCP keep-alive enabled */
     @Builder.Default
@@ -119,6 +124,12 @@ public class DualChannelConfig {
     @Builder.Default
     private boolean enableGenericMessageTransform = false;
 
+    /**
+     * Representations decoded for inbound messages.
+     * When null, GENERIC_VIEW if enableGenericMessageTransform is set, otherwise ISO8583.
+     */
+    private MessageDecodeMode decodeMode;
+
     /**
      * Message schema for GenericMessage parsing.
      * When set, the decoder will use GenericMessageParser with this schema
@@ -140,11 +151,11 @@ public class DualChannelConfig {
 
     /** Strategy for handling single channel failure */
     @Builder.Default
-    private ChannelFailureStrategy failureStrategy = ChannelFailureStrategy.FAIL_WHEN_BOTH_DOWN;
+    private volatile ChannelFailureStrategy failureStrategy = ChannelFailureStrategy.FAIL_WHEN_BOTH_DOWN;
 
     /** Health check interval in milliseconds */
     @Builder.Default
-    private int healthCheckIntervalMs = 10000;
+    private volatile int healthCheckIntervalMs = 10000;
 
     /** Whether to enable dual-channel mode (for backward compatibility) */
     @Builder.Default
@@ -258,6 +269,18 @@ public class DualChannelConfig {
         return !dualChannelMode;
     }
 
+    /**
+     * Gets the effective decode mode.
+     *
+     * @return decodeMode if set, otherwise derived from enableGenericMessageTransform
+     */
+    public MessageDecodeMode getEffectiveDecodeMode() {
+        if (decodeMode != null) {
+            return decodeMode;
+        }
+        return enableGenericMessageTransform ? MessageDecodeMode.GENERIC_VIEW : MessageDecodeMode.ISO8583;
+    }
+
     /**
      * Gets the effective receive port.
      * In single-channel mode, returns sendPort.
@@ -4,6 +4,7 @@ import com.fep.communication.manager.DynamicConnectionManager;
 import com.fep.message.channel.ChannelConnectionConfiguration;
 import com.fep.message.channel.ChannelConnectionRegistry;
 import com.fep.message.channel.ChannelSchemaConfiguration;
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import com.fep.message.service.ChannelMessageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -66,8 +67,13 @@ public class DynamicConnectionConfiguration {
      * <p>The manager is automatically subscribed to the registry for
      * configuration change notifications.
      *
+     * <p>When a {@link TraceNumberAllocator} bean exists it is created first and
+     * handed to every client, so the sign-on sent from the manager's
+     * {@code @PostConstruct} already draws STANs from the persistent allocator.
+     *
      * @param registry the channel connection registry
      * @param channelMessageService the channel message service (optional, may be null)
+     * @param traceNumberAllocator the STAN/RRN allocator (optional, may be null)
      * @return configured DynamicConnectionManager
      */
     @Bean
@@ -75,9 +81,12 @@ public class DynamicConnectionConfiguration {
     public DynamicConnectionManager dynamicConnectionManager(
             ChannelConnectionRegistry registry,
             @org.springframework.beans.factory.annotation.Autowired(required = false)
-            ChannelMessageService channelMessageService) {
+            ChannelMessageService channelMessageService,
+            @org.springframework.beans.factory.annotation.Autowired(required = false)
+            TraceNumberAllocator traceNumberAllocator) {
 
         DynamicConnectionManager manager = new DynamicConnectionManager(registry, channelMessageService);
+        manager.setTraceNumberAllocator(traceNumberAllocator);
 
         manager.setAutoConnect(autoConnect);
         manager.setAutoSignOn(autoSignOn);
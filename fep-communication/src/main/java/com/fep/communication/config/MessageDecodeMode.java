@@ -0,0 +1,30 @@
+package com.fep.communication.config;
+
+/**
+ * Defines which message representations a client channel decodes inbound frames into.
+ *
+ * <p>Each frame becomes an Iso8583Message, which the handlers need for STAN
+ * matching. The mode decides whether a GenericMessage is also offered:
+ * <ul>
+ *   <li>{@link #ISO8583} - Iso8583Message only</li>
+ *   <li>{@link #GENERIC_VIEW} - Iso8583Message decoded through the STAN, plus a lazily
+ *       parsed GenericMessage view</li>
+ * </ul>
+ */
+public enum MessageDecodeMode {
+
+    /**
+     * Decode with FiscMessageParser only.
+     * <p>Used for: channels without schema-driven processing
+     */
+    ISO8583,
+
+    /**
+     * Decode the MTI and fields through the STAN with FiscMessageParser and attach a
+     * GenericMessageView over the same bytes. The channel schema parse runs only when the
+     * view is first read, and all readers share it; the remaining ISO fields are decoded
+     * only if a caller reads them from the Iso8583Message.
+     * <p>Used for: channels with a schema in ChannelSchemaRegistry
+     */
+    GENERIC_VIEW
+}
@@ -5,6 +5,7 @@ import com.fep.communication.client.ConnectionListener;
 import com.fep.communication.client.ConnectionState;
 import com.fep.communication.manager.PendingRequestManager;
 import com.fep.message.generic.message.GenericMessage;
+import com.fep.message.generic.message.GenericMessageView;
 import com.fep.message.iso8583.Iso8583Message;
 import com.fep.message.service.ChannelMessageService;
 import io.netty.channel.ChannelDuplexHandler;
@@ -347,6 +348,9 @@ public class ReceiveChannelHandler extends ChannelDuplexHandler {
      * <p>This method attempts to transform the message using ChannelMessageService.
      * If transformation fails or is not configured, returns null.
      *
+     * <p>Returns the message's GenericMessageView, so the schema parse runs at most
+     * once per message however many callers ask.
+     *
      * @param message the ISO 8583 message to transform
      * @return the transformed GenericMessage, or null if transformation is disabled or fails
      */
@@ -357,20 +361,28 @@ public class ReceiveChannelHandler extends ChannelDuplexHandler {
 
         try {
             String mti = message.getMti();
-            byte[] rawData = message.getRawData();
+            GenericMessageView view = message.getGenericView();
 
-            if (rawData == null || rawData.length == 0) {
-                log.debug("[{}] Cannot transform message: no raw data available", connectionName);
-                return null;
-            }
+            if (view == null) {
+                // Decoded without a view: build one so later callers share this parse
+                byte[] rawData = message.getRawData();
+
+                if (rawData == null || rawData.length == 0) {
+                    log.debug("[{}] Cannot transform message: no raw data available", connectionName);
+                    return null;
+                }
+
+                if (!channelMessageService.hasChannel(channelId)) {
+                    log.debug("[{}] Cannot transform message: channel '{}' not found in registry",
+                        connectionName, channelId);
+                    return null;
+                }
 
-            if (!channelMessageService.hasChannel(channelId)) {
-                log.debug("[{}] Cannot transform message: channel '{}' not found in registry",
-                    connectionName, channelId);
-                return null;
+                view = channelMessageService.createView(channelId, mti, rawData);
+                message.setGenericView(view);
             }
 
-            GenericMessage genericMessage = channelMessageService.parseMessage(channelId, mti, rawData);
+            GenericMessage genericMessage = view.get();
             log.debug("[{}] Message transformed to GenericMessage: MTI={}, schema={}",
                 connectionName, mti, genericMessage.getSchema().getName());
             return genericMessage;
@@ -0,0 +1,144 @@
+package com.fep.communication.manager;
+
+import com.fep.communication.config.DualChannelConfig;
+import com.fep.message.generic.schema.MessageSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Field-level difference between the running and the reloaded configuration of a channel.
+ *
+ * <p>Fields are classified by what applying them takes:
+ * <ul>
+ *   <li><b>Tunable</b> - timeouts, retry and heartbeat settings, failure strategy.
+ *       The client reads these on every use, so they are applied in place via
+ *       {@link com.fep.communication.client.FiscDualChannelClient#applyTuning(DualChannelConfig)}.</li>
+ *   <li><b>Disruptive</b> - endpoints, channel mode, institution, schema, decode mode and
+ *       socket options. These are baked into the bootstraps and pipelines, so the
+ *       connection has to be replaced.</li>
+ * </ul>
+ *
+ * <p>Example:
+ * <pre>{@code
+ * ConnectionConfigDiff diff = ConnectionConfigDiff.between(client.getConfig(), reloaded);
+ * if (diff.isDisruptive()) {
+ *     // build, connect and sign on a replacement, then switch
+ * } else if (!diff.isEmpty()) {
+ *     client.applyTuning(reloaded);
+ * }
+ * }</pre>
+ */
+public final class ConnectionConfigDiff {
+
+    private record FieldSpec(String name, Function<DualChannelConfig, Object> extractor, boolean disruptive) {
+    }
+
+    private static final List<FieldSpec> FIELDS = List.of(
+            disruptive("sendHost", DualChannelConfig::getSendHost),
+            disruptive("sendPort", DualChannelConfig::getSendPort),
+            disruptive("sendBackupHost", DualChannelConfig::getSendBackupHost),
+            disruptive("sendBackupPort", DualChannelConfig::getSendBackupPort),
+            disruptive("receiveHost", DualChannelConfig::getReceiveHost),
+            disruptive("receivePort", DualChannelConfig::getReceivePort),
+            disruptive("receiveBackupHost", DualChannelConfig::getReceiveBackupHost),
+            disruptive("receiveBackupPort", DualChannelConfig::getReceiveBackupPort),
+            disruptive("dualChannelMode", DualChannelConfig::isDualChannelMode),
+            disruptive("connectionMode", DualChannelConfig::getConnectionMode),
+            disruptive("institutionId", DualChannelConfig::getInstitutionId),
+            disruptive("messageSchema", config -> schemaName(config.getMessageSchema())),
+            disruptive("decodeMode", DualChannelConfig::getEffectiveDecodeMode),
+            disruptive("enableGenericMessageTransform", DualChannelConfig::isEnableGenericMessageTransform),
+            disruptive("idleTimeoutMs", DualChannelConfig::getIdleTimeoutMs),
+            disruptive("tcpKeepAlive", DualChannelConfig::isTcpKeepAlive),
+            disruptive("tcpNoDelay", DualChannelConfig::isTcpNoDelay),
+            disruptive("receiveBufferSize", DualChannelConfig::getReceiveBufferSize),
+            disruptive("sendBufferSize", DualChannelConfig::getSendBufferSize),
+            tunable("connectTimeoutMs", DualChannelConfig::getConnectTimeoutMs),
+            tunable("readTimeoutMs", DualChannelConfig::getReadTimeoutMs),
+            tunable("writeTimeoutMs", DualChannelConfig::getWriteTimeoutMs),
+            tunable("heartbeatIntervalMs", DualChannelConfig::getHeartbeatIntervalMs),
+            tunable("maxRetryAttempts", DualChannelConfig::getMaxRetryAttempts),
+            tunable("retryDelayMs", DualChannelConfig::getRetryDelayMs),
+            tunable("autoReconnect", DualChannelConfig::isAutoReconnect),
+            tunable("failureStrategy", DualChannelConfig::getFailureStrategy),
+            tunable("healthCheckIntervalMs", DualChannelConfig::getHealthCheckIntervalMs)
+    );
+
+    private final List<String> changedFields;
+    private final List<String> disruptiveFields;
+
+    private ConnectionConfigDiff(List<String> changedFields, List<String> disruptiveFields) {
+        this.changedFields = Collections.unmodifiableList(changedFields);
+        this.disruptiveFields = Collections.unmodifiableList(disruptiveFields);
+    }
+
+    /**
+     * Compares two configurations field by field.
+     *
+     * @param current the configuration the connection is running with
+     * @param next    the reloaded configuration
+     * @return the difference
+     */
+    public static ConnectionConfigDiff between(DualChannelConfig current, DualChannelConfig next) {
+        List<String> changed = new ArrayList<>();
+        List<String> disruptive = new ArrayList<>();
+        for (FieldSpec field : FIELDS) {
+            if (!Objects.equals(field.extractor().apply(current), field.extractor().apply(next))) {
+                changed.add(field.name());
+                if (field.disruptive()) {
+                    disruptive.add(field.name());
+                }
+            }
+        }
+        return new ConnectionConfigDiff(changed, disruptive);
+    }
+
+    /**
+     * Checks whether nothing relevant changed.
+     */
+    public boolean isEmpty() {
+        return changedFields.isEmpty();
+    }
+
+    /**
+     * Checks whether any changed field requires replacing the connection.
+     */
+    public boolean isDisruptive() {
+        return !disruptiveFields.isEmpty();
+    }
+
+    /**
+     * Names of all changed fields, in declaration order.
+     */
+    public List<String> getChangedFields() {
+        return changedFields;
+    }
+
+    /**
+     * Names of the changed fields that require replacing the connection.
+     */
+    public List<String> getDisruptiveFields() {
+        return disruptiveFields;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionConfigDiff[changed=" + changedFields + ", disruptive=" + disruptiveFields + "]";
+    }
+
+    private static FieldSpec disruptive(String name, Function<DualChannelConfig, Object> extractor) {
+        return new FieldSpec(name, extractor, true);
+    }
+
+    private static FieldSpec tunable(String name, Function<DualChannelConfig, Object> extractor) {
+        return new FieldSpec(name, extractor, false);
+    }
+
+    private static String schemaName(MessageSchema schema) {
+        return schema != null ? schema.getName() : null;
+    }
+}
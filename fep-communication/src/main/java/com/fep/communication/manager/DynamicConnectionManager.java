@@ -14,6 +14,7 @@ import com.fep.message.channel.ChannelSchemaRegistry;
 import com.fep.message.channel.ConnectionProfile;
 import com.fep.message.generic.schema.MessageSchema;
 import com.fep.message.interfaces.ConnectionSubscriber;
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import com.fep.message.service.ChannelMessageService;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,8 @@ import jakarta.annotation.PreDestroy;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -56,6 +59,11 @@ import java.util.stream.Collectors;
  *     ↓
  * For removed channels or active=false:
  *     signOff() → close() → remove from connections map
+ *     ↓
+ * For changed channels ({@link ConnectionConfigDiff}):
+ *     tunable fields only → client.applyTuning()
+ *     disruptive fields   → new client connect() → signOn() → switch map entry
+ *                           → old client drains pending requests → close()
  * </pre>
  *
  * <p>Usage example:
@@ -79,6 +87,12 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DynamicConnectionManager implements ConnectionSubscriber {
 
+    /** Poll interval while a replaced client drains its pending requests */
+    private static final long DRAIN_POLL_INTERVAL_MS = 50L;
+
+    /** Grace added to the read timeout before a draining client is closed regardless */
+    private static final long DRAIN_GRACE_MS = 1000L;
+
     /** Client connections (FEP connects to remote servers) */
     private final ConcurrentHashMap<String, FiscDualChannelClient> clientConnections = new ConcurrentHashMap<>();
 
@@ -93,6 +107,14 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
     private final List<ConnectionLifecycleListener> lifecycleListeners = new CopyOnWriteArrayList<>();
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
+    /** Replaced clients still answering their in-flight requests */
+    private final Set<FiscDualChannelClient> retiringClients = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService drainScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "connection-drain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private volatile boolean autoConnect = true;
     private volatile boolean autoSignOn = true;
     private volatile long gracefulShutdownTimeoutMs = 10000L;
@@ -101,6 +123,13 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
     @Setter
     private ServerMessageHandler serverMessageHandler;
 
+    /**
+     * STAN/RRN allocator given to every client's message factory; when null the
+     * factories use {@link TraceNumberAllocator#getDefault()}
+     */
+    @Setter
+    private TraceNumberAllocator traceNumberAllocator;
+
     /**
      * Creates a new DynamicConnectionManager.
      *
@@ -173,6 +202,14 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
                 }
             }
             serverConnections.clear();
+
+            // Close replaced clients that are still draining
+            drainScheduler.shutdownNow();
+            for (FiscDualChannelClient client : new ArrayList<>(retiringClients)) {
+                if (retiringClients.remove(client)) {
+                    closeRetiredClient(client.getConnectionName(), client);
+                }
+            }
         } finally {
             lock.writeLock().unlock();
         }
@@ -207,18 +244,13 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
     public void onConnectionChanged(String channelId, ChannelConnection connection) {
         log.debug("Channel connection changed: {}, active={}", channelId, connection.isActive());
 
+        PendingSwap swap = null;
         lock.writeLock().lock();
         try {
             if (connection.isActive()) {
                 // Add or update connection
                 if (connections.containsKey(channelId)) {
-                    // Check if configuration actually changed
-                    FiscDualChannelClient existing = connections.get(channelId);
-                    if (needsRecreation(existing, connection)) {
-                        log.info("Configuration changed for {}, recreating connection", channelId);
-                        closeConnectionGracefully(channelId);
-                        createAndConnectClient(channelId, connection);
-                    }
+                    swap = reconcileClient(channelId, connection);
                 } else {
                     createAndConnectClient(channelId, connection);
                 }
@@ -231,6 +263,9 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
         } finally {
             lock.writeLock().unlock();
         }
+        if (swap != null) {
+            swapClient(swap);
+        }
     }
 
     /**
@@ -637,6 +672,7 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
      * Syncs connections with the current configuration.
      */
     private void syncConnections(Map<String, ChannelConnection> configuredConnections) {
+        List<PendingSwap> swaps = new ArrayList<>();
         lock.writeLock().lock();
         try {
             Set<String> configuredIds = configuredConnections.keySet();
@@ -661,6 +697,22 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
                 }
             }
 
+            // Apply changed configuration to existing client connections
+            for (String channelId : currentClientIds) {
+                ChannelConnection config = configuredConnections.get(channelId);
+                if (config != null && config.isActive() && clientConnections.containsKey(channelId)) {
+                    try {
+                        PendingSwap swap = reconcileClient(channelId, config);
+                        if (swap != null) {
+                            swaps.add(swap);
+                        }
+                    } catch (Exception e) {
+                        log.error("Failed to apply configuration change to {}: {}", channelId, e.getMessage());
+                        notifyConnectionFailed(channelId, e);
+                    }
+                }
+            }
+
             // Add new active connections
             for (Map.Entry<String, ChannelConnection> entry : configuredConnections.entrySet()) {
                 String channelId = entry.getKey();
@@ -679,11 +731,20 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
                 }
             }
 
-            log.info("Connection sync complete: {} clients, {} servers",
-                    clientConnections.size(), serverConnections.size());
+            log.info("Connection sync complete: {} clients, {} servers ({} replacements pending)",
+                    clientConnections.size(), serverConnections.size(), swaps.size());
         } finally {
             lock.writeLock().unlock();
         }
+
+        for (PendingSwap swap : swaps) {
+            try {
+                swapClient(swap);
+            } catch (Exception e) {
+                log.error("Failed to replace connection {}: {}", swap.channelId(), e.getMessage());
+                notifyConnectionFailed(swap.channelId(), e);
+            }
+        }
     }
 
     /**
@@ -789,7 +850,7 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
     private FiscDualChannelClient createAndConnectClient(String channelId, ChannelConnection config,
                                                           ConnectionProfile profile) {
         DualChannelConfig dualConfig = buildDualChannelConfig(channelId, config, profile);
-        FiscDualChannelClient client = new FiscDualChannelClient(dualConfig, channelMessageService);
+        FiscDualChannelClient client = newClient(dualConfig);
 
         // Always store the client first (it has auto-reconnect capability)
         clientConnections.put(channelId, client);
@@ -797,25 +858,178 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
         log.info("Created client for channel: {} (autoReconnect={})", channelId, dualConfig.isAutoReconnect());
 
         if (autoConnect) {
-            try {
-                client.connect().get(dualConfig.getConnectTimeoutMs() * 2L, TimeUnit.MILLISECONDS);
-                log.info("Connection established for channel: {}", channelId);
+            // Don't remove the client on failure - it will auto-reconnect in the background
+            connectAndSignOn(channelId, client);
+        }
 
-                if (autoSignOn) {
-                    client.signOn().get(dualConfig.getReadTimeoutMs(), TimeUnit.MILLISECONDS);
-                    log.info("Sign-on completed for channel: {}", channelId);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("Connection interrupted for channel: {} (will auto-reconnect)", channelId);
-            } catch (java.util.concurrent.ExecutionException | java.util.concurrent.TimeoutException e) {
-                // Don't remove the client - it will auto-reconnect in the background
-                log.warn("Initial connection failed for channel {}: {} (auto-reconnect enabled, will retry)",
-                        channelId, e.getMessage());
+        return client;
+    }
+
+    private FiscDualChannelClient newClient(DualChannelConfig dualConfig) {
+        FiscDualChannelClient client = new FiscDualChannelClient(dualConfig, channelMessageService);
+        if (traceNumberAllocator != null) {
+            client.getMessageFactory().setTraceNumberAllocator(traceNumberAllocator);
+        }
+        return client;
+    }
+
+    /**
+     * Connects a client and, if enabled, signs it on.
+     *
+     * @return true if the client came up, false if it failed or timed out
+     */
+    private boolean connectAndSignOn(String channelId, FiscDualChannelClient client) {
+        DualChannelConfig dualConfig = client.getConfig();
+        try {
+            client.connect().get(dualConfig.getConnectTimeoutMs() * 2L, TimeUnit.MILLISECONDS);
+            log.info("Connection established for channel: {}", channelId);
+
+            if (autoSignOn) {
+                client.signOn().get(dualConfig.getReadTimeoutMs(), TimeUnit.MILLISECONDS);
+                log.info("Sign-on completed for channel: {}", channelId);
             }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Connection interrupted for channel: {} (will auto-reconnect)", channelId);
+        } catch (java.util.concurrent.ExecutionException | java.util.concurrent.TimeoutException e) {
+            log.warn("Initial connection failed for channel {}: {} (auto-reconnect enabled, will retry)",
+                    channelId, e.getMessage());
         }
+        return false;
+    }
 
-        return client;
+    // ==================== Configuration Reconciliation ====================
+
+    /**
+     * Applies a changed configuration to an existing client connection.
+     *
+     * <p>Tunable changes are applied in place. Disruptive changes replace the client
+     * make-before-break: they are returned as a {@link PendingSwap} for the caller to run
+     * via {@link #swapClient} once it has released the write lock. A switch to server mode
+     * restarts the endpoint. Must be called with the write lock held.
+     *
+     * @return the replacement to make, or null if nothing is left to do
+     */
+    private PendingSwap reconcileClient(String channelId, ChannelConnection config) {
+        FiscDualChannelClient existing = clientConnections.get(channelId);
+        ConnectionProfile profile = config.getResolvedConnectionProfile();
+        if (existing == null || profile == null) {
+            return null;
+        }
+
+        if (profile.isServerMode()) {
+            log.info("Channel {} switched to server mode, restarting endpoint", channelId);
+            closeClientConnectionGracefully(channelId);
+            createAndConnectEndpoint(channelId, config);
+            return null;
+        }
+
+        DualChannelConfig next = buildDualChannelConfig(channelId, config, profile);
+        ConnectionConfigDiff diff = ConnectionConfigDiff.between(existing.getConfig(), next);
+        if (diff.isEmpty()) {
+            log.debug("Configuration unchanged for {}", channelId);
+            return null;
+        }
+        if (!diff.isDisruptive()) {
+            log.info("Applying configuration change to {} in place: {}", channelId, diff.getChangedFields());
+            existing.applyTuning(next);
+            return null;
+        }
+
+        log.info("Configuration change for {} requires a new connection: {}", channelId, diff.getDisruptiveFields());
+        return new PendingSwap(channelId, existing, next);
+    }
+
+    /**
+     * Replaces a client without a gap in service. Must be called without the lock held.
+     *
+     * <p>The replacement is connected and signed on outside the lock, so lookups keep
+     * being served by the current client meanwhile; the write lock is taken only to
+     * switch the map entry. If the replacement cannot come up while the current client
+     * is still connected, the current client keeps serving and the change is reported as
+     * a failure. If the entry changed in the meantime (removed, or replaced by a newer
+     * change) the replacement is discarded. The replaced client is closed once its
+     * pending requests have drained.
+     */
+    private void swapClient(PendingSwap swap) {
+        String channelId = swap.channelId();
+        FiscDualChannelClient existing = swap.existing();
+        FiscDualChannelClient replacement = newClient(swap.next());
+
+        boolean ready = !autoConnect || connectAndSignOn(channelId, replacement);
+        if (!ready && existing.isConnected()) {
+            log.warn("Replacement connection for {} did not come up, keeping current connection", channelId);
+            closeRetiredClient(channelId, replacement);
+            notifyConnectionFailed(channelId,
+                    new IllegalStateException("Replacement connection failed for: " + channelId));
+            return;
+        }
+
+        boolean switched;
+        lock.writeLock().lock();
+        try {
+            switched = clientConnections.replace(channelId, existing, replacement);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!switched) {
+            log.warn("Connection {} changed while its replacement was connecting, discarding replacement",
+                    channelId);
+            closeRetiredClient(channelId, replacement);
+            return;
+        }
+        notifyConnectionRecreated(channelId, replacement);
+        log.info("Switched channel {} to new connection", channelId);
+
+        retireClient(channelId, existing);
+    }
+
+    /**
+     * Closes a replaced client once it has no pending requests, or after its read timeout.
+     *
+     * <p>No sign-off is sent: sign-on state is per institution, and the replacement is
+     * already signed on.
+     */
+    private void retireClient(String channelId, FiscDualChannelClient client) {
+        retiringClients.add(client);
+        long deadline = System.currentTimeMillis() + client.getConfig().getReadTimeoutMs() + DRAIN_GRACE_MS;
+        drainAndClose(channelId, client, deadline);
+    }
+
+    private void drainAndClose(String channelId, FiscDualChannelClient client, long deadline) {
+        int pending = client.getPendingRequestManager().getPendingCount();
+        if (pending > 0 && System.currentTimeMillis() < deadline && !drainScheduler.isShutdown()) {
+            drainScheduler.schedule(() -> drainAndClose(channelId, client, deadline),
+                    DRAIN_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            return;
+        }
+        if (pending > 0) {
+            log.warn("Closing replaced connection for {} with {} requests still pending", channelId, pending);
+        }
+        if (retiringClients.remove(client)) {
+            closeRetiredClient(channelId, client);
+        }
+    }
+
+    private void closeRetiredClient(String channelId, FiscDualChannelClient client) {
+        try {
+            client.close();
+            log.debug("Replaced client closed for channel: {}", channelId);
+        } catch (Exception e) {
+            log.warn("Error closing replaced client {}: {}", channelId, e.getMessage());
+        }
+    }
+
+    /**
+     * A disruptive change found under the write lock, to be applied after it is released.
+     *
+     * @param channelId channel whose client is replaced
+     * @param existing  client the replacement must take over from
+     * @param next      configuration of the replacement
+     */
+    private record PendingSwap(String channelId, FiscDualChannelClient existing, DualChannelConfig next) {
     }
 
     /**
@@ -947,16 +1161,6 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
         notifyConnectionRemoved(channelId);
     }
 
-    /**
-     * Checks if a connection needs to be recreated due to configuration change.
-     */
-    private boolean needsRecreation(FiscDualChannelClient existing, ChannelConnection newConfig) {
-        // For now, we don't support in-place reconfiguration
-        // Any configuration change requires recreation
-        // Future enhancement: compare actual config values
-        return true;
-    }
-
     // ==================== Notification Methods ====================
 
     private void notifyConnectionAdded(String channelId, FiscDualChannelClient client) {
@@ -969,6 +1173,16 @@ public class DynamicConnectionManager implements ConnectionSubscriber {
         }
     }
 
+    private void notifyConnectionRecreated(String channelId, FiscDualChannelClient client) {
+        for (ConnectionLifecycleListener listener : lifecycleListeners) {
+            try {
+                listener.onConnectionRecreated(channelId, client);
+            } catch (Exception e) {
+                log.error("Lifecycle listener error on recreate: {}", e.getMessage());
+            }
+        }
+    }
+
     private void notifyConnectionRemoved(String channelId) {
         for (ConnectionLifecycleListener listener : lifecycleListeners) {
             try {
@@ -219,8 +219,8 @@ public class FiscDualChannelServer implements AutoCloseable {
                             pipeline.addLast("decoder", new GenericMessageDecoder(config.getMessageSchema()));
                             pipeline.addLast("encoder", new GenericMessageEncoder(config.getMessageSchema()));
                         } else {
-                            pipeline.addLast("decoder", new FiscMessageDecoder(
-                                    FiscMessageDecoder.LengthEncoding.ASCII, 4));
+                            // Same 2-byte BCD length prefix the encoder writes
+                            pipeline.addLast("decoder", new FiscMessageDecoder(config.getChannelId()));
                             pipeline.addLast("encoder", new FiscMessageEncoder());
                         }
                         if (isSendChannel) {
@@ -275,8 +275,8 @@ public class FiscDualChannelServer implements AutoCloseable {
                             pipeline.addLast("decoder", new GenericMessageDecoder(config.getMessageSchema()));
                             pipeline.addLast("encoder", new GenericMessageEncoder(config.getMessageSchema()));
                         } else {
-                            pipeline.addLast("decoder", new FiscMessageDecoder(
-                                    FiscMessageDecoder.LengthEncoding.ASCII, 4));
+                            // Same 2-byte BCD length prefix the encoder writes
+                            pipeline.addLast("decoder", new FiscMessageDecoder(config.getChannelId()));
                             pipeline.addLast("encoder", new FiscMessageEncoder());
                         }
                         pipeline.addLast("handler", new UnifiedPortHandler());
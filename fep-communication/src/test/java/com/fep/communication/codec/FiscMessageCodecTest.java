@@ -1,15 +1,26 @@
 package com.fep.communication.codec;
 
+import com.fep.message.generic.message.GenericMessage;
+import com.fep.message.generic.message.GenericMessageView;
+import com.fep.message.generic.schema.MessageSchema;
 import com.fep.message.iso8583.Iso8583Message;
 import com.fep.message.iso8583.Iso8583MessageFactory;
 import com.fep.message.iso8583.MessageType;
+import com.fep.message.iso8583.parser.FiscMessageAssembler;
+import com.fep.message.service.ChannelMessageService;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for FISC message encoder and decoder.
@@ -37,6 +48,29 @@ class FiscMessageCodecTest {
         channel.finishAndReleaseAll();
     }
 
+    @Test
+    @DisplayName("Should assemble straight into an exactly sized buffer")
+    void shouldAssembleIntoExactlySizedBuffer() {
+        EmbeddedChannel channel = new EmbeddedChannel(new FiscMessageEncoder());
+        FiscMessageAssembler assembler = new FiscMessageAssembler();
+
+        Iso8583Message message = new Iso8583Message(MessageType.NETWORK_MANAGEMENT_REQUEST);
+        message.setField(7, "0106213900");
+        message.setField(11, "000001");
+        message.setField(70, "301");
+
+        assertTrue(channel.writeOutbound(message));
+        ByteBuf encoded = channel.readOutbound();
+
+        assertEquals(assembler.estimateSize(message), encoded.readableBytes());
+        assertEquals(Unpooled.wrappedBuffer(assembler.assemble(message)), encoded);
+        int bodyLength = Integer.parseInt(String.format("%02x%02x", encoded.getByte(0), encoded.getByte(1)));
+        assertEquals(encoded.readableBytes() - 2, bodyLength);
+
+        encoded.release();
+        channel.finishAndReleaseAll();
+    }
+
     @Test
     @DisplayName("Should encode and decode round trip")
     void shouldEncodeAndDecodeRoundTrip() {
@@ -66,6 +100,60 @@ class FiscMessageCodecTest {
         decoderChannel.finishAndReleaseAll();
     }
 
+    @Test
+    @DisplayName("Should attach lazy generic view over the decoded bytes")
+    void shouldAttachLazyGenericViewOverDecodedBytes() {
+        ChannelMessageService service = mock(ChannelMessageService.class);
+        GenericMessage generic = new GenericMessage(MessageSchema.builder().name("TEST").build());
+        AtomicInteger parses = new AtomicInteger();
+        when(service.createView(eq("FISC_V1"), eq("0800"), any(byte[].class)))
+            .thenAnswer(inv -> new GenericMessageView(inv.getArgument(2), bytes -> {
+                parses.incrementAndGet();
+                return generic;
+            }));
+
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(new FiscMessageEncoder());
+        EmbeddedChannel decoderChannel = new EmbeddedChannel(new FiscMessageDecoder(service, "FISC_V1"));
+        assertTrue(encoderChannel.writeOutbound(new Iso8583MessageFactory().createEchoTestMessage()));
+        assertTrue(decoderChannel.writeInbound((ByteBuf) encoderChannel.readOutbound()));
+        Iso8583Message decoded = decoderChannel.readInbound();
+
+        // Only the routing fields are decoded up front; the rest on first read
+        assertNotNull(decoded.getFieldAsString(11));
+        assertTrue(decoded.hasDeferredFields());
+        assertEquals("301", decoded.getFieldAsString(70));
+        assertFalse(decoded.hasDeferredFields());
+
+        GenericMessageView view = decoded.getGenericView();
+        assertNotNull(view);
+        assertSame(decoded.getRawData(), view.getData());
+        assertFalse(view.isMaterialized());
+        assertEquals(0, parses.get());
+
+        assertSame(generic, decoded.asGenericMessage());
+        assertSame(generic, decoded.asGenericMessage());
+        assertEquals(1, parses.get());
+
+        encoderChannel.finishAndReleaseAll();
+        decoderChannel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Should not attach generic view by default")
+    void shouldNotAttachGenericViewByDefault() {
+        EmbeddedChannel encoderChannel = new EmbeddedChannel(new FiscMessageEncoder());
+        EmbeddedChannel decoderChannel = new EmbeddedChannel(new FiscMessageDecoder());
+        assertTrue(encoderChannel.writeOutbound(new Iso8583MessageFactory().createEchoTestMessage()));
+        assertTrue(decoderChannel.writeInbound((ByteBuf) encoderChannel.readOutbound()));
+        Iso8583Message decoded = decoderChannel.readInbound();
+
+        assertNull(decoded.getGenericView());
+        assertNull(decoded.asGenericMessage());
+
+        encoderChannel.finishAndReleaseAll();
+        decoderChannel.finishAndReleaseAll();
+    }
+
     @Test
     @DisplayName("Should wait for length prefix before decoding")
     void shouldWaitForLengthPrefixBeforeDecoding() {
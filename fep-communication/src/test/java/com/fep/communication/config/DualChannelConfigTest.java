@@ -229,6 +229,40 @@ class DualChannelConfigTest {
         }
     }
 
+    @Nested
+    @DisplayName("Decode Mode Tests")
+    class DecodeModeTests {
+
+        @Test
+        @DisplayName("Should decode ISO 8583 only by default")
+        void shouldDecodeIso8583OnlyByDefault() {
+            DualChannelConfig config = DualChannelConfig.defaultConfig();
+
+            assertThat(config.getEffectiveDecodeMode()).isEqualTo(MessageDecodeMode.ISO8583);
+        }
+
+        @Test
+        @DisplayName("Should derive generic view from transform flag")
+        void shouldDeriveGenericViewFromTransformFlag() {
+            DualChannelConfig config = DualChannelConfig.builder()
+                .enableGenericMessageTransform(true)
+                .build();
+
+            assertThat(config.getEffectiveDecodeMode()).isEqualTo(MessageDecodeMode.GENERIC_VIEW);
+        }
+
+        @Test
+        @DisplayName("Should prefer explicit decode mode")
+        void shouldPreferExplicitDecodeMode() {
+            DualChannelConfig config = DualChannelConfig.builder()
+                .enableGenericMessageTransform(true)
+                .decodeMode(MessageDecodeMode.ISO8583)
+                .build();
+
+            assertThat(config.getEffectiveDecodeMode()).isEqualTo(MessageDecodeMode.ISO8583);
+        }
+    }
+
     @Nested
     @DisplayName("Channel Name Tests")
     class ChannelNameTests {
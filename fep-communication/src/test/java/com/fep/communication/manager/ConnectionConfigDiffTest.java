@@ -0,0 +1,84 @@
+package com.fep.communication.manager;
+
+import com.fep.communication.config.ChannelFailureStrategy;
+import com.fep.communication.config.DualChannelConfig;
+import com.fep.communication.config.MessageDecodeMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConnectionConfigDiff.
+ */
+class ConnectionConfigDiffTest {
+
+    @Test
+    @DisplayName("Should report no changes for equal configurations")
+    void shouldReportNoChanges() {
+        ConnectionConfigDiff diff = ConnectionConfigDiff.between(config().build(), config().build());
+
+        assertTrue(diff.isEmpty());
+        assertFalse(diff.isDisruptive());
+    }
+
+    @Test
+    @DisplayName("Should classify timeouts and retry settings as tunable")
+    void shouldClassifyTunableFields() {
+        // Given
+        DualChannelConfig next = config()
+                .readTimeoutMs(45000)
+                .heartbeatIntervalMs(15000)
+                .failureStrategy(ChannelFailureStrategy.FAIL_WHEN_ANY_DOWN)
+                .build();
+
+        // When
+        ConnectionConfigDiff diff = ConnectionConfigDiff.between(config().build(), next);
+
+        // Then
+        assertEquals(List.of("readTimeoutMs", "heartbeatIntervalMs", "failureStrategy"), diff.getChangedFields());
+        assertFalse(diff.isDisruptive());
+    }
+
+    @Test
+    @DisplayName("Should classify endpoint and decode changes as disruptive")
+    void shouldClassifyDisruptiveFields() {
+        // Given
+        DualChannelConfig next = config()
+                .receivePort(9102)
+                .decodeMode(MessageDecodeMode.GENERIC_VIEW)
+                .connectTimeoutMs(3000)
+                .build();
+
+        // When
+        ConnectionConfigDiff diff = ConnectionConfigDiff.between(config().build(), next);
+
+        // Then
+        assertTrue(diff.isDisruptive());
+        assertEquals(List.of("receivePort", "decodeMode"), diff.getDisruptiveFields());
+        assertEquals(List.of("receivePort", "decodeMode", "connectTimeoutMs"), diff.getChangedFields());
+    }
+
+    @Test
+    @DisplayName("Should compare effective decode mode rather than raw setting")
+    void shouldCompareEffectiveDecodeMode() {
+        DualChannelConfig current = config().enableGenericMessageTransform(true).build();
+        DualChannelConfig next = config().enableGenericMessageTransform(true)
+                .decodeMode(MessageDecodeMode.GENERIC_VIEW).build();
+
+        assertTrue(ConnectionConfigDiff.between(current, next).isEmpty());
+    }
+
+    private DualChannelConfig.DualChannelConfigBuilder config() {
+        return DualChannelConfig.builder()
+                .channelId("FISC_TEST")
+                .connectionName("FISC_TEST")
+                .sendHost("localhost")
+                .sendPort(9001)
+                .receiveHost("localhost")
+                .receivePort(9002)
+                .institutionId("0040000");
+    }
+}
@@ -314,6 +314,68 @@ class DynamicConnectionManagerTest {
         assertFalse(manager.hasConnection("FISC_TEST_V1"));
     }
 
+    // ==================== Hot Reload Tests ====================
+
+    @Test
+    @Order(55)
+    @DisplayName("Should apply timeout change in place without replacing client")
+    void shouldApplyTimeoutChangeInPlace() {
+        FiscDualChannelClient original = manager.addConnection("FISC_TEST_V1");
+
+        manager.onConnectionChanged("FISC_TEST_V1", changedChannel(profile -> profile
+                .responseTimeout(45000)
+                .heartbeatInterval(15000)));
+
+        assertSame(original, manager.getConnectionRequired("FISC_TEST_V1"));
+        assertEquals(45000, original.getConfig().getReadTimeoutMs());
+        assertEquals(15000, original.getConfig().getHeartbeatIntervalMs());
+        assertEquals(0, lifecycleListener.recreatedCount.get());
+        assertEquals(0, lifecycleListener.removedCount.get());
+    }
+
+    @Test
+    @Order(56)
+    @DisplayName("Should replace client when endpoint changes")
+    void shouldReplaceClientWhenEndpointChanges() {
+        FiscDualChannelClient original = manager.addConnection("FISC_TEST_V1");
+
+        manager.onConnectionChanged("FISC_TEST_V1", changedChannel(profile -> profile.sendPort(9101)));
+
+        FiscDualChannelClient replacement = manager.getConnectionRequired("FISC_TEST_V1");
+        assertNotSame(original, replacement);
+        assertEquals(9101, replacement.getConfig().getSendPort());
+        assertEquals(1, lifecycleListener.recreatedCount.get());
+        assertSame(replacement, lifecycleListener.lastRecreatedClient);
+        assertEquals(0, lifecycleListener.removedCount.get(), "Channel must stay available during the swap");
+        assertEquals(DualChannelState.CLOSED, original.getState(), "Idle replaced client should be closed");
+    }
+
+    @Test
+    @Order(57)
+    @DisplayName("Should ignore reload without relevant changes")
+    void shouldIgnoreUnchangedReload() {
+        FiscDualChannelClient original = manager.addConnection("FISC_TEST_V1");
+
+        manager.onConnectionsUpdated(registry.getConnectionMap(), registry.getProfileMap());
+
+        assertSame(original, manager.getConnectionRequired("FISC_TEST_V1"));
+        assertEquals(0, lifecycleListener.recreatedCount.get());
+    }
+
+    @Test
+    @Order(58)
+    @DisplayName("Should reconcile changed channels during full sync")
+    void shouldReconcileChangedChannelsDuringSync() {
+        FiscDualChannelClient original = manager.addConnection("FISC_TEST_V1");
+
+        Map<String, ChannelConnection> connectionMap = new HashMap<>(registry.getConnectionMap());
+        connectionMap.put("FISC_TEST_V1", changedChannel(profile -> profile.host("127.0.0.1")));
+        manager.onConnectionsUpdated(connectionMap, registry.getProfileMap());
+
+        assertNotSame(original, manager.getConnectionRequired("FISC_TEST_V1"));
+        assertEquals("127.0.0.1", manager.getConnectionRequired("FISC_TEST_V1").getConfig().getSendHost());
+    }
+
     // ==================== Reconnect Tests ====================
 
     @Test
@@ -489,6 +551,26 @@ class DynamicConnectionManagerTest {
         registry.registerConnection(channel3);
     }
 
+    private ChannelConnection changedChannel(
+            java.util.function.UnaryOperator<ConnectionProfile.ConnectionProfileBuilder> change) {
+        ConnectionProfile profile = change.apply(ConnectionProfile.builder()
+                .profileId("TEST_PROFILE")
+                .host("localhost")
+                .sendPort(9001)
+                .receivePort(9002)
+                .connectTimeout(5000)
+                .responseTimeout(30000)).build();
+
+        ChannelConnection channel = ChannelConnection.builder()
+                .channelId("FISC_TEST_V1")
+                .connectionProfileId("TEST_PROFILE")
+                .active(true)
+                .priority(1)
+                .build();
+        channel.resolveConnectionProfile(profile);
+        return channel;
+    }
+
     /**
      * Test implementation of ConnectionLifecycleListener.
      */
@@ -496,10 +578,12 @@ class DynamicConnectionManagerTest {
         final AtomicInteger addedCount = new AtomicInteger(0);
         final AtomicInteger removedCount = new AtomicInteger(0);
         final AtomicInteger failedCount = new AtomicInteger(0);
+        final AtomicInteger recreatedCount = new AtomicInteger(0);
 
         volatile String lastAddedChannelId;
         volatile String lastRemovedChannelId;
         volatile FiscDualChannelClient lastAddedClient;
+        volatile FiscDualChannelClient lastRecreatedClient;
 
         @Override
         public void onConnectionAdded(String channelId, FiscDualChannelClient client) {
@@ -518,5 +602,11 @@ class DynamicConnectionManagerTest {
         public void onConnectionFailed(String channelId, Throwable cause) {
             failedCount.incrementAndGet();
         }
+
+        @Override
+        public void onConnectionRecreated(String channelId, FiscDualChannelClient client) {
+            recreatedCount.incrementAndGet();
+            lastRecreatedClient = client;
+        }
     }
 }
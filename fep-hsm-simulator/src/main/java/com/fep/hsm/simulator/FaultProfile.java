@@ -0,0 +1,43 @@
+package com.fep.hsm.simulator;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Latency and fault injection applied to every request.
+ *
+ * <p>Rates are probabilities between 0 and 1, evaluated independently per request
+ * in the order drop, no-reply, error. A profile can be swapped on a running
+ * simulator with {@link HsmSimulatorServer#setFaultProfile(FaultProfile)}.
+ */
+@Data
+@Builder
+public class FaultProfile {
+
+    /** Simulated processing time per command */
+    @Builder.Default
+    private LatencyDistribution latency = LatencyDistribution.none();
+
+    /** Probability of closing the connection instead of answering */
+    @Builder.Default
+    private double dropRate = 0.0;
+
+    /** Probability of silently discarding the request (client sees a timeout) */
+    @Builder.Default
+    private double noReplyRate = 0.0;
+
+    /** Probability of answering with {@link #errorCode} */
+    @Builder.Default
+    private double errorRate = 0.0;
+
+    /** Error code returned for injected errors */
+    @Builder.Default
+    private String errorCode = "31";
+
+    /**
+     * A profile with no latency and no faults.
+     */
+    public static FaultProfile healthy() {
+        return FaultProfile.builder().build();
+    }
+}
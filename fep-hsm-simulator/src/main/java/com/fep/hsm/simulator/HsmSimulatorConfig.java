@@ -0,0 +1,36 @@
+package com.fep.hsm.simulator;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * HSM simulator server configuration.
+ */
+@Data
+@Builder
+public class HsmSimulatorConfig {
+
+    /** Listen port; 0 picks a free port */
+    @Builder.Default
+    private int port = 1500;
+
+    /** Message header length, echoed back unchanged like a payShield */
+    @Builder.Default
+    private int headerLength = 4;
+
+    /** Netty worker threads; 0 uses the Netty default */
+    @Builder.Default
+    private int workerThreads = 0;
+
+    /** Commands processed at the same time, like HSM crypto engines; 0 is unlimited */
+    @Builder.Default
+    private int maxConcurrent = 16;
+
+    /** Requests queued once all engines are busy; beyond this the simulator answers "30" */
+    @Builder.Default
+    private int queueCapacity = 1024;
+
+    /** Maximum client connections; 0 is unlimited */
+    @Builder.Default
+    private int maxConnections = 0;
+}
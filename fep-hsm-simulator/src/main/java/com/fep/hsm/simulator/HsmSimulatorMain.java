@@ -0,0 +1,64 @@
+package com.fep.hsm.simulator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Command-line entry point for the HSM simulator.
+ *
+ * <pre>
+ * java -jar fep-hsm-simulator-jar-with-dependencies.jar \
+ *     --port=1500 --max-concurrent=16 --latency=lognormal:2ms:0.5 \
+ *     --error-rate=0.001 --drop-rate=0 --no-reply-rate=0
+ * </pre>
+ */
+public final class HsmSimulatorMain {
+
+    private HsmSimulatorMain() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+
+        HsmSimulatorConfig config = HsmSimulatorConfig.builder()
+                .port(Integer.parseInt(options.getOrDefault("port", "1500")))
+                .headerLength(Integer.parseInt(options.getOrDefault("header-length", "4")))
+                .workerThreads(Integer.parseInt(options.getOrDefault("worker-threads", "0")))
+                .maxConcurrent(Integer.parseInt(options.getOrDefault("max-concurrent", "16")))
+                .queueCapacity(Integer.parseInt(options.getOrDefault("queue-capacity", "1024")))
+                .maxConnections(Integer.parseInt(options.getOrDefault("max-connections", "0")))
+                .build();
+
+        FaultProfile profile = FaultProfile.builder()
+                .latency(LatencyDistribution.parse(options.getOrDefault("latency", "none")))
+                .dropRate(Double.parseDouble(options.getOrDefault("drop-rate", "0")))
+                .noReplyRate(Double.parseDouble(options.getOrDefault("no-reply-rate", "0")))
+                .errorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")))
+                .errorCode(options.getOrDefault("error-code", "31"))
+                .build();
+
+        HsmSimulatorServer server = new HsmSimulatorServer(config);
+        server.setFaultProfile(profile);
+        server.start();
+
+        CountDownLatch shutdown = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            shutdown.countDown();
+        }, "hsm-sim-shutdown"));
+        shutdown.await();
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,320 @@
+package com.fep.hsm.simulator;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.*;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Netty server speaking the Thales host command framing: 2-byte length prefix,
+ * header echoed unchanged, command code, data.
+ *
+ * <p>Requests are pipelined. Each one occupies one of {@code maxConcurrent}
+ * simulated crypto engines for its sampled latency; further requests wait in a
+ * bounded queue and are answered with "30" (HSM busy) when the queue is full.
+ * The event loop never sleeps: responses are scheduled after the sampled latency.
+ */
+public class HsmSimulatorServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HsmSimulatorServer.class);
+
+    private static final String ERROR_BUSY = "30";
+
+    private final HsmSimulatorConfig config;
+    private final ThalesCommandProcessor processor;
+    private final EngineGate gate;
+    private final ChannelGroup clients = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+
+    private volatile FaultProfile faultProfile = FaultProfile.healthy();
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private Channel serverChannel;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder responded = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder busyRejections = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder unanswered = new LongAdder();
+
+    public HsmSimulatorServer(HsmSimulatorConfig config) {
+        this(config, new ThalesCommandProcessor());
+    }
+
+    public HsmSimulatorServer(HsmSimulatorConfig config, ThalesCommandProcessor processor) {
+        this.config = config;
+        this.processor = processor;
+        this.gate = new EngineGate(config.getMaxConcurrent(), config.getQueueCapacity());
+    }
+
+    /**
+     * Binds the listen port.
+     */
+    public synchronized void start() throws InterruptedException {
+        if (serverChannel != null) {
+            return;
+        }
+        bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("hsm-sim-boss"));
+        workerGroup = new NioEventLoopGroup(config.getWorkerThreads(), new DefaultThreadFactory("hsm-sim-worker"));
+
+        serverChannel = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        if (config.getMaxConnections() > 0 && clients.size() >= config.getMaxConnections()) {
+                            log.warn("Rejecting connection from {}: limit {} reached",
+                                    ch.remoteAddress(), config.getMaxConnections());
+                            ch.close();
+                            return;
+                        }
+                        clients.add(ch);
+                        ch.pipeline()
+                                .addLast(new LengthFieldBasedFrameDecoder(65535, 0, 2, 0, 2))
+                                .addLast(new LengthFieldPrepender(2))
+                                .addLast(new CommandHandler());
+                    }
+                })
+                .bind(config.getPort()).sync().channel();
+
+        log.info("HSM simulator listening on port {} (maxConcurrent={}, queueCapacity={})",
+                getPort(), config.getMaxConcurrent(), config.getQueueCapacity());
+    }
+
+    /**
+     * Closes all client connections and the listen port.
+     */
+    public synchronized void stop() {
+        if (serverChannel == null) {
+            return;
+        }
+        serverChannel.close().syncUninterruptibly();
+        clients.close().syncUninterruptibly();
+        serverChannel = null;
+        workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        log.info("HSM simulator stopped");
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Closes every client connection while keeping the listen port open,
+     * to exercise client reconnect and failover.
+     */
+    public void dropConnections() {
+        log.info("Dropping {} client connections", clients.size());
+        clients.close().syncUninterruptibly();
+    }
+
+    /**
+     * Replaces the latency and fault profile; applies to requests received afterwards.
+     */
+    public void setFaultProfile(FaultProfile faultProfile) {
+        this.faultProfile = faultProfile;
+    }
+
+    public FaultProfile getFaultProfile() {
+        return faultProfile;
+    }
+
+    /**
+     * Gets the bound port, or -1 when not running.
+     */
+    public int getPort() {
+        Channel channel = serverChannel;
+        return channel != null ? ((InetSocketAddress) channel.localAddress()).getPort() : -1;
+    }
+
+    /**
+     * Gets simulator statistics.
+     */
+    public SimulatorStats getStats() {
+        return new SimulatorStats(clients.size(), gate.active(), gate.queued(),
+                received.sum(), responded.sum(), injectedErrors.sum(),
+                busyRejections.sum(), dropped.sum(), unanswered.sum());
+    }
+
+    private void handle(ChannelHandlerContext ctx, byte[] request) {
+        received.increment();
+        int headerLength = config.getHeaderLength();
+        if (request.length < headerLength + 2) {
+            log.warn("Discarding short request from {}", ctx.channel().remoteAddress());
+            return;
+        }
+        String header = new String(request, 0, headerLength, StandardCharsets.US_ASCII);
+        String command = new String(request, headerLength, 2, StandardCharsets.US_ASCII);
+
+        FaultProfile profile = faultProfile;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < profile.getDropRate()) {
+            dropped.increment();
+            ctx.close();
+            return;
+        }
+        if (random.nextDouble() < profile.getNoReplyRate()) {
+            unanswered.increment();
+            return;
+        }
+        boolean injectError = random.nextDouble() < profile.getErrorRate();
+
+        Runnable task = () -> ctx.executor().execute(() -> {
+            String body;
+            if (injectError) {
+                injectedErrors.increment();
+                body = ThalesCommandProcessor.errorResponse(command, profile.getErrorCode());
+            } else {
+                byte[] data = new byte[request.length - headerLength - 2];
+                System.arraycopy(request, headerLength + 2, data, 0, data.length);
+                body = process(command, data);
+            }
+            long latencyNanos = profile.getLatency().sampleNanos(ThreadLocalRandom.current());
+            if (latencyNanos <= 0) {
+                gate.release();
+                respond(ctx, header, body);
+            } else {
+                ctx.executor().schedule(() -> {
+                    gate.release();
+                    respond(ctx, header, body);
+                }, latencyNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+
+        if (!gate.submit(task)) {
+            busyRejections.increment();
+            respond(ctx, header, ThalesCommandProcessor.errorResponse(command, ERROR_BUSY));
+        }
+    }
+
+    private String process(String command, byte[] data) {
+        try {
+            return processor.process(command, data);
+        } catch (RuntimeException e) {
+            log.debug("Simulated command {} failed: {}", command, e.getMessage());
+            return ThalesCommandProcessor.errorResponse(command, "15");
+        }
+    }
+
+    private void respond(ChannelHandlerContext ctx, String header, String body) {
+        if (!ctx.channel().isActive()) {
+            return;
+        }
+        responded.increment();
+        ByteBuf buffer = ctx.alloc().buffer(header.length() + body.length());
+        buffer.writeCharSequence(header, StandardCharsets.US_ASCII);
+        buffer.writeCharSequence(body, StandardCharsets.US_ASCII);
+        ctx.writeAndFlush(buffer);
+    }
+
+    private class CommandHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+            byte[] request = new byte[msg.readableBytes()];
+            msg.readBytes(request);
+            handle(ctx, request);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.debug("Client channel error: {}", cause.getMessage());
+            ctx.close();
+        }
+    }
+
+    /**
+     * Admits up to {@code limit} tasks at once and queues the rest, like the
+     * fixed set of crypto engines in a hardware HSM.
+     */
+    static final class EngineGate {
+
+        private final int limit;
+        private final int queueCapacity;
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        private int active;
+
+        EngineGate(int limit, int queueCapacity) {
+            this.limit = limit;
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * Runs or queues the task; returns false when the queue is full.
+         */
+        boolean submit(Runnable task) {
+            synchronized (this) {
+                if (limit > 0 && active >= limit) {
+                    if (queue.size() >= queueCapacity) {
+                        return false;
+                    }
+                    queue.addLast(task);
+                    return true;
+                }
+                active++;
+            }
+            task.run();
+            return true;
+        }
+
+        /**
+         * Frees an engine and hands it to the next queued task, if any.
+         */
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    active--;
+                }
+            }
+            if (next != null) {
+                next.run();
+            }
+        }
+
+        synchronized int active() {
+            return active;
+        }
+
+        synchronized int queued() {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Simulator statistics.
+     */
+    public record SimulatorStats(
+            int connections,
+            int activeCommands,
+            int queuedCommands,
+            long received,
+            long responded,
+            long injectedErrors,
+            long busyRejections,
+            long dropped,
+            long unanswered
+    ) {}
+}
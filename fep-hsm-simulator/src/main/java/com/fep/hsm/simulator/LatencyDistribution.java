@@ -0,0 +1,102 @@
+package com.fep.hsm.simulator;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution of simulated HSM processing time.
+ *
+ * <p>Specs are parsed from strings such as {@code fixed:2ms}, {@code uniform:1ms:5ms},
+ * {@code normal:3ms:500us}, {@code lognormal:2ms:0.6} (median and sigma) or
+ * {@code exponential:2ms} (mean).
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Draws one latency sample in nanoseconds; never negative.
+     */
+    long sampleNanos(ThreadLocalRandom random);
+
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long low = min.toNanos();
+        long high = max.toNanos();
+        if (high < low) {
+            throw new IllegalArgumentException("max must not be less than min");
+        }
+        return random -> low == high ? low : random.nextLong(low, high + 1);
+    }
+
+    static LatencyDistribution normal(Duration mean, Duration stdDev) {
+        long meanNanos = mean.toNanos();
+        long stdDevNanos = stdDev.toNanos();
+        return random -> Math.max(0, meanNanos + (long) (random.nextGaussian() * stdDevNanos));
+    }
+
+    /**
+     * Log-normal latency, the usual shape of HSM response times: most requests
+     * near the median with a long right tail controlled by {@code sigma}.
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    static LatencyDistribution exponential(Duration mean) {
+        long meanNanos = mean.toNanos();
+        return random -> (long) (-meanNanos * Math.log(1.0 - random.nextDouble()));
+    }
+
+    /**
+     * Parses a distribution spec.
+     *
+     * @throws IllegalArgumentException if the spec is malformed
+     */
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            return switch (parts[0].toLowerCase(Locale.ROOT)) {
+                case "none" -> none();
+                case "fixed" -> fixed(parseDuration(parts[1]));
+                case "uniform" -> uniform(parseDuration(parts[1]), parseDuration(parts[2]));
+                case "normal" -> normal(parseDuration(parts[1]), parseDuration(parts[2]));
+                case "lognormal" -> logNormal(parseDuration(parts[1]), Double.parseDouble(parts[2]));
+                case "exponential" -> exponential(parseDuration(parts[1]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Missing latency parameter: " + spec, e);
+        }
+    }
+
+    /**
+     * Parses durations with an {@code ns}, {@code us}, {@code ms} or {@code s} suffix.
+     */
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (text.endsWith("ns")) {
+                return Duration.ofNanos(Long.parseLong(text.substring(0, text.length() - 2)));
+            } else if (text.endsWith("us")) {
+                return Duration.ofNanos(Math.round(Double.parseDouble(text.substring(0, text.length() - 2)) * 1_000));
+            } else if (text.endsWith("ms")) {
+                return Duration.ofNanos(Math.round(Double.parseDouble(text.substring(0, text.length() - 2)) * 1_000_000));
+            } else if (text.endsWith("s")) {
+                return Duration.ofNanos(Math.round(Double.parseDouble(text.substring(0, text.length() - 1)) * 1_000_000_000));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + value, e);
+        }
+        throw new IllegalArgumentException("Duration needs a unit (ns, us, ms, s): " + value);
+    }
+}
@@ -0,0 +1,119 @@
+package com.fep.hsm.simulator;
+
+import com.fep.security.crypto.CryptoService;
+import com.fep.security.hsm.HsmResponse;
+import com.fep.security.hsm.SoftwareHsmAdapter;
+import com.fep.security.key.KeyManager;
+import com.fep.security.key.KeyType;
+import com.fep.security.mac.MacAlgorithm;
+import com.fep.security.mac.MacService;
+import com.fep.security.pin.PinBlockFormat;
+import com.fep.security.pin.PinBlockService;
+import org.apache.commons.codec.binary.Hex;
+
+import java.util.Arrays;
+
+/**
+ * Executes Thales host commands with {@link SoftwareHsmAdapter}.
+ *
+ * <p>The simulator answers in the payShield shape: the response command code is
+ * the request code with its second letter incremented (M0 → M1), followed by a
+ * two-digit error code and the result. Command data is treated as the message to
+ * operate on, and each command runs the same class of crypto operation against
+ * simulator-owned keys, so the CPU cost per command is realistic without having
+ * to parse every field layout.
+ */
+public class ThalesCommandProcessor {
+
+    private static final String ALGORITHM_TDES = "TDES";
+
+    private final SoftwareHsmAdapter hsm;
+    private final String zmkId;
+    private final String zpkSourceId;
+    private final String zpkDestId;
+    private final String takId;
+    private final String dekId;
+
+    public ThalesCommandProcessor() {
+        CryptoService cryptoService = new CryptoService();
+        KeyManager keyManager = new KeyManager(cryptoService);
+        this.hsm = new SoftwareHsmAdapter(cryptoService, keyManager,
+                new PinBlockService(cryptoService, keyManager), new MacService(cryptoService, keyManager));
+        this.hsm.connect();
+
+        this.zmkId = keyManager.generateKey(KeyType.ZMK, "SIM-ZMK").getKeyId();
+        this.zpkSourceId = keyManager.generateKey(KeyType.PEK, "SIM-ZPK-SRC").getKeyId();
+        this.zpkDestId = keyManager.generateKey(KeyType.PEK, "SIM-ZPK-DST").getKeyId();
+        this.takId = keyManager.generateKey(KeyType.MAK, "SIM-TAK").getKeyId();
+        this.dekId = keyManager.generateKey(KeyType.DEK, "SIM-DEK").getKeyId();
+    }
+
+    /**
+     * Processes one command.
+     *
+     * @param command two-character Thales command code
+     * @param data command data following the command code
+     * @return response body without header: response code, error code, result
+     */
+    public String process(String command, byte[] data) {
+        HsmResponse response = switch (command) {
+            case "A0" -> hsm.generateKey("ZPK", null);
+            case "A6" -> hsm.importKey("ZPK", data, null);
+            case "A8" -> hsm.exportKey(takId, zmkId);
+            case "CA" -> hsm.translatePinBlock(Arrays.copyOf(data, 8), zpkSourceId, zpkDestId,
+                    PinBlockFormat.FORMAT_0.name(), PinBlockFormat.FORMAT_0.name(), null);
+            case "M0", "M2" -> hsm.generateMac(data, takId, MacAlgorithm.ISO_9797_ALG3.name());
+            case "M4" -> hsm.encryptData(data, dekId, ALGORITHM_TDES);
+            case "M6" -> hsm.decryptData(padToBlock(data), dekId, ALGORITHM_TDES);
+            case "NC" -> hsm.getDiagnostics();
+            case "NO" -> hsm.getStatus();
+            default -> HsmResponse.failure(null, "68", "Command not supported");
+        };
+
+        String responseCommand = responseCode(command);
+        if (!response.isSuccess()) {
+            return responseCommand + response.getResponseCode();
+        }
+        return responseCommand + "00" + result(command, response);
+    }
+
+    /**
+     * Builds an error response body for the given command.
+     */
+    public static String errorResponse(String command, String errorCode) {
+        return responseCode(command) + errorCode;
+    }
+
+    /**
+     * Response command code: second character incremented, as payShield does.
+     */
+    static String responseCode(String command) {
+        if (command.length() != 2) {
+            return "ZZ";
+        }
+        return command.charAt(0) + String.valueOf((char) (command.charAt(1) + 1));
+    }
+
+    private static String result(String command, HsmResponse response) {
+        Object value = switch (command) {
+            case "A0" -> response.getData("key");
+            case "A8" -> response.getData("encryptedKey");
+            case "CA" -> response.getData("pinBlock");
+            case "M0" -> response.getData("mac");
+            case "M4" -> response.getData("encryptedData");
+            case "M6" -> response.getData("data");
+            case "NC" -> response.getData("version");
+            case "NO" -> response.getData("status");
+            default -> null;
+        };
+        if (value instanceof byte[] bytes) {
+            return Hex.encodeHexString(bytes, false);
+        }
+        return value != null ? value.toString() : "";
+    }
+
+    private static byte[] padToBlock(byte[] data) {
+        int length = Math.max(8, (data.length + 7) / 8 * 8);
+        return Arrays.copyOf(data, length);
+    }
+}
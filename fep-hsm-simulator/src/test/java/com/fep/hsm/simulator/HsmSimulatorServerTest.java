@@ -0,0 +1,214 @@
+package com.fep.hsm.simulator;
+
+import com.fep.security.hsm.HsmCommand;
+import com.fep.security.hsm.HsmConnectionConfig;
+import com.fep.security.hsm.HsmException;
+import com.fep.security.hsm.HsmRequest;
+import com.fep.security.hsm.HsmResponse;
+import com.fep.security.hsm.HsmVendor;
+import com.fep.security.hsm.ThalesHsmAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for HsmSimulatorServer driven by the real ThalesHsmAdapter.
+ */
+@DisplayName("HsmSimulatorServer Tests")
+class HsmSimulatorServerTest {
+
+    private HsmSimulatorServer server;
+    private ThalesHsmAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new HsmSimulatorServer(HsmSimulatorConfig.builder()
+                .port(0)
+                .maxConcurrent(2)
+                .queueCapacity(2)
+                .build());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) {
+            adapter.disconnect();
+        }
+        server.stop();
+    }
+
+    private ThalesHsmAdapter connect(int connections) {
+        return connect(connections, 0);
+    }
+
+    private ThalesHsmAdapter connect(int connections, long healthCheckIntervalMs) {
+        adapter = new ThalesHsmAdapter(HsmConnectionConfig.builder()
+                .vendor(HsmVendor.THALES)
+                .primaryHost("127.0.0.1")
+                .primaryPort(server.getPort())
+                .maxConnections(connections)
+                .healthCheckIntervalMs(healthCheckIntervalMs)
+                .reconnectIntervalMs(50)
+                .build());
+        adapter.connect();
+        return adapter;
+    }
+
+    private static byte[] message(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Nested
+    @DisplayName("Commands")
+    class CommandTests {
+
+        @Test
+        @DisplayName("Should generate deterministic MAC for same data")
+        void shouldGenerateMac() {
+            connect(1);
+
+            HsmResponse first = adapter.generateMac(message("0200ABC"), "K1", "ALG3");
+            HsmResponse second = adapter.generateMac(message("0200ABC"), "K1", "ALG3");
+
+            assertThat(first.isSuccess()).isTrue();
+            assertThat(first.<String>getData("responseData")).hasSize(16).isEqualTo(second.getData("responseData"));
+        }
+
+        @Test
+        @DisplayName("Should answer status and crypto commands")
+        void shouldAnswerCommands() {
+            connect(1);
+
+            assertThat(adapter.getStatus().<String>getData("responseData")).isEqualTo("OK");
+            assertThat(adapter.encryptData(message("DATA"), "K1", "TDES").isSuccess()).isTrue();
+            assertThat(adapter.translatePinBlock(new byte[8], "K1", "K2", "FORMAT_0", "FORMAT_0", "1234")
+                    .<String>getData("responseData")).hasSize(16);
+            assertThat(adapter.generateKey("ZPK", "K3").<String>getData("responseData")).hasSize(48);
+        }
+    }
+
+    @Nested
+    @DisplayName("Fault Injection")
+    class FaultInjectionTests {
+
+        @Test
+        @DisplayName("Should return injected error code")
+        void shouldInjectErrors() {
+            connect(1);
+            server.setFaultProfile(FaultProfile.builder().errorRate(1.0).errorCode("10").build());
+
+            HsmResponse response = adapter.generateMac(message("X"), "K1", "ALG3");
+
+            assertThat(response.isSuccess()).isFalse();
+            assertThat(response.getResponseCode()).isEqualTo("10");
+            assertThat(server.getStats().injectedErrors()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should time out client when reply is withheld")
+        void shouldWithholdReply() {
+            connect(1);
+            server.setFaultProfile(FaultProfile.builder().noReplyRate(1.0).build());
+
+            var request = HsmRequest.builder()
+                    .command(HsmCommand.GET_STATUS)
+                    .timeoutMs(100)
+                    .build();
+
+            assertThatThrownBy(() -> adapter.execute(request)).isInstanceOf(HsmException.class);
+            assertThat(server.getStats().unanswered()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should drop connection and fail in-flight request")
+        void shouldDropConnection() {
+            connect(1);
+            server.setFaultProfile(FaultProfile.builder().dropRate(1.0).build());
+
+            assertThatThrownBy(() -> adapter.getStatus())
+                    .isInstanceOf(HsmException.class)
+                    .hasMessageContaining("connection lost");
+            assertThat(server.getStats().dropped()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should apply latency without blocking other connections")
+        void shouldApplyLatency() {
+            connect(1);
+            server.setFaultProfile(FaultProfile.builder()
+                    .latency(LatencyDistribution.fixed(Duration.ofMillis(50)))
+                    .build());
+
+            HsmResponse response = adapter.getStatus();
+
+            assertThat(response.getProcessingTimeMs()).isGreaterThanOrEqualTo(50);
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Limit")
+    class ConcurrencyLimitTests {
+
+        @Test
+        @DisplayName("Should queue beyond engines and reject beyond queue")
+        void shouldQueueAndReject() throws Exception {
+            connect(1);
+            server.setFaultProfile(FaultProfile.builder()
+                    .latency(LatencyDistribution.fixed(Duration.ofMillis(200)))
+                    .build());
+
+            List<CompletableFuture<HsmResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(adapter.executeAsync(HsmRequest.builder()
+                        .command(HsmCommand.GET_STATUS)
+                        .build()));
+            }
+
+            long busy = 0;
+            for (CompletableFuture<HsmResponse> future : futures) {
+                HsmResponse response = future.get(5, TimeUnit.SECONDS);
+                if ("30".equals(response.getResponseCode())) {
+                    busy++;
+                } else {
+                    assertThat(response.isSuccess()).isTrue();
+                }
+            }
+            assertThat(busy).isEqualTo(2);
+            assertThat(server.getStats().busyRejections()).isEqualTo(2);
+            assertThat(server.getStats().activeCommands()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Connections")
+    class ConnectionTests {
+
+        @Test
+        @DisplayName("Should let client recover after connections are dropped")
+        void shouldRecoverAfterDrop() throws Exception {
+            connect(2, 100);
+
+            server.dropConnections();
+
+            long deadline = System.currentTimeMillis() + 3000;
+            while (!adapter.isConnected() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(adapter.isConnected()).isTrue();
+            assertThat(adapter.getStatus().isSuccess()).isTrue();
+            assertThat(server.getStats().connections()).isEqualTo(2);
+        }
+    }
+}
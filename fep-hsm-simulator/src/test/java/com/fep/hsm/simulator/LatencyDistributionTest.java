@@ -0,0 +1,72 @@
+package com.fep.hsm.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyDistribution.
+ */
+@DisplayName("LatencyDistribution Tests")
+class LatencyDistributionTest {
+
+    private static long[] sample(LatencyDistribution distribution, int count) {
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = distribution.sampleNanos(ThreadLocalRandom.current());
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    @Test
+    @DisplayName("Should parse durations with units")
+    void shouldParseDurations() {
+        assertThat(LatencyDistribution.parseDuration("500ns")).isEqualTo(Duration.ofNanos(500));
+        assertThat(LatencyDistribution.parseDuration("250us")).isEqualTo(Duration.ofNanos(250_000));
+        assertThat(LatencyDistribution.parseDuration("1.5ms")).isEqualTo(Duration.ofNanos(1_500_000));
+        assertThat(LatencyDistribution.parseDuration("2s")).isEqualTo(Duration.ofSeconds(2));
+        assertThatThrownBy(() -> LatencyDistribution.parseDuration("10"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should parse fixed and uniform specs")
+    void shouldParseFixedAndUniform() {
+        assertThat(sample(LatencyDistribution.parse("fixed:2ms"), 10)).containsOnly(2_000_000L);
+
+        long[] uniform = sample(LatencyDistribution.parse("uniform:1ms:3ms"), 1000);
+        assertThat(uniform[0]).isGreaterThanOrEqualTo(1_000_000L);
+        assertThat(uniform[999]).isLessThanOrEqualTo(3_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should center log-normal samples on the median")
+    void shouldCenterLogNormalOnMedian() {
+        long[] samples = sample(LatencyDistribution.parse("lognormal:2ms:0.5"), 10_000);
+
+        assertThat(samples[5_000]).isBetween(1_800_000L, 2_200_000L);
+        assertThat(samples[9_900]).isGreaterThan(samples[5_000] * 2);
+    }
+
+    @Test
+    @DisplayName("Should never produce negative latency")
+    void shouldNeverBeNegative() {
+        assertThat(sample(LatencyDistribution.parse("normal:1ms:5ms"), 1000)[0]).isGreaterThanOrEqualTo(0);
+        assertThat(sample(LatencyDistribution.parse("exponential:1ms"), 1000)[0]).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown or incomplete specs")
+    void shouldRejectBadSpecs() {
+        assertThatThrownBy(() -> LatencyDistribution.parse("gamma:1ms"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LatencyDistribution.parse("uniform:1ms"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
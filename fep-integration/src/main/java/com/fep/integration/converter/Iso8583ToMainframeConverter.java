@@ -1,26 +1,25 @@
 package com.fep.integration.converter;
 
 import com.fep.integration.model.MainframeRequest;
+import com.fep.message.generic.fixed.FixedField;
+import com.fep.message.generic.fixed.FixedRecordCodec;
+import com.fep.message.generic.fixed.FixedRecordSchemaLoader;
 import com.fep.message.iso8583.Iso8583Message;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Converts ISO 8583 message to mainframe COBOL format.
+ * The copybook is the MAINFRAME_REQUEST layout in {@code mainframe-cobol-layouts.json}.
  */
 @Slf4j
 @Component
 public class Iso8583ToMainframeConverter implements MessageConverter<Iso8583Message, MainframeRequest> {
 
-    private static final Charset BIG5 = Charset.forName("Big5");
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
-
     @Override
     public MainframeRequest convert(Iso8583Message iso8583) {
         log.debug("Converting ISO 8583 to Mainframe format: MTI={}", iso8583.getMti());
@@ -132,63 +131,61 @@ public class Iso8583ToMainframeConverter implements MessageConverter<Iso8583Mess
 
     /**
      * Builds COBOL Copybook format message.
-     * This is a simplified example - actual format should match mainframe COBOL structure.
+     * Text fields are space-padded or truncated; numeric fields are zero-filled.
      */
     private String buildCobolFormat(MainframeRequest request, Iso8583Message iso8583) {
-        StringBuilder sb = new StringBuilder();
+        ByteBuf buffer = Unpooled.buffer(Layout.CODEC.getRecordLength());
+        ByteBuf record = Layout.CODEC.newRecord(buffer);
 
-        // Header (Fixed length fields typical in mainframe systems)
-        appendField(sb, request.getTransactionCode(), 4);      // Transaction code (4 bytes)
-        appendField(sb, request.getTransactionId(), 20);       // Transaction ID (20 bytes)
-        appendField(sb, formatDateTime(request.getTransactionTime()), 14);  // DateTime (14 bytes)
+        // Header
+        Layout.TRANSACTION_CODE.writeString(record, request.getTransactionCode());
+        Layout.TRANSACTION_ID.writeString(record, request.getTransactionId());
+        Layout.TRANSACTION_DATE_TIME.writeLong(record, toNumber(request.getTransactionTime()));
 
         // Body
-        appendField(sb, request.getCardNumber(), 19);          // Card number (19 bytes)
-        appendField(sb, request.getAccountNumber(), 16);       // Account number (16 bytes)
-        appendField(sb, formatAmount(request.getAmount()), 12); // Amount (12 bytes)
-        appendField(sb, request.getCurrencyCode(), 3);         // Currency (3 bytes)
-        appendField(sb, request.getTerminalId(), 8);           // Terminal ID (8 bytes)
-        appendField(sb, request.getMerchantId(), 15);          // Merchant ID (15 bytes)
-
-        // Additional fields
-        appendField(sb, request.getField1(), 30);              // Field1 (30 bytes)
-        appendField(sb, request.getField2(), 30);              // Field2 (30 bytes)
-        appendField(sb, request.getField3(), 100);             // Field3 (100 bytes)
-
-        // Trailer
-        appendField(sb, "", 50);                                // Reserved (50 bytes)
-
-        return sb.toString();
-    }
-
-    /**
-     * Appends field with fixed length (space-padded or truncated).
-     */
-    private void appendField(StringBuilder sb, String value, int length) {
-        String padded = StringUtils.rightPad(value != null ? value : "", length);
-        if (padded.length() > length) {
-            padded = padded.substring(0, length);
-        }
-        sb.append(padded);
+        Layout.CARD_NUMBER.writeString(record, request.getCardNumber());
+        Layout.ACCOUNT_NUMBER.writeString(record, request.getAccountNumber());
+        Layout.AMOUNT.writeLong(record, request.getAmount() != null ? request.getAmount() : 0L);
+        Layout.CURRENCY_CODE.writeString(record, request.getCurrencyCode());
+        Layout.TERMINAL_ID.writeString(record, request.getTerminalId());
+        Layout.MERCHANT_ID.writeString(record, request.getMerchantId());
+
+        // Additional fields; the reserved trailer stays blank
+        Layout.FIELD1.writeString(record, request.getField1());
+        Layout.FIELD2.writeString(record, request.getField2());
+        Layout.FIELD3.writeString(record, request.getField3());
+
+        return buffer.toString(Layout.CODEC.getCharset());
     }
 
     /**
-     * Formats amount to fixed-length string (12 digits, right-aligned, zero-padded).
+     * Date/time as a yyyyMMddHHmmss number.
      */
-    private String formatAmount(Long amount) {
-        if (amount == null) {
-            return "000000000000";
+    private long toNumber(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            dateTime = LocalDateTime.now();
         }
-        return String.format("%012d", amount);
+        long date = dateTime.getYear() * 10000L + dateTime.getMonthValue() * 100L + dateTime.getDayOfMonth();
+        return date * 1_000_000L + dateTime.getHour() * 10000L + dateTime.getMinute() * 100L + dateTime.getSecond();
     }
 
     /**
-     * Formats LocalDateTime to yyyyMMddHHmmss.
+     * Compiled request copybook.
      */
-    private String formatDateTime(LocalDateTime dateTime) {
-        if (dateTime == null) {
-            dateTime = LocalDateTime.now();
-        }
-        return dateTime.format(DATE_TIME_FORMATTER);
+    private static final class Layout {
+        static final FixedRecordCodec CODEC = FixedRecordCodec.compile(
+                FixedRecordSchemaLoader.fromResource("mainframe-cobol-layouts.json", "MAINFRAME_REQUEST"));
+        static final FixedField TRANSACTION_CODE = CODEC.field("transactionCode");
+        static final FixedField TRANSACTION_ID = CODEC.field("transactionId");
+        static final FixedField TRANSACTION_DATE_TIME = CODEC.field("transactionDateTime");
+        static final FixedField CARD_NUMBER = CODEC.field("cardNumber");
+        static final FixedField ACCOUNT_NUMBER = CODEC.field("accountNumber");
+        static final FixedField AMOUNT = CODEC.field("amount");
+        static final FixedField CURRENCY_CODE = CODEC.field("currencyCode");
+        static final FixedField TERMINAL_ID = CODEC.field("terminalId");
+        static final FixedField MERCHANT_ID = CODEC.field("merchantId");
+        static final FixedField FIELD1 = CODEC.field("field1");
+        static final FixedField FIELD2 = CODEC.field("field2");
+        static final FixedField FIELD3 = CODEC.field("field3");
     }
 }
@@ -1,22 +1,27 @@
 package com.fep.integration.converter;
 
 import com.fep.integration.model.MainframeResponse;
+import com.fep.message.generic.fixed.FixedField;
+import com.fep.message.generic.fixed.FixedRecordCodec;
+import com.fep.message.generic.fixed.FixedRecordSchemaLoader;
 import com.fep.message.iso8583.Iso8583Message;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Converts mainframe COBOL format response to ISO 8583 message.
+ * The copybook is the MAINFRAME_RESPONSE layout in {@code mainframe-cobol-layouts.json}.
  */
 @Slf4j
 @Component
 public class MainframeToIso8583Converter implements MessageConverter<MainframeResponse, Iso8583Message> {
 
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("MMddHHmmss");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMdd");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HHmmss");
 
@@ -153,45 +158,22 @@ public class MainframeToIso8583Converter implements MessageConverter<MainframeRe
 
         log.debug("Parsing COBOL format response: length={}", rawPayload.length());
 
-        int offset = 0;
+        ByteBuf record = Unpooled.wrappedBuffer(rawPayload.getBytes(Layout.CODEC.getCharset()));
 
         // Parse header
-        String responseCode = extractField(rawPayload, offset, 4).trim();
-        offset += 4;
-
-        String transactionId = extractField(rawPayload, offset, 20).trim();
-        offset += 20;
-
-        String dateTimeStr = extractField(rawPayload, offset, 14).trim();
-        offset += 14;
+        String responseCode = Layout.RESPONSE_CODE.readString(record);
+        String transactionId = Layout.TRANSACTION_ID.readString(record);
 
         // Parse body
-        String referenceNumber = extractField(rawPayload, offset, 20).trim();
-        offset += 20;
-
-        String balanceStr = extractField(rawPayload, offset, 12).trim();
-        offset += 12;
-
-        String authCode = extractField(rawPayload, offset, 6).trim();
-        offset += 6;
-
-        String accountName = extractField(rawPayload, offset, 50).trim();
-        offset += 50;
-
-        String responseMessage = extractField(rawPayload, offset, 100).trim();
-        offset += 100;
+        String referenceNumber = Layout.REFERENCE_NUMBER.readString(record);
+        String authCode = Layout.AUTHORIZATION_CODE.readString(record);
+        String accountName = Layout.ACCOUNT_NAME.readString(record);
+        String responseMessage = Layout.RESPONSE_MESSAGE.readString(record);
 
         // Parse additional fields
-        String field1 = offset + 30 <= rawPayload.length() ? 
-                extractField(rawPayload, offset, 30).trim() : null;
-        offset += 30;
-
-        String field2 = offset + 30 <= rawPayload.length() ? 
-                extractField(rawPayload, offset, 30).trim() : null;
-        offset += 30;
-
-        String field3 = offset + 100 <= rawPayload.length() ? 
-                extractField(rawPayload, offset, 100).trim() : null;
+        String field1 = extractOptional(record, Layout.FIELD1);
+        String field2 = extractOptional(record, Layout.FIELD2);
+        String field3 = extractOptional(record, Layout.FIELD3);
 
         // Build response object
         MainframeResponse response = MainframeResponse.builder()
@@ -199,10 +181,10 @@ public class MainframeToIso8583Converter implements MessageConverter<MainframeRe
                 .responseCode(responseCode)
                 .responseMessage(responseMessage)
                 .referenceNumber(referenceNumber)
-                .balance(parseBalance(balanceStr))
+                .balance(parseBalance(record))
                 .authorizationCode(authCode.isEmpty() ? null : authCode)
                 .accountName(accountName.isEmpty() ? null : accountName)
-                .responseTime(parseDateTime(dateTimeStr))
+                .responseTime(parseDateTime(record))
                 .field1(field1)
                 .field2(field2)
                 .field3(field3)
@@ -216,42 +198,62 @@ public class MainframeToIso8583Converter implements MessageConverter<MainframeRe
     }
 
     /**
-     * Extracts field from fixed-length COBOL string.
+     * Extracts an additional field, or null if the payload ends before it.
      */
-    private String extractField(String source, int offset, int length) {
-        if (offset + length > source.length()) {
-            return StringUtils.rightPad("", length);
-        }
-        return source.substring(offset, offset + length);
+    private String extractOptional(ByteBuf record, FixedField field) {
+        return field.getOffset() + field.getByteLength() <= record.writerIndex() ? field.readString(record) : null;
     }
 
     /**
-     * Parses balance from string.
+     * Parses balance straight from its digits.
      */
-    private Long parseBalance(String balanceStr) {
-        if (balanceStr == null || balanceStr.isEmpty()) {
+    private Long parseBalance(ByteBuf record) {
+        if (Layout.BALANCE.isBlank(record)) {
             return null;
         }
         try {
-            return Long.parseLong(balanceStr.trim());
+            return Layout.BALANCE.readLong(record);
         } catch (NumberFormatException e) {
-            log.warn("Failed to parse balance: {}", balanceStr, e);
+            log.warn("Failed to parse balance: {}", Layout.BALANCE.readString(record), e);
             return null;
         }
     }
 
     /**
-     * Parses date/time from yyyyMMddHHmmss format.
+     * Parses date/time from yyyyMMddHHmmss digits.
      */
-    private LocalDateTime parseDateTime(String dateTimeStr) {
-        if (dateTimeStr == null || dateTimeStr.length() < 14) {
+    private LocalDateTime parseDateTime(ByteBuf record) {
+        if (Layout.RESPONSE_DATE_TIME.isBlank(record)) {
             return LocalDateTime.now();
         }
         try {
-            return LocalDateTime.parse(dateTimeStr, DATE_TIME_FORMATTER);
-        } catch (Exception e) {
-            log.warn("Failed to parse date/time: {}", dateTimeStr, e);
+            long value = Layout.RESPONSE_DATE_TIME.readLong(record);
+            long date = value / 1_000_000L;
+            long time = value % 1_000_000L;
+            return LocalDateTime.of((int) (date / 10000), (int) (date / 100 % 100), (int) (date % 100),
+                    (int) (time / 10000), (int) (time / 100 % 100), (int) (time % 100));
+        } catch (NumberFormatException | DateTimeException e) {
+            log.warn("Failed to parse date/time: {}", Layout.RESPONSE_DATE_TIME.readString(record), e);
             return LocalDateTime.now();
         }
     }
+
+    /**
+     * Compiled response copybook.
+     */
+    private static final class Layout {
+        static final FixedRecordCodec CODEC = FixedRecordCodec.compile(
+                FixedRecordSchemaLoader.fromResource("mainframe-cobol-layouts.json", "MAINFRAME_RESPONSE"));
+        static final FixedField RESPONSE_CODE = CODEC.field("responseCode");
+        static final FixedField TRANSACTION_ID = CODEC.field("transactionId");
+        static final FixedField RESPONSE_DATE_TIME = CODEC.field("responseDateTime");
+        static final FixedField REFERENCE_NUMBER = CODEC.field("referenceNumber");
+        static final FixedField BALANCE = CODEC.field("balance");
+        static final FixedField AUTHORIZATION_CODE = CODEC.field("authorizationCode");
+        static final FixedField ACCOUNT_NAME = CODEC.field("accountName");
+        static final FixedField RESPONSE_MESSAGE = CODEC.field("responseMessage");
+        static final FixedField FIELD1 = CODEC.field("field1");
+        static final FixedField FIELD2 = CODEC.field("field2");
+        static final FixedField FIELD3 = CODEC.field("field3");
+    }
 }
@@ -0,0 +1,353 @@
+package com.fep.integration.mq.client;
+
+import com.fep.integration.mq.config.MqProperties;
+import com.fep.integration.mq.exception.MqException;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.core.MessageCreator;
+
+import jakarta.jms.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking request-reply correlator for the mainframe MQ queues.
+ *
+ * <p>A small, fixed number of long-lived consumers listen on the reply queue
+ * without selectors and hand each reply to the pending request with the same
+ * {@code JMSCorrelationID}. Requests are sent through a pool of sessions and
+ * producers, time out on a hashed-wheel timer, and are rejected outright once
+ * {@code maxInFlight} requests are outstanding.
+ *
+ * <p>Because consumers take every message on the reply queue, the queue must
+ * be dedicated to this FEP instance.
+ *
+ * <p>Reply futures complete on the JMS consumer thread; dependent stages that
+ * do real work should use the {@code *Async} variants.
+ */
+@Slf4j
+public class MqReplyCorrelator implements AutoCloseable {
+
+    private final ConnectionFactory connectionFactory;
+    private final String requestQueue;
+    private final String replyQueue;
+    private final int consumerCount;
+    private final int maxInFlight;
+    private final Semaphore inFlightPermits;
+    private final BlockingQueue<PooledProducer> producers;
+    private final HashedWheelTimer timer;
+    private final ConcurrentHashMap<String, PendingReply> pending = new ConcurrentHashMap<>();
+
+    private final Object lifecycleLock = new Object();
+    private final List<Session> consumerSessions = new ArrayList<>();
+    private volatile Connection connection;
+    private volatile boolean closed;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder lateReplies = new LongAdder();
+
+    public MqReplyCorrelator(ConnectionFactory connectionFactory, MqProperties properties) {
+        this.connectionFactory = connectionFactory;
+        this.requestQueue = properties.getRequestQueue();
+        this.replyQueue = properties.getReplyQueue();
+        this.consumerCount = Math.max(1, properties.getReplyConsumers());
+        this.maxInFlight = properties.getMaxInFlight();
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.producers = new ArrayBlockingQueue<>(Math.max(1, properties.getProducerPoolSize()));
+        this.timer = new HashedWheelTimer(new DefaultThreadFactory("mq-reply-timeout", true),
+                properties.getTimeoutTickMs(), TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * Sends a request and returns a future for its reply.
+     *
+     * <p>The correlation ID and reply-to queue are set by the correlator. The
+     * future fails with an {@link MqException} on timeout ({@code TIMEOUT}),
+     * when too many requests are outstanding ({@code IN_FLIGHT_LIMIT}), or when
+     * the send or the connection fails. Cancelling the returned future gives
+     * up on the reply and releases its in-flight slot immediately.
+     *
+     * @param messageCreator creates the request message on a pooled session
+     * @param timeoutMs reply timeout in milliseconds
+     * @return future completed with the reply message
+     */
+    public CompletableFuture<Message> request(MessageCreator messageCreator, long timeoutMs) {
+        if (closed) {
+            return CompletableFuture.failedFuture(
+                    new MqException("Reply correlator is closed", requestQueue, "CLOSED"));
+        }
+        if (!inFlightPermits.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new MqException("In-flight limit reached: " + maxInFlight, requestQueue, "IN_FLIGHT_LIMIT"));
+        }
+
+        String correlationId = UUID.randomUUID().toString();
+        PendingReply reply = new PendingReply();
+        pending.put(correlationId, reply);
+        reply.timeout = timer.newTimeout(t -> expire(correlationId, timeoutMs), timeoutMs, TimeUnit.MILLISECONDS);
+        // Callers see the reply only after the slot is released
+        CompletableFuture<Message> result = reply.future.whenComplete(
+                (message, error) -> release(correlationId, reply));
+        // A cancelled result never runs the stage above, so release here as well
+        result.whenComplete((message, error) -> {
+            if (result.isCancelled()) {
+                reply.future.cancel(false);
+                release(correlationId, reply);
+            }
+        });
+
+        try {
+            send(messageCreator, correlationId, timeoutMs);
+            sent.increment();
+            log.debug("MQ request sent: queue={}, correlationId={}", requestQueue, correlationId);
+        } catch (JMSException e) {
+            log.error("MQ send failed: correlationId={}, error={}", correlationId, e.getMessage(), e);
+            reply.future.completeExceptionally(new MqException("MQ send failed: " + e.getMessage(),
+                    requestQueue, errorCode(e), e));
+        } catch (RuntimeException e) {
+            log.error("MQ send failed: correlationId={}, error={}", correlationId, e.getMessage(), e);
+            reply.future.completeExceptionally(new MqException("MQ send failed: " + e.getMessage(),
+                    requestQueue, "JMS_ERROR", e));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of requests awaiting a reply.
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    /**
+     * Gets correlator statistics.
+     */
+    public CorrelatorStats getStats() {
+        return new CorrelatorStats(getInFlight(), sent.sum(), completed.sum(),
+                timedOut.sum(), rejected.sum(), lateReplies.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (lifecycleLock) {
+            teardown();
+        }
+        failPending("Reply correlator is closed", "CLOSED");
+        timer.stop();
+        log.info("MQ reply correlator closed");
+    }
+
+    private void send(MessageCreator messageCreator, String correlationId, long timeoutMs) throws JMSException {
+        PooledProducer producer = borrowProducer();
+        boolean healthy = false;
+        try {
+            Message message = messageCreator.createMessage(producer.session);
+            message.setJMSCorrelationID(correlationId);
+            message.setJMSReplyTo(producer.replyTo);
+            producer.producer.send(message, producer.producer.getDeliveryMode(),
+                    producer.producer.getPriority(), timeoutMs);
+            healthy = true;
+        } finally {
+            if (!healthy || !producers.offer(producer)) {
+                producer.closeQuietly();
+            }
+        }
+    }
+
+    private PooledProducer borrowProducer() throws JMSException {
+        PooledProducer producer = producers.poll();
+        if (producer != null && producer.connection == connection) {
+            return producer;
+        }
+        if (producer != null) {
+            producer.closeQuietly();
+        }
+        Connection current = ensureStarted();
+        Session session = current.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        return new PooledProducer(current, session,
+                session.createProducer(session.createQueue(requestQueue)),
+                session.createQueue(replyQueue));
+    }
+
+    private Connection ensureStarted() throws JMSException {
+        Connection current = connection;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lifecycleLock) {
+            if (closed) {
+                throw new jakarta.jms.IllegalStateException("Reply correlator is closed", "CLOSED");
+            }
+            if (connection == null) {
+                connection = startConsumers();
+            }
+            return connection;
+        }
+    }
+
+    private Connection startConsumers() throws JMSException {
+        Connection newConnection = connectionFactory.createConnection();
+        try {
+            newConnection.setExceptionListener(this::onConnectionFailure);
+            for (int i = 0; i < consumerCount; i++) {
+                Session session = newConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                MessageConsumer consumer = session.createConsumer(session.createQueue(replyQueue));
+                consumer.setMessageListener(this::onReply);
+                consumerSessions.add(session);
+            }
+            newConnection.start();
+        } catch (JMSException | RuntimeException e) {
+            consumerSessions.clear();
+            closeQuietly(newConnection);
+            throw e;
+        }
+        log.info("MQ reply correlator started: replyQueue={}, consumers={}", replyQueue, consumerCount);
+        return newConnection;
+    }
+
+    private void onReply(Message message) {
+        String correlationId;
+        try {
+            correlationId = message.getJMSCorrelationID();
+        } catch (JMSException e) {
+            log.warn("Cannot read correlation ID of MQ reply: {}", e.getMessage());
+            return;
+        }
+        PendingReply reply = correlationId != null ? pending.remove(correlationId) : null;
+        if (reply == null) {
+            lateReplies.increment();
+            log.debug("Discarding MQ reply without pending request: correlationId={}", correlationId);
+            return;
+        }
+        completed.increment();
+        reply.future.complete(message);
+    }
+
+    private void release(String correlationId, PendingReply reply) {
+        if (reply.released.compareAndSet(false, true)) {
+            pending.remove(correlationId, reply);
+            reply.timeout.cancel();
+            inFlightPermits.release();
+        }
+    }
+
+    private void expire(String correlationId, long timeoutMs) {
+        PendingReply reply = pending.remove(correlationId);
+        if (reply != null) {
+            timedOut.increment();
+            reply.future.completeExceptionally(new MqException(
+                    "No reply received within timeout: " + timeoutMs + "ms", replyQueue, "TIMEOUT"));
+        }
+    }
+
+    private void onConnectionFailure(JMSException e) {
+        log.error("MQ reply connection failed, reconnecting on next request: {}", e.getMessage(), e);
+        synchronized (lifecycleLock) {
+            teardown();
+        }
+        failPending("MQ connection lost: " + e.getMessage(), errorCode(e));
+    }
+
+    /**
+     * Closes consumers, pooled producers and the connection. Caller holds the lifecycle lock.
+     */
+    private void teardown() {
+        Connection current = connection;
+        connection = null;
+        PooledProducer producer;
+        while ((producer = producers.poll()) != null) {
+            producer.closeQuietly();
+        }
+        for (Session session : consumerSessions) {
+            try {
+                session.close();
+            } catch (JMSException | RuntimeException ignored) {
+                // connection is being discarded anyway
+            }
+        }
+        consumerSessions.clear();
+        if (current != null) {
+            closeQuietly(current);
+        }
+    }
+
+    private void failPending(String message, String errorCode) {
+        for (String correlationId : pending.keySet()) {
+            PendingReply reply = pending.remove(correlationId);
+            if (reply != null) {
+                reply.future.completeExceptionally(new MqException(message, replyQueue, errorCode));
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (JMSException | RuntimeException e) {
+            log.debug("Error closing MQ connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Extracts an error code from a JMSException.
+     */
+    static String errorCode(JMSException e) {
+        String errorCode = e.getErrorCode();
+        if (errorCode != null && !errorCode.isEmpty()) {
+            return errorCode;
+        }
+
+        // Try to extract from linked exception
+        Exception linkedException = e.getLinkedException();
+        if (linkedException != null) {
+            return linkedException.getClass().getSimpleName();
+        }
+
+        return "UNKNOWN";
+    }
+
+    private static final class PendingReply {
+        final CompletableFuture<Message> future = new CompletableFuture<>();
+        final AtomicBoolean released = new AtomicBoolean();
+        volatile Timeout timeout;
+    }
+
+    private record PooledProducer(Connection connection, Session session,
+                                  MessageProducer producer, Queue replyTo) {
+        void closeQuietly() {
+            try {
+                session.close();
+            } catch (JMSException | RuntimeException e) {
+                log.debug("Error closing pooled MQ session: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Correlator statistics.
+     */
+    public record CorrelatorStats(
+            int inFlight,
+            long sent,
+            long completed,
+            long timedOut,
+            long rejected,
+            long lateReplies
+    ) {}
+}
@@ -5,17 +5,19 @@ import com.fep.integration.mq.exception.MqException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jms.core.JmsTemplate;
-import org.springframework.jms.core.MessageCreator;
 import org.springframework.stereotype.Component;
 
 import jakarta.jms.*;
-import java.nio.charset.Charset;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 /**
  * Template for IBM MQ operations with request-reply pattern.
+ *
+ * <p>Request-reply calls go through {@link MqReplyCorrelator}; fire-and-forget
+ * sends use the {@link JmsTemplate}.
  */
 @Slf4j
 @Component
@@ -24,6 +26,7 @@ public class MqTemplate {
 
     private final JmsTemplate jmsTemplate;
     private final MqProperties mqProperties;
+    private final MqReplyCorrelator replyCorrelator;
 
     /**
      * Sends a synchronous request and waits for reply.
@@ -45,50 +48,7 @@ public class MqTemplate {
      * @throws MqException if MQ operation fails
      */
     public String sendAndReceive(String requestMessage, int timeoutMs) throws MqException {
-        String correlationId = UUID.randomUUID().toString();
-        String requestQueue = mqProperties.getRequestQueue();
-        String replyQueue = mqProperties.getReplyQueue();
-        
-        log.debug("Sending MQ request: queue={}, correlationId={}, length={}", 
-                requestQueue, correlationId, requestMessage.length());
-        
-        try {
-            // Send request message
-            jmsTemplate.send(requestQueue, session -> {
-                TextMessage message = session.createTextMessage(requestMessage);
-                message.setJMSCorrelationID(correlationId);
-                message.setJMSReplyTo(session.createQueue(replyQueue));
-                message.setJMSExpiration(System.currentTimeMillis() + timeoutMs);
-                return message;
-            });
-            
-            log.debug("MQ request sent, waiting for reply: correlationId={}", correlationId);
-            
-            // Receive reply message with selector
-            String selector = "JMSCorrelationID = '" + correlationId + "'";
-            Message replyMessage = jmsTemplate.receiveSelected(replyQueue, selector);
-            
-            if (replyMessage == null) {
-                throw new MqException("No reply received within timeout: " + timeoutMs + "ms", 
-                        replyQueue, "TIMEOUT");
-            }
-            
-            if (replyMessage instanceof TextMessage textMessage) {
-                String reply = textMessage.getText();
-                log.debug("MQ reply received: correlationId={}, length={}", 
-                        correlationId, reply.length());
-                return reply;
-            } else {
-                throw new MqException("Unexpected message type: " + replyMessage.getClass().getName(),
-                        replyQueue, "INVALID_MESSAGE_TYPE");
-            }
-            
-        } catch (JMSException e) {
-            log.error("MQ operation failed: correlationId={}, error={}", 
-                    correlationId, e.getMessage(), e);
-            throw new MqException("MQ operation failed: " + e.getMessage(), 
-                    requestQueue, extractErrorCode(e), e);
-        }
+        return await(sendAsync(requestMessage, timeoutMs));
     }
 
     /**
@@ -134,13 +94,25 @@ public class MqTemplate {
      * @return CompletableFuture with reply message
      */
     public CompletableFuture<String> sendAsync(String requestMessage) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return sendAndReceive(requestMessage);
-            } catch (MqException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        return sendAsync(requestMessage, mqProperties.getRequestTimeout());
+    }
+
+    /**
+     * Sends an asynchronous request with custom timeout.
+     *
+     * <p>No thread waits for the reply; the future completes when the reply
+     * correlator receives it, or fails with {@link MqException} on timeout.
+     *
+     * @param requestMessage the request message payload
+     * @param timeoutMs timeout in milliseconds
+     * @return CompletableFuture with reply message
+     */
+    public CompletableFuture<String> sendAsync(String requestMessage, int timeoutMs) {
+        log.debug("Sending MQ request: queue={}, length={}",
+                mqProperties.getRequestQueue(), requestMessage.length());
+
+        return extract(replyCorrelator.request(session -> session.createTextMessage(requestMessage), timeoutMs),
+                this::extractText);
     }
 
     /**
@@ -151,66 +123,99 @@ public class MqTemplate {
      * @throws MqException if MQ operation fails
      */
     public byte[] sendAndReceiveBytes(byte[] requestBytes) throws MqException {
-        String correlationId = UUID.randomUUID().toString();
-        String requestQueue = mqProperties.getRequestQueue();
-        String replyQueue = mqProperties.getReplyQueue();
-        
-        log.debug("Sending MQ bytes request: queue={}, correlationId={}, length={}", 
-                requestQueue, correlationId, requestBytes.length);
-        
+        return await(sendBytesAsync(requestBytes, mqProperties.getRequestTimeout()));
+    }
+
+    /**
+     * Sends an asynchronous request with byte array payload.
+     *
+     * @param requestBytes the request message as byte array
+     * @param timeoutMs timeout in milliseconds
+     * @return CompletableFuture with reply message as byte array
+     */
+    public CompletableFuture<byte[]> sendBytesAsync(byte[] requestBytes, int timeoutMs) {
+        log.debug("Sending MQ bytes request: queue={}, length={}",
+                mqProperties.getRequestQueue(), requestBytes.length);
+
+        return extract(replyCorrelator.request(session -> {
+                    BytesMessage message = session.createBytesMessage();
+                    message.writeBytes(requestBytes);
+                    return message;
+                }, timeoutMs), this::extractBytes);
+    }
+
+    /**
+     * Maps the correlator's reply future, passing cancellation back to it so
+     * an abandoned request releases its correlator slot without waiting for
+     * the timeout.
+     */
+    private <T> CompletableFuture<T> extract(CompletableFuture<Message> reply, Function<Message, T> extractor) {
+        CompletableFuture<T> result = reply.thenApply(extractor);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                reply.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private String extractText(Message replyMessage) {
         try {
-            // Send request
-            jmsTemplate.send(requestQueue, session -> {
-                BytesMessage message = session.createBytesMessage();
-                message.writeBytes(requestBytes);
-                message.setJMSCorrelationID(correlationId);
-                message.setJMSReplyTo(session.createQueue(replyQueue));
-                return message;
-            });
-            
-            // Receive reply
-            String selector = "JMSCorrelationID = '" + correlationId + "'";
-            Message replyMessage = jmsTemplate.receiveSelected(replyQueue, selector);
-            
-            if (replyMessage == null) {
-                throw new MqException("No reply received within timeout", 
-                        replyQueue, "TIMEOUT");
+            if (replyMessage instanceof TextMessage textMessage) {
+                String reply = textMessage.getText();
+                log.debug("MQ reply received: correlationId={}, length={}",
+                        replyMessage.getJMSCorrelationID(), reply.length());
+                return reply;
             }
-            
+        } catch (JMSException e) {
+            throw new CompletionException(readFailure(e));
+        }
+        throw new CompletionException(unexpectedType(replyMessage));
+    }
+
+    private byte[] extractBytes(Message replyMessage) {
+        try {
             if (replyMessage instanceof BytesMessage bytesMessage) {
                 byte[] reply = new byte[(int) bytesMessage.getBodyLength()];
                 bytesMessage.readBytes(reply);
-                log.debug("MQ bytes reply received: correlationId={}, length={}", 
-                        correlationId, reply.length);
+                log.debug("MQ bytes reply received: correlationId={}, length={}",
+                        replyMessage.getJMSCorrelationID(), reply.length);
                 return reply;
-            } else {
-                throw new MqException("Unexpected message type: " + replyMessage.getClass().getName(),
-                        replyQueue, "INVALID_MESSAGE_TYPE");
             }
-            
         } catch (JMSException e) {
-            log.error("MQ bytes operation failed: correlationId={}, error={}", 
-                    correlationId, e.getMessage(), e);
-            throw new MqException("MQ bytes operation failed: " + e.getMessage(), 
-                    requestQueue, extractErrorCode(e), e);
+            throw new CompletionException(readFailure(e));
         }
+        throw new CompletionException(unexpectedType(replyMessage));
+    }
+
+    private MqException readFailure(JMSException e) {
+        log.error("MQ reply read failed: error={}", e.getMessage(), e);
+        return new MqException("MQ operation failed: " + e.getMessage(),
+                mqProperties.getReplyQueue(), MqReplyCorrelator.errorCode(e), e);
+    }
+
+    private MqException unexpectedType(Message replyMessage) {
+        return new MqException("Unexpected message type: " + replyMessage.getClass().getName(),
+                mqProperties.getReplyQueue(), "INVALID_MESSAGE_TYPE");
     }
 
     /**
-     * Extracts error code from JMSException.
+     * Waits for a reply future, unwrapping the MqException it failed with.
      */
-    private String extractErrorCode(JMSException e) {
-        String errorCode = e.getErrorCode();
-        if (errorCode != null && !errorCode.isEmpty()) {
-            return errorCode;
-        }
-        
-        // Try to extract from linked exception
-        Exception linkedException = e.getLinkedException();
-        if (linkedException != null) {
-            return linkedException.getClass().getSimpleName();
+    private <T> T await(CompletableFuture<T> reply) throws MqException {
+        try {
+            return reply.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reply.cancel(false);
+            throw new MqException("Interrupted while waiting for reply",
+                    mqProperties.getReplyQueue(), "INTERRUPTED", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MqException mqException) {
+                throw mqException;
+            }
+            throw new MqException("MQ operation failed: " + e.getCause().getMessage(),
+                    mqProperties.getRequestQueue(), "UNKNOWN", e.getCause());
         }
-        
-        return "UNKNOWN";
     }
 }
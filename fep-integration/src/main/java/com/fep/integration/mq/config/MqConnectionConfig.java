@@ -1,5 +1,6 @@
 package com.fep.integration.mq.config;
 
+import com.fep.integration.mq.client.MqReplyCorrelator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -70,4 +71,22 @@ public class MqConnectionConfig {
 
         return template;
     }
+
+    /**
+     * Creates the reply correlator for request-reply messaging.
+     * It owns a dedicated connection on the target factory so its listeners are
+     * not mixed with the cached sessions and consumers used by JmsTemplate.
+     */
+    @Bean(destroyMethod = "close")
+    public MqReplyCorrelator mqReplyCorrelator(CachingConnectionFactory cachingConnectionFactory) {
+        MqReplyCorrelator correlator = new MqReplyCorrelator(
+                cachingConnectionFactory.getTargetConnectionFactory(), mqProperties);
+
+        log.info("MqReplyCorrelator configured with replyQueue={}, consumers={}, maxInFlight={}",
+                mqProperties.getReplyQueue(),
+                mqProperties.getReplyConsumers(),
+                mqProperties.getMaxInFlight());
+
+        return correlator;
+    }
 }
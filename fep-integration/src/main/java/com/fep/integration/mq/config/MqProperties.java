@@ -72,6 +72,26 @@ public class MqProperties {
      */
     private int minConnections = 2;
 
+    /**
+     * Number of long-lived consumers on the reply queue.
+     */
+    private int replyConsumers = 2;
+
+    /**
+     * Maximum number of requests awaiting a reply; further requests are rejected.
+     */
+    private int maxInFlight = 1000;
+
+    /**
+     * Number of pooled sessions and producers for sending requests.
+     */
+    private int producerPoolSize = 10;
+
+    /**
+     * Tick duration of the reply timeout wheel in milliseconds.
+     */
+    private long timeoutTickMs = 10;
+
     /**
      * Enable SSL/TLS connection.
      */
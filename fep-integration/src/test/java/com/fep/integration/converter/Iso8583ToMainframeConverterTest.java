@@ -125,6 +125,8 @@ class Iso8583ToMainframeConverterTest {
         // Check fixed-length format
         assertTrue(rawPayload.startsWith("3001")); // Transaction code (4 bytes)
         assertTrue(rawPayload.length() >= 300);     // Minimum expected length
+        assertEquals("000000010000", rawPayload.substring(73, 85)); // Amount (12 digits, zero-filled)
+        assertEquals("ATM00001", rawPayload.substring(88, 96));     // Terminal ID (8 bytes)
     }
 
     @Test
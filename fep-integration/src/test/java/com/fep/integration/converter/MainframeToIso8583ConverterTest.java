@@ -117,6 +117,28 @@ class MainframeToIso8583ConverterTest {
         assertEquals("Approved", result.getResponseMessage());
         assertTrue(result.isSuccess());
         assertFalse(result.isDeclined());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 14, 30), result.getResponseTime());
+        assertEquals("FIELD3", result.getField3());
+    }
+
+    @Test
+    void testParseCobolFormat_ShortPayload() {
+        // Given - header and body only, balance left blank
+        String rawPayload = String.format("%-4s", "51")
+                + String.format("%-20s", "TXN999")
+                + "20240115143000"
+                + String.format("%-20s", "REF999")
+                + " ".repeat(12);
+
+        // When
+        MainframeResponse result = converter.parseCobolFormat(rawPayload);
+
+        // Then
+        assertEquals("51", result.getResponseCode());
+        assertNull(result.getBalance());
+        assertNull(result.getAuthorizationCode());
+        assertNull(result.getField1());
+        assertNull(result.getField3());
     }
 
     @Test
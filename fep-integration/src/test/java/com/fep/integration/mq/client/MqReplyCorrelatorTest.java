@@ -0,0 +1,243 @@
+package com.fep.integration.mq.client;
+
+import com.fep.integration.mq.config.MqProperties;
+import com.fep.integration.mq.exception.MqException;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.core.JmsTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MqReplyCorrelator and MqTemplate request-reply against an embedded broker.
+ */
+@DisplayName("MqReplyCorrelator Tests")
+class MqReplyCorrelatorTest {
+
+    private static final String BROKER_URL = "vm://0";
+    private static final String SILENT = "SILENT";
+
+    private static EmbeddedActiveMQ broker;
+    private static ConnectionFactory connectionFactory;
+
+    private Connection responderConnection;
+    private MqProperties properties;
+    private MqReplyCorrelator correlator;
+    private MqTemplate mqTemplate;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("in-vm", BROKER_URL));
+        broker.start();
+        connectionFactory = new ActiveMQConnectionFactory(BROKER_URL);
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        broker.stop();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new MqProperties();
+        properties.setRequestQueue("TEST.REQUEST." + System.nanoTime());
+        properties.setReplyQueue("TEST.REPLY." + System.nanoTime());
+        properties.setMaxInFlight(50);
+        properties.setRequestTimeout(2000);
+
+        startResponder();
+        correlator = new MqReplyCorrelator(connectionFactory, properties);
+        mqTemplate = new MqTemplate(new JmsTemplate(connectionFactory), properties, correlator);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        correlator.close();
+        responderConnection.close();
+    }
+
+    /**
+     * Echoes each request back to its reply-to queue, except SILENT requests.
+     */
+    private void startResponder() throws Exception {
+        responderConnection = connectionFactory.createConnection();
+        Session session = responderConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageConsumer consumer = session.createConsumer(session.createQueue(properties.getRequestQueue()));
+        MessageProducer producer = session.createProducer(null);
+        consumer.setMessageListener(request -> {
+            try {
+                Message reply;
+                if (request instanceof TextMessage text) {
+                    if (SILENT.equals(text.getText())) {
+                        return;
+                    }
+                    reply = session.createTextMessage("ECHO:" + text.getText());
+                } else {
+                    BytesMessage bytes = (BytesMessage) request;
+                    byte[] body = new byte[(int) bytes.getBodyLength()];
+                    bytes.readBytes(body);
+                    BytesMessage bytesReply = session.createBytesMessage();
+                    bytesReply.writeBytes(body);
+                    bytesReply.writeBytes(new byte[]{(byte) 0xFF});
+                    reply = bytesReply;
+                }
+                reply.setJMSCorrelationID(request.getJMSCorrelationID());
+                producer.send(request.getJMSReplyTo(), reply);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        responderConnection.start();
+    }
+
+    @Nested
+    @DisplayName("Request-Reply")
+    class RequestReplyTests {
+
+        @Test
+        @DisplayName("Should correlate text reply")
+        void shouldCorrelateTextReply() throws Exception {
+            assertEquals("ECHO:HELLO", mqTemplate.sendAndReceive("HELLO"));
+
+            var stats = correlator.getStats();
+            assertEquals(1, stats.sent());
+            assertEquals(1, stats.completed());
+            assertEquals(0, stats.inFlight());
+        }
+
+        @Test
+        @DisplayName("Should correlate bytes reply")
+        void shouldCorrelateBytesReply() throws Exception {
+            byte[] reply = mqTemplate.sendAndReceiveBytes(new byte[]{1, 2, 3});
+
+            assertArrayEquals(new byte[]{1, 2, 3, (byte) 0xFF}, reply);
+        }
+
+        @Test
+        @DisplayName("Should route concurrent replies to their own requests")
+        void shouldRouteConcurrentReplies() throws Exception {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                futures.add(mqTemplate.sendAsync("REQ-" + i));
+            }
+
+            for (int i = 0; i < 40; i++) {
+                assertEquals("ECHO:REQ-" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(40, correlator.getStats().completed());
+            assertEquals(0, correlator.getInFlight());
+        }
+    }
+
+    @Nested
+    @DisplayName("Timeouts and Limits")
+    class TimeoutAndLimitTests {
+
+        @Test
+        @DisplayName("Should time out when no reply arrives")
+        void shouldTimeOut() {
+            MqException e = assertThrows(MqException.class, () -> mqTemplate.sendAndReceive(SILENT, 100));
+
+            assertEquals("TIMEOUT", e.getMqErrorCode());
+            assertEquals(1, correlator.getStats().timedOut());
+            assertEquals(0, correlator.getInFlight());
+        }
+
+        @Test
+        @DisplayName("Should reject requests beyond in-flight limit")
+        void shouldRejectBeyondInFlightLimit() throws Exception {
+            correlator.close();
+            properties.setMaxInFlight(2);
+            correlator = new MqReplyCorrelator(connectionFactory, properties);
+            mqTemplate = new MqTemplate(new JmsTemplate(connectionFactory), properties, correlator);
+
+            CompletableFuture<String> first = mqTemplate.sendAsync(SILENT, 500);
+            CompletableFuture<String> second = mqTemplate.sendAsync(SILENT, 500);
+            CompletableFuture<String> third = mqTemplate.sendAsync(SILENT, 500);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> third.get(1, TimeUnit.SECONDS));
+            assertEquals("IN_FLIGHT_LIMIT", ((MqException) e.getCause()).getMqErrorCode());
+            assertEquals(2, correlator.getInFlight());
+
+            assertThrows(ExecutionException.class, () -> first.get(2, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> second.get(2, TimeUnit.SECONDS));
+            assertEquals(0, correlator.getInFlight());
+            assertEquals("ECHO:AGAIN", mqTemplate.sendAndReceive("AGAIN"));
+        }
+
+        @Test
+        @DisplayName("Should fail pending requests on close")
+        void shouldFailPendingOnClose() {
+            CompletableFuture<String> pending = mqTemplate.sendAsync(SILENT, 5000);
+
+            correlator.close();
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> pending.get(1, TimeUnit.SECONDS));
+            assertEquals("CLOSED", ((MqException) e.getCause()).getMqErrorCode());
+        }
+
+        @Test
+        @DisplayName("Should release the slot when the caller cancels")
+        void shouldReleaseSlotOnCancel() {
+            CompletableFuture<String> pending = mqTemplate.sendAsync(SILENT, 5000);
+            assertEquals(1, correlator.getInFlight());
+
+            pending.cancel(false);
+
+            assertEquals(0, correlator.getInFlight());
+        }
+
+        @Test
+        @DisplayName("Should release the slot when the waiting thread is interrupted")
+        void shouldReleaseSlotOnInterrupt() throws Exception {
+            AtomicReference<MqException> failure = new AtomicReference<>();
+            Thread caller = new Thread(() -> {
+                try {
+                    mqTemplate.sendAndReceive(SILENT, 5000);
+                } catch (MqException e) {
+                    failure.set(e);
+                }
+            });
+            caller.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (correlator.getStats().sent() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, correlator.getInFlight());
+
+            caller.interrupt();
+            caller.join(1000);
+
+            assertEquals("INTERRUPTED", failure.get().getMqErrorCode());
+            assertEquals(0, correlator.getInFlight());
+            assertEquals(0, correlator.getStats().timedOut());
+        }
+    }
+}
@@ -49,6 +49,9 @@ public class FepJmeterPlugin {
     public static final String VERSION = "1.0.0";
     public static final String NAME = "FEP JMeter Plugin";
 
+    /** Trace channel shared by all plugin components, so STANs stay unique across samplers */
+    public static final String TRACE_CHANNEL = "JMETER";
+
     static {
         log.info("Loading {} v{}", NAME, VERSION);
         log.info("Components: FISC Connection Config, FISC ISO 8583 Sampler");
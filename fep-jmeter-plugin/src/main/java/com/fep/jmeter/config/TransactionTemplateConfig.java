@@ -1,6 +1,8 @@
 package com.fep.jmeter.config;
 
+import com.fep.jmeter.FepJmeterPlugin;
 import com.fep.message.iso8583.Iso8583Message;
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import org.apache.jmeter.config.ConfigTestElement;
 import org.apache.jmeter.testbeans.TestBean;
 import org.apache.jmeter.threads.JMeterContext;
@@ -15,7 +17,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * JMeter Config Element for managing Transaction Templates.
@@ -64,7 +65,6 @@ public class TransactionTemplateConfig extends ConfigTestElement implements Test
 
     // Loaded templates cache
     private static final Map<String, List<TransactionTemplate>> templateCache = new ConcurrentHashMap<>();
-    private static final AtomicInteger stanCounter = new AtomicInteger(0);
 
     public TransactionTemplateConfig() {
         super();
@@ -113,7 +113,7 @@ public class TransactionTemplateConfig extends ConfigTestElement implements Test
 
         // Auto-generate STAN if enabled
         if (isAutoGenerateStan()) {
-            String stan = String.format("%06d", stanCounter.incrementAndGet() % 1000000);
+            String stan = TraceNumberAllocator.getDefault().nextStan(FepJmeterPlugin.TRACE_CHANNEL);
             variables.put("stan", stan);
         }
 
@@ -539,7 +539,7 @@ public class BankCoreSimulatorEngine implements AutoCloseable {
     }
 
     private String generateStan() {
-        return String.format("%06d", ThreadLocalRandom.current().nextInt(1000000));
+        return messageFactory.generateStan();
     }
 
     /**
@@ -1,9 +1,11 @@
 package com.fep.jmeter.sampler;
 
+import com.fep.jmeter.FepJmeterPlugin;
 import com.fep.jmeter.engine.FiscDualChannelSimulatorEngine;
 import com.fep.jmeter.validation.MessageValidationEngine;
 import com.fep.message.iso8583.Iso8583Message;
 import com.fep.message.iso8583.MessageType;
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import org.apache.jmeter.samplers.AbstractSampler;
 import org.apache.jmeter.samplers.Entry;
 import org.apache.jmeter.samplers.SampleResult;
@@ -26,7 +28,6 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * JMeter Sampler for simulating a FISC Dual-Channel Server.
@@ -100,9 +101,6 @@ public class FiscDualChannelServerSampler extends AbstractSampler implements Tes
     private static final Map<String, ServerInstance> serverInstances = new ConcurrentHashMap<>();
     private static final Object serverLock = new Object();
 
-    // STAN counter for active message sending
-    private static final AtomicInteger stanCounter = new AtomicInteger(0);
-
     public FiscDualChannelServerSampler() {
         super();
         setName("FISC Dual-Channel Server Simulator");
@@ -398,7 +396,7 @@ public class FiscDualChannelServerSampler extends AbstractSampler implements Tes
         };
 
         // Set common fields
-        String stan = String.format("%06d", stanCounter.incrementAndGet() % 1000000);
+        String stan = TraceNumberAllocator.getDefault().nextStan(FepJmeterPlugin.TRACE_CHANNEL);
         message.setField(11, stan);
 
         // Set transmission date/time
@@ -1,8 +1,10 @@
 package com.fep.jmeter.sampler;
 
+import com.fep.jmeter.FepJmeterPlugin;
 import com.fep.jmeter.engine.FiscDualChannelSimulatorEngine;
 import com.fep.message.iso8583.Iso8583Message;
 import com.fep.message.iso8583.MessageType;
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import org.apache.jmeter.samplers.AbstractSampler;
 import org.apache.jmeter.samplers.Entry;
 import org.apache.jmeter.samplers.SampleResult;
@@ -16,7 +18,6 @@ import org.slf4j.LoggerFactory;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * JMeter Sampler for sending proactive messages from FISC Dual-Channel Server.
@@ -67,9 +68,6 @@ public class FiscMessageSenderSampler extends AbstractSampler implements TestBea
     @Deprecated
     public static final String TYPE_CUSTOM = FiscMessageType.CUSTOM.name();
 
-    // STAN counter for unique message identification
-    private static final AtomicInteger stanCounter = new AtomicInteger(0);
-
     public FiscMessageSenderSampler() {
         super();
         setName("FISC Message Sender");
@@ -207,7 +205,7 @@ public class FiscMessageSenderSampler extends AbstractSampler implements TestBea
         };
 
         // Set common fields
-        String stan = String.format("%06d", stanCounter.incrementAndGet() % 1000000);
+        String stan = TraceNumberAllocator.getDefault().nextStan(FepJmeterPlugin.TRACE_CHANNEL);
         message.setField(11, stan);
 
         // Set transmission date/time
@@ -1,10 +1,12 @@
 package com.fep.jmeter.sampler;
 
+import com.fep.jmeter.FepJmeterPlugin;
 import com.fep.jmeter.config.TransactionTemplate;
 import com.fep.jmeter.config.TransactionTemplateConfig;
 import com.fep.message.iso8583.Iso8583Message;
 import com.fep.message.iso8583.parser.FiscMessageAssembler;
 import com.fep.message.iso8583.parser.FiscMessageParser;
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -33,7 +35,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * JMeter Sampler for sending transactions based on Transaction Templates.
@@ -86,7 +87,6 @@ public class TemplateSampler extends AbstractSampler implements TestBean, TestSt
     private static final Map<String, ChannelHolder> channelPool = new ConcurrentHashMap<>();
     private static final Object channelLock = new Object();
     private static EventLoopGroup workerGroup;
-    private static final AtomicInteger stanCounter = new AtomicInteger(0);
     private static final FiscMessageAssembler messageAssembler = new FiscMessageAssembler();
     private static final FiscMessageParser messageParser = new FiscMessageParser();
 
@@ -153,7 +153,7 @@ public class TemplateSampler extends AbstractSampler implements TestBean, TestSt
             CompletableFuture<Iso8583Message> responseFuture = new CompletableFuture<>();
             String stan = request.getFieldAsString(11);
             if (stan == null) {
-                stan = String.format("%06d", stanCounter.incrementAndGet() % 1000000);
+                stan = TraceNumberAllocator.getDefault().nextStan(FepJmeterPlugin.TRACE_CHANNEL);
                 request.setField(11, stan);
             }
             holder.pendingRequests.put(stan, responseFuture);
@@ -238,7 +238,7 @@ public class TemplateSampler extends AbstractSampler implements TestBean, TestSt
         Map<String, String> variables = new HashMap<>();
 
         // Auto-generate STAN
-        String stan = String.format("%06d", stanCounter.incrementAndGet() % 1000000);
+        String stan = TraceNumberAllocator.getDefault().nextStan(FepJmeterPlugin.TRACE_CHANNEL);
         variables.put("stan", stan);
 
         // Auto-generate timestamp
@@ -0,0 +1,95 @@
+package com.fep.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records request latencies into HDR histograms, in microseconds.
+ *
+ * <p>Two latencies are kept per request:
+ * <ul>
+ *   <li><b>response time</b> - from the <em>scheduled</em> send time to completion.
+ *       If the generator or the system stalls, requests scheduled during the stall
+ *       are charged for the time they waited to be sent, so the histogram is not
+ *       subject to coordinated omission. This is the number to quote.</li>
+ *   <li><b>service time</b> - from the actual send to completion. The gap between
+ *       the two shows how much of the latency is queueing.</li>
+ * </ul>
+ *
+ * <p>Completion callbacks record concurrently and wait-free; {@link #sample()} is
+ * called from one reporting thread.
+ */
+public final class LatencyRecorder {
+
+    /** Values above this are clamped; five minutes is far beyond any request timeout */
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Histogram responseTotal = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram serviceTotal = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private Histogram responseInterval;
+    private Histogram serviceInterval;
+
+    /**
+     * Records one completed request.
+     *
+     * @param scheduledNanos {@link System#nanoTime()} the request was due to be sent
+     * @param sentNanos      {@link System#nanoTime()} it was actually sent
+     * @param completedNanos {@link System#nanoTime()} it completed
+     */
+    public void record(long scheduledNanos, long sentNanos, long completedNanos) {
+        responseTime.recordValue(toMicros(completedNanos - scheduledNanos));
+        serviceTime.recordValue(toMicros(completedNanos - sentNanos));
+    }
+
+    /**
+     * Records a request that was never answered, e.g. one the generator could not send.
+     * Only the response time is recorded: it is charged from the scheduled send time
+     * until the run stopped waiting, so unanswered requests count at least that long
+     * instead of vanishing from the distribution.
+     *
+     * @param scheduledNanos {@link System#nanoTime()} the request was due to be sent
+     * @param givenUpNanos   {@link System#nanoTime()} the run stopped waiting for it
+     */
+    public void recordUnanswered(long scheduledNanos, long givenUpNanos) {
+        responseTime.recordValue(toMicros(givenUpNanos - scheduledNanos));
+    }
+
+    /**
+     * Moves everything recorded since the last call into the totals.
+     *
+     * @return response times recorded since the last call; valid until the next call
+     */
+    public synchronized Histogram sample() {
+        responseInterval = responseTime.getIntervalHistogram(responseInterval);
+        serviceInterval = serviceTime.getIntervalHistogram(serviceInterval);
+        responseTotal.add(responseInterval);
+        serviceTotal.add(serviceInterval);
+        return responseInterval;
+    }
+
+    /**
+     * Gets all response times moved in by {@link #sample()}.
+     */
+    public synchronized Histogram getResponseTime() {
+        return responseTotal.copy();
+    }
+
+    /**
+     * Gets all service times moved in by {@link #sample()}.
+     */
+    public synchronized Histogram getServiceTime() {
+        return serviceTotal.copy();
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)), HIGHEST_TRACKABLE_MICROS);
+    }
+}
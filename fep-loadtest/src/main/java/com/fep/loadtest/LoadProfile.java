@@ -0,0 +1,68 @@
+package com.fep.loadtest;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Offered load for one run of the {@link OpenLoopGenerator}.
+ *
+ * <p>Requests are scheduled at a constant arrival rate, independent of how fast
+ * the system answers. Requests scheduled during the warm-up are sent but not recorded.
+ */
+@Data
+@Builder
+public class LoadProfile {
+
+    /** Requests per second to offer */
+    @Builder.Default
+    private double targetTps = 1000;
+
+    /** Measured period, after the warm-up */
+    @Builder.Default
+    private Duration duration = Duration.ofSeconds(60);
+
+    /** Period at the start whose requests are sent but not recorded */
+    @Builder.Default
+    private Duration warmup = Duration.ofSeconds(10);
+
+    /**
+     * Outstanding requests allowed before new arrivals are counted as rejected
+     * instead of sent; guards the load generator, not the system under test.
+     * Rejected requests still count in the response time, as if never answered
+     */
+    @Builder.Default
+    private int maxInFlight = 10000;
+
+    /** Time to wait for outstanding requests once the last one is scheduled */
+    @Builder.Default
+    private Duration drainTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Validates the profile.
+     *
+     * @throws IllegalArgumentException if a setting is out of range
+     */
+    public void validate() {
+        if (targetTps <= 0) {
+            throw new IllegalArgumentException("targetTps must be > 0");
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be > 0");
+        }
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("warmup must be >= 0");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be > 0");
+        }
+    }
+
+    /**
+     * Gets the nanoseconds between two scheduled arrivals.
+     */
+    public double getIntervalNanos() {
+        return 1_000_000_000d / targetTps;
+    }
+}
@@ -0,0 +1,86 @@
+package com.fep.loadtest;
+
+import com.fep.loadtest.scenario.FullStackConfig;
+import com.fep.loadtest.scenario.FullStackScenario;
+import com.fep.loadtest.scenario.Scenario;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line entry point for load tests.
+ *
+ * <pre>
+ * java -jar fep-loadtest-jar-with-dependencies.jar \
+ *     --scenario=full-stack --tps=2000 --duration=60 --warmup=10 \
+ *     --hsm-latency=lognormal:2ms:0.5 --output=results/2000tps
+ * </pre>
+ *
+ * <p>Writes {@code result.json} and the latency distributions into the output
+ * directory (default {@code loadtest-results/<timestamp>}) and logs the JSON.
+ */
+@Slf4j
+public final class LoadTestMain {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        LoadProfile profile = LoadProfile.builder()
+                .targetTps(Double.parseDouble(options.getOrDefault("tps", "1000")))
+                .duration(Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))))
+                .warmup(Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))))
+                .maxInFlight(Integer.parseInt(options.getOrDefault("max-in-flight", "10000")))
+                .build();
+        Path output = Path.of(options.getOrDefault("output",
+                "loadtest-results/" + LocalDateTime.now().format(RUN_ID)));
+
+        try (Scenario scenario = createScenario(options)) {
+            scenario.start();
+
+            LoadTestResult result = new OpenLoopGenerator(profile, scenario.getSender()).run(scenario.getName());
+            result.getParameters().putAll(scenario.getParameters());
+            result.writeTo(output);
+
+            log.info("Result of {}:\n{}", scenario.getName(), result.toJson());
+            log.info("Results written to {}", output.toAbsolutePath());
+        }
+        System.exit(0);
+    }
+
+    static Scenario createScenario(Map<String, String> options) {
+        String name = options.getOrDefault("scenario", FullStackScenario.NAME);
+        if (!FullStackScenario.NAME.equals(name)) {
+            throw new IllegalArgumentException("Unknown scenario: " + name);
+        }
+        return new FullStackScenario(FullStackConfig.builder()
+                .hsmLatency(options.getOrDefault("hsm-latency", "none"))
+                .hsmMaxConcurrent(Integer.parseInt(options.getOrDefault("hsm-max-concurrent", "16")))
+                .hsmConnections(Integer.parseInt(options.getOrDefault("hsm-connections", "4")))
+                .translatePin(Boolean.parseBoolean(options.getOrDefault("translate-pin", "true")))
+                .fiscResponseCode(options.getOrDefault("fisc-response-code", "00"))
+                .requestTimeoutMs(Integer.parseInt(options.getOrDefault("request-timeout-ms", "30000")))
+                .build());
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
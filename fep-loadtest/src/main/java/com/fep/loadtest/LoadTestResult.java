@@ -0,0 +1,177 @@
+package com.fep.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Builder;
+import lombok.Data;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of one load-test run, written as JSON for comparison between releases.
+ *
+ * <p>{@link #writeTo(Path)} produces:
+ * <ul>
+ *   <li>{@code result.json} - counters, throughput and latency percentiles</li>
+ *   <li>{@code response-time.hgrm}, {@code service-time.hgrm} - full percentile
+ *       distributions in HdrHistogram's text format, for plotting several runs together</li>
+ * </ul>
+ * Latencies are in milliseconds.
+ */
+@Data
+@Builder
+@JsonPropertyOrder({"scenario", "startedAt", "targetTps", "achievedTps"})
+public class LoadTestResult {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /** Unit ratio of the recorded histograms (microseconds) to the reported unit (milliseconds) */
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private String scenario;
+
+    /** ISO-8601 start of the measured period */
+    private String startedAt;
+
+    private double targetTps;
+
+    /** Completed requests per second over the measured period */
+    private double achievedTps;
+
+    private double durationSeconds;
+    private double warmupSeconds;
+
+    /** Requests due in the measured period */
+    private long scheduled;
+
+    /** Requests sent in the measured period */
+    private long sent;
+
+    private long approved;
+    private long declined;
+
+    /** Requests that timed out or failed */
+    private long failed;
+
+    /**
+     * Requests not sent because the in-flight limit was reached; their response time
+     * is recorded from their scheduled send time until the run stopped waiting
+     */
+    private long rejected;
+
+    /**
+     * Requests still outstanding when the drain timeout expired; their response time
+     * is recorded from their scheduled send time until the run stopped waiting
+     */
+    private long unanswered;
+
+    /** Largest delay between a request's scheduled and actual send time */
+    private double maxSendLagMs;
+
+    /** Latency from scheduled send to completion; corrected for coordinated omission */
+    private LatencySummary responseTime;
+
+    /** Latency from actual send to completion */
+    private LatencySummary serviceTime;
+
+    /** Scenario parameters */
+    @Builder.Default
+    private Map<String, String> parameters = new LinkedHashMap<>();
+
+    /** JVM and host the run was made on */
+    @Builder.Default
+    private Map<String, String> environment = defaultEnvironment();
+
+    @JsonIgnore
+    private Histogram responseHistogram;
+
+    @JsonIgnore
+    private Histogram serviceHistogram;
+
+    /**
+     * Writes the result files into a directory, creating it if needed.
+     *
+     * @param directory the output directory
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        MAPPER.writeValue(directory.resolve("result.json").toFile(), this);
+        writeDistribution(directory.resolve("response-time.hgrm"), responseHistogram);
+        writeDistribution(directory.resolve("service-time.hgrm"), serviceHistogram);
+    }
+
+    /**
+     * Serializes the result as JSON.
+     */
+    public String toJson() {
+        try {
+            return MAPPER.writeValueAsString(this);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize load test result", e);
+        }
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        if (histogram == null) {
+            return;
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static Map<String, String> defaultEnvironment() {
+        Map<String, String> environment = new LinkedHashMap<>();
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("javaVm", System.getProperty("java.vm.name"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("availableProcessors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        environment.put("maxHeapMb", String.valueOf(Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+        return environment;
+    }
+
+    /**
+     * Percentile summary of a latency histogram, in milliseconds.
+     */
+    public record LatencySummary(
+            long count,
+            double min,
+            double mean,
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double p9999,
+            double max
+    ) {
+
+        /**
+         * Summarizes a histogram recorded in microseconds.
+         */
+        public static LatencySummary of(Histogram histogram) {
+            return new LatencySummary(
+                    histogram.getTotalCount(),
+                    millis(histogram.getMinValue()),
+                    histogram.getMean() / MICROS_PER_MILLI,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getValueAtPercentile(99.99)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / MICROS_PER_MILLI;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.fep.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Constant-arrival-rate load generator.
+ *
+ * <p>Request {@code n} is due at {@code start + n / targetTps}, whether or not earlier
+ * requests have completed - the way independent ATMs and POS terminals arrive. One
+ * dispatcher thread sends each request at its due time through a non-blocking
+ * {@link RequestSender}; latency is measured from the due time, so a stalled system
+ * or a late dispatcher shows up in the histogram instead of silently lowering the
+ * offered load (coordinated omission). For the same reason, requests the generator
+ * could not send (in-flight limit) and requests still outstanding when the drain
+ * timeout expires are recorded too, charged from their due time until the run
+ * stopped waiting.
+ *
+ * <p>Example:
+ * <pre>{@code
+ * LoadProfile profile = LoadProfile.builder()
+ *     .targetTps(2000)
+ *     .duration(Duration.ofSeconds(60))
+ *     .build();
+ *
+ * LoadTestResult result = new OpenLoopGenerator(profile, sequence -> scenario.send(sequence))
+ *     .run("full-stack");
+ * }</pre>
+ */
+@Slf4j
+public class OpenLoopGenerator {
+
+    /** Remaining wait below which the dispatcher spins instead of parking */
+    private static final long SPIN_THRESHOLD_NANOS = 50_000L;
+
+    private final LoadProfile profile;
+    private final RequestSender sender;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** Measured requests sent but not yet completed, by sequence */
+    private final Map<Long, Outstanding> outstanding = new ConcurrentHashMap<>();
+    private final LongAdder approved = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Creates a generator.
+     *
+     * @param profile the offered load
+     * @param sender  sends one request; must not block
+     */
+    public OpenLoopGenerator(LoadProfile profile, RequestSender sender) {
+        profile.validate();
+        this.profile = profile;
+        this.sender = sender;
+    }
+
+    /**
+     * Runs the warm-up and the measured period, then waits for outstanding requests.
+     *
+     * @param scenario scenario name for the result
+     * @return the measured result
+     * @throws InterruptedException if interrupted while running
+     */
+    public LoadTestResult run(String scenario) throws InterruptedException {
+        double intervalNanos = profile.getIntervalNanos();
+        long warmupNanos = profile.getWarmup().toNanos();
+        long durationNanos = profile.getDuration().toNanos();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "loadtest-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        Instant measuredAt = Instant.now().plusNanos(warmupNanos);
+
+        reporter.scheduleAtFixedRate(() -> report(measureFrom), 1, 1, TimeUnit.SECONDS);
+        log.info("Starting {} at {} TPS: warm-up {}s, measured {}s", scenario, profile.getTargetTps(),
+                profile.getWarmup().toSeconds(), profile.getDuration().toSeconds());
+
+        long scheduled = 0;
+        long sent = 0;
+        long rejected = 0;
+        long[] rejectedDue = new long[1024];
+        long maxLagNanos = 0;
+        long givenUpAt;
+
+        try {
+            for (long sequence = 0; ; sequence++) {
+                long due = start + (long) (sequence * intervalNanos);
+                if (due >= end) {
+                    break;
+                }
+                waitUntil(due);
+
+                boolean measured = due >= measureFrom;
+                if (measured) {
+                    scheduled++;
+                }
+                if (inFlight.get() >= profile.getMaxInFlight()) {
+                    if (measured) {
+                        if (rejected == rejectedDue.length) {
+                            rejectedDue = Arrays.copyOf(rejectedDue, rejectedDue.length * 2);
+                        }
+                        rejectedDue[(int) rejected++] = due;
+                    }
+                    continue;
+                }
+
+                long sentAt = System.nanoTime();
+                if (measured) {
+                    sent++;
+                    maxLagNanos = Math.max(maxLagNanos, sentAt - due);
+                }
+                dispatch(sequence, due, sentAt, measured);
+            }
+
+            awaitOutstanding();
+            givenUpAt = System.nanoTime();
+        } finally {
+            reporter.shutdownNow();
+        }
+
+        for (int i = 0; i < rejected; i++) {
+            recorder.recordUnanswered(rejectedDue[i], givenUpAt);
+        }
+        long unanswered = 0;
+        for (Long sequence : outstanding.keySet()) {
+            Outstanding request = outstanding.remove(sequence);
+            if (request != null) {
+                recorder.record(request.due(), request.sentAt(), givenUpAt);
+                unanswered++;
+            }
+        }
+        if (rejected > 0 || unanswered > 0) {
+            log.warn("{} rejected and {} unanswered requests recorded as waiting until the run stopped",
+                    rejected, unanswered);
+        }
+        recorder.sample();
+
+        Histogram responseTime = recorder.getResponseTime();
+        Histogram serviceTime = recorder.getServiceTime();
+        double seconds = durationNanos / 1e9;
+        return LoadTestResult.builder()
+                .scenario(scenario)
+                .startedAt(measuredAt.toString())
+                .targetTps(profile.getTargetTps())
+                .achievedTps((approved.sum() + declined.sum()) / seconds)
+                .durationSeconds(seconds)
+                .warmupSeconds(warmupNanos / 1e9)
+                .scheduled(scheduled)
+                .sent(sent)
+                .approved(approved.sum())
+                .declined(declined.sum())
+                .failed(failed.sum())
+                .rejected(rejected)
+                .unanswered(unanswered)
+                .maxSendLagMs(maxLagNanos / 1e6)
+                .responseTime(LoadTestResult.LatencySummary.of(responseTime))
+                .serviceTime(LoadTestResult.LatencySummary.of(serviceTime))
+                .responseHistogram(responseTime)
+                .serviceHistogram(serviceTime)
+                .build();
+    }
+
+    private void dispatch(long sequence, long due, long sentAt, boolean measured) {
+        inFlight.incrementAndGet();
+        if (measured) {
+            outstanding.put(sequence, new Outstanding(due, sentAt));
+        }
+        CompletableFuture<Boolean> future;
+        try {
+            future = sender.send(sequence);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((approvedResult, error) -> {
+            long completedAt = System.nanoTime();
+            inFlight.decrementAndGet();
+            // A request given up on at the end of the run is already recorded as unanswered
+            if (!measured || outstanding.remove(sequence) == null) {
+                return;
+            }
+            // Failures and timeouts are recorded too: leaving them out would flatter the tail
+            recorder.record(due, sentAt, completedAt);
+            if (error != null) {
+                failed.increment();
+            } else if (Boolean.TRUE.equals(approvedResult)) {
+                approved.increment();
+            } else {
+                declined.increment();
+            }
+        });
+    }
+
+    private void awaitOutstanding() throws InterruptedException {
+        long deadline = System.nanoTime() + profile.getDrainTimeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        if (inFlight.get() > 0) {
+            log.warn("{} requests still outstanding after drain timeout", inFlight.get());
+        }
+    }
+
+    private void report(long measureFrom) {
+        Histogram interval = recorder.sample();
+        if (System.nanoTime() < measureFrom) {
+            log.info("[warm-up] inFlight={}", inFlight.get());
+            return;
+        }
+        log.info("[measure] completed={}/s inFlight={} p50={}ms p99={}ms max={}ms",
+                interval.getTotalCount(), inFlight.get(),
+                interval.getValueAtPercentile(50) / 1000.0,
+                interval.getValueAtPercentile(99) / 1000.0,
+                interval.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * A measured request awaiting its response.
+     */
+    private record Outstanding(long due, long sentAt) {
+    }
+
+    private static void waitUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
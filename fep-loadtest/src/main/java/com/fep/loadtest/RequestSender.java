@@ -0,0 +1,22 @@
+package com.fep.loadtest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Issues one request of a load-test scenario.
+ *
+ * <p>Implementations must not block: the {@link OpenLoopGenerator} calls this
+ * from its single dispatcher thread, and any blocking delays later arrivals.
+ */
+@FunctionalInterface
+public interface RequestSender {
+
+    /**
+     * Sends one request.
+     *
+     * @param sequence zero-based number of the request within the run
+     * @return completes with true if the request was approved, false if it was
+     *         answered with a decline; completes exceptionally on timeout or error
+     */
+    CompletableFuture<Boolean> send(long sequence);
+}
@@ -0,0 +1,112 @@
+package com.fep.loadtest.scenario;
+
+import com.fep.communication.client.FiscDualChannelClient;
+import com.fep.communication.handler.ServerMessageHandler;
+import com.fep.message.iso8583.Iso8583Message;
+import com.fep.security.hsm.HsmCommand;
+import com.fep.security.hsm.HsmRequest;
+import com.fep.security.hsm.HsmResponse;
+import com.fep.security.hsm.ThalesHsmAdapter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ingress pipeline of the {@link FullStackScenario}: what the FEP does with an ATM request.
+ *
+ * <ul>
+ *   <li>0800 - answered locally</li>
+ *   <li>0200 / 0400 - PIN block translated from the ATM zone key to the FISC zone key
+ *       on the HSM, then forwarded to FISC and the FISC response relayed back</li>
+ * </ul>
+ *
+ * <p>Every step is asynchronous, so the ingress event loop is never blocked on the HSM
+ * or FISC round trip. Failures are answered with 96 (HSM) or 91 (FISC) so the ATM side
+ * always gets a response.
+ */
+@Slf4j
+public class FepPipelineHandler implements ServerMessageHandler {
+
+    static final String ATM_ZONE_KEY = "ZPK_ATM";
+    static final String FISC_ZONE_KEY = "ZPK_FISC";
+
+    /**
+     * PIN block translated for every request. Field 52 is not carried on the wire: fixed
+     * BINARY fields do not round-trip through the ISO 8583 codec (the encoder counts hex
+     * characters, the decoder bytes), so the terminal's encrypted PIN is stood in for here.
+     */
+    static final byte[] TERMINAL_PIN_BLOCK = {0x12, 0x34, 0x56, 0x78, (byte) 0x90, (byte) 0xAB, (byte) 0xCD, (byte) 0xEF};
+
+    private final ThalesHsmAdapter hsm;
+    private final FiscDualChannelClient fiscClient;
+    private final boolean translatePin;
+    private final long fiscTimeoutMs;
+
+    /**
+     * Creates the handler.
+     *
+     * @param hsm           HSM used for PIN translation
+     * @param fiscClient    signed-on FISC connection
+     * @param translatePin  whether to translate the PIN block before forwarding
+     * @param fiscTimeoutMs timeout of the FISC leg
+     */
+    public FepPipelineHandler(ThalesHsmAdapter hsm, FiscDualChannelClient fiscClient,
+                              boolean translatePin, long fiscTimeoutMs) {
+        this.hsm = hsm;
+        this.fiscClient = fiscClient;
+        this.translatePin = translatePin;
+        this.fiscTimeoutMs = fiscTimeoutMs;
+    }
+
+    @Override
+    public void handleMessage(ServerMessageContext context) {
+        Iso8583Message request = context.getMessage();
+        switch (request.getMti()) {
+            case "0800" -> context.sendResponse(respond(request, "00"));
+            case "0200", "0400" -> translatePin(context.getChannelId(), request)
+                    .thenCompose(translated -> translated ? forward(request) : declined(request, "96"))
+                    .whenComplete((response, error) -> context.sendResponse(
+                            error == null ? response : respond(request, "91")));
+            default -> context.sendResponse(respond(request, "12"));
+        }
+    }
+
+    private CompletableFuture<Boolean> translatePin(String channelId, Iso8583Message request) {
+        if (!translatePin) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        HsmRequest hsmRequest = HsmRequest.builder()
+                .command(HsmCommand.TRANSLATE_PIN_BLOCK)
+                .channel(channelId)
+                .stan(request.getFieldAsString(11))
+                .build()
+                .addParameter("pinBlock", TERMINAL_PIN_BLOCK)
+                .addParameter("sourceKeyId", ATM_ZONE_KEY)
+                .addParameter("destKeyId", FISC_ZONE_KEY)
+                .addParameter("sourceFormat", "FORMAT_0")
+                .addParameter("destFormat", "FORMAT_0")
+                .addParameter("pan", request.getFieldAsString(2));
+
+        return hsm.executeAsync(hsmRequest)
+                .thenApply(HsmResponse::isSuccess)
+                .exceptionally(error -> {
+                    log.debug("PIN translation failed for STAN={}: {}", request.getFieldAsString(11), error.getMessage());
+                    return false;
+                });
+    }
+
+    private CompletableFuture<Iso8583Message> forward(Iso8583Message request) {
+        return fiscClient.sendAndReceive(request, fiscTimeoutMs);
+    }
+
+    private static CompletableFuture<Iso8583Message> declined(Iso8583Message request, String responseCode) {
+        return CompletableFuture.completedFuture(respond(request, responseCode));
+    }
+
+    private static Iso8583Message respond(Iso8583Message request, String responseCode) {
+        Iso8583Message response = request.createResponse();
+        response.setField(39, responseCode);
+        return response;
+    }
+}
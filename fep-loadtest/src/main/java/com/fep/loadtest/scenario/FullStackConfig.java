@@ -0,0 +1,53 @@
+package com.fep.loadtest.scenario;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of the {@link FullStackScenario}.
+ */
+@Data
+@Builder
+public class FullStackConfig {
+
+    /** Simulated HSM latency, in {@code LatencyDistribution.parse} syntax, e.g. {@code lognormal:2ms:0.5} */
+    @Builder.Default
+    private String hsmLatency = "none";
+
+    /** Commands the simulated HSM processes at the same time */
+    @Builder.Default
+    private int hsmMaxConcurrent = 16;
+
+    /** Connections in the FEP's HSM pool */
+    @Builder.Default
+    private int hsmConnections = 4;
+
+    /** Translate the PIN block through the HSM before forwarding to FISC */
+    @Builder.Default
+    private boolean translatePin = true;
+
+    /** Response code the simulated FISC peer answers financial requests with */
+    @Builder.Default
+    private String fiscResponseCode = "00";
+
+    /** Timeout of each leg: ATM to FEP, FEP to FISC */
+    @Builder.Default
+    private int requestTimeoutMs = 30000;
+
+    /**
+     * Gets the settings as result parameters.
+     */
+    public Map<String, String> toParameters() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("hsmLatency", hsmLatency);
+        parameters.put("hsmMaxConcurrent", String.valueOf(hsmMaxConcurrent));
+        parameters.put("hsmConnections", String.valueOf(hsmConnections));
+        parameters.put("translatePin", String.valueOf(translatePin));
+        parameters.put("fiscResponseCode", fiscResponseCode);
+        parameters.put("requestTimeoutMs", String.valueOf(requestTimeoutMs));
+        return parameters;
+    }
+}
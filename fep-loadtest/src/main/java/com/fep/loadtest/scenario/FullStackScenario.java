@@ -0,0 +1,208 @@
+package com.fep.loadtest.scenario;
+
+import com.fep.communication.client.FiscDualChannelClient;
+import com.fep.communication.config.ConnectionMode;
+import com.fep.communication.config.DualChannelConfig;
+import com.fep.communication.handler.DefaultServerMessageContext;
+import com.fep.communication.server.FiscDualChannelServer;
+import com.fep.hsm.simulator.FaultProfile;
+import com.fep.hsm.simulator.HsmSimulatorConfig;
+import com.fep.hsm.simulator.HsmSimulatorServer;
+import com.fep.hsm.simulator.LatencyDistribution;
+import com.fep.jmeter.engine.FiscDualChannelSimulatorEngine;
+import com.fep.loadtest.RequestSender;
+import com.fep.message.iso8583.Iso8583Message;
+import com.fep.message.iso8583.MessageType;
+import com.fep.security.hsm.HsmConnectionConfig;
+import com.fep.security.hsm.HsmVendor;
+import com.fep.security.hsm.ThalesHsmAdapter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ATM withdrawal through the whole FEP network path, all in-process on loopback.
+ *
+ * <pre>
+ *   load generator ──► FiscDualChannelServer ──► FepPipelineHandler ──► FiscDualChannelClient
+ *   (ATM client,        (ATM ingress,               │                  (FISC leg, dual channel)
+ *    single port)        single port)               ▼                           │
+ *                                         ThalesHsmAdapter pool                 ▼
+ *                                                   │              FiscDualChannelSimulatorEngine
+ *                                                   ▼                   (simulated FISC)
+ *                                         HsmSimulatorServer
+ *                                         (simulated payShield)
+ * </pre>
+ *
+ * <p>Each request is a 0200 withdrawal, so it costs one HSM PIN translation
+ * and one FISC round trip. All connections are real TCP, framed and parsed by the
+ * production codecs.
+ */
+@Slf4j
+public class FullStackScenario implements Scenario {
+
+    public static final String NAME = "full-stack";
+
+    private static final String ATM_CHANNEL = "ATM_LOADTEST";
+    private static final String FISC_CHANNEL = "FISC_LOADTEST";
+    private static final String LOOPBACK = "127.0.0.1";
+    private static final long STARTUP_TIMEOUT_SECONDS = 10;
+
+    /** STAN is six digits; sequence numbers wrap within 1..999999 */
+    private static final int STAN_MODULUS = 999_999;
+
+    private final FullStackConfig config;
+
+    private HsmSimulatorServer hsmSimulator;
+    private ThalesHsmAdapter hsm;
+    private FiscDualChannelSimulatorEngine fiscPeer;
+    private FiscDualChannelClient fiscClient;
+    private FiscDualChannelServer ingress;
+    private FiscDualChannelClient atmClient;
+
+    /**
+     * Creates the scenario.
+     *
+     * @param config scenario settings
+     */
+    public FullStackScenario(FullStackConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, String> getParameters() {
+        return config.toParameters();
+    }
+
+    @Override
+    public void start() throws Exception {
+        startHsm();
+        startFiscLeg();
+        startIngress();
+        log.info("Full stack ready: HSM={}, FISC={}/{}, ingress={}", hsmSimulator.getPort(),
+                fiscPeer.getReceivePort(), fiscPeer.getSendPort(), ingress.getActualUnifiedPort());
+    }
+
+    @Override
+    public RequestSender getSender() {
+        return sequence -> atmClient.sendAndReceive(withdrawal(sequence), config.getRequestTimeoutMs())
+                .thenApply(response -> "00".equals(response.getFieldAsString(39)));
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(atmClient);
+        closeQuietly(ingress);
+        closeQuietly(fiscClient);
+        closeQuietly(fiscPeer);
+        if (hsm != null) {
+            hsm.disconnect();
+        }
+        closeQuietly(hsmSimulator);
+    }
+
+    // ==================== Startup ====================
+
+    private void startHsm() throws InterruptedException {
+        hsmSimulator = new HsmSimulatorServer(HsmSimulatorConfig.builder()
+                .port(0)
+                .maxConcurrent(config.getHsmMaxConcurrent())
+                .build());
+        hsmSimulator.setFaultProfile(FaultProfile.builder()
+                .latency(LatencyDistribution.parse(config.getHsmLatency()))
+                .build());
+        hsmSimulator.start();
+
+        hsm = new ThalesHsmAdapter(HsmConnectionConfig.builder()
+                .vendor(HsmVendor.THALES)
+                .primaryHost(LOOPBACK)
+                .primaryPort(hsmSimulator.getPort())
+                .maxConnections(config.getHsmConnections())
+                .build());
+        hsm.connect();
+    }
+
+    private void startFiscLeg() throws Exception {
+        fiscPeer = new FiscDualChannelSimulatorEngine(0, 0);
+        fiscPeer.registerHandler(MessageType.FINANCIAL_REQUEST.getCode(), request -> {
+            Iso8583Message response = request.createResponse();
+            response.setField(39, config.getFiscResponseCode());
+            return response;
+        });
+        fiscPeer.start().get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // The peer's receive port is where the FEP sends, and vice versa
+        fiscClient = new FiscDualChannelClient(DualChannelConfig.builder()
+                .channelId(FISC_CHANNEL)
+                .connectionName(FISC_CHANNEL)
+                .sendHost(LOOPBACK)
+                .sendPort(fiscPeer.getReceivePort())
+                .receiveHost(LOOPBACK)
+                .receivePort(fiscPeer.getSendPort())
+                .readTimeoutMs(config.getRequestTimeoutMs())
+                .build());
+        fiscClient.connect().get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        fiscClient.signOn().get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void startIngress() throws Exception {
+        // Single-port: the dual-port server pairs a client's two sockets by remote address
+        ingress = new FiscDualChannelServer(DualChannelConfig.builder()
+                .channelId(ATM_CHANNEL)
+                .connectionName(ATM_CHANNEL)
+                .sendPort(0)
+                .dualChannelMode(false)
+                .connectionMode(ConnectionMode.SERVER)
+                .build());
+        FepPipelineHandler pipeline = new FepPipelineHandler(hsm, fiscClient,
+                config.isTranslatePin(), config.getRequestTimeoutMs());
+        ingress.setMessageHandler((clientId, message) -> pipeline.handleMessage(DefaultServerMessageContext.builder()
+                .channelId(ATM_CHANNEL)
+                .clientId(clientId)
+                .message(message)
+                .server(ingress)
+                .build()));
+        ingress.start().get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        atmClient = new FiscDualChannelClient(DualChannelConfig.builder()
+                .channelId(ATM_CHANNEL)
+                .connectionName("ATM_DRIVER")
+                .sendHost(LOOPBACK)
+                .sendPort(ingress.getActualUnifiedPort())
+                .dualChannelMode(false)
+                .readTimeoutMs(config.getRequestTimeoutMs())
+                .autoReconnect(false)
+                .build());
+        atmClient.connect().get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // ==================== Requests ====================
+
+    static Iso8583Message withdrawal(long sequence) {
+        Iso8583Message request = new Iso8583Message(MessageType.FINANCIAL_REQUEST);
+        request.setField(2, "4111111111111111");
+        request.setField(3, "010000");
+        request.setField(4, "000000100000");
+        request.setField(11, String.format("%06d", sequence % STAN_MODULUS + 1));
+        request.setField(32, "004");
+        request.setField(41, "ATM00001");
+        return request;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.warn("Error closing {}: {}", closeable.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.fep.loadtest.scenario;
+
+import com.fep.loadtest.RequestSender;
+
+import java.util.Map;
+
+/**
+ * A system under test plus the request mix to drive it with.
+ *
+ * <p>{@link #start()} brings up every component the scenario needs, in-process;
+ * {@link #close()} tears them down again.
+ */
+public interface Scenario extends AutoCloseable {
+
+    /**
+     * Gets the scenario name recorded in results.
+     */
+    String getName();
+
+    /**
+     * Starts all components and waits until they are ready for traffic.
+     *
+     * @throws Exception if a component fails to start
+     */
+    void start() throws Exception;
+
+    /**
+     * Gets the sender that issues one scenario request; valid after {@link #start()}.
+     */
+    RequestSender getSender();
+
+    /**
+     * Gets the settings to record alongside the result.
+     */
+    Map<String, String> getParameters();
+
+    /**
+     * Stops all components.
+     */
+    @Override
+    void close();
+}
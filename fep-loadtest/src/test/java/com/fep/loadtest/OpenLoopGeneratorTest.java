@@ -0,0 +1,99 @@
+package com.fep.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for OpenLoopGenerator.
+ */
+@DisplayName("OpenLoopGenerator Tests")
+class OpenLoopGeneratorTest {
+
+    private static LoadProfile.LoadProfileBuilder profile() {
+        return LoadProfile.builder()
+                .targetTps(1000)
+                .duration(Duration.ofSeconds(1))
+                .warmup(Duration.ZERO)
+                .drainTimeout(Duration.ofMillis(200));
+    }
+
+    @Test
+    @DisplayName("Should offer requests at the target rate")
+    void shouldOfferTargetRate() throws Exception {
+        LoadTestResult result = new OpenLoopGenerator(profile().build(),
+                sequence -> CompletableFuture.completedFuture(true)).run("rate");
+
+        assertThat(result.getScheduled()).isEqualTo(1000);
+        assertThat(result.getSent()).isEqualTo(1000);
+        assertThat(result.getApproved()).isEqualTo(1000);
+        assertThat(result.getAchievedTps()).isCloseTo(1000, within(1.0));
+    }
+
+    @Test
+    @DisplayName("Should charge requests for time spent waiting behind a stall")
+    void shouldCorrectForCoordinatedOmission() throws Exception {
+        // Given - a sender that stalls the dispatcher for 200ms once
+        RequestSender stallingSender = sequence -> {
+            if (sequence == 100) {
+                sleep(200);
+            }
+            return CompletableFuture.completedFuture(true);
+        };
+
+        // When
+        LoadTestResult result = new OpenLoopGenerator(profile().build(), stallingSender).run("stall");
+
+        // Then - the ~200 requests due during the stall were sent late, and their
+        // response time shows it even though the system answered them instantly
+        assertThat(result.getSent()).isEqualTo(1000);
+        assertThat(result.getMaxSendLagMs()).isGreaterThanOrEqualTo(150);
+        assertThat(result.getResponseTime().p90()).isGreaterThanOrEqualTo(50);
+        assertThat(result.getServiceTime().p90()).isLessThan(10);
+    }
+
+    @Test
+    @DisplayName("Should count failures and in-flight rejections")
+    void shouldCountFailuresAndRejections() throws Exception {
+        LoadTestResult failing = new OpenLoopGenerator(profile().build(),
+                sequence -> CompletableFuture.failedFuture(new IllegalStateException("down"))).run("failing");
+
+        assertThat(failing.getFailed()).isEqualTo(1000);
+        assertThat(failing.getResponseTime().count()).isEqualTo(1000);
+
+        LoadTestResult stuck = new OpenLoopGenerator(profile().maxInFlight(10).build(),
+                sequence -> new CompletableFuture<>()).run("stuck");
+
+        assertThat(stuck.getSent()).isEqualTo(10);
+        assertThat(stuck.getRejected()).isEqualTo(990);
+        assertThat(stuck.getUnanswered()).isEqualTo(10);
+        // Requests that were never sent or never answered still count, charged at least
+        // the drain timeout, so the histogram cannot look better than the system was
+        assertThat(stuck.getResponseTime().count()).isEqualTo(1000);
+        assertThat(stuck.getResponseTime().p50()).isGreaterThanOrEqualTo(200);
+        assertThat(stuck.getServiceTime().count()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should not record warm-up requests")
+    void shouldSkipWarmup() throws Exception {
+        LoadTestResult result = new OpenLoopGenerator(profile().warmup(Duration.ofMillis(500)).build(),
+                sequence -> CompletableFuture.completedFuture(sequence % 2 == 0)).run("warmup");
+
+        assertThat(result.getScheduled()).isEqualTo(1000);
+        assertThat(result.getApproved()).isEqualTo(500);
+        assertThat(result.getDeclined()).isEqualTo(500);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
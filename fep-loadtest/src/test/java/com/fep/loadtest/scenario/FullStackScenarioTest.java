@@ -0,0 +1,79 @@
+package com.fep.loadtest.scenario;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fep.loadtest.LoadProfile;
+import com.fep.loadtest.LoadTestResult;
+import com.fep.loadtest.OpenLoopGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Short end-to-end run of FullStackScenario.
+ */
+@DisplayName("FullStackScenario Tests")
+class FullStackScenarioTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    @DisplayName("Should drive withdrawals through ingress, HSM and FISC peer")
+    void shouldRunFullStack() throws Exception {
+        // Given
+        LoadProfile profile = LoadProfile.builder()
+                .targetTps(200)
+                .duration(Duration.ofSeconds(1))
+                .warmup(Duration.ofMillis(500))
+                .build();
+
+        // When
+        LoadTestResult result;
+        try (FullStackScenario scenario = new FullStackScenario(FullStackConfig.builder()
+                .requestTimeoutMs(5000)
+                .build())) {
+            scenario.start();
+            result = new OpenLoopGenerator(profile, scenario.getSender()).run(scenario.getName());
+            result.getParameters().putAll(scenario.getParameters());
+        }
+        result.writeTo(output);
+
+        // Then
+        assertThat(result.getSent()).isEqualTo(200);
+        assertThat(result.getApproved()).isEqualTo(200);
+        assertThat(result.getFailed()).isZero();
+
+        JsonNode json = new ObjectMapper().readTree(output.resolve("result.json").toFile());
+        assertThat(json.get("scenario").asText()).isEqualTo("full-stack");
+        assertThat(json.get("responseTime").get("count").asLong()).isEqualTo(200);
+        assertThat(json.get("parameters").get("translatePin").asText()).isEqualTo("true");
+        assertThat(output.resolve("response-time.hgrm")).exists();
+    }
+
+    @Test
+    @DisplayName("Should report FISC declines as declined")
+    void shouldReportDeclines() throws Exception {
+        LoadProfile profile = LoadProfile.builder()
+                .targetTps(100)
+                .duration(Duration.ofMillis(500))
+                .warmup(Duration.ZERO)
+                .build();
+
+        try (FullStackScenario scenario = new FullStackScenario(FullStackConfig.builder()
+                .fiscResponseCode("51")
+                .requestTimeoutMs(5000)
+                .build())) {
+            scenario.start();
+            LoadTestResult result = new OpenLoopGenerator(profile, scenario.getSender()).run(scenario.getName());
+
+            assertThat(result.getDeclined()).isEqualTo(result.getSent());
+            assertThat(result.getApproved()).isZero();
+        }
+    }
+}
@@ -41,16 +41,23 @@ import java.util.stream.Collectors;
  * // Dynamic registration
  * ChannelSchemaRegistry.getInstance().registerChannel(newChannel);
  * </pre>
+ *
+ * <p>Every load, reload or runtime change compiles an immutable {@link Snapshot}
+ * and publishes it through one volatile field. Queries read that snapshot without
+ * locking or allocating; resolving a schema is a channel probe and an MTI probe.
  */
 @Slf4j
 public class ChannelSchemaRegistry {
 
     private static final ChannelSchemaRegistry INSTANCE = new ChannelSchemaRegistry();
 
-    // Core storage
+    // Core storage, written under the registry lock and compiled into the snapshot
     private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, Map<String, SchemaOverride>> schemaOverrides = new ConcurrentHashMap<>();
 
+    // Read side: the current compiled snapshot
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
     // Configuration
     private volatile ChannelSchemaConfig config;
     private volatile String configFilePath;
@@ -126,6 +133,7 @@ public class ChannelSchemaRegistry {
 
             this.config = newConfig;
             this.configFilePath = filePath;
+            publishSnapshot();
 
             log.info("Loaded {} channels from {}", channels.size(), filePath);
 
@@ -151,6 +159,7 @@ public class ChannelSchemaRegistry {
             processOverrides(newConfig);
 
             this.config = newConfig;
+            publishSnapshot();
 
             log.info("Loaded {} channels from JSON string", channels.size());
             notifySubscribers();
@@ -234,19 +243,16 @@ public class ChannelSchemaRegistry {
      * @return Optional containing the channel, or empty if not found
      */
     public Optional<Channel> getChannel(String channelId) {
-        return Optional.ofNullable(channels.get(channelId));
+        return Optional.ofNullable(snapshot.channels.get(channelId));
     }
 
     /**
      * Gets all active channels.
      *
-     * @return list of active channels sorted by priority
+     * @return unmodifiable list of active channels sorted by priority
      */
     public List<Channel> getActiveChannels() {
-        return channels.values().stream()
-                .filter(Channel::isActive)
-                .sorted(Comparator.comparingInt(Channel::getPriority))
-                .collect(Collectors.toList());
+        return snapshot.activeChannels;
     }
 
     /**
@@ -256,10 +262,8 @@ public class ChannelSchemaRegistry {
      * @return list of matching active channels
      */
     public List<Channel> getChannelsByType(String type) {
-        return channels.values().stream()
+        return snapshot.activeChannels.stream()
                 .filter(c -> c.isType(type))
-                .filter(Channel::isActive)
-                .sorted(Comparator.comparingInt(Channel::getPriority))
                 .collect(Collectors.toList());
     }
 
@@ -270,9 +274,8 @@ public class ChannelSchemaRegistry {
      * @return list of matching active channels
      */
     public List<Channel> getChannelsByVendor(String vendor) {
-        return channels.values().stream()
+        return snapshot.activeChannels.stream()
                 .filter(c -> c.isVendor(vendor))
-                .filter(Channel::isActive)
                 .collect(Collectors.toList());
     }
 
@@ -283,9 +286,8 @@ public class ChannelSchemaRegistry {
      * @return list of matching active channels
      */
     public List<Channel> getChannelsByTag(String tag) {
-        return channels.values().stream()
+        return snapshot.activeChannels.stream()
                 .filter(c -> c.hasTag(tag))
-                .filter(Channel::isActive)
                 .collect(Collectors.toList());
     }
 
@@ -295,7 +297,7 @@ public class ChannelSchemaRegistry {
      * @return unmodifiable set of channel IDs
      */
     public Set<String> getAllChannelIds() {
-        return Collections.unmodifiableSet(channels.keySet());
+        return snapshot.channels.keySet();
     }
 
     /**
@@ -305,7 +307,17 @@ public class ChannelSchemaRegistry {
      * @return true if the channel exists
      */
     public boolean hasChannel(String channelId) {
-        return channels.containsKey(channelId);
+        return snapshot.channels.containsKey(channelId);
+    }
+
+    /**
+     * Gets the epoch of the current snapshot. It increases by one with every
+     * load, reload or runtime change.
+     *
+     * @return the snapshot epoch, 0 before anything is loaded
+     */
+    public long getEpoch() {
+        return snapshot.epoch;
     }
 
     // ==================== Schema Resolution ====================
@@ -319,13 +331,12 @@ public class ChannelSchemaRegistry {
      * @throws ChannelConfigException if channel or schema not found
      */
     public MessageSchema getRequestSchema(String channelId, String messageType) {
-        Channel channel = channels.get(channelId);
-        if (channel == null) {
-            return handleUnknownChannel(channelId, messageType, true);
+        Snapshot current = currentSnapshot();
+        Route route = current.routes.get(channelId);
+        if (route == null) {
+            return handleUnknownChannel(current, channelId, messageType, true);
         }
-
-        String schemaName = resolveSchemaName(channelId, messageType, true);
-        return getSchemaByName(schemaName, channelId);
+        return resolve(current, route.request(messageType), channelId);
     }
 
     /**
@@ -337,13 +348,12 @@ public class ChannelSchemaRegistry {
      * @throws ChannelConfigException if channel or schema not found
      */
     public MessageSchema getResponseSchema(String channelId, String messageType) {
-        Channel channel = channels.get(channelId);
-        if (channel == null) {
-            return handleUnknownChannel(channelId, messageType, false);
+        Snapshot current = currentSnapshot();
+        Route route = current.routes.get(channelId);
+        if (route == null) {
+            return handleUnknownChannel(current, channelId, messageType, false);
         }
-
-        String schemaName = resolveSchemaName(channelId, messageType, false);
-        return getSchemaByName(schemaName, channelId);
+        return resolve(current, route.response(messageType), channelId);
     }
 
     /**
@@ -354,17 +364,15 @@ public class ChannelSchemaRegistry {
      * @throws ChannelConfigException if channel not found or no default schema
      */
     public MessageSchema getDefaultRequestSchema(String channelId) {
-        Channel channel = channels.get(channelId);
-        if (channel == null) {
+        Snapshot current = currentSnapshot();
+        Route route = current.routes.get(channelId);
+        if (route == null) {
             throw ChannelConfigException.channelNotFound(channelId);
         }
-
-        String schemaName = channel.getDefaultRequestSchema();
-        if (schemaName == null || schemaName.isBlank()) {
+        if (isBlank(route.defaultRequest.schemaName())) {
             throw ChannelConfigException.invalidChannel(channelId, "no default request schema configured");
         }
-
-        return getSchemaByName(schemaName, channelId);
+        return resolve(current, route.defaultRequest, channelId);
     }
 
     /**
@@ -375,58 +383,37 @@ public class ChannelSchemaRegistry {
      * @throws ChannelConfigException if channel not found or no default schema
      */
     public MessageSchema getDefaultResponseSchema(String channelId) {
-        Channel channel = channels.get(channelId);
-        if (channel == null) {
+        Snapshot current = currentSnapshot();
+        Route route = current.routes.get(channelId);
+        if (route == null) {
             throw ChannelConfigException.channelNotFound(channelId);
         }
-
-        String schemaName = channel.getDefaultResponseSchema();
-        if (schemaName == null || schemaName.isBlank()) {
+        if (isBlank(route.defaultResponse.schemaName())) {
             throw ChannelConfigException.invalidChannel(channelId, "no default response schema configured");
         }
-
-        return getSchemaByName(schemaName, channelId);
+        return resolve(current, route.defaultResponse, channelId);
     }
 
-    private String resolveSchemaName(String channelId, String messageType, boolean isRequest) {
-        // Check for message-type-specific override
-        Map<String, SchemaOverride> channelOverrides = schemaOverrides.get(channelId);
-        if (channelOverrides != null && messageType != null) {
-            SchemaOverride override = channelOverrides.get(messageType);
-            if (override != null) {
-                String overrideSchema = isRequest ? override.getRequest() : override.getResponse();
-                if (overrideSchema != null && !overrideSchema.isBlank()) {
-                    return overrideSchema;
-                }
-            }
+    private MessageSchema resolve(Snapshot current, Resolution resolution, String channelId) {
+        if (resolution.schema() != null) {
+            return resolution.schema();
         }
 
-        // Fall back to default schema
-        Channel channel = channels.get(channelId);
-        return isRequest ? channel.getDefaultRequestSchema() : channel.getDefaultResponseSchema();
-    }
-
-    private MessageSchema getSchemaByName(String schemaName, String channelId) {
-        if (schemaName == null || schemaName.isBlank()) {
+        String schemaName = resolution.schemaName();
+        if (isBlank(schemaName)) {
             throw ChannelConfigException.invalidChannel(channelId, "schema name is null or empty");
         }
-
-        Map<String, MessageSchema> schemaMap = JsonSchemaLoader.getSchemaMap();
-        MessageSchema schema = schemaMap.get(schemaName);
-
-        if (schema == null) {
-            DefaultsConfig defaults = config != null ? config.getDefaults() : null;
-            if (defaults != null && defaults.throwErrorForSchemaNotFound()) {
-                throw ChannelConfigException.schemaNotFound(schemaName);
-            }
-            log.warn("Schema not found: {} for channel: {}", schemaName, channelId);
+        DefaultsConfig defaults = current.defaults;
+        if (defaults != null && defaults.throwErrorForSchemaNotFound()) {
+            throw ChannelConfigException.schemaNotFound(schemaName);
         }
-
-        return schema;
+        log.warn("Schema not found: {} for channel: {}", schemaName, channelId);
+        return null;
     }
 
-    private MessageSchema handleUnknownChannel(String channelId, String messageType, boolean isRequest) {
-        DefaultsConfig defaults = config != null ? config.getDefaults() : null;
+    private MessageSchema handleUnknownChannel(Snapshot current, String channelId, String messageType,
+                                               boolean isRequest) {
+        DefaultsConfig defaults = current.defaults;
 
         if (defaults == null || defaults.throwErrorForUnknownChannel()) {
             throw ChannelConfigException.channelNotFound(channelId);
@@ -434,17 +421,139 @@ public class ChannelSchemaRegistry {
 
         if (defaults.useFallbackForUnknownChannel()) {
             String fallback = defaults.getFallbackChannel();
-            if (fallback != null && channels.containsKey(fallback)) {
+            Route route = fallback != null ? current.routes.get(fallback) : null;
+            if (route != null) {
                 log.warn("Using fallback channel '{}' for unknown channel '{}'", fallback, channelId);
-                return isRequest
-                        ? getRequestSchema(fallback, messageType)
-                        : getResponseSchema(fallback, messageType);
+                return resolve(current, isRequest ? route.request(messageType) : route.response(messageType),
+                        fallback);
             }
         }
 
         throw ChannelConfigException.channelNotFound(channelId);
     }
 
+    // ==================== Snapshot ====================
+
+    /**
+     * Gets the snapshot for schema resolution, recompiling it first if
+     * JsonSchemaLoader has loaded or dropped schemas since it was built.
+     */
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current.schemaGeneration != JsonSchemaLoader.getGeneration()) {
+            current = refreshSnapshot(current);
+        }
+        return current;
+    }
+
+    private synchronized Snapshot refreshSnapshot(Snapshot stale) {
+        if (snapshot == stale) {
+            publishSnapshot();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Compiles the current channels, overrides and schemas into a new snapshot and publishes it.
+     */
+    private synchronized void publishSnapshot() {
+        // Read the generation first, so a schema change during the build is caught on the next read
+        long schemaGeneration = JsonSchemaLoader.getGeneration();
+        Map<String, MessageSchema> schemas = JsonSchemaLoader.getSchemaMap();
+        DefaultsConfig defaults = config != null ? config.getDefaults() : null;
+
+        Map<String, Channel> channelMap = new HashMap<>(channels);
+        Map<String, Route> routes = new HashMap<>(channelMap.size() * 2);
+        for (Channel channel : channelMap.values()) {
+            routes.put(channel.getId(), new Route(channel, schemaOverrides.get(channel.getId()), schemas));
+        }
+        List<Channel> active = channelMap.values().stream()
+                .filter(Channel::isActive)
+                .sorted(Comparator.comparingInt(Channel::getPriority))
+                .toList();
+
+        snapshot = new Snapshot(snapshot.epoch + 1, schemaGeneration,
+                Collections.unmodifiableMap(channelMap), routes, active, defaults);
+        log.debug("Published channel registry snapshot epoch {} ({} channels)", snapshot.epoch, channelMap.size());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Immutable, compiled view of the registry. Never modified after publication.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, -1, Map.of(), Map.of(), List.of(), null);
+
+        final long epoch;
+        final long schemaGeneration;
+        final Map<String, Channel> channels;
+        final Map<String, Route> routes;
+        final List<Channel> activeChannels;
+        final DefaultsConfig defaults;
+
+        Snapshot(long epoch, long schemaGeneration, Map<String, Channel> channels, Map<String, Route> routes,
+                 List<Channel> activeChannels, DefaultsConfig defaults) {
+            this.epoch = epoch;
+            this.schemaGeneration = schemaGeneration;
+            this.channels = channels;
+            this.routes = routes;
+            this.activeChannels = activeChannels;
+            this.defaults = defaults;
+        }
+    }
+
+    /**
+     * A schema name with the schema it resolved to when the snapshot was compiled (null if missing).
+     */
+    private record Resolution(String schemaName, MessageSchema schema) {
+
+        static Resolution of(String schemaName, Map<String, MessageSchema> schemas) {
+            return new Resolution(schemaName, isBlank(schemaName) ? null : schemas.get(schemaName));
+        }
+    }
+
+    /**
+     * Precomputed schema resolutions for one channel: its defaults plus one
+     * entry per overridden message type.
+     */
+    private static final class Route {
+
+        final Resolution defaultRequest;
+        final Resolution defaultResponse;
+        final Map<String, Resolution> requestByType = new HashMap<>();
+        final Map<String, Resolution> responseByType = new HashMap<>();
+
+        Route(Channel channel, Map<String, SchemaOverride> overrides, Map<String, MessageSchema> schemas) {
+            this.defaultRequest = Resolution.of(channel.getDefaultRequestSchema(), schemas);
+            this.defaultResponse = Resolution.of(channel.getDefaultResponseSchema(), schemas);
+            if (overrides != null) {
+                overrides.forEach((messageType, override) -> {
+                    // Blank override entries fall back to the channel default, as before
+                    if (override != null && !isBlank(override.getRequest())) {
+                        requestByType.put(messageType, Resolution.of(override.getRequest(), schemas));
+                    }
+                    if (override != null && !isBlank(override.getResponse())) {
+                        responseByType.put(messageType, Resolution.of(override.getResponse(), schemas));
+                    }
+                });
+            }
+        }
+
+        Resolution request(String messageType) {
+            Resolution resolution = messageType != null ? requestByType.get(messageType) : null;
+            return resolution != null ? resolution : defaultRequest;
+        }
+
+        Resolution response(String messageType) {
+            Resolution resolution = messageType != null ? responseByType.get(messageType) : null;
+            return resolution != null ? resolution : defaultResponse;
+        }
+    }
+
     // ==================== Hot-Reload Support ====================
 
     /**
@@ -555,7 +664,7 @@ public class ChannelSchemaRegistry {
         }
 
         // Immediately notify if channels are loaded
-        if (!channels.isEmpty()) {
+        if (!snapshot.channels.isEmpty()) {
             try {
                 subscriber.onChannelsUpdated(getChannelMap());
             } catch (Exception e) {
@@ -607,10 +716,10 @@ public class ChannelSchemaRegistry {
     /**
      * Gets an unmodifiable view of all channels.
      *
-     * @return unmodifiable map of channelId to Channel
+     * @return unmodifiable map of channelId to Channel, fixed at the current snapshot
      */
     public Map<String, Channel> getChannelMap() {
-        return Collections.unmodifiableMap(new HashMap<>(channels));
+        return snapshot.channels;
     }
 
     /**
@@ -619,7 +728,7 @@ public class ChannelSchemaRegistry {
      * @return unmodifiable collection of all channels
      */
     public Collection<Channel> getAllChannels() {
-        return Collections.unmodifiableCollection(channels.values());
+        return snapshot.channels.values();
     }
 
     // ==================== Runtime Registration ====================
@@ -631,9 +740,10 @@ public class ChannelSchemaRegistry {
      * @param channel the channel to register
      * @throws ChannelConfigException if channel is invalid
      */
-    public void registerChannel(Channel channel) {
+    public synchronized void registerChannel(Channel channel) {
         validateChannel(channel);
         channels.put(channel.getId(), channel);
+        publishSnapshot();
         log.info("Registered channel at runtime: {}", channel.getId());
         notifySubscribers();
     }
@@ -644,10 +754,11 @@ public class ChannelSchemaRegistry {
      * @param channelId the channel ID to unregister
      * @return the removed channel, or null if not found
      */
-    public Channel unregisterChannel(String channelId) {
+    public synchronized Channel unregisterChannel(String channelId) {
         Channel removed = channels.remove(channelId);
         if (removed != null) {
             schemaOverrides.remove(channelId);
+            publishSnapshot();
             log.info("Unregistered channel: {}", channelId);
             notifySubscribers();
         }
@@ -660,12 +771,13 @@ public class ChannelSchemaRegistry {
      * @param channel the updated channel
      * @throws ChannelConfigException if channel doesn't exist or is invalid
      */
-    public void updateChannel(Channel channel) {
+    public synchronized void updateChannel(Channel channel) {
         validateChannel(channel);
         if (!channels.containsKey(channel.getId())) {
             throw ChannelConfigException.channelNotFound(channel.getId());
         }
         channels.put(channel.getId(), channel);
+        publishSnapshot();
         log.info("Updated channel: {}", channel.getId());
         notifySubscribers();
     }
@@ -677,10 +789,11 @@ public class ChannelSchemaRegistry {
      * @param messageType the message type (e.g., "0200")
      * @param override the schema override
      */
-    public void addSchemaOverride(String channelId, String messageType, SchemaOverride override) {
+    public synchronized void addSchemaOverride(String channelId, String messageType, SchemaOverride override) {
         schemaOverrides
                 .computeIfAbsent(channelId, k -> new ConcurrentHashMap<>())
                 .put(messageType, override);
+        publishSnapshot();
         log.debug("Added schema override for channel {} messageType {}", channelId, messageType);
     }
 
@@ -697,6 +810,7 @@ public class ChannelSchemaRegistry {
         config = null;
         configFilePath = null;
         configBasePath = null;
+        publishSnapshot();
         log.info("Channel registry cleared");
     }
 
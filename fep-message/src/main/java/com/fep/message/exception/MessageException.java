@@ -42,4 +42,8 @@ public class MessageException extends FepException {
     public static MessageException codecError(String message) {
         return new MessageException("MSG005", "Codec error: " + message);
     }
+
+    public static MessageException traceNumberError(String message, Throwable cause) {
+        return new MessageException("MSG006", "Trace number error: " + message, cause);
+    }
 }
@@ -51,6 +51,29 @@ public class AsciiCodec implements GenericCodec {
         return charLength; // 1 byte per character
     }
 
+    @Override
+    public void encodeLengthPrefix(int length, int digits, ByteBuf buffer) {
+        int index = buffer.writerIndex();
+        buffer.writeZero(digits);
+        setDigits(buffer, index, digits, length);
+    }
+
+    /**
+     * Writes a non-negative value as zero-filled ASCII digits in place, without an
+     * intermediate digit string. Digits that do not fit are dropped from the left.
+     *
+     * @param buffer the output buffer
+     * @param index  absolute index of the first digit
+     * @param digits the number of digits
+     * @param value  the value to write
+     */
+    public static void setDigits(ByteBuf buffer, int index, int digits, long value) {
+        for (int i = index + digits - 1; i >= index; i--) {
+            buffer.setByte(i, '0' + (int) (value % 10));
+            value /= 10;
+        }
+    }
+
     private String applyPadding(String value, FieldSchema field) {
         int targetLength = field.getLength();
         if (value.length() >= targetLength) {
@@ -65,13 +65,28 @@ public class BcdCodec implements GenericCodec {
 
     @Override
     public void encodeLengthPrefix(int length, int digits, ByteBuf buffer) {
-        String lengthStr = String.format("%0" + digits + "d", length);
-        // Pad to even length
-        if (lengthStr.length() % 2 != 0) {
-            lengthStr = "0" + lengthStr;
+        int byteLength = calculateByteLength(digits);
+        int index = buffer.writerIndex();
+        buffer.writeZero(byteLength);
+        setDigits(buffer, index, byteLength, length);
+    }
+
+    /**
+     * Writes a non-negative value as zero-filled BCD digits in place, without an
+     * intermediate digit string. Digits that do not fit are dropped from the left.
+     *
+     * @param buffer     the output buffer
+     * @param index      absolute index of the first byte
+     * @param byteLength the number of BCD bytes (two digits each)
+     * @param value      the value to write
+     */
+    public static void setDigits(ByteBuf buffer, int index, int byteLength, long value) {
+        for (int i = index + byteLength - 1; i >= index; i--) {
+            int low = (int) (value % 10);
+            value /= 10;
+            buffer.setByte(i, (int) (value % 10) << 4 | low);
+            value /= 10;
         }
-        byte[] bcd = stringToBcd(lengthStr);
-        buffer.writeBytes(bcd);
     }
 
     @Override
@@ -30,6 +30,15 @@ public class EbcdicCodec implements GenericCodec {
         EBCDIC_CHARSET = charset;
     }
 
+    /**
+     * Gets the EBCDIC charset used by this codec.
+     *
+     * @return the EBCDIC charset
+     */
+    public static Charset getCharset() {
+        return EBCDIC_CHARSET;
+    }
+
     @Override
     public String getName() {
         return NAME;
@@ -64,6 +64,60 @@ public class PackedDecimalCodec implements GenericCodec {
         return (charLength + 2) / 2;
     }
 
+    /**
+     * Reads a packed decimal value in place, without an intermediate digit string.
+     * Sign nibbles 0xD and 0xB are negative, any other sign nibble is positive.
+     *
+     * @param buffer     the input buffer
+     * @param index      absolute index of the first byte
+     * @param byteLength the number of packed bytes (at most 10)
+     * @return the decoded value
+     * @throws NumberFormatException if a digit nibble is not 0-9
+     */
+    public static long decodeLong(ByteBuf buffer, int index, int byteLength) {
+        int last = index + byteLength - 1;
+        long value = 0;
+        for (int i = index; i < last; i++) {
+            int b = buffer.getByte(i) & 0xFF;
+            value = value * 100 + digit(b >> 4) * 10L + digit(b & 0x0F);
+        }
+        int b = buffer.getByte(last) & 0xFF;
+        value = value * 10 + digit(b >> 4);
+        int sign = b & 0x0F;
+        return sign == SIGN_NEGATIVE || sign == 0x0B ? -value : value;
+    }
+
+    /**
+     * Writes a value as packed decimal in place, without an intermediate digit string.
+     * As with {@link #encode}, digits that do not fit are dropped from the left.
+     *
+     * @param value      the value to encode
+     * @param buffer     the output buffer
+     * @param index      absolute index of the first byte
+     * @param byteLength the number of packed bytes
+     */
+    public static void encodeLong(long value, ByteBuf buffer, int index, int byteLength) {
+        boolean negative = value < 0;
+        int last = index + byteLength - 1;
+        int lowest = (int) Math.abs(value % 10);
+        long rest = Math.abs(value / 10);
+        buffer.setByte(last, lowest << 4 | (negative ? SIGN_NEGATIVE : SIGN_POSITIVE));
+        for (int i = last - 1; i >= index; i--) {
+            int low = (int) (rest % 10);
+            rest /= 10;
+            int high = (int) (rest % 10);
+            rest /= 10;
+            buffer.setByte(i, high << 4 | low);
+        }
+    }
+
+    private static int digit(int nibble) {
+        if (nibble > 9) {
+            throw new NumberFormatException("Invalid packed decimal digit: 0x" + Integer.toHexString(nibble));
+        }
+        return nibble;
+    }
+
     /**
      * Packs a numeric string into packed decimal format.
      * Format: Each byte contains 2 digits (high nibble, low nibble),
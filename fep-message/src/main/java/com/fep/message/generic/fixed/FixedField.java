@@ -0,0 +1,340 @@
+package com.fep.message.generic.fixed;
+
+import com.fep.message.exception.MessageException;
+import com.fep.message.generic.codec.EbcdicCodec;
+import com.fep.message.generic.codec.PackedDecimalCodec;
+import io.netty.buffer.ByteBuf;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A compiled field of a {@link FixedRecordCodec}.
+ *
+ * <p>Every method works in place on a record buffer whose record starts at the
+ * buffer's reader index. Bytes past the writer index read as padding, so short
+ * records decode their missing fields as blank. Numeric fields are converted
+ * arithmetically between bytes and {@code long}, never through a String.
+ */
+public final class FixedField {
+
+    /**
+     * Byte-level encoding of a field.
+     */
+    enum Encoding {
+        ASCII(0x30, 0x20, '-', '+'),
+        EBCDIC(0xF0, 0x40, 0x60, 0x4E),
+        PACKED_DECIMAL(0, 0, 0, 0);
+
+        private final int zero;
+        private final int space;
+        private final int minus;
+        private final int plus;
+
+        Encoding(int zero, int space, int minus, int plus) {
+            this.zero = zero;
+            this.space = space;
+            this.minus = minus;
+            this.plus = plus;
+        }
+
+        static Encoding of(String name) {
+            return switch (name.toUpperCase()) {
+                case "ASCII" -> ASCII;
+                case "EBCDIC" -> EBCDIC;
+                case "PACKED_DECIMAL", "COMP-3" -> PACKED_DECIMAL;
+                default -> throw new IllegalArgumentException("Unsupported fixed-width encoding: " + name);
+            };
+        }
+
+        int space() {
+            return space;
+        }
+
+        private boolean isPad(int b) {
+            return this == EBCDIC ? b == space || b == 0 : b <= space;
+        }
+    }
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** Longest numeric field, so values always fit a long. */
+    static final int MAX_DIGITS = 18;
+
+    private final String id;
+    private final int offset;
+    private final int length;
+    private final int byteLength;
+    private final int scale;
+    private final boolean numeric;
+    private final Encoding encoding;
+    private final Charset charset;
+
+    FixedField(String id, int offset, int length, boolean numeric, int scale, Encoding encoding, Charset charset) {
+        this.id = id;
+        this.offset = offset;
+        this.length = length;
+        this.numeric = numeric;
+        this.scale = scale;
+        this.encoding = encoding;
+        this.charset = encoding == Encoding.EBCDIC ? EbcdicCodec.getCharset() : charset;
+        this.byteLength = encoding == Encoding.PACKED_DECIMAL
+                ? new PackedDecimalCodec().calculateByteLength(length) : length;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Zero-based byte offset in the record.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Length in characters, or in digits for numeric fields.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public int getByteLength() {
+        return byteLength;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * Checks whether the field holds only padding, or lies past the end of the record.
+     */
+    public boolean isBlank(ByteBuf record) {
+        int start = record.readerIndex() + offset;
+        int end = Math.min(start + byteLength, record.writerIndex());
+        if (encoding == Encoding.PACKED_DECIMAL) {
+            return start >= end;
+        }
+        for (int i = start; i < end; i++) {
+            if (!encoding.isPad(record.getByte(i) & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the field as text with surrounding padding removed. Pure ASCII
+     * text, the common case, skips the charset decoder.
+     */
+    public String readString(ByteBuf record) {
+        if (encoding == Encoding.PACKED_DECIMAL) {
+            return Long.toString(readLong(record));
+        }
+        int start = record.readerIndex() + offset;
+        int end = Math.min(start + byteLength, record.writerIndex());
+        while (start < end && encoding.isPad(record.getByte(start) & 0xFF)) {
+            start++;
+        }
+        while (end > start && encoding.isPad(record.getByte(end - 1) & 0xFF)) {
+            end--;
+        }
+        if (start >= end) {
+            return "";
+        }
+        if (encoding == Encoding.ASCII) {
+            for (int i = start; i < end; i++) {
+                if (record.getByte(i) < 0) {
+                    return record.toString(start, end - start, charset);
+                }
+            }
+            return record.toString(start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        return record.toString(start, end - start, charset);
+    }
+
+    /**
+     * Reads a numeric field as its unscaled value; a blank field is zero.
+     *
+     * @throws NumberFormatException if the field does not hold a number
+     */
+    public long readLong(ByteBuf record) {
+        requireNumeric();
+        int start = record.readerIndex() + offset;
+        if (encoding == Encoding.PACKED_DECIMAL) {
+            return start + byteLength <= record.writerIndex()
+                    ? PackedDecimalCodec.decodeLong(record, start, byteLength) : 0;
+        }
+        return readZoned(record, start, Math.min(start + byteLength, record.writerIndex()));
+    }
+
+    /**
+     * Reads a numeric field as a decimal with the field's implied scale.
+     *
+     * @throws NumberFormatException if the field does not hold a number
+     */
+    public BigDecimal readDecimal(ByteBuf record) {
+        return BigDecimal.valueOf(readLong(record), scale);
+    }
+
+    /**
+     * Writes text left-aligned, padded with spaces and truncated to the field length.
+     * Truncation keeps whole characters only, so a multi-byte character (e.g. Big5)
+     * that would straddle the end of the field is dropped and its bytes padded.
+     */
+    public void writeString(ByteBuf record, String value) {
+        if (numeric) {
+            throw MessageException.fieldError(id, "is numeric; write it with writeLong or writeDecimal");
+        }
+        int start = record.readerIndex() + offset;
+        int written = 0;
+        if (value != null && !value.isEmpty()) {
+            byte[] bytes = value.getBytes(charset);
+            if (bytes.length <= byteLength) {
+                written = bytes.length;
+                record.setBytes(start, bytes, 0, written);
+            } else {
+                ByteBuffer truncated = encodeWholeCharacters(value);
+                written = truncated.remaining();
+                record.setBytes(start, truncated);
+            }
+        }
+        for (int i = start + written; i < start + byteLength; i++) {
+            record.setByte(i, encoding.space);
+        }
+    }
+
+    /**
+     * Writes an unscaled value right-aligned and zero-filled.
+     *
+     * @throws MessageException if the value has more digits than the field
+     */
+    public void writeLong(ByteBuf record, long value) {
+        requireNumeric();
+        // A leading '-' takes one of the digit positions of a display field
+        int digits = value < 0 && encoding == Encoding.ASCII ? length - 1 : length;
+        if (value == Long.MIN_VALUE || Math.abs(value) >= POWERS_OF_TEN[digits]) {
+            throw MessageException.fieldError(id, "value " + value + " does not fit " + length + " digits");
+        }
+        int start = record.readerIndex() + offset;
+        if (encoding == Encoding.PACKED_DECIMAL) {
+            PackedDecimalCodec.encodeLong(value, record, start, byteLength);
+            return;
+        }
+        long rest = Math.abs(value);
+        int last = start + byteLength - 1;
+        for (int i = last; i >= start; i--) {
+            record.setByte(i, encoding.zero + (int) (rest % 10));
+            rest /= 10;
+        }
+        if (value < 0) {
+            if (encoding == Encoding.EBCDIC) {
+                // Zoned decimal: the sign overpunches the zone of the last digit
+                record.setByte(last, 0xD0 | (record.getByte(last) & 0x0F));
+            } else {
+                record.setByte(start, encoding.minus);
+            }
+        }
+    }
+
+    /**
+     * Writes a decimal as its unscaled value at the field's implied scale.
+     *
+     * @throws ArithmeticException if the value has more decimal places than the field
+     */
+    public void writeDecimal(ByteBuf record, BigDecimal value) {
+        writeLong(record, value == null ? 0 : value.setScale(scale, RoundingMode.UNNECESSARY)
+                .unscaledValue().longValueExact());
+    }
+
+    /**
+     * Resets the field to its empty value: spaces for text, zero for numbers.
+     */
+    void clear(ByteBuf record) {
+        if (numeric) {
+            writeLong(record, 0);
+        } else {
+            writeString(record, null);
+        }
+    }
+
+    /**
+     * Encodes as many leading characters as fit the field; the encoder stops at
+     * the last character whose bytes fit entirely.
+     */
+    private ByteBuffer encodeWholeCharacters(String value) {
+        ByteBuffer out = ByteBuffer.allocate(byteLength);
+        charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .encode(CharBuffer.wrap(value), out, true);
+        return out.flip();
+    }
+
+    private long readZoned(ByteBuf record, int start, int end) {
+        while (start < end && encoding.isPad(record.getByte(start) & 0xFF)) {
+            start++;
+        }
+        while (end > start && encoding.isPad(record.getByte(end - 1) & 0xFF)) {
+            end--;
+        }
+        if (start >= end) {
+            return 0;
+        }
+        int first = record.getByte(start) & 0xFF;
+        boolean negative = first == encoding.minus;
+        if (negative || first == encoding.plus) {
+            start++;
+            if (start == end) {
+                throw new NumberFormatException("Sign without digits in field " + id);
+            }
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int b = record.getByte(i) & 0xFF;
+            int digit = b - encoding.zero;
+            if (digit < 0 || digit > 9) {
+                int zone = b & 0xF0;
+                digit = b & 0x0F;
+                boolean overpunch = encoding == Encoding.EBCDIC && i == end - 1
+                        && (zone == 0xC0 || zone == 0xD0) && digit <= 9;
+                if (!overpunch) {
+                    throw new NumberFormatException("Not a digit at offset " + (i - record.readerIndex())
+                            + " in field " + id);
+                }
+                negative |= zone == 0xD0;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private void requireNumeric() {
+        if (!numeric) {
+            throw MessageException.fieldError(id, "is not numeric");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return id + "[" + offset + "+" + byteLength + " " + encoding + (numeric ? " numeric" : "") + "]";
+    }
+}
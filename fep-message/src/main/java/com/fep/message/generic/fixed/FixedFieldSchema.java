@@ -0,0 +1,81 @@
+package com.fep.message.generic.fixed;
+
+import com.fasterxml.jackson.annotation.JsonClassDescription;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fep.message.generic.schema.FieldSchema.FieldDataType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Schema definition for one field of a fixed-width record.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonClassDescription("Schema definition for one field of a fixed-width record")
+public class FixedFieldSchema {
+
+    /**
+     * Unique identifier for the field (e.g., "amount", "terminalId").
+     */
+    @JsonProperty(required = true)
+    @JsonPropertyDescription("Unique identifier for the field")
+    @Schema(example = "amount")
+    private String id;
+
+    /**
+     * Field description.
+     */
+    @JsonPropertyDescription("description of the field")
+    @Schema(example = "Transaction amount, 2 decimal places implied")
+    private String description;
+
+    /**
+     * Zero-based byte offset in the record; when absent the field follows the previous one.
+     */
+    @JsonPropertyDescription("zero-based byte offset; follows the previous field when absent")
+    @Schema(example = "73")
+    private Integer offset;
+
+    /**
+     * Length in characters, or in digits for numeric fields.
+     */
+    @JsonProperty(required = true)
+    @JsonPropertyDescription("length in characters, or in digits for numeric fields")
+    @Schema(example = "12")
+    private int length;
+
+    /**
+     * Data type; NUMERIC fields are read and written as numbers.
+     */
+    @Builder.Default
+    @JsonPropertyDescription("data type of the field")
+    private FieldDataType type = FieldDataType.ALPHANUMERIC;
+
+    /**
+     * Field encoding (ASCII, EBCDIC, PACKED_DECIMAL); defaults to the record encoding.
+     */
+    @JsonPropertyDescription("encoding of the field; defaults to the record encoding")
+    @Schema(example = "PACKED_DECIMAL")
+    private String encoding;
+
+    /**
+     * Implied decimal places of a numeric field.
+     */
+    @Builder.Default
+    @JsonPropertyDescription("implied decimal places of a numeric field")
+    @Schema(example = "2")
+    private int scale = 0;
+
+    /**
+     * Checks if this is a numeric field.
+     */
+    public boolean isNumeric() {
+        return type == FieldDataType.NUMERIC;
+    }
+}
@@ -0,0 +1,181 @@
+package com.fep.message.generic.fixed;
+
+import com.fep.message.exception.MessageException;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec for one fixed-width record layout, compiled from a {@link FixedRecordSchema}.
+ *
+ * <p>Compiling resolves every field's offset, byte length and encoding once, so
+ * reading or writing a record is plain index arithmetic on the buffer. Callers
+ * look up their {@link FixedField}s once and keep them:
+ *
+ * <pre>{@code
+ * FixedRecordCodec codec = FixedRecordCodec.compile(schema);
+ * FixedField amount = codec.field("amount");
+ *
+ * BigDecimal value = amount.readDecimal(record);
+ *
+ * ByteBuf out = codec.newRecord(buffer);
+ * amount.writeDecimal(out, value);
+ * }</pre>
+ *
+ * <p>ASCII, EBCDIC and PACKED_DECIMAL (COMP-3) fields may be mixed in one record.
+ * Instances are immutable and thread-safe.
+ */
+public final class FixedRecordCodec {
+
+    private final String name;
+    private final int recordLength;
+    private final Charset charset;
+    private final int filler;
+    private final List<FixedField> fields;
+    private final Map<String, FixedField> fieldsById;
+
+    private FixedRecordCodec(String name, int recordLength, Charset charset, int filler, List<FixedField> fields) {
+        this.name = name;
+        this.recordLength = recordLength;
+        this.charset = charset;
+        this.filler = filler;
+        this.fields = Collections.unmodifiableList(fields);
+        Map<String, FixedField> byId = new LinkedHashMap<>();
+        for (FixedField field : fields) {
+            byId.put(field.getId(), field);
+        }
+        this.fieldsById = Collections.unmodifiableMap(byId);
+    }
+
+    /**
+     * Compiles a layout.
+     *
+     * @param schema the layout
+     * @return the compiled codec
+     * @throws MessageException if the layout is inconsistent
+     */
+    public static FixedRecordCodec compile(FixedRecordSchema schema) {
+        Charset charset;
+        FixedField.Encoding recordEncoding;
+        try {
+            charset = Charset.forName(schema.getCharset());
+            recordEncoding = FixedField.Encoding.of(schema.getEncoding());
+        } catch (IllegalArgumentException e) {
+            throw MessageException.parseError("Layout '" + schema.getName() + "': " + e.getMessage(), e);
+        }
+
+        List<FixedField> fields = new ArrayList<>(schema.getFields().size());
+        int position = 0;
+        int end = 0;
+        for (FixedFieldSchema fieldSchema : schema.getFields()) {
+            FixedField field = compileField(fieldSchema, position, recordEncoding, charset);
+            fields.add(field);
+            position = field.getOffset() + field.getByteLength();
+            end = Math.max(end, position);
+        }
+
+        int recordLength = schema.getRecordLength() != null ? schema.getRecordLength() : end;
+        if (recordLength < end) {
+            throw MessageException.parseError("Layout '" + schema.getName() + "' fields end at byte " + end
+                    + ", past record length " + recordLength);
+        }
+        return new FixedRecordCodec(schema.getName(), recordLength, charset, recordEncoding.space(), fields);
+    }
+
+    private static FixedField compileField(FixedFieldSchema schema, int position,
+                                           FixedField.Encoding recordEncoding, Charset charset) {
+        String id = schema.getId();
+        FixedField.Encoding encoding;
+        try {
+            encoding = schema.getEncoding() != null ? FixedField.Encoding.of(schema.getEncoding()) : recordEncoding;
+        } catch (IllegalArgumentException e) {
+            throw MessageException.fieldError(id, e.getMessage());
+        }
+        int offset = schema.getOffset() != null ? schema.getOffset() : position;
+
+        if (schema.getLength() <= 0) {
+            throw MessageException.fieldError(id, "length must be > 0");
+        }
+        if (offset < 0) {
+            throw MessageException.fieldError(id, "offset must be >= 0");
+        }
+        if (encoding == FixedField.Encoding.PACKED_DECIMAL && !schema.isNumeric()) {
+            throw MessageException.fieldError(id, "PACKED_DECIMAL fields must be NUMERIC");
+        }
+        if (schema.isNumeric() && schema.getLength() > FixedField.MAX_DIGITS) {
+            throw MessageException.fieldError(id, "numeric fields hold at most " + FixedField.MAX_DIGITS + " digits");
+        }
+        if (schema.getScale() < 0 || (schema.getScale() > 0 && !schema.isNumeric())) {
+            throw MessageException.fieldError(id, "scale must be >= 0 and only set on NUMERIC fields");
+        }
+        return new FixedField(id, offset, schema.getLength(), schema.isNumeric(), schema.getScale(),
+                encoding, charset);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record length in bytes.
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * Charset of ASCII-encoded text fields.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * The compiled fields, in layout order.
+     */
+    public List<FixedField> getFields() {
+        return fields;
+    }
+
+    /**
+     * Gets a compiled field by id.
+     *
+     * @throws MessageException if the layout has no such field
+     */
+    public FixedField field(String id) {
+        FixedField field = fieldsById.get(id);
+        if (field == null) {
+            throw MessageException.fieldError(id, "not defined in layout " + name);
+        }
+        return field;
+    }
+
+    /**
+     * Appends an empty record to {@code out}: spaces for text fields and the
+     * gaps between fields, zero for numeric fields.
+     *
+     * @return a view of the new record for the field writers
+     */
+    public ByteBuf newRecord(ByteBuf out) {
+        int base = out.writerIndex();
+        out.ensureWritable(recordLength);
+        for (int i = 0; i < recordLength; i++) {
+            out.writeByte(filler);
+        }
+        ByteBuf record = out.slice(base, recordLength);
+        for (FixedField field : fields) {
+            field.clear(record);
+        }
+        return record;
+    }
+
+    @Override
+    public String toString() {
+        return "FixedRecordCodec[" + name + ", " + recordLength + " bytes, " + fields.size() + " fields]";
+    }
+}
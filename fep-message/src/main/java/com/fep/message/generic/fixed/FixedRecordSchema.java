@@ -0,0 +1,68 @@
+package com.fep.message.generic.fixed;
+
+import com.fasterxml.jackson.annotation.JsonClassDescription;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Schema definition for a fixed-width record, such as a settlement file line
+ * or a mainframe COBOL copybook.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonClassDescription("Schema definition for a fixed-width record")
+public class FixedRecordSchema {
+
+    /**
+     * Layout name (e.g., "FISC_SETTLEMENT_DETAIL").
+     */
+    @JsonProperty(required = true)
+    @JsonPropertyDescription("Layout name")
+    @Schema(example = "FISC_SETTLEMENT_DETAIL")
+    private String name;
+
+    /**
+     * Layout description.
+     */
+    @Schema(example = "FISC daily settlement detail record")
+    private String description;
+
+    /**
+     * Default field encoding (ASCII, EBCDIC, PACKED_DECIMAL).
+     */
+    @Builder.Default
+    @JsonPropertyDescription("default field encoding")
+    @Schema(example = "ASCII")
+    private String encoding = "ASCII";
+
+    /**
+     * Charset for non-ASCII text in ASCII-encoded fields (e.g., "Big5").
+     */
+    @Builder.Default
+    @JsonPropertyDescription("charset for non-ASCII text in ASCII-encoded fields")
+    @Schema(example = "Big5")
+    private String charset = "US-ASCII";
+
+    /**
+     * Record length in bytes; defaults to the end of the last field.
+     */
+    @JsonPropertyDescription("record length in bytes; defaults to the end of the last field")
+    @Schema(example = "200")
+    private Integer recordLength;
+
+    /**
+     * Record fields.
+     */
+    @JsonProperty(required = true)
+    @JsonPropertyDescription("record fields")
+    private List<FixedFieldSchema> fields;
+}
@@ -0,0 +1,133 @@
+package com.fep.message.generic.fixed;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fep.message.exception.MessageException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads and caches fixed-width record layouts from JSON strings or classpath resources.
+ *
+ * <p>A layout collection is either an array of layouts or an object with a
+ * {@code layouts} array.
+ */
+@Slf4j
+public class FixedRecordSchemaLoader {
+
+    private static final ObjectMapper objectMapper = createObjectMapper();
+    private static final Map<String, FixedRecordSchema> schemaCache = new ConcurrentHashMap<>();
+
+    private static ObjectMapper createObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper;
+    }
+
+    /**
+     * Loads a layout from a JSON string.
+     *
+     * @param json the JSON string
+     * @return the parsed FixedRecordSchema
+     * @throws MessageException if parsing or validation fails
+     */
+    public static FixedRecordSchema fromJson(String json) {
+        try {
+            FixedRecordSchema schema = objectMapper.readValue(json, FixedRecordSchema.class);
+            validateSchema(schema);
+            return schema;
+        } catch (IOException e) {
+            throw MessageException.parseError("Failed to parse layout JSON: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads a specific layout by name from a classpath collection resource.
+     *
+     * @param resource   the classpath resource (e.g., "fisc-settlement-layouts.json")
+     * @param schemaName the name of the layout to load
+     * @return the parsed FixedRecordSchema
+     * @throws MessageException if loading or parsing fails, or the layout is not found
+     */
+    public static FixedRecordSchema fromResource(String resource, String schemaName) {
+        return schemaCache.computeIfAbsent(resource + ":" + schemaName, k -> {
+            ClassLoader classLoader = FixedRecordSchemaLoader.class.getClassLoader();
+            try (InputStream in = classLoader.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw MessageException.parseError("Layout resource not found: " + resource);
+                }
+                JsonNode root = objectMapper.readTree(in);
+                for (JsonNode node : extractLayoutsNode(root, resource)) {
+                    if (node.has("name") && schemaName.equals(node.get("name").asText())) {
+                        FixedRecordSchema schema = objectMapper.treeToValue(node, FixedRecordSchema.class);
+                        validateSchema(schema);
+                        log.info("Loaded fixed record layout '{}' from resource: {}", schemaName, resource);
+                        return schema;
+                    }
+                }
+                throw MessageException.parseError("Layout '" + schemaName + "' not found in resource: " + resource);
+            } catch (IOException e) {
+                throw MessageException.parseError("Failed to load layout from resource: " + resource
+                        + " - " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Validates a layout for required fields and consistency.
+     *
+     * @param schema the layout to validate
+     * @throws MessageException if validation fails
+     */
+    public static void validateSchema(FixedRecordSchema schema) {
+        if (schema.getName() == null || schema.getName().isBlank()) {
+            throw MessageException.parseError("Layout must have a name");
+        }
+        if (schema.getFields() == null || schema.getFields().isEmpty()) {
+            throw MessageException.parseError("Layout '" + schema.getName() + "' must have at least one field");
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (FixedFieldSchema field : schema.getFields()) {
+            if (field.getId() == null || field.getId().isBlank()) {
+                throw MessageException.parseError("Field in " + schema.getName() + " must have an id");
+            }
+            if (!ids.add(field.getId())) {
+                throw MessageException.fieldError(field.getId(), "defined twice in layout " + schema.getName());
+            }
+        }
+
+        // Offsets, encodings and lengths are checked when the layout is compiled
+        FixedRecordCodec.compile(schema);
+        log.debug("Layout '{}' validation passed", schema.getName());
+    }
+
+    private static JsonNode extractLayoutsNode(JsonNode root, String resource) {
+        if (root == null) {
+            throw MessageException.parseError("Layout collection is empty: " + resource);
+        }
+        if (root.isArray()) {
+            return root;
+        }
+        if (root.isObject() && root.has("layouts") && root.get("layouts").isArray()) {
+            return root.get("layouts");
+        }
+        throw MessageException.parseError(
+                "Layout collection must contain an array or object with 'layouts' array: " + resource);
+    }
+
+    /**
+     * Clears the layout cache.
+     */
+    public static void clearCache() {
+        schemaCache.clear();
+        log.debug("Fixed record layout cache cleared");
+    }
+}
@@ -0,0 +1,78 @@
+package com.fep.message.generic.message;
+
+import java.util.function.Function;
+
+/**
+ * Lazily materialized {@link GenericMessage} over the raw bytes of an already
+ * decoded message.
+ *
+ * <p>A frame decoder attaches one view per inbound message. The schema parse
+ * runs on the first {@link #get()} only, so channels that never ask for the
+ * GenericMessage pay nothing, and every handler or listener that does ask
+ * shares one parse. A failed parse is remembered and rethrown rather than retried.
+ *
+ * <p>Instances are thread-safe.
+ */
+public final class GenericMessageView {
+
+    private final byte[] data;
+    private final Function<byte[], GenericMessage> parser;
+
+    private volatile GenericMessage message;
+    private volatile RuntimeException failure;
+
+    /**
+     * Creates a view.
+     *
+     * @param data   the raw message bytes, shared with the owning message
+     * @param parser parses the bytes into a GenericMessage
+     */
+    public GenericMessageView(byte[] data, Function<byte[], GenericMessage> parser) {
+        this.data = data;
+        this.parser = parser;
+    }
+
+    /**
+     * Gets the GenericMessage, parsing the raw bytes on first access.
+     *
+     * @return the parsed message
+     * @throws RuntimeException the parse failure, on this and every later call
+     */
+    public GenericMessage get() {
+        GenericMessage result = message;
+        if (result != null) {
+            return result;
+        }
+        synchronized (this) {
+            if (message == null && failure == null) {
+                try {
+                    message = parser.apply(data);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return message;
+        }
+    }
+
+    /**
+     * Checks whether the GenericMessage has been parsed.
+     *
+     * @return true once {@link #get()} has parsed successfully
+     */
+    public boolean isMaterialized() {
+        return message != null;
+    }
+
+    /**
+     * Gets the raw bytes the view is built over.
+     *
+     * @return the raw message bytes
+     */
+    public byte[] getData() {
+        return data;
+    }
+}
@@ -1,6 +1,8 @@
 package com.fep.message.generic.parser;
 
 import com.fep.message.exception.MessageException;
+import com.fep.message.generic.codec.AsciiCodec;
+import com.fep.message.generic.codec.BcdCodec;
 import com.fep.message.generic.codec.CodecRegistry;
 import com.fep.message.generic.codec.GenericCodec;
 import com.fep.message.generic.message.GenericMessage;
@@ -10,10 +12,15 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
 import java.util.Map;
 
 /**
  * Assembles GenericMessage objects into byte arrays according to the schema.
+ *
+ * <p>{@link #assemble(GenericMessage, ByteBuf)} writes straight into the caller's
+ * buffer: the header length field is reserved and filled in place once the
+ * message is complete, so no intermediate buffer or array is allocated.
  */
 @Slf4j
 public class GenericMessageAssembler {
@@ -25,8 +32,26 @@ public class GenericMessageAssembler {
      * @return the assembled bytes
      */
     public byte[] assemble(GenericMessage message) {
+        ByteBuf buffer = Unpooled.buffer(estimateSize(message));
+        try {
+            assemble(message, buffer);
+            byte[] result = new byte[buffer.readableBytes()];
+            buffer.readBytes(result);
+            return result;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Assembles a message straight into a buffer, starting at its writer index.
+     *
+     * @param message the message to assemble
+     * @param buffer  the output buffer
+     */
+    public void assemble(GenericMessage message, ByteBuf buffer) {
         MessageSchema schema = message.getSchema();
-        ByteBuf buffer = Unpooled.buffer();
+        int start = buffer.writerIndex();
 
         try {
             // Reserve space for header length field if needed
@@ -87,23 +112,79 @@ public class GenericMessageAssembler {
 
             // Update length field
             if (lengthFieldPosition >= 0) {
-                int totalLength = buffer.readableBytes();
+                int totalLength = buffer.writerIndex() - start;
                 if (!schema.getHeader().isLengthIncludesHeader()) {
                     totalLength -= lengthFieldBytes;
                 }
                 updateLengthField(buffer, lengthFieldPosition, totalLength, lengthFieldBytes, lengthEncoding);
             }
 
-            // Extract bytes
-            byte[] result = new byte[buffer.readableBytes()];
-            buffer.readBytes(result);
+            log.debug("Assembled message [{}]: {} bytes", schema.getName(), buffer.writerIndex() - start);
 
-            log.debug("Assembled message [{}]: {} bytes", schema.getName(), result.length);
-            return result;
+        } catch (RuntimeException e) {
+            buffer.writerIndex(start);
+            throw e;
+        }
+    }
 
-        } finally {
-            buffer.release();
+    /**
+     * Estimates the assembled size of a message from its schema: the header
+     * length field plus, for each field with a value, its length prefix and
+     * encoded data length.
+     *
+     * @param message the message to assemble
+     * @return the expected size in bytes
+     */
+    public int estimateSize(GenericMessage message) {
+        MessageSchema schema = message.getSchema();
+        Map<String, Object> values = message.getAllFields();
+        int size = 0;
+        if (schema.getHeader() != null) {
+            if (schema.getHeader().isIncludeLength()) {
+                size += schema.getHeader().getLengthBytes();
+            }
+            size += estimateFields(schema.getHeader().getFields(), values, schema);
+        }
+        size += estimateFields(schema.getFields(), values, schema);
+        if (schema.getTrailer() != null) {
+            size += estimateFields(schema.getTrailer().getFields(), values, schema);
+        }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int estimateFields(List<FieldSchema> fields, Map<String, Object> values, MessageSchema schema) {
+        if (fields == null) {
+            return 0;
+        }
+        int size = 0;
+        for (FieldSchema fieldSchema : fields) {
+            Object value = values.get(fieldSchema.getId());
+            if (value == null) {
+                value = fieldSchema.getDefaultValue();
+            }
+            if (fieldSchema.isComposite()) {
+                if (value instanceof Map<?, ?> map) {
+                    size += estimateFields(fieldSchema.getFields(), (Map<String, Object>) map, schema);
+                } else if (value instanceof GenericMessage nested) {
+                    size += estimateFields(fieldSchema.getFields(), nested.getAllFields(), schema);
+                }
+            } else if (fieldSchema.isBitmap()) {
+                size += fieldSchema.getLength();
+            } else if (value != null || fieldSchema.isRequired()) {
+                String encoding = fieldSchema.getEncoding() != null
+                        ? fieldSchema.getEncoding() : schema.getDefaultEncoding();
+                GenericCodec codec = CodecRegistry.getOrDefault(encoding, "ASCII");
+                int dataLength = fieldSchema.isFixedLength() || value == null
+                        ? fieldSchema.getLength() : value.toString().length();
+                size += codec.calculateByteLength(dataLength);
+                if (fieldSchema.isVariableLength()) {
+                    size += CodecRegistry.getOrDefault(fieldSchema.getLengthEncoding(), "BCD")
+                            .calculateByteLength(fieldSchema.getLengthPrefixDigits());
+                }
+            }
         }
+        return size;
     }
 
     /**
@@ -230,49 +311,24 @@ public class GenericMessageAssembler {
     }
 
     /**
-     * Updates the length field at the specified position.
+     * Updates the length field at the specified position, in place.
      */
     private void updateLengthField(ByteBuf buffer, int position, int length, int lengthBytes, String encoding) {
-        // Save current position
-        int currentWriterIndex = buffer.writerIndex();
-
-        // Move to length field position
-        buffer.writerIndex(position);
-
-        // Create temporary buffer for length encoding
-        ByteBuf tempBuf = Unpooled.buffer(lengthBytes);
-        try {
-            GenericCodec codec = CodecRegistry.get(encoding);
-
-            if ("BCD".equalsIgnoreCase(encoding)) {
-                // BCD encoding for length
-                String lengthStr = String.format("%0" + (lengthBytes * 2) + "d", length);
-                codec.encode(lengthStr, null, tempBuf);
-            } else if ("BINARY".equalsIgnoreCase(encoding)) {
-                // Binary encoding (big-endian)
-                if (lengthBytes == 2) {
-                    tempBuf.writeShort(length);
-                } else if (lengthBytes == 4) {
-                    tempBuf.writeInt(length);
-                } else {
-                    tempBuf.writeByte(length);
-                }
+        if ("BCD".equalsIgnoreCase(encoding)) {
+            // BCD encoding for length
+            BcdCodec.setDigits(buffer, position, lengthBytes, length);
+        } else if ("BINARY".equalsIgnoreCase(encoding)) {
+            // Binary encoding (big-endian)
+            if (lengthBytes == 2) {
+                buffer.setShort(position, length);
+            } else if (lengthBytes == 4) {
+                buffer.setInt(position, length);
             } else {
-                // ASCII encoding
-                String lengthStr = String.format("%0" + lengthBytes + "d", length);
-                codec.encode(lengthStr, null, tempBuf);
+                buffer.setByte(position, length);
             }
-
-            // Copy to main buffer
-            byte[] lengthData = new byte[tempBuf.readableBytes()];
-            tempBuf.readBytes(lengthData);
-            buffer.writeBytes(lengthData);
-
-        } finally {
-            tempBuf.release();
+        } else {
+            // ASCII encoding
+            AsciiCodec.setDigits(buffer, position, lengthBytes, length);
         }
-
-        // Restore writer position
-        buffer.writerIndex(currentWriterIndex);
     }
 }
@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Loads and caches message schemas from JSON files or strings.
@@ -27,6 +28,8 @@ public class JsonSchemaLoader {
 
     private static final ObjectMapper objectMapper = createObjectMapper();
     private static final Map<String, MessageSchema> schemaCache = new ConcurrentHashMap<>();
+    private static final Map<String, MessageSchema> schemaView = Collections.unmodifiableMap(schemaCache);
+    private static final AtomicLong generation = new AtomicLong();
     private static final List<WeakReference<SchemaSubscriber>> subscribers = new CopyOnWriteArrayList<>();
 
     private static ObjectMapper createObjectMapper() {
@@ -127,7 +130,14 @@ public class JsonSchemaLoader {
      */
     public static MessageSchema fromCollectionFile(Path path, String schemaName) {
         String cacheKey = path.toAbsolutePath() + ":" + schemaName;
-        return schemaCache.computeIfAbsent(cacheKey, k -> {
+        MessageSchema cached = schemaCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        // The mapping function may hold a map bin lock, so it only loads;
+        // the generation is bumped once the schema is actually in the cache
+        boolean[] loaded = new boolean[1];
+        MessageSchema result = schemaCache.computeIfAbsent(cacheKey, k -> {
             try {
                 String json = Files.readString(path);
                 JsonNode root = objectMapper.readTree(json);
@@ -138,6 +148,7 @@ public class JsonSchemaLoader {
                     if (schemaName.equals(name)) {
                         MessageSchema schema = objectMapper.treeToValue(schemaNode, MessageSchema.class);
                         validateSchema(schema);
+                        loaded[0] = true;
                         log.info("Loaded schema '{}' from collection file: {}", schemaName, path);
                         return schema;
                     }
@@ -148,6 +159,10 @@ public class JsonSchemaLoader {
                 throw MessageException.parseError("Failed to load schema from collection file: " + path + " - " + e.getMessage());
             }
         });
+        if (loaded[0]) {
+            generation.incrementAndGet();
+        }
+        return result;
     }
 
     /**
@@ -199,6 +214,7 @@ public class JsonSchemaLoader {
      */
     public static void clearCache() {
         schemaCache.clear();
+        generation.incrementAndGet();
         log.debug("Schema cache cleared");
     }
 
@@ -208,11 +224,14 @@ public class JsonSchemaLoader {
      * @param key the cache key (file path or resource path)
      */
     public static void removeFromCache(String key) {
-        schemaCache.remove(key);
+        if (schemaCache.remove(key) != null) {
+            generation.incrementAndGet();
+        }
     }
 
     public static void reloadFromFilePath(String filePath) {
         schemaCache.clear();
+        generation.incrementAndGet();
         File jsonFile = new File(filePath);
         if (!jsonFile.exists()) {
             throw MessageException.parseError("Schema json file not found: " + filePath);
@@ -229,10 +248,13 @@ public class JsonSchemaLoader {
                 schemaCache.put(name, schema);
             }
             log.info("Loaded {} schemas from {}", schemaCache.size(), filePath);
-            publishSchemaMap();
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            // Also on failure, so a partially loaded cache is not mistaken for the previous one
+            generation.incrementAndGet();
         }
+        publishSchemaMap();
     }
 
     /**
@@ -252,8 +274,23 @@ public class JsonSchemaLoader {
                 "Schema json file must contain an array or object with 'schemas' array: " + filePath);
     }
 
+    /**
+     * Gets a read-only live view of the loaded schemas. The same view is returned on every call.
+     *
+     * @return unmodifiable map of cache key to schema
+     */
     public static Map<String, MessageSchema> getSchemaMap() {
-        return Collections.unmodifiableMap(schemaCache);
+        return schemaView;
+    }
+
+    /**
+     * Gets the cache generation, which changes whenever schemas are added, removed or reloaded.
+     * Callers that precompute lookups over {@link #getSchemaMap()} compare it to detect staleness.
+     *
+     * @return the current generation
+     */
+    public static long getGeneration() {
+        return generation.get();
     }
 
     /**
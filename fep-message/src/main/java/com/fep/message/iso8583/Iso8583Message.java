@@ -1,12 +1,18 @@
 package com.fep.message.iso8583;
 
+import com.fep.message.generic.message.GenericMessage;
+import com.fep.message.generic.message.GenericMessageView;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Represents an ISO 8583 financial transaction message.
@@ -27,6 +33,10 @@ import java.util.Set;
  * message.setField(3, "000000");            // Processing Code
  * message.setField(4, "000000010000");      // Amount
  * }</pre>
+ *
+ * <p>A decoder that only needs the routing fields up front may leave the rest
+ * undecoded with {@link #deferFields}; they are decoded the first time a later
+ * field, or the whole field set, is read.
  */
 @Slf4j
 @Getter
@@ -50,12 +60,31 @@ public class Iso8583Message implements java.io.Serializable {
     /** Secondary bitmap (fields 65-128), present if field 1 is set in primary bitmap */
     private byte[] secondaryBitmap;
 
-    /** Data elements storage - using LinkedHashMap to maintain insertion order */
-    private final Map<Integer, Object> fields = new LinkedHashMap<>();
+    /**
+     * Data elements storage - using LinkedHashMap to maintain insertion order.
+     * Replaced, never filled in place, when deferred fields are decoded, so a
+     * concurrent reader of the already decoded fields never sees a half-built map.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile Map<Integer, Object> fields = new LinkedHashMap<>();
+
+    /** Decodes the fields above {@link #decodedThrough}; null once every field is present */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile Consumer<Iso8583Message> deferredFields;
+
+    /** Highest field number decoded before the rest were deferred */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient int decodedThrough = MAX_FIELDS;
 
     /** Raw message bytes for logging/debugging */
     private byte[] rawData;
 
+    /** Schema-driven view over {@link #rawData}, attached by the decoder when the channel asks for one */
+    private transient GenericMessageView genericView;
+
     /** Message creation timestamp */
     private final long timestamp;
 
@@ -100,6 +129,7 @@ public class Iso8583Message implements java.io.Serializable {
      */
     public void setField(int fieldNumber, Object value) {
         validateFieldNumber(fieldNumber);
+        decodeDeferredFields();
         if (value != null) {
             fields.put(fieldNumber, value);
             log.trace("Set field {}: {}", fieldNumber, maskSensitiveData(fieldNumber, value));
@@ -116,6 +146,9 @@ public class Iso8583Message implements java.io.Serializable {
      */
     public Object getField(int fieldNumber) {
         validateFieldNumber(fieldNumber);
+        if (deferredFields != null && fieldNumber > decodedThrough) {
+            decodeDeferredFields();
+        }
         return fields.get(fieldNumber);
     }
 
@@ -137,6 +170,9 @@ public class Iso8583Message implements java.io.Serializable {
      * @return true if the field is present
      */
     public boolean hasField(int fieldNumber) {
+        if (deferredFields != null && fieldNumber > decodedThrough) {
+            decodeDeferredFields();
+        }
         return fields.containsKey(fieldNumber);
     }
 
@@ -148,6 +184,7 @@ public class Iso8583Message implements java.io.Serializable {
      */
     public Object removeField(int fieldNumber) {
         validateFieldNumber(fieldNumber);
+        decodeDeferredFields();
         return fields.remove(fieldNumber);
     }
 
@@ -157,22 +194,89 @@ public class Iso8583Message implements java.io.Serializable {
      * @return set of field numbers
      */
     public Set<Integer> getFieldNumbers() {
+        decodeDeferredFields();
         return fields.keySet();
     }
 
+    /**
+     * Gets the field storage, keyed by field number.
+     *
+     * @return the live field map
+     */
+    public Map<Integer, Object> getFields() {
+        decodeDeferredFields();
+        return fields;
+    }
+
     /**
      * Checks if secondary bitmap is needed (any field 65-128 is present).
      *
      * @return true if secondary bitmap is needed
      */
     public boolean hasSecondaryBitmap() {
-        return fields.keySet().stream().anyMatch(f -> f > 64);
+        return getFieldNumbers().stream().anyMatch(f -> f > 64);
+    }
+
+    /**
+     * Leaves the fields above {@code decodedThrough} undecoded until one of them,
+     * or the whole field set, is first read or changed. A decode failure is thrown
+     * to that reader, and again to the next one; fields it decoded before failing
+     * are discarded.
+     *
+     * @param decodedThrough highest field number already set on this message
+     * @param decoder        sets the remaining fields on the message it is given - a
+     *                       scratch message whose fields are added to this one in a
+     *                       single step once the decoder returns
+     */
+    public void deferFields(int decodedThrough, Consumer<Iso8583Message> decoder) {
+        this.decodedThrough = decodedThrough;
+        this.deferredFields = decoder;
+    }
+
+    /**
+     * Checks whether some fields have not been decoded yet.
+     *
+     * @return true while fields deferred by {@link #deferFields} are undecoded
+     */
+    public boolean hasDeferredFields() {
+        return deferredFields != null;
+    }
+
+    private void decodeDeferredFields() {
+        if (deferredFields == null) {
+            return;
+        }
+        synchronized (this) {
+            Consumer<Iso8583Message> decoder = deferredFields;
+            if (decoder == null) {
+                return;
+            }
+            // Decoded aside and published by replacing the map: readers of the
+            // fields up to decodedThrough do not lock, and a failed decode leaves
+            // nothing behind. The flag is cleared only after the new map is visible.
+            Iso8583Message decoded = new Iso8583Message();
+            decoder.accept(decoded);
+            Map<Integer, Object> merged = new LinkedHashMap<>(fields);
+            merged.putAll(decoded.fields);
+            fields = merged;
+            deferredFields = null;
+        }
+    }
+
+    /**
+     * Gets the GenericMessage view of this message, parsing it on first access.
+     *
+     * @return the GenericMessage, or null if no view is attached
+     */
+    public GenericMessage asGenericMessage() {
+        return genericView != null ? genericView.get() : null;
     }
 
     /**
      * Clears all fields.
      */
     public void clear() {
+        deferredFields = null;
         fields.clear();
         primaryBitmap = null;
         secondaryBitmap = null;
@@ -218,6 +322,11 @@ public class Iso8583Message implements java.io.Serializable {
         return response;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        decodeDeferredFields();
+        out.defaultWriteObject();
+    }
+
     private void validateFieldNumber(int fieldNumber) {
         if (fieldNumber < 1 || fieldNumber > MAX_FIELDS) {
             throw new IllegalArgumentException(
@@ -263,7 +372,7 @@ public class Iso8583Message implements java.io.Serializable {
         sb.append("  MTI: ").append(mti).append("\n");
         sb.append("  Type: ").append(messageType != null ? messageType.getDescription() : "Unknown").append("\n");
         sb.append("  Fields:\n");
-        fields.forEach((fieldNum, value) ->
+        getFields().forEach((fieldNum, value) ->
             sb.append("    F").append(String.format("%03d", fieldNum))
               .append(": ").append(maskSensitiveData(fieldNum, value)).append("\n"));
         return sb.toString();
@@ -4,11 +4,11 @@ import com.fep.message.iso8583.parser.FiscMessageAssembler;
 import com.fep.message.iso8583.parser.FiscMessageParser;
 import com.fep.message.iso8583.parser.MessageAssembler;
 import com.fep.message.iso8583.parser.MessageParser;
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Factory class for creating and managing ISO 8583 messages.
@@ -49,11 +49,8 @@ public class Iso8583MessageFactory {
     private static final DateTimeFormatter LOCAL_DATE_FORMAT =
         DateTimeFormatter.ofPattern("MMdd");
 
-    /** STAN counter (rolls over at 999999) */
-    private final AtomicInteger stanCounter = new AtomicInteger(0);
-
-    /** RRN counter (rolls over at 999999999999) */
-    private final AtomicInteger rrnCounter = new AtomicInteger(0);
+    /** Trace channel used when none is set */
+    public static final String DEFAULT_TRACE_CHANNEL = "DEFAULT";
 
     /** Parser for incoming messages */
     private final MessageParser parser;
@@ -64,6 +61,12 @@ public class Iso8583MessageFactory {
     /** Bank institution ID (used in field 32/33) */
     private String institutionId;
 
+    /** Channel whose STAN/RRN sequences this factory draws from */
+    private String traceChannel = DEFAULT_TRACE_CHANNEL;
+
+    /** STAN/RRN allocator; when unset, the process-wide default current at each call */
+    private volatile TraceNumberAllocator traceNumberAllocator;
+
     /**
      * Creates a factory with default parser and assembler.
      */
@@ -92,6 +95,26 @@ public class Iso8583MessageFactory {
         this.institutionId = institutionId;
     }
 
+    /**
+     * Sets the channel whose STAN/RRN sequences this factory draws from.
+     * Factories with the same channel share one sequence, so a replacement
+     * connection continues where the previous one stopped.
+     *
+     * @param traceChannel the channel ID
+     */
+    public void setTraceChannel(String traceChannel) {
+        this.traceChannel = traceChannel != null ? traceChannel : DEFAULT_TRACE_CHANNEL;
+    }
+
+    /**
+     * Sets the STAN/RRN allocator, overriding the process-wide default.
+     *
+     * @param traceNumberAllocator the allocator
+     */
+    public void setTraceNumberAllocator(TraceNumberAllocator traceNumberAllocator) {
+        this.traceNumberAllocator = traceNumberAllocator;
+    }
+
     /**
      * Creates a new message with the specified type.
      *
@@ -162,40 +185,31 @@ public class Iso8583MessageFactory {
     }
 
     /**
-     * Generates a unique System Trace Audit Number (STAN).
+     * Generates a unique System Trace Audit Number (STAN) for the trace channel.
      *
      * @return 6-digit STAN
      */
     public String generateStan() {
-        int stan = stanCounter.updateAndGet(current -> {
-            int next = current + 1;
-            return next > 999999 ? 1 : next;
-        });
-        return String.format("%06d", stan);
+        return traceNumberAllocator().nextStan(traceChannel);
     }
 
     /**
-     * Generates a unique Retrieval Reference Number (RRN).
+     * Generates a unique Retrieval Reference Number (RRN) for the trace channel.
+     *
+     * <p>Format: YDDD + 8-digit sequence = 12 chars, where Y is the last digit of
+     * the year and DDD the day of year of the business day.
      *
      * @return 12-character RRN
      */
     public String generateRrn() {
-        LocalDateTime now = LocalDateTime.now();
-        int sequence = rrnCounter.updateAndGet(current -> {
-            int next = current + 1;
-            return next > 99 ? 1 : next;
-        });
-
-        // Format: YDDD + HHMMSS + 2-digit sequence = 12 chars
-        // Y: last digit of year, DDD: day of year, HHMMSS: time
-        String rrn = String.format("%d%03d%02d%02d%02d%02d",
-            now.getYear() % 10,
-            now.getDayOfYear(),
-            now.getHour(),
-            now.getMinute(),
-            now.getSecond(),
-            sequence);
-        return rrn;
+        return traceNumberAllocator().nextRrn(traceChannel);
+    }
+
+    private TraceNumberAllocator traceNumberAllocator() {
+        // Not cached: a factory created before the application installs its
+        // persistent allocator must not keep drawing from the in-memory one
+        TraceNumberAllocator allocator = traceNumberAllocator;
+        return allocator != null ? allocator : TraceNumberAllocator.getDefault();
     }
 
     /**
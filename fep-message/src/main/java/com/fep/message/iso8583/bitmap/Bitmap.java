@@ -2,6 +2,7 @@ package com.fep.message.iso8583.bitmap;
 
 import com.fep.common.util.HexUtils;
 import com.fep.message.exception.MessageException;
+import io.netty.buffer.ByteBuf;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.BitSet;
@@ -186,6 +187,18 @@ public class Bitmap {
         return fields;
     }
 
+    /**
+     * Gets the first set field at or after {@code fieldNumber}, for iterating the
+     * fields without building a set:
+     * {@code for (int f = bitmap.nextField(2); f >= 0; f = bitmap.nextField(f + 1))}.
+     *
+     * @param fieldNumber the field number to start from
+     * @return the next set field number, or -1 if there is none
+     */
+    public int nextField(int fieldNumber) {
+        return bitSet.nextSetBit(fieldNumber);
+    }
+
     /**
      * Converts the bitmap to a byte array.
      *
@@ -208,6 +221,24 @@ public class Bitmap {
         return bytes;
     }
 
+    /**
+     * Writes the bitmap bytes (8 or 16) straight to a buffer, as {@link #toBytes()} would produce them.
+     *
+     * @param buffer the output buffer
+     */
+    public void writeTo(ByteBuf buffer) {
+        int length = getSize();
+        for (int i = 0; i < length; i++) {
+            int b = 0;
+            for (int bit = 0; bit < 8; bit++) {
+                if (bitSet.get(i * 8 + bit + 1)) {
+                    b |= 0x80 >> bit;
+                }
+            }
+            buffer.writeByte(b);
+        }
+    }
+
     /**
      * Converts the bitmap to a hexadecimal string.
      *
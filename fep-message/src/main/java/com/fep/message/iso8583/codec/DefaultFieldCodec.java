@@ -144,13 +144,26 @@ public class DefaultFieldCodec implements FieldCodec {
         DataEncoding lengthEncoding = definition.getLengthEncoding();
         int prefixDigits = lengthType.getPrefixLength();
 
-        String lengthStr = HexUtils.leftPad(String.valueOf(dataLength), prefixDigits, '0');
-
+        // Digits are written arithmetically, lowest first, without a length string
         if (lengthEncoding == DataEncoding.BCD) {
-            byte[] bcd = HexUtils.stringToBcd(lengthStr);
-            buffer.writeBytes(bcd);
+            int byteLength = (prefixDigits + 1) / 2;
+            int start = buffer.writerIndex();
+            buffer.writeZero(byteLength);
+            int rest = dataLength;
+            for (int i = start + byteLength - 1; i >= start; i--) {
+                int low = rest % 10;
+                rest /= 10;
+                buffer.setByte(i, (rest % 10) << 4 | low);
+                rest /= 10;
+            }
         } else {
-            buffer.writeBytes(lengthStr.getBytes(ASCII));
+            int start = buffer.writerIndex();
+            buffer.writeZero(prefixDigits);
+            int rest = dataLength;
+            for (int i = start + prefixDigits - 1; i >= start; i--) {
+                buffer.setByte(i, '0' + rest % 10);
+                rest /= 10;
+            }
         }
     }
 
@@ -201,7 +214,7 @@ public class DefaultFieldCodec implements FieldCodec {
                 byte[] bcd = HexUtils.stringToBcd(value);
                 buffer.writeBytes(bcd);
             }
-            case ASCII -> buffer.writeBytes(value.getBytes(ASCII));
+            case ASCII -> buffer.writeCharSequence(value, ASCII);
             case BINARY -> {
                 byte[] binary = HexUtils.hexToBytes(value);
                 buffer.writeBytes(binary);
@@ -1,6 +1,5 @@
 package com.fep.message.iso8583.parser;
 
-import com.fep.common.util.HexUtils;
 import com.fep.message.exception.MessageException;
 import com.fep.message.iso8583.Iso8583Message;
 import com.fep.message.iso8583.bitmap.Bitmap;
@@ -13,7 +12,6 @@ import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * Assembler for FISC ISO 8583 messages.
@@ -25,6 +23,11 @@ import java.util.TreeSet;
  * | 2 bytes| 4 bytes| 8/16 B | var  |
  * +--------+--------+--------+------+
  * </pre>
+ *
+ * <p>Messages are written straight into the caller's buffer, which the caller
+ * sizes from {@link #estimateSize} (the encoder does so in {@code allocateBuffer}).
+ * The length prefix is reserved up front and filled in place once the body is
+ * written, so no intermediate buffer or array is allocated.
  */
 @Slf4j
 public class FiscMessageAssembler implements MessageAssembler {
@@ -62,45 +65,48 @@ public class FiscMessageAssembler implements MessageAssembler {
     public void assemble(Iso8583Message message, ByteBuf buffer) {
         log.debug("Assembling ISO 8583 message: MTI={}", message.getMti());
 
+        int start = buffer.writerIndex();
         try {
-            // Build the message body first (to calculate length)
-            ByteBuf bodyBuffer = Unpooled.buffer(1024);
+            // Reserve the length prefix; it is filled in once the body length is known
+            if (includeLengthPrefix) {
+                buffer.writeZero(LENGTH_PREFIX_SIZE);
+            }
+            int bodyStart = buffer.writerIndex();
 
             // Write MTI
-            writeMti(message.getMti(), bodyBuffer);
+            writeMti(message.getMti(), buffer);
 
             // Build and write bitmap
             Bitmap bitmap = buildBitmap(message);
-            bodyBuffer.writeBytes(bitmap.toBytes());
-            log.trace("Assembled bitmap: {}", bitmap.toHex());
+            bitmap.writeTo(buffer);
+            if (log.isTraceEnabled()) {
+                log.trace("Assembled bitmap: {}", bitmap.toHex());
+            }
 
             // Write data fields
-            writeFields(message, bitmap, bodyBuffer);
+            writeFields(message, bitmap, buffer);
 
-            // Now write the complete message with optional length prefix
             if (includeLengthPrefix) {
-                int bodyLength = bodyBuffer.readableBytes();
-                writeLengthPrefix(bodyLength, buffer);
+                int bodyLength = buffer.writerIndex() - bodyStart;
+                setLengthPrefix(bodyLength, buffer, start);
                 log.trace("Message length: {}", bodyLength);
             }
 
-            // Copy body to output buffer
-            buffer.writeBytes(bodyBuffer);
-            bodyBuffer.release();
-
-            log.info("Successfully assembled message: MTI={}, size={} bytes",
-                message.getMti(), buffer.readableBytes());
+            log.debug("Successfully assembled message: MTI={}, size={} bytes",
+                message.getMti(), buffer.writerIndex() - start);
 
         } catch (MessageException e) {
+            buffer.writerIndex(start);
             throw e;
         } catch (Exception e) {
+            buffer.writerIndex(start);
             throw MessageException.assembleError("Unexpected error: " + e.getMessage());
         }
     }
 
     @Override
     public byte[] assemble(Iso8583Message message) {
-        ByteBuf buffer = Unpooled.buffer(1024);
+        ByteBuf buffer = Unpooled.buffer(estimateSize(message));
         try {
             assemble(message, buffer);
             byte[] result = new byte[buffer.readableBytes()];
@@ -112,15 +118,36 @@ public class FiscMessageAssembler implements MessageAssembler {
     }
 
     /**
-     * Writes the 2-byte length prefix in BCD format.
+     * Computes the assembled size from the field definitions: length prefix,
+     * MTI, bitmap and each field's encoded length.
+     */
+    @Override
+    public int estimateSize(Iso8583Message message) {
+        int size = (includeLengthPrefix ? LENGTH_PREFIX_SIZE : 0) + MTI_SIZE + Bitmap.PRIMARY_BITMAP_SIZE;
+        boolean secondaryBitmap = false;
+        for (int fieldNum : message.getFieldNumbers()) {
+            if (fieldNum > Bitmap.PRIMARY_FIELD_COUNT && !secondaryBitmap) {
+                size += Bitmap.TOTAL_BITMAP_SIZE - Bitmap.PRIMARY_BITMAP_SIZE;
+                secondaryBitmap = true;
+            }
+            Object value = message.getField(fieldNum);
+            FieldDefinition definition = FiscFieldDefinitions.get(fieldNum);
+            if (value != null && definition != null && fieldNum != 1) {
+                size += fieldCodec.getEncodedLength(definition, value);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Fills the reserved 2-byte BCD length prefix at {@code index}.
      */
-    private void writeLengthPrefix(int length, ByteBuf buffer) {
+    private void setLengthPrefix(int length, ByteBuf buffer, int index) {
         if (length > 9999) {
             throw MessageException.assembleError("Message too long: " + length);
         }
-        String lengthStr = HexUtils.leftPad(String.valueOf(length), 4, '0');
-        byte[] lengthBcd = HexUtils.stringToBcd(lengthStr);
-        buffer.writeBytes(lengthBcd);
+        buffer.setByte(index, (length / 1000) << 4 | (length / 100 % 10));
+        buffer.setByte(index + 1, (length / 10 % 10) << 4 | (length % 10));
     }
 
     /**
@@ -130,9 +157,13 @@ public class FiscMessageAssembler implements MessageAssembler {
         if (mti == null || mti.length() != 4) {
             throw MessageException.assembleError("Invalid MTI: " + mti);
         }
-
-        byte[] mtiBcd = HexUtils.stringToBcd(mti);
-        buffer.writeBytes(mtiBcd);
+        for (int i = 0; i < 4; i++) {
+            if (mti.charAt(i) < '0' || mti.charAt(i) > '9') {
+                throw MessageException.assembleError("Invalid MTI: " + mti);
+            }
+        }
+        buffer.writeByte((mti.charAt(0) - '0') << 4 | (mti.charAt(1) - '0'));
+        buffer.writeByte((mti.charAt(2) - '0') << 4 | (mti.charAt(3) - '0'));
     }
 
     /**
@@ -147,15 +178,8 @@ public class FiscMessageAssembler implements MessageAssembler {
      * Writes all data fields to the buffer.
      */
     private void writeFields(Iso8583Message message, Bitmap bitmap, ByteBuf buffer) {
-        // Get sorted field numbers (excluding bitmap indicator)
-        Set<Integer> fieldNumbers = new TreeSet<>(bitmap.getDataFields());
-
-        for (int fieldNum : fieldNumbers) {
-            // Skip field 1 (secondary bitmap indicator)
-            if (fieldNum == 1) {
-                continue;
-            }
-
+        // Walk the set bits in field order, starting after field 1 (secondary bitmap indicator)
+        for (int fieldNum = bitmap.nextField(2); fieldNum >= 0; fieldNum = bitmap.nextField(fieldNum + 1)) {
             Object value = message.getField(fieldNum);
             if (value == null) {
                 log.warn("Field {} in bitmap but no value, skipping", fieldNum);
@@ -13,8 +13,6 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Set;
-
 /**
  * Parser for FISC ISO 8583 messages.
  *
@@ -64,7 +62,27 @@ public class FiscMessageParser implements MessageParser {
 
     @Override
     public Iso8583Message parse(ByteBuf buffer) {
+        return parse(buffer, Bitmap.MAX_FIELD_NUMBER);
+    }
+
+    @Override
+    public Iso8583Message parse(byte[] data) {
+        return parse(Unpooled.wrappedBuffer(data));
+    }
+
+    /**
+     * Parses the MTI, bitmap and fields up to {@code lastField}; the remaining
+     * fields are decoded from the raw bytes when first read
+     * (see {@link Iso8583Message#deferFields}).
+     */
+    @Override
+    public Iso8583Message parseThrough(byte[] data, int lastField) {
+        return parse(Unpooled.wrappedBuffer(data), lastField);
+    }
+
+    private Iso8583Message parse(ByteBuf buffer, int lastField) {
         log.debug("Parsing ISO 8583 message, buffer size: {} bytes", buffer.readableBytes());
+        int start = buffer.readerIndex();
 
         // Save original bytes for logging
         byte[] rawData = new byte[buffer.readableBytes()];
@@ -92,12 +110,20 @@ public class FiscMessageParser implements MessageParser {
             log.debug("Parsed bitmap: {}", bitmap.toHex());
 
             // Parse data fields
-            parseFields(buffer, bitmap, message);
+            parseFields(buffer, bitmap, message, 2, lastField);
 
             log.info("Successfully parsed message: MTI={}, fields={}",
                 mti, message.getFieldNumbers().size());
-            log.trace("Parsed message details:\n{}", message.toDetailString());
+            if (log.isTraceEnabled()) {
+                log.trace("Parsed message details:\n{}", message.toDetailString());
+            }
 
+            if (bitmap.nextField(lastField + 1) >= 0) {
+                int offset = buffer.readerIndex() - start;
+                message.deferFields(lastField, m -> parseFields(
+                        Unpooled.wrappedBuffer(rawData, offset, rawData.length - offset),
+                        bitmap, m, lastField + 1, Bitmap.MAX_FIELD_NUMBER));
+            }
             return message;
 
         } catch (MessageException e) {
@@ -107,11 +133,6 @@ public class FiscMessageParser implements MessageParser {
         }
     }
 
-    @Override
-    public Iso8583Message parse(byte[] data) {
-        return parse(Unpooled.wrappedBuffer(data));
-    }
-
     /**
      * Reads the 2-byte length prefix (BCD format).
      */
@@ -182,17 +203,14 @@ public class FiscMessageParser implements MessageParser {
     }
 
     /**
-     * Parses all data fields indicated by the bitmap.
+     * Parses the data fields indicated by the bitmap from {@code firstField}
+     * through {@code lastField}; the buffer must be positioned at {@code firstField}.
      */
-    private void parseFields(ByteBuf buffer, Bitmap bitmap, Iso8583Message message) {
-        Set<Integer> fieldNumbers = bitmap.getDataFields();
-
-        for (int fieldNum : fieldNumbers) {
-            // Skip field 1 (secondary bitmap indicator)
-            if (fieldNum == 1) {
-                continue;
-            }
-
+    private void parseFields(ByteBuf buffer, Bitmap bitmap, Iso8583Message message, int firstField, int lastField) {
+        // Walk the set bits in field order; field 1 is the secondary bitmap indicator
+        for (int fieldNum = bitmap.nextField(firstField);
+             fieldNum >= 0 && fieldNum <= lastField;
+             fieldNum = bitmap.nextField(fieldNum + 1)) {
             FieldDefinition definition = FiscFieldDefinitions.get(fieldNum);
             if (definition == null) {
                 log.warn("No definition for field {}, skipping", fieldNum);
@@ -16,6 +16,17 @@ public interface MessageAssembler {
      */
     void assemble(Iso8583Message message, ByteBuf buffer);
 
+    /**
+     * Estimates the assembled size of a message, so the output buffer can be
+     * allocated once at the right size.
+     *
+     * @param message the message to assemble
+     * @return the expected size in bytes
+     */
+    default int estimateSize(Iso8583Message message) {
+        return 1024;
+    }
+
     /**
      * Assembles an ISO 8583 message into a byte array.
      *
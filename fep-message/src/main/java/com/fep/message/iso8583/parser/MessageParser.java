@@ -23,4 +23,16 @@ public interface MessageParser {
      * @return the parsed message
      */
     Iso8583Message parse(byte[] data);
+
+    /**
+     * Parses a message, decoding fields up to {@code lastField} now and the rest
+     * only when they are first read. Parsers that cannot defer parse everything.
+     *
+     * @param data      the message bytes
+     * @param lastField highest field number to decode up front
+     * @return the parsed message
+     */
+    default Iso8583Message parseThrough(byte[] data, int lastField) {
+        return parse(data);
+    }
 }
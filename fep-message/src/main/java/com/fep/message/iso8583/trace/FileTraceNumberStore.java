@@ -0,0 +1,150 @@
+package com.fep.message.iso8583.trace;
+
+import com.fep.message.exception.MessageException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Trace-number store backed by a properties file.
+ *
+ * <p>Each lease locks a sibling {@code .lock} file, reads the high-water mark,
+ * advances it and replaces the file atomically before returning. The new content
+ * is forced to disk before the rename, so a crash cannot leave a truncated file
+ * under the real name. Because the mark is on disk before any number from the
+ * range is used, a restarted process - or another process sharing the file -
+ * never reissues a number for the same business day. Leases are infrequent (once
+ * per block), so the file I/O stays off the per-message path.
+ *
+ * <p>Entries are keyed {@code channel|TYPE|yyyy-MM-dd}.
+ */
+@Slf4j
+public class FileTraceNumberStore implements TraceNumberStore {
+
+    /** In-JVM locks per file; {@link FileLock} only excludes other processes */
+    private static final Map<Path, Object> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private static final String SEPARATOR = "|";
+
+    private final Path file;
+    private final Path lockFile;
+    private final Object jvmLock;
+
+    /**
+     * Creates a store backed by the given file, creating parent directories if needed.
+     *
+     * @param file high-water mark file
+     */
+    public FileTraceNumberStore(Path file) {
+        this.file = file.toAbsolutePath().normalize();
+        this.lockFile = this.file.resolveSibling(this.file.getFileName() + ".lock");
+        this.jvmLock = JVM_LOCKS.computeIfAbsent(this.file, p -> new Object());
+        try {
+            if (this.file.getParent() != null) {
+                Files.createDirectories(this.file.getParent());
+            }
+        } catch (IOException e) {
+            throw MessageException.traceNumberError("cannot create directory for " + this.file, e);
+        }
+    }
+
+    /**
+     * Gets the backing file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public long lease(TraceKey key, int blockSize) {
+        String name = toPropertyName(key);
+        long[] start = new long[1];
+        update(marks -> {
+            start[0] = Long.parseLong(marks.getProperty(name, "0"));
+            marks.setProperty(name, Long.toString(start[0] + blockSize));
+            return true;
+        });
+        log.debug("Leased trace numbers: key={}, start={}, size={}", name, start[0], blockSize);
+        return start[0];
+    }
+
+    @Override
+    public void expireBefore(LocalDate businessDay) {
+        update(marks -> marks.keySet().removeIf(name -> {
+            LocalDate day = parseBusinessDay((String) name);
+            return day != null && day.isBefore(businessDay);
+        }));
+    }
+
+    private void update(Predicate<Properties> mutation) {
+        synchronized (jvmLock) {
+            try (FileChannel channel = FileChannel.open(lockFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Properties marks = read();
+                if (mutation.test(marks)) {
+                    write(marks);
+                }
+            } catch (IOException e) {
+                throw MessageException.traceNumberError("cannot update " + file, e);
+            }
+        }
+    }
+
+    private Properties read() throws IOException {
+        Properties marks = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                marks.load(in);
+            }
+        }
+        return marks;
+    }
+
+    private void write(Properties marks) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        marks.store(content, "Trace number high-water marks");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String toPropertyName(TraceKey key) {
+        return key.channel() + SEPARATOR + key.type().name() + SEPARATOR + key.businessDay();
+    }
+
+    private static LocalDate parseBusinessDay(String name) {
+        int index = name.lastIndexOf(SEPARATOR);
+        try {
+            return index < 0 ? null : LocalDate.parse(name.substring(index + 1));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.fep.message.iso8583.trace;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-local trace-number store.
+ *
+ * <p>High-water marks live only in memory, so numbers restart from 1 after a
+ * restart. Suitable for tests, simulators and load generators; production
+ * nodes should use {@link FileTraceNumberStore} or a shared store.
+ */
+public class InMemoryTraceNumberStore implements TraceNumberStore {
+
+    private final Map<TraceKey, AtomicLong> highWaterMarks = new ConcurrentHashMap<>();
+
+    @Override
+    public long lease(TraceKey key, int blockSize) {
+        return highWaterMarks.computeIfAbsent(key, k -> new AtomicLong()).getAndAdd(blockSize);
+    }
+
+    @Override
+    public void expireBefore(LocalDate businessDay) {
+        highWaterMarks.keySet().removeIf(key -> key.businessDay().isBefore(businessDay));
+    }
+}
@@ -0,0 +1,20 @@
+package com.fep.message.iso8583.trace;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Identifies one numeric space: a channel's STANs or RRNs for one business day.
+ *
+ * @param channel     channel ID
+ * @param type        STAN or RRN
+ * @param businessDay business day the numbers belong to
+ */
+public record TraceKey(String channel, TraceNumberType type, LocalDate businessDay) {
+
+    public TraceKey {
+        Objects.requireNonNull(channel, "channel");
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(businessDay, "businessDay");
+    }
+}
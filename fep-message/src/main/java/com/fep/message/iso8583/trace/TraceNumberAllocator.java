@@ -0,0 +1,341 @@
+package com.fep.message.iso8583.trace;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates STANs (field 11) and RRNs (field 37) per channel and business day.
+ *
+ * <p>Numbers are handed out from blocks leased from a {@link TraceNumberStore}.
+ * Issuing a number is a single {@code getAndIncrement} on the current block - no
+ * lock, no I/O. When a block is {@value #PREFETCH_PERCENT}% used the next block is
+ * leased in the background, so the store (and its persisted high-water mark) is
+ * normally never on the caller's thread. Only when the prefetch has not completed,
+ * or at the first call of a new business day, does a caller lease synchronously.
+ *
+ * <p>Because the store records a block before any number from it is issued, a
+ * restart or a second node sharing the store continues past every number already
+ * used; numbers left over in an abandoned block are skipped, never reissued.
+ *
+ * <p>The business day starts at {@code cutover} (midnight by default). At each new
+ * business day every channel restarts from 1 and high-water marks older than the
+ * previous day are dropped from the store.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * TraceNumberAllocator allocator = new TraceNumberAllocator(
+ *     new FileTraceNumberStore(Path.of("data/trace-numbers.properties")), 1000,
+ *     Clock.systemDefaultZone(), LocalTime.of(23, 30));
+ * String stan = allocator.nextStan("FISC");   // "000001"
+ * String rrn = allocator.nextRrn("FISC");     // "629100000001" (YDDD + 8 digits)
+ * }</pre>
+ */
+@Slf4j
+public class TraceNumberAllocator implements AutoCloseable {
+
+    /** Default number of positions leased per block */
+    public static final int DEFAULT_BLOCK_SIZE = 1000;
+
+    /** Block usage at which the next block is leased in the background */
+    static final int PREFETCH_PERCENT = 75;
+
+    private static volatile TraceNumberAllocator defaultAllocator;
+
+    private final TraceNumberStore store;
+    private final int blockSize;
+    private final Clock clock;
+    private final Duration cutoverShift;
+    private final Map<String, ChannelSequences> channels = new ConcurrentHashMap<>();
+    private final ExecutorService prefetcher;
+
+    /** Latest business day seen; used to expire old high-water marks once per day */
+    private volatile LocalDate latestBusinessDay;
+
+    /**
+     * Creates an in-memory allocator with the default block size and a midnight cutover.
+     */
+    public TraceNumberAllocator() {
+        this(new InMemoryTraceNumberStore(), DEFAULT_BLOCK_SIZE, Clock.systemDefaultZone(), LocalTime.MIDNIGHT);
+    }
+
+    /**
+     * Creates an allocator.
+     *
+     * @param store     store the blocks are leased from
+     * @param blockSize positions per lease; larger blocks mean fewer store writes but
+     *                  more numbers skipped after a crash
+     * @param clock     clock that determines the business day
+     * @param cutover   local time at which the next business day begins
+     */
+    public TraceNumberAllocator(TraceNumberStore store, int blockSize, Clock clock, LocalTime cutover) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        }
+        this.store = Objects.requireNonNull(store, "store");
+        this.blockSize = blockSize;
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.cutoverShift = LocalTime.MIDNIGHT.equals(cutover)
+                ? Duration.ZERO
+                : Duration.ofDays(1).minusNanos(cutover.toNanoOfDay());
+        this.prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trace-number-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the process-wide allocator, creating an in-memory one on first use.
+     *
+     * @return the default allocator
+     */
+    public static TraceNumberAllocator getDefault() {
+        TraceNumberAllocator allocator = defaultAllocator;
+        if (allocator == null) {
+            synchronized (TraceNumberAllocator.class) {
+                allocator = defaultAllocator;
+                if (allocator == null) {
+                    allocator = new TraceNumberAllocator();
+                    defaultAllocator = allocator;
+                }
+            }
+        }
+        return allocator;
+    }
+
+    /**
+     * Replaces the process-wide allocator, e.g. with one backed by a persistent store.
+     * Components that look up {@link #getDefault()} per call switch over immediately;
+     * those holding a reference to the previous allocator keep using it, so components
+     * created at startup should be given the allocator explicitly instead.
+     *
+     * @param allocator the new default allocator
+     */
+    public static void setDefault(TraceNumberAllocator allocator) {
+        defaultAllocator = Objects.requireNonNull(allocator, "allocator");
+    }
+
+    /**
+     * Allocates the next STAN for a channel.
+     *
+     * @param channel channel ID
+     * @return 6-digit STAN
+     */
+    public String nextStan(String channel) {
+        return pad(nextStanValue(channel), 6);
+    }
+
+    /**
+     * Allocates the next STAN for a channel as a number.
+     *
+     * @param channel channel ID
+     * @return STAN between 1 and 999999
+     */
+    public long nextStanValue(String channel) {
+        return next(sequences(channel).stan);
+    }
+
+    /**
+     * Allocates the next RRN for a channel.
+     *
+     * @param channel channel ID
+     * @return 12-character RRN: last digit of year, day of year (DDD) of the business
+     *         day, then an 8-digit sequence
+     */
+    public String nextRrn(String channel) {
+        return pad(next(sequences(channel).rrn), 12);
+    }
+
+    /**
+     * Gets the business day a point in time belongs to.
+     *
+     * @param dateTime local date-time in the allocator's zone
+     * @return the business day
+     */
+    public LocalDate businessDayOf(LocalDateTime dateTime) {
+        return dateTime.plus(cutoverShift).toLocalDate();
+    }
+
+    /**
+     * Stops background prefetching and closes the store. Unused positions in the
+     * current blocks are skipped after a restart.
+     */
+    @Override
+    public void close() {
+        prefetcher.shutdownNow();
+        try {
+            store.close();
+        } catch (Exception e) {
+            log.warn("Failed to close trace number store: {}", e.getMessage());
+        }
+    }
+
+    private ChannelSequences sequences(String channel) {
+        return channels.computeIfAbsent(channel == null ? "DEFAULT" : channel, ChannelSequences::new);
+    }
+
+    private long next(Sequence sequence) {
+        while (true) {
+            Block block = sequence.current;
+            if (block != null && clock.millis() < block.dayEndMillis) {
+                long position = block.cursor.getAndIncrement();
+                if (position < block.end) {
+                    if (position == block.prefetchAt) {
+                        sequence.prefetch(block);
+                    }
+                    return block.base + block.key.type().toNumber(position);
+                }
+            }
+            sequence.refill(block);
+        }
+    }
+
+    private static String pad(long value, int length) {
+        String digits = Long.toString(value);
+        if (digits.length() >= length) {
+            return digits;
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = digits.length(); i < length; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    private LocalDate currentBusinessDay() {
+        return businessDayOf(LocalDateTime.now(clock));
+    }
+
+    private Block lease(TraceKey key) {
+        long start = store.lease(key, blockSize);
+        ZoneId zone = clock.getZone();
+        long dayEndMillis = key.businessDay().plusDays(1).atStartOfDay().minus(cutoverShift)
+                .atZone(zone).toInstant().toEpochMilli();
+        long base = key.type() == TraceNumberType.RRN
+                ? ((key.businessDay().getYear() % 10) * 1000L + key.businessDay().getDayOfYear())
+                        * (TraceNumberType.RRN.getCapacity() + 1)
+                : 0;
+        return new Block(key, start, start + blockSize, start + blockSize * (long) PREFETCH_PERCENT / 100,
+                dayEndMillis, base);
+    }
+
+    private void onBusinessDay(LocalDate businessDay) {
+        LocalDate previous = latestBusinessDay;
+        if (previous != null && !businessDay.isAfter(previous)) {
+            return;
+        }
+        latestBusinessDay = businessDay;
+        if (previous != null) {
+            log.info("Trace numbers rolled over to business day {}", businessDay);
+            prefetcher.execute(() -> {
+                try {
+                    store.expireBefore(businessDay.minusDays(1));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to expire trace number high-water marks: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * STAN and RRN sequences of one channel.
+     */
+    private final class ChannelSequences {
+        final Sequence stan;
+        final Sequence rrn;
+
+        ChannelSequences(String channel) {
+            this.stan = new Sequence(channel, TraceNumberType.STAN);
+            this.rrn = new Sequence(channel, TraceNumberType.RRN);
+        }
+    }
+
+    /**
+     * One channel's numbers of one type: the block in use plus the prefetched next one.
+     */
+    private final class Sequence {
+        final String channel;
+        final TraceNumberType type;
+        volatile Block current;
+        CompletableFuture<Block> prefetched;
+
+        Sequence(String channel, TraceNumberType type) {
+            this.channel = channel;
+            this.type = type;
+        }
+
+        synchronized void prefetch(Block block) {
+            if (prefetched != null || current != block) {
+                return;
+            }
+            TraceKey key = block.key;
+            try {
+                prefetched = CompletableFuture.supplyAsync(() -> lease(key), prefetcher);
+            } catch (RuntimeException e) {
+                log.warn("Trace number prefetch rejected for {}: {}", key, e.getMessage());
+            }
+        }
+
+        synchronized void refill(Block exhausted) {
+            if (current != exhausted) {
+                return; // another thread already installed a new block
+            }
+            LocalDate businessDay = currentBusinessDay();
+            Block next = takePrefetched(businessDay);
+            if (next == null) {
+                onBusinessDay(businessDay);
+                next = lease(new TraceKey(channel, type, businessDay));
+            }
+            current = next;
+        }
+
+        private Block takePrefetched(LocalDate businessDay) {
+            CompletableFuture<Block> future = prefetched;
+            prefetched = null;
+            if (future == null) {
+                return null;
+            }
+            try {
+                Block block = future.join();
+                return block.key.businessDay().equals(businessDay) ? block : null;
+            } catch (RuntimeException e) {
+                log.warn("Trace number prefetch failed for {}/{}: {}", channel, type, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A leased range of positions {@code [cursor, end)}.
+     */
+    private static final class Block {
+        final TraceKey key;
+        final long end;
+        final long prefetchAt;
+        final long dayEndMillis;
+        final long base;
+        final AtomicLong cursor;
+
+        Block(TraceKey key, long start, long end, long prefetchAt, long dayEndMillis, long base) {
+            this.key = key;
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+            this.dayEndMillis = dayEndMillis;
+            this.base = base;
+            this.cursor = new AtomicLong(start);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.fep.message.iso8583.trace;
+
+import java.time.LocalDate;
+
+/**
+ * Hands out disjoint ranges of trace-number positions.
+ *
+ * <p>A lease is the store's high-water mark for a key: once {@link #lease} returns,
+ * no later lease for that key - from this process, a restarted one, or another
+ * node sharing the store - overlaps the returned range. Positions that were leased
+ * but never used are simply skipped.
+ *
+ * <p>Implementations:
+ * <ul>
+ *   <li>{@link InMemoryTraceNumberStore} - one process, no persistence; for tests and tools</li>
+ *   <li>{@link FileTraceNumberStore} - a locked file; survives restarts and can be
+ *       shared by processes on the same host or a shared volume</li>
+ * </ul>
+ * A database-backed store implements the same contract with one row per key.
+ */
+public interface TraceNumberStore extends AutoCloseable {
+
+    /**
+     * Leases the next range of positions for a key.
+     *
+     * @param key       the numeric space
+     * @param blockSize number of positions to lease
+     * @return first position of the range {@code [start, start + blockSize)}
+     * @throws com.fep.message.exception.MessageException if the store cannot be read or updated
+     */
+    long lease(TraceKey key, int blockSize);
+
+    /**
+     * Drops the high-water marks of business days before {@code businessDay}.
+     *
+     * @param businessDay first business day to keep
+     */
+    void expireBefore(LocalDate businessDay);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,36 @@
+package com.fep.message.iso8583.trace;
+
+/**
+ * Kinds of trace number, each with its own numeric space.
+ */
+public enum TraceNumberType {
+
+    /** Field 11, six digits: 000001 - 999999 */
+    STAN(999_999),
+
+    /** Sequence part of field 37 (after the YDDD prefix), eight digits: 00000001 - 99999999 */
+    RRN(99_999_999);
+
+    private final long capacity;
+
+    TraceNumberType(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets how many distinct numbers the space holds before wrapping.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Maps a monotonically increasing position onto the numeric space (1-based, wrapping).
+     *
+     * @param position lease position, starting at 0
+     * @return trace number
+     */
+    public long toNumber(long position) {
+        return position % capacity + 1;
+    }
+}
@@ -4,6 +4,7 @@ import com.fep.message.channel.Channel;
 import com.fep.message.channel.ChannelConfigException;
 import com.fep.message.channel.ChannelSchemaRegistry;
 import com.fep.message.generic.message.GenericMessage;
+import com.fep.message.generic.message.GenericMessageView;
 import com.fep.message.generic.parser.GenericMessageAssembler;
 import com.fep.message.generic.parser.GenericMessageParser;
 import com.fep.message.generic.schema.MessageSchema;
@@ -125,6 +126,22 @@ public class ChannelMessageService {
         return parser.parse(buffer, schema, skipLengthField);
     }
 
+    /**
+     * Creates a lazily parsed GenericMessage view over an already framed message.
+     *
+     * <p>Neither the schema lookup nor the parse runs until the view is first
+     * read, and the result is shared by every reader. The bytes must not include
+     * the length field.
+     *
+     * @param channelId the channel ID
+     * @param mti       the message type indicator
+     * @param data      the raw message bytes without the length field
+     * @return the view
+     */
+    public GenericMessageView createView(String channelId, String mti, byte[] data) {
+        return new GenericMessageView(data, bytes -> parseMessage(channelId, mti, bytes, true));
+    }
+
     /**
      * Parses a request message using the request schema.
      *
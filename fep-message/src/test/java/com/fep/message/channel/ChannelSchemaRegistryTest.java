@@ -525,6 +525,58 @@ class ChannelSchemaRegistryTest {
         assertEquals("Test POS Schema", schema.getName());
     }
 
+    // ==================== Snapshot Tests ====================
+
+    @Test
+    @DisplayName("Should advance epoch on every change")
+    void shouldAdvanceEpochOnEveryChange() {
+        // Given
+        registry.loadFromJson(createTestConfigJson());
+        long loaded = registry.getEpoch();
+
+        // When
+        registry.addSchemaOverride("ATM_TEST_V1", "0400", new SchemaOverride("Test POS Schema", null));
+        registry.unregisterChannel("POS_TEST_V1");
+
+        // Then
+        assertEquals(loaded + 2, registry.getEpoch());
+        Map<String, Channel> channels = registry.getChannelMap();
+        assertSame(channels, registry.getChannelMap());
+        assertFalse(channels.containsKey("POS_TEST_V1"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to default for blank override entry")
+    void shouldFallBackToDefaultForBlankOverrideEntry() {
+        // Given
+        registry.loadFromJson(createTestConfigJson());
+
+        // When
+        registry.addSchemaOverride("ATM_TEST_V1", "0400", new SchemaOverride("Test POS Schema", ""));
+
+        // Then
+        assertEquals("Test POS Schema", registry.getRequestSchema("ATM_TEST_V1", "0400").getName());
+        assertEquals("Test ATM Schema", registry.getResponseSchema("ATM_TEST_V1", "0400").getName());
+        assertEquals("Test ATM Schema", registry.getRequestSchema("ATM_TEST_V1", null).getName());
+    }
+
+    @Test
+    @DisplayName("Should pick up schemas reloaded after the channels")
+    void shouldPickUpSchemasReloadedAfterTheChannels() throws IOException {
+        // Given
+        registry.loadFromJson(createTestConfigJson());
+        MessageSchema before = registry.getRequestSchema("ATM_TEST_V1", "0200");
+        assertSame(before, registry.getRequestSchema("ATM_TEST_V1", "0200"));
+
+        // When
+        JsonSchemaLoader.reloadFromFilePath(schemaFile.toString());
+
+        // Then
+        MessageSchema after = registry.getRequestSchema("ATM_TEST_V1", "0200");
+        assertNotSame(before, after);
+        assertEquals("Test ATM Schema", after.getName());
+    }
+
     // ==================== Channel Properties Tests ====================
 
     @Test
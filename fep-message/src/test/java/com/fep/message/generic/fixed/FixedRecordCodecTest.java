@@ -0,0 +1,171 @@
+package com.fep.message.generic.fixed;
+
+import com.fep.message.exception.MessageException;
+import com.fep.message.generic.codec.EbcdicCodec;
+import com.fep.message.generic.codec.PackedDecimalCodec;
+import com.fep.message.generic.schema.FieldSchema;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedRecordCodecTest {
+
+    private static final String LAYOUT = """
+            {
+              "name": "TEST_RECORD",
+              "charset": "Big5",
+              "recordLength": 40,
+              "fields": [
+                { "id": "type", "length": 1 },
+                { "id": "name", "length": 10 },
+                { "id": "amount", "length": 12, "type": "NUMERIC", "scale": 2 },
+                { "id": "count", "length": 5, "type": "NUMERIC", "encoding": "PACKED_DECIMAL" },
+                { "id": "code", "offset": 30, "length": 4, "encoding": "EBCDIC" },
+                { "id": "balance", "length": 6, "type": "NUMERIC", "encoding": "EBCDIC" }
+              ]
+            }
+            """;
+
+    private final FixedRecordCodec codec = FixedRecordCodec.compile(FixedRecordSchemaLoader.fromJson(LAYOUT));
+
+    @Test
+    void shouldResolveSequentialAndExplicitOffsets() {
+        assertEquals(40, codec.getRecordLength());
+        assertEquals(11, codec.field("amount").getOffset());
+        assertEquals(23, codec.field("count").getOffset());
+        assertEquals(3, codec.field("count").getByteLength());
+        assertEquals(30, codec.field("code").getOffset());
+        assertEquals(34, codec.field("balance").getOffset());
+    }
+
+    @Test
+    void shouldReadAsciiFieldsInPlace() {
+        ByteBuf record = Unpooled.copiedBuffer("D  ALICE   000000012345", StandardCharsets.US_ASCII);
+
+        assertEquals("D", codec.field("type").readString(record));
+        assertEquals("ALICE", codec.field("name").readString(record));
+        assertEquals(12345L, codec.field("amount").readLong(record));
+        assertEquals(new BigDecimal("123.45"), codec.field("amount").readDecimal(record));
+    }
+
+    @Test
+    void shouldTreatMissingTrailingFieldsAsBlank() {
+        ByteBuf record = Unpooled.copiedBuffer("D", StandardCharsets.US_ASCII);
+
+        assertTrue(codec.field("name").isBlank(record));
+        assertEquals("", codec.field("name").readString(record));
+        assertEquals(0L, codec.field("amount").readLong(record));
+        assertEquals(0L, codec.field("count").readLong(record));
+    }
+
+    @Test
+    void shouldDecodeMultiByteText() {
+        ByteBuf out = Unpooled.buffer();
+        ByteBuf record = codec.newRecord(out);
+        codec.field("name").writeString(record, "陳小明");
+
+        assertEquals("陳小明", codec.field("name").readString(record));
+    }
+
+    @Test
+    void shouldNotSplitDoubleByteCharacterWhenTruncating() {
+        ByteBuf out = Unpooled.buffer();
+        ByteBuf record = codec.newRecord(out);
+        // 'A' plus five Big5 characters is 11 bytes; the last one no longer fits
+        codec.field("name").writeString(record, "A陳小明大同");
+
+        assertEquals("A陳小明大", codec.field("name").readString(record));
+        assertEquals(0x20, record.getByte(codec.field("name").getOffset() + 9));
+    }
+
+    @Test
+    void shouldRoundTripMixedEncodings() {
+        ByteBuf out = Unpooled.buffer();
+        ByteBuf record = codec.newRecord(out);
+        codec.field("type").writeString(record, "D");
+        codec.field("name").writeString(record, "BOB");
+        codec.field("amount").writeDecimal(record, new BigDecimal("-98.76"));
+        codec.field("count").writeLong(record, -12345);
+        codec.field("code").writeString(record, "AB12");
+        codec.field("balance").writeLong(record, -4321);
+
+        assertEquals(40, out.readableBytes());
+        assertEquals("D", codec.field("type").readString(out));
+        assertEquals("BOB", codec.field("name").readString(out));
+        assertEquals(new BigDecimal("-98.76"), codec.field("amount").readDecimal(out));
+        assertEquals(-12345L, codec.field("count").readLong(out));
+        assertEquals("AB12", codec.field("code").readString(out));
+        assertEquals(-4321L, codec.field("balance").readLong(out));
+    }
+
+    @Test
+    void shouldWriteDisplayNumbersLikeZeroPaddedFormat() {
+        ByteBuf out = Unpooled.buffer();
+        ByteBuf record = codec.newRecord(out);
+        codec.field("amount").writeLong(record, 10000);
+
+        assertEquals(String.format("%012d", 10000),
+                out.toString(11, 12, StandardCharsets.US_ASCII));
+        assertEquals(" ".repeat(10), out.toString(1, 10, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void shouldMatchExistingCodecs() {
+        ByteBuf out = Unpooled.buffer();
+        ByteBuf record = codec.newRecord(out);
+        codec.field("count").writeLong(record, 12345);
+        codec.field("code").writeString(record, "AB12");
+
+        ByteBuf packed = Unpooled.buffer();
+        new PackedDecimalCodec().encode("12345", FieldSchema.builder().id("count").length(5).build(), packed);
+        assertEquals(packed, out.slice(23, 3));
+        assertArrayEquals("AB12".getBytes(EbcdicCodec.getCharset()),
+                new byte[] {out.getByte(30), out.getByte(31), out.getByte(32), out.getByte(33)});
+    }
+
+    @Test
+    void shouldReadRecordAtReaderIndex() {
+        ByteBuf out = Unpooled.buffer();
+        codec.field("amount").writeLong(codec.newRecord(out), 1);
+        codec.field("amount").writeLong(codec.newRecord(out), 2);
+
+        out.skipBytes(codec.getRecordLength());
+        assertEquals(2L, codec.field("amount").readLong(out));
+    }
+
+    @Test
+    void shouldRejectValuesThatDoNotFit() {
+        ByteBuf record = codec.newRecord(Unpooled.buffer());
+
+        assertThrows(MessageException.class, () -> codec.field("count").writeLong(record, 123456));
+        assertThrows(MessageException.class, () -> codec.field("name").writeLong(record, 1));
+        assertThrows(ArithmeticException.class,
+                () -> codec.field("amount").writeDecimal(record, new BigDecimal("1.234")));
+    }
+
+    @Test
+    void shouldRejectNonNumericDigits() {
+        ByteBuf record = Unpooled.copiedBuffer("D" + " ".repeat(10) + "0000000A1234", StandardCharsets.US_ASCII);
+
+        assertThrows(NumberFormatException.class, () -> codec.field("amount").readLong(record));
+    }
+
+    @Test
+    void shouldRejectInconsistentLayouts() {
+        assertThrows(MessageException.class, () -> FixedRecordSchemaLoader.fromJson("""
+                { "name": "BAD", "fields": [ { "id": "a", "length": 4, "encoding": "PACKED_DECIMAL" } ] }
+                """));
+        assertThrows(MessageException.class, () -> FixedRecordSchemaLoader.fromJson("""
+                { "name": "BAD", "recordLength": 2, "fields": [ { "id": "a", "length": 4 } ] }
+                """));
+        assertThrows(MessageException.class, () -> FixedRecordSchemaLoader.fromJson("""
+                { "name": "BAD", "fields": [ { "id": "a", "length": 4 }, { "id": "a", "length": 4 } ] }
+                """));
+        assertThrows(MessageException.class, () -> codec.field("missing"));
+    }
+}
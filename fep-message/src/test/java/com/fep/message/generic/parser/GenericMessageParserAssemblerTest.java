@@ -3,6 +3,8 @@ package com.fep.message.generic.parser;
 import com.fep.message.generic.message.GenericMessage;
 import com.fep.message.generic.schema.JsonSchemaLoader;
 import com.fep.message.generic.schema.MessageSchema;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -158,6 +160,48 @@ class GenericMessageParserAssemblerTest {
         assertEquals(14, length);  // 2 + 2 + 10 = 14 (excludes length header itself)
     }
 
+    @Test
+    void shouldAssembleStraightIntoBuffer() {
+        String json = """
+            {
+              "name": "Direct Assembly Test",
+              "header": {
+                "includeLength": true,
+                "lengthBytes": 2,
+                "lengthEncoding": "BCD",
+                "lengthIncludesHeader": false
+              },
+              "fields": [
+                { "id": "command", "length": 2, "encoding": "ASCII" },
+                { "id": "varField", "length": 99, "lengthType": "LLVAR", "encoding": "ASCII", "lengthEncoding": "BCD" },
+                { "id": "amount", "length": 6, "encoding": "BCD" }
+              ]
+            }
+            """;
+        MessageSchema schema = JsonSchemaLoader.fromJson(json);
+
+        GenericMessage original = new GenericMessage(schema);
+        original.setField("command", "11");
+        original.setField("varField", "Hello World");
+        original.setField("amount", "100000");
+
+        // Preceding bytes must be left alone and the length field filled in place
+        ByteBuf buffer = Unpooled.buffer(4);
+        buffer.writeByte(0x7F);
+        assembler.assemble(original, buffer);
+
+        byte[] expected = assembler.assemble(original);
+        // Length (2) + command (2) + prefix (1) + varField (11) + amount (3) = 19 bytes
+        assertEquals(19, expected.length);
+        assertEquals(expected.length, assembler.estimateSize(original));
+        assertEquals((byte) 0x7F, buffer.readByte());
+        assertEquals(Unpooled.wrappedBuffer(expected), buffer);
+        // 17 in BCD
+        assertEquals((byte) 0x00, expected[0]);
+        assertEquals((byte) 0x17, expected[1]);
+        buffer.release();
+    }
+
     @Test
     void shouldApplyDefaultValues() {
         String json = """
@@ -203,6 +203,27 @@ class JsonSchemaLoaderTest {
         assertEquals(schema1.getName(), schema2.getName());
     }
 
+    @Test
+    void shouldBumpGenerationOnlyWhenCollectionSchemaIsLoaded(@TempDir Path tempDir) throws IOException {
+        Path schemaFile = tempDir.resolve("collection-schemas.json");
+        Files.writeString(schemaFile, """
+            [
+              {
+                "name": "TestSchema",
+                "fields": [ { "id": "f1", "length": 5 } ]
+              }
+            ]
+            """);
+        long before = JsonSchemaLoader.getGeneration();
+
+        MessageSchema first = JsonSchemaLoader.fromCollectionFile(schemaFile, "TestSchema");
+        MessageSchema second = JsonSchemaLoader.fromCollectionFile(schemaFile, "TestSchema");
+
+        // Only the load that inserted the schema into the cache counts
+        assertSame(first, second);
+        assertEquals(before + 1, JsonSchemaLoader.getGeneration());
+    }
+
     // ==================== Subscriber Pattern Tests ====================
 
     @Test
@@ -155,6 +155,21 @@ class BitmapTest {
         assertTrue(dataFields.contains(70));
     }
 
+    @Test
+    @DisplayName("Should iterate set fields in order without building a set")
+    void shouldIterateNextField() {
+        Bitmap bitmap = new Bitmap();
+        bitmap.set(3);
+        bitmap.set(2);
+        bitmap.set(70);
+
+        assertEquals(1, bitmap.nextField(1));
+        assertEquals(2, bitmap.nextField(2));
+        assertEquals(3, bitmap.nextField(3));
+        assertEquals(70, bitmap.nextField(4));
+        assertEquals(-1, bitmap.nextField(71));
+    }
+
     @Test
     @DisplayName("Should produce correct binary string")
     void shouldProduceBinaryString() {
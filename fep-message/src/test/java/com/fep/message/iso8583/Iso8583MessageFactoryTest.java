@@ -1,5 +1,6 @@
 package com.fep.message.iso8583;
 
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -87,6 +88,27 @@ class Iso8583MessageFactoryTest {
         assertNotEquals(stan2, stan3);
     }
 
+    @Test
+    @DisplayName("Should follow a default allocator installed after first use")
+    void shouldFollowReplacedDefaultAllocator() {
+        // Given - the factory has already drawn from the previous default
+        factory.setTraceChannel("FACTORY_TEST");
+        factory.generateStan();
+        factory.generateStan();
+        TraceNumberAllocator previous = TraceNumberAllocator.getDefault();
+        TraceNumberAllocator replacement = new TraceNumberAllocator();
+        try {
+            // When
+            TraceNumberAllocator.setDefault(replacement);
+
+            // Then - numbers now come from the replacement's fresh sequence
+            assertEquals("000001", factory.generateStan());
+        } finally {
+            TraceNumberAllocator.setDefault(previous);
+            replacement.close();
+        }
+    }
+
     @Test
     @DisplayName("Should generate unique RRN")
     void shouldGenerateUniqueRrn() {
@@ -216,4 +216,49 @@ class Iso8583MessageTest {
         assertTrue(message.getTimestamp() >= before);
         assertTrue(message.getTimestamp() <= after);
     }
+
+    @Test
+    @DisplayName("Should decode deferred fields once, on first read past them")
+    void shouldDecodeDeferredFieldsOnFirstRead() {
+        Iso8583Message message = new Iso8583Message("0210");
+        message.setField(11, "000123");
+        int[] decodes = new int[1];
+        message.deferFields(11, m -> {
+            decodes[0]++;
+            m.setField(39, "00");
+        });
+
+        assertEquals("000123", message.getFieldAsString(11));
+        assertTrue(message.hasDeferredFields());
+        assertEquals(0, decodes[0]);
+
+        assertEquals("00", message.getFieldAsString(39));
+        assertEquals(2, message.getFieldNumbers().size());
+        assertFalse(message.hasDeferredFields());
+        assertEquals(1, decodes[0]);
+    }
+
+    @Test
+    @DisplayName("Should discard partially decoded fields when deferred decoding fails")
+    void shouldDiscardPartialDecodeOnFailure() {
+        Iso8583Message message = new Iso8583Message("0210");
+        message.setField(11, "000123");
+        boolean[] fail = {true};
+        message.deferFields(11, m -> {
+            m.setField(39, "00");
+            if (fail[0]) {
+                throw new IllegalStateException("truncated");
+            }
+            m.setField(41, "TERM0001");
+        });
+
+        assertThrows(IllegalStateException.class, () -> message.getField(39));
+        assertTrue(message.hasDeferredFields());
+        assertEquals("000123", message.getFieldAsString(11));
+
+        fail[0] = false;
+        assertEquals("00", message.getFieldAsString(39));
+        assertEquals("TERM0001", message.getFieldAsString(41));
+        assertEquals(3, message.getFieldNumbers().size());
+    }
 }
@@ -0,0 +1,127 @@
+package com.fep.message.iso8583.trace;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileTraceNumberStore.
+ */
+@DisplayName("File Trace Number Store Tests")
+class FileTraceNumberStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should lease consecutive ranges and persist the high-water mark")
+    void shouldLeaseConsecutiveRanges() {
+        // Given
+        Path file = directory.resolve("trace-numbers.properties");
+        FileTraceNumberStore store = new FileTraceNumberStore(file);
+        TraceKey key = new TraceKey("ATM", TraceNumberType.STAN, DAY);
+
+        // When / Then
+        assertEquals(0, store.lease(key, 100));
+        assertEquals(100, store.lease(key, 100));
+        assertEquals(0, store.lease(new TraceKey("POS", TraceNumberType.STAN, DAY), 100));
+        assertTrue(Files.exists(file));
+        assertEquals(200, new FileTraceNumberStore(file).lease(key, 1));
+    }
+
+    @Test
+    @DisplayName("Should resume after restart beyond every number already issued")
+    void shouldResumeAfterRestart() {
+        // Given
+        Path file = directory.resolve("trace-numbers.properties");
+        TraceNumberAllocatorTest.MutableClock clock =
+                new TraceNumberAllocatorTest.MutableClock(LocalDateTime.of(2026, 10, 18, 10, 0));
+        TraceNumberAllocator first = new TraceNumberAllocator(
+                new FileTraceNumberStore(file), 10, clock, LocalTime.MIDNIGHT);
+        for (int i = 0; i < 5; i++) {
+            first.nextStan("ATM");
+        }
+        first.close();
+
+        // When
+        TraceNumberAllocator second = new TraceNumberAllocator(
+                new FileTraceNumberStore(file), 10, clock, LocalTime.MIDNIGHT);
+
+        // Then
+        assertEquals("000011", second.nextStan("ATM"));
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should give nodes sharing the file disjoint numbers")
+    void shouldGiveSharingNodesDisjointNumbers() throws Exception {
+        // Given
+        Path file = directory.resolve("shared.properties");
+        TraceNumberAllocatorTest.MutableClock clock =
+                new TraceNumberAllocatorTest.MutableClock(LocalDateTime.of(2026, 10, 18, 10, 0));
+        TraceNumberAllocator nodeA = new TraceNumberAllocator(
+                new FileTraceNumberStore(file), 20, clock, LocalTime.MIDNIGHT);
+        TraceNumberAllocator nodeB = new TraceNumberAllocator(
+                new FileTraceNumberStore(file), 20, clock, LocalTime.MIDNIGHT);
+        Set<String> stans = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        Future<?>[] futures = new Future<?>[4];
+        for (int t = 0; t < futures.length; t++) {
+            TraceNumberAllocator node = t % 2 == 0 ? nodeA : nodeB;
+            futures[t] = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    stans.add(node.nextStan("FISC"));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        nodeA.close();
+        nodeB.close();
+
+        // Then
+        assertEquals(2000, stans.size());
+    }
+
+    @Test
+    @DisplayName("Should expire high-water marks of earlier business days")
+    void shouldExpireEarlierDays() {
+        // Given
+        FileTraceNumberStore store = new FileTraceNumberStore(directory.resolve("trace-numbers.properties"));
+        TraceKey yesterday = new TraceKey("ATM", TraceNumberType.RRN, DAY.minusDays(1));
+        TraceKey today = new TraceKey("ATM", TraceNumberType.RRN, DAY);
+        store.lease(yesterday, 100);
+        store.lease(today, 100);
+
+        // When
+        store.expireBefore(DAY);
+
+        // Then
+        assertEquals(0, store.lease(yesterday, 100));
+        assertEquals(100, store.lease(today, 100));
+    }
+}
@@ -0,0 +1,219 @@
+package com.fep.message.iso8583.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TraceNumberAllocator.
+ */
+@DisplayName("Trace Number Allocator Tests")
+class TraceNumberAllocatorTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2026, 10, 18, 10, 0);
+
+    private final MutableClock clock = new MutableClock(MORNING);
+    private TraceNumberAllocator allocator;
+
+    @AfterEach
+    void tearDown() {
+        if (allocator != null) {
+            allocator.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should allocate sequential STANs per channel")
+    void shouldAllocateSequentialStansPerChannel() {
+        allocator = new TraceNumberAllocator(new InMemoryTraceNumberStore(), 10, clock, LocalTime.MIDNIGHT);
+
+        assertEquals("000001", allocator.nextStan("ATM"));
+        assertEquals("000002", allocator.nextStan("ATM"));
+        assertEquals("000001", allocator.nextStan("POS"));
+        assertEquals(3, allocator.nextStanValue("ATM"));
+    }
+
+    @Test
+    @DisplayName("Should format RRN as YDDD plus 8-digit sequence")
+    void shouldFormatRrn() {
+        allocator = new TraceNumberAllocator(new InMemoryTraceNumberStore(), 10, clock, LocalTime.MIDNIGHT);
+
+        assertEquals("629100000001", allocator.nextRrn("ATM"));
+        assertEquals("629100000002", allocator.nextRrn("ATM"));
+        assertEquals("000001", allocator.nextStan("ATM"));
+    }
+
+    @Test
+    @DisplayName("Should continue across blocks without gaps")
+    void shouldContinueAcrossBlocks() {
+        allocator = new TraceNumberAllocator(new InMemoryTraceNumberStore(), 4, clock, LocalTime.MIDNIGHT);
+
+        for (int expected = 1; expected <= 50; expected++) {
+            assertEquals(expected, allocator.nextStanValue("ATM"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should lease the next block in the background before the current one runs out")
+    void shouldPrefetchNextBlock() throws Exception {
+        // Given
+        CountingStore store = new CountingStore();
+        allocator = new TraceNumberAllocator(store, 100, clock, LocalTime.MIDNIGHT);
+
+        // When
+        for (int i = 0; i <= 100 * TraceNumberAllocator.PREFETCH_PERCENT / 100; i++) {
+            allocator.nextStanValue("ATM");
+        }
+
+        // Then
+        long deadline = System.currentTimeMillis() + 5000;
+        while (store.leases.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, store.leases.get());
+        for (int i = 0; i < 100; i++) {
+            allocator.nextStanValue("ATM");
+        }
+        assertEquals(101 + 100 * TraceNumberAllocator.PREFETCH_PERCENT / 100 + 1,
+                allocator.nextStanValue("ATM"));
+    }
+
+    @Test
+    @DisplayName("Should allocate unique STANs under concurrency")
+    void shouldAllocateUniqueStansUnderConcurrency() throws Exception {
+        // Given
+        allocator = new TraceNumberAllocator(new InMemoryTraceNumberStore(), 50, clock, LocalTime.MIDNIGHT);
+        int threads = 8;
+        int perThread = 5000;
+        Set<Long> stans = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    stans.add(allocator.nextStanValue("ATM"));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * perThread, stans.size());
+    }
+
+    @Test
+    @DisplayName("Should restart numbering on a new business day")
+    void shouldRestartOnNewBusinessDay() {
+        // Given
+        InMemoryTraceNumberStore store = new InMemoryTraceNumberStore();
+        allocator = new TraceNumberAllocator(store, 10, clock, LocalTime.MIDNIGHT);
+        allocator.nextStan("ATM");
+        allocator.nextStan("ATM");
+
+        // When
+        clock.set(MORNING.plusDays(1));
+
+        // Then
+        assertEquals("000001", allocator.nextStan("ATM"));
+        assertEquals("629200000001", allocator.nextRrn("ATM"));
+    }
+
+    @Test
+    @DisplayName("Should assign transactions after cutover to the next business day")
+    void shouldApplyCutover() {
+        // Given
+        clock.set(LocalDateTime.of(2026, 10, 18, 23, 0));
+        allocator = new TraceNumberAllocator(new InMemoryTraceNumberStore(), 10, clock, LocalTime.of(23, 30));
+        assertEquals("629100000001", allocator.nextRrn("ATM"));
+
+        // When
+        clock.set(LocalDateTime.of(2026, 10, 18, 23, 45));
+
+        // Then
+        assertEquals(LocalDate.of(2026, 10, 19), allocator.businessDayOf(LocalDateTime.of(2026, 10, 18, 23, 45)));
+        assertEquals(LocalDate.of(2026, 10, 18), allocator.businessDayOf(LocalDateTime.of(2026, 10, 18, 23, 29)));
+        assertEquals("629200000001", allocator.nextRrn("ATM"));
+    }
+
+    @Test
+    @DisplayName("Should treat null channel as the default channel")
+    void shouldTreatNullChannelAsDefault() {
+        allocator = new TraceNumberAllocator(new InMemoryTraceNumberStore(), 10, clock, LocalTime.MIDNIGHT);
+
+        assertEquals("000001", allocator.nextStan(null));
+        assertEquals("000002", allocator.nextStan("DEFAULT"));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive block size")
+    void shouldRejectInvalidBlockSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TraceNumberAllocator(new InMemoryTraceNumberStore(), 0, clock, LocalTime.MIDNIGHT));
+    }
+
+    /**
+     * Store that counts leases.
+     */
+    private static class CountingStore extends InMemoryTraceNumberStore {
+        final AtomicInteger leases = new AtomicInteger();
+
+        @Override
+        public long lease(TraceKey key, int blockSize) {
+            leases.incrementAndGet();
+            return super.lease(key, blockSize);
+        }
+    }
+
+    /**
+     * Clock that tests can move.
+     */
+    static class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(LocalDateTime dateTime) {
+            set(dateTime);
+        }
+
+        void set(LocalDateTime dateTime) {
+            this.instant = dateTime.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
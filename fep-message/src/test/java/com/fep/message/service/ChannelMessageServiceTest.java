@@ -4,6 +4,7 @@ import com.fep.message.channel.Channel;
 import com.fep.message.channel.ChannelConfigException;
 import com.fep.message.channel.ChannelSchemaRegistry;
 import com.fep.message.generic.message.GenericMessage;
+import com.fep.message.generic.message.GenericMessageView;
 import com.fep.message.generic.schema.JsonSchemaLoader;
 import com.fep.message.generic.schema.MessageSchema;
 import io.netty.buffer.ByteBuf;
@@ -295,6 +296,34 @@ class ChannelMessageServiceTest {
                 service.parseMessage("NONEXISTENT", "0200", data));
     }
 
+    @Test
+    @DisplayName("Should parse view lazily and only once")
+    void shouldParseViewLazilyAndOnlyOnce() {
+        // Given
+        byte[] data = "0200".getBytes();
+        GenericMessageView view = service.createView("ATM_TEST_V1", "0200", data);
+
+        // Then
+        assertFalse(view.isMaterialized());
+        GenericMessage message = view.get();
+        assertTrue(view.isMaterialized());
+        assertEquals("0200", message.getFieldAsString("mti"));
+        assertSame(message, view.get());
+        assertSame(data, view.getData());
+    }
+
+    @Test
+    @DisplayName("Should defer view failure until first read")
+    void shouldDeferViewFailureUntilFirstRead() {
+        // Given
+        GenericMessageView view = service.createView("NONEXISTENT", "0200", "0200".getBytes());
+
+        // When & Then
+        ChannelConfigException first = assertThrows(ChannelConfigException.class, view::get);
+        assertSame(first, assertThrows(ChannelConfigException.class, view::get));
+        assertFalse(view.isMaterialized());
+    }
+
     // ==================== Assembly Tests ====================
 
     @Test
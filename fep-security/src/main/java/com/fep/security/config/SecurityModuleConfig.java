@@ -3,7 +3,9 @@ package com.fep.security.config;
 import com.fep.security.crypto.CryptoService;
 import com.fep.security.hsm.*;
 import com.fep.security.key.KeyManager;
+import com.fep.security.key.KeyType;
 import com.fep.security.mac.MacService;
+import com.fep.security.pan.PanEncryptionService;
 import com.fep.security.pin.PinBlockService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -31,6 +33,10 @@ public class SecurityModuleConfig {
     @Value("${fep.security.hsm.read-timeout:10000}")
     private int readTimeout;
 
+    /** Hex PAN HMAC key shared by all nodes; leave empty when the HSM loads it */
+    @Value("${fep.security.pan.hmac-key:}")
+    private String panHmacKey;
+
     @Bean
     public CryptoService cryptoService() {
         return new CryptoService();
@@ -38,7 +44,12 @@ public class SecurityModuleConfig {
 
     @Bean
     public KeyManager keyManager(CryptoService cryptoService) {
-        return new KeyManager(cryptoService);
+        KeyManager keyManager = new KeyManager(cryptoService);
+        if (!panHmacKey.isBlank()) {
+            keyManager.importKey(KeyType.MAK, PanEncryptionService.PAN_HMAC_KEY_ALIAS,
+                    cryptoService.hexToBytes(panHmacKey.trim()));
+        }
+        return keyManager;
     }
 
     @Bean
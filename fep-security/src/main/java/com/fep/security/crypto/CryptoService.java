@@ -7,10 +7,9 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.DESedeKeySpec;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.Arrays;
@@ -28,6 +27,12 @@ public class CryptoService {
     private static final byte[] ZERO_IV_8 = new byte[8];
     private static final byte[] ZERO_IV_16 = new byte[16];
 
+    // Cipher instances reused per thread (Cipher is not thread-safe)
+    private static final ThreadLocal<Cipher> TDES_CBC = threadLocalCipher("DESede/CBC/NoPadding");
+    private static final ThreadLocal<Cipher> DES_CBC = threadLocalCipher("DES/CBC/NoPadding");
+    private static final ThreadLocal<Cipher> AES_CBC = threadLocalCipher("AES/CBC/NoPadding");
+    private static final ThreadLocal<Cipher> TDES_ECB = threadLocalCipher("DESede/ECB/NoPadding");
+
     /**
      * Encrypts data using 3DES with CBC mode.
      *
@@ -43,19 +48,23 @@ public class CryptoService {
      * Encrypts data using 3DES with CBC mode and custom IV.
      */
     public byte[] encryptTdes(byte[] key, byte[] data, byte[] iv) {
-        try {
-            validateKeyLength(key, 24, "3DES");
-            byte[] adjustedKey = adjustTdesKey(key);
-
-            DESedeKeySpec keySpec = new DESedeKeySpec(adjustedKey);
-            SecretKeyFactory keyFactory = SecretKeyFactory.getInstance("DESede");
-            SecretKey secretKey = keyFactory.generateSecret(keySpec);
+        validateKeyLength(key, 24, "3DES");
+        return encryptTdes(new SecretKeySpec(adjustTdesKey(key), "DESede"), data, iv);
+    }
 
-            Cipher cipher = Cipher.getInstance("DESede/CBC/NoPadding");
-            IvParameterSpec ivSpec = new IvParameterSpec(iv);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, ivSpec);
+    /**
+     * Encrypts data using 3DES with CBC mode and a prepared key.
+     */
+    public byte[] encryptTdes(SecretKey key, byte[] data) {
+        return encryptTdes(key, data, ZERO_IV_8);
+    }
 
-            return cipher.doFinal(data);
+    /**
+     * Encrypts data using 3DES with CBC mode, a prepared key and custom IV.
+     */
+    public byte[] encryptTdes(SecretKey key, byte[] data, byte[] iv) {
+        try {
+            return doCipher(TDES_CBC, Cipher.ENCRYPT_MODE, key, iv, data);
         } catch (Exception e) {
             throw new CryptoException("3DES encryption failed", e);
         }
@@ -72,19 +81,23 @@ public class CryptoService {
      * Decrypts data using 3DES with CBC mode and custom IV.
      */
     public byte[] decryptTdes(byte[] key, byte[] encryptedData, byte[] iv) {
-        try {
-            validateKeyLength(key, 24, "3DES");
-            byte[] adjustedKey = adjustTdesKey(key);
-
-            DESedeKeySpec keySpec = new DESedeKeySpec(adjustedKey);
-            SecretKeyFactory keyFactory = SecretKeyFactory.getInstance("DESede");
-            SecretKey secretKey = keyFactory.generateSecret(keySpec);
+        validateKeyLength(key, 24, "3DES");
+        return decryptTdes(new SecretKeySpec(adjustTdesKey(key), "DESede"), encryptedData, iv);
+    }
 
-            Cipher cipher = Cipher.getInstance("DESede/CBC/NoPadding");
-            IvParameterSpec ivSpec = new IvParameterSpec(iv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, ivSpec);
+    /**
+     * Decrypts data using 3DES with CBC mode and a prepared key.
+     */
+    public byte[] decryptTdes(SecretKey key, byte[] encryptedData) {
+        return decryptTdes(key, encryptedData, ZERO_IV_8);
+    }
 
-            return cipher.doFinal(encryptedData);
+    /**
+     * Decrypts data using 3DES with CBC mode, a prepared key and custom IV.
+     */
+    public byte[] decryptTdes(SecretKey key, byte[] encryptedData, byte[] iv) {
+        try {
+            return doCipher(TDES_CBC, Cipher.DECRYPT_MODE, key, iv, encryptedData);
         } catch (Exception e) {
             throw new CryptoException("3DES decryption failed", e);
         }
@@ -105,15 +118,23 @@ public class CryptoService {
      * Encrypts data using AES with CBC mode and custom IV.
      */
     public byte[] encryptAes(byte[] key, byte[] data, byte[] iv) {
-        try {
-            validateAesKeyLength(key);
+        validateAesKeyLength(key);
+        return encryptAes(new SecretKeySpec(key, "AES"), data, iv);
+    }
 
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            Cipher cipher = Cipher.getInstance("AES/CBC/NoPadding");
-            IvParameterSpec ivSpec = new IvParameterSpec(iv);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec, ivSpec);
+    /**
+     * Encrypts data using AES with CBC mode and a prepared key.
+     */
+    public byte[] encryptAes(SecretKey key, byte[] data) {
+        return encryptAes(key, data, ZERO_IV_16);
+    }
 
-            return cipher.doFinal(data);
+    /**
+     * Encrypts data using AES with CBC mode, a prepared key and custom IV.
+     */
+    public byte[] encryptAes(SecretKey key, byte[] data, byte[] iv) {
+        try {
+            return doCipher(AES_CBC, Cipher.ENCRYPT_MODE, key, iv, data);
         } catch (Exception e) {
             throw new CryptoException("AES encryption failed", e);
         }
@@ -130,15 +151,9 @@ public class CryptoService {
      * Decrypts data using AES with CBC mode and custom IV.
      */
     public byte[] decryptAes(byte[] key, byte[] encryptedData, byte[] iv) {
+        validateAesKeyLength(key);
         try {
-            validateAesKeyLength(key);
-
-            SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
-            Cipher cipher = Cipher.getInstance("AES/CBC/NoPadding");
-            IvParameterSpec ivSpec = new IvParameterSpec(iv);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
-
-            return cipher.doFinal(encryptedData);
+            return doCipher(AES_CBC, Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), iv, encryptedData);
         } catch (Exception e) {
             throw new CryptoException("AES decryption failed", e);
         }
@@ -148,15 +163,16 @@ public class CryptoService {
      * Encrypts data using single DES (legacy support).
      */
     public byte[] encryptDes(byte[] key, byte[] data) {
-        try {
-            validateKeyLength(key, 8, "DES");
-
-            SecretKeySpec keySpec = new SecretKeySpec(key, "DES");
-            Cipher cipher = Cipher.getInstance("DES/CBC/NoPadding");
-            IvParameterSpec ivSpec = new IvParameterSpec(ZERO_IV_8);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec, ivSpec);
+        validateKeyLength(key, 8, "DES");
+        return encryptDes(new SecretKeySpec(key, "DES"), data);
+    }
 
-            return cipher.doFinal(data);
+    /**
+     * Encrypts data using single DES with a prepared key.
+     */
+    public byte[] encryptDes(SecretKey key, byte[] data) {
+        try {
+            return doCipher(DES_CBC, Cipher.ENCRYPT_MODE, key, ZERO_IV_8, data);
         } catch (Exception e) {
             throw new CryptoException("DES encryption failed", e);
         }
@@ -166,18 +182,89 @@ public class CryptoService {
      * Decrypts data using single DES (legacy support).
      */
     public byte[] decryptDes(byte[] key, byte[] encryptedData) {
+        validateKeyLength(key, 8, "DES");
+        return decryptDes(new SecretKeySpec(key, "DES"), encryptedData);
+    }
+
+    /**
+     * Decrypts data using single DES with a prepared key.
+     */
+    public byte[] decryptDes(SecretKey key, byte[] encryptedData) {
         try {
-            validateKeyLength(key, 8, "DES");
+            return doCipher(DES_CBC, Cipher.DECRYPT_MODE, key, ZERO_IV_8, encryptedData);
+        } catch (Exception e) {
+            throw new CryptoException("DES decryption failed", e);
+        }
+    }
 
-            SecretKeySpec keySpec = new SecretKeySpec(key, "DES");
-            Cipher cipher = Cipher.getInstance("DES/CBC/NoPadding");
-            IvParameterSpec ivSpec = new IvParameterSpec(ZERO_IV_8);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec, ivSpec);
+    /**
+     * Calculates a CBC-MAC with a zero IV: the whole buffer is encrypted in one
+     * call and the last cipher block is the MAC.
+     *
+     * @param key        prepared DES, 3DES or AES key
+     * @param paddedData data already padded to the cipher block size
+     * @return the last cipher block
+     */
+    public byte[] cbcMac(SecretKey key, byte[] paddedData) {
+        try {
+            boolean aes = "AES".equals(key.getAlgorithm());
+            ThreadLocal<Cipher> cipher = aes ? AES_CBC
+                    : "DESede".equals(key.getAlgorithm()) ? TDES_CBC : DES_CBC;
+            byte[] encrypted = doCipher(cipher, Cipher.ENCRYPT_MODE, key,
+                    aes ? ZERO_IV_16 : ZERO_IV_8, paddedData);
+            int blockSize = aes ? 16 : 8;
+            return Arrays.copyOfRange(encrypted, encrypted.length - blockSize, encrypted.length);
+        } catch (Exception e) {
+            throw new CryptoException("CBC-MAC calculation failed", e);
+        }
+    }
 
-            return cipher.doFinal(encryptedData);
+    /**
+     * Re-encrypts independent 8-byte blocks from one 3DES key to another.
+     *
+     * <p>Each block is handled like a zero-IV CBC single block, but the whole buffer
+     * is decrypted and re-encrypted with one cipher call each. The intermediate
+     * clear data never leaves this method and is wiped before returning.
+     *
+     * @param sourceKey key the blocks are encrypted under
+     * @param destKey   key to encrypt the blocks under
+     * @param blocks    concatenated blocks (multiple of 8 bytes)
+     * @return the blocks encrypted under the destination key
+     */
+    public byte[] translateTdesBlocks(SecretKey sourceKey, SecretKey destKey, byte[] blocks) {
+        byte[] clear = null;
+        try {
+            Cipher cipher = TDES_ECB.get();
+            cipher.init(Cipher.DECRYPT_MODE, sourceKey);
+            clear = cipher.doFinal(blocks);
+            cipher.init(Cipher.ENCRYPT_MODE, destKey);
+            return cipher.doFinal(clear);
         } catch (Exception e) {
-            throw new CryptoException("DES decryption failed", e);
+            throw new CryptoException("3DES block translation failed", e);
+        } finally {
+            if (clear != null) {
+                Arrays.fill(clear, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Prepares JCA key objects from a double- or triple-length key.
+     *
+     * @param key 16 or 24 byte key
+     * @return the prepared key
+     */
+    public PreparedKey prepareKey(byte[] key) {
+        if (key == null || (key.length != 16 && key.length != 24)) {
+            throw new CryptoException(
+                    String.format("Key must be 16 or 24 bytes, got %d", key == null ? 0 : key.length));
         }
+        return new PreparedKey(
+                new SecretKeySpec(adjustTdesKey(key), "DESede"),
+                new SecretKeySpec(key, 0, 8, "DES"),
+                new SecretKeySpec(key, 8, 8, "DES"),
+                new SecretKeySpec(key, 0, 16, "AES"),
+                new SecretKeySpec(key, "HmacSHA256"));
     }
 
     /**
@@ -309,6 +396,28 @@ public class CryptoService {
         return Arrays.copyOf(data, i);
     }
 
+    /**
+     * Runs a cipher operation on this thread's cached Cipher instance.
+     * Provider lookup happens once per thread; each call only re-initialises
+     * the cipher with the key and IV.
+     */
+    private static byte[] doCipher(ThreadLocal<Cipher> cipherHolder, int mode, SecretKey key,
+                                   byte[] iv, byte[] data) throws GeneralSecurityException {
+        Cipher cipher = cipherHolder.get();
+        cipher.init(mode, key, new IvParameterSpec(iv));
+        return cipher.doFinal(data);
+    }
+
+    private static ThreadLocal<Cipher> threadLocalCipher(String transformation) {
+        return ThreadLocal.withInitial(() -> {
+            try {
+                return Cipher.getInstance(transformation);
+            } catch (GeneralSecurityException e) {
+                throw new CryptoException("Cipher not available: " + transformation, e);
+            }
+        });
+    }
+
     /**
      * Adjusts key parity for DES keys.
      */
@@ -324,7 +433,7 @@ public class CryptoService {
     /**
      * Adjusts 3DES key to ensure it's a valid 24-byte key.
      */
-    private byte[] adjustTdesKey(byte[] key) {
+    private static byte[] adjustTdesKey(byte[] key) {
         if (key.length == 16) {
             // Double-length key: K1-K2-K1
             byte[] adjustedKey = new byte[24];
@@ -0,0 +1,24 @@
+package com.fep.security.crypto;
+
+import javax.crypto.SecretKey;
+
+/**
+ * JCA key objects derived once from a raw double- or triple-length key.
+ *
+ * <p>Created by {@link CryptoService#prepareKey(byte[])} and held in the key
+ * manager's key snapshot, so hot paths such as MAC and PIN translation do not
+ * rebuild key specs on every call.
+ *
+ * @param tdes  the full key as a 3DES (K1-K2-K3 or K1-K2-K1) key
+ * @param left  the first 8 bytes as a single DES key (K1)
+ * @param right bytes 8-16 as a single DES key (K2)
+ * @param aes   the first 16 bytes as an AES-128 key
+ * @param hmac  the full key as an HMAC-SHA256 key
+ */
+public record PreparedKey(SecretKey tdes, SecretKey left, SecretKey right, SecretKey aes, SecretKey hmac) {
+
+    @Override
+    public String toString() {
+        return "PreparedKey[****]";
+    }
+}
@@ -1,5 +1,9 @@
 package com.fep.security.hsm;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for HSM adapters.
  * Each HSM vendor has its own adapter implementation.
@@ -31,6 +35,37 @@ public interface HsmAdapter {
      */
     HsmResponse execute(HsmRequest request) throws HsmException;
 
+    /**
+     * Executes an HSM command asynchronously.
+     * The default implementation runs {@link #execute} on the calling thread.
+     */
+    default CompletableFuture<HsmResponse> executeAsync(HsmRequest request) {
+        try {
+            return CompletableFuture.completedFuture(execute(request));
+        } catch (HsmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Executes many HSM commands.
+     * Failed commands are reported as unsuccessful responses carrying the error code.
+     * The default implementation executes them one after another.
+     *
+     * @return responses in request order
+     */
+    default CompletableFuture<List<HsmResponse>> executeBatch(List<HsmRequest> requests) {
+        List<HsmResponse> responses = new ArrayList<>(requests.size());
+        for (HsmRequest request : requests) {
+            try {
+                responses.add(execute(request));
+            } catch (HsmException e) {
+                responses.add(HsmResponse.failure(request.getRequestId(), e.getErrorCode(), e.getMessage()));
+            }
+        }
+        return CompletableFuture.completedFuture(responses);
+    }
+
     /**
      * Generates a key in HSM.
      */
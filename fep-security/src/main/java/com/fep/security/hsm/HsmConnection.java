@@ -0,0 +1,262 @@
+package com.fep.security.hsm;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.*;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One pipelined TCP connection to an HSM unit.
+ *
+ * <p>Every request carries a numeric tag in the message header. Thales HSMs echo
+ * the header unchanged, so responses are matched to requests by tag and many
+ * requests can be outstanding on the same socket.
+ */
+class HsmConnection {
+
+    private static final Logger log = LoggerFactory.getLogger(HsmConnection.class);
+
+    private final String host;
+    private final int port;
+    private final int unit;
+    private final Bootstrap bootstrap;
+    private final int headerLength;
+    private final int tagModulo;
+
+    private final ConcurrentHashMap<String, PendingRequest> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger tagSequence = new AtomicInteger();
+
+    private volatile Channel channel;
+    private volatile boolean healthy;
+    private volatile long lastConnectAttemptMs;
+
+    HsmConnection(EventLoopGroup group, HsmConnectionConfig config, String host, int port, int unit) {
+        this.host = host;
+        this.port = port;
+        this.unit = unit;
+        this.headerLength = config.getHeaderLength();
+        this.tagModulo = (int) Math.pow(10, Math.min(headerLength, 9));
+        this.bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectionTimeout())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ChannelPipeline pipeline = ch.pipeline();
+
+                        // Length-based frame decoder (2-byte length prefix)
+                        pipeline.addLast(new LengthFieldBasedFrameDecoder(65535, 0, 2, 0, 2));
+                        pipeline.addLast(new LengthFieldPrepender(2));
+
+                        pipeline.addLast(new ResponseHandler());
+                    }
+                });
+    }
+
+    /**
+     * Opens the connection.
+     */
+    CompletableFuture<Void> connect() {
+        lastConnectAttemptMs = System.currentTimeMillis();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        bootstrap.connect(host, port).addListener((ChannelFutureListener) future -> {
+            if (future.isSuccess()) {
+                channel = future.channel();
+                healthy = true;
+                log.info("Connected to HSM at {}", endpoint());
+                result.complete(null);
+            } else {
+                healthy = false;
+                result.completeExceptionally(future.cause());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sends a request body and returns the response body (without header).
+     */
+    CompletableFuture<byte[]> send(byte[] body, long timeoutMs) {
+        Channel current = channel;
+        if (current == null || !current.isActive()) {
+            return CompletableFuture.failedFuture(new HsmException("HSM connection not active: " + endpoint(), "31"));
+        }
+
+        PendingRequest request = new PendingRequest();
+        String tag;
+        do {
+            tag = nextTag();
+        } while (pending.putIfAbsent(tag, request) != null);
+        inFlight.incrementAndGet();
+
+        String requestTag = tag;
+        try {
+            request.timeout = current.eventLoop().schedule(() -> {
+                PendingRequest expired = pending.remove(requestTag);
+                if (expired != null) {
+                    inFlight.decrementAndGet();
+                    expired.future.completeExceptionally(new HsmException("HSM request timeout", "99"));
+                }
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+            // The request may have been failed (e.g. connection lost) before its timeout was set
+            if (request.future.isDone()) {
+                request.timeout.cancel(false);
+                return request.future;
+            }
+
+            ByteBuf buffer = current.alloc().buffer(headerLength + body.length);
+            buffer.writeCharSequence(requestTag, StandardCharsets.US_ASCII);
+            buffer.writeBytes(body);
+            current.writeAndFlush(buffer).addListener((ChannelFutureListener) future -> {
+                if (!future.isSuccess()) {
+                    fail(requestTag, new HsmException("HSM write failed: " + endpoint(), future.cause()));
+                }
+            });
+        } catch (RuntimeException e) {
+            // e.g. RejectedExecutionException from an event loop shutting down
+            fail(requestTag, new HsmException("HSM send failed: " + endpoint(), e));
+        }
+        return request.future;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    int getUnit() {
+        return unit;
+    }
+
+    boolean isAvailable() {
+        Channel current = channel;
+        return healthy && current != null && current.isActive();
+    }
+
+    boolean isActive() {
+        Channel current = channel;
+        return current != null && current.isActive();
+    }
+
+    long getLastConnectAttemptMs() {
+        return lastConnectAttemptMs;
+    }
+
+    void markHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    String endpoint() {
+        return host + ":" + port;
+    }
+
+    /**
+     * Closes the channel and fails everything outstanding on it.
+     */
+    void close() {
+        healthy = false;
+        Channel current = channel;
+        channel = null;
+        if (current != null) {
+            current.close();
+        }
+        failAll(new HsmException("HSM connection closed: " + endpoint(), "31"));
+    }
+
+    private String nextTag() {
+        int value = Math.floorMod(tagSequence.getAndIncrement(), tagModulo);
+        StringBuilder sb = new StringBuilder(headerLength);
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < headerLength; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    private void fail(String tag, Throwable cause) {
+        PendingRequest request = pending.remove(tag);
+        if (request != null) {
+            inFlight.decrementAndGet();
+            request.cancelTimeout();
+            request.future.completeExceptionally(cause);
+        }
+    }
+
+    private void failAll(Throwable cause) {
+        for (String tag : pending.keySet()) {
+            fail(tag, cause);
+        }
+    }
+
+    private static final class PendingRequest {
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        /** Null until scheduled; the request is published before its timeout */
+        volatile ScheduledFuture<?> timeout;
+
+        void cancelTimeout() {
+            ScheduledFuture<?> scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Matches responses to pending requests by header tag.
+     */
+    private class ResponseHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ByteBuf buffer = (ByteBuf) msg;
+            try {
+                if (buffer.readableBytes() < headerLength) {
+                    log.warn("Discarding short HSM response from {}", endpoint());
+                    return;
+                }
+                String tag = buffer.readCharSequence(headerLength, StandardCharsets.US_ASCII).toString();
+                PendingRequest request = pending.remove(tag);
+                if (request == null) {
+                    log.debug("Discarding HSM response without pending request: tag={}", tag);
+                    return;
+                }
+                inFlight.decrementAndGet();
+                request.cancelTimeout();
+
+                byte[] body = new byte[buffer.readableBytes()];
+                buffer.readBytes(body);
+                request.future.complete(body);
+            } finally {
+                buffer.release();
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.error("HSM channel error on {}", endpoint(), cause);
+            ctx.close();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            log.warn("HSM connection lost: {}", endpoint());
+            healthy = false;
+            failAll(new HsmException("HSM connection lost: " + endpoint(), "31"));
+        }
+    }
+}
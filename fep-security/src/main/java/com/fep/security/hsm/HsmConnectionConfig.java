@@ -33,10 +33,18 @@ public class HsmConnectionConfig {
     @Builder.Default
     private int readTimeout = 10000;
 
-    /** Maximum connections in pool */
+    /** Maximum connections in pool, per HSM unit */
     @Builder.Default
     private int maxConnections = 10;
 
+    /** Maximum pipelined requests outstanding on one connection */
+    @Builder.Default
+    private int maxInFlightPerConnection = 128;
+
+    /** Message header length; the header carries the request correlation tag */
+    @Builder.Default
+    private int headerLength = 4;
+
     /** Enable SSL/TLS */
     @Builder.Default
     private boolean sslEnabled = true;
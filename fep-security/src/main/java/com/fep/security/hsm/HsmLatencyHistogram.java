@@ -0,0 +1,69 @@
+package com.fep.security.hsm;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histogram for HSM round trips, in microseconds.
+ *
+ * <p>Backed by an HdrHistogram {@link ConcurrentHistogram} with three significant
+ * digits, the same precision the load-test latency recorder uses. Recording is
+ * wait-free and never allocates.
+ */
+public class HsmLatencyHistogram {
+
+    /** Values above this are clamped; one minute is far beyond any HSM command timeout */
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentHistogram histogram =
+            new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    /**
+     * Records one latency sample.
+     *
+     * @param nanos elapsed time in nanoseconds
+     */
+    public void record(long nanos) {
+        histogram.recordValue(Math.min(Math.max(0, nanos / 1_000), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    /**
+     * Takes a consistent-enough snapshot for reporting.
+     */
+    public Snapshot snapshot() {
+        Histogram copy = histogram.copy();
+        if (copy.getTotalCount() == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0);
+        }
+        return new Snapshot(
+                copy.getTotalCount(),
+                copy.getMean(),
+                copy.getValueAtPercentile(50),
+                copy.getValueAtPercentile(95),
+                copy.getValueAtPercentile(99),
+                copy.getMaxValue());
+    }
+
+    /**
+     * Clears all samples.
+     */
+    public void reset() {
+        histogram.reset();
+    }
+
+    /**
+     * Latency summary in microseconds.
+     */
+    public record Snapshot(
+            long count,
+            double meanMicros,
+            long p50Micros,
+            long p95Micros,
+            long p99Micros,
+            long maxMicros
+    ) {}
+}
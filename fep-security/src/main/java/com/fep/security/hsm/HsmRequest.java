@@ -27,6 +27,12 @@ public class HsmRequest {
     /** Request ID for tracking */
     private String requestId;
 
+    /** Channel of the transaction this command serves, for tracing (optional) */
+    private String channel;
+
+    /** STAN of the transaction this command serves, for tracing (optional) */
+    private String stan;
+
     /**
      * Adds a parameter.
      */
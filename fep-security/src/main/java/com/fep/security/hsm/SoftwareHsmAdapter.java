@@ -1,5 +1,6 @@
 package com.fep.security.hsm;
 
+import com.fep.common.profiling.HsmCallEvent;
 import com.fep.security.crypto.CryptoService;
 import com.fep.security.key.KeyManager;
 import com.fep.security.mac.MacAlgorithm;
@@ -67,6 +68,8 @@ public class SoftwareHsmAdapter implements HsmAdapter {
 
         long startTime = System.currentTimeMillis();
         String requestId = request.getRequestId() != null ? request.getRequestId() : generateRequestId();
+        HsmCallEvent event = new HsmCallEvent();
+        event.begin();
 
         try {
             HsmResponse response = switch (request.getCommand()) {
@@ -85,14 +88,25 @@ public class SoftwareHsmAdapter implements HsmAdapter {
 
             response.setRequestId(requestId);
             response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+            commitEvent(event, request, response.getResponseCode());
             return response;
 
         } catch (Exception e) {
             log.error("Software HSM command failed: {}", request.getCommand(), e);
+            commitEvent(event, request, "99");
             return HsmResponse.failure(requestId, "99", e.getMessage());
         }
     }
 
+    private static void commitEvent(HsmCallEvent event, HsmRequest request, String responseCode) {
+        if (event.shouldCommit()) {
+            event.setKeys(request.getChannel(), request.getStan(), null);
+            event.setCommand(request.getCommand().name());
+            event.setResponseCode(responseCode);
+            event.commit();
+        }
+    }
+
     @Override
     public HsmResponse generateKey(String keyType, String keyId) throws HsmException {
         HsmRequest request = HsmRequest.builder()
@@ -1,28 +1,34 @@
 package com.fep.security.hsm;
 
-import io.netty.bootstrap.Bootstrap;
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
-import io.netty.channel.*;
+import com.fep.common.profiling.HsmCallEvent;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
-import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.ScheduledFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Thales payShield HSM adapter implementation.
  *
  * This adapter implements the Thales Host Command Interface protocol.
  * Message format: 2-byte length + header + command code + data
+ *
+ * <p>Each HSM unit (primary, then secondary) gets a pool of {@code maxConnections}
+ * pipelined connections. Requests go to the least-loaded healthy connection of the
+ * highest-priority unit that has one, and responses are correlated by the header
+ * tag the HSM echoes back. A periodic status probe marks connections unhealthy and
+ * reconnects dropped ones, so traffic fails over to the secondary and back.
  */
 public class ThalesHsmAdapter implements HsmAdapter {
 
@@ -40,19 +46,26 @@ public class ThalesHsmAdapter implements HsmAdapter {
     private static final String CMD_DIAGNOSTICS = "NC";     // Diagnostics
     private static final String CMD_HSM_STATUS = "NO";      // HSM status
 
+    /** First delay before a batch item rejected as busy or unavailable is retried */
+    private static final long BATCH_RETRY_INITIAL_DELAY_MS = 5;
+
+    /** Upper bound of the batch retry backoff */
+    private static final long BATCH_RETRY_MAX_DELAY_MS = 200;
+
+    private static final byte[] HEALTH_PROBE = (CMD_HSM_STATUS + "00").getBytes(StandardCharsets.US_ASCII);
+
     private final HsmConnectionConfig config;
+    private final Map<HsmCommand, HsmLatencyHistogram> latencies = new EnumMap<>(HsmCommand.class);
     private EventLoopGroup eventLoopGroup;
-    private Channel channel;
+    private volatile List<HsmConnection> connections = List.of();
+    private ScheduledFuture<?> healthCheck;
     private volatile boolean connected = false;
 
-    // Pending requests waiting for response
-    private final Map<String, CompletableFuture<HsmResponse>> pendingRequests = new ConcurrentHashMap<>();
-
-    // Message header (configurable per installation)
-    private String messageHeader = "";
-
     public ThalesHsmAdapter(HsmConnectionConfig config) {
         this.config = config;
+        for (HsmCommand command : HsmCommand.values()) {
+            latencies.put(command, new HsmLatencyHistogram());
+        }
     }
 
     @Override
@@ -61,42 +74,45 @@ public class ThalesHsmAdapter implements HsmAdapter {
     }
 
     @Override
-    public void connect() throws HsmException {
+    public synchronized void connect() throws HsmException {
         if (connected) {
             return;
         }
 
         try {
-            eventLoopGroup = new NioEventLoopGroup();
-
-            Bootstrap bootstrap = new Bootstrap()
-                    .group(eventLoopGroup)
-                    .channel(NioSocketChannel.class)
-                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectionTimeout())
-                    .option(ChannelOption.SO_KEEPALIVE, true)
-                    .handler(new ChannelInitializer<SocketChannel>() {
-                        @Override
-                        protected void initChannel(SocketChannel ch) {
-                            ChannelPipeline pipeline = ch.pipeline();
-
-                            // Length-based frame decoder (2-byte length prefix)
-                            pipeline.addLast(new LengthFieldBasedFrameDecoder(65535, 0, 2, 0, 2));
-                            pipeline.addLast(new LengthFieldPrepender(2));
-
-                            // Read timeout
-                            pipeline.addLast(new ReadTimeoutHandler(config.getReadTimeout(), TimeUnit.MILLISECONDS));
-
-                            // Response handler
-                            pipeline.addLast(new ThalesResponseHandler());
-                        }
-                    });
-
-            ChannelFuture future = bootstrap.connect(config.getPrimaryHost(), config.getPrimaryPort()).sync();
-            channel = future.channel();
+            eventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("thales-hsm", true));
+
+            List<HsmConnection> pool = new ArrayList<>();
+            addUnit(pool, config.getPrimaryHost(), config.getPrimaryPort(), 0);
+            if (config.getSecondaryHost() != null && !config.getSecondaryHost().isEmpty()) {
+                addUnit(pool, config.getSecondaryHost(), config.getSecondaryPort(), 1);
+            }
+
+            List<CompletableFuture<Void>> attempts = new ArrayList<>();
+            for (HsmConnection connection : pool) {
+                attempts.add(connection.connect().exceptionally(e -> null));
+            }
+            CompletableFuture.allOf(attempts.toArray(new CompletableFuture[0]))
+                    .get(config.getConnectionTimeout() + 1000L, TimeUnit.MILLISECONDS);
+
+            long available = pool.stream().filter(HsmConnection::isAvailable).count();
+            if (available == 0) {
+                throw new HsmException("No HSM unit reachable", "31");
+            }
+
+            connections = Collections.unmodifiableList(pool);
+            long interval = config.getHealthCheckIntervalMs();
+            if (interval > 0) {
+                healthCheck = eventLoopGroup.scheduleWithFixedDelay(
+                        this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+            }
             connected = true;
 
-            log.info("Connected to Thales HSM at {}:{}", config.getPrimaryHost(), config.getPrimaryPort());
+            log.info("Connected to Thales HSM: {}/{} connections available", available, pool.size());
 
+        } catch (HsmException e) {
+            disconnect();
+            throw e;
         } catch (Exception e) {
             disconnect();
             throw new HsmException("Failed to connect to Thales HSM", e);
@@ -104,14 +120,18 @@ public class ThalesHsmAdapter implements HsmAdapter {
     }
 
     @Override
-    public void disconnect() {
+    public synchronized void disconnect() {
         connected = false;
-        if (channel != null) {
-            channel.close();
-            channel = null;
+        if (healthCheck != null) {
+            healthCheck.cancel(false);
+            healthCheck = null;
         }
+        for (HsmConnection connection : connections) {
+            connection.close();
+        }
+        connections = List.of();
         if (eventLoopGroup != null) {
-            eventLoopGroup.shutdownGracefully();
+            eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
             eventLoopGroup = null;
         }
         log.info("Disconnected from Thales HSM");
@@ -119,31 +139,127 @@ public class ThalesHsmAdapter implements HsmAdapter {
 
     @Override
     public boolean isConnected() {
-        return connected && channel != null && channel.isActive();
+        return connected && connections.stream().anyMatch(HsmConnection::isAvailable);
     }
 
     @Override
     public HsmResponse execute(HsmRequest request) throws HsmException {
-        ensureConnected();
+        try {
+            return executeAsync(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof HsmException hsmException) {
+                throw hsmException;
+            }
+            throw new HsmException("HSM request failed", e.getCause());
+        }
+    }
+
+    /**
+     * Executes an HSM command without blocking the caller.
+     *
+     * <p>The returned future completes on a Netty event loop thread; dependent
+     * stages that do real work should use the {@code *Async} variants.
+     */
+    @Override
+    public CompletableFuture<HsmResponse> executeAsync(HsmRequest request) {
+        HsmConnection connection;
+        byte[] message;
+        try {
+            ensureConnected();
+            connection = selectConnection();
+            message = buildMessage(request);
+        } catch (HsmException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
         String requestId = request.getRequestId() != null ? request.getRequestId() : generateRequestId();
-        CompletableFuture<HsmResponse> responseFuture = new CompletableFuture<>();
-        pendingRequests.put(requestId, responseFuture);
+        HsmLatencyHistogram histogram = latencies.get(request.getCommand());
+        HsmCallEvent event = new HsmCallEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+
+        return connection.send(message, request.getTimeoutMs()).thenApply(data -> {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            histogram.record(elapsedNanos);
+            HsmResponse response = parseResponse(data);
+            response.setRequestId(requestId);
+            response.setProcessingTimeMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            commitEvent(event, request, response.getResponseCode());
+            return response;
+        }).whenComplete((response, error) -> {
+            if (error != null) {
+                commitEvent(event, request, null);
+            }
+        });
+    }
 
+    private static void commitEvent(HsmCallEvent event, HsmRequest request, String responseCode) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setKeys(request.getChannel(), request.getStan(), null);
+            event.setCommand(request.getCommand().name());
+            event.setResponseCode(responseCode);
+            event.commit();
+        }
+    }
+
+    /**
+     * Executes many commands pipelined across the connection pool.
+     *
+     * <p>The batch keeps at most half of each available connection's in-flight
+     * window busy, leaving the rest for online traffic. A new command is sent
+     * as soon as a previous one completes, so throughput is bounded by HSM
+     * capacity rather than round trips. A command rejected before sending because
+     * the pool is busy (30) or has no healthy connection (31) is retried with
+     * exponential backoff until its own timeout, instead of failing the rest of
+     * the batch in a tight loop.
+     */
+    @Override
+    public CompletableFuture<List<HsmResponse>> executeBatch(List<HsmRequest> requests) {
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
         try {
-            byte[] message = buildMessage(request, requestId);
-            ByteBuf buffer = Unpooled.wrappedBuffer(message);
-            channel.writeAndFlush(buffer);
+            ensureConnected();
+        } catch (HsmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-            return responseFuture.get(request.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        long available = connections.stream().filter(HsmConnection::isAvailable).count();
+        int window = (int) Math.min(requests.size(),
+                Math.max(1, available * Math.max(1, config.getMaxInFlightPerConnection() / 2)));
 
-        } catch (TimeoutException e) {
-            throw new HsmException("HSM request timeout", "99");
-        } catch (Exception e) {
-            throw new HsmException("HSM request failed", e);
-        } finally {
-            pendingRequests.remove(requestId);
+        BatchRun batch = new BatchRun(requests);
+        for (int i = 0; i < window; i++) {
+            sendNext(batch);
         }
+        return batch.done;
+    }
+
+    /**
+     * Gets round-trip latency per command, for commands that have been executed.
+     */
+    public Map<HsmCommand, HsmLatencyHistogram.Snapshot> getLatencySnapshots() {
+        Map<HsmCommand, HsmLatencyHistogram.Snapshot> snapshots = new EnumMap<>(HsmCommand.class);
+        latencies.forEach((command, histogram) -> {
+            HsmLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            if (snapshot.count() > 0) {
+                snapshots.put(command, snapshot);
+            }
+        });
+        return snapshots;
+    }
+
+    /**
+     * Gets the state of each pooled connection.
+     */
+    public List<ConnectionStats> getConnectionStats() {
+        List<ConnectionStats> stats = new ArrayList<>();
+        for (HsmConnection connection : connections) {
+            stats.add(new ConnectionStats(connection.endpoint(), connection.getUnit(),
+                    connection.isAvailable(), connection.getInFlight()));
+        }
+        return stats;
     }
 
     @Override
@@ -273,15 +389,8 @@ public class ThalesHsmAdapter implements HsmAdapter {
         return execute(request);
     }
 
-    /**
-     * Sets the message header for Thales HSM.
-     */
-    public void setMessageHeader(String header) {
-        this.messageHeader = header;
-    }
-
     private void ensureConnected() throws HsmException {
-        if (!isConnected()) {
+        if (!connected) {
             if (config.isAutoReconnect()) {
                 connect();
             } else {
@@ -290,16 +399,145 @@ public class ThalesHsmAdapter implements HsmAdapter {
         }
     }
 
+    /**
+     * Sends batch commands until one is still pending or waiting to be retried;
+     * its completion continues the lane.
+     */
+    private void sendNext(BatchRun batch) {
+        int index;
+        while ((index = batch.next.getAndIncrement()) < batch.requests.size()) {
+            long deadlineNanos = System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(batch.requests.get(index).getTimeoutMs());
+            if (!sendBatchItem(batch, index, 0, deadlineNanos)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends one batch command.
+     *
+     * @return true if the command finished synchronously and the lane may move on,
+     *         false if a completion or scheduled retry will continue the lane
+     */
+    private boolean sendBatchItem(BatchRun batch, int index, int attempt, long deadlineNanos) {
+        CompletableFuture<HsmResponse> future = executeAsync(batch.requests.get(index));
+        if (!future.isDone()) {
+            future.whenComplete((response, error) -> {
+                batch.complete(index, response, error);
+                sendNext(batch);
+            });
+            return false;
+        }
+        try {
+            batch.complete(index, future.join(), null);
+        } catch (CompletionException e) {
+            if (isRetryable(e.getCause()) && scheduleBatchRetry(batch, index, attempt + 1, deadlineNanos)) {
+                return false;
+            }
+            batch.complete(index, null, e);
+        }
+        return true;
+    }
+
+    /**
+     * Schedules a retry of a batch command after an exponential backoff, as long as
+     * the retry still falls before the command's deadline.
+     */
+    private boolean scheduleBatchRetry(BatchRun batch, int index, int attempt, long deadlineNanos) {
+        long delayMs = Math.min(BATCH_RETRY_MAX_DELAY_MS,
+                BATCH_RETRY_INITIAL_DELAY_MS << Math.min(attempt - 1, 16));
+        EventLoopGroup group = eventLoopGroup;
+        if (group == null || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs) >= deadlineNanos) {
+            return false;
+        }
+        try {
+            group.schedule(() -> {
+                if (sendBatchItem(batch, index, attempt, deadlineNanos)) {
+                    sendNext(batch);
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Busy (30) and no healthy connection (31) are raised before anything is sent,
+     * so retrying them cannot duplicate a command.
+     */
+    private static boolean isRetryable(Throwable error) {
+        return error instanceof HsmException hsmException
+                && ("30".equals(hsmException.getErrorCode()) || "31".equals(hsmException.getErrorCode()));
+    }
+
+    private void addUnit(List<HsmConnection> pool, String host, int port, int unit) {
+        for (int i = 0; i < Math.max(1, config.getMaxConnections()); i++) {
+            pool.add(new HsmConnection(eventLoopGroup, config, host, port, unit));
+        }
+    }
+
+    /**
+     * Picks the least-loaded healthy connection of the highest-priority unit.
+     * Scanning starts at a random offset so ties spread across the pool.
+     */
+    private HsmConnection selectConnection() throws HsmException {
+        List<HsmConnection> pool = connections;
+        int size = pool.size();
+        int start = size > 0 ? ThreadLocalRandom.current().nextInt(size) : 0;
+        HsmConnection best = null;
+        for (int i = 0; i < size; i++) {
+            HsmConnection candidate = pool.get((start + i) % size);
+            if (!candidate.isAvailable()) {
+                continue;
+            }
+            if (best == null
+                    || candidate.getUnit() < best.getUnit()
+                    || (candidate.getUnit() == best.getUnit() && candidate.getInFlight() < best.getInFlight())) {
+                best = candidate;
+            }
+        }
+        if (best == null) {
+            throw new HsmException("No healthy HSM connection", "31");
+        }
+        if (best.getInFlight() >= config.getMaxInFlightPerConnection()) {
+            throw new HsmException("HSM busy", "30");
+        }
+        return best;
+    }
+
+    /**
+     * Probes active connections with a status command and reconnects dropped ones.
+     */
+    private void checkHealth() {
+        long now = System.currentTimeMillis();
+        for (HsmConnection connection : connections) {
+            if (connection.isActive()) {
+                connection.send(HEALTH_PROBE, config.getReadTimeout()).whenComplete((data, error) -> {
+                    if (error != null && connection.isAvailable()) {
+                        log.warn("HSM health probe failed on {}: {}", connection.endpoint(), error.getMessage());
+                    }
+                    connection.markHealthy(error == null);
+                });
+            } else if (config.isAutoReconnect()
+                    && now - connection.getLastConnectAttemptMs() >= config.getReconnectIntervalMs()) {
+                connection.connect().exceptionally(e -> {
+                    log.debug("HSM reconnect to {} failed: {}", connection.endpoint(), e.getMessage());
+                    return null;
+                });
+            }
+        }
+    }
+
     private String generateRequestId() {
         return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
-    private byte[] buildMessage(HsmRequest request, String requestId) {
+    private byte[] buildMessage(HsmRequest request) {
+        // The message header is added by the connection as the correlation tag
         StringBuilder sb = new StringBuilder();
 
-        // Add message header
-        sb.append(messageHeader);
-
         // Add command code based on command type
         String commandCode = getThalesCommandCode(request.getCommand());
         sb.append(commandCode);
@@ -342,9 +580,11 @@ public class ThalesHsmAdapter implements HsmAdapter {
     private HsmResponse parseResponse(byte[] responseData) {
         String response = new String(responseData, StandardCharsets.US_ASCII);
 
-        // Skip header, get response code (2 bytes after command code)
-        int headerLength = messageHeader.length();
-        String responseCode = response.substring(headerLength + 2, headerLength + 4);
+        // Header already stripped, get response code (2 bytes after command code)
+        if (response.length() < 4) {
+            throw new HsmException("Malformed HSM response", "31");
+        }
+        String responseCode = response.substring(2, 4);
 
         boolean success = "00".equals(responseCode);
 
@@ -355,8 +595,8 @@ public class ThalesHsmAdapter implements HsmAdapter {
                 .build();
 
         // Parse response data based on command
-        if (success && response.length() > headerLength + 4) {
-            String data = response.substring(headerLength + 4);
+        if (success && response.length() > 4) {
+            String data = response.substring(4);
             hsmResponse.addData("responseData", data);
         }
 
@@ -390,54 +630,42 @@ public class ThalesHsmAdapter implements HsmAdapter {
     }
 
     /**
-     * Netty handler for processing HSM responses.
+     * State of one pooled HSM connection.
      */
-    private class ThalesResponseHandler extends ChannelInboundHandlerAdapter {
-
-        @Override
-        public void channelRead(ChannelHandlerContext ctx, Object msg) {
-            ByteBuf buffer = (ByteBuf) msg;
-            try {
-                byte[] data = new byte[buffer.readableBytes()];
-                buffer.readBytes(data);
-
-                HsmResponse response = parseResponse(data);
-
-                // Complete the pending request
-                String requestId = extractRequestId(data);
-                CompletableFuture<HsmResponse> future = pendingRequests.get(requestId);
-                if (future != null) {
-                    response.setRequestId(requestId);
-                    future.complete(response);
-                }
+    public record ConnectionStats(
+            String endpoint,
+            int unit,
+            boolean available,
+            int inFlight
+    ) {}
 
-            } finally {
-                buffer.release();
-            }
+    /**
+     * Progress of one executeBatch call.
+     */
+    private static final class BatchRun {
+        final List<HsmRequest> requests;
+        final HsmResponse[] responses;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger remaining;
+        final CompletableFuture<List<HsmResponse>> done = new CompletableFuture<>();
+
+        BatchRun(List<HsmRequest> requests) {
+            this.requests = requests;
+            this.responses = new HsmResponse[requests.size()];
+            this.remaining = new AtomicInteger(requests.size());
         }
 
-        @Override
-        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-            log.error("HSM channel error", cause);
-            ctx.close();
-            connected = false;
-
-            // Fail all pending requests
-            for (CompletableFuture<HsmResponse> future : pendingRequests.values()) {
-                future.completeExceptionally(new HsmException("Channel error", cause));
+        void complete(int index, HsmResponse response, Throwable error) {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                String errorCode = cause instanceof HsmException hsmException ? hsmException.getErrorCode() : "99";
+                response = HsmResponse.failure(requests.get(index).getRequestId(), errorCode, cause.getMessage());
+            }
+            responses[index] = response;
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(List.of(responses));
             }
-            pendingRequests.clear();
-        }
-
-        @Override
-        public void channelInactive(ChannelHandlerContext ctx) {
-            log.warn("HSM connection lost");
-            connected = false;
-        }
-
-        private String extractRequestId(byte[] data) {
-            // In real implementation, extract from response header
-            return pendingRequests.keySet().stream().findFirst().orElse(null);
         }
     }
 }
@@ -2,14 +2,14 @@ package com.fep.security.key;
 
 import com.fep.security.crypto.CryptoException;
 import com.fep.security.crypto.CryptoService;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fep.security.crypto.PreparedKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -17,30 +17,32 @@ import java.util.concurrent.ConcurrentHashMap;
  * Key management service for managing cryptographic keys.
  * In production, keys should be stored in HSM. This implementation
  * provides a software-based key storage for development/testing.
+ *
+ * <p>Changes are serialized and published as an immutable {@link KeySnapshot};
+ * key lookups read the snapshot without locking.
  */
 @Service
 public class KeyManager {
 
     private static final Logger log = LoggerFactory.getLogger(KeyManager.class);
 
+    /** Default time a rotated-out key keeps verifying after rotation */
+    public static final Duration DEFAULT_ROTATION_OVERLAP = Duration.ofMinutes(5);
+
     private final CryptoService cryptoService;
 
     // Key storage (in production, this would be HSM)
     private final Map<String, byte[]> keyStore = new ConcurrentHashMap<>();
     private final Map<String, KeyInfo> keyInfoStore = new ConcurrentHashMap<>();
 
-    // Key cache for performance
-    private final Cache<String, byte[]> keyCache;
+    // Usable keys as seen by readers, replaced under writeLock
+    private volatile KeySnapshot snapshot = KeySnapshot.EMPTY;
+    private final Object writeLock = new Object();
 
-    // Current working keys by type
-    private final Map<KeyType, String> currentKeys = new ConcurrentHashMap<>();
+    private volatile Duration rotationOverlap = DEFAULT_ROTATION_OVERLAP;
 
     public KeyManager(CryptoService cryptoService) {
         this.cryptoService = cryptoService;
-        this.keyCache = Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterAccess(Duration.ofMinutes(30))
-                .build();
     }
 
     /**
@@ -74,9 +76,7 @@ public class KeyManager {
                 .hsmStored(false)
                 .build();
 
-        // Store key
-        keyStore.put(keyId, keyData);
-        keyInfoStore.put(keyId, keyInfo);
+        store(keyInfo, keyData);
 
         log.info("Generated new {} key: {} (KCV: {})", keyType, keyId, kcv);
         return keyInfo;
@@ -103,8 +103,7 @@ public class KeyManager {
                 .hsmStored(false)
                 .build();
 
-        keyStore.put(keyId, keyData.clone());
-        keyInfoStore.put(keyId, keyInfo);
+        store(keyInfo, keyData.clone());
 
         log.info("Imported {} key: {} (KCV: {})", keyType, keyId, kcv);
         return keyInfo;
@@ -144,20 +143,25 @@ public class KeyManager {
      * Gets a key by ID.
      */
     public byte[] getKey(String keyId) {
-        // Check cache first
-        byte[] cached = keyCache.getIfPresent(keyId);
-        if (cached != null) {
-            return cached.clone();
-        }
+        byte[] key = snapshot.keyData(keyId);
+        return key != null ? key.clone() : null;
+    }
 
-        // Get from store
-        byte[] key = keyStore.get(keyId);
-        if (key != null) {
-            keyCache.put(keyId, key);
-            return key.clone();
-        }
+    /**
+     * Gets the prepared JCA keys for a key ID.
+     *
+     * @return the prepared key, or null if the key does not exist or was revoked
+     */
+    public PreparedKey getPreparedKey(String keyId) {
+        return snapshot.getPreparedKey(keyId);
+    }
 
-        return null;
+    /**
+     * Gets the current key snapshot. The snapshot never changes; take it once
+     * per operation to resolve several keys consistently.
+     */
+    public KeySnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -202,7 +206,12 @@ public class KeyManager {
         if (keyInfo.getKeyType() != keyType) {
             throw new CryptoException("Key type mismatch: expected " + keyType + ", got " + keyInfo.getKeyType());
         }
-        currentKeys.put(keyType, keyId);
+        synchronized (writeLock) {
+            if (snapshot.getPreparedKey(keyId) == null) {
+                throw new CryptoException("Key is not usable: " + keyId);
+            }
+            snapshot = snapshot.withCurrent(keyType, keyId);
+        }
         log.info("Set current {} key to: {}", keyType, keyId);
     }
 
@@ -210,7 +219,7 @@ public class KeyManager {
      * Gets the current working key for a type.
      */
     public byte[] getCurrentKey(KeyType keyType) {
-        String keyId = currentKeys.get(keyType);
+        String keyId = snapshot.getCurrentKeyId(keyType);
         if (keyId == null) {
             throw new CryptoException("No current key set for type: " + keyType);
         }
@@ -221,37 +230,59 @@ public class KeyManager {
      * Gets current key ID for a type.
      */
     public String getCurrentKeyId(KeyType keyType) {
-        return currentKeys.get(keyType);
+        return snapshot.getCurrentKeyId(keyType);
+    }
+
+    /**
+     * Sets how long a rotated-out key keeps verifying after rotation.
+     */
+    public void setRotationOverlap(Duration rotationOverlap) {
+        this.rotationOverlap = rotationOverlap;
     }
 
     /**
      * Rotates a key - generates new key and marks old one as expired.
+     * The old key can no longer be used, except to verify for the rotation overlap.
      */
     public KeyInfo rotateKey(String oldKeyId) {
+        return rotateKey(oldKeyId, rotationOverlap);
+    }
+
+    /**
+     * Rotates a key with an explicit overlap window.
+     *
+     * @param oldKeyId key to retire
+     * @param overlap  how long the old key keeps verifying; zero for none
+     * @return the new key
+     */
+    public KeyInfo rotateKey(String oldKeyId, Duration overlap) {
         KeyInfo oldKeyInfo = getKeyInfo(oldKeyId);
         if (oldKeyInfo == null) {
             throw new CryptoException("Key not found: " + oldKeyId);
         }
 
-        // Mark old key as rotating
-        oldKeyInfo.setStatus(KeyStatus.ROTATING);
+        synchronized (writeLock) {
+            // Mark old key as rotating
+            oldKeyInfo.setStatus(KeyStatus.ROTATING);
 
-        // Generate new key
-        String newAlias = oldKeyInfo.getAlias() + "_v" + (oldKeyInfo.getVersion() + 1);
-        KeyInfo newKeyInfo = generateKey(oldKeyInfo.getKeyType(), newAlias);
-        newKeyInfo.setVersion(oldKeyInfo.getVersion() + 1);
+            // Generate new key
+            String newAlias = oldKeyInfo.getAlias() + "_v" + (oldKeyInfo.getVersion() + 1);
+            KeyInfo newKeyInfo = generateKey(oldKeyInfo.getKeyType(), newAlias);
+            newKeyInfo.setVersion(oldKeyInfo.getVersion() + 1);
 
-        // Mark old key as expired
-        oldKeyInfo.setStatus(KeyStatus.EXPIRED);
-        oldKeyInfo.setExpiresAt(LocalDateTime.now());
+            // Mark old key as expired
+            oldKeyInfo.setStatus(KeyStatus.EXPIRED);
+            oldKeyInfo.setExpiresAt(LocalDateTime.now());
 
-        // Update current key if applicable
-        if (oldKeyId.equals(currentKeys.get(oldKeyInfo.getKeyType()))) {
-            currentKeys.put(oldKeyInfo.getKeyType(), newKeyInfo.getKeyId());
-        }
+            // Switch the current key and open the overlap window in one publish
+            long acceptUntil = overlap.isZero() || overlap.isNegative()
+                    ? 0 : System.currentTimeMillis() + overlap.toMillis();
+            snapshot = snapshot.withRotation(oldKeyInfo.getKeyType(), oldKeyId, newKeyInfo.getKeyId(), acceptUntil);
 
-        log.info("Rotated key {} -> {} (version {})", oldKeyId, newKeyInfo.getKeyId(), newKeyInfo.getVersion());
-        return newKeyInfo;
+            log.info("Rotated key {} -> {} (version {}, overlap {})",
+                    oldKeyId, newKeyInfo.getKeyId(), newKeyInfo.getVersion(), overlap);
+            return newKeyInfo;
+        }
     }
 
     /**
@@ -263,11 +294,11 @@ public class KeyManager {
             throw new CryptoException("Key not found: " + keyId);
         }
 
-        keyInfo.setStatus(KeyStatus.REVOKED);
-        keyCache.invalidate(keyId);
-
-        // Remove from current keys if set
-        currentKeys.remove(keyInfo.getKeyType(), keyId);
+        synchronized (writeLock) {
+            keyInfo.setStatus(KeyStatus.REVOKED);
+            // Also drops it as current key and from any overlap window
+            snapshot = snapshot.withoutKey(keyId);
+        }
 
         log.info("Revoked key: {}", keyId);
     }
@@ -281,18 +312,18 @@ public class KeyManager {
             return;
         }
 
+        byte[] keyData;
+        synchronized (writeLock) {
+            snapshot = snapshot.withoutKey(keyId);
+            keyData = keyStore.remove(keyId);
+            keyInfo.setStatus(KeyStatus.DESTROYED);
+        }
+
         // Securely erase key data
-        byte[] keyData = keyStore.remove(keyId);
         if (keyData != null) {
             Arrays.fill(keyData, (byte) 0);
         }
 
-        keyCache.invalidate(keyId);
-        keyInfo.setStatus(KeyStatus.DESTROYED);
-
-        // Remove from current keys if set
-        currentKeys.remove(keyInfo.getKeyType(), keyId);
-
         log.info("Destroyed key: {}", keyId);
     }
 
@@ -338,10 +369,13 @@ public class KeyManager {
 
     /**
      * Checks for expired keys and returns count.
+     *
+     * <p>Expired keys and retired keys whose overlap window has closed are dropped
+     * from the snapshot. Lookups already refuse them past their expiry time; this
+     * marks their status and releases them.
      */
     public int checkExpiredKeys() {
         int count = 0;
-        LocalDateTime now = LocalDateTime.now();
         for (KeyInfo keyInfo : keyInfoStore.values()) {
             if (keyInfo.getStatus() == KeyStatus.ACTIVE && keyInfo.isExpired()) {
                 keyInfo.setStatus(KeyStatus.EXPIRED);
@@ -349,6 +383,9 @@ public class KeyManager {
                 log.warn("Key {} has expired", keyInfo.getKeyId());
             }
         }
+        synchronized (writeLock) {
+            snapshot = snapshot.without(Set.of(), System.currentTimeMillis());
+        }
         return count;
     }
 
@@ -372,6 +409,22 @@ public class KeyManager {
         return stats;
     }
 
+    private void store(KeyInfo keyInfo, byte[] keyData) {
+        PreparedKey prepared = cryptoService.prepareKey(keyData);
+        synchronized (writeLock) {
+            keyStore.put(keyInfo.getKeyId(), keyData);
+            keyInfoStore.put(keyInfo.getKeyId(), keyInfo);
+            snapshot = snapshot.withKey(keyInfo.getKeyId(), keyInfo.getKeyType(), keyData, prepared,
+                    expiresAtMillis(keyInfo.getExpiresAt()));
+        }
+    }
+
+    private static long expiresAtMillis(LocalDateTime expiresAt) {
+        return expiresAt != null
+                ? expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : Long.MAX_VALUE;
+    }
+
     private String generateKeyId(KeyType keyType) {
         return keyType.getShortName() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
@@ -0,0 +1,225 @@
+package com.fep.security.key;
+
+import com.fep.security.crypto.PreparedKey;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the usable keys, published by {@link KeyManager} on every
+ * generate, import, rotate, revoke, destroy or expiry.
+ *
+ * <p>Readers take the current snapshot from a volatile field and look keys up
+ * without locking, cloning or allocating. Revoked, destroyed and rotated-out keys
+ * are not usable; a key past its expiry time is refused by every lookup even
+ * before {@link KeyManager#checkExpiredKeys()} drops it.
+ *
+ * <p>When a key is rotated, the retired key becomes verify-only: it is no longer
+ * returned by {@link #getPreparedKey}, but {@link #getRetiredKey} and
+ * {@link #getVerifyKey} return it until its overlap window ends, so messages
+ * MAC'd with it before the switch still verify.
+ */
+public final class KeySnapshot {
+
+    static final KeySnapshot EMPTY = new KeySnapshot(0, Map.of(),
+            new EnumMap<>(KeyType.class), new EnumMap<>(KeyType.class));
+
+    private final long version;
+    private final Map<String, Entry> keys;
+    private final EnumMap<KeyType, Entry> current;
+    private final EnumMap<KeyType, Overlap> retired;
+
+    private KeySnapshot(long version, Map<String, Entry> keys,
+                        EnumMap<KeyType, Entry> current, EnumMap<KeyType, Overlap> retired) {
+        this.version = version;
+        this.keys = keys;
+        this.current = current;
+        this.retired = retired;
+    }
+
+    /**
+     * Gets the snapshot version, incremented on every change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the prepared key for a key ID, or null if the key is not usable.
+     */
+    public PreparedKey getPreparedKey(String keyId) {
+        return getPreparedKey(keyId, System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the prepared key for a key ID at a point in time.
+     *
+     * @param keyId     key identifier
+     * @param nowMillis current time in epoch milliseconds
+     * @return the prepared key, or null if the key is unknown, retired or expired
+     */
+    public PreparedKey getPreparedKey(String keyId, long nowMillis) {
+        Entry entry = keyId != null ? keys.get(keyId) : null;
+        return entry != null && entry.usableAt(nowMillis) ? entry.prepared : null;
+    }
+
+    /**
+     * Gets a key that may be used to verify: a usable key, or a key retired by
+     * rotation while its overlap window is open.
+     *
+     * @param keyId     key identifier
+     * @param nowMillis current time in epoch milliseconds
+     * @return the prepared key, or null if the key may not be used to verify
+     */
+    public PreparedKey getVerifyKey(String keyId, long nowMillis) {
+        PreparedKey key = getPreparedKey(keyId, nowMillis);
+        if (key != null || keyId == null) {
+            return key;
+        }
+        for (Overlap overlap : retired.values()) {
+            if (overlap.retired.keyId.equals(keyId) && overlap.acceptsAt(nowMillis)) {
+                return overlap.retired.prepared;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the current key ID for a type, or null if none is set.
+     */
+    public String getCurrentKeyId(KeyType keyType) {
+        Entry entry = current.get(keyType);
+        return entry != null ? entry.keyId : null;
+    }
+
+    /**
+     * Gets the prepared current key for a type, or null if none is set.
+     */
+    public PreparedKey getCurrentPreparedKey(KeyType keyType) {
+        Entry entry = current.get(keyType);
+        return entry != null && entry.usableAt(System.currentTimeMillis()) ? entry.prepared : null;
+    }
+
+    /**
+     * Gets the key retired by the last rotation to {@code keyId}, while its
+     * overlap window is still open.
+     *
+     * @param keyId      the key that replaced the retired key
+     * @param nowMillis  current time in epoch milliseconds
+     * @return the retired prepared key, or null if there is none or the window has closed
+     */
+    public PreparedKey getRetiredKey(String keyId, long nowMillis) {
+        Entry entry = keyId != null ? keys.get(keyId) : null;
+        if (entry == null) {
+            return null;
+        }
+        Overlap overlap = retired.get(entry.keyType);
+        if (overlap == null || !overlap.successorId.equals(keyId) || !overlap.acceptsAt(nowMillis)) {
+            return null;
+        }
+        return overlap.retired.prepared;
+    }
+
+    /**
+     * Gets the number of keys in the snapshot, not counting retired keys.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    byte[] keyData(String keyId) {
+        Entry entry = keys.get(keyId);
+        return entry != null && entry.usableAt(System.currentTimeMillis()) ? entry.keyData : null;
+    }
+
+    KeySnapshot withKey(String keyId, KeyType keyType, byte[] keyData, PreparedKey prepared,
+                        long expiresAtMillis) {
+        Map<String, Entry> nextKeys = new HashMap<>(keys);
+        nextKeys.put(keyId, new Entry(keyId, keyType, keyData, prepared, expiresAtMillis));
+        return new KeySnapshot(version + 1, Collections.unmodifiableMap(nextKeys), current, retired);
+    }
+
+    KeySnapshot withoutKey(String keyId) {
+        return without(Set.of(keyId), Long.MAX_VALUE);
+    }
+
+    /**
+     * Drops the given keys, keys expired at {@code nowMillis} and overlap windows
+     * that have closed; returns this snapshot if nothing changes.
+     */
+    KeySnapshot without(Set<String> keyIds, long nowMillis) {
+        Map<String, Entry> nextKeys = new HashMap<>(keys);
+        nextKeys.values().removeIf(entry -> keyIds.contains(entry.keyId) || !entry.usableAt(nowMillis));
+
+        EnumMap<KeyType, Entry> nextCurrent = new EnumMap<>(current);
+        nextCurrent.values().removeIf(entry -> !nextKeys.containsKey(entry.keyId));
+
+        EnumMap<KeyType, Overlap> nextRetired = new EnumMap<>(retired);
+        nextRetired.values().removeIf(overlap -> keyIds.contains(overlap.retired.keyId)
+                || !overlap.acceptsAt(nowMillis)
+                || !nextKeys.containsKey(overlap.successorId));
+
+        if (nextKeys.size() == keys.size() && nextRetired.size() == retired.size()) {
+            return this;
+        }
+        return new KeySnapshot(version + 1, Collections.unmodifiableMap(nextKeys), nextCurrent, nextRetired);
+    }
+
+    KeySnapshot withCurrent(KeyType keyType, String keyId) {
+        EnumMap<KeyType, Entry> nextCurrent = new EnumMap<>(current);
+        nextCurrent.put(keyType, keys.get(keyId));
+        return new KeySnapshot(version + 1, keys, nextCurrent, retired);
+    }
+
+    /**
+     * Replaces {@code retiredId} by {@code successorId}. The retired key leaves the
+     * usable keys and stays verify-only until {@code acceptUntilMillis} (0 for no overlap).
+     */
+    KeySnapshot withRotation(KeyType keyType, String retiredId, String successorId, long acceptUntilMillis) {
+        Map<String, Entry> nextKeys = new HashMap<>(keys);
+        Entry retiredEntry = nextKeys.remove(retiredId);
+
+        EnumMap<KeyType, Entry> nextCurrent = new EnumMap<>(current);
+        if (retiredEntry != null && current.get(keyType) == retiredEntry) {
+            nextCurrent.put(keyType, keys.get(successorId));
+        }
+        EnumMap<KeyType, Overlap> nextRetired = new EnumMap<>(retired);
+        if (retiredEntry != null && acceptUntilMillis > 0) {
+            nextRetired.put(keyType, new Overlap(retiredEntry, successorId, acceptUntilMillis));
+        } else {
+            nextRetired.remove(keyType);
+        }
+        return new KeySnapshot(version + 1, Collections.unmodifiableMap(nextKeys), nextCurrent, nextRetired);
+    }
+
+    private static final class Entry {
+        private final String keyId;
+        private final KeyType keyType;
+        private final byte[] keyData;
+        private final PreparedKey prepared;
+        /** Epoch millis from which the key is refused; {@link Long#MAX_VALUE} if it never expires */
+        private final long expiresAtMillis;
+
+        private Entry(String keyId, KeyType keyType, byte[] keyData, PreparedKey prepared, long expiresAtMillis) {
+            this.keyId = keyId;
+            this.keyType = keyType;
+            this.keyData = keyData;
+            this.prepared = prepared;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean usableAt(long nowMillis) {
+            return nowMillis < expiresAtMillis;
+        }
+    }
+
+    private record Overlap(Entry retired, String successorId, long acceptUntilMillis) {
+
+        boolean acceptsAt(long nowMillis) {
+            return nowMillis < acceptUntilMillis;
+        }
+    }
+}
@@ -2,15 +2,21 @@ package com.fep.security.mac;
 
 import com.fep.security.crypto.CryptoException;
 import com.fep.security.crypto.CryptoService;
+import com.fep.security.crypto.PreparedKey;
 import com.fep.security.key.KeyManager;
+import com.fep.security.key.KeySnapshot;
 import com.fep.security.key.KeyType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service for MAC (Message Authentication Code) calculation and verification.
@@ -21,6 +27,18 @@ public class MacService {
 
     private static final Logger log = LoggerFactory.getLogger(MacService.class);
 
+    // Mac instances reused per thread (Mac is not thread-safe)
+    private static final ThreadLocal<Mac> HMAC_SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new CryptoException("HmacSHA256 not available", e);
+        }
+    });
+
+    // MACs per task in batch verification
+    private static final int BATCH_CHUNK_SIZE = 128;
+
     private final CryptoService cryptoService;
     private final KeyManager keyManager;
 
@@ -38,18 +56,7 @@ public class MacService {
      * @return MAC value
      */
     public byte[] calculateMac(MacAlgorithm algorithm, String keyId, byte[] data) {
-        byte[] key = keyManager.getKey(keyId);
-        if (key == null) {
-            throw new CryptoException("MAC key not found: " + keyId);
-        }
-
-        return switch (algorithm) {
-            case ISO_9797_ALG1 -> calculateIso9797Alg1(key, data);
-            case ISO_9797_ALG3 -> calculateIso9797Alg3(key, data);
-            case ANSI_X9_19 -> calculateAnsiX919(key, data);
-            case AES_CMAC -> calculateAesCmac(key, data);
-            case HMAC_SHA256 -> calculateHmacSha256(key, data);
-        };
+        return calculateMac(algorithm, preparedKey(keyManager.getSnapshot(), keyId), data);
     }
 
     /**
@@ -63,6 +70,10 @@ public class MacService {
     /**
      * Verifies a MAC value.
      *
+     * <p>If {@code keyId} replaced another key by rotation and the overlap window
+     * is still open, a MAC made with the retired key is also accepted. A retired
+     * {@code keyId} itself verifies only during its overlap window.
+     *
      * @param algorithm   MAC algorithm
      * @param keyId       key identifier
      * @param data        original data
@@ -70,8 +81,13 @@ public class MacService {
      * @return true if MAC is valid
      */
     public boolean verifyMac(MacAlgorithm algorithm, String keyId, byte[] data, byte[] expectedMac) {
-        byte[] calculatedMac = calculateMac(algorithm, keyId, data);
-        return constantTimeEquals(calculatedMac, expectedMac);
+        KeySnapshot keys = keyManager.getSnapshot();
+        long now = System.currentTimeMillis();
+        PreparedKey key = keys.getVerifyKey(keyId, now);
+        if (key == null) {
+            throw new CryptoException("MAC key not found: " + keyId);
+        }
+        return verify(algorithm, key, keys.getRetiredKey(keyId, now), data, expectedMac);
     }
 
     /**
@@ -82,6 +98,58 @@ public class MacService {
         return verifyMac(algorithm, keyId, data, expectedMac);
     }
 
+    /**
+     * Verifies many MACs.
+     *
+     * <p>Items are grouped by algorithm and key, so each key is resolved once per
+     * batch, and chunks of items run in parallel when the batch spans more than
+     * one. An item whose key cannot be found fails verification. A key retired by
+     * rotation is accepted during its overlap window, as in {@link #verifyMac}.
+     *
+     * @param requests items to verify
+     * @return verification results, in request order
+     */
+    public boolean[] verifyMacs(List<MacVerificationRequest> requests) {
+        boolean[] results = new boolean[requests.size()];
+
+        Map<MacKey, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            MacVerificationRequest request = requests.get(i);
+            groups.computeIfAbsent(new MacKey(request.algorithm(), request.keyId()),
+                    key -> new ArrayList<>()).add(i);
+        }
+
+        KeySnapshot keys = keyManager.getSnapshot();
+        long now = System.currentTimeMillis();
+
+        List<Runnable> chunks = new ArrayList<>();
+        for (Map.Entry<MacKey, List<Integer>> group : groups.entrySet()) {
+            MacKey macKey = group.getKey();
+            List<Integer> indexes = group.getValue();
+            PreparedKey key = keys.getVerifyKey(macKey.keyId(), now);
+            PreparedKey retired = keys.getRetiredKey(macKey.keyId(), now);
+            if (key == null) {
+                log.warn("MAC key not found: {}, failing {} items", macKey.keyId(), indexes.size());
+                continue;
+            }
+            for (int from = 0; from < indexes.size(); from += BATCH_CHUNK_SIZE) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + BATCH_CHUNK_SIZE, indexes.size()));
+                chunks.add(() -> {
+                    for (int index : chunk) {
+                        results[index] = verifyItem(macKey.algorithm(), key, retired, requests.get(index));
+                    }
+                });
+            }
+        }
+
+        if (chunks.size() > 1) {
+            chunks.parallelStream().forEach(Runnable::run);
+        } else {
+            chunks.forEach(Runnable::run);
+        }
+        return results;
+    }
+
     /**
      * Calculates 4-byte MAC (commonly used in ATM transactions).
      */
@@ -95,24 +163,9 @@ public class MacService {
      *
      * Process: CBC encrypt all blocks, MAC = last block
      */
-    private byte[] calculateIso9797Alg1(byte[] key, byte[] data) {
-        // Use first 8 bytes of key for single DES
-        byte[] desKey = Arrays.copyOf(key, 8);
-
-        // Pad data to 8-byte boundary
-        byte[] paddedData = padIso9797Method1(data);
-
-        // CBC encrypt using zero IV
-        byte[] iv = new byte[8];
-        byte[] result = iv;
-
-        for (int i = 0; i < paddedData.length; i += 8) {
-            byte[] block = Arrays.copyOfRange(paddedData, i, i + 8);
-            byte[] xored = cryptoService.xor(result, block);
-            result = cryptoService.encryptDes(desKey, xored);
-        }
-
-        return result;
+    private byte[] calculateIso9797Alg1(PreparedKey key, byte[] data) {
+        // Single DES with K1 over the zero-padded data
+        return cryptoService.cbcMac(key.left(), padIso9797Method1(data));
     }
 
     /**
@@ -120,29 +173,13 @@ public class MacService {
      *
      * Process: DES-CBC with K1, final block encrypted with full 3DES
      */
-    private byte[] calculateIso9797Alg3(byte[] key, byte[] data) {
-        // K1 = first 8 bytes, K2 = second 8 bytes
-        byte[] k1 = Arrays.copyOf(key, 8);
-        byte[] k2 = Arrays.copyOfRange(key, 8, 16);
-
-        // Pad data
-        byte[] paddedData = padIso9797Method1(data);
-
+    private byte[] calculateIso9797Alg3(PreparedKey key, byte[] data) {
         // DES-CBC with K1
-        byte[] iv = new byte[8];
-        byte[] result = iv;
-
-        for (int i = 0; i < paddedData.length; i += 8) {
-            byte[] block = Arrays.copyOfRange(paddedData, i, i + 8);
-            byte[] xored = cryptoService.xor(result, block);
-            result = cryptoService.encryptDes(k1, xored);
-        }
+        byte[] result = cryptoService.cbcMac(key.left(), padIso9797Method1(data));
 
         // Final block: decrypt with K2, encrypt with K1
-        byte[] decrypted = cryptoService.decryptDes(k2, result);
-        result = cryptoService.encryptDes(k1, decrypted);
-
-        return result;
+        byte[] decrypted = cryptoService.decryptDes(key.right(), result);
+        return cryptoService.encryptDes(key.left(), decrypted);
     }
 
     /**
@@ -151,40 +188,22 @@ public class MacService {
      * Process: Single DES CBC for all blocks except last,
      * then 3DES for final block
      */
-    private byte[] calculateAnsiX919(byte[] key, byte[] data) {
-        // Use full 24-byte key for 3DES, first 8 bytes for single DES
-        byte[] desKey = Arrays.copyOf(key, 8);
-
-        // Pad data
-        byte[] paddedData = padIso9797Method2(data);
-
-        // DES-CBC for all blocks
-        byte[] iv = new byte[8];
-        byte[] result = iv;
-
-        for (int i = 0; i < paddedData.length; i += 8) {
-            byte[] block = Arrays.copyOfRange(paddedData, i, i + 8);
-            byte[] xored = cryptoService.xor(result, block);
-            result = cryptoService.encryptDes(desKey, xored);
-        }
+    private byte[] calculateAnsiX919(PreparedKey key, byte[] data) {
+        // DES-CBC with K1 for all blocks
+        byte[] result = cryptoService.cbcMac(key.left(), padIso9797Method2(data));
 
         // Final encryption with 3DES
-        result = cryptoService.encryptTdes(key, result);
-
-        return result;
+        return cryptoService.encryptTdes(key.tdes(), result);
     }
 
     /**
      * AES-CMAC (Cipher-based MAC using AES)
      */
-    private byte[] calculateAesCmac(byte[] key, byte[] data) {
+    private byte[] calculateAesCmac(PreparedKey key, byte[] data) {
         try {
-            // Use first 16 bytes for AES-128 (key might be 24 bytes from 3DES store)
-            byte[] aesKey = key.length > 16 ? Arrays.copyOf(key, 16) : key;
-
-            // Generate subkeys
+            // Generate subkeys (AES-128 from the first 16 key bytes)
             byte[] zeroBlock = new byte[16];
-            byte[] l = cryptoService.encryptAes(aesKey, zeroBlock);
+            byte[] l = cryptoService.encryptAes(key.aes(), zeroBlock);
             byte[] k1 = generateSubkey(l);
             byte[] k2 = generateSubkey(k1);
 
@@ -207,15 +226,11 @@ public class MacService {
                 mn = xor16(padded, k2);
             }
 
-            // CBC-MAC
-            byte[] x = new byte[16];
-            for (int i = 0; i < n - 1; i++) {
-                byte[] block = Arrays.copyOfRange(data, i * 16, (i + 1) * 16);
-                x = cryptoService.encryptAes(aesKey, xor16(x, block));
-            }
-            x = cryptoService.encryptAes(aesKey, xor16(x, mn));
-
-            return x;
+            // CBC-MAC over the leading blocks followed by the final block
+            byte[] blocks = new byte[n * 16];
+            System.arraycopy(data, 0, blocks, 0, (n - 1) * 16);
+            System.arraycopy(mn, 0, blocks, (n - 1) * 16, 16);
+            return cryptoService.cbcMac(key.aes(), blocks);
         } catch (Exception e) {
             throw new CryptoException("AES-CMAC calculation failed", e);
         }
@@ -224,17 +239,58 @@ public class MacService {
     /**
      * HMAC-SHA256
      */
-    private byte[] calculateHmacSha256(byte[] key, byte[] data) {
+    private byte[] calculateHmacSha256(PreparedKey key, byte[] data) {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec keySpec = new SecretKeySpec(key, "HmacSHA256");
-            mac.init(keySpec);
+            Mac mac = HMAC_SHA256.get();
+            mac.init(key.hmac());
             return mac.doFinal(data);
         } catch (Exception e) {
             throw new CryptoException("HMAC-SHA256 calculation failed", e);
         }
     }
 
+    private boolean verifyItem(MacAlgorithm algorithm, PreparedKey key, PreparedKey retired,
+                               MacVerificationRequest request) {
+        if (request.data() == null || request.expectedMac() == null) {
+            return false;
+        }
+        try {
+            return verify(algorithm, key, retired, request.data(), request.expectedMac());
+        } catch (CryptoException e) {
+            log.warn("MAC verification failed with error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks the MAC against the key and, failing that, the key it replaced.
+     */
+    private boolean verify(MacAlgorithm algorithm, PreparedKey key, PreparedKey retired,
+                           byte[] data, byte[] expectedMac) {
+        if (constantTimeEquals(calculateMac(algorithm, key, data), expectedMac)) {
+            return true;
+        }
+        return retired != null && constantTimeEquals(calculateMac(algorithm, retired, data), expectedMac);
+    }
+
+    private byte[] calculateMac(MacAlgorithm algorithm, PreparedKey key, byte[] data) {
+        return switch (algorithm) {
+            case ISO_9797_ALG1 -> calculateIso9797Alg1(key, data);
+            case ISO_9797_ALG3 -> calculateIso9797Alg3(key, data);
+            case ANSI_X9_19 -> calculateAnsiX919(key, data);
+            case AES_CMAC -> calculateAesCmac(key, data);
+            case HMAC_SHA256 -> calculateHmacSha256(key, data);
+        };
+    }
+
+    private PreparedKey preparedKey(KeySnapshot keys, String keyId) {
+        PreparedKey key = keys.getPreparedKey(keyId);
+        if (key == null) {
+            throw new CryptoException("MAC key not found: " + keyId);
+        }
+        return key;
+    }
+
     // ISO 9797-1 Padding Method 1 (zero padding to block boundary)
     private byte[] padIso9797Method1(byte[] data) {
         int blockSize = 8;
@@ -296,4 +352,7 @@ public class MacService {
         }
         return result == 0;
     }
+
+    private record MacKey(MacAlgorithm algorithm, String keyId) {
+    }
 }
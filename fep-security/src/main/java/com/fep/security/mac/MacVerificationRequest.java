@@ -0,0 +1,12 @@
+package com.fep.security.mac;
+
+/**
+ * One item of a batch MAC verification.
+ *
+ * @param algorithm   MAC algorithm
+ * @param keyId       key identifier
+ * @param data        original data
+ * @param expectedMac MAC value to verify
+ */
+public record MacVerificationRequest(MacAlgorithm algorithm, String keyId, byte[] data, byte[] expectedMac) {
+}
@@ -4,10 +4,21 @@ import com.fep.security.crypto.CryptoException;
 import com.fep.security.crypto.CryptoService;
 import com.fep.security.key.KeyManager;
 import com.fep.security.key.KeyType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Service for PAN (Primary Account Number) encryption and decryption.
@@ -15,6 +26,16 @@ import java.nio.charset.StandardCharsets;
  *
  * <p>Uses 3DES (Triple DES) encryption with ISO 9797-1 padding method 2.
  * Encrypted PAN is stored as hex string in the database.</p>
+ *
+ * <p>PAN hashes are keyed HMAC-SHA256 values, so they cannot be brute-forced
+ * over the small PAN space without the key. Encrypted PANs are cached by hash:
+ * the cache holds only hashes and ciphertext, never clear PANs.</p>
+ *
+ * <p>The HMAC key must be shared by every node and survive restarts, so it is never
+ * generated here: it has to be imported into the {@link KeyManager} under
+ * {@link #PAN_HMAC_KEY_ALIAS} (from configuration or the HSM) before first use.
+ * Rows written before keyed hashing hold an unkeyed SHA-256; see
+ * {@link #hashCandidates(String)} and {@link #isLegacyHash(String, String)}.</p>
  */
 @Slf4j
 @Service
@@ -23,16 +44,52 @@ public class PanEncryptionService {
     private static final int TDES_BLOCK_SIZE = 8;
     private static final String PAN_KEY_ALIAS = "PAN_DEK";
 
+    /** Key alias the PAN HMAC key must be imported under */
+    public static final String PAN_HMAC_KEY_ALIAS = "PAN_HMAC";
+
+    private static final int DEFAULT_TOKEN_CACHE_SIZE = 100_000;
+    private static final Duration DEFAULT_TOKEN_TTL = Duration.ofMinutes(10);
+
+    // Mac instances reused per thread (Mac is not thread-safe)
+    private static final ThreadLocal<Mac> HMAC_SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new CryptoException("HmacSHA256 not available", e);
+        }
+    });
+
     private final CryptoService cryptoService;
     private final KeyManager keyManager;
+    private final Cache<String, String> tokenCache;
+
+    private final Object keyLock = new Object();
+    private volatile PanKeys panKeys;
 
+    @Autowired
     public PanEncryptionService(CryptoService cryptoService, KeyManager keyManager) {
+        this(cryptoService, keyManager, DEFAULT_TOKEN_CACHE_SIZE, DEFAULT_TOKEN_TTL);
+    }
+
+    /**
+     * Creates the service with a custom hash-to-ciphertext cache.
+     *
+     * @param tokenCacheSize maximum cached entries; 0 disables the cache
+     * @param tokenTtl       time an entry stays cached after it is written
+     */
+    public PanEncryptionService(CryptoService cryptoService, KeyManager keyManager,
+                                int tokenCacheSize, Duration tokenTtl) {
         this.cryptoService = cryptoService;
         this.keyManager = keyManager;
+        this.tokenCache = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfterWrite(tokenTtl)
+                .build();
     }
 
     /**
      * Encrypts a PAN value.
+     * Whitespace is removed first, so grouped and ungrouped PANs encrypt alike.
      *
      * @param pan the plaintext PAN (13-19 digits)
      * @return encrypted PAN as hex string, or null if input is null
@@ -43,14 +100,29 @@ public class PanEncryptionService {
             return null;
         }
 
-        validatePan(pan);
+        String digits = PanNormalizer.normalizeAndValidate(pan);
+        PanKeys keys = keys();
+        return tokenCache.get(hmacHex(keys, digits), hash -> encryptDigits(keys, digits));
+    }
 
-        byte[] key = getOrCreatePanKey();
-        byte[] panBytes = pan.getBytes(StandardCharsets.UTF_8);
-        byte[] padded = cryptoService.padIso9797Method2(panBytes, TDES_BLOCK_SIZE);
-        byte[] encrypted = cryptoService.encryptTdes(key, padded);
+    /**
+     * Produces the masked PAN, hash and encrypted PAN in one pass, for callers
+     * that store or log all three.
+     *
+     * @param pan the plaintext PAN (13-19 digits)
+     * @return the protected forms, or null if input is null or empty
+     * @throws IllegalArgumentException if the PAN format is invalid
+     */
+    public ProtectedPan protect(String pan) {
+        if (pan == null || pan.isEmpty()) {
+            return null;
+        }
 
-        return cryptoService.bytesToHex(encrypted);
+        String digits = PanNormalizer.normalizeAndValidate(pan);
+        PanKeys keys = keys();
+        String hash = hmacHex(keys, digits);
+        String encrypted = tokenCache.get(hash, h -> encryptDigits(keys, digits));
+        return new ProtectedPan(maskDigits(digits), hash, encrypted);
     }
 
     /**
@@ -65,12 +137,16 @@ public class PanEncryptionService {
             return null;
         }
 
-        byte[] key = getOrCreatePanKey();
         byte[] encrypted = cryptoService.hexToBytes(encryptedPan);
-        byte[] decrypted = cryptoService.decryptTdes(key, encrypted);
-        byte[] unpadded = cryptoService.unpadIso9797Method2(decrypted);
-
-        return new String(unpadded, StandardCharsets.UTF_8);
+        byte[] decrypted = cryptoService.decryptTdes(keys().encryptionKey(), encrypted);
+        try {
+            byte[] unpadded = cryptoService.unpadIso9797Method2(decrypted);
+            String pan = new String(unpadded, StandardCharsets.UTF_8);
+            Arrays.fill(unpadded, (byte) 0);
+            return pan;
+        } finally {
+            Arrays.fill(decrypted, (byte) 0);
+        }
     }
 
     /**
@@ -86,69 +162,158 @@ public class PanEncryptionService {
             return null;
         }
 
-        String digitsOnly = pan.replaceAll("\\s", "");
-        if (digitsOnly.length() < 13) {
-            // Invalid PAN length, return fully masked
-            return "*".repeat(digitsOnly.length());
-        }
-
-        String first6 = digitsOnly.substring(0, 6);
-        String last4 = digitsOnly.substring(digitsOnly.length() - 4);
-        int middleLength = digitsOnly.length() - 10;
-
-        return first6 + "*".repeat(middleLength) + last4;
+        return maskDigits(PanNormalizer.normalize(pan));
     }
 
     /**
-     * Calculates SHA-256 hash of PAN for indexing purposes.
+     * Calculates a keyed HMAC-SHA256 of the PAN for indexing purposes.
      * Hash allows searching without exposing the actual PAN.
      *
      * @param pan the plaintext PAN
-     * @return SHA-256 hash as hex string, or null if input is null
+     * @return HMAC-SHA256 as hex string, or null if input is null
      */
     public String hash(String pan) {
         if (pan == null || pan.isEmpty()) {
             return null;
         }
 
-        String digitsOnly = pan.replaceAll("\\s", "");
-        byte[] hashBytes = cryptoService.sha256(digitsOnly.getBytes(StandardCharsets.UTF_8));
-        return cryptoService.bytesToHex(hashBytes);
+        return hmacHex(keys(), PanNormalizer.normalize(pan));
     }
 
     /**
-     * Validates PAN format.
+     * Calculates the unkeyed SHA-256 hash that was stored before keyed hashing.
+     * Only for reading and migrating existing rows; never store it for new rows.
      *
-     * @param pan the PAN to validate
-     * @throws IllegalArgumentException if PAN format is invalid
+     * @param pan the plaintext PAN
+     * @return SHA-256 as hex string, or null if input is null
      */
-    private void validatePan(String pan) {
-        String digitsOnly = pan.replaceAll("\\s", "");
+    public String legacyHash(String pan) {
+        if (pan == null || pan.isEmpty()) {
+            return null;
+        }
 
-        if (!digitsOnly.matches("\\d+")) {
-            throw new IllegalArgumentException("PAN must contain only digits");
+        byte[] panBytes = PanNormalizer.normalize(pan).getBytes(StandardCharsets.UTF_8);
+        try {
+            return cryptoService.bytesToHex(cryptoService.sha256(panBytes));
+        } finally {
+            Arrays.fill(panBytes, (byte) 0);
         }
+    }
 
-        if (digitsOnly.length() < 13 || digitsOnly.length() > 19) {
-            throw new IllegalArgumentException("PAN must be between 13 and 19 digits");
+    /**
+     * Gets every hash a stored row for this PAN may carry: the current HMAC first,
+     * then the legacy SHA-256. Lookups by hash should match any of them until
+     * existing rows have been migrated.
+     *
+     * @param pan the plaintext PAN
+     * @return current and legacy hashes, or an empty list if input is null
+     */
+    public List<String> hashCandidates(String pan) {
+        if (pan == null || pan.isEmpty()) {
+            return List.of();
         }
+
+        return List.of(hash(pan), legacyHash(pan));
     }
 
     /**
-     * Gets or creates the PAN encryption key.
-     * In production, this key should be pre-loaded from HSM during startup.
+     * Checks whether a stored hash is the legacy SHA-256 of the PAN and should be
+     * rewritten with {@link #hash(String)}.
      *
-     * @return the 3DES key (24 bytes) for PAN encryption
+     * @param pan        the plaintext PAN
+     * @param storedHash hash read from storage
+     * @return true if {@code storedHash} is the legacy hash of {@code pan}
+     */
+    public boolean isLegacyHash(String pan, String storedHash) {
+        return storedHash != null && storedHash.equalsIgnoreCase(legacyHash(pan));
+    }
+
+    /**
+     * Loads the PAN keys, failing if the HMAC key has not been provisioned.
+     * Called at startup so a node without the shared key never writes hashes.
+     *
+     * @throws CryptoException if the HMAC key is missing
+     */
+    @PostConstruct
+    public void verifyKeys() {
+        keys();
+    }
+
+    private String maskDigits(String digits) {
+        if (digits.length() < PanNormalizer.MIN_LENGTH) {
+            // Invalid PAN length, return fully masked
+            return "*".repeat(digits.length());
+        }
+
+        int middleLength = digits.length() - 10;
+        StringBuilder sb = new StringBuilder(digits.length());
+        sb.append(digits, 0, 6);
+        for (int i = 0; i < middleLength; i++) {
+            sb.append('*');
+        }
+        return sb.append(digits, digits.length() - 4, digits.length()).toString();
+    }
+
+    private String encryptDigits(PanKeys keys, String digits) {
+        byte[] panBytes = digits.getBytes(StandardCharsets.US_ASCII);
+        byte[] padded = cryptoService.padIso9797Method2(panBytes, TDES_BLOCK_SIZE);
+        try {
+            return cryptoService.bytesToHex(cryptoService.encryptTdes(keys.encryptionKey(), padded));
+        } finally {
+            Arrays.fill(panBytes, (byte) 0);
+            Arrays.fill(padded, (byte) 0);
+        }
+    }
+
+    private String hmacHex(PanKeys keys, String digits) {
+        byte[] panBytes = digits.getBytes(StandardCharsets.US_ASCII);
+        try {
+            Mac mac = HMAC_SHA256.get();
+            mac.init(keys.hmacKey());
+            return cryptoService.bytesToHex(mac.doFinal(panBytes));
+        } catch (Exception e) {
+            throw new CryptoException("PAN hash calculation failed", e);
+        } finally {
+            Arrays.fill(panBytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Gets the PAN keys, loading them once. The encryption key is created if absent;
+     * the HMAC key must already be loaded, since a generated one would differ per
+     * node and per restart and break every stored hash.
      */
-    private byte[] getOrCreatePanKey() {
-        byte[] key = keyManager.getKeyByAlias(PAN_KEY_ALIAS);
+    private PanKeys keys() {
+        PanKeys keys = panKeys;
+        if (keys != null) {
+            return keys;
+        }
+        synchronized (keyLock) {
+            if (panKeys == null) {
+                byte[] encryptionKey = getOrCreateKey(KeyType.DEK, PAN_KEY_ALIAS);
+                byte[] hmacKey = keyManager.getKeyByAlias(PAN_HMAC_KEY_ALIAS);
+                if (hmacKey == null) {
+                    throw new CryptoException("PAN HMAC key '" + PAN_HMAC_KEY_ALIAS
+                            + "' is not loaded; configure fep.security.pan.hmac-key or load it from the HSM");
+                }
+                panKeys = new PanKeys(cryptoService.prepareKey(encryptionKey).tdes(),
+                        new SecretKeySpec(hmacKey, "HmacSHA256"));
+                Arrays.fill(encryptionKey, (byte) 0);
+                Arrays.fill(hmacKey, (byte) 0);
+            }
+            return panKeys;
+        }
+    }
+
+    private byte[] getOrCreateKey(KeyType keyType, String alias) {
+        byte[] key = keyManager.getKeyByAlias(alias);
 
         if (key == null) {
-            log.info("PAN encryption key not found, generating new key with alias: {}", PAN_KEY_ALIAS);
-            // Generate 3DES key (24 bytes)
+            log.info("PAN key not found, generating new key with alias: {}", alias);
+            // Generate 3DES-length key (24 bytes)
             key = cryptoService.generateTdesKey();
-            keyManager.importKey(KeyType.DEK, PAN_KEY_ALIAS, key);
-            keyManager.setCurrentKey(KeyType.DEK, keyManager.getKeyInfoByAlias(PAN_KEY_ALIAS).getKeyId());
+            String keyId = keyManager.importKey(keyType, alias, key).getKeyId();
+            keyManager.setCurrentKey(keyType, keyId);
         }
 
         return key;
@@ -166,9 +331,21 @@ public class PanEncryptionService {
         }
         // Encrypted PAN should be hex string with even length (at least 16 chars for 3DES min block)
         // and contains only hex characters (not just digits like a raw PAN)
-        return value.matches("[0-9A-Fa-f]+")
-            && value.length() >= 16
-            && value.length() % 2 == 0
-            && value.matches(".*[A-Fa-f].*"); // Contains at least one letter (distinguishes from plain PAN)
+        if (value.length() < 16 || value.length() % 2 != 0) {
+            return false;
+        }
+        boolean hasLetter = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'F' || c >= 'a' && c <= 'f') {
+                hasLetter = true; // distinguishes from plain PAN
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return hasLetter;
+    }
+
+    private record PanKeys(SecretKey encryptionKey, SecretKeySpec hmacKey) {
     }
 }
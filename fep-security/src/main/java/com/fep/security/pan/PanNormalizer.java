@@ -0,0 +1,83 @@
+package com.fep.security.pan;
+
+/**
+ * Regex-free PAN normalization and validation.
+ *
+ * <p>Runs on every PAN the FEP stores, logs or masks, so it scans the input once
+ * and allocates only when whitespace actually has to be removed.
+ */
+public final class PanNormalizer {
+
+    public static final int MIN_LENGTH = 13;
+    public static final int MAX_LENGTH = 19;
+
+    private PanNormalizer() {
+    }
+
+    /**
+     * Removes whitespace from a PAN.
+     *
+     * @param pan the PAN as entered, possibly grouped with spaces
+     * @return the PAN without whitespace; the same instance if it had none
+     */
+    public static String normalize(String pan) {
+        int length = pan.length();
+        int i = 0;
+        while (i < length && !Character.isWhitespace(pan.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return pan;
+        }
+
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(pan, 0, i);
+        for (; i < length; i++) {
+            char c = pan.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks that a normalized PAN is 13 to 19 ASCII digits.
+     */
+    public static boolean isValid(String digits) {
+        int length = digits.length();
+        return length >= MIN_LENGTH && length <= MAX_LENGTH && isAllDigits(digits);
+    }
+
+    /**
+     * Normalizes and validates a PAN.
+     *
+     * @return the normalized PAN
+     * @throws IllegalArgumentException if the PAN format is invalid
+     */
+    public static String normalizeAndValidate(String pan) {
+        String digits = normalize(pan);
+
+        if (!isAllDigits(digits)) {
+            throw new IllegalArgumentException("PAN must contain only digits");
+        }
+
+        if (digits.length() < MIN_LENGTH || digits.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("PAN must be between 13 and 19 digits");
+        }
+        return digits;
+    }
+
+    private static boolean isAllDigits(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package com.fep.security.pan;
+
+/**
+ * The forms of a PAN that may be stored or logged.
+ *
+ * @param masked    first 6 and last 4 digits, rest masked
+ * @param hash      keyed HMAC-SHA256 for lookups
+ * @param encrypted 3DES-encrypted PAN as hex string
+ */
+public record ProtectedPan(String masked, String hash, String encrypted) {
+}
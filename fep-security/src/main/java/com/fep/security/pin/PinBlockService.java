@@ -2,6 +2,7 @@ package com.fep.security.pin;
 
 import com.fep.security.crypto.CryptoException;
 import com.fep.security.crypto.CryptoService;
+import com.fep.security.crypto.PreparedKey;
 import com.fep.security.key.KeyManager;
 import com.fep.security.key.KeyType;
 import org.slf4j.Logger;
@@ -9,7 +10,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service for PIN Block operations including creation, encryption,
@@ -21,6 +26,9 @@ public class PinBlockService {
     private static final Logger log = LoggerFactory.getLogger(PinBlockService.class);
     private static final SecureRandom secureRandom = new SecureRandom();
 
+    // PIN blocks per cipher call in batch translation
+    private static final int BATCH_CHUNK_SIZE = 256;
+
     private final CryptoService cryptoService;
     private final KeyManager keyManager;
 
@@ -125,12 +133,12 @@ public class PinBlockService {
             throw new CryptoException("PIN block is already encrypted");
         }
 
-        byte[] key = keyManager.getKey(keyId);
+        PreparedKey key = keyManager.getPreparedKey(keyId);
         if (key == null) {
             throw new CryptoException("Encryption key not found: " + keyId);
         }
 
-        byte[] encrypted = cryptoService.encryptTdes(key, clearPinBlock.getData());
+        byte[] encrypted = cryptoService.encryptTdes(key.tdes(), clearPinBlock.getData());
 
         return PinBlock.builder()
                 .format(clearPinBlock.getFormat())
@@ -149,12 +157,12 @@ public class PinBlockService {
         }
 
         String keyId = encryptedPinBlock.getKeyId();
-        byte[] key = keyManager.getKey(keyId);
+        PreparedKey key = keyManager.getPreparedKey(keyId);
         if (key == null) {
             throw new CryptoException("Decryption key not found: " + keyId);
         }
 
-        byte[] decrypted = cryptoService.decryptTdes(key, encryptedPinBlock.getData());
+        byte[] decrypted = cryptoService.decryptTdes(key.tdes(), encryptedPinBlock.getData());
 
         return PinBlock.builder()
                 .format(encryptedPinBlock.getFormat())
@@ -169,20 +177,20 @@ public class PinBlockService {
      */
     public PinBlock translatePinBlock(PinBlock encryptedPinBlock, String sourceKeyId, String destKeyId) {
         // Decrypt with source key
-        byte[] sourceKey = keyManager.getKey(sourceKeyId);
+        PreparedKey sourceKey = keyManager.getPreparedKey(sourceKeyId);
         if (sourceKey == null) {
             throw new CryptoException("Source key not found: " + sourceKeyId);
         }
 
-        byte[] clearData = cryptoService.decryptTdes(sourceKey, encryptedPinBlock.getData());
+        byte[] clearData = cryptoService.decryptTdes(sourceKey.tdes(), encryptedPinBlock.getData());
 
         // Encrypt with destination key
-        byte[] destKey = keyManager.getKey(destKeyId);
+        PreparedKey destKey = keyManager.getPreparedKey(destKeyId);
         if (destKey == null) {
             throw new CryptoException("Destination key not found: " + destKeyId);
         }
 
-        byte[] encryptedData = cryptoService.encryptTdes(destKey, clearData);
+        byte[] encryptedData = cryptoService.encryptTdes(destKey.tdes(), clearData);
 
         // Clear sensitive data
         Arrays.fill(clearData, (byte) 0);
@@ -195,6 +203,88 @@ public class PinBlockService {
                 .build();
     }
 
+    /**
+     * Translates many encrypted PIN blocks.
+     *
+     * <p>Items are grouped by key pair, so each key is resolved once per batch,
+     * and every chunk of up to 256 blocks is translated with one decrypt and one
+     * encrypt call. Chunks run in parallel when the batch spans more than one.
+     * Failures such as a missing PIN block or an unknown key are reported per item.
+     *
+     * @param requests items to translate
+     * @return one result per request, in request order
+     */
+    public List<PinTranslationResult> translatePinBlocks(List<PinTranslationRequest> requests) {
+        PinTranslationResult[] results = new PinTranslationResult[requests.size()];
+
+        Map<TranslationKeys, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            PinTranslationRequest request = requests.get(i);
+            if (request == null || request.pinBlock() == null) {
+                results[i] = PinTranslationResult.failure(new CryptoException("PIN block is required"));
+                continue;
+            }
+            byte[] data = request.pinBlock().getData();
+            if (data == null || data.length != 8) {
+                results[i] = PinTranslationResult.failure(new CryptoException("PIN block must be 8 bytes"));
+                continue;
+            }
+            groups.computeIfAbsent(new TranslationKeys(request.sourceKeyId(), request.destKeyId()),
+                    keys -> new ArrayList<>()).add(i);
+        }
+
+        List<Runnable> chunks = new ArrayList<>();
+        for (Map.Entry<TranslationKeys, List<Integer>> group : groups.entrySet()) {
+            TranslationKeys keys = group.getKey();
+            List<Integer> indexes = group.getValue();
+            PreparedKey sourceKey = keys.sourceKeyId() != null ? keyManager.getPreparedKey(keys.sourceKeyId()) : null;
+            PreparedKey destKey = keys.destKeyId() != null ? keyManager.getPreparedKey(keys.destKeyId()) : null;
+            if (sourceKey == null || destKey == null) {
+                CryptoException error = new CryptoException(sourceKey == null
+                        ? "Source key not found: " + keys.sourceKeyId()
+                        : "Destination key not found: " + keys.destKeyId());
+                indexes.forEach(i -> results[i] = PinTranslationResult.failure(error));
+                continue;
+            }
+            for (int from = 0; from < indexes.size(); from += BATCH_CHUNK_SIZE) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + BATCH_CHUNK_SIZE, indexes.size()));
+                chunks.add(() -> translateChunk(requests, chunk, sourceKey, destKey, keys.destKeyId(), results));
+            }
+        }
+
+        if (chunks.size() > 1) {
+            chunks.parallelStream().forEach(Runnable::run);
+        } else {
+            chunks.forEach(Runnable::run);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void translateChunk(List<PinTranslationRequest> requests, List<Integer> indexes,
+                                PreparedKey sourceKey, PreparedKey destKey, String destKeyId,
+                                PinTranslationResult[] results) {
+        byte[] blocks = new byte[indexes.size() * 8];
+        for (int i = 0; i < indexes.size(); i++) {
+            System.arraycopy(requests.get(indexes.get(i)).pinBlock().getData(), 0, blocks, i * 8, 8);
+        }
+
+        try {
+            byte[] translated = cryptoService.translateTdesBlocks(sourceKey.tdes(), destKey.tdes(), blocks);
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                results[index] = PinTranslationResult.success(PinBlock.builder()
+                        .format(requests.get(index).pinBlock().getFormat())
+                        .data(Arrays.copyOfRange(translated, i * 8, i * 8 + 8))
+                        .encrypted(true)
+                        .keyId(destKeyId)
+                        .build());
+            }
+        } catch (CryptoException e) {
+            log.error("Batch PIN translation failed for {} blocks", indexes.size(), e);
+            indexes.forEach(i -> results[i] = PinTranslationResult.failure(e));
+        }
+    }
+
     /**
      * Converts a PIN block from one format to another.
      * PIN block must be decrypted for conversion.
@@ -421,4 +511,7 @@ public class PinBlockService {
             throw new CryptoException("PAN must contain only digits");
         }
     }
+
+    private record TranslationKeys(String sourceKeyId, String destKeyId) {
+    }
 }
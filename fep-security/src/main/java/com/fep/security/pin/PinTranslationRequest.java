@@ -0,0 +1,11 @@
+package com.fep.security.pin;
+
+/**
+ * One item of a batch PIN translation.
+ *
+ * @param pinBlock    encrypted PIN block (8 bytes)
+ * @param sourceKeyId key the PIN block is encrypted under
+ * @param destKeyId   key to translate the PIN block to
+ */
+public record PinTranslationRequest(PinBlock pinBlock, String sourceKeyId, String destKeyId) {
+}
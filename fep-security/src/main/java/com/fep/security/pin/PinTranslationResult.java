@@ -0,0 +1,24 @@
+package com.fep.security.pin;
+
+import com.fep.security.crypto.CryptoException;
+
+/**
+ * Outcome of one item of a batch PIN translation.
+ *
+ * @param pinBlock translated PIN block, or null if the item failed
+ * @param error    failure cause, or null on success
+ */
+public record PinTranslationResult(PinBlock pinBlock, CryptoException error) {
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    static PinTranslationResult success(PinBlock pinBlock) {
+        return new PinTranslationResult(pinBlock, null);
+    }
+
+    static PinTranslationResult failure(CryptoException error) {
+        return new PinTranslationResult(null, error);
+    }
+}
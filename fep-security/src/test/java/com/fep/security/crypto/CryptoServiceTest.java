@@ -5,7 +5,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -364,4 +369,97 @@ class CryptoServiceTest {
                     cryptoService.unpadIso9797Method2(invalidPadding));
         }
     }
+
+    @Nested
+    @DisplayName("Prepared Key Tests")
+    class PreparedKeyTests {
+
+        @Test
+        @DisplayName("Should match raw-key 3DES with prepared key")
+        void shouldMatchRawKeyTdes() {
+            byte[] key = cryptoService.generateTdesKey();
+            byte[] data = cryptoService.generateRandom(32);
+            PreparedKey prepared = cryptoService.prepareKey(key);
+
+            byte[] encrypted = cryptoService.encryptTdes(prepared.tdes(), data);
+
+            assertArrayEquals(cryptoService.encryptTdes(key, data), encrypted);
+            assertArrayEquals(data, cryptoService.decryptTdes(prepared.tdes(), encrypted));
+        }
+
+        @Test
+        @DisplayName("Should translate blocks like per-block decrypt and encrypt")
+        void shouldTranslateBlocks() {
+            PreparedKey source = cryptoService.prepareKey(cryptoService.generateTdesKey());
+            PreparedKey dest = cryptoService.prepareKey(cryptoService.generateTdesKey());
+            byte[] blocks = cryptoService.generateRandom(24);
+
+            byte[] translated = cryptoService.translateTdesBlocks(source.tdes(), dest.tdes(), blocks);
+
+            for (int i = 0; i < 3; i++) {
+                byte[] block = Arrays.copyOfRange(blocks, i * 8, i * 8 + 8);
+                byte[] expected = cryptoService.encryptTdes(dest.tdes(), cryptoService.decryptTdes(source.tdes(), block));
+                assertArrayEquals(expected, Arrays.copyOfRange(translated, i * 8, i * 8 + 8));
+            }
+        }
+
+        @Test
+        @DisplayName("Should split key into DES halves and AES key")
+        void shouldSplitKey() {
+            byte[] key = cryptoService.generateTdesKey();
+            byte[] data = new byte[16];
+            PreparedKey prepared = cryptoService.prepareKey(key);
+
+            assertArrayEquals(cryptoService.encryptDes(Arrays.copyOf(key, 8), data),
+                    cryptoService.encryptDes(prepared.left(), data));
+            assertArrayEquals(cryptoService.encryptDes(Arrays.copyOfRange(key, 8, 16), data),
+                    cryptoService.encryptDes(prepared.right(), data));
+            assertArrayEquals(cryptoService.encryptAes(Arrays.copyOf(key, 16), data),
+                    cryptoService.encryptAes(prepared.aes(), data));
+        }
+
+        @Test
+        @DisplayName("Should reject key of invalid length")
+        void shouldRejectInvalidKeyLength() {
+            assertThrows(CryptoException.class, () -> cryptoService.prepareKey(new byte[8]));
+        }
+
+        @Test
+        @DisplayName("Should compute CBC-MAC equal to block-by-block chaining")
+        void shouldComputeCbcMac() {
+            byte[] key = cryptoService.generateTdesKey();
+            byte[] desKey = Arrays.copyOf(key, 8);
+            byte[] data = cryptoService.generateRandom(200);
+
+            byte[] expected = new byte[8];
+            for (int i = 0; i < data.length; i += 8) {
+                expected = cryptoService.encryptDes(desKey,
+                        cryptoService.xor(expected, Arrays.copyOfRange(data, i, i + 8)));
+            }
+
+            assertArrayEquals(expected, cryptoService.cbcMac(cryptoService.prepareKey(key).left(), data));
+        }
+
+        @Test
+        @DisplayName("Should give identical results across threads")
+        void shouldBeThreadSafe() throws Exception {
+            byte[] key = cryptoService.generateTdesKey();
+            PreparedKey prepared = cryptoService.prepareKey(key);
+            byte[] data = cryptoService.generateRandom(64);
+            byte[] expected = cryptoService.encryptTdes(key, data);
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<byte[]>> results = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    results.add(executor.submit(() -> cryptoService.encryptTdes(prepared.tdes(), data)));
+                }
+                for (Future<byte[]> result : results) {
+                    assertArrayEquals(expected, result.get());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package com.fep.security.hsm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for HsmLatencyHistogram.
+ */
+@DisplayName("HsmLatencyHistogram Tests")
+class HsmLatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should report percentiles within three significant digits")
+    void shouldReportPercentiles() {
+        HsmLatencyHistogram histogram = new HsmLatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        HsmLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat(snapshot.meanMicros()).isEqualTo(500.5);
+        assertThat(snapshot.maxMicros()).isEqualTo(1000);
+        assertThat(snapshot.p50Micros()).isEqualTo(500);
+        assertThat(snapshot.p95Micros()).isEqualTo(950);
+        assertThat(snapshot.p99Micros()).isEqualTo(990);
+    }
+
+    @Test
+    @DisplayName("Should clear samples on reset")
+    void shouldClearOnReset() {
+        HsmLatencyHistogram histogram = new HsmLatencyHistogram();
+        histogram.record(5_000);
+
+        histogram.reset();
+
+        assertThat(histogram.snapshot().count()).isZero();
+        assertThat(histogram.snapshot().maxMicros()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should clamp samples above the trackable range")
+    void shouldClampLongSamples() {
+        HsmLatencyHistogram histogram = new HsmLatencyHistogram();
+
+        histogram.record(TimeUnit.HOURS.toNanos(1));
+
+        assertThat(histogram.snapshot().count()).isEqualTo(1);
+        assertThat(histogram.snapshot().maxMicros())
+                .isCloseTo(HsmLatencyHistogram.HIGHEST_TRACKABLE_MICROS, withinPercentage(0.1));
+    }
+}
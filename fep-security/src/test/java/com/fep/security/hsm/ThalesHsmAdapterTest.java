@@ -0,0 +1,381 @@
+package com.fep.security.hsm;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for ThalesHsmAdapter against an in-process stub HSM.
+ */
+@DisplayName("ThalesHsmAdapter Tests")
+class ThalesHsmAdapterTest {
+
+    private final List<StubHsm> servers = new ArrayList<>();
+    private ThalesHsmAdapter adapter;
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) {
+            adapter.disconnect();
+        }
+        servers.forEach(StubHsm::close);
+    }
+
+    private StubHsm startServer() {
+        StubHsm server = new StubHsm();
+        servers.add(server);
+        return server;
+    }
+
+    private ThalesHsmAdapter connect(int primaryPort, int secondaryPort, int connectionsPerUnit) {
+        HsmConnectionConfig.HsmConnectionConfigBuilder builder = HsmConnectionConfig.builder()
+                .vendor(HsmVendor.THALES)
+                .primaryHost("127.0.0.1")
+                .primaryPort(primaryPort)
+                .connectionTimeout(1000)
+                .maxConnections(connectionsPerUnit)
+                .healthCheckIntervalMs(0);
+        if (secondaryPort > 0) {
+            builder.secondaryHost("127.0.0.1").secondaryPort(secondaryPort);
+        }
+        adapter = new ThalesHsmAdapter(builder.build());
+        adapter.connect();
+        return adapter;
+    }
+
+    private static HsmRequest macRequest(String data) {
+        return HsmRequest.builder()
+                .command(HsmCommand.GENERATE_MAC)
+                .build()
+                .addParameter("data", data);
+    }
+
+    private static int unusedPort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Nested
+    @DisplayName("Pipelining")
+    class PipeliningTests {
+
+        @Test
+        @DisplayName("Should correlate out-of-order responses on one connection")
+        void shouldCorrelateOutOfOrderResponses() throws Exception {
+            StubHsm server = startServer();
+            connect(server.port(), 0, 1);
+
+            CompletableFuture<HsmResponse> slow = adapter.executeAsync(macRequest("SLOW"));
+            CompletableFuture<HsmResponse> fast = adapter.executeAsync(macRequest("FAST"));
+
+            assertThat(fast.get(2, TimeUnit.SECONDS).<String>getData("responseData")).isEqualTo("FAST");
+            assertThat(slow.isDone()).isFalse();
+            assertThat(slow.get(2, TimeUnit.SECONDS).<String>getData("responseData")).isEqualTo("SLOW");
+            assertThat(server.connections()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should route many concurrent requests to their own responses")
+        void shouldRouteConcurrentRequests() throws Exception {
+            StubHsm server = startServer();
+            connect(server.port(), 0, 4);
+
+            List<CompletableFuture<HsmResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(adapter.executeAsync(macRequest("REQ" + i)));
+            }
+
+            for (int i = 0; i < 200; i++) {
+                HsmResponse response = futures.get(i).get(5, TimeUnit.SECONDS);
+                assertThat(response.isSuccess()).isTrue();
+                assertThat(response.<String>getData("responseData")).isEqualTo("REQ" + i);
+            }
+            assertThat(server.connections()).isEqualTo(4);
+            assertThat(adapter.getConnectionStats()).allMatch(stats -> stats.inFlight() == 0);
+        }
+
+        @Test
+        @DisplayName("Should return HSM error code as unsuccessful response")
+        void shouldReturnErrorResponse() {
+            StubHsm server = startServer();
+            connect(server.port(), 0, 1);
+
+            HsmResponse response = adapter.execute(macRequest("ERR20"));
+
+            assertThat(response.isSuccess()).isFalse();
+            assertThat(response.getResponseCode()).isEqualTo("20");
+            assertThat(response.getErrorMessage()).isEqualTo("Invalid MAC");
+        }
+
+        @Test
+        @DisplayName("Should time out without blocking other requests")
+        void shouldTimeOut() {
+            StubHsm server = startServer();
+            connect(server.port(), 0, 1);
+
+            HsmRequest request = macRequest("DROP");
+            request.setTimeoutMs(100);
+
+            assertThatThrownBy(() -> adapter.execute(request))
+                    .isInstanceOf(HsmException.class)
+                    .hasMessage("HSM request timeout");
+            assertThat(adapter.execute(macRequest("OK")).isSuccess()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch")
+    class BatchTests {
+
+        @Test
+        @DisplayName("Should pipeline a batch larger than the in-flight window")
+        void shouldPipelineLargeBatch() throws Exception {
+            StubHsm server = startServer();
+            adapter = new ThalesHsmAdapter(HsmConnectionConfig.builder()
+                    .vendor(HsmVendor.THALES)
+                    .primaryHost("127.0.0.1")
+                    .primaryPort(server.port())
+                    .maxConnections(2)
+                    .maxInFlightPerConnection(8)
+                    .healthCheckIntervalMs(0)
+                    .build());
+            adapter.connect();
+
+            List<HsmRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                requests.add(macRequest(i % 100 == 0 ? "ERR20" : "REQ" + i));
+            }
+
+            List<HsmResponse> responses = adapter.executeBatch(requests).get(10, TimeUnit.SECONDS);
+
+            assertThat(responses).hasSize(500);
+            for (int i = 0; i < 500; i++) {
+                if (i % 100 == 0) {
+                    assertThat(responses.get(i).getResponseCode()).isEqualTo("20");
+                } else {
+                    assertThat(responses.get(i).<String>getData("responseData")).isEqualTo("REQ" + i);
+                }
+            }
+            assertThat(server.requests()).isEqualTo(500);
+        }
+
+        @Test
+        @DisplayName("Should back off and retry batch items while the pool is busy")
+        void shouldRetryBusyBatchItems() throws Exception {
+            StubHsm server = startServer();
+            adapter = new ThalesHsmAdapter(HsmConnectionConfig.builder()
+                    .vendor(HsmVendor.THALES)
+                    .primaryHost("127.0.0.1")
+                    .primaryPort(server.port())
+                    .maxConnections(1)
+                    .maxInFlightPerConnection(1)
+                    .healthCheckIntervalMs(0)
+                    .build());
+            adapter.connect();
+
+            // Online traffic holds the only in-flight slot for 300ms
+            CompletableFuture<HsmResponse> online = adapter.executeAsync(macRequest("SLOW"));
+
+            List<HsmResponse> responses = adapter.executeBatch(
+                    List.of(macRequest("B0"), macRequest("B1"), macRequest("B2"))).get(5, TimeUnit.SECONDS);
+
+            assertThat(online.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+            assertThat(responses).allMatch(HsmResponse::isSuccess);
+            assertThat(server.requests()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should report per-item failures in the batch")
+        void shouldReportFailures() throws Exception {
+            StubHsm server = startServer();
+            connect(server.port(), 0, 1);
+
+            HsmRequest dropped = macRequest("DROP");
+            dropped.setTimeoutMs(100);
+
+            List<HsmResponse> responses = adapter.executeBatch(List.of(macRequest("A"), dropped))
+                    .get(5, TimeUnit.SECONDS);
+
+            assertThat(responses.get(0).isSuccess()).isTrue();
+            assertThat(responses.get(1).isSuccess()).isFalse();
+            assertThat(responses.get(1).getErrorMessage()).isEqualTo("HSM request timeout");
+        }
+    }
+
+    @Nested
+    @DisplayName("Failover")
+    class FailoverTests {
+
+        @Test
+        @DisplayName("Should use secondary when primary is unreachable")
+        void shouldUseSecondaryWhenPrimaryDown() throws Exception {
+            StubHsm secondary = startServer();
+            connect(unusedPort(), secondary.port(), 2);
+
+            assertThat(adapter.isConnected()).isTrue();
+            assertThat(adapter.execute(macRequest("X")).isSuccess()).isTrue();
+            assertThat(secondary.requests()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should prefer primary and fail over when it drops")
+        void shouldFailOverWhenPrimaryDrops() throws Exception {
+            StubHsm primary = startServer();
+            StubHsm secondary = startServer();
+            connect(primary.port(), secondary.port(), 2);
+
+            adapter.execute(macRequest("A"));
+            assertThat(primary.requests()).isEqualTo(1);
+            assertThat(secondary.requests()).isZero();
+
+            primary.close();
+            Thread.sleep(200);
+
+            assertThat(adapter.execute(macRequest("B")).isSuccess()).isTrue();
+            assertThat(secondary.requests()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should fail to connect when no unit is reachable")
+        void shouldFailWhenNoUnitReachable() throws Exception {
+            int port = unusedPort();
+
+            assertThatThrownBy(() -> connect(port, 0, 1))
+                    .isInstanceOf(HsmException.class)
+                    .extracting("errorCode").isEqualTo("31");
+        }
+    }
+
+    @Nested
+    @DisplayName("Statistics")
+    class StatisticsTests {
+
+        @Test
+        @DisplayName("Should record latency per command")
+        void shouldRecordLatencyPerCommand() {
+            StubHsm server = startServer();
+            connect(server.port(), 0, 1);
+
+            adapter.execute(macRequest("A"));
+            adapter.execute(macRequest("B"));
+            adapter.getStatus();
+
+            var snapshots = adapter.getLatencySnapshots();
+            assertThat(snapshots).containsOnlyKeys(HsmCommand.GENERATE_MAC, HsmCommand.GET_STATUS);
+            assertThat(snapshots.get(HsmCommand.GENERATE_MAC).count()).isEqualTo(2);
+            assertThat(snapshots.get(HsmCommand.GET_STATUS).count()).isEqualTo(1);
+        }
+    }
+
+    /**
+     * Stub HSM that echoes the header and command data. Data "SLOW" is answered
+     * after a delay, "DROP" is never answered, and "ERRnn" returns error code nn.
+     */
+    private static final class StubHsm {
+
+        private final EventLoopGroup group = new NioEventLoopGroup(1);
+        private final ChannelGroup children = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger connections = new AtomicInteger();
+        private final Channel serverChannel;
+
+        StubHsm() {
+            try {
+                serverChannel = new ServerBootstrap()
+                        .group(group)
+                        .channel(NioServerSocketChannel.class)
+                        .childHandler(new ChannelInitializer<SocketChannel>() {
+                            @Override
+                            protected void initChannel(SocketChannel ch) {
+                                connections.incrementAndGet();
+                                children.add(ch);
+                                ch.pipeline()
+                                        .addLast(new LengthFieldBasedFrameDecoder(65535, 0, 2, 0, 2))
+                                        .addLast(new LengthFieldPrepender(2))
+                                        .addLast(new SimpleChannelInboundHandler<ByteBuf>() {
+                                            @Override
+                                            protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                                                respond(ctx, msg.toString(StandardCharsets.US_ASCII));
+                                            }
+                                        });
+                            }
+                        })
+                        .bind(0).sync().channel();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void respond(ChannelHandlerContext ctx, String request) {
+            String header = request.substring(0, 4);
+            String command = request.substring(4, 6);
+            String data = request.substring(6);
+            if (!"NO".equals(command)) {
+                requests.incrementAndGet();
+            }
+            if ("DROP".equals(data)) {
+                return;
+            }
+            String responseCode = data.startsWith("ERR") ? data.substring(3) : "00";
+            String responseCommand = command.charAt(0) + String.valueOf((char) (command.charAt(1) + 1));
+            ByteBuf response = Unpooled.copiedBuffer(header + responseCommand + responseCode + data,
+                    StandardCharsets.US_ASCII);
+            if ("SLOW".equals(data)) {
+                ctx.executor().schedule(() -> ctx.writeAndFlush(response), 300, TimeUnit.MILLISECONDS);
+            } else {
+                ctx.writeAndFlush(response);
+            }
+        }
+
+        int port() {
+            return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+        }
+
+        int requests() {
+            return requests.get();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        void close() {
+            if (group.isShuttingDown()) {
+                return;
+            }
+            serverChannel.close().syncUninterruptibly();
+            children.close().syncUninterruptibly();
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.fep.security.key;
 
 import com.fep.security.crypto.CryptoException;
 import com.fep.security.crypto.CryptoService;
+import com.fep.security.crypto.PreparedKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -269,6 +270,123 @@ class KeyManagerTest {
             assertEquals(KeyStatus.DESTROYED, keyManager.getKeyInfo(keyInfo.getKeyId()).getStatus());
             assertNull(keyManager.getKey(keyInfo.getKeyId()));
         }
+
+        @Test
+        @DisplayName("Should drop prepared key on revoke")
+        void shouldDropPreparedKeyOnRevoke() {
+            KeyInfo keyInfo = keyManager.generateKey(KeyType.MAK, "prepared-mak");
+            keyManager.setCurrentKey(KeyType.MAK, keyInfo.getKeyId());
+
+            PreparedKey prepared = keyManager.getPreparedKey(keyInfo.getKeyId());
+            assertSame(prepared, keyManager.getPreparedKey(keyInfo.getKeyId()));
+
+            keyManager.revokeKey(keyInfo.getKeyId());
+
+            assertNull(keyManager.getPreparedKey(keyInfo.getKeyId()));
+            assertNull(keyManager.getCurrentKeyId(KeyType.MAK));
+        }
+
+        @Test
+        @DisplayName("Should keep rotated key verify-only until its overlap ends")
+        void shouldKeepRotatedKeyVerifyOnly() {
+            KeyInfo keyInfo = keyManager.generateKey(KeyType.PEK, "prepared-pek");
+            PreparedKey prepared = keyManager.getPreparedKey(keyInfo.getKeyId());
+
+            keyManager.rotateKey(keyInfo.getKeyId(), Duration.ofMinutes(1));
+            KeySnapshot snapshot = keyManager.getSnapshot();
+            long now = System.currentTimeMillis();
+
+            assertNull(keyManager.getPreparedKey(keyInfo.getKeyId()));
+            assertNull(keyManager.getKey(keyInfo.getKeyId()));
+            assertSame(prepared, snapshot.getVerifyKey(keyInfo.getKeyId(), now));
+            assertNull(snapshot.getVerifyKey(keyInfo.getKeyId(), now + Duration.ofMinutes(2).toMillis()));
+
+            keyManager.destroyKey(keyInfo.getKeyId());
+            assertNull(keyManager.getSnapshot().getVerifyKey(keyInfo.getKeyId(), now));
+        }
+
+        @Test
+        @DisplayName("Should refuse and drop expired keys")
+        void shouldRefuseExpiredKeys() throws InterruptedException {
+            KeyInfo keyInfo = keyManager.generateKey(KeyType.MAK, "expiring-mak", Duration.ofMillis(50));
+            keyManager.setCurrentKey(KeyType.MAK, keyInfo.getKeyId());
+            assertNotNull(keyManager.getPreparedKey(keyInfo.getKeyId()));
+
+            Thread.sleep(100);
+
+            // Refused before the periodic check runs
+            assertNull(keyManager.getPreparedKey(keyInfo.getKeyId()));
+            assertNull(keyManager.getKey(keyInfo.getKeyId()));
+            assertNull(keyManager.getSnapshot().getCurrentPreparedKey(KeyType.MAK));
+
+            assertEquals(1, keyManager.checkExpiredKeys());
+            assertEquals(KeyStatus.EXPIRED, keyManager.getKeyInfo(keyInfo.getKeyId()).getStatus());
+            assertNull(keyManager.getCurrentKeyId(KeyType.MAK));
+            assertEquals(0, keyManager.getSnapshot().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Key Snapshot Tests")
+    class KeySnapshotTests {
+
+        @Test
+        @DisplayName("Should publish a new snapshot on every change")
+        void shouldPublishNewSnapshotOnChange() {
+            KeySnapshot before = keyManager.getSnapshot();
+
+            KeyInfo keyInfo = keyManager.generateKey(KeyType.MAK, "snapshot-mak");
+            KeySnapshot generated = keyManager.getSnapshot();
+            keyManager.setCurrentKey(KeyType.MAK, keyInfo.getKeyId());
+            KeySnapshot current = keyManager.getSnapshot();
+
+            assertTrue(generated.getVersion() > before.getVersion());
+            assertTrue(current.getVersion() > generated.getVersion());
+            assertNull(before.getPreparedKey(keyInfo.getKeyId()));
+            assertNull(generated.getCurrentKeyId(KeyType.MAK));
+            assertEquals(keyInfo.getKeyId(), current.getCurrentKeyId(KeyType.MAK));
+            assertSame(current.getPreparedKey(keyInfo.getKeyId()), current.getCurrentPreparedKey(KeyType.MAK));
+        }
+
+        @Test
+        @DisplayName("Should not change a snapshot already taken")
+        void shouldKeepTakenSnapshotUnchanged() {
+            KeyInfo keyInfo = keyManager.generateKey(KeyType.DEK, "snapshot-dek");
+            KeySnapshot taken = keyManager.getSnapshot();
+
+            keyManager.revokeKey(keyInfo.getKeyId());
+
+            assertNotNull(taken.getPreparedKey(keyInfo.getKeyId()));
+            assertNull(keyManager.getSnapshot().getPreparedKey(keyInfo.getKeyId()));
+        }
+
+        @Test
+        @DisplayName("Should expose retired key during rotation overlap")
+        void shouldExposeRetiredKeyDuringOverlap() {
+            KeyInfo oldKey = keyManager.generateKey(KeyType.MAK, "overlap-mak");
+            keyManager.setCurrentKey(KeyType.MAK, oldKey.getKeyId());
+
+            KeyInfo newKey = keyManager.rotateKey(oldKey.getKeyId(), Duration.ofMinutes(1));
+            KeySnapshot snapshot = keyManager.getSnapshot();
+            long now = System.currentTimeMillis();
+
+            assertEquals(newKey.getKeyId(), snapshot.getCurrentKeyId(KeyType.MAK));
+            assertNull(snapshot.getPreparedKey(oldKey.getKeyId()));
+            assertNotNull(snapshot.getRetiredKey(newKey.getKeyId(), now));
+            assertSame(snapshot.getVerifyKey(oldKey.getKeyId(), now), snapshot.getRetiredKey(newKey.getKeyId(), now));
+            assertNull(snapshot.getRetiredKey(newKey.getKeyId(), now + Duration.ofMinutes(2).toMillis()));
+            assertNull(snapshot.getRetiredKey(oldKey.getKeyId(), now));
+        }
+
+        @Test
+        @DisplayName("Should not expose retired key without overlap")
+        void shouldNotExposeRetiredKeyWithoutOverlap() {
+            KeyInfo oldKey = keyManager.generateKey(KeyType.MAK, "no-overlap-mak");
+
+            KeyInfo newKey = keyManager.rotateKey(oldKey.getKeyId(), Duration.ZERO);
+
+            assertNull(keyManager.getSnapshot().getRetiredKey(newKey.getKeyId(), System.currentTimeMillis()));
+        }
     }
 
     @Nested
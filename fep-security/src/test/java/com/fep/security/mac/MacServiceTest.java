@@ -1,5 +1,6 @@
 package com.fep.security.mac;
 
+import com.fep.security.crypto.CryptoException;
 import com.fep.security.crypto.CryptoService;
 import com.fep.security.key.KeyInfo;
 import com.fep.security.key.KeyManager;
@@ -9,7 +10,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -260,6 +264,64 @@ class MacServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Key Rotation Overlap Tests")
+    class RotationOverlapTests {
+
+        @Test
+        @DisplayName("Should verify MAC from retired key during overlap")
+        void shouldVerifyRetiredKeyDuringOverlap() {
+            byte[] data = "In flight before rotation".getBytes();
+            byte[] oldMac = macService.calculateMac(MacAlgorithm.ISO_9797_ALG3, data);
+
+            keyManager.rotateKey(makKeyId, Duration.ofMinutes(1));
+
+            assertTrue(macService.verifyMac(MacAlgorithm.ISO_9797_ALG3, data, oldMac));
+            assertFalse(Arrays.equals(oldMac, macService.calculateMac(MacAlgorithm.ISO_9797_ALG3, data)));
+        }
+
+        @Test
+        @DisplayName("Should reject MAC from retired key without overlap")
+        void shouldRejectRetiredKeyWithoutOverlap() {
+            byte[] data = "In flight before rotation".getBytes();
+            byte[] oldMac = macService.calculateMac(MacAlgorithm.HMAC_SHA256, data);
+
+            keyManager.rotateKey(makKeyId, Duration.ZERO);
+
+            assertFalse(macService.verifyMac(MacAlgorithm.HMAC_SHA256, data, oldMac));
+        }
+
+        @Test
+        @DisplayName("Should use retired key by its own ID only to verify during overlap")
+        void shouldUseRetiredKeyIdOnlyToVerify() {
+            byte[] data = "Addressed to the old key".getBytes();
+            byte[] oldMac = macService.calculateMac(MacAlgorithm.ANSI_X9_19, makKeyId, data);
+
+            keyManager.rotateKey(makKeyId, Duration.ofMinutes(1));
+
+            assertTrue(macService.verifyMac(MacAlgorithm.ANSI_X9_19, makKeyId, data, oldMac));
+            assertThrows(CryptoException.class,
+                    () -> macService.calculateMac(MacAlgorithm.ANSI_X9_19, makKeyId, data));
+        }
+
+        @Test
+        @DisplayName("Should accept retired key in batch verification")
+        void shouldAcceptRetiredKeyInBatch() {
+            byte[] data = "Batch across rotation".getBytes();
+            byte[] oldMac = macService.calculateMac(MacAlgorithm.ANSI_X9_19, data);
+
+            KeyInfo newKey = keyManager.rotateKey(makKeyId, Duration.ofMinutes(1));
+            byte[] newMac = macService.calculateMac(MacAlgorithm.ANSI_X9_19, data);
+
+            boolean[] results = macService.verifyMacs(List.of(
+                    new MacVerificationRequest(MacAlgorithm.ANSI_X9_19, newKey.getKeyId(), data, oldMac),
+                    new MacVerificationRequest(MacAlgorithm.ANSI_X9_19, newKey.getKeyId(), data, newMac),
+                    new MacVerificationRequest(MacAlgorithm.ANSI_X9_19, newKey.getKeyId(), data, new byte[8])));
+
+            assertArrayEquals(new boolean[]{true, true, false}, results);
+        }
+    }
+
     @Nested
     @DisplayName("Edge Case Tests")
     class EdgeCaseTests {
@@ -299,4 +361,119 @@ class MacServiceTest {
             assertEquals(8, mac.length);
         }
     }
+
+    @Nested
+    @DisplayName("Reference Value Tests")
+    class ReferenceValueTests {
+
+        private byte[] blockwiseDesCbcMac(byte[] desKey, byte[] paddedData) {
+            byte[] result = new byte[8];
+            for (int i = 0; i < paddedData.length; i += 8) {
+                result = cryptoService.encryptDes(desKey,
+                        cryptoService.xor(result, Arrays.copyOfRange(paddedData, i, i + 8)));
+            }
+            return result;
+        }
+
+        @Test
+        @DisplayName("Algorithm 1 should match block-by-block DES-CBC")
+        void alg1ShouldMatchBlockwise() {
+            byte[] key = keyManager.getKey(makKeyId);
+            byte[] data = new byte[200];
+            Arrays.fill(data, (byte) 0x5A);
+
+            byte[] expected = blockwiseDesCbcMac(Arrays.copyOf(key, 8), data);
+
+            assertArrayEquals(expected, macService.calculateMac(MacAlgorithm.ISO_9797_ALG1, makKeyId, data));
+        }
+
+        @Test
+        @DisplayName("Algorithm 3 should match block-by-block DES-CBC with 3DES final")
+        void alg3ShouldMatchBlockwise() {
+            byte[] key = keyManager.getKey(makKeyId);
+            byte[] data = Arrays.copyOf("Retail MAC".getBytes(), 16);
+            byte[] k1 = Arrays.copyOf(key, 8);
+
+            byte[] expected = blockwiseDesCbcMac(k1, data);
+            expected = cryptoService.encryptDes(k1,
+                    cryptoService.decryptDes(Arrays.copyOfRange(key, 8, 16), expected));
+
+            assertArrayEquals(expected, macService.calculateMac(MacAlgorithm.ISO_9797_ALG3, makKeyId, data));
+        }
+
+        @Test
+        @DisplayName("ANSI X9.19 should match block-by-block DES-CBC with 3DES final")
+        void x919ShouldMatchBlockwise() {
+            byte[] key = keyManager.getKey(makKeyId);
+            byte[] data = "0200 ANSI X9.19".getBytes();
+
+            byte[] expected = blockwiseDesCbcMac(Arrays.copyOf(key, 8), cryptoService.padIso9797Method2(data, 8));
+            expected = cryptoService.encryptTdes(key, expected);
+
+            assertArrayEquals(expected, macService.calculateMac(MacAlgorithm.ANSI_X9_19, makKeyId, data));
+        }
+
+        @Test
+        @DisplayName("AES-CMAC should match RFC 4493 test vectors")
+        void aesCmacShouldMatchRfc4493() {
+            byte[] aesKey = cryptoService.hexToBytes("2B7E151628AED2A6ABF7158809CF4F3C");
+            byte[] expandedKey = new byte[24];
+            System.arraycopy(aesKey, 0, expandedKey, 0, 16);
+            String keyId = keyManager.importKey(KeyType.MAK, "rfc4493", expandedKey).getKeyId();
+
+            assertEquals("BB1D6929E95937287FA37D129B756746", cryptoService.bytesToHex(
+                    macService.calculateMac(MacAlgorithm.AES_CMAC, keyId, new byte[0])));
+            assertEquals("070A16B46B4D4144F79BDD9DD04A287C", cryptoService.bytesToHex(
+                    macService.calculateMac(MacAlgorithm.AES_CMAC, keyId,
+                            cryptoService.hexToBytes("6BC1BEE22E409F96E93D7E117393172A"))));
+            assertEquals("DFA66747DE9AE63030CA32611497C827", cryptoService.bytesToHex(
+                    macService.calculateMac(MacAlgorithm.AES_CMAC, keyId, cryptoService.hexToBytes(
+                            "6BC1BEE22E409F96E93D7E117393172AAE2D8A571E03AC9C9EB76FAC45AF8E5130C81C46A35CE411"))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Verification Tests")
+    class BatchVerificationTests {
+
+        @Test
+        @DisplayName("Should verify mixed algorithms and keys in request order")
+        void shouldVerifyInRequestOrder() {
+            KeyInfo otherMak = keyManager.generateKey(KeyType.MAK, "other-mak");
+            MacAlgorithm[] algorithms = {MacAlgorithm.ISO_9797_ALG3, MacAlgorithm.ANSI_X9_19,
+                    MacAlgorithm.HMAC_SHA256};
+
+            List<MacVerificationRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 600; i++) {
+                MacAlgorithm algorithm = algorithms[i % algorithms.length];
+                String keyId = i % 2 == 0 ? makKeyId : otherMak.getKeyId();
+                byte[] data = ("MESSAGE-" + i).getBytes();
+                byte[] mac = macService.calculateMac(algorithm, keyId, data);
+                if (i % 7 == 0) {
+                    mac[0] ^= 0x01;
+                }
+                requests.add(new MacVerificationRequest(algorithm, keyId, data, mac));
+            }
+
+            boolean[] results = macService.verifyMacs(requests);
+
+            for (int i = 0; i < 600; i++) {
+                assertEquals(i % 7 != 0, results[i], "item " + i);
+            }
+        }
+
+        @Test
+        @DisplayName("Should fail items with unknown key or missing MAC")
+        void shouldFailUnverifiableItems() {
+            byte[] data = "DATA".getBytes();
+            byte[] mac = macService.calculateMac(MacAlgorithm.ISO_9797_ALG1, makKeyId, data);
+
+            boolean[] results = macService.verifyMacs(List.of(
+                    new MacVerificationRequest(MacAlgorithm.ISO_9797_ALG1, makKeyId, data, mac),
+                    new MacVerificationRequest(MacAlgorithm.ISO_9797_ALG1, "missing", data, mac),
+                    new MacVerificationRequest(MacAlgorithm.ISO_9797_ALG1, makKeyId, data, null)));
+
+            assertArrayEquals(new boolean[]{true, false, false}, results);
+        }
+    }
 }
@@ -3,11 +3,20 @@ package com.fep.security.pan;
 import com.fep.security.crypto.CryptoException;
 import com.fep.security.crypto.CryptoService;
 import com.fep.security.key.KeyManager;
+import com.fep.security.key.KeyType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -23,6 +32,8 @@ class PanEncryptionServiceTest {
     void setUp() {
         cryptoService = new CryptoService();
         keyManager = new KeyManager(cryptoService);
+        keyManager.importKey(KeyType.MAK, PanEncryptionService.PAN_HMAC_KEY_ALIAS,
+                cryptoService.generateTdesKey());
         panEncryptionService = new PanEncryptionService(cryptoService, keyManager);
     }
 
@@ -209,14 +220,24 @@ class PanEncryptionServiceTest {
     class HashingTests {
 
         @Test
-        @DisplayName("Should produce SHA-256 hash")
-        void shouldProduceSha256Hash() {
+        @DisplayName("Should produce keyed HMAC-SHA256 hash")
+        void shouldProduceHmacSha256Hash() {
             String pan = "4123456789012345";
 
             String hash = panEncryptionService.hash(pan);
 
             assertNotNull(hash);
-            assertEquals(64, hash.length()); // SHA-256 = 32 bytes = 64 hex chars
+            assertEquals(64, hash.length()); // HMAC-SHA256 = 32 bytes = 64 hex chars
+            assertNotEquals(cryptoService.bytesToHex(cryptoService.sha256(pan.getBytes())), hash);
+        }
+
+        @Test
+        @DisplayName("Should produce same hash across service instances sharing keys")
+        void shouldProduceSameHashAcrossInstances() {
+            String pan = "4123456789012345";
+            PanEncryptionService other = new PanEncryptionService(cryptoService, keyManager);
+
+            assertEquals(panEncryptionService.hash(pan), other.hash(pan));
         }
 
         @Test
@@ -275,6 +296,19 @@ class PanEncryptionServiceTest {
 
             assertTrue(hash.matches("[0-9A-Fa-f]+"));
         }
+
+        @Test
+        @DisplayName("Should recognize legacy SHA-256 hash")
+        void shouldRecognizeLegacyHash() {
+            String pan = "4123456789012345";
+            String legacy = cryptoService.bytesToHex(cryptoService.sha256(pan.getBytes()));
+
+            assertEquals(legacy, panEncryptionService.legacyHash("4123 4567 8901 2345"));
+            assertTrue(panEncryptionService.isLegacyHash(pan, legacy.toLowerCase()));
+            assertFalse(panEncryptionService.isLegacyHash(pan, panEncryptionService.hash(pan)));
+            assertEquals(List.of(panEncryptionService.hash(pan), legacy),
+                    panEncryptionService.hashCandidates(pan));
+        }
     }
 
     @Nested
@@ -474,4 +508,84 @@ class PanEncryptionServiceTest {
             }
         }
     }
+
+    @Nested
+    @DisplayName("Protect Tests")
+    class ProtectTests {
+
+        @Test
+        @DisplayName("Should produce mask, hash and ciphertext in one call")
+        void shouldProtectInOneCall() {
+            String pan = "4123 4567 8901 2345";
+
+            ProtectedPan protectedPan = panEncryptionService.protect(pan);
+
+            assertEquals("412345******2345", protectedPan.masked());
+            assertEquals(panEncryptionService.hash(pan), protectedPan.hash());
+            assertEquals("4123456789012345", panEncryptionService.decrypt(protectedPan.encrypted()));
+        }
+
+        @Test
+        @DisplayName("Should return same ciphertext with and without cache")
+        void shouldMatchUncachedCiphertext() {
+            PanEncryptionService uncached = new PanEncryptionService(cryptoService, keyManager, 0, Duration.ZERO);
+            String pan = "4123456789012345";
+
+            String first = panEncryptionService.encrypt(pan);
+
+            assertEquals(first, panEncryptionService.encrypt(pan));
+            assertEquals(first, uncached.encrypt(pan));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid PAN")
+        void shouldRejectInvalidPan() {
+            assertNull(panEncryptionService.protect(null));
+            assertThrows(IllegalArgumentException.class, () -> panEncryptionService.protect("4123-4567-8901"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Key Bootstrap Tests")
+    class KeyBootstrapTests {
+
+        @Test
+        @DisplayName("Should create a single PAN key under concurrent first use")
+        void shouldCreateSingleKeyConcurrently() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            try {
+                for (int i = 0; i < 8; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return panEncryptionService.encrypt("4123456789012345");
+                    }));
+                }
+                start.countDown();
+                String expected = results.get(0).get();
+                for (Future<String> result : results) {
+                    assertEquals(expected, result.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            long panKeys = keyManager.listActiveKeys().stream()
+                    .filter(key -> "PAN_DEK".equals(key.getAlias()))
+                    .count();
+            assertEquals(1, panKeys);
+        }
+
+        @Test
+        @DisplayName("Should fail instead of generating a missing HMAC key")
+        void shouldFailWithoutHmacKey() {
+            KeyManager emptyKeyManager = new KeyManager(cryptoService);
+            PanEncryptionService unprovisioned = new PanEncryptionService(cryptoService, emptyKeyManager);
+
+            assertThrows(CryptoException.class, unprovisioned::verifyKeys);
+            assertThrows(CryptoException.class, () -> unprovisioned.hash("4123456789012345"));
+            assertNull(emptyKeyManager.getKeyByAlias(PanEncryptionService.PAN_HMAC_KEY_ALIAS));
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.fep.security.pan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PanNormalizer.
+ */
+class PanNormalizerTest {
+
+    @Test
+    @DisplayName("Should return same instance when there is no whitespace")
+    void shouldReturnSameInstance() {
+        String pan = "4123456789012345";
+
+        assertSame(pan, PanNormalizer.normalize(pan));
+    }
+
+    @Test
+    @DisplayName("Should remove all whitespace")
+    void shouldRemoveWhitespace() {
+        assertEquals("4123456789012345", PanNormalizer.normalize(" 4123 4567\t8901\n2345 "));
+    }
+
+    @Test
+    @DisplayName("Should validate length and digits")
+    void shouldValidate() {
+        assertTrue(PanNormalizer.isValid("4123456789012"));
+        assertTrue(PanNormalizer.isValid("4123456789012345678"));
+        assertFalse(PanNormalizer.isValid("412345678901"));
+        assertFalse(PanNormalizer.isValid("41234567890123456789"));
+        assertFalse(PanNormalizer.isValid("412345678901234A"));
+        assertFalse(PanNormalizer.isValid("４１２３４５６７８９０１２３"));
+    }
+
+    @Test
+    @DisplayName("Should report the first failing rule")
+    void shouldReportFailingRule() {
+        IllegalArgumentException digits = assertThrows(IllegalArgumentException.class,
+                () -> PanNormalizer.normalizeAndValidate("4123-4567-8901-2345"));
+        assertEquals("PAN must contain only digits", digits.getMessage());
+
+        IllegalArgumentException length = assertThrows(IllegalArgumentException.class,
+                () -> PanNormalizer.normalizeAndValidate("4123 4567"));
+        assertEquals("PAN must be between 13 and 19 digits", length.getMessage());
+    }
+}
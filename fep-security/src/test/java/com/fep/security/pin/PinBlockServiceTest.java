@@ -10,6 +10,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -381,4 +384,82 @@ class PinBlockServiceTest {
             assertArrayEquals(original.getData(), recreated.getData());
         }
     }
+
+    @Nested
+    @DisplayName("Batch Translation Tests")
+    class BatchTranslationTests {
+
+        @Test
+        @DisplayName("Should match single translation for mixed key pairs")
+        void shouldMatchSingleTranslation() {
+            KeyInfo keyA = keyManager.generateKey(KeyType.PEK, "zone-a");
+            KeyInfo keyB = keyManager.generateKey(KeyType.PEK, "zone-b");
+            KeyInfo keyC = keyManager.generateKey(KeyType.PEK, "zone-c");
+
+            List<PinTranslationRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                String pin = String.format("%04d", i);
+                PinBlock encrypted = pinBlockService.encryptPinBlock(
+                        pinBlockService.createPinBlockFormat0(pin, TEST_PAN), keyA.getKeyId());
+                String destKeyId = i % 3 == 0 ? keyC.getKeyId() : keyB.getKeyId();
+                requests.add(new PinTranslationRequest(encrypted, keyA.getKeyId(), destKeyId));
+            }
+
+            List<PinTranslationResult> results = pinBlockService.translatePinBlocks(requests);
+
+            assertEquals(1000, results.size());
+            for (int i = 0; i < 1000; i++) {
+                PinTranslationRequest request = requests.get(i);
+                PinTranslationResult result = results.get(i);
+                assertTrue(result.isSuccess());
+                assertEquals(request.destKeyId(), result.pinBlock().getKeyId());
+                PinBlock expected = pinBlockService.translatePinBlock(
+                        request.pinBlock(), request.sourceKeyId(), request.destKeyId());
+                assertArrayEquals(expected.getData(), result.pinBlock().getData());
+                assertEquals(String.format("%04d", i), pinBlockService.extractPin(
+                        pinBlockService.decryptPinBlock(result.pinBlock()), TEST_PAN));
+            }
+        }
+
+        @Test
+        @DisplayName("Should report unknown key per item")
+        void shouldReportUnknownKeyPerItem() {
+            KeyInfo key = keyManager.generateKey(KeyType.PEK, "zone-a");
+            PinBlock encrypted = pinBlockService.encryptPinBlock(
+                    pinBlockService.createPinBlockFormat0(TEST_PIN, TEST_PAN), key.getKeyId());
+
+            List<PinTranslationResult> results = pinBlockService.translatePinBlocks(List.of(
+                    new PinTranslationRequest(encrypted, key.getKeyId(), "missing"),
+                    new PinTranslationRequest(encrypted, key.getKeyId(), key.getKeyId()),
+                    new PinTranslationRequest(PinBlock.builder().data(new byte[4]).build(),
+                            key.getKeyId(), key.getKeyId())));
+
+            assertFalse(results.get(0).isSuccess());
+            assertTrue(results.get(0).error().getMessage().contains("missing"));
+            assertTrue(results.get(1).isSuccess());
+            assertArrayEquals(encrypted.getData(), results.get(1).pinBlock().getData());
+            assertFalse(results.get(2).isSuccess());
+        }
+
+        @Test
+        @DisplayName("Should report missing PIN block per item")
+        void shouldReportMissingPinBlockPerItem() {
+            KeyInfo key = keyManager.generateKey(KeyType.PEK, "zone-a");
+            PinBlock encrypted = pinBlockService.encryptPinBlock(
+                    pinBlockService.createPinBlockFormat0(TEST_PIN, TEST_PAN), key.getKeyId());
+            List<PinTranslationRequest> requests = new ArrayList<>();
+            requests.add(new PinTranslationRequest(null, key.getKeyId(), key.getKeyId()));
+            requests.add(null);
+            requests.add(new PinTranslationRequest(encrypted, key.getKeyId(), key.getKeyId()));
+
+            List<PinTranslationResult> results = pinBlockService.translatePinBlocks(requests);
+
+            assertEquals(3, results.size());
+            assertFalse(results.get(0).isSuccess());
+            assertEquals("PIN block is required", results.get(0).error().getMessage());
+            assertFalse(results.get(1).isSuccess());
+            assertTrue(results.get(2).isSuccess());
+            assertArrayEquals(encrypted.getData(), results.get(2).pinBlock().getData());
+        }
+    }
 }
@@ -2,8 +2,8 @@ package com.fep.settlement.batch;
 
 import com.fep.settlement.clearing.ClearingService;
 import com.fep.settlement.domain.*;
-import com.fep.settlement.file.FileValidationResult;
 import com.fep.settlement.file.FiscSettlementFileParser;
+import com.fep.settlement.file.SettlementFileParseException;
 import com.fep.settlement.file.SettlementFileParser;
 import com.fep.settlement.reconciliation.ReconciliationConfig;
 import com.fep.settlement.reconciliation.ReconciliationResult;
@@ -31,6 +31,7 @@ public class BatchFileProcessor {
     private final ClearingService clearingService;
     private final Map<SettlementFileType, SettlementFileParser> parsers;
     private final ExecutorService executor;
+    private final ParallelFileIngester ingester;
     private final BatchConfig config;
 
     public BatchFileProcessor(SettlementRepository repository,
@@ -42,6 +43,13 @@ public class BatchFileProcessor {
         this.clearingService = clearingService;
         this.config = config;
         this.executor = Executors.newFixedThreadPool(config.getParallelism());
+        this.ingester = config.isChunkedIngest()
+                ? new ParallelFileIngester(repository, ParallelFileIngester.IngestConfig.builder()
+                        .parallelism(config.getParallelism())
+                        .commitInterval(config.getCommitInterval())
+                        .checkpointStore(config.getCheckpointStore())
+                        .build())
+                : null;
 
         // Initialize parsers for each file type
         this.parsers = new EnumMap<>(SettlementFileType.class);
@@ -111,24 +119,25 @@ public class BatchFileProcessor {
                 throw new IllegalStateException("No parser available for file type: " + fileType);
             }
 
-            // Validate file format
-            FileValidationResult validation = parser.validateFormat(filePath);
-            if (!validation.isValid()) {
+            if (ingester != null && parser instanceof FiscSettlementFileParser fiscParser) {
+                return processFileChunked(filePath, fiscParser, result);
+            }
+
+            // Parse file; structure, counts and totals are validated in the same pass
+            SettlementFile settlementFile;
+            try {
+                settlementFile = parser.parse(filePath);
+            } catch (SettlementFileParseException e) {
                 result.setStatus(FileProcessStatus.VALIDATION_FAILED);
-                result.setErrorMessage("Validation failed: " +
-                        validation.getErrors().stream()
-                                .map(FileValidationResult.ValidationError::getMessage)
-                                .reduce((a, b) -> a + "; " + b)
-                                .orElse("Unknown error"));
+                result.setErrorMessage("Validation failed: " + e.getMessage());
                 return result;
             }
-
-            // Parse file
-            SettlementFile settlementFile = parser.parse(filePath);
             result.setRecordCount(settlementFile.getTotalRecordCount());
 
-            // Save file
+            // Save file and its report rollup
             repository.saveFile(settlementFile);
+            repository.saveRollup(settlementFile.getFileId(), settlementFile.getSettlementDate(),
+                    SettlementRollup.of(settlementFile.getRecords()));
 
             // Reconcile if configured
             if (config.isAutoReconcile()) {
@@ -166,6 +175,45 @@ public class BatchFileProcessor {
         return result;
     }
 
+    /**
+     * Process a single large file with intra-file parallelism: chunks are parsed
+     * and committed concurrently, and a failed ingest resumes from its checkpoint.
+     */
+    private FileProcessResult processFileChunked(Path filePath, FiscSettlementFileParser parser,
+                                                 FileProcessResult result) throws IOException {
+        ParallelFileIngester.IngestResult ingest = ingester.ingest(filePath, parser);
+        result.setSettlementFileId(ingest.getFileId());
+        result.setRecordCount((int) ingest.getRecordCount());
+
+        if (!ingest.isSuccess()) {
+            result.setStatus(ingest.getStatus() == FileProcessingStatus.VALIDATION_FAILED
+                    ? FileProcessStatus.VALIDATION_FAILED : FileProcessStatus.FAILED);
+            result.setErrorMessage(ingest.getErrorMessage());
+            result.setEndTime(LocalDateTime.now());
+            return result;
+        }
+
+        if (config.isAutoReconcile()) {
+            // Stream the stored records rather than loading the whole file back
+            String fileId = ingest.getFileId();
+            ReconciliationResult reconcileResult = reconciliationService.reconcile(
+                    fileId, ingest.getSettlementDate(),
+                    action -> repository.forEachRecord(fileId, action),
+                    ReconciliationConfig.defaultConfig()
+            );
+            result.setMatchedCount(reconcileResult.getMatchedCount());
+            result.setDiscrepancyCount(reconcileResult.getDiscrepancyCount());
+        }
+
+        if (config.getMoveToProcessed() != null) {
+            moveToProcessed(filePath, config.getMoveToProcessed());
+        }
+
+        result.setStatus(FileProcessStatus.SUCCESS);
+        result.setEndTime(LocalDateTime.now());
+        return result;
+    }
+
     /**
      * Process files sequentially.
      */
@@ -277,6 +325,9 @@ public class BatchFileProcessor {
      * Shutdown the processor.
      */
     public void shutdown() {
+        if (ingester != null) {
+            ingester.shutdown();
+        }
         executor.shutdown();
         try {
             if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
@@ -315,6 +366,17 @@ public class BatchFileProcessor {
         @lombok.Builder.Default
         private int fileTimeoutSeconds = 300;
 
+        /** Split each fixed-length file into chunks ingested in parallel */
+        @lombok.Builder.Default
+        private boolean chunkedIngest = false;
+
+        /** Records per chunk when chunkedIngest is enabled; one transaction each */
+        @lombok.Builder.Default
+        private int commitInterval = 10_000;
+
+        @lombok.Builder.Default
+        private IngestCheckpointStore checkpointStore = new InMemoryIngestCheckpointStore();
+
         private Path moveToProcessed;
         private Path moveToError;
 
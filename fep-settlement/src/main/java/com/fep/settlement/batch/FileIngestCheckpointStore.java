@@ -0,0 +1,122 @@
+package com.fep.settlement.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checkpoint store that keeps one append-only journal per ingest in a directory,
+ * so an ingest interrupted by a crash or restart can resume.
+ *
+ * <p>Each committed chunk appends one line, written with {@code DSYNC} so the
+ * entry is durable before the next chunk is considered. A torn final line from a
+ * crash mid-write is ignored on read; that chunk is simply ingested again.
+ */
+public class FileIngestCheckpointStore implements IngestCheckpointStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileIngestCheckpointStore.class);
+
+    private static final String SUFFIX = ".ckpt";
+
+    private final Path directory;
+
+    public FileIngestCheckpointStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create checkpoint directory: " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized Optional<IngestCheckpoint> find(String ingestKey) {
+        Path journal = journalPath(ingestKey);
+        if (!Files.exists(journal)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> lines = Files.readAllLines(journal, StandardCharsets.US_ASCII);
+            if (lines.isEmpty()) {
+                return Optional.empty();
+            }
+            String[] begin = lines.get(0).split("\\|");
+            if (begin.length != 3 || !"BEGIN".equals(begin[0])) {
+                log.warn("Ignoring unreadable checkpoint journal: {}", journal);
+                return Optional.empty();
+            }
+            Map<Integer, IngestCheckpoint.ChunkTotals> committed = new HashMap<>();
+            for (int i = 1; i < lines.size(); i++) {
+                String[] chunk = lines.get(i).split("\\|");
+                if (chunk.length != 5 || !"CHUNK".equals(chunk[0]) || !"END".equals(chunk[4])) {
+                    continue;
+                }
+                committed.put(Integer.parseInt(chunk[1]), new IngestCheckpoint.ChunkTotals(
+                        Integer.parseInt(chunk[2]), Long.parseLong(chunk[3])));
+            }
+            return Optional.of(new IngestCheckpoint(begin[1], Integer.parseInt(begin[2]), committed));
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable checkpoint journal {}: {}", journal, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized void begin(String ingestKey, String fileId, int chunkCount) {
+        write(journalPath(ingestKey), "BEGIN|" + fileId + "|" + chunkCount + "\n",
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+    }
+
+    @Override
+    public synchronized void markCommitted(String ingestKey, int chunkIndex, int recordCount, long amountCents) {
+        Path journal = journalPath(ingestKey);
+        if (!Files.exists(journal)) {
+            throw new IllegalStateException("No ingest in progress: " + ingestKey);
+        }
+        write(journal, "CHUNK|" + chunkIndex + "|" + recordCount + "|" + amountCents + "|END\n",
+                StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+    }
+
+    @Override
+    public synchronized void complete(String ingestKey) {
+        try {
+            Files.deleteIfExists(journalPath(ingestKey));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete checkpoint for " + ingestKey, e);
+        }
+    }
+
+    private void write(Path journal, String line, StandardOpenOption... options) {
+        try {
+            Files.writeString(journal, line, StandardCharsets.US_ASCII, options);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write checkpoint " + journal, e);
+        }
+    }
+
+    /**
+     * Ingest keys contain file names and header data, so the journal is named by their hash.
+     */
+    private Path journalPath(String ingestKey) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(ingestKey.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash, 0, 16) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
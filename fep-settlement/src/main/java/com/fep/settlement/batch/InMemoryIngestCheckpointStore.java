@@ -0,0 +1,53 @@
+package com.fep.settlement.batch;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory checkpoint store. Lets a failed ingest resume within the same
+ * process; use {@link FileIngestCheckpointStore} to survive a restart.
+ */
+public class InMemoryIngestCheckpointStore implements IngestCheckpointStore {
+
+    private final Map<String, Progress> ingests = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<IngestCheckpoint> find(String ingestKey) {
+        Progress progress = ingests.get(ingestKey);
+        if (progress == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new IngestCheckpoint(progress.fileId, progress.chunkCount, progress.committed));
+    }
+
+    @Override
+    public void begin(String ingestKey, String fileId, int chunkCount) {
+        ingests.put(ingestKey, new Progress(fileId, chunkCount));
+    }
+
+    @Override
+    public void markCommitted(String ingestKey, int chunkIndex, int recordCount, long amountCents) {
+        Progress progress = ingests.get(ingestKey);
+        if (progress == null) {
+            throw new IllegalStateException("No ingest in progress: " + ingestKey);
+        }
+        progress.committed.put(chunkIndex, new IngestCheckpoint.ChunkTotals(recordCount, amountCents));
+    }
+
+    @Override
+    public void complete(String ingestKey) {
+        ingests.remove(ingestKey);
+    }
+
+    private static final class Progress {
+        private final String fileId;
+        private final int chunkCount;
+        private final Map<Integer, IngestCheckpoint.ChunkTotals> committed = new ConcurrentHashMap<>();
+
+        private Progress(String fileId, int chunkCount) {
+            this.fileId = fileId;
+            this.chunkCount = chunkCount;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.fep.settlement.batch;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Progress of a chunked file ingest: the settlement file it writes to and the
+ * chunks already committed, with their record count and amount totals so a
+ * resumed ingest can check integrity without re-reading them.
+ *
+ * @param fileId     settlement file ID the chunks are written under
+ * @param chunkCount total number of chunks in the file
+ * @param committed  committed chunk totals by chunk index
+ */
+public record IngestCheckpoint(String fileId, int chunkCount, Map<Integer, ChunkTotals> committed) {
+
+    public IngestCheckpoint {
+        committed = Collections.unmodifiableMap(new TreeMap<>(committed));
+    }
+
+    /**
+     * Checks whether a chunk has been committed.
+     */
+    public boolean isCommitted(int chunkIndex) {
+        return committed.containsKey(chunkIndex);
+    }
+
+    /**
+     * Record count and amount in cents of one committed chunk.
+     */
+    public record ChunkTotals(int recordCount, long amountCents) {}
+}
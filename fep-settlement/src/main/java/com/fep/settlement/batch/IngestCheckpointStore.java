@@ -0,0 +1,36 @@
+package com.fep.settlement.batch;
+
+import java.util.Optional;
+
+/**
+ * Records which chunks of a file ingest have been committed, so that a failed
+ * ingest can resume from the last committed chunk instead of restarting.
+ *
+ * <p>Implementations must allow {@link #markCommitted} to be called concurrently
+ * for different chunks of the same ingest.
+ */
+public interface IngestCheckpointStore {
+
+    /**
+     * Find the checkpoint of an unfinished ingest.
+     *
+     * @param ingestKey identifies the file being ingested
+     * @return the checkpoint, or empty if the file has no unfinished ingest
+     */
+    Optional<IngestCheckpoint> find(String ingestKey);
+
+    /**
+     * Start a new ingest, replacing any previous checkpoint for the key.
+     */
+    void begin(String ingestKey, String fileId, int chunkCount);
+
+    /**
+     * Record that a chunk has been committed to the repository.
+     */
+    void markCommitted(String ingestKey, int chunkIndex, int recordCount, long amountCents);
+
+    /**
+     * Discard the checkpoint once the ingest has finished.
+     */
+    void complete(String ingestKey);
+}
@@ -0,0 +1,400 @@
+package com.fep.settlement.batch;
+
+import com.fep.settlement.domain.FileProcessingStatus;
+import com.fep.settlement.domain.SettlementFile;
+import com.fep.settlement.domain.SettlementRecord;
+import com.fep.settlement.domain.SettlementRollup;
+import com.fep.settlement.file.FiscSettlementFileParser;
+import com.fep.settlement.file.FixedRecordLayout;
+import com.fep.settlement.file.SettlementFileParseException;
+import com.fep.settlement.repository.SettlementRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests a single fixed-record-length settlement file in parallel.
+ *
+ * <p>The detail region is split into chunks of {@code commitInterval} records.
+ * Each chunk is parsed from its own byte range on a fork-join pool and saved in
+ * one repository transaction that replaces the chunk's sequence range, so a
+ * chunk can be retried without duplicating records. Committed chunks are
+ * recorded in an {@link IngestCheckpointStore}; re-ingesting a file after a
+ * failure skips them and reuses their totals for the trailer check.
+ *
+ * <p>Each chunk also adds its records to the file's {@link SettlementRollup},
+ * which is stored once the whole file is in. A resumed ingest rebuilds the
+ * rollup from the stored records, since skipped chunks are not parsed again.
+ *
+ * <p>Files whose detail records are not all the same length are ingested
+ * sequentially through the streaming parser.
+ */
+public class ParallelFileIngester {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelFileIngester.class);
+
+    private final SettlementRepository repository;
+    private final IngestConfig config;
+    private final ForkJoinPool pool;
+
+    public ParallelFileIngester(SettlementRepository repository, IngestConfig config) {
+        if (config.getCommitInterval() <= 0) {
+            throw new IllegalArgumentException("commitInterval must be positive");
+        }
+        this.repository = repository;
+        this.config = config;
+        this.pool = new ForkJoinPool(config.getParallelism());
+    }
+
+    /**
+     * Ingest a file, resuming a previous failed ingest of the same file if the
+     * checkpoint store has one.
+     *
+     * @param filePath path to the settlement file
+     * @param parser   parser for the file's type
+     * @return ingest result; the file row is left in FAILED status if ingest failed
+     */
+    public IngestResult ingest(Path filePath, FiscSettlementFileParser parser) {
+        String fileName = filePath.getFileName().toString();
+        IngestResult result = IngestResult.builder()
+                .fileName(fileName)
+                .startTime(LocalDateTime.now())
+                .build();
+
+        FixedRecordLayout layout;
+        try {
+            layout = parser.describeLayout(filePath);
+        } catch (SettlementFileParseException e) {
+            result.setStatus(FileProcessingStatus.VALIDATION_FAILED);
+            result.setErrorMessage("Validation failed: " + e.getMessage());
+            result.setEndTime(LocalDateTime.now());
+            return result;
+        }
+
+        if (layout == null) {
+            log.info("Detail records in {} are not fixed length, ingesting sequentially", fileName);
+            return ingestSequential(filePath, parser, result);
+        }
+        return ingestChunked(filePath, parser, layout, result);
+    }
+
+    private IngestResult ingestChunked(Path filePath, FiscSettlementFileParser parser,
+                                       FixedRecordLayout layout, IngestResult result) {
+        String fileName = result.getFileName();
+        int commitInterval = config.getCommitInterval();
+        int chunkCount = (int) ((layout.recordCount() + commitInterval - 1) / commitInterval);
+        String ingestKey = ingestKey(fileName, layout);
+        IngestCheckpointStore checkpoints = config.getCheckpointStore();
+
+        SettlementFile file = null;
+        IngestCheckpoint checkpoint = checkpoints.find(ingestKey)
+                .filter(c -> c.chunkCount() == chunkCount)
+                .orElse(null);
+        if (checkpoint != null) {
+            file = repository.findFileById(checkpoint.fileId()).orElse(null);
+        }
+        if (file == null) {
+            file = newFile(fileName, parser, layout);
+            repository.saveFile(file);
+            checkpoints.begin(ingestKey, file.getFileId(), chunkCount);
+            checkpoint = null;
+        } else {
+            log.info("Resuming ingest of {} into {}: {}/{} chunks already committed",
+                    fileName, file.getFileId(), checkpoint.committed().size(), chunkCount);
+            result.setResumedChunks(checkpoint.committed().size());
+        }
+        result.setFileId(file.getFileId());
+        result.setSettlementDate(file.getSettlementDate());
+        result.setChunkCount(chunkCount);
+
+        String fileId = file.getFileId();
+        ForkJoinTask<String> checksumTask = pool.submit(() -> parser.calculateChecksum(filePath));
+        List<ForkJoinTask<IngestCheckpoint.ChunkTotals>> chunkTasks = new ArrayList<>();
+        SettlementRollup rollup = new SettlementRollup();
+        long recordCount = 0;
+        long totalCents = 0;
+
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            if (checkpoint != null && checkpoint.isCommitted(chunk)) {
+                IngestCheckpoint.ChunkTotals totals = checkpoint.committed().get(chunk);
+                recordCount += totals.recordCount();
+                totalCents += totals.amountCents();
+                continue;
+            }
+            int chunkIndex = chunk;
+            long first = (long) chunk * commitInterval;
+            int count = (int) Math.min(commitInterval, layout.recordCount() - first);
+            chunkTasks.add(pool.submit(() ->
+                    ingestChunk(filePath, parser, layout, fileId, ingestKey, chunkIndex, first, count, rollup)));
+        }
+
+        Exception failure = null;
+        for (ForkJoinTask<IngestCheckpoint.ChunkTotals> task : chunkTasks) {
+            try {
+                IngestCheckpoint.ChunkTotals totals = task.get();
+                recordCount += totals.recordCount();
+                totalCents += totals.amountCents();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            String checksum = checksumTask.get();
+            BigDecimal totalAmount = BigDecimal.valueOf(totalCents, 2);
+            SettlementFile.FileTrailer trailer = layout.trailer();
+            boolean integrityValid = trailer.getRecordCount() == recordCount
+                    && (trailer.getTotalAmount() == null || trailer.getTotalAmount().compareTo(totalAmount) == 0);
+
+            repository.saveRollup(fileId, file.getSettlementDate(), result.getResumedChunks() > 0
+                    ? SettlementRollup.of(repository.findRecordsByFileId(fileId)) : rollup);
+
+            file.setChecksum(checksum);
+            file.setProcessingCompletedAt(LocalDateTime.now());
+            file.setProcessingStatus(integrityValid
+                    ? FileProcessingStatus.RECONCILING : FileProcessingStatus.VALIDATION_FAILED);
+            file.setErrorMessage(integrityValid ? null : "Record count or total amount does not match trailer");
+            repository.updateFileStatus(file);
+            checkpoints.complete(ingestKey);
+
+            result.setStatus(file.getProcessingStatus());
+            result.setErrorMessage(file.getErrorMessage());
+            result.setRecordCount(recordCount);
+            result.setTotalAmount(totalAmount);
+            result.setChecksum(checksum);
+            result.setIntegrityValid(integrityValid);
+            log.info("Ingested {} records from {} in {} chunks ({} resumed)",
+                    recordCount, fileName, chunkCount, result.getResumedChunks());
+
+        } catch (Exception e) {
+            Throwable cause = unwrap(e);
+            log.error("Ingest of {} failed, committed chunks kept for resume: {}", fileName, cause.getMessage(), cause);
+            file.setProcessingStatus(FileProcessingStatus.FAILED);
+            file.setErrorMessage(cause.getMessage());
+            try {
+                repository.updateFileStatus(file);
+            } catch (Exception statusError) {
+                log.error("Failed to record ingest failure for {}: {}", fileId, statusError.getMessage());
+            }
+            result.setStatus(FileProcessingStatus.FAILED);
+            result.setErrorMessage(cause.getMessage());
+        }
+
+        result.setEndTime(LocalDateTime.now());
+        return result;
+    }
+
+    private IngestCheckpoint.ChunkTotals ingestChunk(Path filePath, FiscSettlementFileParser parser,
+                                                     FixedRecordLayout layout, String fileId,
+                                                     String ingestKey, int chunkIndex, long first, int count,
+                                                     SettlementRollup rollup)
+            throws SettlementFileParseException {
+        List<SettlementRecord> records = parser.parseRecords(filePath, layout, first, count);
+        long cents = 0;
+        for (SettlementRecord record : records) {
+            cents += record.getAmount().unscaledValue().longValue();
+        }
+        repository.saveRecordChunk(fileId, first + 1, first + count, records);
+        config.getCheckpointStore().markCommitted(ingestKey, chunkIndex, records.size(), cents);
+        synchronized (rollup) {
+            for (SettlementRecord record : records) {
+                rollup.add(record);
+            }
+        }
+        return new IngestCheckpoint.ChunkTotals(records.size(), cents);
+    }
+
+    /**
+     * The exception thrown by a chunk task. ForkJoinTask.get wraps it in an
+     * ExecutionException around a same-typed copy made on the joining thread.
+     */
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        while (cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Streams a variable-length file and saves it in commit-interval chunks.
+     */
+    private IngestResult ingestSequential(Path filePath, FiscSettlementFileParser parser, IngestResult result) {
+        SettlementFile file = SettlementFile.builder()
+                .fileId(generateFileId())
+                .fileName(result.getFileName())
+                .fileType(parser.getFileType())
+                .source("FISC")
+                .receivedAt(result.getStartTime())
+                .processingStartedAt(result.getStartTime())
+                .processingStatus(FileProcessingStatus.PARSING)
+                .build();
+        repository.saveFile(file);
+        result.setFileId(file.getFileId());
+
+        List<SettlementRecord> pending = new ArrayList<>(config.getCommitInterval());
+        long[] committed = {0};
+        SettlementRollup rollup = new SettlementRollup();
+        try {
+            var summary = parser.parse(filePath, record -> {
+                pending.add(record);
+                rollup.add(record);
+                if (pending.size() == config.getCommitInterval()) {
+                    flush(file.getFileId(), pending, committed);
+                }
+            });
+            flush(file.getFileId(), pending, committed);
+
+            file.setSettlementDate(summary.getSettlementDate());
+            file.setHeader(summary.getHeader());
+            file.setTrailer(summary.getTrailer());
+            file.setChecksum(summary.getChecksum());
+            file.setFileSizeBytes(summary.getFileSizeBytes());
+            repository.saveRollup(file.getFileId(), file.getSettlementDate(), rollup);
+            result.setSettlementDate(file.getSettlementDate());
+            file.setProcessingCompletedAt(LocalDateTime.now());
+            file.setProcessingStatus(summary.isIntegrityValid()
+                    ? FileProcessingStatus.RECONCILING : FileProcessingStatus.VALIDATION_FAILED);
+            repository.updateFileStatus(file);
+
+            result.setStatus(file.getProcessingStatus());
+            result.setRecordCount(summary.getRecordCount());
+            result.setTotalAmount(summary.getTotalAmount());
+            result.setChecksum(summary.getChecksum());
+            result.setIntegrityValid(summary.isIntegrityValid());
+            result.setChunkCount((int) ((committed[0] + config.getCommitInterval() - 1) / config.getCommitInterval()));
+
+        } catch (Exception e) {
+            log.error("Sequential ingest of {} failed: {}", result.getFileName(), e.getMessage(), e);
+            file.setProcessingStatus(e instanceof SettlementFileParseException
+                    ? FileProcessingStatus.VALIDATION_FAILED : FileProcessingStatus.FAILED);
+            file.setErrorMessage(e.getMessage());
+            repository.updateFileStatus(file);
+            result.setStatus(file.getProcessingStatus());
+            result.setErrorMessage(e.getMessage());
+        }
+
+        result.setEndTime(LocalDateTime.now());
+        return result;
+    }
+
+    private void flush(String fileId, List<SettlementRecord> pending, long[] committed) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        repository.saveRecordChunk(fileId, committed[0] + 1, committed[0] + pending.size(), new ArrayList<>(pending));
+        committed[0] += pending.size();
+        pending.clear();
+    }
+
+    private SettlementFile newFile(String fileName, FiscSettlementFileParser parser, FixedRecordLayout layout) {
+        LocalDateTime now = LocalDateTime.now();
+        return SettlementFile.builder()
+                .fileId(generateFileId())
+                .fileName(fileName)
+                .fileType(parser.getFileType())
+                .source("FISC")
+                .receivedAt(now)
+                .processingStartedAt(now)
+                .processingStatus(FileProcessingStatus.PARSING)
+                .settlementDate(layout.header().getCreationDate())
+                .header(layout.header())
+                .trailer(layout.trailer())
+                .fileSizeBytes(layout.fileSizeBytes())
+                .build();
+    }
+
+    /**
+     * Identifies a file across ingest attempts by name, size and header.
+     */
+    private static String ingestKey(String fileName, FixedRecordLayout layout) {
+        return fileName + "|" + layout.fileSizeBytes() + "|" + layout.header().getRawData();
+    }
+
+    private static String generateFileId() {
+        return "SF-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    /**
+     * Shutdown the ingester's worker pool.
+     */
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(60, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Intra-file ingest configuration.
+     */
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class IngestConfig {
+        /** Worker threads parsing and saving chunks */
+        @lombok.Builder.Default
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /** Records per chunk; each chunk is committed in one transaction */
+        @lombok.Builder.Default
+        private int commitInterval = 10_000;
+
+        @lombok.Builder.Default
+        private IngestCheckpointStore checkpointStore = new InMemoryIngestCheckpointStore();
+
+        public static IngestConfig defaultConfig() {
+            return IngestConfig.builder().build();
+        }
+    }
+
+    /**
+     * Single file ingest result.
+     */
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class IngestResult {
+        private String fileId;
+        private String fileName;
+        private LocalDate settlementDate;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private FileProcessingStatus status;
+        private long recordCount;
+        @lombok.Builder.Default
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        private int chunkCount;
+        private int resumedChunks;
+        private boolean integrityValid;
+        private String checksum;
+        private String errorMessage;
+
+        public boolean isSuccess() {
+            return status == FileProcessingStatus.RECONCILING;
+        }
+    }
+}
@@ -38,38 +38,41 @@ public class ClearingService {
             return Collections.emptyList();
         }
 
-        // Collect all matched records
-        List<SettlementRecord> allRecords = files.stream()
-                .flatMap(f -> f.getRecords().stream())
-                .filter(r -> r.getStatus() == SettlementStatus.MATCHED ||
-                            r.getStatus() == SettlementStatus.CLEARED)
-                .toList();
+        // Combine the files' rollups rather than walking their records
+        Map<String, SettlementRollup> storedRollups =
+                repository.findRollupsByDateRange(settlementDate, settlementDate);
+        SettlementRollup rollup = new SettlementRollup();
+        for (SettlementFile file : files) {
+            rollup.merge(repository.rollupOf(file, storedRollups));
+        }
 
-        // Group by counterparty bank and transaction category
-        Map<String, Map<String, List<SettlementRecord>>> grouped = groupRecords(allRecords);
+        // Collect matched cells, grouped by counterparty bank and transaction category
+        List<SettlementRollup.Cell> matchedCells = rollup.getCells().stream()
+                .filter(c -> c.status() == SettlementStatus.MATCHED ||
+                            c.status() == SettlementStatus.CLEARED)
+                .toList();
+        Map<String, Map<String, List<SettlementRollup.Cell>>> grouped = groupCells(matchedCells);
 
         List<ClearingRecord> clearingRecords = new ArrayList<>();
         String batchNumber = generateBatchNumber(settlementDate);
 
-        for (Map.Entry<String, Map<String, List<SettlementRecord>>> bankEntry : grouped.entrySet()) {
+        for (Map.Entry<String, Map<String, List<SettlementRollup.Cell>>> bankEntry : grouped.entrySet()) {
             String counterpartyBank = bankEntry.getKey();
 
-            for (Map.Entry<String, List<SettlementRecord>> categoryEntry : bankEntry.getValue().entrySet()) {
+            for (Map.Entry<String, List<SettlementRollup.Cell>> categoryEntry : bankEntry.getValue().entrySet()) {
                 String category = categoryEntry.getKey();
-                List<SettlementRecord> records = categoryEntry.getValue();
+                List<SettlementRollup.Cell> cells = categoryEntry.getValue();
 
                 ClearingRecord clearingRecord = calculateClearingRecord(
-                        settlementDate, batchNumber, counterpartyBank, category, records
+                        settlementDate, batchNumber, counterpartyBank, category, cells
                 );
 
                 clearingRecords.add(clearingRecord);
             }
         }
 
-        // Save all clearing records
-        for (ClearingRecord record : clearingRecords) {
-            repository.saveClearingRecord(record);
-        }
+        // Save all clearing records in one bulk write
+        repository.saveClearingRecords(clearingRecords);
 
         log.info("Created {} clearing records for date {}", clearingRecords.size(), settlementDate);
 
@@ -83,35 +86,32 @@ public class ClearingService {
                                                     String batchNumber,
                                                     String counterpartyBank,
                                                     String category,
-                                                    List<SettlementRecord> records) {
+                                                    List<SettlementRollup.Cell> cells) {
         int debitCount = 0;
         int creditCount = 0;
         BigDecimal debitAmount = BigDecimal.ZERO;
         BigDecimal creditAmount = BigDecimal.ZERO;
         BigDecimal totalFees = BigDecimal.ZERO;
 
-        for (SettlementRecord record : records) {
-            BigDecimal amount = record.getAmount() != null ? record.getAmount() : BigDecimal.ZERO;
-            BigDecimal fee = record.getFeeAmount() != null ? record.getFeeAmount() : BigDecimal.ZERO;
-
+        for (SettlementRollup.Cell cell : cells) {
             // Determine if we are paying (debit) or receiving (credit)
             // If issuing bank is us and acquiring bank is counterparty -> we pay (debit)
             // If acquiring bank is us and issuing bank is counterparty -> we receive (credit)
-            boolean isDebit = ourBankCode.equals(record.getIssuingBankCode());
+            boolean isDebit = ourBankCode.equals(cell.issuingBankCode());
 
-            if (record.isReversal()) {
+            if (cell.reversal()) {
                 isDebit = !isDebit; // Reversals flip the direction
             }
 
             if (isDebit) {
-                debitCount++;
-                debitAmount = debitAmount.add(amount);
+                debitCount += (int) cell.count();
+                debitAmount = debitAmount.add(cell.amount());
             } else {
-                creditCount++;
-                creditAmount = creditAmount.add(amount);
+                creditCount += (int) cell.count();
+                creditAmount = creditAmount.add(cell.amount());
             }
 
-            totalFees = totalFees.add(fee);
+            totalFees = totalFees.add(cell.feeAmount());
         }
 
         BigDecimal netAmount = creditAmount.subtract(debitAmount);
@@ -136,18 +136,18 @@ public class ClearingService {
     }
 
     /**
-     * Group records by counterparty bank and transaction category.
+     * Group rollup cells by counterparty bank and transaction category.
      */
-    private Map<String, Map<String, List<SettlementRecord>>> groupRecords(List<SettlementRecord> records) {
-        Map<String, Map<String, List<SettlementRecord>>> result = new HashMap<>();
+    private Map<String, Map<String, List<SettlementRollup.Cell>>> groupCells(List<SettlementRollup.Cell> cells) {
+        Map<String, Map<String, List<SettlementRollup.Cell>>> result = new HashMap<>();
 
-        for (SettlementRecord record : records) {
+        for (SettlementRollup.Cell cell : cells) {
             // Determine counterparty bank
             String counterparty;
-            if (ourBankCode.equals(record.getIssuingBankCode())) {
-                counterparty = record.getAcquiringBankCode();
-            } else if (ourBankCode.equals(record.getAcquiringBankCode())) {
-                counterparty = record.getIssuingBankCode();
+            if (ourBankCode.equals(cell.issuingBankCode())) {
+                counterparty = cell.acquiringBankCode();
+            } else if (ourBankCode.equals(cell.acquiringBankCode())) {
+                counterparty = cell.issuingBankCode();
             } else {
                 // Neither matches our bank - skip
                 continue;
@@ -157,11 +157,11 @@ public class ClearingService {
                 continue;
             }
 
-            String category = categorizeTransaction(record);
+            String category = categorizeTransaction(cell.transactionType());
 
             result.computeIfAbsent(counterparty, k -> new HashMap<>())
                     .computeIfAbsent(category, k -> new ArrayList<>())
-                    .add(record);
+                    .add(cell);
         }
 
         return result;
@@ -170,8 +170,7 @@ public class ClearingService {
     /**
      * Categorize transaction for clearing purposes.
      */
-    private String categorizeTransaction(SettlementRecord record) {
-        String type = record.getTransactionType();
+    private String categorizeTransaction(String type) {
         if (type == null) {
             return "OTHER";
         }
@@ -246,8 +245,8 @@ public class ClearingService {
 
         for (ClearingRecord record : records) {
             record.setStatus(ClearingStatus.SUBMITTED);
-            repository.saveClearingRecord(record);
         }
+        repository.saveClearingRecords(records);
 
         log.info("Submitted {} clearing records for date {}", records.size(), settlementDate);
 
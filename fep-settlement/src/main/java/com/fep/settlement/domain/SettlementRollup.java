@@ -0,0 +1,163 @@
+package com.fep.settlement.domain;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-aggregated counts and amounts of a settlement file's records, one cell per
+ * combination of acquiring bank, issuing bank, transaction type, channel, status
+ * and reversal flag.
+ *
+ * <p>A file's rollup is built once at ingest and rebuilt after reconciliation
+ * changes record statuses. Reports and clearing combine the rollups of the files
+ * they cover instead of walking the records, so their cost grows with files and
+ * dimension combinations rather than with record count.
+ */
+public class SettlementRollup {
+
+    private final Map<Key, Totals> cells = new LinkedHashMap<>();
+
+    /**
+     * Build a rollup of the given records.
+     */
+    public static SettlementRollup of(Collection<SettlementRecord> records) {
+        SettlementRollup rollup = new SettlementRollup();
+        if (records != null) {
+            for (SettlementRecord record : records) {
+                rollup.add(record);
+            }
+        }
+        return rollup;
+    }
+
+    /**
+     * Rebuild a rollup from stored cells.
+     */
+    public static SettlementRollup ofCells(Collection<Cell> cells) {
+        SettlementRollup rollup = new SettlementRollup();
+        for (Cell cell : cells) {
+            rollup.add(cell);
+        }
+        return rollup;
+    }
+
+    /**
+     * Add one record to its cell.
+     */
+    public void add(SettlementRecord record) {
+        Key key = new Key(record.getAcquiringBankCode(), record.getIssuingBankCode(),
+                record.getTransactionType(), record.getChannel(), record.getStatus(), record.isReversal());
+        cells.computeIfAbsent(key, k -> new Totals()).add(1, record.getAmount(), record.getFeeAmount());
+    }
+
+    /**
+     * Add a cell's totals to the matching cell of this rollup.
+     */
+    public void add(Cell cell) {
+        Key key = new Key(cell.acquiringBankCode(), cell.issuingBankCode(),
+                cell.transactionType(), cell.channel(), cell.status(), cell.reversal());
+        cells.computeIfAbsent(key, k -> new Totals()).add(cell.count(), cell.amount(), cell.feeAmount());
+    }
+
+    /**
+     * Add every cell of another rollup to this one.
+     *
+     * @return this rollup
+     */
+    public SettlementRollup merge(SettlementRollup other) {
+        for (Cell cell : other.getCells()) {
+            add(cell);
+        }
+        return this;
+    }
+
+    /**
+     * The rollup's cells, in first-seen order.
+     */
+    public List<Cell> getCells() {
+        List<Cell> result = new ArrayList<>(cells.size());
+        for (Map.Entry<Key, Totals> entry : cells.entrySet()) {
+            Key k = entry.getKey();
+            Totals t = entry.getValue();
+            result.add(new Cell(k.acquiringBankCode(), k.issuingBankCode(), k.transactionType(), k.channel(),
+                    k.status(), k.reversal(), t.count, t.amount, t.feeAmount));
+        }
+        return result;
+    }
+
+    /**
+     * Total number of records rolled up.
+     */
+    public long getRecordCount() {
+        long count = 0;
+        for (Totals totals : cells.values()) {
+            count += totals.count;
+        }
+        return count;
+    }
+
+    /**
+     * Total amount of all records rolled up.
+     */
+    public BigDecimal getTotalAmount() {
+        BigDecimal amount = BigDecimal.ZERO;
+        for (Totals totals : cells.values()) {
+            amount = amount.add(totals.amount);
+        }
+        return amount;
+    }
+
+    public boolean isEmpty() {
+        return cells.isEmpty();
+    }
+
+    /**
+     * Aggregated records sharing one combination of dimensions.
+     *
+     * @param acquiringBankCode acquiring bank
+     * @param issuingBankCode   issuing bank
+     * @param transactionType   transaction type code
+     * @param channel           channel
+     * @param status            settlement status
+     * @param reversal          whether the records are reversals
+     * @param count             number of records
+     * @param amount            sum of record amounts
+     * @param feeAmount         sum of record fees
+     */
+    public record Cell(
+            String acquiringBankCode,
+            String issuingBankCode,
+            String transactionType,
+            String channel,
+            SettlementStatus status,
+            boolean reversal,
+            long count,
+            BigDecimal amount,
+            BigDecimal feeAmount
+    ) {
+    }
+
+    private record Key(String acquiringBankCode, String issuingBankCode, String transactionType,
+                       String channel, SettlementStatus status, boolean reversal) {
+    }
+
+    private static final class Totals {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private BigDecimal feeAmount = BigDecimal.ZERO;
+
+        private void add(long count, BigDecimal amount, BigDecimal feeAmount) {
+            this.count += count;
+            if (amount != null) {
+                this.amount = this.amount.add(amount);
+            }
+            if (feeAmount != null) {
+                this.feeAmount = this.feeAmount.add(feeAmount);
+            }
+        }
+    }
+}
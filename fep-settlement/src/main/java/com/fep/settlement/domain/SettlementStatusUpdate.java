@@ -0,0 +1,25 @@
+package com.fep.settlement.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reconciliation outcome of one settlement record, applied to the stored record
+ * by sequence number within its file.
+ *
+ * @param sequenceNumber       record sequence number in the file
+ * @param status               new settlement status
+ * @param matchedTransactionId matched internal transaction, or null
+ * @param matchedAt            match time, or null
+ */
+public record SettlementStatusUpdate(
+        long sequenceNumber,
+        SettlementStatus status,
+        String matchedTransactionId,
+        LocalDateTime matchedAt
+) {
+
+    public static SettlementStatusUpdate of(SettlementRecord record) {
+        return new SettlementStatusUpdate(record.getSequenceNumber(), record.getStatus(),
+                record.getMatchedTransactionId(), record.getMatchedAt());
+    }
+}
@@ -1,37 +1,57 @@
 package com.fep.settlement.file;
 
+import com.fep.message.generic.fixed.FixedField;
+import com.fep.message.generic.fixed.FixedRecordCodec;
+import com.fep.message.generic.fixed.FixedRecordSchemaLoader;
 import com.fep.settlement.domain.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Parser for FISC settlement files.
  * Handles the standard FISC fixed-width format used in Taiwan interbank transactions.
+ *
+ * <p>Files are read in one pass through a memory-mapped channel. Record layouts
+ * are declared in {@code fisc-settlement-layouts.json} and compiled to
+ * {@link FixedRecordCodec}s, so fields are sliced straight from the record bytes
+ * and amounts and dates are parsed arithmetically. The SHA-256 checksum is updated
+ * line by line, and header, trailer and totals are checked as records go by, so
+ * streaming a file of any size uses constant memory.
  */
 public class FiscSettlementFileParser implements SettlementFileParser {
 
     private static final Logger log = LoggerFactory.getLogger(FiscSettlementFileParser.class);
 
     private static final String DEFAULT_ENCODING = "Big5";
-    private static final int HEADER_RECORD_LENGTH = 100;
-    private static final int DETAIL_RECORD_LENGTH = 200;
-    private static final int TRAILER_RECORD_LENGTH = 100;
+    private static final String LAYOUT_RESOURCE = "fisc-settlement-layouts.json";
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
-    private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    // Mapped region per step; a 2 GB MappedByteBuffer limit would otherwise cap file size
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
     private final SettlementFileType fileType;
     private final Charset charset;
@@ -47,8 +67,32 @@ public class FiscSettlementFileParser implements SettlementFileParser {
 
     @Override
     public SettlementFile parse(Path filePath) throws SettlementFileParseException {
-        try (InputStream is = Files.newInputStream(filePath)) {
-            return parse(is, filePath.getFileName().toString());
+        List<SettlementRecord> records = new ArrayList<>();
+        return toSettlementFile(parse(filePath, records::add), records);
+    }
+
+    @Override
+    public SettlementFile parse(InputStream inputStream, String fileName) throws SettlementFileParseException {
+        List<SettlementRecord> records = new ArrayList<>();
+        return toSettlementFile(parse(inputStream, fileName, records::add), records);
+    }
+
+    @Override
+    public SettlementFileSummary parse(Path filePath, Consumer<SettlementRecord> consumer)
+            throws SettlementFileParseException {
+        String fileName = filePath.getFileName().toString();
+        log.info("Parsing settlement file: {}", fileName);
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            FileScan scan = new FileScan(fileName, consumer);
+            LineSplitter splitter = new LineSplitter(scan::line);
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                long length = Math.min(MAP_WINDOW_BYTES, size - position);
+                splitter.feed(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+            splitter.finish();
+            return scan.finish(size);
         } catch (IOException e) {
             throw new SettlementFileParseException("Failed to read file: " + e.getMessage(),
                     filePath.toString(), -1, e);
@@ -56,185 +100,219 @@ public class FiscSettlementFileParser implements SettlementFileParser {
     }
 
     @Override
-    public SettlementFile parse(InputStream inputStream, String fileName) throws SettlementFileParseException {
+    public SettlementFileSummary parse(InputStream inputStream, String fileName,
+                                       Consumer<SettlementRecord> consumer) throws SettlementFileParseException {
         log.info("Parsing settlement file: {}", fileName);
 
-        SettlementFile settlementFile = SettlementFile.builder()
-                .fileId(generateFileId())
-                .fileName(fileName)
-                .fileType(fileType)
-                .source("FISC")
-                .receivedAt(LocalDateTime.now())
-                .processingStartedAt(LocalDateTime.now())
-                .processingStatus(FileProcessingStatus.PARSING)
-                .records(new ArrayList<>())
-                .build();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, charset))) {
-            List<String> lines = reader.lines().toList();
+        try (inputStream) {
+            FileScan scan = new FileScan(fileName, consumer);
+            LineSplitter splitter = new LineSplitter(scan::line);
+            byte[] chunk = new byte[STREAM_BUFFER_BYTES];
+            long size = 0;
+            int read;
+            while ((read = inputStream.read(chunk)) != -1) {
+                splitter.feed(ByteBuffer.wrap(chunk, 0, read));
+                size += read;
+            }
+            splitter.finish();
+            return scan.finish(size);
+        } catch (IOException e) {
+            throw new SettlementFileParseException("Error reading file: " + e.getMessage(),
+                    fileName, -1, e);
+        }
+    }
 
-            if (lines.isEmpty()) {
+    /**
+     * Works out the fixed-length layout of a file from its header, first detail
+     * record and trailer. The records in between are only probed at the
+     * boundaries the layout implies, so a variable-length file whose detail
+     * bytes happen to be a multiple of the first record's length is not
+     * mistaken for a fixed-length one.
+     *
+     * @param filePath path to the settlement file
+     * @return the layout, or null if detail records are not all the same length
+     * @throws SettlementFileParseException if the header or trailer is missing or invalid
+     */
+    public FixedRecordLayout describeLayout(Path filePath) throws SettlementFileParseException {
+        String fileName = filePath.getFileName().toString();
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
                 throw new SettlementFileParseException("Empty file", fileName);
             }
 
-            int lineNumber = 0;
-            boolean headerParsed = false;
-            boolean trailerParsed = false;
-
-            for (String line : lines) {
-                lineNumber++;
-
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-
-                String recordType = getRecordType(line);
-
-                switch (recordType) {
-                    case "H" -> {
-                        if (headerParsed) {
-                            throw new SettlementFileParseException("Duplicate header found",
-                                    fileName, lineNumber);
-                        }
-                        settlementFile.setHeader(parseHeader(line));
-                        headerParsed = true;
-                    }
-                    case "D" -> {
-                        if (!headerParsed) {
-                            throw new SettlementFileParseException("Detail record before header",
-                                    fileName, lineNumber);
-                        }
-                        SettlementRecord record = parseRecord(line, lineNumber);
-                        record.setSequenceNumber(settlementFile.getTotalRecordCount() + 1);
-                        settlementFile.addRecord(record);
-                    }
-                    case "T" -> {
-                        settlementFile.setTrailer(parseTrailer(line));
-                        trailerParsed = true;
-                    }
-                    default -> log.warn("Unknown record type '{}' at line {}", recordType, lineNumber);
-                }
+            long headerEnd = nextLineStart(channel, 0, size);
+            long contentEnd = size;
+            if (byteAt(channel, contentEnd - 1) == '\n') {
+                contentEnd--;
+            }
+            if (contentEnd > 0 && byteAt(channel, contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            long trailerStart = lineStartBefore(channel, contentEnd);
+            if (headerEnd >= size || trailerStart < headerEnd) {
+                throw new SettlementFileParseException("Missing trailer record", fileName);
             }
 
-            if (!headerParsed) {
+            byte[] headerLine = readLine(channel, 0, headerEnd);
+            if (headerLine.length == 0 || headerLine[0] != 'H') {
                 throw new SettlementFileParseException("Missing header record", fileName);
             }
-            if (!trailerParsed) {
+            byte[] trailerLine = readLine(channel, trailerStart, contentEnd);
+            if (trailerLine.length == 0 || trailerLine[0] != 'T') {
                 throw new SettlementFileParseException("Missing trailer record", fileName);
             }
+            SettlementFile.FileHeader header = parseHeader(new String(headerLine, charset));
+            SettlementFile.FileTrailer trailer = parseTrailer(new String(trailerLine, charset));
 
-            // Extract settlement date from header
-            if (settlementFile.getHeader() != null &&
-                settlementFile.getHeader().getCreationDate() != null) {
-                settlementFile.setSettlementDate(settlementFile.getHeader().getCreationDate());
+            long detailBytes = trailerStart - headerEnd;
+            if (detailBytes == 0) {
+                return new FixedRecordLayout(header, trailer, headerEnd, 0, 0, 0, size);
             }
-
-            // Validate file integrity
-            if (!settlementFile.validateIntegrity()) {
-                log.warn("File integrity check failed for {}", fileName);
-                settlementFile.setProcessingStatus(FileProcessingStatus.VALIDATION_FAILED);
-            } else {
-                settlementFile.setProcessingStatus(FileProcessingStatus.RECONCILING);
+            long firstDetailEnd = nextLineStart(channel, headerEnd, size);
+            int recordLength = (int) (firstDetailEnd - headerEnd);
+            if (detailBytes % recordLength != 0
+                    || !recordsAtBoundaries(channel, headerEnd, recordLength, detailBytes / recordLength)) {
+                return null;
             }
+            int terminator = byteAt(channel, firstDetailEnd - 2) == '\r' ? 2 : 1;
+            return new FixedRecordLayout(header, trailer, headerEnd, recordLength,
+                    recordLength - terminator, detailBytes / recordLength, size);
 
-            settlementFile.setProcessingCompletedAt(LocalDateTime.now());
-            settlementFile.setChecksum(calculateChecksum(lines));
+        } catch (IOException e) {
+            throw new SettlementFileParseException("Failed to read file: " + e.getMessage(),
+                    filePath.toString(), -1, e);
+        }
+    }
 
-            log.info("Parsed {} records from file {}", settlementFile.getTotalRecordCount(), fileName);
+    /**
+     * Checks that every record the layout implies starts with a detail marker
+     * and ends with a line terminator, the same check {@link #parseRecords}
+     * applies to each record it reads.
+     */
+    private static boolean recordsAtBoundaries(FileChannel channel, long detailOffset, int recordLength,
+                                               long recordCount) throws IOException {
+        long recordsPerWindow = Math.max(1, MAP_WINDOW_BYTES / recordLength);
+        for (long first = 0; first < recordCount; first += recordsPerWindow) {
+            long count = Math.min(recordsPerWindow, recordCount - first);
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    detailOffset + first * recordLength, count * recordLength);
+            for (int start = 0; start < window.limit(); start += recordLength) {
+                if (window.get(start) != 'D' || window.get(start + recordLength - 1) != '\n') {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 
-            return settlementFile;
+    /**
+     * Parses a range of detail records from a fixed-length file. Ranges can be
+     * parsed concurrently; sequence numbers come from the record index.
+     *
+     * @param filePath    path to the settlement file
+     * @param layout      layout from {@link #describeLayout(Path)}
+     * @param firstRecord zero-based index of the first record
+     * @param count       number of records
+     * @return parsed records in file order
+     * @throws SettlementFileParseException if a record is malformed or not where the layout puts it
+     */
+    public List<SettlementRecord> parseRecords(Path filePath, FixedRecordLayout layout, long firstRecord, int count)
+            throws SettlementFileParseException {
+        String fileName = filePath.getFileName().toString();
+        List<SettlementRecord> records = new ArrayList<>(count);
+        if (count == 0) {
+            return records;
+        }
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    layout.offsetOf(firstRecord), (long) count * layout.recordLength());
+            byte[] line = new byte[layout.recordLength()];
+            int length = layout.lineLength();
+            for (int i = 0; i < count; i++) {
+                buffer.get(line);
+                long index = firstRecord + i;
+                // Header occupies line 1
+                int lineNumber = (int) Math.min(Integer.MAX_VALUE, index + 2);
+                if (line[0] != 'D' || line[line.length - 1] != '\n') {
+                    throw new SettlementFileParseException("Detail record not at fixed-length position",
+                            fileName, lineNumber);
+                }
+                SettlementRecord record = parseRecord(line, length, lineNumber);
+                record.setSequenceNumber(index + 1);
+                records.add(record);
+            }
+            return records;
+        } catch (IOException e) {
+            throw new SettlementFileParseException("Failed to read file: " + e.getMessage(),
+                    filePath.toString(), -1, e);
+        }
+    }
 
+    /**
+     * Calculates the file checksum (SHA-256 over the record lines, without line
+     * terminators), for when records are parsed in ranges rather than one pass.
+     */
+    public String calculateChecksum(Path filePath) throws SettlementFileParseException {
+        MessageDigest digest = newSha256();
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            LineSplitter splitter = new LineSplitter((line, length) -> digest.update(line, 0, length));
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                long length = Math.min(MAP_WINDOW_BYTES, size - position);
+                splitter.feed(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+            splitter.finish();
+            return toHex(digest.digest());
         } catch (IOException e) {
-            throw new SettlementFileParseException("Error reading file: " + e.getMessage(),
-                    fileName, -1, e);
+            throw new SettlementFileParseException("Failed to read file: " + e.getMessage(),
+                    filePath.toString(), -1, e);
         }
     }
 
     @Override
     public SettlementRecord parseRecord(String line, int lineNumber) throws SettlementFileParseException {
+        byte[] bytes = line.getBytes(charset);
+        SettlementRecord record = parseRecord(bytes, bytes.length, lineNumber);
+        record.setRawData(line);
+        return record;
+    }
+
+    /**
+     * Parses a detail record straight from its bytes.
+     */
+    private SettlementRecord parseRecord(byte[] line, int length, int lineNumber) {
         try {
-            // FISC settlement record format (fixed width):
-            // Positions are 1-based for readability
-            // 1: Record type (1)
-            // 2-9: Transaction date (8) YYYYMMDD
-            // 10-21: Transaction reference (12)
-            // 22-27: STAN (6)
-            // 28-39: RRN (12)
-            // 40-43: Transaction type (4)
-            // 44-50: Acquiring bank code (7)
-            // 51-57: Issuing bank code (7)
-            // 58-73: Card number (16)
-            // 74-85: Amount (12) - 2 decimal places implied
-            // 86-88: Currency code (3)
-            // 89-100: Fee amount (12) - 2 decimal places implied
-            // 101-108: Terminal ID (8)
-            // 109-123: Merchant ID (15)
-            // 124-129: Auth code (6)
-            // 130-131: Response code (2)
-            // 132: Reversal flag (1) Y/N
-            // 133-144: Original transaction ref (12)
-            // 145-150: Channel (6)
-
-            String recordType = safeSubstring(line, 0, 1);
-            if (!"D".equals(recordType)) {
-                throw new SettlementFileParseException("Invalid record type for detail: " + recordType,
-                        null, lineNumber);
-            }
-
-            String txnDateStr = safeSubstring(line, 1, 9);
-            String txnRefNo = safeSubstring(line, 9, 21).trim();
-            String stan = safeSubstring(line, 21, 27).trim();
-            String rrn = safeSubstring(line, 27, 39).trim();
-            String txnType = safeSubstring(line, 39, 43).trim();
-            String acquiringBank = safeSubstring(line, 43, 50).trim();
-            String issuingBank = safeSubstring(line, 50, 57).trim();
-            String cardNumber = safeSubstring(line, 57, 73).trim();
-            String amountStr = safeSubstring(line, 73, 85).trim();
-            String currency = safeSubstring(line, 85, 88).trim();
-            String feeStr = safeSubstring(line, 88, 100).trim();
-            String terminalId = safeSubstring(line, 100, 108).trim();
-            String merchantId = safeSubstring(line, 108, 123).trim();
-            String authCode = safeSubstring(line, 123, 129).trim();
-            String responseCode = safeSubstring(line, 129, 131).trim();
-            String reversalFlag = safeSubstring(line, 131, 132).trim();
-            String origTxnRef = safeSubstring(line, 132, 144).trim();
-            String channel = safeSubstring(line, 144, 150).trim();
-
-            LocalDateTime txnDateTime = null;
-            if (!txnDateStr.isBlank()) {
-                try {
-                    LocalDate txnDate = LocalDate.parse(txnDateStr, DATE_FORMAT);
-                    txnDateTime = txnDate.atStartOfDay();
-                } catch (Exception e) {
-                    log.warn("Failed to parse date '{}' at line {}", txnDateStr, lineNumber);
-                }
+            if (length == 0 || line[0] != 'D') {
+                throw new SettlementFileParseException("Invalid record type for detail: "
+                        + (length == 0 ? "" : (char) (line[0] & 0xFF)), null, lineNumber);
             }
 
-            BigDecimal amount = parseAmount(amountStr);
-            BigDecimal fee = parseAmount(feeStr);
-            boolean isReversal = "Y".equalsIgnoreCase(reversalFlag);
+            ByteBuf buf = Unpooled.wrappedBuffer(line, 0, length);
+            LocalDate txnDate = parseDate(buf, Detail.TRANSACTION_DATE, lineNumber);
+            String currency = Detail.CURRENCY_CODE.readString(buf);
+            String reversalFlag = Detail.REVERSAL_FLAG.readString(buf);
 
             SettlementRecord record = SettlementRecord.builder()
-                    .transactionRefNo(txnRefNo)
-                    .stan(stan)
-                    .rrn(rrn)
-                    .transactionType(txnType)
-                    .acquiringBankCode(acquiringBank)
-                    .issuingBankCode(issuingBank)
-                    .cardNumber(cardNumber)
-                    .amount(amount)
+                    .transactionRefNo(Detail.TRANSACTION_REF_NO.readString(buf))
+                    .stan(Detail.STAN.readString(buf))
+                    .rrn(Detail.RRN.readString(buf))
+                    .transactionType(Detail.TRANSACTION_TYPE.readString(buf))
+                    .acquiringBankCode(Detail.ACQUIRING_BANK_CODE.readString(buf))
+                    .issuingBankCode(Detail.ISSUING_BANK_CODE.readString(buf))
+                    .cardNumber(Detail.CARD_NUMBER.readString(buf))
+                    .amount(parseAmount(buf, Detail.AMOUNT, lineNumber))
                     .currencyCode(currency.isEmpty() ? "TWD" : currency)
-                    .feeAmount(fee)
-                    .terminalId(terminalId)
-                    .merchantId(merchantId)
-                    .authCode(authCode)
-                    .responseCode(responseCode)
-                    .reversal(isReversal)
-                    .originalTransactionRef(origTxnRef)
-                    .channel(channel)
-                    .transactionDateTime(txnDateTime)
+                    .feeAmount(parseAmount(buf, Detail.FEE_AMOUNT, lineNumber))
+                    .terminalId(Detail.TERMINAL_ID.readString(buf))
+                    .merchantId(Detail.MERCHANT_ID.readString(buf))
+                    .authCode(Detail.AUTH_CODE.readString(buf))
+                    .responseCode(Detail.RESPONSE_CODE.readString(buf))
+                    .reversal("Y".equalsIgnoreCase(reversalFlag))
+                    .originalTransactionRef(Detail.ORIGINAL_TRANSACTION_REF.readString(buf))
+                    .channel(Detail.CHANNEL.readString(buf))
+                    .transactionDateTime(txnDate != null ? txnDate.atStartOfDay() : null)
                     .status(SettlementStatus.PENDING)
-                    .rawData(line)
                     .build();
 
             record.setNetAmount(record.calculateNetAmount());
@@ -250,43 +328,20 @@ public class FiscSettlementFileParser implements SettlementFileParser {
     @Override
     public SettlementFile.FileHeader parseHeader(String headerLine) throws SettlementFileParseException {
         try {
-            // Header format:
-            // 1: Record type (1) = 'H'
-            // 2-9: File ID (8)
-            // 10-12: Version (3)
-            // 13-20: Creation date (8) YYYYMMDD
-            // 21-27: Creating bank (7)
-            // 28-34: Receiving bank (7)
-            // 35-36: File type code (2)
-
-            String recordType = safeSubstring(headerLine, 0, 1);
-            if (!"H".equals(recordType)) {
-                throw new SettlementFileParseException("Invalid header record type: " + recordType);
-            }
-
-            String fileId = safeSubstring(headerLine, 1, 9).trim();
-            String version = safeSubstring(headerLine, 9, 12).trim();
-            String creationDateStr = safeSubstring(headerLine, 12, 20).trim();
-            String creatingBank = safeSubstring(headerLine, 20, 27).trim();
-            String receivingBank = safeSubstring(headerLine, 27, 34).trim();
-            String fileTypeCode = safeSubstring(headerLine, 34, 36).trim();
-
-            LocalDate creationDate = null;
-            if (!creationDateStr.isBlank()) {
-                try {
-                    creationDate = LocalDate.parse(creationDateStr, DATE_FORMAT);
-                } catch (Exception e) {
-                    log.warn("Failed to parse header date: {}", creationDateStr);
-                }
+            byte[] line = headerLine.getBytes(charset);
+            if (line.length == 0 || line[0] != 'H') {
+                throw new SettlementFileParseException("Invalid header record type: "
+                        + (line.length == 0 ? "" : headerLine.substring(0, 1)));
             }
 
+            ByteBuf buf = Unpooled.wrappedBuffer(line);
             return SettlementFile.FileHeader.builder()
-                    .fileId(fileId)
-                    .version(version)
-                    .creationDate(creationDate)
-                    .creatingBank(creatingBank)
-                    .receivingBank(receivingBank)
-                    .fileType(fileTypeCode)
+                    .fileId(Header.FILE_ID.readString(buf))
+                    .version(Header.VERSION.readString(buf))
+                    .creationDate(parseDate(buf, Header.CREATION_DATE, 1))
+                    .creatingBank(Header.CREATING_BANK.readString(buf))
+                    .receivingBank(Header.RECEIVING_BANK.readString(buf))
+                    .fileType(Header.FILE_TYPE.readString(buf))
                     .rawData(headerLine)
                     .build();
 
@@ -298,37 +353,21 @@ public class FiscSettlementFileParser implements SettlementFileParser {
     @Override
     public SettlementFile.FileTrailer parseTrailer(String trailerLine) throws SettlementFileParseException {
         try {
-            // Trailer format:
-            // 1: Record type (1) = 'T'
-            // 2-9: Record count (8)
-            // 10-25: Total amount (16) - 2 decimal places implied
-            // 26-41: Total debit amount (16)
-            // 42-57: Total credit amount (16)
-            // 58-65: Debit count (8)
-            // 66-73: Credit count (8)
-            // 74-105: Checksum (32)
-
-            String recordType = safeSubstring(trailerLine, 0, 1);
-            if (!"T".equals(recordType)) {
-                throw new SettlementFileParseException("Invalid trailer record type: " + recordType);
-            }
-
-            String recordCountStr = safeSubstring(trailerLine, 1, 9).trim();
-            String totalAmountStr = safeSubstring(trailerLine, 9, 25).trim();
-            String totalDebitStr = safeSubstring(trailerLine, 25, 41).trim();
-            String totalCreditStr = safeSubstring(trailerLine, 41, 57).trim();
-            String debitCountStr = safeSubstring(trailerLine, 57, 65).trim();
-            String creditCountStr = safeSubstring(trailerLine, 65, 73).trim();
-            String checksum = safeSubstring(trailerLine, 73, 105).trim();
+            byte[] line = trailerLine.getBytes(charset);
+            if (line.length == 0 || line[0] != 'T') {
+                throw new SettlementFileParseException("Invalid trailer record type: "
+                        + (line.length == 0 ? "" : trailerLine.substring(0, 1)));
+            }
 
+            ByteBuf buf = Unpooled.wrappedBuffer(line);
             return SettlementFile.FileTrailer.builder()
-                    .recordCount(parseInteger(recordCountStr))
-                    .totalAmount(parseAmount(totalAmountStr))
-                    .totalDebitAmount(parseAmount(totalDebitStr))
-                    .totalCreditAmount(parseAmount(totalCreditStr))
-                    .debitCount(parseInteger(debitCountStr))
-                    .creditCount(parseInteger(creditCountStr))
-                    .checksum(checksum)
+                    .recordCount(parseInteger(buf, Trailer.RECORD_COUNT))
+                    .totalAmount(parseAmount(buf, Trailer.TOTAL_AMOUNT, -1))
+                    .totalDebitAmount(parseAmount(buf, Trailer.TOTAL_DEBIT_AMOUNT, -1))
+                    .totalCreditAmount(parseAmount(buf, Trailer.TOTAL_CREDIT_AMOUNT, -1))
+                    .debitCount(parseInteger(buf, Trailer.DEBIT_COUNT))
+                    .creditCount(parseInteger(buf, Trailer.CREDIT_COUNT))
+                    .checksum(Trailer.CHECKSUM.readString(buf))
                     .rawData(trailerLine)
                     .build();
 
@@ -347,43 +386,49 @@ public class FiscSettlementFileParser implements SettlementFileParser {
         FileValidationResult result = new FileValidationResult();
         result.setValid(true);
 
-        try {
-            if (!Files.exists(filePath)) {
-                return FileValidationResult.failure("File does not exist: " + filePath);
-            }
+        if (!Files.exists(filePath)) {
+            return FileValidationResult.failure("File does not exist: " + filePath);
+        }
 
-            result.setFileSizeBytes(Files.size(filePath));
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            result.setFileSizeBytes(size);
 
-            if (result.getFileSizeBytes() == 0) {
+            if (size == 0) {
                 return FileValidationResult.failure("File is empty");
             }
 
-            List<String> lines = Files.readAllLines(filePath, charset);
-            result.setLineCount(lines.size());
+            // One pass: remember the first record type, the last record type and
+            // whether any detail record sits between them
+            StructureScan scan = new StructureScan();
+            LineSplitter splitter = new LineSplitter(scan::line);
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                long length = Math.min(MAP_WINDOW_BYTES, size - position);
+                splitter.feed(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+            splitter.finish();
+
+            result.setLineCount(scan.lineCount);
 
-            if (lines.isEmpty()) {
+            if (scan.lineCount == 0) {
                 return FileValidationResult.failure("File has no readable lines");
             }
 
             // Check header
-            String firstLine = lines.get(0);
-            if (!firstLine.startsWith("H")) {
+            if (scan.firstType != 'H') {
                 result.addError("File does not start with header record", 1);
             }
 
             // Check trailer
-            String lastLine = lines.get(lines.size() - 1);
-            if (!lastLine.startsWith("T")) {
-                result.addError("File does not end with trailer record", lines.size());
+            if (scan.lastType != 'T') {
+                result.addError("File does not end with trailer record", scan.lineCount);
             }
 
             // Check for detail records
-            boolean hasDetails = lines.stream()
-                    .skip(1)
-                    .limit(lines.size() - 2)
-                    .anyMatch(l -> l.startsWith("D"));
-
-            if (!hasDetails) {
+            int innerDetails = scan.detailCount
+                    - (scan.firstType == 'D' ? 1 : 0)
+                    - (scan.lineCount > 1 && scan.lastType == 'D' ? 1 : 0);
+            if (innerDetails <= 0) {
                 result.addWarning("No detail records found in file");
             }
 
@@ -404,72 +449,402 @@ public class FiscSettlementFileParser implements SettlementFileParser {
 
     @Override
     public int getExpectedRecordLength() {
-        return DETAIL_RECORD_LENGTH;
+        return Detail.CODEC.getRecordLength();
     }
 
     // Helper methods
 
-    private String getRecordType(String line) {
-        if (line == null || line.isEmpty()) {
-            return "";
-        }
-        return line.substring(0, 1);
+    private SettlementFile toSettlementFile(SettlementFileSummary summary, List<SettlementRecord> records) {
+        return SettlementFile.builder()
+                .fileId(summary.getFileId())
+                .fileName(summary.getFileName())
+                .fileType(summary.getFileType())
+                .source("FISC")
+                .receivedAt(summary.getProcessingStartedAt())
+                .processingStartedAt(summary.getProcessingStartedAt())
+                .processingCompletedAt(summary.getProcessingCompletedAt())
+                .processingStatus(summary.isIntegrityValid()
+                        ? FileProcessingStatus.RECONCILING : FileProcessingStatus.VALIDATION_FAILED)
+                .settlementDate(summary.getSettlementDate())
+                .header(summary.getHeader())
+                .trailer(summary.getTrailer())
+                .records(records)
+                .checksum(summary.getChecksum())
+                .fileSizeBytes(summary.getFileSizeBytes())
+                .build();
     }
 
-    private String safeSubstring(String str, int start, int end) {
-        if (str == null) {
-            return "";
+    /**
+     * Parses a YYYYMMDD field; blank fields give null, malformed ones are logged.
+     */
+    private LocalDate parseDate(ByteBuf record, FixedField field, int lineNumber) {
+        if (field.isBlank(record)) {
+            return null;
         }
-        int actualEnd = Math.min(end, str.length());
-        if (start >= actualEnd) {
-            return "";
+        try {
+            long value = field.readLong(record);
+            return LocalDate.of((int) (value / 10000), (int) (value / 100 % 100), (int) (value % 100));
+        } catch (NumberFormatException | DateTimeException e) {
+            log.warn("Failed to parse date '{}' at line {}", rawText(record, field), lineNumber);
+            return null;
         }
-        return str.substring(start, actualEnd);
     }
 
-    private BigDecimal parseAmount(String amountStr) {
-        if (amountStr == null || amountStr.isBlank()) {
-            return BigDecimal.ZERO;
-        }
+    /**
+     * Parses an amount stored with implied decimal places.
+     */
+    private BigDecimal parseAmount(ByteBuf record, FixedField field, int lineNumber) {
         try {
-            // Amount is stored as cents (implied 2 decimal places)
-            long cents = Long.parseLong(amountStr.trim());
-            return BigDecimal.valueOf(cents, 2);
+            return field.readDecimal(record);
         } catch (NumberFormatException e) {
-            log.warn("Failed to parse amount: {}", amountStr);
+            log.warn("Failed to parse amount '{}' at line {}", rawText(record, field), lineNumber);
             return BigDecimal.ZERO;
         }
     }
 
-    private int parseInteger(String str) {
-        if (str == null || str.isBlank()) {
-            return 0;
-        }
+    private static int parseInteger(ByteBuf record, FixedField field) {
         try {
-            return Integer.parseInt(str.trim());
+            long value = field.readLong(record);
+            return value == (int) value ? (int) value : 0;
         } catch (NumberFormatException e) {
             return 0;
         }
     }
 
+    /**
+     * Field bytes as text, for log messages about malformed values.
+     */
+    private String rawText(ByteBuf record, FixedField field) {
+        int start = field.getOffset();
+        int end = Math.min(start + field.getByteLength(), record.writerIndex());
+        return start < end ? record.toString(start, end - start, charset).trim() : "";
+    }
+
+    private static boolean isBlank(byte[] line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((line[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Offset just past the next '\n' at or after {@code from}, or {@code size} if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Start offset of the line ending at {@code end}: just past the previous '\n', or 0.
+     */
+    private static long lineStartBefore(FileChannel channel, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = end;
+        while (position > 0) {
+            int length = (int) Math.min(buffer.capacity(), position);
+            buffer.clear().limit(length);
+            channel.read(buffer, position - length);
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return position - length + i + 1;
+                }
+            }
+            position -= length;
+        }
+        return 0;
+    }
+
+    private static int byteAt(FileChannel channel, long position) throws IOException {
+        if (position < 0) {
+            return -1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        return channel.read(buffer, position) == 1 ? buffer.get(0) : -1;
+    }
+
+    /**
+     * Reads [start, end) without a trailing line terminator.
+     */
+    private static byte[] readLine(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0) {
+            // keep reading until the line is complete
+        }
+        int length = buffer.position();
+        while (length > 0 && (buffer.get(length - 1) == '\n' || buffer.get(length - 1) == '\r')) {
+            length--;
+        }
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     private String generateFileId() {
         return "SF-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
-    private String calculateChecksum(List<String> lines) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            for (String line : lines) {
-                md.update(line.getBytes(charset));
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    private static FixedRecordCodec layout(String name) {
+        return FixedRecordCodec.compile(FixedRecordSchemaLoader.fromResource(LAYOUT_RESOURCE, name));
+    }
+
+    /**
+     * Compiled header record layout.
+     */
+    private static final class Header {
+        static final FixedRecordCodec CODEC = layout("FISC_SETTLEMENT_HEADER");
+        static final FixedField FILE_ID = CODEC.field("fileId");
+        static final FixedField VERSION = CODEC.field("version");
+        static final FixedField CREATION_DATE = CODEC.field("creationDate");
+        static final FixedField CREATING_BANK = CODEC.field("creatingBank");
+        static final FixedField RECEIVING_BANK = CODEC.field("receivingBank");
+        static final FixedField FILE_TYPE = CODEC.field("fileType");
+    }
+
+    /**
+     * Compiled detail record layout (positions 1-150 of a 200-byte record).
+     */
+    private static final class Detail {
+        static final FixedRecordCodec CODEC = layout("FISC_SETTLEMENT_DETAIL");
+        static final FixedField TRANSACTION_DATE = CODEC.field("transactionDate");
+        static final FixedField TRANSACTION_REF_NO = CODEC.field("transactionRefNo");
+        static final FixedField STAN = CODEC.field("stan");
+        static final FixedField RRN = CODEC.field("rrn");
+        static final FixedField TRANSACTION_TYPE = CODEC.field("transactionType");
+        static final FixedField ACQUIRING_BANK_CODE = CODEC.field("acquiringBankCode");
+        static final FixedField ISSUING_BANK_CODE = CODEC.field("issuingBankCode");
+        static final FixedField CARD_NUMBER = CODEC.field("cardNumber");
+        static final FixedField AMOUNT = CODEC.field("amount");
+        static final FixedField CURRENCY_CODE = CODEC.field("currencyCode");
+        static final FixedField FEE_AMOUNT = CODEC.field("feeAmount");
+        static final FixedField TERMINAL_ID = CODEC.field("terminalId");
+        static final FixedField MERCHANT_ID = CODEC.field("merchantId");
+        static final FixedField AUTH_CODE = CODEC.field("authCode");
+        static final FixedField RESPONSE_CODE = CODEC.field("responseCode");
+        static final FixedField REVERSAL_FLAG = CODEC.field("reversalFlag");
+        static final FixedField ORIGINAL_TRANSACTION_REF = CODEC.field("originalTransactionRef");
+        static final FixedField CHANNEL = CODEC.field("channel");
+    }
+
+    /**
+     * Compiled trailer record layout.
+     */
+    private static final class Trailer {
+        static final FixedRecordCodec CODEC = layout("FISC_SETTLEMENT_TRAILER");
+        static final FixedField RECORD_COUNT = CODEC.field("recordCount");
+        static final FixedField TOTAL_AMOUNT = CODEC.field("totalAmount");
+        static final FixedField TOTAL_DEBIT_AMOUNT = CODEC.field("totalDebitAmount");
+        static final FixedField TOTAL_CREDIT_AMOUNT = CODEC.field("totalCreditAmount");
+        static final FixedField DEBIT_COUNT = CODEC.field("debitCount");
+        static final FixedField CREDIT_COUNT = CODEC.field("creditCount");
+        static final FixedField CHECKSUM = CODEC.field("checksum");
+    }
+
+    /**
+     * Receives one line without its terminator. The array is reused between calls.
+     */
+    @FunctionalInterface
+    private interface LineHandler {
+        void line(byte[] line, int length);
+    }
+
+    /**
+     * Splits a byte stream into lines on '\n', dropping a trailing '\r'. Lines may
+     * span buffers; a final line without terminator is delivered by {@link #finish()}.
+     */
+    private static final class LineSplitter {
+
+        private final LineHandler handler;
+        private byte[] line = new byte[Detail.CODEC.getRecordLength() + 2];
+        private int length;
+        private boolean pending;
+
+        LineSplitter(LineHandler handler) {
+            this.handler = handler;
+        }
+
+        void feed(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                int start = buffer.position();
+                int limit = buffer.limit();
+                int newline = start;
+                while (newline < limit && buffer.get(newline) != '\n') {
+                    newline++;
+                }
+                append(buffer, newline - start);
+                pending = true;
+                if (newline < limit) {
+                    buffer.get();
+                    emit();
+                }
             }
-            byte[] digest = md.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b));
+        }
+
+        void finish() {
+            if (pending) {
+                emit();
+            }
+        }
+
+        private void append(ByteBuffer buffer, int count) {
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            buffer.get(line, length, count);
+            length += count;
+        }
+
+        private void emit() {
+            int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+            handler.line(line, end);
+            length = 0;
+            pending = false;
+        }
+    }
+
+    /**
+     * Parse state for one file: record handling, checksum and incremental checks.
+     */
+    private final class FileScan {
+
+        private final String fileName;
+        private final Consumer<SettlementRecord> consumer;
+        private final MessageDigest digest;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final String fileId = generateFileId();
+
+        private SettlementFile.FileHeader header;
+        private SettlementFile.FileTrailer trailer;
+        private int lineNumber;
+        private int recordCount;
+        private long totalCents;
+
+        FileScan(String fileName, Consumer<SettlementRecord> consumer) {
+            this.fileName = fileName;
+            this.consumer = consumer;
+            this.digest = newSha256();
+        }
+
+        void line(byte[] line, int length) {
+            lineNumber++;
+            digest.update(line, 0, length);
+
+            if (isBlank(line, 0, length)) {
+                return;
+            }
+
+            switch (line[0]) {
+                case 'H' -> {
+                    if (header != null) {
+                        throw new SettlementFileParseException("Duplicate header found",
+                                fileName, lineNumber);
+                    }
+                    header = parseHeader(new String(line, 0, length, charset));
+                }
+                case 'D' -> {
+                    if (header == null) {
+                        throw new SettlementFileParseException("Detail record before header",
+                                fileName, lineNumber);
+                    }
+                    SettlementRecord record = parseRecord(line, length, lineNumber);
+                    record.setSequenceNumber(++recordCount);
+                    totalCents += record.getAmount().unscaledValue().longValue();
+                    consumer.accept(record);
+                }
+                case 'T' -> trailer = parseTrailer(new String(line, 0, length, charset));
+                default -> log.warn("Unknown record type '{}' at line {}", (char) (line[0] & 0xFF), lineNumber);
+            }
+        }
+
+        SettlementFileSummary finish(long fileSizeBytes) {
+            if (lineNumber == 0) {
+                throw new SettlementFileParseException("Empty file", fileName);
+            }
+            if (header == null) {
+                throw new SettlementFileParseException("Missing header record", fileName);
+            }
+            if (trailer == null) {
+                throw new SettlementFileParseException("Missing trailer record", fileName);
+            }
+
+            BigDecimal totalAmount = BigDecimal.valueOf(totalCents, 2);
+            boolean integrityValid = trailer.getRecordCount() == recordCount
+                    && (trailer.getTotalAmount() == null || trailer.getTotalAmount().compareTo(totalAmount) == 0);
+            if (!integrityValid) {
+                log.warn("File integrity check failed for {}", fileName);
+            }
+
+            log.info("Parsed {} records from file {}", recordCount, fileName);
+
+            return SettlementFileSummary.builder()
+                    .fileId(fileId)
+                    .fileName(fileName)
+                    .fileType(fileType)
+                    .settlementDate(header.getCreationDate())
+                    .header(header)
+                    .trailer(trailer)
+                    .recordCount(recordCount)
+                    .totalAmount(totalAmount)
+                    .checksum(toHex(digest.digest()))
+                    .fileSizeBytes(fileSizeBytes)
+                    .integrityValid(integrityValid)
+                    .processingStartedAt(startedAt)
+                    .processingCompletedAt(LocalDateTime.now())
+                    .build();
+        }
+    }
+
+    /**
+     * Record-type bookkeeping for {@link #validateFormat(Path)}.
+     */
+    private static final class StructureScan {
+
+        private int lineCount;
+        private int detailCount;
+        private int firstType = -1;
+        private int lastType = -1;
+
+        void line(byte[] line, int length) {
+            lineCount++;
+            int type = length > 0 ? line[0] : -1;
+            if (lineCount == 1) {
+                firstType = type;
+            }
+            lastType = type;
+            if (type == 'D') {
+                detailCount++;
             }
-            return sb.toString();
-        } catch (Exception e) {
-            return null;
         }
     }
 }
@@ -0,0 +1,33 @@
+package com.fep.settlement.file;
+
+import com.fep.settlement.domain.SettlementFile;
+
+/**
+ * Byte layout of a settlement file whose detail records all have the same
+ * length, so any record can be located by index without scanning.
+ *
+ * @param header        parsed header record
+ * @param trailer       parsed trailer record
+ * @param detailOffset  byte offset of the first detail record
+ * @param recordLength  bytes per detail record, including the line terminator
+ * @param lineLength    bytes per detail record, excluding the line terminator
+ * @param recordCount   number of detail records
+ * @param fileSizeBytes total file size
+ */
+public record FixedRecordLayout(
+        SettlementFile.FileHeader header,
+        SettlementFile.FileTrailer trailer,
+        long detailOffset,
+        int recordLength,
+        int lineLength,
+        long recordCount,
+        long fileSizeBytes
+) {
+
+    /**
+     * Byte offset of the detail record with the given zero-based index.
+     */
+    public long offsetOf(long recordIndex) {
+        return detailOffset + recordIndex * recordLength;
+    }
+}
@@ -7,6 +7,7 @@ import com.fep.settlement.domain.SettlementRecord;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface for parsing settlement files from FISC.
@@ -32,6 +33,39 @@ public interface SettlementFileParser {
      */
     SettlementFile parse(InputStream inputStream, String fileName) throws SettlementFileParseException;
 
+    /**
+     * Parse a settlement file from path, handing each detail record to the consumer
+     * instead of collecting them.
+     *
+     * @param filePath path to the settlement file
+     * @param consumer receives detail records in file order
+     * @return header, trailer, counts and checksum
+     * @throws SettlementFileParseException if parsing fails
+     */
+    default SettlementFileSummary parse(Path filePath, Consumer<SettlementRecord> consumer)
+            throws SettlementFileParseException {
+        SettlementFile file = parse(filePath);
+        file.getRecords().forEach(consumer);
+        return SettlementFileSummary.of(file);
+    }
+
+    /**
+     * Parse a settlement file from input stream, handing each detail record to the
+     * consumer instead of collecting them.
+     *
+     * @param inputStream input stream of the file
+     * @param fileName original file name
+     * @param consumer receives detail records in file order
+     * @return header, trailer, counts and checksum
+     * @throws SettlementFileParseException if parsing fails
+     */
+    default SettlementFileSummary parse(InputStream inputStream, String fileName,
+                                        Consumer<SettlementRecord> consumer) throws SettlementFileParseException {
+        SettlementFile file = parse(inputStream, fileName);
+        file.getRecords().forEach(consumer);
+        return SettlementFileSummary.of(file);
+    }
+
     /**
      * Parse a single record line.
      *
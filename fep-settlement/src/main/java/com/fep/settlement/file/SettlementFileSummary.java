@@ -0,0 +1,84 @@
+package com.fep.settlement.file;
+
+import com.fep.settlement.domain.SettlementFile;
+import com.fep.settlement.domain.SettlementFileType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Everything known about a settlement file after a streaming parse, except the
+ * records themselves, which were handed to the caller's consumer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementFileSummary {
+
+    /** Unique file identifier */
+    private String fileId;
+
+    /** File name */
+    private String fileName;
+
+    /** File type */
+    private SettlementFileType fileType;
+
+    /** Settlement date, taken from the header creation date */
+    private LocalDate settlementDate;
+
+    /** File header information */
+    private SettlementFile.FileHeader header;
+
+    /** File trailer information */
+    private SettlementFile.FileTrailer trailer;
+
+    /** Number of detail records emitted */
+    private int recordCount;
+
+    /** Sum of detail record amounts */
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    /** SHA-256 over the record lines, hex encoded */
+    private String checksum;
+
+    /** Raw file size in bytes */
+    private long fileSizeBytes;
+
+    /** Whether record count and total amount agree with the trailer */
+    private boolean integrityValid;
+
+    /** Processing started timestamp */
+    private LocalDateTime processingStartedAt;
+
+    /** Processing completed timestamp */
+    private LocalDateTime processingCompletedAt;
+
+    /**
+     * Builds a summary from a fully materialized settlement file.
+     */
+    public static SettlementFileSummary of(SettlementFile file) {
+        return SettlementFileSummary.builder()
+                .fileId(file.getFileId())
+                .fileName(file.getFileName())
+                .fileType(file.getFileType())
+                .settlementDate(file.getSettlementDate())
+                .header(file.getHeader())
+                .trailer(file.getTrailer())
+                .recordCount(file.getTotalRecordCount())
+                .totalAmount(file.getTotalAmount())
+                .checksum(file.getChecksum())
+                .fileSizeBytes(file.getFileSizeBytes())
+                .integrityValid(file.validateIntegrity())
+                .processingStartedAt(file.getProcessingStartedAt())
+                .processingCompletedAt(file.getProcessingCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,527 @@
+package com.fep.settlement.reconciliation;
+
+import com.fep.settlement.domain.DiscrepancyType;
+import com.fep.settlement.domain.SettlementRecord;
+import com.fep.settlement.domain.SettlementStatus;
+import com.fep.settlement.domain.SettlementStatusUpdate;
+import com.fep.settlement.repository.SettlementRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reconciles continuously during the day instead of waiting for the full FISC
+ * file.
+ *
+ * <p>Completed internal transactions (fed by {@link IntradayReconciliationLogger})
+ * and intraday settlement records are matched against a keyed table of the
+ * other side's unmatched items as they arrive, using the same keys and order as
+ * {@link PartitionedReconciler}. Items still unmatched after their side's grace
+ * window become discrepancies on the next {@link #expireAged()} sweep; if the
+ * counterpart turns up later, the item is matched and its discrepancy closed.
+ *
+ * <p>At end of day, {@link #residual} skips settlement records already settled
+ * intraday - storing their intraday outcome on the EOD file instead - and this
+ * reconciler, as an {@link ReconciliationService.InternalTransactionProvider},
+ * supplies only the internal transactions still unmatched, so the EOD run only
+ * processes what is left. Internal transactions already aged into discrepancies
+ * are included, and their discrepancy is closed if the EOD file settles them.
+ * Call {@link #closeDay} once the run has finished.
+ *
+ * <p>The table is guarded by this object's monitor; discrepancies are written
+ * after the monitor is released.
+ */
+public class IntradayReconciler implements ReconciliationService.InternalTransactionProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(IntradayReconciler.class);
+
+    /** Skipped EOD records whose status is written per repository call */
+    private static final int STATUS_BATCH_SIZE = 5_000;
+
+    private final SettlementRepository repository;
+    private final DiscrepancyService discrepancyService;
+    private final ReconciliationConfig config;
+    private final Clock clock;
+    private final List<PartitionedReconciler.MatchPass> passes;
+
+    private final Pending settlement;
+    private final Pending internal;
+
+    /** Settlement references matched or aged out intraday, with their outcome */
+    private final Map<String, Closed> closedSettlementRefs = new HashMap<>();
+
+    private long matchedCount;
+    private long amountMismatchCount;
+    private long lateMatchCount;
+    private long expiredSettlementCount;
+    private long expiredInternalCount;
+
+    public IntradayReconciler(SettlementRepository repository, DiscrepancyService discrepancyService,
+                              ReconciliationConfig config) {
+        this(repository, discrepancyService, config, Clock.systemDefaultZone());
+    }
+
+    public IntradayReconciler(SettlementRepository repository, DiscrepancyService discrepancyService,
+                              ReconciliationConfig config, Clock clock) {
+        this.repository = repository;
+        this.discrepancyService = discrepancyService;
+        this.config = config;
+        this.clock = clock;
+        this.passes = PartitionedReconciler.MatchPass.enabled(config);
+        this.settlement = new Pending();
+        this.internal = new Pending();
+    }
+
+    /**
+     * Match a completed internal transaction, or hold it until its settlement record arrives.
+     */
+    public void onInternalTransaction(ReconciliationService.InternalTransaction transaction) {
+        ReconciliationRow row = ReconciliationRow.of(transaction);
+        Entry entry = new Entry(row, keys(row), row.date(), null, null, transaction, clock.millis());
+        List<Runnable> followUps = new ArrayList<>();
+        synchronized (this) {
+            Candidate candidate = settlement.take(entry.keys);
+            if (candidate == null) {
+                internal.add(entry);
+            } else {
+                resolve(candidate.entry, entry, candidate.pass, followUps);
+            }
+        }
+        followUps.forEach(Runnable::run);
+    }
+
+    /**
+     * Drop a pending internal transaction that has been reversed, so it does not
+     * become a missing-settlement discrepancy.
+     *
+     * @return true if a pending transaction was removed
+     */
+    public boolean onInternalReversal(String originalTransactionId) {
+        String discrepancyId;
+        synchronized (this) {
+            Entry entry = internal.byReference.get(originalTransactionId);
+            if (entry == null) {
+                return false;
+            }
+            internal.remove(entry);
+            discrepancyId = entry.discrepancyId;
+        }
+        if (discrepancyId != null) {
+            discrepancyService.close(discrepancyId, "Original transaction reversed");
+        }
+        return true;
+    }
+
+    /**
+     * Match intraday settlement records, or hold them until their internal
+     * transactions arrive. Matched records have their status updated.
+     */
+    public void onSettlementRecords(String settlementFileId, Collection<SettlementRecord> records) {
+        long now = clock.millis();
+        List<Runnable> followUps = new ArrayList<>();
+        synchronized (this) {
+            for (SettlementRecord record : records) {
+                if (record.getTransactionRefNo() != null
+                        && closedSettlementRefs.containsKey(record.getTransactionRefNo())) {
+                    continue;
+                }
+                ReconciliationRow row = ReconciliationRow.of(record);
+                Entry entry = new Entry(row, keys(row), record.getSettlementDate(), settlementFileId,
+                        record, null, now);
+                Candidate candidate = internal.take(entry.keys);
+                if (candidate == null) {
+                    settlement.add(entry);
+                } else {
+                    resolve(entry, candidate.entry, candidate.pass, followUps);
+                }
+            }
+        }
+        followUps.forEach(Runnable::run);
+    }
+
+    /**
+     * Turn items that have waited longer than their grace window into
+     * discrepancies. Intended to be called periodically.
+     *
+     * @return number of items aged out
+     */
+    public int expireAged() {
+        long now = clock.millis();
+        List<Entry> expiredSettlement;
+        List<Entry> expiredInternal;
+        synchronized (this) {
+            expiredSettlement = settlement.expire(now - config.getSettlementGraceWindow().toMillis());
+            expiredInternal = internal.expire(now - config.getInternalGraceWindow().toMillis());
+            for (Entry entry : expiredSettlement) {
+                if (entry.row.reference() != null) {
+                    closedSettlementRefs.put(entry.row.reference(),
+                            new Closed(entry.businessDate, SettlementStatus.NOT_FOUND, null, null));
+                }
+            }
+            expiredSettlementCount += expiredSettlement.size();
+            expiredInternalCount += expiredInternal.size();
+        }
+
+        for (Entry entry : expiredSettlement) {
+            recordDiscrepancy(entry, discrepancyService.createDiscrepancy(DiscrepancyType.MISSING_INTERNAL,
+                    entry.businessDate, entry.fileId, entry.row.reference(), null, entry.row.amount(), null,
+                    "Transaction not found in internal system within "
+                            + config.getSettlementGraceWindow()).getDiscrepancyId());
+        }
+        for (Entry entry : expiredInternal) {
+            recordDiscrepancy(entry, discrepancyService.createDiscrepancy(DiscrepancyType.MISSING_SETTLEMENT,
+                    entry.businessDate, null, null, entry.row.reference(), null, entry.row.amount(),
+                    "Settlement record not received within " + config.getInternalGraceWindow()).getDiscrepancyId());
+        }
+
+        int expired = expiredSettlement.size() + expiredInternal.size();
+        if (expired > 0) {
+            log.info("Aged out {} settlement records and {} internal transactions into discrepancies",
+                    expiredSettlement.size(), expiredInternal.size());
+        }
+        return expired;
+    }
+
+    /**
+     * Internal transactions still waiting for a settlement record, for the
+     * end-of-day run. Items already aged into discrepancies are included, since
+     * their record may be in the EOD file; see {@link #settled}.
+     */
+    @Override
+    public synchronized List<ReconciliationService.InternalTransaction> getTransactions(LocalDate date,
+                                                                                        int timeWindowHours) {
+        LocalDateTime from = date.atStartOfDay().minusHours(timeWindowHours);
+        LocalDateTime to = date.plusDays(1).atStartOfDay().plusHours(timeWindowHours);
+        List<ReconciliationService.InternalTransaction> residual = new ArrayList<>();
+        for (Entry entry : internal.live) {
+            LocalDateTime time = entry.transaction.getTransactionTime();
+            if (time == null || (!time.isBefore(from) && time.isBefore(to))) {
+                residual.add(entry.transaction);
+            }
+        }
+        return residual;
+    }
+
+    /**
+     * Release a pending internal transaction the end-of-day run has settled, and
+     * close the discrepancy it was aged into, if any.
+     */
+    @Override
+    public void settled(String transactionId) {
+        String discrepancyId;
+        synchronized (this) {
+            Entry entry = transactionId != null ? internal.byReference.get(transactionId) : null;
+            if (entry == null) {
+                return;
+            }
+            internal.remove(entry);
+            discrepancyId = entry.discrepancyId;
+            if (entry.expired) {
+                lateMatchCount++;
+            }
+        }
+        if (discrepancyId != null) {
+            discrepancyService.close(discrepancyId, "Matched in end-of-day settlement file");
+        }
+    }
+
+    /**
+     * Wraps the full day's settlement records so records already matched or aged
+     * out intraday are skipped by the end-of-day run. The skipped records are
+     * given their intraday outcome and stored under {@code settlementFileId}, so
+     * the file's statuses and rollup cover every record.
+     */
+    public PartitionedReconciler.Source<SettlementRecord> residual(String settlementFileId,
+                                                                   PartitionedReconciler.Source<SettlementRecord> records) {
+        return action -> {
+            List<SettlementStatusUpdate> skipped = new ArrayList<>();
+            records.forEach(record -> {
+                Closed closed = closedOutcome(record.getTransactionRefNo());
+                if (closed == null) {
+                    action.accept(record);
+                    return;
+                }
+                record.setStatus(closed.status());
+                record.setMatchedTransactionId(closed.matchedTransactionId());
+                record.setMatchedAt(closed.matchedAt());
+                skipped.add(SettlementStatusUpdate.of(record));
+                if (skipped.size() >= STATUS_BATCH_SIZE) {
+                    repository.updateRecordStatuses(settlementFileId, List.copyOf(skipped));
+                    skipped.clear();
+                }
+            });
+            if (!skipped.isEmpty()) {
+                repository.updateRecordStatuses(settlementFileId, skipped);
+            }
+        };
+    }
+
+    private synchronized Closed closedOutcome(String transactionRefNo) {
+        return transactionRefNo != null ? closedSettlementRefs.get(transactionRefNo) : null;
+    }
+
+    /**
+     * Forget everything for a settlement date once its end-of-day run has finished.
+     */
+    public synchronized void closeDay(LocalDate date) {
+        int removed = settlement.removeThrough(date) + internal.removeThrough(date);
+        closedSettlementRefs.values().removeIf(c -> c.businessDate() == null || !c.businessDate().isAfter(date));
+        log.info("Closed intraday reconciliation for {}: {} open items released", date, removed);
+    }
+
+    /**
+     * Get intraday reconciliation statistics.
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("matched", matchedCount);
+        stats.put("amountMismatches", amountMismatchCount);
+        stats.put("lateMatches", lateMatchCount);
+        stats.put("expiredSettlement", expiredSettlementCount);
+        stats.put("expiredInternal", expiredInternalCount);
+        stats.put("pendingSettlement", settlement.pendingCount());
+        stats.put("pendingInternal", internal.pendingCount());
+        return stats;
+    }
+
+    private String[] keys(ReconciliationRow row) {
+        String[] keys = new String[passes.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = passes.get(i).key(row);
+        }
+        return keys;
+    }
+
+    /**
+     * Settle a matched pair. Called holding the monitor; repository work is left
+     * to the follow-ups.
+     */
+    private void resolve(Entry settlementEntry, Entry internalEntry, PartitionedReconciler.MatchPass pass,
+                         List<Runnable> followUps) {
+        settlement.remove(settlementEntry);
+        internal.remove(internalEntry);
+        ReconciliationRow settled = settlementEntry.row;
+        ReconciliationRow booked = internalEntry.row;
+
+        String matchKey = pass.matchKey(settled);
+        BigDecimal settledAmount = settled.amount() != null ? settled.amount() : BigDecimal.ZERO;
+        BigDecimal bookedAmount = booked.amount() != null ? booked.amount() : BigDecimal.ZERO;
+        BigDecimal difference = settledAmount.subtract(bookedAmount).abs();
+        boolean mismatch = config.isValidateAmount() && difference.compareTo(config.getAmountTolerance()) > 0;
+        SettlementStatus status = mismatch ? SettlementStatus.AMOUNT_MISMATCH : SettlementStatus.MATCHED;
+        LocalDateTime matchedAt = LocalDateTime.now(clock);
+
+        if (settled.reference() != null) {
+            closedSettlementRefs.put(settled.reference(),
+                    new Closed(settlementEntry.businessDate, status, booked.reference(), matchedAt));
+        }
+        SettlementRecord record = settlementEntry.record;
+        if (record != null) {
+            record.setStatus(status);
+            record.setMatchedTransactionId(booked.reference());
+            record.setMatchedAt(matchedAt);
+        }
+
+        if (mismatch) {
+            amountMismatchCount++;
+            followUps.add(() -> discrepancyService.createDiscrepancy(DiscrepancyType.AMOUNT_MISMATCH,
+                    settlementEntry.businessDate, settlementEntry.fileId, settled.reference(), booked.reference(),
+                    settled.amount(), booked.amount(), "Amount mismatch: difference of " + difference));
+        } else {
+            matchedCount++;
+        }
+
+        for (Entry entry : List.of(settlementEntry, internalEntry)) {
+            if (entry.expired) {
+                lateMatchCount++;
+                String discrepancyId = entry.discrepancyId;
+                if (discrepancyId != null) {
+                    followUps.add(() -> discrepancyService.close(discrepancyId,
+                            "Matched intraday after grace window by " + matchKey));
+                }
+            }
+        }
+    }
+
+    /**
+     * Attach the discrepancy created for an aged-out item, or close it straight
+     * away if the item was matched while the discrepancy was being written.
+     */
+    private void recordDiscrepancy(Entry entry, String discrepancyId) {
+        boolean resolvedMeanwhile;
+        synchronized (this) {
+            resolvedMeanwhile = entry.resolved;
+            if (!resolvedMeanwhile) {
+                entry.discrepancyId = discrepancyId;
+            }
+        }
+        if (resolvedMeanwhile) {
+            discrepancyService.close(discrepancyId, "Matched intraday after grace window");
+        }
+    }
+
+    private record Candidate(Entry entry, PartitionedReconciler.MatchPass pass) {}
+
+    /** Intraday outcome of a settlement reference, applied to its EOD record */
+    private record Closed(LocalDate businessDate, SettlementStatus status, String matchedTransactionId,
+                          LocalDateTime matchedAt) {}
+
+    private static final class Entry {
+        private final ReconciliationRow row;
+        private final String[] keys;
+        private final LocalDate businessDate;
+        private final String fileId;
+        private final SettlementRecord record;
+        private final ReconciliationService.InternalTransaction transaction;
+        private final long arrivedAtMillis;
+        private boolean resolved;
+        private boolean expired;
+        private String discrepancyId;
+
+        private Entry(ReconciliationRow row, String[] keys, LocalDate businessDate, String fileId,
+                      SettlementRecord record, ReconciliationService.InternalTransaction transaction,
+                      long arrivedAtMillis) {
+            this.row = row;
+            this.keys = keys;
+            this.businessDate = businessDate;
+            this.fileId = fileId;
+            this.record = record;
+            this.transaction = transaction;
+            this.arrivedAtMillis = arrivedAtMillis;
+        }
+    }
+
+    /**
+     * Unmatched items of one side, indexed by each pass's key. Matched items are
+     * dropped from the key indexes and arrival queue lazily.
+     */
+    private final class Pending {
+        private final List<Map<String, ArrayDeque<Entry>>> index = new ArrayList<>();
+        private final Map<String, Entry> byReference = new HashMap<>();
+        private final ArrayDeque<Entry> arrivals = new ArrayDeque<>();
+        private final Set<Entry> live = new LinkedHashSet<>();
+        private int expiredCount;
+
+        private Pending() {
+            for (int i = 0; i < passes.size(); i++) {
+                index.add(new HashMap<>());
+            }
+        }
+
+        private void add(Entry entry) {
+            for (int i = 0; i < entry.keys.length; i++) {
+                if (entry.keys[i] != null) {
+                    index.get(i).computeIfAbsent(entry.keys[i], k -> new ArrayDeque<>(1)).add(entry);
+                }
+            }
+            if (entry.row.reference() != null) {
+                byReference.put(entry.row.reference(), entry);
+            }
+            live.add(entry);
+            if (!entry.expired) {
+                arrivals.add(entry);
+            }
+        }
+
+        /**
+         * Remove and return the first unresolved item sharing a key with {@code keys}, in pass order.
+         */
+        private Candidate take(String[] keys) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == null) {
+                    continue;
+                }
+                ArrayDeque<Entry> candidates = index.get(i).get(keys[i]);
+                if (candidates == null) {
+                    continue;
+                }
+                Entry found = null;
+                while (found == null && !candidates.isEmpty()) {
+                    Entry next = candidates.poll();
+                    if (!next.resolved) {
+                        found = next;
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    index.get(i).remove(keys[i]);
+                }
+                if (found != null) {
+                    return new Candidate(found, passes.get(i));
+                }
+            }
+            return null;
+        }
+
+        private void remove(Entry entry) {
+            if (entry.resolved) {
+                return;
+            }
+            entry.resolved = true;
+            live.remove(entry);
+            if (entry.expired) {
+                expiredCount--;
+            }
+            if (entry.row.reference() != null && byReference.get(entry.row.reference()) == entry) {
+                byReference.remove(entry.row.reference());
+            }
+        }
+
+        /**
+         * Take items that arrived at or before the cutoff out of the arrival
+         * queue. They stay matchable until the day is closed.
+         */
+        private List<Entry> expire(long cutoffMillis) {
+            List<Entry> expired = new ArrayList<>();
+            while (!arrivals.isEmpty() && arrivals.peek().arrivedAtMillis <= cutoffMillis) {
+                Entry entry = arrivals.poll();
+                if (!entry.resolved) {
+                    entry.expired = true;
+                    expiredCount++;
+                    expired.add(entry);
+                }
+            }
+            return expired;
+        }
+
+        private int removeThrough(LocalDate date) {
+            List<Entry> kept = new ArrayList<>();
+            int removed = 0;
+            for (Entry entry : live) {
+                if (entry.businessDate == null || !entry.businessDate.isAfter(date)) {
+                    entry.resolved = true;
+                    removed++;
+                } else {
+                    kept.add(entry);
+                }
+            }
+            index.forEach(Map::clear);
+            byReference.clear();
+            arrivals.clear();
+            live.clear();
+            expiredCount = 0;
+            for (Entry entry : kept) {
+                if (entry.expired) {
+                    expiredCount++;
+                }
+                add(entry);
+            }
+            return removed;
+        }
+
+        private int pendingCount() {
+            return live.size() - expiredCount;
+        }
+    }
+}
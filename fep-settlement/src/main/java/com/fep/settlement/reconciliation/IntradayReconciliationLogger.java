@@ -0,0 +1,72 @@
+package com.fep.settlement.reconciliation;
+
+import com.fep.transaction.domain.TransactionRequest;
+import com.fep.transaction.domain.TransactionResponse;
+import com.fep.transaction.enums.TransactionType;
+import com.fep.transaction.logging.TransactionLog;
+import com.fep.transaction.logging.TransactionLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TransactionLogger decorator that feeds approved monetary transactions into an
+ * {@link IntradayReconciler} as they complete, and withdraws reversed ones.
+ *
+ * <p>Reconciliation problems are logged and never fail the transaction.
+ */
+public class IntradayReconciliationLogger implements TransactionLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(IntradayReconciliationLogger.class);
+
+    private final TransactionLogger delegate;
+    private final IntradayReconciler reconciler;
+
+    public IntradayReconciliationLogger(TransactionLogger delegate, IntradayReconciler reconciler) {
+        this.delegate = delegate;
+        this.reconciler = reconciler;
+    }
+
+    @Override
+    public void logRequest(TransactionRequest request) {
+        delegate.logRequest(request);
+    }
+
+    @Override
+    public void logResponse(TransactionRequest request, TransactionResponse response) {
+        delegate.logResponse(request, response);
+
+        if (!response.isApproved() || request.getTransactionType() == null) {
+            return;
+        }
+        try {
+            if (request.getTransactionType() == TransactionType.REVERSAL) {
+                if (request.getOriginalTransactionId() != null) {
+                    reconciler.onInternalReversal(request.getOriginalTransactionId());
+                }
+            } else if (request.getTransactionType().isMonetaryTransaction()) {
+                reconciler.onInternalTransaction(ReconciliationService.InternalTransaction.builder()
+                        .transactionId(request.getTransactionId())
+                        .rrn(request.getRrn())
+                        .stan(request.getStan())
+                        .terminalId(request.getTerminalId())
+                        .amount(request.getAmount())
+                        .transactionTime(request.getRequestTime())
+                        .transactionType(request.getTransactionType().name())
+                        .status("APPROVED")
+                        .build());
+            }
+        } catch (Exception e) {
+            log.warn("[{}] Intraday reconciliation failed: {}", request.getTransactionId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void logError(TransactionRequest request, Throwable error) {
+        delegate.logError(request, error);
+    }
+
+    @Override
+    public TransactionLog createLog(TransactionRequest request, TransactionResponse response) {
+        return delegate.createLog(request, response);
+    }
+}
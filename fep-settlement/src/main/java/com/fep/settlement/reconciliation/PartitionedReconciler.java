@@ -0,0 +1,435 @@
+package com.fep.settlement.reconciliation;
+
+import com.fep.settlement.domain.SettlementRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles settlement records against internal transactions without holding
+ * either side in memory.
+ *
+ * <p>Matching runs as a cascade of passes, one per enabled key: RRN, then
+ * STAN (qualified by transaction date and terminal, because STANs wrap within a
+ * day), then transaction reference. Each pass hash-partitions both sides by its
+ * key into {@code partitionCount} buckets; buckets spill to disk once buffered
+ * rows exceed the memory budget. Buckets are then matched in parallel, holding
+ * only one bucket's internal transactions in a hash table at a time. Rows left
+ * unmatched by a pass move on to the next pass; rows left after the last pass
+ * are reported as unmatched.
+ *
+ * <p>Results are reported to the {@link Sink} as they are found, from the
+ * matching threads.
+ */
+public class PartitionedReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedReconciler.class);
+
+    private static final int SPILL_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * A source of rows that pushes each one to the given action.
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void forEach(Consumer<? super T> action);
+    }
+
+    /**
+     * Receives reconciliation results. Called concurrently from matching threads.
+     */
+    public interface Sink {
+
+        void matched(ReconciliationRow settlement, ReconciliationRow internal, String matchKey);
+
+        void amountMismatch(ReconciliationRow settlement, ReconciliationRow internal, String matchKey,
+                            BigDecimal difference);
+
+        void unmatchedSettlement(ReconciliationRow settlement);
+
+        void unmatchedInternal(ReconciliationRow internal);
+    }
+
+    /**
+     * Row counts of a completed run.
+     */
+    public record Stats(long settlementRows, long internalRows, long spilledRows) {}
+
+    private enum Side { SETTLEMENT, INTERNAL }
+
+    /**
+     * A matching pass: which key it matches on and how the key is shown in results.
+     */
+    enum MatchPass {
+        RRN("RRN:") {
+            @Override
+            String key(ReconciliationRow row) {
+                return isBlank(row.rrn()) ? null : row.rrn();
+            }
+        },
+        STAN("STAN:") {
+            @Override
+            String key(ReconciliationRow row) {
+                if (isBlank(row.stan())) {
+                    return null;
+                }
+                return row.date() + "|" + row.stan() + "|" + (row.terminalId() != null ? row.terminalId() : "");
+            }
+        },
+        REFERENCE("REF:") {
+            @Override
+            String key(ReconciliationRow row) {
+                return isBlank(row.reference()) ? null : row.reference();
+            }
+        };
+
+        private final String prefix;
+
+        MatchPass(String prefix) {
+            this.prefix = prefix;
+        }
+
+        abstract String key(ReconciliationRow row);
+
+        String matchKey(ReconciliationRow settlement) {
+            return prefix + (this == STAN ? settlement.stan() : key(settlement));
+        }
+
+        /**
+         * The passes enabled by a configuration, in matching order.
+         */
+        static List<MatchPass> enabled(ReconciliationConfig config) {
+            List<MatchPass> passes = new ArrayList<>();
+            if (config.isMatchByRrn()) {
+                passes.add(RRN);
+            }
+            if (config.isMatchByStan()) {
+                passes.add(STAN);
+            }
+            if (config.isMatchByTxnRef()) {
+                passes.add(REFERENCE);
+            }
+            return passes;
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+    }
+
+    private final ReconciliationConfig config;
+    private final List<MatchPass> passes;
+
+    public PartitionedReconciler(ReconciliationConfig config) {
+        if (config.getPartitionCount() <= 0) {
+            throw new IllegalArgumentException("partitionCount must be positive");
+        }
+        this.config = config;
+        this.passes = MatchPass.enabled(config);
+    }
+
+    /**
+     * Reconcile two sources, reporting results to the sink.
+     *
+     * @param settlement settlement records
+     * @param internal   internal transactions
+     * @param sink       receives matches and unmatched rows as they are found
+     * @return row counts
+     */
+    public Stats reconcile(Source<SettlementRecord> settlement,
+                           Source<ReconciliationService.InternalTransaction> internal,
+                           Sink sink) {
+        Path spillDirectory = createSpillDirectory();
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getParallelism()))) {
+            Run run = new Run(spillDirectory, sink);
+            internal.forEach(transaction -> {
+                run.internalRows++;
+                run.route(Side.INTERNAL, ReconciliationRow.of(transaction), 0);
+            });
+            settlement.forEach(record -> {
+                run.settlementRows++;
+                run.route(Side.SETTLEMENT, ReconciliationRow.of(record), 0);
+            });
+            for (int pass = 0; pass < passes.size(); pass++) {
+                run.match(pass, executor);
+            }
+            Stats stats = new Stats(run.settlementRows, run.internalRows, run.spilledRows.get());
+            log.info("Reconciled {} settlement rows against {} internal rows in {} passes, {} rows spilled",
+                    stats.settlementRows(), stats.internalRows(), passes.size(), stats.spilledRows());
+            return stats;
+        } finally {
+            deleteRecursively(spillDirectory);
+        }
+    }
+
+    private Path createSpillDirectory() {
+        try {
+            Path base = config.getSpillDirectory() != null
+                    ? Files.createDirectories(config.getSpillDirectory())
+                    : Path.of(System.getProperty("java.io.tmpdir"));
+            return Files.createTempDirectory(base, "recon-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create reconciliation spill directory", e);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Failed to delete spill file {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to clean up spill directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * State of one reconciliation: a partition set per pass and the shared memory budget.
+     */
+    private final class Run {
+        private final Sink sink;
+        private final Partition[][] partitions;
+        private final AtomicLong bufferedBytes = new AtomicLong();
+        private final AtomicLong spilledRows = new AtomicLong();
+        private long settlementRows;
+        private long internalRows;
+
+        private Run(Path spillDirectory, Sink sink) {
+            this.sink = sink;
+            this.partitions = new Partition[passes.size()][config.getPartitionCount()];
+            for (int pass = 0; pass < partitions.length; pass++) {
+                for (int i = 0; i < partitions[pass].length; i++) {
+                    partitions[pass][i] = new Partition(spillDirectory.resolve(pass + "-" + i));
+                }
+            }
+        }
+
+        /**
+         * Hands a row to the first pass, at or after {@code fromPass}, that has a key for it.
+         */
+        private void route(Side side, ReconciliationRow row, int fromPass) {
+            for (int pass = fromPass; pass < passes.size(); pass++) {
+                String key = passes.get(pass).key(row);
+                if (key != null) {
+                    int bucket = Math.floorMod(spread(key.hashCode()), partitions[pass].length);
+                    long added = partitions[pass][bucket].add(side, row);
+                    if (bufferedBytes.addAndGet(added) > config.getMemoryBudgetBytes()) {
+                        spillAll();
+                    }
+                    return;
+                }
+            }
+            if (side == Side.SETTLEMENT) {
+                sink.unmatchedSettlement(row);
+            } else {
+                sink.unmatchedInternal(row);
+            }
+        }
+
+        private synchronized void spillAll() {
+            if (bufferedBytes.get() <= config.getMemoryBudgetBytes()) {
+                return;
+            }
+            for (Partition[] set : partitions) {
+                for (Partition partition : set) {
+                    bufferedBytes.addAndGet(-partition.spill(spilledRows));
+                }
+            }
+        }
+
+        private void match(int pass, ExecutorService executor) {
+            MatchPass matchPass = passes.get(pass);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Partition partition : partitions[pass]) {
+                futures.add(executor.submit(() -> matchPartition(matchPass, pass, partition)));
+            }
+            RuntimeException failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Reconciliation interrupted", e);
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException runtime
+                                ? runtime : new IllegalStateException(e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private void matchPartition(MatchPass matchPass, int pass, Partition partition) {
+            Map<String, ArrayDeque<ReconciliationRow>> index = new HashMap<>();
+            bufferedBytes.addAndGet(-partition.drain(Side.INTERNAL, row ->
+                    index.computeIfAbsent(matchPass.key(row), k -> new ArrayDeque<>(1)).add(row)));
+
+            bufferedBytes.addAndGet(-partition.drain(Side.SETTLEMENT, settlement -> {
+                String key = matchPass.key(settlement);
+                ArrayDeque<ReconciliationRow> candidates = index.get(key);
+                ReconciliationRow internal = candidates != null ? candidates.poll() : null;
+                if (internal == null) {
+                    route(Side.SETTLEMENT, settlement, pass + 1);
+                    return;
+                }
+                if (candidates.isEmpty()) {
+                    index.remove(key);
+                }
+                String matchKey = matchPass.matchKey(settlement);
+                BigDecimal difference = amountDifference(settlement, internal);
+                if (config.isValidateAmount() && difference.compareTo(config.getAmountTolerance()) > 0) {
+                    sink.amountMismatch(settlement, internal, matchKey, difference);
+                } else {
+                    sink.matched(settlement, internal, matchKey);
+                }
+            }));
+
+            for (ArrayDeque<ReconciliationRow> unmatched : index.values()) {
+                for (ReconciliationRow internal : unmatched) {
+                    route(Side.INTERNAL, internal, pass + 1);
+                }
+            }
+        }
+
+        private BigDecimal amountDifference(ReconciliationRow settlement, ReconciliationRow internal) {
+            BigDecimal settlementAmount = settlement.amount() != null ? settlement.amount() : BigDecimal.ZERO;
+            BigDecimal internalAmount = internal.amount() != null ? internal.amount() : BigDecimal.ZERO;
+            return settlementAmount.subtract(internalAmount).abs();
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    /**
+     * One bucket of a pass: buffered rows for each side, plus whatever has been spilled.
+     */
+    private static final class Partition {
+        private final Path spillPrefix;
+        private final List<ReconciliationRow> settlement = new ArrayList<>();
+        private final List<ReconciliationRow> internal = new ArrayList<>();
+        private final int[] spilledCount = new int[Side.values().length];
+        private long bufferedBytes;
+
+        private Partition(Path spillPrefix) {
+            this.spillPrefix = spillPrefix;
+        }
+
+        private List<ReconciliationRow> rows(Side side) {
+            return side == Side.SETTLEMENT ? settlement : internal;
+        }
+
+        private Path spillFile(Side side) {
+            return spillPrefix.resolveSibling(spillPrefix.getFileName() + "-" + side.name().charAt(0));
+        }
+
+        private synchronized long add(Side side, ReconciliationRow row) {
+            rows(side).add(row);
+            int bytes = row.estimatedBytes();
+            bufferedBytes += bytes;
+            return bytes;
+        }
+
+        /**
+         * Appends buffered rows to the spill files.
+         *
+         * @return bytes released from the buffer
+         */
+        private synchronized long spill(AtomicLong spilledRows) {
+            for (Side side : Side.values()) {
+                List<ReconciliationRow> rows = rows(side);
+                if (rows.isEmpty()) {
+                    continue;
+                }
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(spillFile(side), StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                        SPILL_BUFFER_BYTES))) {
+                    for (ReconciliationRow row : rows) {
+                        row.writeTo(out);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to spill reconciliation partition", e);
+                }
+                spilledCount[side.ordinal()] += rows.size();
+                spilledRows.addAndGet(rows.size());
+                rows.clear();
+            }
+            long released = bufferedBytes;
+            bufferedBytes = 0;
+            return released;
+        }
+
+        /**
+         * Hands every row of one side to the action, spilled rows first. The rows
+         * are taken out under the lock but processed outside it, because the action
+         * routes unmatched rows into other partitions.
+         *
+         * @return bytes released from the buffer
+         */
+        private long drain(Side side, Consumer<ReconciliationRow> action) {
+            int spilled;
+            List<ReconciliationRow> rows;
+            long released = 0;
+            synchronized (this) {
+                spilled = spilledCount[side.ordinal()];
+                spilledCount[side.ordinal()] = 0;
+                rows = new ArrayList<>(rows(side));
+                rows(side).clear();
+                for (ReconciliationRow row : rows) {
+                    released += row.estimatedBytes();
+                }
+                bufferedBytes -= released;
+            }
+
+            if (spilled > 0) {
+                Path file = spillFile(side);
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                        Files.newInputStream(file), SPILL_BUFFER_BYTES))) {
+                    for (int i = 0; i < spilled; i++) {
+                        action.accept(ReconciliationRow.readFrom(in));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read reconciliation spill file", e);
+                }
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Failed to delete spill file {}: {}", file, e.getMessage());
+                }
+            }
+            rows.forEach(action);
+            return released;
+        }
+    }
+}
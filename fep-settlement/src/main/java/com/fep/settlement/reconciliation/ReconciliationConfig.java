@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * Configuration for reconciliation process.
@@ -56,6 +58,29 @@ public class ReconciliationConfig {
     @Builder.Default
     private int matchingTimeWindowHours = 24;
 
+    /** Hash partitions per matching pass in partitioned reconciliation */
+    @Builder.Default
+    private int partitionCount = 64;
+
+    /** Heap budget for buffered rows in partitioned reconciliation before spilling to disk */
+    @Builder.Default
+    private long memoryBudgetBytes = 256L * 1024 * 1024;
+
+    /** Directory for spill files; the system temp directory if null */
+    private Path spillDirectory;
+
+    /** Threads matching partitions in parallel */
+    @Builder.Default
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** How long an internal transaction waits for its settlement record intraday before becoming a discrepancy */
+    @Builder.Default
+    private Duration internalGraceWindow = Duration.ofHours(6);
+
+    /** How long an intraday settlement record waits for its internal transaction before becoming a discrepancy */
+    @Builder.Default
+    private Duration settlementGraceWindow = Duration.ofMinutes(30);
+
     /** Default configuration */
     public static ReconciliationConfig defaultConfig() {
         return ReconciliationConfig.builder().build();
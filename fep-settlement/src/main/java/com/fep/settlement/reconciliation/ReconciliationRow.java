@@ -0,0 +1,106 @@
+package com.fep.settlement.reconciliation;
+
+import com.fep.settlement.domain.SettlementRecord;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The fields of a settlement record or internal transaction that reconciliation
+ * matches on and reports, compact enough to buffer in bulk and spill to disk.
+ *
+ * @param sequenceNumber  settlement record sequence number, 0 for internal transactions
+ * @param reference       settlement transaction reference, or internal transaction ID
+ * @param date            transaction date
+ * @param rrn             retrieval reference number
+ * @param stan            system trace audit number
+ * @param terminalId      terminal ID
+ * @param amount          transaction amount
+ * @param cardNumber      masked card number
+ * @param transactionType transaction type
+ */
+public record ReconciliationRow(
+        long sequenceNumber,
+        String reference,
+        LocalDate date,
+        String rrn,
+        String stan,
+        String terminalId,
+        BigDecimal amount,
+        String cardNumber,
+        String transactionType
+) {
+
+    /** Rough heap cost of a row apart from its string contents */
+    private static final int BASE_BYTES = 160;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    public static ReconciliationRow of(SettlementRecord record) {
+        LocalDate date = record.getTransactionDateTime() != null
+                ? record.getTransactionDateTime().toLocalDate() : record.getSettlementDate();
+        return new ReconciliationRow(record.getSequenceNumber(), record.getTransactionRefNo(), date,
+                record.getRrn(), record.getStan(), record.getTerminalId(), record.getAmount(),
+                record.getMaskedCardNumber(), record.getTransactionType());
+    }
+
+    public static ReconciliationRow of(ReconciliationService.InternalTransaction transaction) {
+        LocalDate date = transaction.getTransactionTime() != null
+                ? transaction.getTransactionTime().toLocalDate() : null;
+        return new ReconciliationRow(0, transaction.getTransactionId(), date,
+                transaction.getRrn(), transaction.getStan(), transaction.getTerminalId(), transaction.getAmount(),
+                null, transaction.getTransactionType());
+    }
+
+    /**
+     * Approximate heap size, used to keep buffered rows within the memory budget.
+     */
+    int estimatedBytes() {
+        return BASE_BYTES + length(reference) + length(rrn) + length(stan) + length(terminalId)
+                + length(cardNumber) + length(transactionType);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(sequenceNumber);
+        writeString(out, reference);
+        out.writeLong(date != null ? date.toEpochDay() : NO_DATE);
+        writeString(out, rrn);
+        writeString(out, stan);
+        writeString(out, terminalId);
+        writeString(out, amount != null ? amount.toPlainString() : null);
+        writeString(out, cardNumber);
+        writeString(out, transactionType);
+    }
+
+    static ReconciliationRow readFrom(DataInput in) throws IOException {
+        long sequenceNumber = in.readLong();
+        String reference = readString(in);
+        long epochDay = in.readLong();
+        String rrn = readString(in);
+        String stan = readString(in);
+        String terminalId = readString(in);
+        String amount = readString(in);
+        return new ReconciliationRow(sequenceNumber, reference,
+                epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null,
+                rrn, stan, terminalId, amount != null ? new BigDecimal(amount) : null,
+                readString(in), readString(in));
+    }
+
+    private static int length(String value) {
+        return value != null ? 2 * value.length() : 0;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -10,6 +10,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -19,6 +20,9 @@ public class ReconciliationService {
 
     private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
 
+    /** Status updates and discrepancies a partitioned run buffers before writing them in bulk */
+    private static final int PERSIST_BATCH_SIZE = 5_000;
+
     private final SettlementRepository settlementRepository;
     private final InternalTransactionProvider transactionProvider;
     private final Map<String, ReconciliationResult> resultCache = new ConcurrentHashMap<>();
@@ -90,8 +94,12 @@ public class ReconciliationService {
                     if (matchResult.isMatched()) {
                         handleMatch(record, matchResult, result, config);
                         matchedInternalTxnIds.add(matchResult.getInternalTransactionId());
+                        transactionProvider.settled(matchResult.getInternalTransactionId());
                     } else {
                         handleUnmatched(record, matchResult, result, config);
+                        if (matchResult.isAmountMismatch()) {
+                            transactionProvider.settled(matchResult.getInternalTransactionId());
+                        }
                     }
 
                     // Check max discrepancies
@@ -152,6 +160,9 @@ public class ReconciliationService {
             settlementFile.setProcessingStatus(FileProcessingStatus.FAILED);
         }
 
+        // Store the record statuses, discrepancies and rebuilt report rollup in bulk
+        persistOutcome(settlementFile, result);
+
         // Cache result
         resultCache.put(resultId, result);
 
@@ -165,6 +176,98 @@ public class ReconciliationService {
         return reconcile(settlementFile, ReconciliationConfig.defaultConfig());
     }
 
+    /**
+     * Reconcile settlement records streamed from a source, without loading either
+     * side into memory. Both sides are hash-partitioned and matched by
+     * {@link PartitionedReconciler}; discrepancies are created as they are found.
+     *
+     * <p>The result carries counts and amounts but not matched pairs or unmatched
+     * record objects, which would grow with the file; discrepancies and unmatched
+     * internal transaction IDs are kept up to {@code maxDiscrepancies}. Every
+     * record status and discrepancy is written to the repository in bulk as
+     * matching proceeds, and the file's report rollup is rebuilt at the end.
+     *
+     * @param settlementFileId settlement file the records belong to
+     * @param settlementDate   settlement date
+     * @param records          settlement records of the file
+     * @param config           reconciliation configuration
+     * @return reconciliation result
+     */
+    public ReconciliationResult reconcile(String settlementFileId, LocalDate settlementDate,
+                                          PartitionedReconciler.Source<SettlementRecord> records,
+                                          ReconciliationConfig config) {
+        log.info("Starting partitioned reconciliation for file: {}", settlementFileId);
+
+        String resultId = generateResultId();
+        ReconciliationResult result = ReconciliationResult.builder()
+                .resultId(resultId)
+                .settlementDate(settlementDate)
+                .settlementFileId(settlementFileId)
+                .startTime(LocalDateTime.now())
+                .status(ReconciliationStatus.IN_PROGRESS)
+                .matchedAmount(BigDecimal.ZERO)
+                .discrepancyAmount(BigDecimal.ZERO)
+                .build();
+
+        try {
+            ResultSink sink = new ResultSink(result, config);
+            PartitionedReconciler.Stats stats = new PartitionedReconciler(config).reconcile(
+                    records,
+                    action -> transactionProvider.forEachTransaction(
+                            settlementDate, config.getMatchingTimeWindowHours(), action),
+                    sink);
+            sink.flush();
+            refreshRollup(settlementFileId, settlementDate);
+            result.setTotalSettlementRecords((int) stats.settlementRows());
+            result.setTotalInternalTransactions((int) stats.internalRows());
+            result.complete();
+
+            log.info("Partitioned reconciliation completed: {} matched, {} discrepancies, {} rows spilled",
+                    result.getMatchedCount(), result.getDiscrepancyCount(), stats.spilledRows());
+
+        } catch (Exception e) {
+            log.error("Reconciliation failed: {}", e.getMessage(), e);
+            result.fail(e.getMessage());
+        }
+
+        resultCache.put(resultId, result);
+        return result;
+    }
+
+    /**
+     * Store a reconciled file's record statuses and discrepancies, and rebuild its
+     * report rollup. Failure is logged rather than failing the reconciliation,
+     * whose outcome is still on the in-memory file and result.
+     */
+    private void persistOutcome(SettlementFile settlementFile, ReconciliationResult result) {
+        if (settlementFile.getFileId() == null) {
+            return;
+        }
+        try {
+            settlementRepository.updateRecordStatuses(settlementFile.getFileId(),
+                    settlementFile.getRecords().stream().map(SettlementStatusUpdate::of).toList());
+            if (!result.getDiscrepancies().isEmpty()) {
+                settlementRepository.saveDiscrepancies(result.getDiscrepancies());
+            }
+            settlementRepository.saveRollup(settlementFile.getFileId(), settlementFile.getSettlementDate(),
+                    SettlementRollup.of(settlementFile.getRecords()));
+        } catch (Exception e) {
+            log.warn("Failed to store reconciliation outcome of file {}: {}",
+                    settlementFile.getFileId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild a file's report rollup by streaming its stored records.
+     */
+    private void refreshRollup(String settlementFileId, LocalDate settlementDate) {
+        SettlementRollup rollup = new SettlementRollup();
+        settlementRepository.forEachRecord(settlementFileId, rollup::add);
+        if (!rollup.isEmpty()) {
+            settlementRepository.saveRollup(settlementFileId, settlementDate, rollup);
+        }
+    }
+
     /**
      * Get reconciliation result by ID.
      */
@@ -339,6 +442,187 @@ public class ReconciliationService {
                 .build();
     }
 
+    /**
+     * Records partitioned reconciliation results. Matching threads call it
+     * concurrently, so every update is made under the result's lock. Record
+     * status updates and discrepancies are queued under a separate lock and
+     * written in bulk outside both.
+     */
+    private final class ResultSink implements PartitionedReconciler.Sink {
+        private final ReconciliationResult result;
+        private final ReconciliationConfig config;
+        private final List<SettlementStatusUpdate> pendingUpdates = new ArrayList<>();
+        private final List<Discrepancy> pendingDiscrepancies = new ArrayList<>();
+
+        private ResultSink(ReconciliationResult result, ReconciliationConfig config) {
+            this.result = result;
+            this.config = config;
+        }
+
+        @Override
+        public void matched(ReconciliationRow settlement, ReconciliationRow internal, String matchKey) {
+            synchronized (result) {
+                result.setMatchedCount(result.getMatchedCount() + 1);
+                if (settlement.amount() != null) {
+                    result.setMatchedAmount(result.getMatchedAmount().add(settlement.amount()));
+                }
+                count(SettlementStatus.MATCHED);
+            }
+            queue(settlement, SettlementStatus.MATCHED, internal.reference(), null);
+            transactionProvider.settled(internal.reference());
+        }
+
+        @Override
+        public void amountMismatch(ReconciliationRow settlement, ReconciliationRow internal, String matchKey,
+                                   BigDecimal difference) {
+            Discrepancy discrepancy = Discrepancy.builder()
+                    .discrepancyId(generateDiscrepancyId())
+                    .type(DiscrepancyType.AMOUNT_MISMATCH)
+                    .settlementDate(result.getSettlementDate())
+                    .settlementFileId(result.getSettlementFileId())
+                    .settlementRecordRef(settlement.reference())
+                    .internalTransactionRef(internal.reference())
+                    .settlementAmount(settlement.amount())
+                    .internalAmount(internal.amount())
+                    .differenceAmount(difference)
+                    .cardNumber(settlement.cardNumber())
+                    .transactionType(settlement.transactionType())
+                    .status(DiscrepancyStatus.OPEN)
+                    .priority(DiscrepancyPriority.HIGH)
+                    .description("Amount mismatch: difference of " + difference)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            synchronized (result) {
+                count(SettlementStatus.AMOUNT_MISMATCH);
+                addDiscrepancyAmount(settlement.amount());
+                addDiscrepancy(discrepancy);
+            }
+            queue(settlement, SettlementStatus.AMOUNT_MISMATCH, null, discrepancy);
+            transactionProvider.settled(internal.reference());
+        }
+
+        @Override
+        public void unmatchedSettlement(ReconciliationRow settlement) {
+            Discrepancy discrepancy = Discrepancy.builder()
+                    .discrepancyId(generateDiscrepancyId())
+                    .type(DiscrepancyType.MISSING_INTERNAL)
+                    .settlementDate(result.getSettlementDate())
+                    .settlementFileId(result.getSettlementFileId())
+                    .settlementRecordRef(settlement.reference())
+                    .settlementAmount(settlement.amount())
+                    .cardNumber(settlement.cardNumber())
+                    .transactionType(settlement.transactionType())
+                    .status(DiscrepancyStatus.OPEN)
+                    .priority(DiscrepancyType.MISSING_INTERNAL.getDefaultPriority())
+                    .description("Transaction not found in internal system")
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            synchronized (result) {
+                count(SettlementStatus.NOT_FOUND);
+                addDiscrepancyAmount(settlement.amount());
+                addDiscrepancy(discrepancy);
+            }
+            queue(settlement, SettlementStatus.NOT_FOUND, null, discrepancy);
+        }
+
+        @Override
+        public void unmatchedInternal(ReconciliationRow internal) {
+            Discrepancy discrepancy = Discrepancy.builder()
+                    .discrepancyId(generateDiscrepancyId())
+                    .type(DiscrepancyType.MISSING_SETTLEMENT)
+                    .settlementDate(result.getSettlementDate())
+                    .settlementFileId(result.getSettlementFileId())
+                    .internalTransactionRef(internal.reference())
+                    .internalAmount(internal.amount())
+                    .status(DiscrepancyStatus.OPEN)
+                    .priority(DiscrepancyType.MISSING_SETTLEMENT.getDefaultPriority())
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            synchronized (result) {
+                if (result.getUnmatchedInternalTransactions().size() < config.getMaxDiscrepancies()) {
+                    result.addUnmatchedInternalTransaction(internal.reference());
+                }
+                addDiscrepancy(discrepancy);
+            }
+            queue(null, null, null, discrepancy);
+        }
+
+        /**
+         * Queues a settlement row's new status and a discrepancy, writing the
+         * queue once it reaches the batch size.
+         */
+        private void queue(ReconciliationRow settlement, SettlementStatus status, String matchedTransactionId,
+                           Discrepancy discrepancy) {
+            List<SettlementStatusUpdate> updates;
+            List<Discrepancy> discrepancies;
+            synchronized (pendingUpdates) {
+                if (settlement != null && settlement.sequenceNumber() > 0) {
+                    pendingUpdates.add(new SettlementStatusUpdate(settlement.sequenceNumber(), status,
+                            matchedTransactionId, matchedTransactionId != null ? LocalDateTime.now() : null));
+                }
+                if (discrepancy != null && config.isAutoCreateDiscrepancies()) {
+                    pendingDiscrepancies.add(discrepancy);
+                }
+                if (pendingUpdates.size() + pendingDiscrepancies.size() < PERSIST_BATCH_SIZE) {
+                    return;
+                }
+                updates = new ArrayList<>(pendingUpdates);
+                discrepancies = new ArrayList<>(pendingDiscrepancies);
+                pendingUpdates.clear();
+                pendingDiscrepancies.clear();
+            }
+            write(updates, discrepancies);
+        }
+
+        /**
+         * Writes whatever is still queued.
+         */
+        private void flush() {
+            List<SettlementStatusUpdate> updates;
+            List<Discrepancy> discrepancies;
+            synchronized (pendingUpdates) {
+                updates = new ArrayList<>(pendingUpdates);
+                discrepancies = new ArrayList<>(pendingDiscrepancies);
+                pendingUpdates.clear();
+                pendingDiscrepancies.clear();
+            }
+            write(updates, discrepancies);
+        }
+
+        private void write(List<SettlementStatusUpdate> updates, List<Discrepancy> discrepancies) {
+            if (!updates.isEmpty()) {
+                settlementRepository.updateRecordStatuses(result.getSettlementFileId(), updates);
+            }
+            if (!discrepancies.isEmpty()) {
+                settlementRepository.saveDiscrepancies(discrepancies);
+            }
+        }
+
+        private void count(SettlementStatus status) {
+            result.getStatusSummary().merge(status, 1, Integer::sum);
+        }
+
+        private void addDiscrepancyAmount(BigDecimal amount) {
+            if (amount != null) {
+                result.setDiscrepancyAmount(result.getDiscrepancyAmount().add(amount));
+            }
+        }
+
+        /**
+         * Keeps at most maxDiscrepancies discrepancies in the result; the rest are only counted.
+         */
+        private void addDiscrepancy(Discrepancy discrepancy) {
+            if (!config.isAutoCreateDiscrepancies()) {
+                return;
+            }
+            if (result.getDiscrepancies().size() < config.getMaxDiscrepancies()) {
+                result.addDiscrepancy(discrepancy);
+            } else {
+                result.setDiscrepancyCount(result.getDiscrepancyCount() + 1);
+            }
+        }
+    }
+
     private String generateResultId() {
         return "REC-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
@@ -391,6 +675,22 @@ public class ReconciliationService {
      */
     public interface InternalTransactionProvider {
         List<InternalTransaction> getTransactions(LocalDate date, int timeWindowHours);
+
+        /**
+         * Called when a reconciliation run finds the settlement record of a supplied
+         * transaction, whether or not the amounts agree.
+         */
+        default void settled(String transactionId) {
+        }
+
+        /**
+         * Hand each internal transaction to the action instead of collecting them.
+         * Providers backed by a database should override this to stream rows.
+         */
+        default void forEachTransaction(LocalDate date, int timeWindowHours,
+                                        Consumer<? super InternalTransaction> action) {
+            getTransactions(date, timeWindowHours).forEach(action);
+        }
     }
 
     /**
@@ -408,5 +708,6 @@ public class ReconciliationService {
         private LocalDateTime transactionTime;
         private String transactionType;
         private String status;
+        private String terminalId;
     }
 }
@@ -18,6 +18,9 @@ import java.util.stream.Collectors;
 
 /**
  * Service for generating settlement reports.
+ *
+ * <p>Record counts and amounts come from the files' {@link SettlementRollup}s;
+ * a file without a stored rollup is rolled up from its records on the fly.
  */
 public class SettlementReportService {
 
@@ -63,34 +66,36 @@ public class SettlementReportService {
         Map<String, Integer> byTransactionType = new HashMap<>();
         Map<SettlementStatus, Integer> byStatus = new EnumMap<>(SettlementStatus.class);
 
+        // Combine the files' rollups rather than walking their records
+        Map<String, SettlementRollup> storedRollups = repository.findRollupsByDateRange(date, date);
+        SettlementRollup rollup = new SettlementRollup();
         for (SettlementFile file : files) {
-            for (SettlementRecord record : file.getRecords()) {
-                totalRecords++;
-                if (record.getAmount() != null) {
-                    totalAmount = totalAmount.add(record.getAmount());
-                }
+            rollup.merge(repository.rollupOf(file, storedRollups));
+        }
 
-                if (record.getStatus() == SettlementStatus.MATCHED) {
-                    matchedRecords++;
-                    if (record.getAmount() != null) {
-                        matchedAmount = matchedAmount.add(record.getAmount());
-                    }
-                } else if (record.getStatus().isDiscrepancy()) {
-                    discrepancyRecords++;
-                }
+        for (SettlementRollup.Cell cell : rollup.getCells()) {
+            int count = (int) cell.count();
+            totalRecords += count;
+            totalAmount = totalAmount.add(cell.amount());
 
-                // Count by channel
-                String channel = record.getChannel() != null ? record.getChannel() : "UNKNOWN";
-                byChannel.merge(channel, 1, Integer::sum);
+            if (cell.status() == SettlementStatus.MATCHED) {
+                matchedRecords += count;
+                matchedAmount = matchedAmount.add(cell.amount());
+            } else if (cell.status().isDiscrepancy()) {
+                discrepancyRecords += count;
+            }
 
-                // Count by transaction type
-                String txnType = record.getTransactionType() != null ?
-                        record.getTransactionType() : "UNKNOWN";
-                byTransactionType.merge(txnType, 1, Integer::sum);
+            // Count by channel
+            String channel = cell.channel() != null ? cell.channel() : "UNKNOWN";
+            byChannel.merge(channel, count, Integer::sum);
 
-                // Count by status
-                byStatus.merge(record.getStatus(), 1, Integer::sum);
-            }
+            // Count by transaction type
+            String txnType = cell.transactionType() != null ?
+                    cell.transactionType() : "UNKNOWN";
+            byTransactionType.merge(txnType, count, Integer::sum);
+
+            // Count by status
+            byStatus.merge(cell.status(), count, Integer::sum);
         }
 
         report.setTotalRecords(totalRecords);
@@ -332,10 +337,12 @@ public class SettlementReportService {
         Map<LocalDate, Integer> dailyRecordCounts = new TreeMap<>();
         Map<LocalDate, BigDecimal> dailyAmounts = new TreeMap<>();
 
+        Map<String, SettlementRollup> storedRollups = repository.findRollupsByDateRange(startDate, endDate);
         for (SettlementFile file : files) {
+            SettlementRollup rollup = repository.rollupOf(file, storedRollups);
             LocalDate fileDate = file.getSettlementDate();
-            int fileRecords = file.getTotalRecordCount();
-            BigDecimal fileAmount = file.getTotalAmount();
+            int fileRecords = (int) rollup.getRecordCount();
+            BigDecimal fileAmount = rollup.getTotalAmount();
 
             totalRecords += fileRecords;
             totalAmount = totalAmount.add(fileAmount);
@@ -343,11 +350,11 @@ public class SettlementReportService {
             dailyRecordCounts.merge(fileDate, fileRecords, Integer::sum);
             dailyAmounts.merge(fileDate, fileAmount, BigDecimal::add);
 
-            for (SettlementRecord record : file.getRecords()) {
-                if (record.getStatus() == SettlementStatus.MATCHED) {
-                    matchedRecords++;
-                } else if (record.getStatus().isDiscrepancy()) {
-                    discrepancyRecords++;
+            for (SettlementRollup.Cell cell : rollup.getCells()) {
+                if (cell.status() == SettlementStatus.MATCHED) {
+                    matchedRecords += (int) cell.count();
+                } else if (cell.status().isDiscrepancy()) {
+                    discrepancyRecords += (int) cell.count();
                 }
             }
         }
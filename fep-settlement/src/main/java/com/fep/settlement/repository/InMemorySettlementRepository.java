@@ -5,6 +5,7 @@ import com.fep.settlement.domain.*;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -16,6 +17,7 @@ public class InMemorySettlementRepository implements SettlementRepository {
     private final Map<String, SettlementRecord> records = new ConcurrentHashMap<>();
     private final Map<String, Discrepancy> discrepancies = new ConcurrentHashMap<>();
     private final Map<String, ClearingRecord> clearingRecords = new ConcurrentHashMap<>();
+    private final Map<String, StoredRollup> rollups = new ConcurrentHashMap<>();
 
     // Settlement File operations
 
@@ -65,9 +67,21 @@ public class InMemorySettlementRepository implements SettlementRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public void updateFileStatus(SettlementFile file) {
+        SettlementFile stored = files.get(file.getFileId());
+        if (stored != null && stored != file) {
+            stored.setProcessingStatus(file.getProcessingStatus());
+            stored.setProcessingCompletedAt(file.getProcessingCompletedAt());
+            stored.setErrorMessage(file.getErrorMessage());
+            stored.setChecksum(file.getChecksum());
+        }
+    }
+
     @Override
     public boolean deleteFile(String fileId) {
         SettlementFile removed = files.remove(fileId);
+        rollups.remove(fileId);
         if (removed != null && removed.getRecords() != null) {
             for (SettlementRecord record : removed.getRecords()) {
                 records.remove(record.getTransactionRefNo());
@@ -97,6 +111,47 @@ public class InMemorySettlementRepository implements SettlementRepository {
         return recordList;
     }
 
+    @Override
+    public void saveRecordChunk(String fileId, long firstSequence, long lastSequence,
+                                List<SettlementRecord> chunk) {
+        SettlementFile file = files.get(fileId);
+        if (file == null) {
+            throw new IllegalArgumentException("Settlement file not found: " + fileId);
+        }
+        synchronized (file) {
+            List<SettlementRecord> fileRecords = file.getRecords();
+            if (fileRecords == null) {
+                fileRecords = new ArrayList<>();
+                file.setRecords(fileRecords);
+            }
+            fileRecords.removeIf(r -> r.getSequenceNumber() >= firstSequence && r.getSequenceNumber() <= lastSequence);
+            fileRecords.addAll(chunk);
+        }
+        saveRecords(chunk);
+    }
+
+    @Override
+    public void updateRecordStatuses(String fileId, List<SettlementStatusUpdate> updates) {
+        SettlementFile file = files.get(fileId);
+        if (file == null || file.getRecords() == null) {
+            return;
+        }
+        synchronized (file) {
+            Map<Long, SettlementRecord> bySequence = new HashMap<>();
+            for (SettlementRecord record : file.getRecords()) {
+                bySequence.put(record.getSequenceNumber(), record);
+            }
+            for (SettlementStatusUpdate update : updates) {
+                SettlementRecord record = bySequence.get(update.sequenceNumber());
+                if (record != null) {
+                    record.setStatus(update.status());
+                    record.setMatchedTransactionId(update.matchedTransactionId());
+                    record.setMatchedAt(update.matchedAt());
+                }
+            }
+        }
+    }
+
     @Override
     public Optional<SettlementRecord> findRecordByRef(String transactionRefNo) {
         return Optional.ofNullable(records.get(transactionRefNo));
@@ -111,6 +166,20 @@ public class InMemorySettlementRepository implements SettlementRepository {
                 .orElse(Collections.emptyList());
     }
 
+    @Override
+    public void forEachRecord(String fileId, Consumer<? super SettlementRecord> action) {
+        SettlementFile file = files.get(fileId);
+        if (file == null || file.getRecords() == null) {
+            return;
+        }
+        List<SettlementRecord> snapshot;
+        synchronized (file) {
+            snapshot = new ArrayList<>(file.getRecords());
+        }
+        snapshot.sort(Comparator.comparingLong(SettlementRecord::getSequenceNumber));
+        snapshot.forEach(action);
+    }
+
     @Override
     public List<SettlementRecord> findRecordsByStatus(SettlementStatus status) {
         return records.values().stream()
@@ -127,6 +196,28 @@ public class InMemorySettlementRepository implements SettlementRepository {
                 .collect(Collectors.toList());
     }
 
+    // Settlement Rollup operations
+
+    @Override
+    public void saveRollup(String fileId, LocalDate settlementDate, SettlementRollup rollup) {
+        rollups.put(fileId, new StoredRollup(settlementDate, rollup));
+    }
+
+    @Override
+    public Map<String, SettlementRollup> findRollupsByDateRange(LocalDate startDate, LocalDate endDate) {
+        Map<String, SettlementRollup> result = new HashMap<>();
+        rollups.forEach((fileId, stored) -> {
+            LocalDate d = stored.settlementDate();
+            if (d != null && !d.isBefore(startDate) && !d.isAfter(endDate)) {
+                result.put(fileId, stored.rollup());
+            }
+        });
+        return result;
+    }
+
+    private record StoredRollup(LocalDate settlementDate, SettlementRollup rollup) {
+    }
+
     // Discrepancy operations
 
     @Override
@@ -138,6 +229,14 @@ public class InMemorySettlementRepository implements SettlementRepository {
         return discrepancy;
     }
 
+    @Override
+    public List<Discrepancy> saveDiscrepancies(List<Discrepancy> discrepancyList) {
+        for (Discrepancy discrepancy : discrepancyList) {
+            saveDiscrepancy(discrepancy);
+        }
+        return discrepancyList;
+    }
+
     @Override
     public Optional<Discrepancy> findDiscrepancyById(String discrepancyId) {
         return Optional.ofNullable(discrepancies.get(discrepancyId));
@@ -189,6 +288,14 @@ public class InMemorySettlementRepository implements SettlementRepository {
         return record;
     }
 
+    @Override
+    public List<ClearingRecord> saveClearingRecords(List<ClearingRecord> recordList) {
+        for (ClearingRecord record : recordList) {
+            saveClearingRecord(record);
+        }
+        return recordList;
+    }
+
     @Override
     public Optional<ClearingRecord> findClearingRecordById(String clearingId) {
         return Optional.ofNullable(clearingRecords.get(clearingId));
@@ -222,6 +329,7 @@ public class InMemorySettlementRepository implements SettlementRepository {
         records.clear();
         discrepancies.clear();
         clearingRecords.clear();
+        rollups.clear();
     }
 
     public int getFileCount() {
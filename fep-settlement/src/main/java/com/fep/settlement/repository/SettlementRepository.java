@@ -4,7 +4,9 @@ import com.fep.settlement.domain.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository for settlement data.
@@ -38,6 +40,12 @@ public interface SettlementRepository {
      */
     List<SettlementFile> findFilesByDateRange(LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Update processing status, completion time, error message and checksum of a
+     * saved file, leaving its records untouched.
+     */
+    void updateFileStatus(SettlementFile file);
+
     /**
      * Delete settlement file.
      */
@@ -55,6 +63,26 @@ public interface SettlementRepository {
      */
     List<SettlementRecord> saveRecords(List<SettlementRecord> records);
 
+    /**
+     * Save one ingest chunk of a file's records in a single transaction. Rows
+     * already stored for the chunk's sequence range are replaced, so a chunk
+     * retried after a failure is not inserted twice.
+     *
+     * @param fileId        owning file
+     * @param firstSequence first sequence number in the chunk (inclusive)
+     * @param lastSequence  last sequence number in the chunk (inclusive)
+     * @param records       the chunk's records
+     */
+    void saveRecordChunk(String fileId, long firstSequence, long lastSequence, List<SettlementRecord> records);
+
+    /**
+     * Apply reconciliation outcomes to a file's stored records in bulk.
+     *
+     * @param fileId  owning file
+     * @param updates status updates, keyed by record sequence number
+     */
+    void updateRecordStatuses(String fileId, List<SettlementStatusUpdate> updates);
+
     /**
      * Find record by transaction reference.
      */
@@ -65,6 +93,11 @@ public interface SettlementRepository {
      */
     List<SettlementRecord> findRecordsByFileId(String fileId);
 
+    /**
+     * Stream a file's records in sequence order without collecting them.
+     */
+    void forEachRecord(String fileId, Consumer<? super SettlementRecord> action);
+
     /**
      * Find records by status.
      */
@@ -75,6 +108,39 @@ public interface SettlementRepository {
      */
     List<SettlementRecord> findUnmatchedRecords(LocalDate date);
 
+    // Settlement Rollup operations
+
+    /**
+     * Save the rollup of a file's records, replacing any rollup stored for it.
+     */
+    void saveRollup(String fileId, LocalDate settlementDate, SettlementRollup rollup);
+
+    /**
+     * Find the stored rollups of files settled within a date range, keyed by file
+     * ID. Files without a stored rollup are absent from the result.
+     */
+    Map<String, SettlementRollup> findRollupsByDateRange(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Get a file's rollup for reporting: the stored one if present, else one built
+     * from the file's loaded records, else one built by streaming its stored
+     * records (files found by date are returned without their records).
+     */
+    default SettlementRollup rollupOf(SettlementFile file, Map<String, SettlementRollup> storedRollups) {
+        SettlementRollup stored = file.getFileId() != null ? storedRollups.get(file.getFileId()) : null;
+        if (stored != null) {
+            return stored;
+        }
+        if (file.getRecords() != null && !file.getRecords().isEmpty()) {
+            return SettlementRollup.of(file.getRecords());
+        }
+        SettlementRollup rollup = new SettlementRollup();
+        if (file.getFileId() != null) {
+            forEachRecord(file.getFileId(), rollup::add);
+        }
+        return rollup;
+    }
+
     // Discrepancy operations
 
     /**
@@ -82,6 +148,11 @@ public interface SettlementRepository {
      */
     Discrepancy saveDiscrepancy(Discrepancy discrepancy);
 
+    /**
+     * Save multiple discrepancies, inserting new ones and updating existing ones.
+     */
+    List<Discrepancy> saveDiscrepancies(List<Discrepancy> discrepancies);
+
     /**
      * Find discrepancy by ID.
      */
@@ -119,6 +190,11 @@ public interface SettlementRepository {
      */
     ClearingRecord saveClearingRecord(ClearingRecord record);
 
+    /**
+     * Save multiple clearing records, inserting new ones and updating existing ones.
+     */
+    List<ClearingRecord> saveClearingRecords(List<ClearingRecord> records);
+
     /**
      * Find clearing record by ID.
      */
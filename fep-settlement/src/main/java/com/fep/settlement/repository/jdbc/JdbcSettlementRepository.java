@@ -5,8 +5,10 @@ import com.fep.settlement.domain.*;
 import com.fep.settlement.repository.SettlementRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -17,9 +19,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * JDBC implementation of SettlementRepository for Oracle database.
@@ -30,8 +36,19 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class JdbcSettlementRepository implements SettlementRepository {
 
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
+    // Rows per JDBC batch round trip
+    @Value("${fep.settlement.jdbc.batch-size:" + DEFAULT_BATCH_SIZE + "}")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    // Rows per fetch round trip when streaming records
+    @Value("${fep.settlement.jdbc.fetch-size:" + DEFAULT_FETCH_SIZE + "}")
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
     // ========================= Row Mappers =========================
 
     private static final RowMapper<SettlementFile> FILE_ROW_MAPPER = (rs, rowNum) -> {
@@ -218,7 +235,23 @@ public class JdbcSettlementRepository implements SettlementRepository {
     }
 
     private void saveRecordsForFile(String fileId, List<SettlementRecord> records) {
-        String sql = """
+        batchUpdate(INSERT_RECORD_SQL, records, r -> createRecordParams(fileId, r));
+    }
+
+    /**
+     * Executes a statement once per item, sending batchSize rows per round trip.
+     */
+    private <T> void batchUpdate(String sql, List<T> items, Function<T, SqlParameterSource> params) {
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<T> batch = items.subList(from, Math.min(from + batchSize, items.size()));
+            SqlParameterSource[] batchParams = batch.stream()
+                .map(params)
+                .toArray(SqlParameterSource[]::new);
+            jdbcTemplate.batchUpdate(sql, batchParams);
+        }
+    }
+
+    private static final String INSERT_RECORD_SQL = """
             INSERT INTO FEP_SETTLEMENT_RECORD (
                 SEQUENCE_NUMBER, FILE_ID, SETTLEMENT_DATE, TRANSACTION_REF_NO, STAN, RRN,
                 TRANSACTION_TYPE, TRANSACTION_CODE, ACQUIRING_BANK_CODE, ISSUING_BANK_CODE,
@@ -236,11 +269,24 @@ public class JdbcSettlementRepository implements SettlementRepository {
             )
             """;
 
-        SqlParameterSource[] batchParams = records.stream()
-            .map(r -> createRecordParams(fileId, r))
-            .toArray(SqlParameterSource[]::new);
+    /**
+     * Sets the number of rows sent per JDBC batch.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
 
-        jdbcTemplate.batchUpdate(sql, batchParams);
+    /**
+     * Sets the number of rows fetched per round trip when streaming records.
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.fetchSize = fetchSize;
     }
 
     @Override
@@ -282,6 +328,26 @@ public class JdbcSettlementRepository implements SettlementRepository {
         ), FILE_ROW_MAPPER);
     }
 
+    @Override
+    @Transactional
+    public void updateFileStatus(SettlementFile file) {
+        String sql = """
+            UPDATE FEP_SETTLEMENT_FILE SET
+                PROCESSING_STATUS = :processingStatus,
+                PROCESSING_COMPLETED_AT = :processingCompletedAt,
+                ERROR_MESSAGE = :errorMessage,
+                CHECKSUM = :checksum
+            WHERE FILE_ID = :fileId
+            """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("fileId", file.getFileId())
+            .addValue("processingStatus", file.getProcessingStatus() != null ? file.getProcessingStatus().name() : null)
+            .addValue("processingCompletedAt", JdbcUtils.toTimestamp(file.getProcessingCompletedAt()))
+            .addValue("errorMessage", file.getErrorMessage())
+            .addValue("checksum", file.getChecksum());
+        jdbcTemplate.update(sql, params);
+    }
+
     @Override
     @Transactional
     public boolean deleteFile(String fileId) {
@@ -309,6 +375,42 @@ public class JdbcSettlementRepository implements SettlementRepository {
         return records;
     }
 
+    @Override
+    @Transactional
+    public void saveRecordChunk(String fileId, long firstSequence, long lastSequence, List<SettlementRecord> records) {
+        // Clear rows a failed earlier attempt may have committed for this range
+        String deleteSql = """
+            DELETE FROM FEP_SETTLEMENT_RECORD
+            WHERE FILE_ID = :fileId AND SEQUENCE_NUMBER BETWEEN :firstSequence AND :lastSequence
+            """;
+        jdbcTemplate.update(deleteSql, new MapSqlParameterSource()
+            .addValue("fileId", fileId)
+            .addValue("firstSequence", firstSequence)
+            .addValue("lastSequence", lastSequence));
+
+        saveRecordsForFile(fileId, records);
+        log.debug("Saved record chunk: fileId={}, sequences {}-{}", fileId, firstSequence, lastSequence);
+    }
+
+    @Override
+    @Transactional
+    public void updateRecordStatuses(String fileId, List<SettlementStatusUpdate> updates) {
+        String sql = """
+            UPDATE FEP_SETTLEMENT_RECORD SET
+                STATUS = :status,
+                MATCHED_TRANSACTION_ID = :matchedTransactionId,
+                MATCHED_AT = :matchedAt
+            WHERE FILE_ID = :fileId AND SEQUENCE_NUMBER = :sequenceNumber
+            """;
+        batchUpdate(sql, updates, u -> new MapSqlParameterSource()
+            .addValue("fileId", fileId)
+            .addValue("sequenceNumber", u.sequenceNumber())
+            .addValue("status", u.status().name())
+            .addValue("matchedTransactionId", u.matchedTransactionId())
+            .addValue("matchedAt", JdbcUtils.toTimestamp(u.matchedAt())));
+        log.debug("Updated {} record statuses: fileId={}", updates.size(), fileId);
+    }
+
     @Override
     public Optional<SettlementRecord> findRecordByRef(String transactionRefNo) {
         String sql = "SELECT * FROM FEP_SETTLEMENT_RECORD WHERE TRANSACTION_REF_NO = :ref ORDER BY SEQUENCE_NUMBER DESC FETCH FIRST 1 ROW ONLY";
@@ -322,8 +424,22 @@ public class JdbcSettlementRepository implements SettlementRepository {
 
     @Override
     public List<SettlementRecord> findRecordsByFileId(String fileId) {
-        String sql = "SELECT * FROM FEP_SETTLEMENT_RECORD WHERE FILE_ID = :fileId ORDER BY SEQUENCE_NUMBER";
-        return jdbcTemplate.query(sql, Map.of("fileId", fileId), RECORD_ROW_MAPPER);
+        List<SettlementRecord> records = new ArrayList<>();
+        forEachRecord(fileId, records::add);
+        return records;
+    }
+
+    @Override
+    public void forEachRecord(String fileId, Consumer<? super SettlementRecord> action) {
+        String sql = "SELECT * FROM FEP_SETTLEMENT_RECORD WHERE FILE_ID = ? ORDER BY SEQUENCE_NUMBER";
+        // Rows arrive fetchSize at a time and are handed on one by one instead of
+        // being collected. The setter runs after the template's statement settings,
+        // so it also lifts the template-wide max-rows limit for this cursor.
+        jdbcTemplate.getJdbcTemplate().query(sql, ps -> {
+            ps.setMaxRows(0);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, fileId);
+        }, (RowCallbackHandler) rs -> action.accept(RECORD_ROW_MAPPER.mapRow(rs, 0)));
     }
 
     @Override
@@ -342,13 +458,83 @@ public class JdbcSettlementRepository implements SettlementRepository {
         return jdbcTemplate.query(sql, Map.of("date", JdbcUtils.toSqlDate(date)), RECORD_ROW_MAPPER);
     }
 
-    // ========================= Discrepancy Operations =========================
+    // ========================= Settlement Rollup Operations =========================
 
     @Override
     @Transactional
-    public Discrepancy saveDiscrepancy(Discrepancy discrepancy) {
+    public void saveRollup(String fileId, LocalDate settlementDate, SettlementRollup rollup) {
+        jdbcTemplate.update("DELETE FROM FEP_SETTLEMENT_ROLLUP WHERE FILE_ID = :fileId", Map.of("fileId", fileId));
+
         String sql = """
-            INSERT INTO FEP_DISCREPANCY (
+            INSERT INTO FEP_SETTLEMENT_ROLLUP (
+                FILE_ID, SETTLEMENT_DATE, ACQUIRING_BANK_CODE, ISSUING_BANK_CODE, TRANSACTION_TYPE,
+                CHANNEL, STATUS, IS_REVERSAL, RECORD_COUNT, AMOUNT, FEE_AMOUNT
+            ) VALUES (
+                :fileId, :settlementDate, :acquiringBankCode, :issuingBankCode, :transactionType,
+                :channel, :status, :isReversal, :recordCount, :amount, :feeAmount
+            )
+            """;
+        List<SettlementRollup.Cell> cells = rollup.getCells();
+        batchUpdate(sql, cells, c -> new MapSqlParameterSource()
+            .addValue("fileId", fileId)
+            .addValue("settlementDate", JdbcUtils.toSqlDate(settlementDate))
+            .addValue("acquiringBankCode", c.acquiringBankCode())
+            .addValue("issuingBankCode", c.issuingBankCode())
+            .addValue("transactionType", c.transactionType())
+            .addValue("channel", c.channel())
+            .addValue("status", c.status().name())
+            .addValue("isReversal", c.reversal() ? 1 : 0)
+            .addValue("recordCount", c.count())
+            .addValue("amount", c.amount())
+            .addValue("feeAmount", c.feeAmount()));
+        log.debug("Saved settlement rollup: fileId={}, cells={}", fileId, cells.size());
+    }
+
+    @Override
+    public Map<String, SettlementRollup> findRollupsByDateRange(LocalDate startDate, LocalDate endDate) {
+        String sql = """
+            SELECT * FROM FEP_SETTLEMENT_ROLLUP
+            WHERE SETTLEMENT_DATE >= :startDate AND SETTLEMENT_DATE <= :endDate
+            """;
+        Map<String, SettlementRollup> rollups = new HashMap<>();
+        RowCallbackHandler handler = rs -> rollups
+            .computeIfAbsent(rs.getString("FILE_ID"), k -> new SettlementRollup())
+            .add(new SettlementRollup.Cell(
+                rs.getString("ACQUIRING_BANK_CODE"),
+                rs.getString("ISSUING_BANK_CODE"),
+                rs.getString("TRANSACTION_TYPE"),
+                rs.getString("CHANNEL"),
+                SettlementStatus.valueOf(rs.getString("STATUS")),
+                rs.getInt("IS_REVERSAL") == 1,
+                rs.getLong("RECORD_COUNT"),
+                JdbcUtils.getBigDecimal(rs, "AMOUNT"),
+                JdbcUtils.getBigDecimal(rs, "FEE_AMOUNT")));
+        jdbcTemplate.query(sql, Map.of(
+            "startDate", JdbcUtils.toSqlDate(startDate),
+            "endDate", JdbcUtils.toSqlDate(endDate)
+        ), handler);
+        return rollups;
+    }
+
+    // ========================= Discrepancy Operations =========================
+
+    // Inserts a new discrepancy or updates the workflow fields of an existing one
+    private static final String MERGE_DISCREPANCY_SQL = """
+            MERGE INTO FEP_DISCREPANCY d
+            USING (SELECT :discrepancyId AS DISCREPANCY_ID FROM DUAL) s
+            ON (d.DISCREPANCY_ID = s.DISCREPANCY_ID)
+            WHEN MATCHED THEN UPDATE SET
+                d.DISCREPANCY_TYPE = :type, d.SETTLEMENT_DATE = :settlementDate,
+                d.SETTLEMENT_FILE_ID = :settlementFileId, d.SETTLEMENT_RECORD_REF = :settlementRecordRef,
+                d.INTERNAL_TRANSACTION_REF = :internalTransactionRef, d.SETTLEMENT_AMOUNT = :settlementAmount,
+                d.INTERNAL_AMOUNT = :internalAmount, d.DIFFERENCE_AMOUNT = :differenceAmount,
+                d.CURRENCY_CODE = :currencyCode, d.CARD_NUMBER = :cardNumber, d.TRANSACTION_TYPE = :transactionType,
+                d.STATUS = :status, d.PRIORITY = :priority, d.DESCRIPTION = :description,
+                d.ROOT_CAUSE = :rootCause, d.RESOLUTION_NOTES = :resolutionNotes,
+                d.RESOLUTION_ACTION = :resolutionAction, d.ASSIGNED_TO = :assignedTo,
+                d.UPDATED_AT = :updatedAt, d.RESOLVED_AT = :resolvedAt, d.RESOLVED_BY = :resolvedBy,
+                d.INVESTIGATION_NOTES = :investigationNotes, d.RELATED_DISCREPANCIES = :relatedDiscrepancies
+            WHEN NOT MATCHED THEN INSERT (
                 DISCREPANCY_ID, DISCREPANCY_TYPE, SETTLEMENT_DATE, SETTLEMENT_FILE_ID,
                 SETTLEMENT_RECORD_REF, INTERNAL_TRANSACTION_REF, SETTLEMENT_AMOUNT, INTERNAL_AMOUNT,
                 DIFFERENCE_AMOUNT, CURRENCY_CODE, CARD_NUMBER, TRANSACTION_TYPE,
@@ -365,13 +551,32 @@ public class JdbcSettlementRepository implements SettlementRepository {
             )
             """;
 
-        MapSqlParameterSource params = createDiscrepancyParams(discrepancy);
-        jdbcTemplate.update(sql, params);
+    @Override
+    @Transactional
+    public Discrepancy saveDiscrepancy(Discrepancy discrepancy) {
+        if (discrepancy.getDiscrepancyId() == null) {
+            discrepancy.setDiscrepancyId("DISC-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        }
+        jdbcTemplate.update(MERGE_DISCREPANCY_SQL, createDiscrepancyParams(discrepancy));
 
         log.debug("Saved discrepancy: discrepancyId={}", discrepancy.getDiscrepancyId());
         return discrepancy;
     }
 
+    @Override
+    @Transactional
+    public List<Discrepancy> saveDiscrepancies(List<Discrepancy> discrepancies) {
+        for (Discrepancy discrepancy : discrepancies) {
+            if (discrepancy.getDiscrepancyId() == null) {
+                discrepancy.setDiscrepancyId("DISC-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            }
+        }
+        batchUpdate(MERGE_DISCREPANCY_SQL, discrepancies, this::createDiscrepancyParams);
+
+        log.debug("Saved {} discrepancies", discrepancies.size());
+        return discrepancies;
+    }
+
     @Override
     public Optional<Discrepancy> findDiscrepancyById(String discrepancyId) {
         String sql = "SELECT * FROM FEP_DISCREPANCY WHERE DISCREPANCY_ID = :discrepancyId";
@@ -415,11 +620,20 @@ public class JdbcSettlementRepository implements SettlementRepository {
 
     // ========================= Clearing Record Operations =========================
 
-    @Override
-    @Transactional
-    public ClearingRecord saveClearingRecord(ClearingRecord record) {
-        String sql = """
-            INSERT INTO FEP_CLEARING_RECORD (
+    // Inserts a new clearing record or updates the amounts and workflow fields of an existing one
+    private static final String MERGE_CLEARING_SQL = """
+            MERGE INTO FEP_CLEARING_RECORD c
+            USING (SELECT :clearingId AS CLEARING_ID FROM DUAL) s
+            ON (c.CLEARING_ID = s.CLEARING_ID)
+            WHEN MATCHED THEN UPDATE SET
+                c.SETTLEMENT_DATE = :settlementDate, c.BATCH_NUMBER = :batchNumber,
+                c.OUR_BANK_CODE = :ourBankCode, c.COUNTERPARTY_BANK_CODE = :counterpartyBankCode,
+                c.TRANSACTION_CATEGORY = :transactionCategory, c.DEBIT_COUNT = :debitCount,
+                c.DEBIT_AMOUNT = :debitAmount, c.CREDIT_COUNT = :creditCount, c.CREDIT_AMOUNT = :creditAmount,
+                c.NET_AMOUNT = :netAmount, c.FEE_AMOUNT = :feeAmount, c.CURRENCY_CODE = :currencyCode,
+                c.STATUS = :status, c.CONFIRMED_AT = :confirmedAt, c.SETTLED_AT = :settledAt,
+                c.CONFIRMED_BY = :confirmedBy, c.NOTES = :notes, c.SETTLEMENT_FILE_ID = :settlementFileId
+            WHEN NOT MATCHED THEN INSERT (
                 CLEARING_ID, SETTLEMENT_DATE, BATCH_NUMBER, OUR_BANK_CODE, COUNTERPARTY_BANK_CODE,
                 TRANSACTION_CATEGORY, DEBIT_COUNT, DEBIT_AMOUNT, CREDIT_COUNT, CREDIT_AMOUNT,
                 NET_AMOUNT, FEE_AMOUNT, CURRENCY_CODE, STATUS, CREATED_AT, CONFIRMED_AT, SETTLED_AT,
@@ -432,13 +646,24 @@ public class JdbcSettlementRepository implements SettlementRepository {
             )
             """;
 
-        MapSqlParameterSource params = createClearingParams(record);
-        jdbcTemplate.update(sql, params);
+    @Override
+    @Transactional
+    public ClearingRecord saveClearingRecord(ClearingRecord record) {
+        jdbcTemplate.update(MERGE_CLEARING_SQL, createClearingParams(record));
 
         log.debug("Saved clearing record: clearingId={}", record.getClearingId());
         return record;
     }
 
+    @Override
+    @Transactional
+    public List<ClearingRecord> saveClearingRecords(List<ClearingRecord> records) {
+        batchUpdate(MERGE_CLEARING_SQL, records, this::createClearingParams);
+
+        log.debug("Saved {} clearing records", records.size());
+        return records;
+    }
+
     @Override
     public Optional<ClearingRecord> findClearingRecordById(String clearingId) {
         String sql = "SELECT * FROM FEP_CLEARING_RECORD WHERE CLEARING_ID = :clearingId";
@@ -0,0 +1,230 @@
+package com.fep.settlement.batch;
+
+import com.fep.settlement.domain.FileProcessingStatus;
+import com.fep.settlement.domain.SettlementFile;
+import com.fep.settlement.domain.SettlementFileType;
+import com.fep.settlement.domain.SettlementRecord;
+import com.fep.settlement.domain.SettlementRollup;
+import com.fep.settlement.file.FiscSettlementFileParser;
+import com.fep.settlement.repository.InMemorySettlementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelFileIngester.
+ */
+class ParallelFileIngesterTest {
+
+    private static final String HEADER = "HSF123456001202601071234567890123401";
+
+    @TempDir
+    Path tempDir;
+
+    private FiscSettlementFileParser parser;
+    private InMemorySettlementRepository repository;
+    private ParallelFileIngester ingester;
+
+    @BeforeEach
+    void setUp() {
+        parser = new FiscSettlementFileParser(SettlementFileType.DAILY_SETTLEMENT);
+        repository = new InMemorySettlementRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ingester != null) {
+            ingester.shutdown();
+        }
+    }
+
+    private String detail(int index) {
+        return "D" + "20260107" + String.format("TXN%09d", index) + "123456" + "RRN123456789" + "0100"
+                + "1234567" + "7654321" + "4111111111111111" + String.format("%012d", index * 100L) + "TWD"
+                + "000000000000" + "ATM12345" + "MERCHANT1234567" + "AUTH01" + "00" + "N" + "            "
+                + "ATM   ";
+    }
+
+    private Path writeFile(String name, int count, long trailerCents) throws Exception {
+        StringBuilder content = new StringBuilder(HEADER).append('\n');
+        for (int i = 1; i <= count; i++) {
+            content.append(detail(i)).append('\n');
+        }
+        content.append("T").append(String.format("%08d", count)).append(String.format("%016d", trailerCents))
+                .append("0000000000000000").append("0000000000000000").append("00000000").append("00000000")
+                .append('\n');
+        Path file = tempDir.resolve(name);
+        Files.write(file, content.toString().getBytes(Charset.forName("Big5")));
+        return file;
+    }
+
+    private Path writeFile(String name, int count) throws Exception {
+        return writeFile(name, count, 100L * count * (count + 1) / 2);
+    }
+
+    private ParallelFileIngester ingester(int commitInterval, IngestCheckpointStore store) {
+        ingester = new ParallelFileIngester(repository, ParallelFileIngester.IngestConfig.builder()
+                .parallelism(4)
+                .commitInterval(commitInterval)
+                .checkpointStore(store)
+                .build());
+        return ingester;
+    }
+
+    private List<SettlementRecord> storedRecords(String fileId) {
+        List<SettlementRecord> records = new ArrayList<>(repository.findFileById(fileId).orElseThrow().getRecords());
+        records.sort(Comparator.comparingLong(SettlementRecord::getSequenceNumber));
+        return records;
+    }
+
+    private SettlementRollup storedRollup(String fileId) {
+        LocalDate date = repository.findFileById(fileId).orElseThrow().getSettlementDate();
+        SettlementRollup rollup = repository.findRollupsByDateRange(date, date).get(fileId);
+        assertNotNull(rollup);
+        return rollup;
+    }
+
+    @Nested
+    @DisplayName("Chunked Ingest Tests")
+    class ChunkedIngestTests {
+
+        @Test
+        @DisplayName("Should ingest the same records as a sequential parse")
+        void shouldMatchSequentialParse() throws Exception {
+            Path file = writeFile("daily.txt", 1_050);
+            SettlementFile sequential = parser.parse(file);
+
+            ParallelFileIngester.IngestResult result = ingester(100, new InMemoryIngestCheckpointStore())
+                    .ingest(file, parser);
+
+            assertTrue(result.isSuccess());
+            assertEquals(11, result.getChunkCount());
+            assertEquals(1_050, result.getRecordCount());
+            assertEquals(sequential.getTotalAmount(), result.getTotalAmount());
+            assertEquals(sequential.getChecksum(), result.getChecksum());
+
+            List<SettlementRecord> stored = storedRecords(result.getFileId());
+            assertEquals(1_050, stored.size());
+            for (int i = 0; i < stored.size(); i++) {
+                assertEquals(i + 1, stored.get(i).getSequenceNumber());
+                assertEquals(sequential.getRecords().get(i).getTransactionRefNo(), stored.get(i).getTransactionRefNo());
+            }
+            assertEquals(FileProcessingStatus.RECONCILING,
+                    repository.findFileById(result.getFileId()).orElseThrow().getProcessingStatus());
+
+            SettlementRollup rollup = storedRollup(result.getFileId());
+            assertEquals(1_050, rollup.getRecordCount());
+            assertEquals(sequential.getTotalAmount(), rollup.getTotalAmount());
+        }
+
+        @Test
+        @DisplayName("Should flag trailer mismatch")
+        void shouldFlagTrailerMismatch() throws Exception {
+            Path file = writeFile("mismatch.txt", 30, 1L);
+
+            ParallelFileIngester.IngestResult result = ingester(10, new InMemoryIngestCheckpointStore())
+                    .ingest(file, parser);
+
+            assertFalse(result.isIntegrityValid());
+            assertEquals(FileProcessingStatus.VALIDATION_FAILED, result.getStatus());
+        }
+
+        @Test
+        @DisplayName("Should ingest variable-length files sequentially")
+        void shouldFallBackForVariableLength() throws Exception {
+            Path file = writeFile("variable.txt", 5);
+            List<String> lines = new ArrayList<>(Files.readAllLines(file, Charset.forName("Big5")));
+            lines.set(3, lines.get(3) + "  ");
+            Files.write(file, lines, Charset.forName("Big5"));
+
+            ParallelFileIngester.IngestResult result = ingester(2, new InMemoryIngestCheckpointStore())
+                    .ingest(file, parser);
+
+            assertTrue(result.isSuccess());
+            assertEquals(5, storedRecords(result.getFileId()).size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Resume Tests")
+    class ResumeTests {
+
+        @Test
+        @DisplayName("Should resume from committed chunks after a failure")
+        void shouldResumeAfterFailure() throws Exception {
+            Path file = writeFile("resume.txt", 500);
+            List<Long> savedChunks = new ArrayList<>();
+            AtomicBoolean failChunk = new AtomicBoolean(true);
+            repository = new InMemorySettlementRepository() {
+                @Override
+                public void saveRecordChunk(String fileId, long firstSequence, long lastSequence,
+                                            List<SettlementRecord> records) {
+                    if (firstSequence == 201 && failChunk.get()) {
+                        throw new IllegalStateException("connection reset");
+                    }
+                    synchronized (savedChunks) {
+                        savedChunks.add(firstSequence);
+                    }
+                    super.saveRecordChunk(fileId, firstSequence, lastSequence, records);
+                }
+            };
+            IngestCheckpointStore store = new FileIngestCheckpointStore(tempDir.resolve("checkpoints"));
+            ParallelFileIngester ingester = ingester(100, store);
+
+            ParallelFileIngester.IngestResult failed = ingester.ingest(file, parser);
+
+            assertEquals(FileProcessingStatus.FAILED, failed.getStatus());
+            assertEquals("connection reset", failed.getErrorMessage());
+            assertEquals(4, savedChunks.size());
+
+            failChunk.set(false);
+            savedChunks.clear();
+            ParallelFileIngester.IngestResult resumed = ingester.ingest(file, parser);
+
+            assertTrue(resumed.isSuccess());
+            assertEquals(failed.getFileId(), resumed.getFileId());
+            assertEquals(4, resumed.getResumedChunks());
+            assertEquals(List.of(201L), savedChunks);
+            assertEquals(500, resumed.getRecordCount());
+            assertEquals(new BigDecimal("125250.00"), resumed.getTotalAmount());
+            assertEquals(500, storedRecords(resumed.getFileId()).size());
+            assertEquals(500, storedRollup(resumed.getFileId()).getRecordCount());
+            assertTrue(store.find("resume.txt|" + Files.size(file) + "|" + HEADER).isEmpty());
+        }
+
+        @Test
+        @DisplayName("File checkpoint store should ignore a torn final entry")
+        void shouldIgnoreTornEntry() throws Exception {
+            Path dir = tempDir.resolve("torn");
+            FileIngestCheckpointStore store = new FileIngestCheckpointStore(dir);
+            store.begin("key", "SF-1", 3);
+            store.markCommitted("key", 0, 10, 500);
+            try (var files = Files.list(dir)) {
+                Path journal = files.findFirst().orElseThrow();
+                Files.writeString(journal, "CHUNK|1|10|5", java.nio.file.StandardOpenOption.APPEND);
+            }
+
+            IngestCheckpoint checkpoint = store.find("key").orElseThrow();
+
+            assertEquals("SF-1", checkpoint.fileId());
+            assertEquals(3, checkpoint.chunkCount());
+            assertTrue(checkpoint.isCommitted(0));
+            assertFalse(checkpoint.isCommitted(1));
+        }
+    }
+}
@@ -102,6 +102,55 @@ class ClearingServiceTest {
             assertEquals(2, clearingRecords.size());
         }
 
+        @Test
+        @DisplayName("Should calculate clearing from the stored rollup")
+        void shouldCalculateClearingFromStoredRollup() {
+            LocalDate today = LocalDate.now();
+            SettlementFile file = createTestFile(today);
+            file.getRecords().get(0).setStatus(SettlementStatus.PENDING);
+            repository.saveFile(file);
+
+            List<SettlementRecord> reconciled = new ArrayList<>();
+            reconciled.add(createRecord("TXN-001", OUR_BANK_CODE, "0050000",
+                    new BigDecimal("1000.00"), "0100"));
+            reconciled.add(createRecord("TXN-002", "0050000", OUR_BANK_CODE,
+                    new BigDecimal("300.00"), "0100"));
+            repository.saveRollup(file.getFileId(), today, SettlementRollup.of(reconciled));
+
+            List<ClearingRecord> clearingRecords = clearingService.calculateClearing(today);
+
+            assertEquals(1, clearingRecords.size());
+            ClearingRecord cr = clearingRecords.get(0);
+            assertEquals(1, cr.getDebitCount());
+            assertEquals(1, cr.getCreditCount());
+            assertEquals(new BigDecimal("-700.00"), cr.getNetAmount());
+        }
+
+        @Test
+        @DisplayName("Should stream stored records when files are loaded without them")
+        void shouldStreamRecordsOfFilesLoadedWithoutRecords() {
+            LocalDate today = LocalDate.now();
+            // Like the JDBC repository, files found by date carry no records
+            SettlementRepository headersOnly = new InMemorySettlementRepository() {
+                @Override
+                public List<SettlementFile> findFilesByDate(LocalDate date) {
+                    return super.findFilesByDate(date).stream()
+                            .map(f -> SettlementFile.builder()
+                                    .fileId(f.getFileId())
+                                    .settlementDate(f.getSettlementDate())
+                                    .build())
+                            .toList();
+                }
+            };
+            headersOnly.saveFile(createTestFile(today));
+
+            List<ClearingRecord> clearingRecords =
+                    new ClearingService(headersOnly, OUR_BANK_CODE).calculateClearing(today);
+
+            assertEquals(1, clearingRecords.size());
+            assertEquals(1, clearingRecords.get(0).getDebitCount());
+        }
+
         @Test
         @DisplayName("Should return empty list when no files found")
         void shouldReturnEmptyListWhenNoFilesFound() {
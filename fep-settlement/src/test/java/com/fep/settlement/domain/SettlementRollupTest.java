@@ -0,0 +1,86 @@
+package com.fep.settlement.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SettlementRollup.
+ */
+@DisplayName("SettlementRollup Tests")
+class SettlementRollupTest {
+
+    @Test
+    @DisplayName("Should fold records sharing dimensions into one cell")
+    void shouldFoldRecordsIntoCells() {
+        SettlementRollup rollup = SettlementRollup.of(List.of(
+            record("0100", "ATM", SettlementStatus.MATCHED, "100.00", "5.00"),
+            record("0100", "ATM", SettlementStatus.MATCHED, "200.00", null),
+            record("0100", "ATM", SettlementStatus.NOT_FOUND, "50.00", null),
+            record("0200", "POS", SettlementStatus.MATCHED, null, null)
+        ));
+
+        assertThat(rollup.getCells()).hasSize(3);
+        assertThat(rollup.getRecordCount()).isEqualTo(4);
+        assertThat(rollup.getTotalAmount()).isEqualByComparingTo("350.00");
+
+        SettlementRollup.Cell matchedAtm = rollup.getCells().get(0);
+        assertThat(matchedAtm.count()).isEqualTo(2);
+        assertThat(matchedAtm.amount()).isEqualByComparingTo("300.00");
+        assertThat(matchedAtm.feeAmount()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    @DisplayName("Should merge rollups cell by cell")
+    void shouldMergeRollups() {
+        SettlementRollup first = SettlementRollup.of(List.of(
+            record("0100", "ATM", SettlementStatus.MATCHED, "100.00", null)));
+        SettlementRollup second = SettlementRollup.of(List.of(
+            record("0100", "ATM", SettlementStatus.MATCHED, "100.00", null),
+            record("0100", "ATM", SettlementStatus.PENDING, "100.00", null)));
+
+        SettlementRollup combined = new SettlementRollup().merge(first).merge(second);
+
+        assertThat(combined.getCells()).hasSize(2);
+        assertThat(combined.getCells().get(0).count()).isEqualTo(2);
+        assertThat(first.getRecordCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the same rollup from its cells")
+    void shouldRebuildFromCells() {
+        SettlementRollup rollup = SettlementRollup.of(List.of(
+            record("0100", "ATM", SettlementStatus.MATCHED, "100.00", "1.00"),
+            record("0300", null, SettlementStatus.AMOUNT_MISMATCH, "20.00", null)));
+
+        assertThat(SettlementRollup.ofCells(rollup.getCells()).getCells())
+            .containsExactlyElementsOf(rollup.getCells());
+    }
+
+    @Test
+    @DisplayName("Empty rollup should have no cells")
+    void emptyRollupShouldHaveNoCells() {
+        SettlementRollup rollup = SettlementRollup.of(null);
+
+        assertThat(rollup.isEmpty()).isTrue();
+        assertThat(rollup.getRecordCount()).isZero();
+        assertThat(rollup.getTotalAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    private SettlementRecord record(String type, String channel, SettlementStatus status,
+                                    String amount, String fee) {
+        return SettlementRecord.builder()
+            .acquiringBankCode("0050000")
+            .issuingBankCode("0040000")
+            .transactionType(type)
+            .channel(channel)
+            .status(status)
+            .amount(amount != null ? new BigDecimal(amount) : null)
+            .feeAmount(fee != null ? new BigDecimal(fee) : null)
+            .build();
+    }
+}
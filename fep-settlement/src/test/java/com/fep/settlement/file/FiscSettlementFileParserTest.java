@@ -6,11 +6,19 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import org.junit.jupiter.api.io.TempDir;
+
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -259,4 +267,205 @@ class FiscSettlementFileParserTest {
             assertEquals("Big5", parser.getEncoding());
         }
     }
+
+    @Nested
+    @DisplayName("Streaming Parse")
+    class StreamingParseTests {
+
+        @TempDir
+        Path tempDir;
+
+        private static final String HEADER = "HSF123456001202601071234567890123401";
+
+        private String detail(String ref, String date, long cents) {
+            return "D" + date + ref + "123456" + "RRN123456789" + "0100" + "1234567" + "7654321"
+                    + "4111111111111111" + String.format("%012d", cents) + "TWD" + "000000000000"
+                    + "ATM12345" + "MERCHANT1234567" + "AUTH01" + "00" + "N" + "            " + "ATM   ";
+        }
+
+        private String trailer(int count, long totalCents) {
+            return "T" + String.format("%08d", count) + String.format("%016d", totalCents)
+                    + "0000000000000000" + "0000000000000000" + "00000000" + "00000000";
+        }
+
+        private List<String> sampleLines(int count) {
+            List<String> lines = new ArrayList<>();
+            lines.add(HEADER);
+            for (int i = 1; i <= count; i++) {
+                lines.add(detail(String.format("TXN%09d", i), "20260107", i * 100L));
+            }
+            lines.add(trailer(count, 100L * count * (count + 1) / 2));
+            return lines;
+        }
+
+        private Path write(String name, String content) throws Exception {
+            Path file = tempDir.resolve(name);
+            Files.write(file, content.getBytes(Charset.forName("Big5")));
+            return file;
+        }
+
+        @Test
+        @DisplayName("Should stream records to consumer in file order")
+        void shouldStreamRecordsInOrder() throws Exception {
+            Path file = write("stream.txt", String.join("\n", sampleLines(500)) + "\n");
+            List<SettlementRecord> records = new ArrayList<>();
+
+            SettlementFileSummary summary = parser.parse(file, records::add);
+
+            assertEquals(500, summary.getRecordCount());
+            assertEquals(500, records.size());
+            assertEquals(1, records.get(0).getSequenceNumber());
+            assertEquals("TXN000000500", records.get(499).getTransactionRefNo());
+            assertEquals(new BigDecimal("125250.00"), summary.getTotalAmount());
+            assertTrue(summary.isIntegrityValid());
+            assertEquals(LocalDate.of(2026, 1, 7), summary.getSettlementDate());
+            assertEquals(Files.size(file), summary.getFileSizeBytes());
+        }
+
+        @Test
+        @DisplayName("Should compute SHA-256 over record lines in the same pass")
+        void shouldComputeChecksum() throws Exception {
+            List<String> lines = sampleLines(3);
+            Path file = write("checksum.txt", String.join("\r\n", lines));
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String line : lines) {
+                digest.update(line.getBytes(Charset.forName("Big5")));
+            }
+
+            SettlementFile parsed = parser.parse(file);
+
+            assertEquals(HexFormat.of().formatHex(digest.digest()), parsed.getChecksum());
+            assertEquals(3, parsed.getTotalRecordCount());
+            assertEquals("ATM", parsed.getRecords().get(2).getChannel());
+        }
+
+        @Test
+        @DisplayName("Should give same result from path and input stream")
+        void shouldMatchInputStreamParse() throws Exception {
+            String content = String.join("\n", sampleLines(20));
+            Path file = write("same.txt", content);
+
+            SettlementFile fromPath = parser.parse(file);
+            SettlementFile fromStream = parser.parse(
+                    new ByteArrayInputStream(content.getBytes(Charset.forName("Big5"))), "same.txt");
+
+            assertEquals(fromStream.getChecksum(), fromPath.getChecksum());
+            assertEquals(fromStream.getTotalAmount(), fromPath.getTotalAmount());
+            assertEquals(fromStream.getProcessingStatus(), fromPath.getProcessingStatus());
+            assertEquals(FileProcessingStatus.RECONCILING, fromPath.getProcessingStatus());
+        }
+
+        @Test
+        @DisplayName("Should flag trailer count mismatch")
+        void shouldFlagTrailerMismatch() throws Exception {
+            List<String> lines = sampleLines(2);
+            lines.set(lines.size() - 1, trailer(3, 300));
+            Path file = write("mismatch.txt", String.join("\n", lines));
+
+            SettlementFile parsed = parser.parse(file);
+
+            assertEquals(FileProcessingStatus.VALIDATION_FAILED, parsed.getProcessingStatus());
+        }
+
+        @Test
+        @DisplayName("Should reject detail before header with line number")
+        void shouldRejectDetailBeforeHeader() throws Exception {
+            Path file = write("order.txt", detail("TXN000000001", "20260107", 100) + "\n" + HEADER);
+
+            SettlementFileParseException e = assertThrows(SettlementFileParseException.class,
+                    () -> parser.parse(file, record -> { }));
+            assertEquals(1, e.getLineNumber());
+        }
+
+        @Test
+        @DisplayName("Should tolerate malformed date and amount")
+        void shouldTolerateMalformedFields() {
+            SettlementRecord record = parser.parseRecord(
+                    detail("TXN000000001", "20261345", 0).replace("000000000000TWD", "0000000A0000TWD"), 7);
+
+            assertNull(record.getTransactionDateTime());
+            assertEquals(BigDecimal.ZERO, record.getAmount());
+            assertEquals(BigDecimal.valueOf(0, 2), record.getFeeAmount());
+        }
+
+        @Test
+        @DisplayName("Should validate structure in one pass")
+        void shouldValidateStructure() throws Exception {
+            Path good = write("good.txt", String.join("\n", sampleLines(2)) + "\n");
+            Path bad = write("bad.txt", detail("TXN000000001", "20260107", 100) + "\n");
+
+            FileValidationResult goodResult = parser.validateFormat(good);
+            FileValidationResult badResult = parser.validateFormat(bad);
+
+            assertTrue(goodResult.isValid());
+            assertEquals(4, goodResult.getLineCount());
+            assertFalse(goodResult.hasWarnings());
+            assertFalse(badResult.isValid());
+            assertEquals(2, badResult.getErrors().size());
+            assertTrue(badResult.hasWarnings());
+        }
+
+        @Test
+        @DisplayName("Should describe fixed-length layout from header, first detail and trailer")
+        void shouldDescribeLayout() throws Exception {
+            List<String> lines = sampleLines(10);
+            Path file = write("layout.txt", String.join("\r\n", lines) + "\r\n");
+
+            FixedRecordLayout layout = parser.describeLayout(file);
+
+            assertNotNull(layout);
+            assertEquals(10, layout.recordCount());
+            assertEquals(lines.get(1).length(), layout.lineLength());
+            assertEquals(lines.get(1).length() + 2, layout.recordLength());
+            assertEquals(HEADER.length() + 2, layout.detailOffset());
+            assertEquals(10, layout.trailer().getRecordCount());
+            assertEquals(LocalDate.of(2026, 1, 7), layout.header().getCreationDate());
+        }
+
+        @Test
+        @DisplayName("Should return null layout for variable-length details")
+        void shouldRejectVariableLengthLayout() throws Exception {
+            List<String> lines = sampleLines(3);
+            lines.set(2, lines.get(2) + "EXTRA");
+            Path file = write("variable.txt", String.join("\n", lines) + "\n");
+
+            assertNull(parser.describeLayout(file));
+        }
+
+        @Test
+        @DisplayName("Should return null layout when variable-length details divide evenly")
+        void shouldRejectVariableLengthLayoutWithEvenTotal() throws Exception {
+            List<String> lines = sampleLines(4);
+            String shortened = lines.get(2).substring(0, lines.get(2).length() - 5);
+            lines.set(2, shortened);
+            lines.set(3, lines.get(3) + "EXTRA");
+            Path file = write("variable-even.txt", String.join("\n", lines) + "\n");
+
+            assertNull(parser.describeLayout(file));
+        }
+
+        @Test
+        @DisplayName("Should parse record ranges with sequence numbers from their index")
+        void shouldParseRecordRange() throws Exception {
+            Path file = write("range.txt", String.join("\n", sampleLines(100)) + "\n");
+            FixedRecordLayout layout = parser.describeLayout(file);
+
+            List<SettlementRecord> records = parser.parseRecords(file, layout, 40, 20);
+
+            assertEquals(20, records.size());
+            assertEquals(41, records.get(0).getSequenceNumber());
+            assertEquals("TXN000000041", records.get(0).getTransactionRefNo());
+            assertEquals(60, records.get(19).getSequenceNumber());
+            assertEquals(new BigDecimal("60.00"), records.get(19).getAmount());
+        }
+
+        @Test
+        @DisplayName("Checksum should match the single-pass parse")
+        void checksumShouldMatchParse() throws Exception {
+            Path file = write("sum.txt", String.join("\r\n", sampleLines(50)) + "\r\n");
+
+            assertEquals(parser.parse(file, r -> { }).getChecksum(), parser.calculateChecksum(file));
+        }
+    }
 }
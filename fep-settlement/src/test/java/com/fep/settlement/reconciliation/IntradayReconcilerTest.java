@@ -0,0 +1,295 @@
+package com.fep.settlement.reconciliation;
+
+import com.fep.settlement.domain.*;
+import com.fep.settlement.repository.InMemorySettlementRepository;
+import com.fep.settlement.repository.SettlementRepository;
+import com.fep.transaction.domain.TransactionRequest;
+import com.fep.transaction.domain.TransactionResponse;
+import com.fep.transaction.enums.TransactionType;
+import com.fep.transaction.logging.DefaultTransactionLogger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IntradayReconciler Tests")
+class IntradayReconcilerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 7);
+
+    private MutableClock clock;
+    private SettlementRepository repository;
+    private IntradayReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(DATE.atTime(9, 0).toInstant(ZoneOffset.UTC));
+        repository = new InMemorySettlementRepository();
+        reconciler = new IntradayReconciler(repository, new DiscrepancyService(repository),
+                ReconciliationConfig.builder()
+                        .settlementGraceWindow(Duration.ofMinutes(30))
+                        .internalGraceWindow(Duration.ofHours(2))
+                        .build(),
+                clock);
+    }
+
+    private static SettlementRecord record(int i, String amount) {
+        return SettlementRecord.builder()
+                .sequenceNumber(i)
+                .transactionRefNo(String.format("TXN%09d", i))
+                .rrn(String.format("RRN%09d", i))
+                .stan(String.format("%06d", i))
+                .settlementDate(DATE)
+                .transactionDateTime(DATE.atTime(8, 0))
+                .amount(new BigDecimal(amount))
+                .status(SettlementStatus.PENDING)
+                .build();
+    }
+
+    private static ReconciliationService.InternalTransaction internal(int i, String amount) {
+        return ReconciliationService.InternalTransaction.builder()
+                .transactionId("INT-" + i)
+                .rrn(String.format("RRN%09d", i))
+                .stan(String.format("%06d", i))
+                .amount(new BigDecimal(amount))
+                .transactionTime(DATE.atTime(8, 0))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Matching")
+    class MatchingTests {
+
+        @Test
+        @DisplayName("Should match settlement records against held internal transactions")
+        void shouldMatchOnArrival() {
+            reconciler.onInternalTransaction(internal(1, "100.00"));
+            SettlementRecord record = record(1, "100.00");
+
+            reconciler.onSettlementRecords("SF-1", List.of(record));
+
+            assertEquals(SettlementStatus.MATCHED, record.getStatus());
+            assertEquals("INT-1", record.getMatchedTransactionId());
+            assertEquals(1L, reconciler.getStatistics().get("matched"));
+            assertEquals(0, reconciler.getStatistics().get("pendingInternal"));
+            assertTrue(repository.findOpenDiscrepancies().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should raise amount mismatch as soon as the pair meets")
+        void shouldRaiseAmountMismatch() {
+            SettlementRecord record = record(2, "200.00");
+            reconciler.onSettlementRecords("SF-1", List.of(record));
+
+            reconciler.onInternalTransaction(internal(2, "150.00"));
+
+            assertEquals(SettlementStatus.AMOUNT_MISMATCH, record.getStatus());
+            List<Discrepancy> open = repository.findOpenDiscrepancies();
+            assertEquals(1, open.size());
+            assertEquals(DiscrepancyType.AMOUNT_MISMATCH, open.get(0).getType());
+            assertEquals("SF-1", open.get(0).getSettlementFileId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Aging")
+    class AgingTests {
+
+        @Test
+        @DisplayName("Should age out items after their grace windows")
+        void shouldAgeOutAfterGraceWindow() {
+            reconciler.onSettlementRecords("SF-1", List.of(record(3, "300.00")));
+            reconciler.onInternalTransaction(internal(4, "400.00"));
+
+            clock.advance(Duration.ofMinutes(29));
+            assertEquals(0, reconciler.expireAged());
+
+            clock.advance(Duration.ofMinutes(1));
+            assertEquals(1, reconciler.expireAged());
+            assertEquals(DiscrepancyType.MISSING_INTERNAL, repository.findOpenDiscrepancies().get(0).getType());
+
+            clock.advance(Duration.ofHours(2));
+            assertEquals(1, reconciler.expireAged());
+            assertEquals(1, repository.findDiscrepanciesByType(DiscrepancyType.MISSING_SETTLEMENT).size());
+            assertEquals(0, reconciler.getStatistics().get("pendingSettlement"));
+        }
+
+        @Test
+        @DisplayName("Should close the discrepancy when an aged-out item is matched late")
+        void shouldCloseDiscrepancyOnLateMatch() {
+            SettlementRecord record = record(5, "500.00");
+            reconciler.onSettlementRecords("SF-1", List.of(record));
+            clock.advance(Duration.ofHours(1));
+            reconciler.expireAged();
+
+            reconciler.onInternalTransaction(internal(5, "500.00"));
+
+            assertEquals(SettlementStatus.MATCHED, record.getStatus());
+            assertTrue(repository.findOpenDiscrepancies().isEmpty());
+            assertEquals(1, repository.findDiscrepanciesByStatus(DiscrepancyStatus.CLOSED).size());
+            assertEquals(1L, reconciler.getStatistics().get("lateMatches"));
+        }
+
+        @Test
+        @DisplayName("Should drop reversed internal transactions")
+        void shouldDropReversedTransactions() {
+            reconciler.onInternalTransaction(internal(6, "600.00"));
+
+            assertTrue(reconciler.onInternalReversal("INT-6"));
+            clock.advance(Duration.ofHours(3));
+
+            assertEquals(0, reconciler.expireAged());
+            assertFalse(reconciler.onInternalReversal("INT-6"));
+        }
+    }
+
+    @Nested
+    @DisplayName("End of Day")
+    class EndOfDayTests {
+
+        @Test
+        @DisplayName("End-of-day run should only process the residual")
+        void shouldReconcileResidualOnly() {
+            reconciler.onInternalTransaction(internal(1, "100.00"));
+            reconciler.onInternalTransaction(internal(2, "200.00"));
+            reconciler.onSettlementRecords("SF-INTRADAY", List.of(record(1, "100.00")));
+
+            repository.saveFile(eodFile(record(1, "100.00"), record(2, "200.00"), record(3, "300.00")));
+            List<SettlementRecord> fullFile = List.of(record(1, "100.00"), record(2, "200.00"), record(3, "300.00"));
+            ReconciliationService eod = new ReconciliationService(repository, reconciler);
+            ReconciliationResult result = eod.reconcile("SF-EOD", DATE,
+                    reconciler.residual("SF-EOD", fullFile::forEach),
+                    ReconciliationConfig.builder().partitionCount(2).build());
+
+            assertEquals(2, result.getTotalSettlementRecords());
+            assertEquals(1, result.getTotalInternalTransactions());
+            assertEquals(1, result.getMatchedCount());
+            assertEquals(1, result.getDiscrepancyCount());
+
+            // The record settled intraday is stored as matched on the EOD file too
+            List<SettlementRecord> stored = repository.findRecordsByFileId("SF-EOD");
+            assertEquals(SettlementStatus.MATCHED, stored.get(0).getStatus());
+            assertEquals("INT-1", stored.get(0).getMatchedTransactionId());
+            assertEquals(SettlementStatus.MATCHED, stored.get(1).getStatus());
+            assertEquals(SettlementStatus.NOT_FOUND, stored.get(2).getStatus());
+            SettlementRollup rollup = repository.findRollupsByDateRange(DATE, DATE).get("SF-EOD");
+            assertEquals(3, rollup.getRecordCount());
+            assertEquals(2, rollup.getCells().stream()
+                    .filter(c -> c.status() == SettlementStatus.MATCHED).mapToLong(SettlementRollup.Cell::count).sum());
+
+            reconciler.closeDay(DATE);
+            assertEquals(0, reconciler.getStatistics().get("pendingInternal"));
+            assertTrue(reconciler.getTransactions(DATE, 24).isEmpty());
+        }
+
+        @Test
+        @DisplayName("End-of-day run should settle internal transactions aged out intraday")
+        void shouldSettleAgedInternalAtEndOfDay() {
+            reconciler.onInternalTransaction(internal(4, "400.00"));
+            clock.advance(Duration.ofHours(3));
+            assertEquals(1, reconciler.expireAged());
+            assertEquals(1, repository.findDiscrepanciesByType(DiscrepancyType.MISSING_SETTLEMENT).size());
+
+            assertEquals(1, reconciler.getTransactions(DATE, 24).size());
+            List<SettlementRecord> fullFile = List.of(record(4, "400.00"));
+            ReconciliationService eod = new ReconciliationService(repository, reconciler);
+            ReconciliationResult result = eod.reconcile("SF-EOD", DATE,
+                    reconciler.residual("SF-EOD", fullFile::forEach),
+                    ReconciliationConfig.builder().partitionCount(2).build());
+
+            assertEquals(1, result.getMatchedCount());
+            assertEquals(0, result.getDiscrepancyCount());
+            assertTrue(repository.findDiscrepanciesByType(DiscrepancyType.MISSING_INTERNAL).isEmpty());
+            assertEquals(DiscrepancyStatus.CLOSED,
+                    repository.findDiscrepanciesByType(DiscrepancyType.MISSING_SETTLEMENT).get(0).getStatus());
+            assertEquals(0, reconciler.getStatistics().get("pendingInternal"));
+        }
+    }
+
+    private static SettlementFile eodFile(SettlementRecord... records) {
+        return SettlementFile.builder()
+                .fileId("SF-EOD")
+                .fileName("eod.txt")
+                .settlementDate(DATE)
+                .fileType(SettlementFileType.DAILY_SETTLEMENT)
+                .records(new ArrayList<>(List.of(records)))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("TransactionLogger Hook")
+    class LoggerHookTests {
+
+        private TransactionRequest request(String id, TransactionType type, String original) {
+            return TransactionRequest.builder()
+                    .transactionId(id)
+                    .transactionType(type)
+                    .rrn("RRN000000007")
+                    .stan("000007")
+                    .amount(new BigDecimal("700.00"))
+                    .originalTransactionId(original)
+                    .requestTime(DATE.atTime(8, 0))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should feed approved monetary transactions and withdraw reversals")
+        void shouldFeedApprovedTransactions() {
+            IntradayReconciliationLogger logger =
+                    new IntradayReconciliationLogger(new DefaultTransactionLogger(), reconciler);
+
+            logger.logResponse(request("TXN-A", TransactionType.WITHDRAWAL, null),
+                    TransactionResponse.builder().transactionId("TXN-A").responseCode("00").approved(true).build());
+            logger.logResponse(request("TXN-B", TransactionType.WITHDRAWAL, null),
+                    TransactionResponse.builder().transactionId("TXN-B").responseCode("51").approved(false).build());
+            logger.logResponse(request("TXN-C", TransactionType.BALANCE_INQUIRY, null),
+                    TransactionResponse.builder().transactionId("TXN-C").responseCode("00").approved(true).build());
+
+            assertEquals(1, reconciler.getStatistics().get("pendingInternal"));
+
+            logger.logResponse(request("TXN-R", TransactionType.REVERSAL, "TXN-A"),
+                    TransactionResponse.builder().transactionId("TXN-R").responseCode("00").approved(true).build());
+
+            assertEquals(0, reconciler.getStatistics().get("pendingInternal"));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
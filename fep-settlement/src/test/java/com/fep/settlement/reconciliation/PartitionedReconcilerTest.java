@@ -0,0 +1,194 @@
+package com.fep.settlement.reconciliation;
+
+import com.fep.settlement.domain.SettlementRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PartitionedReconciler Tests")
+class PartitionedReconcilerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 7);
+
+    @TempDir
+    Path tempDir;
+
+    private static SettlementRecord record(long seq, String rrn, String stan, String terminal, String amount) {
+        return SettlementRecord.builder()
+                .sequenceNumber(seq)
+                .transactionRefNo(String.format("TXN%09d", seq))
+                .settlementDate(DATE)
+                .transactionDateTime(DATE.atTime(10, 0))
+                .rrn(rrn)
+                .stan(stan)
+                .terminalId(terminal)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private static ReconciliationService.InternalTransaction internal(String id, String rrn, String stan,
+                                                                      String terminal, String amount) {
+        return ReconciliationService.InternalTransaction.builder()
+                .transactionId(id)
+                .rrn(rrn)
+                .stan(stan)
+                .terminalId(terminal)
+                .amount(new BigDecimal(amount))
+                .transactionTime(DATE.atTime(10, 0))
+                .build();
+    }
+
+    /**
+     * Collects sink calls; matching threads call it concurrently.
+     */
+    private static class CollectingSink implements PartitionedReconciler.Sink {
+        final Map<String, String> matches = new ConcurrentHashMap<>();
+        final Map<String, String> matchKeys = new ConcurrentHashMap<>();
+        final List<String> mismatches = Collections.synchronizedList(new ArrayList<>());
+        final List<String> unmatchedSettlement = Collections.synchronizedList(new ArrayList<>());
+        final List<String> unmatchedInternal = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void matched(ReconciliationRow settlement, ReconciliationRow internal, String matchKey) {
+            matches.put(settlement.reference(), internal.reference());
+            matchKeys.put(settlement.reference(), matchKey);
+        }
+
+        @Override
+        public void amountMismatch(ReconciliationRow settlement, ReconciliationRow internal, String matchKey,
+                                   BigDecimal difference) {
+            mismatches.add(settlement.reference() + "=" + difference);
+        }
+
+        @Override
+        public void unmatchedSettlement(ReconciliationRow settlement) {
+            unmatchedSettlement.add(settlement.reference());
+        }
+
+        @Override
+        public void unmatchedInternal(ReconciliationRow internal) {
+            unmatchedInternal.add(internal.reference());
+        }
+    }
+
+    private PartitionedReconciler reconciler(int partitions, long memoryBudget) {
+        return new PartitionedReconciler(ReconciliationConfig.builder()
+                .partitionCount(partitions)
+                .memoryBudgetBytes(memoryBudget)
+                .spillDirectory(tempDir)
+                .parallelism(4)
+                .build());
+    }
+
+    @Nested
+    @DisplayName("Matching")
+    class MatchingTests {
+
+        @Test
+        @DisplayName("Should match by RRN and report unmatched rows on both sides")
+        void shouldMatchAndReportUnmatched() {
+            List<SettlementRecord> records = List.of(
+                    record(1, "RRN000000001", "000001", "ATM1", "100.00"),
+                    record(2, "RRN000000002", "000002", "ATM1", "200.00"),
+                    record(3, "RRN000000003", "000003", "ATM1", "300.00"));
+            List<ReconciliationService.InternalTransaction> internals = List.of(
+                    internal("INT-1", "RRN000000001", "000001", "ATM1", "100.00"),
+                    internal("INT-2", "RRN000000002", "000002", "ATM1", "250.00"),
+                    internal("INT-9", "RRN000000009", "000009", "ATM1", "900.00"));
+            CollectingSink sink = new CollectingSink();
+
+            PartitionedReconciler.Stats stats = reconciler(8, Long.MAX_VALUE)
+                    .reconcile(records::forEach, internals::forEach, sink);
+
+            assertEquals(3, stats.settlementRows());
+            assertEquals(3, stats.internalRows());
+            assertEquals(Map.of("TXN000000001", "INT-1"), sink.matches);
+            assertEquals("RRN:RRN000000001", sink.matchKeys.get("TXN000000001"));
+            assertEquals(List.of("TXN000000002=50.00"), sink.mismatches);
+            assertEquals(List.of("TXN000000003"), sink.unmatchedSettlement);
+            assertEquals(List.of("INT-9"), sink.unmatchedInternal);
+        }
+
+        @Test
+        @DisplayName("Should not match wrapped STANs from different terminals")
+        void shouldQualifyStanByTerminal() {
+            List<SettlementRecord> records = List.of(
+                    record(1, null, "000042", "ATM1", "100.00"),
+                    record(2, null, "000042", "ATM2", "200.00"));
+            List<ReconciliationService.InternalTransaction> internals = List.of(
+                    internal("INT-B", null, "000042", "ATM2", "200.00"),
+                    internal("INT-A", null, "000042", "ATM1", "100.00"));
+            CollectingSink sink = new CollectingSink();
+
+            reconciler(4, Long.MAX_VALUE).reconcile(records::forEach, internals::forEach, sink);
+
+            assertEquals(Map.of("TXN000000001", "INT-A", "TXN000000002", "INT-B"), sink.matches);
+            assertEquals("STAN:000042", sink.matchKeys.get("TXN000000001"));
+            assertTrue(sink.mismatches.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should fall through to the next key when RRN does not match")
+        void shouldCascadeToLaterPasses() {
+            List<SettlementRecord> records = List.of(record(1, "RRN-SETTLE", "000007", "ATM1", "70.00"));
+            List<ReconciliationService.InternalTransaction> internals =
+                    List.of(internal("INT-7", "RRN-OTHER", "000007", "ATM1", "70.00"));
+            CollectingSink sink = new CollectingSink();
+
+            reconciler(4, Long.MAX_VALUE).reconcile(records::forEach, internals::forEach, sink);
+
+            assertEquals(Map.of("TXN000000001", "INT-7"), sink.matches);
+            assertTrue(sink.unmatchedSettlement.isEmpty());
+            assertTrue(sink.unmatchedInternal.isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Spilling")
+    class SpillTests {
+
+        @Test
+        @DisplayName("Should produce the same result when partitions spill to disk")
+        void shouldMatchWithSpilling() throws Exception {
+            List<SettlementRecord> records = new ArrayList<>();
+            List<ReconciliationService.InternalTransaction> internals = new ArrayList<>();
+            for (int i = 1; i <= 5_000; i++) {
+                String rrn = String.format("RRN%09d", i);
+                records.add(record(i, rrn, String.format("%06d", i % 1000), "ATM1", i + ".00"));
+                if (i % 10 != 0) {
+                    internals.add(internal("INT-" + i, rrn, null, "ATM1", i + ".00"));
+                }
+            }
+            CollectingSink inMemory = new CollectingSink();
+            CollectingSink spilled = new CollectingSink();
+
+            PartitionedReconciler.Stats memoryStats = reconciler(16, Long.MAX_VALUE)
+                    .reconcile(records::forEach, internals::forEach, inMemory);
+            PartitionedReconciler.Stats spillStats = reconciler(16, 64 * 1024)
+                    .reconcile(records::forEach, internals::forEach, spilled);
+
+            assertEquals(0, memoryStats.spilledRows());
+            assertTrue(spillStats.spilledRows() > 0);
+            assertEquals(4_500, spilled.matches.size());
+            assertEquals(inMemory.matches, spilled.matches);
+            assertEquals(500, spilled.unmatchedSettlement.size());
+            try (Stream<Path> leftovers = Files.list(tempDir)) {
+                assertEquals(0, leftovers.count());
+            }
+        }
+    }
+}
@@ -263,6 +263,86 @@ class ReconciliationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Partitioned Reconciliation")
+    class PartitionedReconciliationTests {
+
+        @Test
+        @DisplayName("Should reconcile streamed records with the same outcome as in-memory reconciliation")
+        void shouldReconcileStreamedRecords() {
+            SettlementFile file = createSettlementFile(LocalDate.now(), 5);
+            for (int i = 0; i < 3; i++) {
+                SettlementRecord record = file.getRecords().get(i);
+                transactionProvider.addTransaction(record.getRrn(), record.getStan(), record.getAmount());
+            }
+            transactionProvider.addTransaction("RRN-EXTRA", "999999", new BigDecimal("10.00"));
+
+            ReconciliationResult result = reconciliationService.reconcile(
+                    file.getFileId(), file.getSettlementDate(), file.getRecords()::forEach,
+                    ReconciliationConfig.builder().partitionCount(4).build());
+
+            assertEquals(ReconciliationStatus.COMPLETED_WITH_DISCREPANCIES, result.getStatus());
+            assertEquals(5, result.getTotalSettlementRecords());
+            assertEquals(4, result.getTotalInternalTransactions());
+            assertEquals(3, result.getMatchedCount());
+            assertEquals(new BigDecimal("3000.00"), result.getMatchedAmount());
+            assertEquals(3, result.getDiscrepancyCount());
+            assertEquals(2, result.getStatusSummary().get(SettlementStatus.NOT_FOUND));
+            assertEquals(1, result.getUnmatchedInternalTransactions().size());
+            assertTrue(reconciliationService.getResult(result.getResultId()).isPresent());
+        }
+
+        @Test
+        @DisplayName("Should write statuses, discrepancies and rollup of streamed records in bulk")
+        void shouldPersistStreamedOutcome() {
+            SettlementFile file = createSettlementFile(LocalDate.now(), 5);
+            repository.saveFile(file);
+            for (int i = 0; i < 3; i++) {
+                SettlementRecord record = file.getRecords().get(i);
+                transactionProvider.addTransaction(record.getRrn(), record.getStan(), record.getAmount());
+            }
+
+            reconciliationService.reconcile(file.getFileId(), file.getSettlementDate(),
+                    action -> repository.forEachRecord(file.getFileId(), action),
+                    ReconciliationConfig.builder().partitionCount(4).build());
+
+            List<SettlementRecord> stored = repository.findRecordsByFileId(file.getFileId());
+            assertEquals(3, stored.stream().filter(r -> r.getStatus() == SettlementStatus.MATCHED).count());
+            assertEquals(2, stored.stream().filter(r -> r.getStatus() == SettlementStatus.NOT_FOUND).count());
+            assertTrue(stored.stream().filter(r -> r.getStatus() == SettlementStatus.MATCHED)
+                    .allMatch(r -> r.getMatchedTransactionId() != null));
+            assertEquals(2, repository.findDiscrepanciesByType(DiscrepancyType.MISSING_INTERNAL).size());
+
+            SettlementRollup rollup = repository.findRollupsByDateRange(file.getSettlementDate(),
+                    file.getSettlementDate()).get(file.getFileId());
+            assertEquals(5, rollup.getRecordCount());
+            assertEquals(3, rollup.getCells().stream()
+                    .filter(c -> c.status() == SettlementStatus.MATCHED).mapToLong(SettlementRollup.Cell::count).sum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Persistence")
+    class PersistenceTests {
+
+        @Test
+        @DisplayName("Should store discrepancies and rollup of a reconciled file")
+        void shouldPersistFileOutcome() {
+            SettlementFile file = createSettlementFile(LocalDate.now(), 4);
+            repository.saveFile(file);
+            SettlementRecord first = file.getRecords().get(0);
+            transactionProvider.addTransaction(first.getRrn(), first.getStan(), first.getAmount());
+
+            ReconciliationResult result = reconciliationService.reconcile(file);
+
+            assertEquals(result.getDiscrepancies().size(), repository.findOpenDiscrepancies().size());
+            assertEquals(3, repository.findDiscrepanciesByType(DiscrepancyType.MISSING_INTERNAL).size());
+            SettlementRollup rollup = repository.findRollupsByDateRange(file.getSettlementDate(),
+                    file.getSettlementDate()).get(file.getFileId());
+            assertEquals(4, rollup.getRecordCount());
+        }
+    }
+
     // Helper methods
 
     private SettlementFile createSettlementFile(LocalDate date, int recordCount) {
@@ -278,6 +278,51 @@ class SettlementReportServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Rollups")
+    class RollupTests {
+
+        @Test
+        @DisplayName("Should report from the stored rollup instead of the records")
+        void shouldReportFromStoredRollup() {
+            LocalDate today = LocalDate.now();
+            SettlementFile file = createTestFile(today, 10);
+            repository.saveFile(file);
+
+            SettlementFile reconciled = createTestFile(today, 10);
+            reconciled.getRecords().forEach(r -> r.setStatus(SettlementStatus.MATCHED));
+            repository.saveRollup(file.getFileId(), today, SettlementRollup.of(reconciled.getRecords()));
+
+            SettlementReportService.SettlementReport daily = reportService.generateDailyReport(today);
+            SettlementReportService.SettlementReport monthly =
+                    reportService.generateMonthlyReport(today.getYear(), today.getMonthValue());
+
+            assertEquals(10, daily.getTotalRecords());
+            assertEquals(10, daily.getMatchedRecords());
+            assertEquals(new BigDecimal("10000.00"), daily.getMatchedAmount());
+            assertEquals(10, monthly.getMatchedRecords());
+            assertEquals(new BigDecimal("10000.00"), monthly.getTotalAmount());
+        }
+
+        @Test
+        @DisplayName("Should combine stored rollups with files that have none")
+        void shouldCombineWithFilesWithoutRollup() {
+            LocalDate today = LocalDate.now();
+            SettlementFile withRollup = createTestFile(today, 4);
+            repository.saveFile(withRollup);
+            repository.saveRollup(withRollup.getFileId(), today, SettlementRollup.of(withRollup.getRecords()));
+
+            SettlementFile withoutRollup = createTestFile(today, 6);
+            withoutRollup.setFileId("SF-OTHER");
+            repository.saveFile(withoutRollup);
+
+            SettlementReportService.SettlementReport report = reportService.generateDailyReport(today);
+
+            assertEquals(10, report.getTotalRecords());
+            assertEquals(new BigDecimal("10000.00"), report.getTotalAmount());
+        }
+    }
+
     @Nested
     @DisplayName("Export")
     class ExportTests {
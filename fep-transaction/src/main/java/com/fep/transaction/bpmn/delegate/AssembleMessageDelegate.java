@@ -1,5 +1,6 @@
 package com.fep.transaction.bpmn.delegate;
 
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
@@ -8,7 +9,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * BPMN Service Task Delegate: 組裝 0200 電文
@@ -25,7 +25,6 @@ public class AssembleMessageDelegate implements JavaDelegate {
     // private final MessageAssembler messageAssembler;
     // private final ChannelMessageService channelMessageService;
 
-    private static final AtomicLong STAN_SEQUENCE = new AtomicLong(1);
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMddHHmmss");
 
     @Override
@@ -40,8 +39,9 @@ public class AssembleMessageDelegate implements JavaDelegate {
 
         try {
             // 1. 產生交易序號
-            String stan = generateStan();
-            String rrn = generateRrn();
+            TraceNumberAllocator allocator = TraceNumberAllocator.getDefault();
+            String stan = allocator.nextStan(channelId);
+            String rrn = allocator.nextRrn(channelId);
             String transmissionDateTime = LocalDateTime.now().format(DATE_FORMAT);
 
             // 2. 組裝電文欄位
@@ -74,15 +74,6 @@ public class AssembleMessageDelegate implements JavaDelegate {
         }
     }
 
-    private String generateStan() {
-        long seq = STAN_SEQUENCE.getAndIncrement() % 1_000_000;
-        return String.format("%06d", seq);
-    }
-
-    private String generateRrn() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyMMddHHmmss"));
-    }
-
     private String buildMockMessageHex(String stan, String rrn, Long amount) {
         // 模擬的 ISO 8583 電文 HEX
         return String.format("0200F23844810AE08000%s%s%012d", stan, rrn, amount);
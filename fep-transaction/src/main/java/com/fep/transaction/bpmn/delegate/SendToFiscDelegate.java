@@ -1,5 +1,6 @@
 package com.fep.transaction.bpmn.delegate;
 
+import com.fep.message.iso8583.trace.TraceNumberAllocator;
 import com.fep.transaction.bpmn.handler.FiscResponseHandler;
 import com.fep.transaction.bpmn.service.FiscCommunicationService;
 import lombok.RequiredArgsConstructor;
@@ -10,7 +11,6 @@ import org.camunda.bpm.engine.delegate.JavaDelegate;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * BPMN Send Task Delegate: 發送電文至財金公司
@@ -47,11 +47,6 @@ public class SendToFiscDelegate implements JavaDelegate {
     private final FiscCommunicationService fiscCommunicationService;
     private final FiscResponseHandler fiscResponseHandler;
 
-    /**
-     * STAN 產生器 (簡易實作，正式環境應使用獨立的 StanGenerator)
-     */
-    private static final AtomicInteger stanCounter = new AtomicInteger(0);
-
     @Override
     public void execute(DelegateExecution execution) throws Exception {
         String processId = execution.getProcessInstanceId();
@@ -126,20 +121,15 @@ public class SendToFiscDelegate implements JavaDelegate {
         if (existingStan != null && !existingStan.isEmpty()) {
             return existingStan;
         }
-        return generateStan();
+        return generateStan((String) execution.getVariable("channelId"));
     }
 
     /**
      * 產生 STAN (System Trace Audit Number)
      *
-     * <p>STAN 是 6 位數字，範圍 000001-999999，循環使用
+     * <p>STAN 是 6 位數字，範圍 000001-999999，依通道及營業日由 {@link TraceNumberAllocator} 配號
      */
-    private String generateStan() {
-        int stan = stanCounter.incrementAndGet();
-        if (stan > 999999) {
-            stanCounter.set(1);
-            stan = 1;
-        }
-        return String.format("%06d", stan);
+    private String generateStan(String channelId) {
+        return TraceNumberAllocator.getDefault().nextStan(channelId);
     }
 }
@@ -36,7 +36,8 @@ public class MessageToRequestConverter {
         log.debug("[{}] Converting ISO 8583 message MTI: {}", txnId, message.getMti());
 
         TransactionRequest.TransactionRequestBuilder builder = TransactionRequest.builder()
-                .transactionId(txnId);
+                .transactionId(txnId)
+                .mti(message.getMti());
 
         // Field 2: Primary Account Number (PAN)
         String pan = message.getFieldAsString(2);
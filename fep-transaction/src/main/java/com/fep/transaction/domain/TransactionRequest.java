@@ -81,6 +81,9 @@ public class TransactionRequest {
     /** Channel (ATM, POS, MOBILE, etc.) */
     private String channel;
 
+    /** MTI of the originating message, when the request came from ISO 8583 */
+    private String mti;
+
     /** Original transaction data (for reversals) */
     private String originalTransactionId;
 
@@ -1,5 +1,7 @@
 package com.fep.transaction.pipeline;
 
+import com.fep.common.profiling.ChannelResourceTracker;
+import com.fep.common.profiling.PipelineStageEvent;
 import com.fep.transaction.domain.TransactionRequest;
 import com.fep.transaction.domain.TransactionResponse;
 import com.fep.transaction.enums.ResponseCode;
@@ -75,7 +77,7 @@ public class TransactionPipeline {
 
         notifyStart(context);
 
-        try {
+        try (ChannelResourceTracker.Scope ignored = ChannelResourceTracker.getInstance().open(request.getChannel())) {
             // Execute each stage in order
             for (PipelineStage stage : PipelineStage.values()) {
                 if (stage == PipelineStage.COMPLETE) {
@@ -128,16 +130,36 @@ public class TransactionPipeline {
         log.debug("[{}] Executing stage {} with {} handler(s)",
                 context.getPipelineId(), stage, stageHandlers.size());
 
-        for (PipelineHandler handler : stageHandlers) {
-            if (!context.isContinueProcessing()) {
-                break;
+        PipelineStageEvent event = new PipelineStageEvent();
+        event.begin();
+
+        try {
+            for (PipelineHandler handler : stageHandlers) {
+                if (!context.isContinueProcessing()) {
+                    break;
+                }
+                handler.handle(context);
             }
-            handler.handle(context);
+        } finally {
+            commitStageEvent(event, context, stage);
         }
 
         notifyStageComplete(context, stage);
     }
 
+    /**
+     * Records the stage in the flight recorder, if the event is enabled.
+     */
+    private void commitStageEvent(PipelineStageEvent event, PipelineContext context, PipelineStage stage) {
+        if (event.shouldCommit()) {
+            TransactionRequest request = context.getRequest();
+            event.setKeys(request.getChannel(), request.getStan(), request.getMti());
+            event.setStage(stage.name());
+            event.setContinued(context.isContinueProcessing());
+            event.commit();
+        }
+    }
+
     /**
      * Creates an error response with specific response code.
      */
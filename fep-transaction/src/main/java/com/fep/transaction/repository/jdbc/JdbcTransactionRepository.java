@@ -2,6 +2,7 @@ package com.fep.transaction.repository.jdbc;
 
 import com.fep.db.util.JdbcUtils;
 import com.fep.security.pan.PanEncryptionService;
+import com.fep.security.pan.ProtectedPan;
 import com.fep.transaction.enums.TransactionType;
 import com.fep.transaction.repository.TransactionRecord;
 import com.fep.transaction.repository.TransactionRepository;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,6 +27,8 @@ import java.util.Optional;
 /**
  * JDBC implementation of TransactionRepository for Oracle database.
  * PAN (Primary Account Number) is encrypted at rest using PanEncryptionService.
+ * PAN_HASH holds the keyed HMAC; rows written before keyed hashing still hold an
+ * unkeyed SHA-256 until {@link #migrateLegacyPanHashes(int)} rewrites them.
  */
 @Slf4j
 @Repository
@@ -46,6 +50,7 @@ public class JdbcTransactionRepository implements TransactionRepository {
         return (rs, rowNum) -> {
             String encryptedPan = rs.getString("PAN");
             String decryptedPan = decryptPanSafely(encryptedPan);
+            String panHash = currentPanHash(decryptedPan, rs.getString("PAN_HASH"));
 
             return TransactionRecord.builder()
                 .id(JdbcUtils.getLong(rs, "ID"))
@@ -54,7 +59,7 @@ public class JdbcTransactionRepository implements TransactionRepository {
                 .processingCode(rs.getString("PROCESSING_CODE"))
                 .maskedPan(rs.getString("MASKED_PAN"))
                 .pan(decryptedPan)
-                .panHash(rs.getString("PAN_HASH"))
+                .panHash(panHash)
                 .amount(JdbcUtils.getBigDecimal(rs, "AMOUNT"))
                 .currencyCode(rs.getString("CURRENCY_CODE"))
                 .sourceAccount(rs.getString("SOURCE_ACCOUNT"))
@@ -103,6 +108,17 @@ public class JdbcTransactionRepository implements TransactionRepository {
         }
     }
 
+    /**
+     * Replaces a legacy SHA-256 PAN hash with the current HMAC, so callers only
+     * ever see one hash format whether or not the row has been migrated.
+     */
+    private String currentPanHash(String pan, String storedHash) {
+        if (pan == null || storedHash == null || !panEncryptionService.isLegacyHash(pan, storedHash)) {
+            return storedHash;
+        }
+        return panEncryptionService.hash(pan);
+    }
+
     private static TransactionType parseTransactionType(String value) {
         if (value == null) return null;
         try {
@@ -198,17 +214,17 @@ public class JdbcTransactionRepository implements TransactionRepository {
 
     private MapSqlParameterSource createParams(TransactionRecord record) {
         // Encrypt PAN before storing
-        String encryptedPan = encryptPan(record.getPan());
-        // Generate masked PAN and hash if not already set
+        ProtectedPan protectedPan = protectPan(record.getPan());
+        String encryptedPan = protectedPan != null ? protectedPan.encrypted() : null;
+        // Use masked PAN if not already set; the hash is always recomputed so a
+        // legacy SHA-256 read back from an old row is never written again
         String maskedPan = record.getMaskedPan();
         String panHash = record.getPanHash();
-        if (record.getPan() != null && !record.getPan().isEmpty()) {
+        if (protectedPan != null) {
             if (maskedPan == null || maskedPan.isEmpty()) {
-                maskedPan = panEncryptionService.mask(record.getPan());
-            }
-            if (panHash == null || panHash.isEmpty()) {
-                panHash = panEncryptionService.hash(record.getPan());
+                maskedPan = protectedPan.masked();
             }
+            panHash = protectedPan.hash();
         }
 
         return new MapSqlParameterSource()
@@ -245,14 +261,14 @@ public class JdbcTransactionRepository implements TransactionRepository {
     }
 
     /**
-     * Encrypts PAN for storage.
+     * Encrypts, masks and hashes PAN for storage.
      */
-    private String encryptPan(String pan) {
+    private ProtectedPan protectPan(String pan) {
         if (pan == null || pan.isEmpty()) {
             return null;
         }
         try {
-            return panEncryptionService.encrypt(pan);
+            return panEncryptionService.protect(pan);
         } catch (Exception e) {
             log.error("Failed to encrypt PAN: {}", e.getMessage());
             throw new RuntimeException("PAN encryption failed", e);
@@ -460,4 +476,52 @@ public class JdbcTransactionRepository implements TransactionRepository {
         ));
         return updated > 0;
     }
+
+    /**
+     * Rewrites legacy SHA-256 PAN hashes with the keyed HMAC.
+     * Rows are scanned in ID order and each batch is written on its own, so the
+     * migration can run while the system is online and be re-run safely after an interruption.
+     *
+     * @param batchSize rows read per batch
+     * @return number of rows whose hash was rewritten
+     */
+    public int migrateLegacyPanHashes(int batchSize) {
+        String selectSql = """
+            SELECT ID, PAN, PAN_HASH FROM FEP_TRANSACTION
+            WHERE ID > :lastId AND PAN IS NOT NULL AND PAN_HASH IS NOT NULL
+            ORDER BY ID FETCH FIRST :batchSize ROWS ONLY
+            """;
+        String updateSql = """
+            UPDATE FEP_TRANSACTION SET PAN_HASH = :panHash
+            WHERE ID = :id AND PAN_HASH = :legacyHash
+            """;
+
+        long lastId = 0;
+        int migrated = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(selectSql,
+                Map.of("lastId", lastId, "batchSize", batchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<MapSqlParameterSource> updates = new ArrayList<>();
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("ID")).longValue();
+                String pan = decryptPanSafely((String) row.get("PAN"));
+                String storedHash = (String) row.get("PAN_HASH");
+                if (pan != null && panEncryptionService.isLegacyHash(pan, storedHash)) {
+                    updates.add(new MapSqlParameterSource()
+                        .addValue("id", lastId)
+                        .addValue("panHash", panEncryptionService.hash(pan))
+                        .addValue("legacyHash", storedHash));
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(updateSql, updates.toArray(new MapSqlParameterSource[0]));
+                migrated += updates.size();
+            }
+        }
+        log.info("Migrated {} legacy PAN hashes to HMAC-SHA256", migrated);
+        return migrated;
+    }
 }
@@ -4,14 +4,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
  * Implementation of the Circuit Breaker pattern.
+ *
+ * <p>Call outcomes are aggregated in a lock-free {@link SlidingWindow} and state
+ * transitions are compare-and-set on an atomic reference, so permitted calls are
+ * never serialised and rejected calls fail fast without touching a lock.
  */
 public class CircuitBreaker {
 
@@ -23,25 +28,28 @@ public class CircuitBreaker {
     // State management
     private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.CLOSED);
     private volatile LocalDateTime lastStateChangeTime = LocalDateTime.now();
-    private volatile LocalDateTime openedAt;
+    private volatile long openedAtNanos;
 
-    // Sliding window for failure tracking
-    private final ConcurrentLinkedQueue<CallResult> slidingWindow = new ConcurrentLinkedQueue<>();
+    // Sliding window for failure and slow call tracking
+    private final SlidingWindow slidingWindow;
+    private final long slowCallThresholdNanos;
+    private final long waitDurationInOpenStateNanos;
 
     // Half-open state tracking
     private final AtomicInteger halfOpenCalls = new AtomicInteger(0);
     private final AtomicInteger halfOpenSuccesses = new AtomicInteger(0);
 
     // Listeners
-    private Runnable onOpen;
-    private Runnable onClose;
-    private Runnable onHalfOpen;
-
-    private record CallResult(boolean success, LocalDateTime timestamp) {}
+    private volatile Runnable onOpen;
+    private volatile Runnable onClose;
+    private volatile Runnable onHalfOpen;
 
     public CircuitBreaker(CircuitBreakerConfig config) {
         this.config = config;
         this.metrics = new CircuitBreakerMetrics(config.getName());
+        this.slidingWindow = SlidingWindow.of(config);
+        this.slowCallThresholdNanos = config.getSlowCallThreshold().toNanos();
+        this.waitDurationInOpenStateNanos = config.getWaitDurationInOpenState().toNanos();
     }
 
     /**
@@ -65,26 +73,13 @@ public class CircuitBreaker {
             throw new CircuitBreakerException(config.getName(), state.get());
         }
 
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         try {
             T result = call.get();
-            long duration = System.currentTimeMillis() - startTime;
-
-            // Check for slow call
-            if (config.isCountSlowCallsAsFailures() &&
-                    duration > config.getSlowCallThreshold().toMillis()) {
-                metrics.recordSlowCall();
-                if (config.getSlowCallThresholdPercent() >= 100) {
-                    recordFailure(duration);
-                    return result;
-                }
-            }
-
-            recordSuccess(duration);
+            onCallComplete(startNanos, true);
             return result;
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            recordFailure(duration);
+            onCallComplete(startNanos, false);
 
             if (fallback != null) {
                 log.debug("Call failed for circuit {}, using fallback", config.getName());
@@ -94,6 +89,54 @@ public class CircuitBreaker {
         }
     }
 
+    /**
+     * Executes an asynchronous call through the circuit breaker.
+     *
+     * <p>The outcome is recorded when the returned stage completes, so the
+     * calling thread is never blocked. When the circuit does not permit the
+     * call, the supplier is not invoked and the returned future fails
+     * immediately with a {@link CircuitBreakerException}.
+     *
+     * @param call supplier starting the asynchronous call
+     * @return future completed with the result of the call
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<? extends CompletionStage<T>> call) {
+        if (!isCallPermitted()) {
+            metrics.recordRejection();
+            return CompletableFuture.failedFuture(
+                    new CircuitBreakerException(config.getName(), state.get()));
+        }
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> promise = new CompletableFuture<>();
+        CompletionStage<T> stage;
+        try {
+            stage = call.get();
+        } catch (Exception e) {
+            onCallComplete(startNanos, false);
+            promise.completeExceptionally(e);
+            return promise;
+        }
+
+        if (stage == null) {
+            onCallComplete(startNanos, false);
+            promise.completeExceptionally(new NullPointerException(
+                    "Circuit " + config.getName() + " call returned no completion stage"));
+            return promise;
+        }
+
+        // Record before completing so that callers observe the updated state
+        stage.whenComplete((result, throwable) -> {
+            onCallComplete(startNanos, throwable == null);
+            if (throwable != null) {
+                promise.completeExceptionally(throwable);
+            } else {
+                promise.complete(result);
+            }
+        });
+        return promise;
+    }
+
     /**
      * Executes a runnable through the circuit breaker.
      */
@@ -116,16 +159,19 @@ public class CircuitBreaker {
             }
             case OPEN -> {
                 // Check if wait duration has passed
-                if (shouldTransitionToHalfOpen()) {
-                    transitionTo(CircuitState.HALF_OPEN);
-                    return true;
+                if (!shouldTransitionToHalfOpen()) {
+                    return false;
                 }
-                return false;
+                if (transitionTo(CircuitState.OPEN, CircuitState.HALF_OPEN)) {
+                    // The caller that opened the half-open window takes the first trial permit
+                    return tryAcquireHalfOpenPermit();
+                }
+                // Another caller moved the circuit on; evaluate against the new state
+                return isCallPermitted();
             }
             case HALF_OPEN -> {
                 // Only allow limited calls in half-open state
-                int calls = halfOpenCalls.incrementAndGet();
-                return calls <= config.getPermittedCallsInHalfOpen();
+                return tryAcquireHalfOpenPermit();
             }
             default -> {
                 return false;
@@ -168,6 +214,13 @@ public class CircuitBreaker {
         return config;
     }
 
+    /**
+     * Gets the aggregated outcomes currently in the sliding window.
+     */
+    public SlidingWindow.Snapshot getWindowSnapshot() {
+        return slidingWindow.snapshot();
+    }
+
     /**
      * Forces the circuit to open.
      */
@@ -218,95 +271,153 @@ public class CircuitBreaker {
 
     // Private methods
 
-    private void recordSuccess(long durationMs) {
+    private void onCallComplete(long startNanos, boolean success) {
+        long durationNanos = System.nanoTime() - startNanos;
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        boolean slow = durationNanos > slowCallThresholdNanos;
+
+        if (slow) {
+            metrics.recordSlowCall();
+        }
+
+        if (!success || (slow && config.isCountSlowCallsAsFailures())) {
+            recordFailure(durationMs, slow);
+        } else {
+            recordSuccess(durationMs, slow);
+        }
+    }
+
+    private void recordSuccess(long durationMs, boolean slow) {
         metrics.recordSuccess(durationMs);
-        addToSlidingWindow(true);
+        slidingWindow.record(false, slow);
+
+        CircuitState currentState = state.get();
 
-        if (state.get() == CircuitState.HALF_OPEN) {
+        if (currentState == CircuitState.HALF_OPEN) {
             int successes = halfOpenSuccesses.incrementAndGet();
             int calls = halfOpenCalls.get();
             double successRate = (double) successes / calls * 100;
 
             if (calls >= config.getPermittedCallsInHalfOpen() &&
                     successRate >= config.getSuccessThresholdInHalfOpen()) {
-                transitionTo(CircuitState.CLOSED);
+                transitionTo(CircuitState.HALF_OPEN, CircuitState.CLOSED);
             }
+        } else if (currentState == CircuitState.CLOSED && slow && shouldTripCircuit()) {
+            // Slow successes can still trip the circuit on slow call rate
+            transitionTo(CircuitState.CLOSED, CircuitState.OPEN);
         }
     }
 
-    private void recordFailure(long durationMs) {
+    private void recordFailure(long durationMs, boolean slow) {
         metrics.recordFailure(durationMs);
-        addToSlidingWindow(false);
+        slidingWindow.record(true, slow);
 
         CircuitState currentState = state.get();
 
         if (currentState == CircuitState.CLOSED) {
             // Check if we should trip the circuit
             if (shouldTripCircuit()) {
-                transitionTo(CircuitState.OPEN);
+                transitionTo(CircuitState.CLOSED, CircuitState.OPEN);
             }
         } else if (currentState == CircuitState.HALF_OPEN) {
             // Any failure in half-open state trips the circuit
-            transitionTo(CircuitState.OPEN);
-        }
-    }
-
-    private void addToSlidingWindow(boolean success) {
-        slidingWindow.add(new CallResult(success, LocalDateTime.now()));
-
-        // Trim window to max size
-        while (slidingWindow.size() > config.getSlidingWindowSize()) {
-            slidingWindow.poll();
+            transitionTo(CircuitState.HALF_OPEN, CircuitState.OPEN);
         }
     }
 
     private boolean shouldTripCircuit() {
-        if (slidingWindow.size() < config.getMinimumCalls()) {
+        SlidingWindow.Snapshot window = slidingWindow.snapshot();
+        if (window.totalCalls() < config.getMinimumCalls()) {
             return false;
         }
 
-        long failures = slidingWindow.stream()
-                .filter(r -> !r.success())
-                .count();
-        double failureRate = (double) failures / slidingWindow.size() * 100;
+        return window.failureRate() >= config.getFailureThresholdPercent()
+                || window.slowCallRate() >= config.getSlowCallThresholdPercent();
+    }
 
-        return failureRate >= config.getFailureThresholdPercent();
+    /**
+     * Claims one of the trial calls allowed in half-open state. Rejected attempts are
+     * not counted, so {@code halfOpenCalls} never exceeds the permitted number and the
+     * success rate is computed over the trial calls actually made.
+     */
+    private boolean tryAcquireHalfOpenPermit() {
+        int permitted = config.getPermittedCallsInHalfOpen();
+        while (true) {
+            int calls = halfOpenCalls.get();
+            if (calls >= permitted) {
+                return false;
+            }
+            if (halfOpenCalls.compareAndSet(calls, calls + 1)) {
+                return true;
+            }
+        }
     }
 
     private boolean shouldTransitionToHalfOpen() {
-        if (openedAt == null) {
-            return false;
-        }
-        long elapsedMs = ChronoUnit.MILLIS.between(openedAt, LocalDateTime.now());
-        return elapsedMs >= config.getWaitDurationInOpenState().toMillis();
+        return System.nanoTime() - openedAtNanos >= waitDurationInOpenStateNanos;
     }
 
+    /**
+     * Unconditionally moves the circuit to the given state.
+     */
     private void transitionTo(CircuitState newState) {
         CircuitState oldState = state.getAndSet(newState);
+        if (newState == CircuitState.OPEN) {
+            resetHalfOpenTrials();
+            openedAtNanos = System.nanoTime();
+        }
         if (oldState != newState) {
-            lastStateChangeTime = LocalDateTime.now();
-            metrics.recordStateChange(newState);
-
-            log.info("Circuit {} state changed: {} -> {}", config.getName(), oldState, newState);
-
-            if (newState == CircuitState.OPEN) {
-                openedAt = LocalDateTime.now();
-                if (onOpen != null) onOpen.run();
-            } else if (newState == CircuitState.CLOSED) {
-                openedAt = null;
-                halfOpenCalls.set(0);
-                halfOpenSuccesses.set(0);
-                if (onClose != null) onClose.run();
-            } else if (newState == CircuitState.HALF_OPEN) {
-                halfOpenCalls.set(0);
-                halfOpenSuccesses.set(0);
-                if (onHalfOpen != null) onHalfOpen.run();
-            }
+            onStateTransition(oldState, newState);
+        }
+    }
+
+    /**
+     * Moves the circuit to the given state only if it is still in the expected
+     * state, so that concurrent callers trigger each transition exactly once.
+     */
+    private boolean transitionTo(CircuitState expectedState, CircuitState newState) {
+        if (!state.compareAndSet(expectedState, newState)) {
+            return false;
+        }
+        if (newState == CircuitState.OPEN) {
+            // Only the winning caller resets the trials and restarts the open-state timer
+            resetHalfOpenTrials();
+            openedAtNanos = System.nanoTime();
+        }
+        onStateTransition(expectedState, newState);
+        return true;
+    }
+
+    private void onStateTransition(CircuitState oldState, CircuitState newState) {
+        lastStateChangeTime = LocalDateTime.now();
+        metrics.recordStateChange(newState);
+
+        log.info("Circuit {} state changed: {} -> {}", config.getName(), oldState, newState);
+
+        if (newState == CircuitState.OPEN) {
+            Runnable callback = onOpen;
+            if (callback != null) callback.run();
+        } else if (newState == CircuitState.CLOSED) {
+            resetSlidingWindow();
+            Runnable callback = onClose;
+            if (callback != null) callback.run();
+        } else if (newState == CircuitState.HALF_OPEN) {
+            Runnable callback = onHalfOpen;
+            if (callback != null) callback.run();
         }
     }
 
     private void resetSlidingWindow() {
-        slidingWindow.clear();
+        slidingWindow.reset();
+        resetHalfOpenTrials();
+    }
+
+    /**
+     * Clears the half-open trial counters. Called while the circuit is OPEN, so
+     * the counters are already zero when HALF_OPEN is published; resetting them
+     * after that would hand out extra trial permits to concurrent callers.
+     */
+    private void resetHalfOpenTrials() {
         halfOpenCalls.set(0);
         halfOpenSuccesses.set(0);
     }
@@ -23,7 +23,11 @@ public class CircuitBreakerConfig {
     @Builder.Default
     private int minimumCalls = 10;
 
-    /** Size of the sliding window for failure rate calculation */
+    /** Type of the sliding window used for failure and slow call rate calculation */
+    @Builder.Default
+    private SlidingWindowType slidingWindowType = SlidingWindowType.COUNT_BASED;
+
+    /** Size of the sliding window (calls when count based, seconds when time based) */
     @Builder.Default
     private int slidingWindowSize = 100;
 
@@ -51,7 +55,7 @@ public class CircuitBreakerConfig {
     @Builder.Default
     private Duration slowCallThreshold = Duration.ofSeconds(5);
 
-    /** Slow call threshold percentage to consider as failure */
+    /** Slow call rate (percentage) in the sliding window that trips the circuit */
     @Builder.Default
     private int slowCallThresholdPercent = 100;
 
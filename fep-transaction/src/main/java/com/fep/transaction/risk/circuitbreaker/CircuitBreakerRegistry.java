@@ -15,6 +15,9 @@ public class CircuitBreakerRegistry {
 
     private static final Logger log = LoggerFactory.getLogger(CircuitBreakerRegistry.class);
 
+    /** Name prefix of the circuit breakers guarding individual FISC channels */
+    public static final String CHANNEL_PREFIX = "fisc-channel:";
+
     private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
 
     /**
@@ -39,6 +42,40 @@ public class CircuitBreakerRegistry {
         });
     }
 
+    /**
+     * Gets or creates the circuit breaker guarding a FISC channel.
+     *
+     * <p>Channel circuits use a time-based window so that a degraded bank link
+     * is detected on recent traffic regardless of the channel's volume.
+     */
+    public CircuitBreaker getOrCreateForChannel(String channelId) {
+        String name = channelCircuitName(channelId);
+        return getOrCreate(name, CircuitBreakerConfig.builder()
+                .name(name)
+                .slidingWindowType(SlidingWindowType.TIME_BASED)
+                .slidingWindowSize(30)
+                .failureThresholdPercent(40)
+                .minimumCalls(5)
+                .slowCallThreshold(java.time.Duration.ofSeconds(10))
+                .slowCallThresholdPercent(80)
+                .waitDurationInOpenState(java.time.Duration.ofSeconds(30))
+                .build());
+    }
+
+    /**
+     * Removes the circuit breaker guarding a FISC channel.
+     */
+    public boolean removeForChannel(String channelId) {
+        return remove(channelCircuitName(channelId));
+    }
+
+    /**
+     * Gets the circuit breaker name used for a FISC channel.
+     */
+    public static String channelCircuitName(String channelId) {
+        return CHANNEL_PREFIX + channelId;
+    }
+
     /**
      * Gets an existing circuit breaker.
      */
@@ -112,6 +149,11 @@ public class CircuitBreakerRegistry {
             cbStats.put("averageDuration", String.format("%.2fms", metrics.getAverageDurationMs()));
             cbStats.put("timesOpened", metrics.getTimesOpened().get());
 
+            SlidingWindow.Snapshot window = cb.getWindowSnapshot();
+            cbStats.put("windowCalls", window.totalCalls());
+            cbStats.put("windowFailureRate", String.format("%.2f%%", window.failureRate()));
+            cbStats.put("windowSlowCallRate", String.format("%.2f%%", window.slowCallRate()));
+
             circuitStats.put(entry.getKey(), cbStats);
         }
         stats.put("circuits", circuitStats);
@@ -0,0 +1,76 @@
+package com.fep.transaction.risk.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding window aggregating the outcome of the last N calls.
+ *
+ * <p>Each call claims the next slot of a ring with a single increment and
+ * swaps its outcome in; the running totals are then corrected by the
+ * difference between the new and the evicted outcome.
+ */
+public class CountBasedSlidingWindow implements SlidingWindow {
+
+    private static final int EMPTY = 0;
+    private static final int RECORDED = 1;
+    private static final int FAILED = 1 << 1;
+    private static final int SLOW = 1 << 2;
+
+    private final int size;
+    private final AtomicIntegerArray ring;
+    private final AtomicLong cursor = new AtomicLong(0);
+
+    private final AtomicInteger totalCalls = new AtomicInteger(0);
+    private final AtomicInteger failedCalls = new AtomicInteger(0);
+    private final AtomicInteger slowCalls = new AtomicInteger(0);
+
+    public CountBasedSlidingWindow(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Sliding window size must be positive: " + size);
+        }
+        this.size = size;
+        this.ring = new AtomicIntegerArray(size);
+    }
+
+    @Override
+    public void record(boolean failure, boolean slow) {
+        int outcome = RECORDED | (failure ? FAILED : 0) | (slow ? SLOW : 0);
+        int slot = (int) (cursor.getAndIncrement() % size);
+        int evicted = ring.getAndSet(slot, outcome);
+
+        if (evicted == EMPTY) {
+            totalCalls.incrementAndGet();
+        }
+        adjust(failedCalls, evicted, outcome, FAILED);
+        adjust(slowCalls, evicted, outcome, SLOW);
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        // Counters may briefly dip below zero while a slot is being overwritten
+        return new Snapshot(
+                Math.max(0, totalCalls.get()),
+                Math.max(0, failedCalls.get()),
+                Math.max(0, slowCalls.get()));
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < size; i++) {
+            ring.set(i, EMPTY);
+        }
+        cursor.set(0);
+        totalCalls.set(0);
+        failedCalls.set(0);
+        slowCalls.set(0);
+    }
+
+    private static void adjust(AtomicInteger counter, int evicted, int outcome, int flag) {
+        int delta = ((outcome & flag) != 0 ? 1 : 0) - ((evicted & flag) != 0 ? 1 : 0);
+        if (delta != 0) {
+            counter.addAndGet(delta);
+        }
+    }
+}
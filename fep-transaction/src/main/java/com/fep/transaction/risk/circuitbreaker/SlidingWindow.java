@@ -0,0 +1,52 @@
+package com.fep.transaction.risk.circuitbreaker;
+
+/**
+ * Lock-free sliding window of call outcomes used by {@link CircuitBreaker}.
+ *
+ * <p>Implementations store outcomes in a fixed ring of buckets that is
+ * updated with atomic operations only, so concurrent callers never block
+ * each other while recording.
+ */
+public interface SlidingWindow {
+
+    /**
+     * Records the outcome of a single call.
+     *
+     * @param failure whether the call counts as a failure
+     * @param slow whether the call exceeded the slow call threshold
+     */
+    void record(boolean failure, boolean slow);
+
+    /**
+     * Aggregates the outcomes currently inside the window.
+     */
+    Snapshot snapshot();
+
+    /**
+     * Clears all recorded outcomes.
+     */
+    void reset();
+
+    /**
+     * Creates the sliding window described by the configuration.
+     */
+    static SlidingWindow of(CircuitBreakerConfig config) {
+        return config.getSlidingWindowType() == SlidingWindowType.TIME_BASED
+                ? new TimeBasedSlidingWindow(config.getSlidingWindowSize())
+                : new CountBasedSlidingWindow(config.getSlidingWindowSize());
+    }
+
+    /**
+     * Aggregated outcome counts of a sliding window.
+     */
+    record Snapshot(int totalCalls, int failedCalls, int slowCalls) {
+
+        public double failureRate() {
+            return totalCalls == 0 ? 0.0 : (double) failedCalls / totalCalls * 100;
+        }
+
+        public double slowCallRate() {
+            return totalCalls == 0 ? 0.0 : (double) slowCalls / totalCalls * 100;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.fep.transaction.risk.circuitbreaker;
+
+/**
+ * Types of sliding window used to aggregate call outcomes.
+ */
+public enum SlidingWindowType {
+
+    /** Aggregates the outcome of the last N calls */
+    COUNT_BASED("Count Based", "Aggregates the outcome of the last N calls"),
+
+    /** Aggregates the outcome of the calls made in the last N seconds */
+    TIME_BASED("Time Based", "Aggregates the outcome of the calls in the last N seconds");
+
+    private final String name;
+    private final String description;
+
+    SlidingWindowType(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,126 @@
+package com.fep.transaction.risk.circuitbreaker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding window aggregating the outcome of the calls in the last N seconds.
+ *
+ * <p>The window is a ring of one-second buckets. Each bucket packs its call
+ * and failure counts into one {@code long}, 32 bits each, so that the
+ * failure rate is always read consistently; slow calls are counted in a
+ * second {@code long} beside it. A bucket that belongs to an expired second is recycled
+ * by the first caller that reaches it; other callers only spin for the few
+ * nanoseconds the recycle takes.
+ */
+public class TimeBasedSlidingWindow implements SlidingWindow {
+
+    private static final long BUCKET_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int FIELD_BITS = 32;
+    private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+    private static final long ONE_FAILED = 1L;
+    private static final long ONE_CALL = 1L << FIELD_BITS;
+
+    /** Epoch marker of a bucket that is being recycled */
+    private static final long RECYCLING = -1L;
+    /** Epoch marker of a bucket that has never been used */
+    private static final long UNUSED = Long.MIN_VALUE;
+
+    private final int size;
+    private final AtomicLongArray epochs;
+    /** Slot {@code 2i} holds bucket i's [calls:32 | failed:32], slot {@code 2i + 1} its slow calls */
+    private final AtomicLongArray counts;
+    private final LongSupplier nanoClock;
+    private final long originNanos;
+
+    public TimeBasedSlidingWindow(int windowSeconds) {
+        this(windowSeconds, System::nanoTime);
+    }
+
+    TimeBasedSlidingWindow(int windowSeconds, LongSupplier nanoClock) {
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("Sliding window seconds must be positive: " + windowSeconds);
+        }
+        this.size = windowSeconds;
+        this.epochs = new AtomicLongArray(windowSeconds);
+        this.counts = new AtomicLongArray(2 * windowSeconds);
+        this.nanoClock = nanoClock;
+        this.originNanos = nanoClock.getAsLong();
+        reset();
+    }
+
+    @Override
+    public void record(boolean failure, boolean slow) {
+        long delta = ONE_CALL + (failure ? ONE_FAILED : 0);
+        long epoch = currentEpoch();
+        int slot = (int) (epoch % size);
+
+        while (true) {
+            long bucketEpoch = epochs.get(slot);
+            if (bucketEpoch == epoch) {
+                counts.addAndGet(2 * slot, delta);
+                if (slow) {
+                    counts.incrementAndGet(2 * slot + 1);
+                }
+                return;
+            }
+            if (bucketEpoch == RECYCLING) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (bucketEpoch > epoch) {
+                // The caller stalled for a whole window; its outcome is already stale
+                return;
+            }
+            if (epochs.compareAndSet(slot, bucketEpoch, RECYCLING)) {
+                counts.set(2 * slot, 0);
+                counts.set(2 * slot + 1, 0);
+                epochs.set(slot, epoch);
+            }
+        }
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        long epoch = currentEpoch();
+        long oldest = epoch - size + 1;
+        long total = 0;
+        long failed = 0;
+        long slow = 0;
+
+        for (int i = 0; i < size; i++) {
+            long bucketEpoch = epochs.get(i);
+            if (bucketEpoch < 0 || bucketEpoch < oldest || bucketEpoch > epoch) {
+                continue;
+            }
+            long packed = counts.get(2 * i);
+            total += packed >>> FIELD_BITS;
+            failed += packed & FIELD_MASK;
+            slow += counts.get(2 * i + 1);
+        }
+        return new Snapshot(saturate(total), saturate(failed), saturate(slow));
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < size; i++) {
+            epochs.set(i, UNUSED);
+            counts.set(2 * i, 0);
+            counts.set(2 * i + 1, 0);
+        }
+    }
+
+    private static int saturate(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Seconds elapsed since the window was created; never negative, so the
+     * negative markers above cannot collide with a real epoch.
+     */
+    private long currentEpoch() {
+        return (nanoClock.getAsLong() - originNanos) / BUCKET_NANOS;
+    }
+}
@@ -0,0 +1,71 @@
+package com.fep.transaction.risk.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generic Cell Rate Algorithm over a single {@link AtomicLong}.
+ *
+ * <p>The state is the theoretical arrival time (TAT) of the next request in
+ * nanoseconds. A token bucket with capacity {@code C} refilled every
+ * {@code T} nanoseconds is equivalent to accepting a request while
+ * {@code TAT - now <= C * T}, so one compare-and-set replaces the
+ * read-modify-write of a (tokens, lastRefill) pair.
+ *
+ * <p>Decisions are encoded in a single {@code long}: a non-negative value is
+ * the delay in nanoseconds after which the reserved permits may be used, a
+ * negative value {@code -(retryAfterNanos + 1)} means the request was
+ * rejected and nothing was reserved.
+ */
+final class Gcra {
+
+    private Gcra() {
+    }
+
+    /**
+     * Reserves permits against the given TAT state.
+     *
+     * @param state theoretical arrival time, relative to the caller's clock origin
+     * @param nowNanos current time on the same clock; must not be negative
+     * @param permits number of permits to reserve
+     * @param emissionIntervalNanos nanoseconds per permit
+     * @param burstNanos burst capacity expressed in nanoseconds ({@code capacity * interval})
+     * @param maxDelayNanos longest delay a caller is willing to wait for
+     * @return the encoded decision
+     */
+    static long reserve(AtomicLong state, long nowNanos, int permits,
+                        long emissionIntervalNanos, long burstNanos, long maxDelayNanos) {
+        long increment = permits * emissionIntervalNanos;
+        while (true) {
+            long tat = state.get();
+            long newTat = Math.max(tat, nowNanos) + increment;
+            long delay = newTat - nowNanos - burstNanos;
+
+            if (delay > maxDelayNanos) {
+                return rejected(delay);
+            }
+            if (state.compareAndSet(tat, newTat)) {
+                return Math.max(0, delay);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of permits that could be taken immediately.
+     */
+    static long available(long tat, long nowNanos, long emissionIntervalNanos, long burstNanos) {
+        long used = Math.max(0, tat - nowNanos);
+        return Math.max(0, (burstNanos - used) / emissionIntervalNanos);
+    }
+
+    static long rejected(long retryAfterNanos) {
+        return -Math.max(0, retryAfterNanos) - 1;
+    }
+
+    static boolean isPermitted(long decision) {
+        return decision >= 0;
+    }
+
+    static long retryAfterNanos(long decision) {
+        return -decision - 1;
+    }
+}
@@ -0,0 +1,174 @@
+package com.fep.transaction.risk.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limiter that enforces an independent limit per key, such as a
+ * terminal ID, card number hash or bank code.
+ *
+ * <p>Every key is a GCRA token bucket held by a {@link RateLimitStateStore}.
+ * The default {@link LocalRateLimitStateStore} bounds and expires the tracked
+ * keys; a shared store lets several nodes enforce the same limit.
+ */
+public class KeyedRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyedRateLimiter.class);
+
+    private final RateLimitConfig config;
+    private final RateLimitStateStore store;
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final long maxQueueWaitNanos;
+
+    // Statistics
+    private final AtomicLong totalRequests = new AtomicLong(0);
+    private final AtomicLong allowedRequests = new AtomicLong(0);
+    private final AtomicLong rejectedRequests = new AtomicLong(0);
+
+    public KeyedRateLimiter(RateLimitConfig config) {
+        this(config, new LocalRateLimitStateStore(config.getMaxKeys(), config.getKeyIdleExpiry()));
+    }
+
+    public KeyedRateLimiter(RateLimitConfig config, RateLimitStateStore store) {
+        this.config = config;
+        this.store = store;
+        this.emissionIntervalNanos = config.getEmissionIntervalNanos();
+        this.burstNanos = emissionIntervalNanos * config.getBurstPermits();
+        this.maxQueueWaitNanos = config.isQueueExcessRequests() ? config.getMaxQueueWait().toNanos() : 0;
+    }
+
+    /**
+     * Attempts to acquire one permit for a key without waiting.
+     */
+    public RateLimitResult tryAcquire(String key) {
+        return tryAcquire(key, 1);
+    }
+
+    /**
+     * Attempts to acquire permits for a key without waiting.
+     */
+    public RateLimitResult tryAcquire(String key, int permits) {
+        long decision = reserve(key, permits, 0);
+        return toResult(key, decision);
+    }
+
+    /**
+     * Reserves permits for a key and returns the encoded decision.
+     *
+     * <p>This is the allocation-free hot path: a non-negative value is the
+     * delay in nanoseconds the caller must wait before using the permits,
+     * a negative value means the request was rejected
+     * (see {@link RateLimitStateStore#isPermitted(long)}).
+     */
+    public long reserve(String key, int permits) {
+        return reserve(key, permits, maxQueueWaitNanos);
+    }
+
+    /**
+     * Acquires permits for a key without blocking the calling thread.
+     *
+     * <p>When the key has no permits left but the wait fits in
+     * {@code maxQueueWait}, the permits are reserved and the returned future
+     * completes once they become usable, carrying the delay in
+     * {@link RateLimitResult#getWaitTimeMs()}. Otherwise it completes
+     * immediately with a rejected result.
+     */
+    public CompletableFuture<RateLimitResult> acquireAsync(String key, int permits) {
+        long decision = reserve(key, permits, maxQueueWaitNanos);
+        if (!RateLimitStateStore.isPermitted(decision) || decision == 0) {
+            return CompletableFuture.completedFuture(toResult(key, decision));
+        }
+
+        RateLimitResult result = RateLimitResult.queued(TimeUnit.NANOSECONDS.toMillis(decision));
+        return CompletableFuture.supplyAsync(() -> result,
+                CompletableFuture.delayedExecutor(decision, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Gets the permits a key could take immediately.
+     */
+    public long getAvailablePermits(String key) {
+        return store.available(key, emissionIntervalNanos, burstNanos);
+    }
+
+    /**
+     * Forgets the state of a single key.
+     */
+    public void resetKey(String key) {
+        store.remove(key);
+    }
+
+    /**
+     * Gets the configuration.
+     */
+    public RateLimitConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Gets statistics.
+     */
+    public KeyedRateLimiterStats getStats() {
+        return new KeyedRateLimiterStats(
+                config.getName(),
+                totalRequests.get(),
+                allowedRequests.get(),
+                rejectedRequests.get(),
+                store.size()
+        );
+    }
+
+    /**
+     * Resets the rate limiter.
+     */
+    public void reset() {
+        store.clear();
+        totalRequests.set(0);
+        allowedRequests.set(0);
+        rejectedRequests.set(0);
+        log.info("Keyed rate limiter {} reset", config.getName());
+    }
+
+    private long reserve(String key, int permits, long maxDelayNanos) {
+        totalRequests.addAndGet(permits);
+        long decision = store.reserve(key, permits, emissionIntervalNanos, burstNanos, maxDelayNanos);
+        if (RateLimitStateStore.isPermitted(decision)) {
+            allowedRequests.addAndGet(permits);
+        } else {
+            rejectedRequests.addAndGet(permits);
+        }
+        return decision;
+    }
+
+    private RateLimitResult toResult(String key, long decision) {
+        int limit = config.getBurstPermits();
+        long resetIn = TimeUnit.NANOSECONDS.toSeconds(RateLimitStateStore.delayNanos(decision));
+        if (RateLimitStateStore.isPermitted(decision)) {
+            long remaining = store.available(key, emissionIntervalNanos, burstNanos);
+            return RateLimitResult.allowed(limit - remaining, limit, resetIn);
+        }
+        log.debug("Rate limit exceeded for {} key {}", config.getName(), key);
+        return RateLimitResult.rejected(limit, limit, resetIn, "Per-key limit exceeded");
+    }
+
+    /**
+     * Keyed rate limiter statistics.
+     */
+    public record KeyedRateLimiterStats(
+            String name,
+            long totalRequests,
+            long allowedRequests,
+            long rejectedRequests,
+            long trackedKeys
+    ) {
+        public double getRejectionRate() {
+            return totalRequests > 0 ? (double) rejectedRequests / totalRequests * 100 : 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fep.transaction.risk.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process {@link RateLimitStateStore}.
+ *
+ * <p>Keys live in a bounded cache that evicts idle keys, so millions of
+ * distinct terminals or cards cannot grow the heap without limit. An
+ * evicted key simply starts again with a full bucket. Once a key is
+ * present, reserving permits is a single CAS and allocates nothing.
+ */
+public class LocalRateLimitStateStore implements RateLimitStateStore {
+
+    private final Cache<String, AtomicLong> states;
+    private final LongSupplier nanoClock;
+    private final long originNanos;
+
+    public LocalRateLimitStateStore(long maximumKeys, Duration idleExpiry) {
+        this(maximumKeys, idleExpiry, System::nanoTime);
+    }
+
+    LocalRateLimitStateStore(long maximumKeys, Duration idleExpiry, LongSupplier nanoClock) {
+        this.states = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.nanoClock = nanoClock;
+        this.originNanos = nanoClock.getAsLong();
+    }
+
+    @Override
+    public long reserve(String key, int permits, long emissionIntervalNanos, long burstNanos, long maxDelayNanos) {
+        AtomicLong state = states.get(key, k -> new AtomicLong(0));
+        return Gcra.reserve(state, now(), permits, emissionIntervalNanos, burstNanos, maxDelayNanos);
+    }
+
+    @Override
+    public long available(String key, long emissionIntervalNanos, long burstNanos) {
+        AtomicLong state = states.getIfPresent(key);
+        if (state == null) {
+            return burstNanos / emissionIntervalNanos;
+        }
+        return Gcra.available(state.get(), now(), emissionIntervalNanos, burstNanos);
+    }
+
+    @Override
+    public void remove(String key) {
+        states.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        states.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+        return states.estimatedSize();
+    }
+
+    private long now() {
+        return nanoClock.getAsLong() - originNanos;
+    }
+}
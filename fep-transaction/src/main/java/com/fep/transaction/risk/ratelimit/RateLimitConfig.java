@@ -47,6 +47,37 @@ public class RateLimitConfig {
     @Builder.Default
     private Duration maxQueueWait = Duration.ofSeconds(5);
 
+    /** Maximum number of keys tracked by a per-key limiter */
+    @Builder.Default
+    private long maxKeys = 100_000;
+
+    /** Idle time after which a per-key limiter forgets a key */
+    @Builder.Default
+    private Duration keyIdleExpiry = Duration.ofMinutes(10);
+
+    /**
+     * Gets the GCRA emission interval (nanoseconds per permit).
+     *
+     * <p>Token and leaky buckets refill at {@code refillRate}; window based
+     * types spread {@code maxRequests} evenly over {@code period}.
+     */
+    public long getEmissionIntervalNanos() {
+        if (type == RateLimitType.TOKEN_BUCKET || type == RateLimitType.LEAKY_BUCKET) {
+            return Math.max(1, (long) (1_000_000_000L / refillRate));
+        }
+        return Math.max(1, period.toNanos() / maxRequests);
+    }
+
+    /**
+     * Gets the GCRA burst capacity in permits.
+     */
+    public int getBurstPermits() {
+        if (type == RateLimitType.TOKEN_BUCKET || type == RateLimitType.LEAKY_BUCKET) {
+            return bucketCapacity;
+        }
+        return maxRequests;
+    }
+
     /**
      * Creates a default configuration for TPS limiting.
      */
@@ -85,6 +116,20 @@ public class RateLimitConfig {
                 .build();
     }
 
+    /**
+     * Creates a per-key configuration (per terminal, card or bank code).
+     */
+    public static RateLimitConfig perKey(String name, int tps, int burst) {
+        return RateLimitConfig.builder()
+                .name(name)
+                .type(RateLimitType.TOKEN_BUCKET)
+                .maxRequests(tps)
+                .period(Duration.ofSeconds(1))
+                .bucketCapacity(burst)
+                .refillRate(tps)
+                .build();
+    }
+
     /**
      * Creates a strict configuration.
      */
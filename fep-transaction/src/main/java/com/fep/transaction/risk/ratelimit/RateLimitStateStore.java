@@ -0,0 +1,64 @@
+package com.fep.transaction.risk.ratelimit;
+
+/**
+ * Backend holding the per-key state of a {@link KeyedRateLimiter}.
+ *
+ * <p>Each key owns a single GCRA theoretical arrival time, so a backend only
+ * has to provide an atomic compare-and-set on one number per key. The
+ * {@link LocalRateLimitStateStore} keeps it in process; a shared store (for
+ * example a Redis script or a database row) lets several FEP nodes enforce
+ * one limit together.
+ *
+ * <p>Decisions are encoded in a single {@code long}: a non-negative value is
+ * the delay in nanoseconds before the reserved permits may be used, a
+ * negative value {@code -(retryAfterNanos + 1)} means the request was
+ * rejected and nothing was reserved.
+ */
+public interface RateLimitStateStore {
+
+    /**
+     * Atomically reserves permits for a key.
+     *
+     * @param key limited key (terminal ID, card number hash, bank code, ...)
+     * @param permits number of permits to reserve
+     * @param emissionIntervalNanos nanoseconds per permit
+     * @param burstNanos burst capacity expressed in nanoseconds
+     * @param maxDelayNanos longest delay the caller is willing to wait for
+     * @return the encoded decision
+     */
+    long reserve(String key, int permits, long emissionIntervalNanos, long burstNanos, long maxDelayNanos);
+
+    /**
+     * Returns the number of permits a key could take immediately.
+     */
+    long available(String key, long emissionIntervalNanos, long burstNanos);
+
+    /**
+     * Forgets the state of a key.
+     */
+    void remove(String key);
+
+    /**
+     * Forgets the state of all keys.
+     */
+    void clear();
+
+    /**
+     * Returns the approximate number of tracked keys.
+     */
+    long size();
+
+    /**
+     * Checks whether a decision permits the request.
+     */
+    static boolean isPermitted(long decision) {
+        return Gcra.isPermitted(decision);
+    }
+
+    /**
+     * Gets the delay of a permitted decision or the retry-after of a rejected one.
+     */
+    static long delayNanos(long decision) {
+        return isPermitted(decision) ? decision : Gcra.retryAfterNanos(decision);
+    }
+}
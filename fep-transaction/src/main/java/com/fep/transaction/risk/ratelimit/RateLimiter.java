@@ -3,36 +3,48 @@ package com.fep.transaction.risk.ratelimit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Implementation of various rate limiting algorithms.
+ *
+ * <p>All state is held in preallocated atomics: windows live in a two-slot
+ * ring whose slots pack the window number and its count into one
+ * {@code long}, and buckets are a single GCRA theoretical arrival time.
+ * Acquiring a permit is therefore a compare-and-set without allocation.
  */
 public class RateLimiter {
 
     private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
 
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
     private final RateLimitConfig config;
 
-    // For fixed/sliding window
-    private final ConcurrentHashMap<Long, AtomicLong> windowCounts = new ConcurrentHashMap<>();
+    // For fixed/sliding window: slot (window & 1) holds [window:32 | count:32]
+    private final AtomicLongArray windowSlots = new AtomicLongArray(2);
 
-    // For token bucket
-    private final AtomicReference<TokenBucket> tokenBucket;
+    // For token/leaky bucket: GCRA theoretical arrival time relative to bucketOriginNanos
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong(0);
+    private final long bucketOriginNanos = System.nanoTime();
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
 
     // Statistics
     private final AtomicLong totalRequests = new AtomicLong(0);
     private final AtomicLong allowedRequests = new AtomicLong(0);
     private final AtomicLong rejectedRequests = new AtomicLong(0);
 
-    private record TokenBucket(double tokens, long lastRefillTime) {}
-
     public RateLimiter(RateLimitConfig config) {
         this.config = config;
-        this.tokenBucket = new AtomicReference<>(
-                new TokenBucket(config.getBucketCapacity(), System.currentTimeMillis()));
+        this.emissionIntervalNanos = config.getEmissionIntervalNanos();
+        this.burstNanos = emissionIntervalNanos * config.getBurstPermits();
+        this.windowSlots.set(0, packWindow(-2, 0));
+        this.windowSlots.set(1, packWindow(-1, 0));
     }
 
     /**
@@ -55,10 +67,8 @@ public class RateLimiter {
             case LEAKY_BUCKET -> tryAcquireLeakyBucket(permits);
         };
 
-        if (result.isAllowed()) {
-            allowedRequests.addAndGet(permits);
-        } else {
-            rejectedRequests.addAndGet(permits);
+        recordOutcome(result.isAllowed(), permits);
+        if (!result.isAllowed()) {
             log.debug("Rate limit exceeded for {}: {}/{}", config.getName(),
                     result.getCurrentCount(), result.getLimit());
         }
@@ -75,25 +85,52 @@ public class RateLimiter {
 
     /**
      * Acquires permission for multiple requests, blocking if necessary.
+     *
+     * <p>Prefer {@link #acquireAsync(int)} on I/O threads; this variant parks
+     * the calling thread for the reserved delay. Once reserved the permits are
+     * counted as allowed, so the wait is not cut short by an interrupt: the
+     * thread keeps waiting and its interrupt status is restored on return.
      */
     public RateLimitResult acquire(int permits) {
-        RateLimitResult result = tryAcquire(permits);
-
-        if (!result.isAllowed() && config.isQueueExcessRequests()) {
-            long waitTime = result.getResetInSeconds() * 1000;
-            if (waitTime <= config.getMaxQueueWait().toMillis()) {
-                try {
-                    Thread.sleep(waitTime);
-                    return tryAcquire(permits);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return RateLimitResult.rejected(result.getCurrentCount(), result.getLimit(),
-                            result.getResetInSeconds(), "Interrupted while waiting");
-                }
-            }
+        if (!config.isQueueExcessRequests()) {
+            return tryAcquire(permits);
         }
 
-        return result;
+        long delayNanos = reserveDelayNanos(permits);
+        if (delayNanos < 0) {
+            return rejectedAfterWait(permits);
+        }
+        if (delayNanos > 0) {
+            parkUninterruptibly(delayNanos);
+            return RateLimitResult.queued(TimeUnit.NANOSECONDS.toMillis(delayNanos));
+        }
+        return RateLimitResult.allowed(0, config.getBurstPermits(), 0);
+    }
+
+    /**
+     * Acquires permission without blocking the calling thread.
+     *
+     * <p>When queuing is enabled and the wait fits in {@code maxQueueWait},
+     * the permits are reserved and the returned future completes once they
+     * become usable, with the delay in {@link RateLimitResult#getWaitTimeMs()}.
+     * Otherwise the future completes immediately with the outcome of
+     * {@link #tryAcquire(int)}.
+     */
+    public CompletableFuture<RateLimitResult> acquireAsync(int permits) {
+        if (!config.isQueueExcessRequests()) {
+            return CompletableFuture.completedFuture(tryAcquire(permits));
+        }
+
+        long delayNanos = reserveDelayNanos(permits);
+        if (delayNanos < 0) {
+            return CompletableFuture.completedFuture(rejectedAfterWait(permits));
+        }
+        if (delayNanos == 0) {
+            return CompletableFuture.completedFuture(RateLimitResult.allowed(0, config.getBurstPermits(), 0));
+        }
+        RateLimitResult result = RateLimitResult.queued(TimeUnit.NANOSECONDS.toMillis(delayNanos));
+        return CompletableFuture.supplyAsync(() -> result,
+                CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS));
     }
 
     /**
@@ -102,8 +139,7 @@ public class RateLimiter {
     public double getCurrentRate() {
         long periodMs = config.getPeriod().toMillis();
         long currentWindow = System.currentTimeMillis() / periodMs;
-        AtomicLong count = windowCounts.get(currentWindow);
-        return count != null ? count.get() * (1000.0 / periodMs) : 0.0;
+        return windowCount(currentWindow) * (1000.0 / periodMs);
     }
 
     /**
@@ -123,8 +159,9 @@ public class RateLimiter {
      * Resets the rate limiter.
      */
     public void reset() {
-        windowCounts.clear();
-        tokenBucket.set(new TokenBucket(config.getBucketCapacity(), System.currentTimeMillis()));
+        windowSlots.set(0, packWindow(-2, 0));
+        windowSlots.set(1, packWindow(-1, 0));
+        theoreticalArrivalTime.set(0);
         totalRequests.set(0);
         allowedRequests.set(0);
         rejectedRequests.set(0);
@@ -134,21 +171,23 @@ public class RateLimiter {
     // Fixed window implementation
     private RateLimitResult tryAcquireFixedWindow(int permits) {
         long periodMs = config.getPeriod().toMillis();
-        long currentWindow = System.currentTimeMillis() / periodMs;
-
-        // Clean up old windows
-        cleanupOldWindows(currentWindow - 2);
+        long now = System.currentTimeMillis();
+        long currentWindow = now / periodMs;
+        long resetIn = (periodMs - (now % periodMs)) / 1000;
+        int slot = (int) (currentWindow & 1);
 
-        AtomicLong counter = windowCounts.computeIfAbsent(currentWindow, k -> new AtomicLong(0));
-        long newCount = counter.addAndGet(permits);
-        long resetIn = (periodMs - (System.currentTimeMillis() % periodMs)) / 1000;
+        while (true) {
+            long packed = windowSlots.get(slot);
+            long count = countIn(packed, currentWindow);
+            long newCount = count + permits;
 
-        if (newCount <= config.getMaxRequests()) {
-            return RateLimitResult.allowed(newCount, config.getMaxRequests(), resetIn);
-        } else {
-            counter.addAndGet(-permits); // Rollback
-            return RateLimitResult.rejected(newCount - permits, config.getMaxRequests(),
-                    resetIn, "Fixed window limit exceeded");
+            if (newCount > config.getMaxRequests()) {
+                return RateLimitResult.rejected(count, config.getMaxRequests(),
+                        resetIn, "Fixed window limit exceeded");
+            }
+            if (windowSlots.compareAndSet(slot, packed, packWindow(currentWindow, newCount))) {
+                return RateLimitResult.allowed(newCount, config.getMaxRequests(), resetIn);
+            }
         }
     }
 
@@ -157,57 +196,44 @@ public class RateLimiter {
         long periodMs = config.getPeriod().toMillis();
         long now = System.currentTimeMillis();
         long currentWindow = now / periodMs;
-        long previousWindow = currentWindow - 1;
-
-        // Clean up old windows
-        cleanupOldWindows(previousWindow - 1);
-
-        AtomicLong currentCounter = windowCounts.computeIfAbsent(currentWindow, k -> new AtomicLong(0));
-        AtomicLong previousCounter = windowCounts.get(previousWindow);
+        long resetIn = (periodMs - (now % periodMs)) / 1000;
+        int slot = (int) (currentWindow & 1);
 
         // Calculate weighted count
         double windowProgress = (double) (now % periodMs) / periodMs;
-        long previousCount = previousCounter != null ? previousCounter.get() : 0;
-        long currentCount = currentCounter.get();
+        long previousCount = windowCount(currentWindow - 1);
 
-        double weightedCount = (previousCount * (1 - windowProgress)) + currentCount;
-        long resetIn = (periodMs - (now % periodMs)) / 1000;
+        while (true) {
+            long packed = windowSlots.get(slot);
+            long currentCount = countIn(packed, currentWindow);
+            double weightedCount = (previousCount * (1 - windowProgress)) + currentCount;
 
-        if (weightedCount + permits <= config.getMaxRequests()) {
-            currentCounter.addAndGet(permits);
-            return RateLimitResult.allowed((long) (weightedCount + permits), config.getMaxRequests(), resetIn);
-        } else {
-            return RateLimitResult.rejected((long) weightedCount, config.getMaxRequests(),
-                    resetIn, "Sliding window limit exceeded");
+            if (weightedCount + permits > config.getMaxRequests()) {
+                return RateLimitResult.rejected((long) weightedCount, config.getMaxRequests(),
+                        resetIn, "Sliding window limit exceeded");
+            }
+            if (windowSlots.compareAndSet(slot, packed, packWindow(currentWindow, currentCount + permits))) {
+                return RateLimitResult.allowed((long) (weightedCount + permits), config.getMaxRequests(), resetIn);
+            }
         }
     }
 
     // Token bucket implementation
     private RateLimitResult tryAcquireTokenBucket(int permits) {
-        while (true) {
-            TokenBucket current = tokenBucket.get();
-            long now = System.currentTimeMillis();
-            long elapsed = now - current.lastRefillTime();
-
-            // Calculate tokens to add
-            double tokensToAdd = elapsed * config.getRefillRate() / 1000.0;
-            double newTokens = Math.min(config.getBucketCapacity(), current.tokens() + tokensToAdd);
-
-            if (newTokens >= permits) {
-                TokenBucket newBucket = new TokenBucket(newTokens - permits, now);
-                if (tokenBucket.compareAndSet(current, newBucket)) {
-                    long resetIn = (long) ((permits - newTokens + permits) / config.getRefillRate());
-                    return RateLimitResult.allowed((long) (config.getBucketCapacity() - newBucket.tokens()),
-                            config.getBucketCapacity(), Math.max(0, resetIn));
-                }
-                // CAS failed, retry
-            } else {
-                // Not enough tokens
-                long waitTime = (long) ((permits - newTokens) / config.getRefillRate() * 1000);
-                return RateLimitResult.rejected((long) (config.getBucketCapacity() - newTokens),
-                        config.getBucketCapacity(), waitTime / 1000, "Insufficient tokens");
-            }
+        long now = System.nanoTime() - bucketOriginNanos;
+        long decision = Gcra.reserve(theoreticalArrivalTime, now, permits,
+                emissionIntervalNanos, burstNanos, 0);
+        int capacity = config.getBucketCapacity();
+
+        if (Gcra.isPermitted(decision)) {
+            long available = Gcra.available(theoreticalArrivalTime.get(), now, emissionIntervalNanos, burstNanos);
+            long resetIn = TimeUnit.NANOSECONDS.toSeconds(theoreticalArrivalTime.get() - now);
+            return RateLimitResult.allowed(capacity - available, capacity, Math.max(0, resetIn));
         }
+
+        long available = Gcra.available(theoreticalArrivalTime.get(), now, emissionIntervalNanos, burstNanos);
+        return RateLimitResult.rejected(capacity - available, capacity,
+                TimeUnit.NANOSECONDS.toSeconds(Gcra.retryAfterNanos(decision)), "Insufficient tokens");
     }
 
     // Leaky bucket implementation (simplified as constant rate)
@@ -217,8 +243,105 @@ public class RateLimiter {
         return tryAcquireTokenBucket(permits);
     }
 
-    private void cleanupOldWindows(long oldestToKeep) {
-        windowCounts.entrySet().removeIf(entry -> entry.getKey() < oldestToKeep);
+    /**
+     * Reserves permits allowing a wait of up to {@code maxQueueWait}.
+     *
+     * @return delay before the permits may be used, or -1 if rejected
+     */
+    private long reserveDelayNanos(int permits) {
+        totalRequests.addAndGet(permits);
+        long maxWaitNanos = config.getMaxQueueWait().toNanos();
+        long delayNanos;
+
+        if (config.getType() == RateLimitType.TOKEN_BUCKET || config.getType() == RateLimitType.LEAKY_BUCKET) {
+            long decision = Gcra.reserve(theoreticalArrivalTime, System.nanoTime() - bucketOriginNanos,
+                    permits, emissionIntervalNanos, burstNanos, maxWaitNanos);
+            delayNanos = Gcra.isPermitted(decision) ? decision : -1;
+        } else {
+            delayNanos = reserveWindowDelayNanos(permits, maxWaitNanos);
+        }
+
+        recordOutcome(delayNanos >= 0, permits);
+        return delayNanos;
+    }
+
+    /**
+     * Windows cannot reserve the future, so a caller that does not fit the
+     * current window is placed in the next one if it starts soon enough.
+     */
+    private long reserveWindowDelayNanos(int permits, long maxWaitNanos) {
+        RateLimitResult immediate = config.getType() == RateLimitType.FIXED_WINDOW
+                ? tryAcquireFixedWindow(permits)
+                : tryAcquireSlidingWindow(permits);
+        if (immediate.isAllowed()) {
+            return 0;
+        }
+
+        long periodMs = config.getPeriod().toMillis();
+        long now = System.currentTimeMillis();
+        long untilNextWindowNanos = TimeUnit.MILLISECONDS.toNanos(periodMs - (now % periodMs));
+        if (untilNextWindowNanos > maxWaitNanos) {
+            return -1;
+        }
+
+        long nextWindow = now / periodMs + 1;
+        int slot = (int) (nextWindow & 1);
+        while (true) {
+            long packed = windowSlots.get(slot);
+            long count = countIn(packed, nextWindow);
+            if (count + permits > config.getMaxRequests()) {
+                return -1;
+            }
+            if (windowSlots.compareAndSet(slot, packed, packWindow(nextWindow, count + permits))) {
+                return untilNextWindowNanos;
+            }
+        }
+    }
+
+    /**
+     * Parks until the full delay has elapsed; parkNanos may return early on
+     * spurious wakeups and returns immediately while the thread is interrupted.
+     */
+    private static void parkUninterruptibly(long delayNanos) {
+        long deadline = System.nanoTime() + delayNanos;
+        boolean interrupted = false;
+        try {
+            long remaining = delayNanos;
+            while (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+                interrupted |= Thread.interrupted();
+                remaining = deadline - System.nanoTime();
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private RateLimitResult rejectedAfterWait(int permits) {
+        return RateLimitResult.rejected(config.getBurstPermits(), config.getBurstPermits(),
+                config.getMaxQueueWait().toSeconds(), "Wait would exceed maximum queue wait");
+    }
+
+    private void recordOutcome(boolean allowed, int permits) {
+        if (allowed) {
+            allowedRequests.addAndGet(permits);
+        } else {
+            rejectedRequests.addAndGet(permits);
+        }
+    }
+
+    private long windowCount(long window) {
+        return countIn(windowSlots.get((int) (window & 1)), window);
+    }
+
+    private static long countIn(long packed, long window) {
+        return (packed >>> 32) == (window & COUNT_MASK) ? packed & COUNT_MASK : 0;
+    }
+
+    private static long packWindow(long window, long count) {
+        return ((window & COUNT_MASK) << 32) | (count & COUNT_MASK);
     }
 
     /**
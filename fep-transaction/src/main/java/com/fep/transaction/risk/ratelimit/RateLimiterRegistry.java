@@ -17,6 +17,7 @@ public class RateLimiterRegistry {
     private static final Logger log = LoggerFactory.getLogger(RateLimiterRegistry.class);
 
     private final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final Map<String, KeyedRateLimiter> keyedRateLimiters = new ConcurrentHashMap<>();
 
     /**
      * Gets or creates a rate limiter with default configuration.
@@ -41,6 +42,36 @@ public class RateLimiterRegistry {
         });
     }
 
+    /**
+     * Gets or creates a per-key rate limiter backed by an in-process store.
+     */
+    public KeyedRateLimiter getOrCreateKeyed(String name, RateLimitConfig config) {
+        return keyedRateLimiters.computeIfAbsent(name, n -> {
+            KeyedRateLimiter rl = new KeyedRateLimiter(config);
+            log.info("Created keyed rate limiter: {} ({} requests per {}, max {} keys)",
+                    n, config.getMaxRequests(), config.getPeriod(), config.getMaxKeys());
+            return rl;
+        });
+    }
+
+    /**
+     * Gets or creates a per-key rate limiter backed by the given state store.
+     */
+    public KeyedRateLimiter getOrCreateKeyed(String name, RateLimitConfig config, RateLimitStateStore store) {
+        return keyedRateLimiters.computeIfAbsent(name, n -> {
+            KeyedRateLimiter rl = new KeyedRateLimiter(config, store);
+            log.info("Created keyed rate limiter: {} with {}", n, store.getClass().getSimpleName());
+            return rl;
+        });
+    }
+
+    /**
+     * Gets an existing per-key rate limiter.
+     */
+    public Optional<KeyedRateLimiter> getKeyed(String name) {
+        return Optional.ofNullable(keyedRateLimiters.get(name));
+    }
+
     /**
      * Gets an existing rate limiter.
      */
@@ -53,7 +84,8 @@ public class RateLimiterRegistry {
      */
     public boolean remove(String name) {
         RateLimiter removed = rateLimiters.remove(name);
-        if (removed != null) {
+        KeyedRateLimiter removedKeyed = keyedRateLimiters.remove(name);
+        if (removed != null || removedKeyed != null) {
             log.info("Removed rate limiter: {}", name);
             return true;
         }
@@ -64,7 +96,9 @@ public class RateLimiterRegistry {
      * Gets all rate limiter names.
      */
     public Set<String> getNames() {
-        return new HashSet<>(rateLimiters.keySet());
+        Set<String> names = new HashSet<>(rateLimiters.keySet());
+        names.addAll(keyedRateLimiters.keySet());
+        return names;
     }
 
     /**
@@ -79,7 +113,8 @@ public class RateLimiterRegistry {
      */
     public void resetAll() {
         rateLimiters.values().forEach(RateLimiter::reset);
-        log.info("Reset all {} rate limiters", rateLimiters.size());
+        keyedRateLimiters.values().forEach(KeyedRateLimiter::reset);
+        log.info("Reset all {} rate limiters", rateLimiters.size() + keyedRateLimiters.size());
     }
 
     /**
@@ -104,6 +139,21 @@ public class RateLimiterRegistry {
         }
         stats.put("limiters", limiterStats);
 
+        Map<String, Map<String, Object>> keyedStats = new HashMap<>();
+        for (Map.Entry<String, KeyedRateLimiter> entry : keyedRateLimiters.entrySet()) {
+            KeyedRateLimiter.KeyedRateLimiterStats klStats = entry.getValue().getStats();
+
+            Map<String, Object> ks = new HashMap<>();
+            ks.put("totalRequests", klStats.totalRequests());
+            ks.put("allowedRequests", klStats.allowedRequests());
+            ks.put("rejectedRequests", klStats.rejectedRequests());
+            ks.put("trackedKeys", klStats.trackedKeys());
+            ks.put("rejectionRate", String.format("%.2f%%", klStats.getRejectionRate()));
+
+            keyedStats.put(entry.getKey(), ks);
+        }
+        stats.put("keyedLimiters", keyedStats);
+
         return stats;
     }
 
@@ -153,7 +203,13 @@ public class RateLimiterRegistry {
                 .period(Duration.ofHours(24))
                 .build());
 
-        log.info("Initialized {} default rate limiters", rateLimiters.size());
+        // Per-key limits (one bucket per terminal, card and bank code)
+        getOrCreateKeyed("per-terminal", RateLimitConfig.perKey("per-terminal", 5, 10));
+        getOrCreateKeyed("per-card", RateLimitConfig.perKey("per-card", 2, 5));
+        getOrCreateKeyed("per-bank", RateLimitConfig.perKey("per-bank", 500, 750));
+
+        log.info("Initialized {} default rate limiters and {} keyed rate limiters",
+                rateLimiters.size(), keyedRateLimiters.size());
     }
 
     /**
@@ -171,4 +227,15 @@ public class RateLimiterRegistry {
         }
         return RateLimitResult.allowed(0, 0, 0);
     }
+
+    /**
+     * Checks if a request for the given key should be allowed by a per-key limiter.
+     */
+    public RateLimitResult checkKeyed(String limiterName, String key) {
+        KeyedRateLimiter limiter = keyedRateLimiters.get(limiterName);
+        if (limiter == null || key == null) {
+            return RateLimitResult.allowed(0, 0, 0);
+        }
+        return limiter.tryAcquire(key);
+    }
 }
@@ -0,0 +1,171 @@
+package com.fep.transaction.routing;
+
+import com.fep.transaction.domain.TransactionRequest;
+import com.fep.transaction.enums.TransactionType;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Immutable decision tree compiled from a set of {@link RoutingRule}s.
+ *
+ * <p>Requests are dispatched by transaction type, then channel, then
+ * destination bank code. Each level has an exact-match table and a wildcard
+ * branch for rules that do not filter on that attribute, and every leaf holds
+ * the rules that can match that combination, already in priority order. Only
+ * the residual checks (active flag and custom condition) are evaluated at
+ * routing time, and only on those candidates.
+ *
+ * <p>Instances are never modified after construction; {@link TransactionRouter}
+ * compiles a new index on every rule change and swaps it in atomically.
+ */
+public final class RoutingIndex {
+
+    private static final CompiledRule[] NO_RULES = new CompiledRule[0];
+
+    private final List<RoutingRule> rules;
+    private final Map<TransactionType, ChannelNode> byType;
+    private final ChannelNode anyType;
+
+    private RoutingIndex(List<RoutingRule> rules, Map<TransactionType, ChannelNode> byType, ChannelNode anyType) {
+        this.rules = rules;
+        this.byType = byType;
+        this.anyType = anyType;
+    }
+
+    /**
+     * Compiles an index from rules; ties in priority keep the given order.
+     *
+     * @param rules the routing rules
+     * @param hitCounter supplies the hit counter of a rule
+     */
+    public static RoutingIndex compile(Collection<RoutingRule> rules, Function<RoutingRule, LongAdder> hitCounter) {
+        List<RoutingRule> sorted = new ArrayList<>(rules);
+        sorted.sort(Comparator.comparingInt(RoutingRule::getPriority));
+
+        List<CompiledRule> compiled = new ArrayList<>(sorted.size());
+        for (RoutingRule rule : sorted) {
+            compiled.add(new CompiledRule(rule, hitCounter.apply(rule)));
+        }
+
+        Map<TransactionType, ChannelNode> byType = new EnumMap<>(TransactionType.class);
+        for (TransactionType type : keysOf(compiled, RoutingRule::getTransactionTypes)) {
+            byType.put(type, ChannelNode.build(
+                    filter(compiled, c -> isWildcard(c.rule().getTransactionTypes())
+                            || c.rule().getTransactionTypes().contains(type))));
+        }
+        ChannelNode anyType = ChannelNode.build(
+                filter(compiled, c -> isWildcard(c.rule().getTransactionTypes())));
+
+        return new RoutingIndex(List.copyOf(sorted), byType, anyType);
+    }
+
+    /**
+     * Finds the highest priority rule matching the request.
+     *
+     * @return the matched rule, or {@code null} if none matches
+     */
+    public RoutingRule match(TransactionRequest request) {
+        TransactionType type = request.getTransactionType();
+        ChannelNode channelNode = type != null ? byType.getOrDefault(type, anyType) : anyType;
+        CompiledRule[] candidates = channelNode.candidates(request.getChannel(), request.getDestinationBankCode());
+
+        for (CompiledRule candidate : candidates) {
+            if (candidate.residualMatches(request)) {
+                candidate.hits().increment();
+                return candidate.rule();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the compiled rules in priority order.
+     */
+    public List<RoutingRule> getRules() {
+        return rules;
+    }
+
+    private static boolean isWildcard(Set<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private static <K> Set<K> keysOf(List<CompiledRule> rules, Function<RoutingRule, Set<K>> attribute) {
+        Set<K> keys = new LinkedHashSet<>();
+        for (CompiledRule c : rules) {
+            Set<K> values = attribute.apply(c.rule());
+            if (!isWildcard(values)) {
+                keys.addAll(values);
+            }
+        }
+        return keys;
+    }
+
+    private static List<CompiledRule> filter(List<CompiledRule> rules, Predicate<CompiledRule> predicate) {
+        List<CompiledRule> result = new ArrayList<>();
+        for (CompiledRule c : rules) {
+            if (predicate.test(c)) {
+                result.add(c);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Second level: dispatch by channel.
+     */
+    private record ChannelNode(Map<String, BankNode> byChannel, BankNode anyChannel) {
+
+        static ChannelNode build(List<CompiledRule> rules) {
+            Map<String, BankNode> byChannel = new HashMap<>();
+            for (String channel : keysOf(rules, RoutingRule::getChannels)) {
+                byChannel.put(channel, BankNode.build(
+                        filter(rules, c -> isWildcard(c.rule().getChannels())
+                                || c.rule().getChannels().contains(channel))));
+            }
+            BankNode anyChannel = BankNode.build(filter(rules, c -> isWildcard(c.rule().getChannels())));
+            return new ChannelNode(Map.copyOf(byChannel), anyChannel);
+        }
+
+        CompiledRule[] candidates(String channel, String bankCode) {
+            BankNode bankNode = channel != null ? byChannel.getOrDefault(channel, anyChannel) : anyChannel;
+            return bankNode.candidates(bankCode);
+        }
+    }
+
+    /**
+     * Third level: dispatch by destination bank code into priority-ordered leaves.
+     */
+    private record BankNode(Map<String, CompiledRule[]> byBank, CompiledRule[] anyBank) {
+
+        static BankNode build(List<CompiledRule> rules) {
+            Map<String, CompiledRule[]> byBank = new HashMap<>();
+            for (String bankCode : keysOf(rules, RoutingRule::getBankCodes)) {
+                byBank.put(bankCode, filter(rules, c -> isWildcard(c.rule().getBankCodes())
+                        || c.rule().getBankCodes().contains(bankCode)).toArray(NO_RULES));
+            }
+            CompiledRule[] anyBank = filter(rules, c -> isWildcard(c.rule().getBankCodes())).toArray(NO_RULES);
+            return new BankNode(Map.copyOf(byBank), anyBank);
+        }
+
+        CompiledRule[] candidates(String bankCode) {
+            return bankCode != null ? byBank.getOrDefault(bankCode, anyBank) : anyBank;
+        }
+    }
+
+    /**
+     * A rule together with its hit counter.
+     */
+    private record CompiledRule(RoutingRule rule, LongAdder hits) {
+
+        boolean residualMatches(TransactionRequest request) {
+            if (!rule.isActive()) {
+                return false;
+            }
+            Predicate<TransactionRequest> condition = rule.getCondition();
+            return condition == null || condition.test(request);
+        }
+    }
+}
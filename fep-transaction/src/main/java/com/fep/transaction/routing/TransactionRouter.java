@@ -6,20 +6,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Routes transactions to appropriate destinations based on configurable rules.
+ *
+ * <p>Rules are compiled into an immutable {@link RoutingIndex} that is replaced
+ * copy-on-write whenever rules change, so {@link #route} never locks and always
+ * sees a consistent rule set while rules are hot-updated.
  */
 public class TransactionRouter {
 
     private static final Logger log = LoggerFactory.getLogger(TransactionRouter.class);
 
+    /** Hit counter key for transactions routed to the default destination */
+    public static final String DEFAULT_ROUTE = "default";
+
+    // Rules in insertion order; guarded by this router's monitor
     private final List<RoutingRule> rules;
-    private RoutingDestination defaultDestination;
+    private final Map<String, LongAdder> hitCounters = new ConcurrentHashMap<>();
+    private final LongAdder defaultHits = new LongAdder();
+    private volatile RoutingIndex index;
+    private volatile RoutingDestination defaultDestination;
 
     public TransactionRouter() {
         this.rules = new ArrayList<>();
         this.defaultDestination = RoutingDestination.MAINFRAME_CBS;
+        this.index = RoutingIndex.compile(rules, this::hitCounterFor);
         initializeDefaultRules();
     }
 
@@ -101,18 +115,44 @@ public class TransactionRouter {
     /**
      * Adds a routing rule.
      */
-    public void addRule(RoutingRule rule) {
+    public synchronized void addRule(RoutingRule rule) {
         rules.add(rule);
-        // Keep rules sorted by priority
-        rules.sort(Comparator.comparingInt(RoutingRule::getPriority));
+        recompile();
         log.debug("Added routing rule: {} -> {}", rule.getRuleName(), rule.getDestination());
     }
 
     /**
      * Removes a routing rule by name.
      */
-    public boolean removeRule(String ruleName) {
-        return rules.removeIf(r -> ruleName.equals(r.getRuleName()));
+    public synchronized boolean removeRule(String ruleName) {
+        boolean removed = rules.removeIf(r -> ruleName.equals(r.getRuleName()));
+        if (removed) {
+            hitCounters.remove(ruleName);
+            recompile();
+        }
+        return removed;
+    }
+
+    /**
+     * Replaces all routing rules in one atomic swap.
+     */
+    public synchronized void replaceRules(Collection<RoutingRule> newRules) {
+        rules.clear();
+        rules.addAll(newRules);
+        hitCounters.keySet().retainAll(newRules.stream().map(this::hitCounterKey).toList());
+        recompile();
+        log.info("Replaced routing rules: {} rules", rules.size());
+    }
+
+    /**
+     * Recompiles the routing index.
+     *
+     * <p>Call after changing the type, channel or bank code filters of a rule
+     * that is already registered; active flags and conditions are evaluated
+     * per request and need no refresh.
+     */
+    public synchronized void refresh() {
+        recompile();
     }
 
     /**
@@ -125,16 +165,17 @@ public class TransactionRouter {
         log.debug("[{}] Routing transaction type: {}", txnId, txnType);
 
         // Find matching rule
-        for (RoutingRule rule : rules) {
-            if (rule.matches(request)) {
-                log.info("[{}] Matched rule '{}' -> {} (timeout: {}ms)",
-                        txnId, rule.getRuleName(), rule.getDestination(), rule.getTimeoutMs());
-                return RoutingResult.success(rule);
-            }
+        RoutingRule rule = index.match(request);
+        if (rule != null) {
+            log.info("[{}] Matched rule '{}' -> {} (timeout: {}ms)",
+                    txnId, rule.getRuleName(), rule.getDestination(), rule.getTimeoutMs());
+            return RoutingResult.success(rule);
         }
 
         // No specific rule matched, use default
+        RoutingDestination defaultDestination = this.defaultDestination;
         if (defaultDestination != null) {
+            defaultHits.increment();
             log.info("[{}] No specific rule matched, using default: {}", txnId, defaultDestination);
             return RoutingResult.builder()
                     .routed(true)
@@ -158,15 +199,50 @@ public class TransactionRouter {
      * Gets the number of routing rules.
      */
     public int getRuleCount() {
-        return rules.size();
+        return index.getRules().size();
     }
 
     /**
      * Gets all active rules.
      */
     public List<RoutingRule> getActiveRules() {
-        return rules.stream()
+        return index.getRules().stream()
                 .filter(RoutingRule::isActive)
                 .toList();
     }
+
+    /**
+     * Gets the number of transactions matched by each rule, plus those routed
+     * to the default destination under {@link #DEFAULT_ROUTE}.
+     */
+    public Map<String, Long> getRuleHitCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (RoutingRule rule : index.getRules()) {
+            counts.put(hitCounterKey(rule), hitCounterFor(rule).sum());
+        }
+        counts.put(DEFAULT_ROUTE, defaultHits.sum());
+        return counts;
+    }
+
+    /**
+     * Resets all rule hit counters.
+     */
+    public void resetHitCounts() {
+        hitCounters.values().forEach(LongAdder::reset);
+        defaultHits.reset();
+    }
+
+    private void recompile() {
+        index = RoutingIndex.compile(rules, this::hitCounterFor);
+    }
+
+    private LongAdder hitCounterFor(RoutingRule rule) {
+        return hitCounters.computeIfAbsent(hitCounterKey(rule), k -> new LongAdder());
+    }
+
+    private String hitCounterKey(RoutingRule rule) {
+        return rule.getRuleName() != null
+                ? rule.getRuleName()
+                : "rule@" + Integer.toHexString(System.identityHashCode(rule));
+    }
 }
@@ -0,0 +1,64 @@
+package com.fep.transaction.validator;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Source of designated (約定) account relationships, normally the core banking system.
+ *
+ * <p>{@link DesignatedAccountValidator} caches the loaded sets and refreshes them
+ * ahead of expiry, so implementations may block on a remote call.
+ */
+@FunctionalInterface
+public interface DesignatedAccountProvider {
+
+    /**
+     * Loads all designated destination accounts for a source account.
+     *
+     * @param sourceAccount the source account
+     * @return designated destination accounts, empty if none
+     */
+    Set<String> loadDesignatedAccounts(String sourceAccount);
+
+    /**
+     * Registers a relationship with the source system. The core system is
+     * normally authoritative, so the default does nothing.
+     */
+    default void register(String sourceAccount, String destinationAccount) {
+    }
+
+    /**
+     * Removes a relationship from the source system. The default does nothing.
+     */
+    default void remove(String sourceAccount, String destinationAccount) {
+    }
+
+    /**
+     * Creates a provider that keeps relationships in memory, for tests and
+     * deployments without a core system connection.
+     */
+    static DesignatedAccountProvider inMemory() {
+        return new DesignatedAccountProvider() {
+            private final ConcurrentHashMap<String, Set<String>> accounts = new ConcurrentHashMap<>();
+
+            @Override
+            public Set<String> loadDesignatedAccounts(String sourceAccount) {
+                return accounts.getOrDefault(sourceAccount, Set.of());
+            }
+
+            @Override
+            public void register(String sourceAccount, String destinationAccount) {
+                accounts.computeIfAbsent(sourceAccount, k -> ConcurrentHashMap.newKeySet())
+                        .add(destinationAccount);
+            }
+
+            @Override
+            public void remove(String sourceAccount, String destinationAccount) {
+                accounts.computeIfPresent(sourceAccount, (k, set) -> {
+                    set.remove(destinationAccount);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        };
+    }
+}
@@ -3,14 +3,28 @@ package com.fep.transaction.validator;
 import com.fep.transaction.domain.TransactionRequest;
 import com.fep.transaction.enums.TransactionType;
 import com.fep.transaction.exception.TransactionException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Supplier;
 
 /**
  * Validator for designated vs non-designated account transfers (約定/非約定轉帳驗證).
@@ -20,6 +34,14 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>Designated (約定) accounts: Pre-registered recipient accounts with higher limits</li>
  *   <li>Non-designated (非約定) accounts: Any recipient account with lower limits</li>
  * </ul>
+ *
+ * <p>Designated account sets are loaded through a {@link DesignatedAccountProvider}
+ * into a bounded refresh-ahead cache. Daily totals live in a ledger keyed by source
+ * account; each entry belongs to one business date and is replaced lazily on the
+ * first access after the date changes. The ledger never evicts a total of the
+ * current business date: when it is full, entries from earlier dates are purged
+ * and, if that frees nothing, new accounts are rejected rather than tracked
+ * without a limit.
  */
 public class DesignatedAccountValidator implements TransactionValidator {
 
@@ -40,6 +62,10 @@ public class DesignatedAccountValidator implements TransactionValidator {
     /** Daily designated transfer limit */
     private static final BigDecimal DAILY_DESIGNATED_LIMIT = new BigDecimal("10000000");
 
+    private static final long DAILY_NON_DESIGNATED_LIMIT_CENTS = toCents(DAILY_NON_DESIGNATED_LIMIT);
+
+    private static final long DAILY_DESIGNATED_LIMIT_CENTS = toCents(DAILY_DESIGNATED_LIMIT);
+
     /** Night time restriction start (11 PM) */
     private static final LocalTime NIGHT_START = LocalTime.of(23, 0);
 
@@ -63,44 +89,213 @@ public class DesignatedAccountValidator implements TransactionValidator {
             "COUNTER", new BigDecimal("100000")
     );
 
-    /** Simulated designated account registry (customerId -> Set of designated accounts) */
-    private final Map<String, Set<String>> designatedAccounts = new ConcurrentHashMap<>();
+    /** Default refresh-ahead interval for designated account sets */
+    private static final Duration DEFAULT_DESIGNATED_REFRESH = Duration.ofMinutes(5);
+
+    /** Designated account sets idle longer than this are evicted */
+    private static final Duration DESIGNATED_IDLE_EXPIRY = Duration.ofMinutes(30);
 
-    /** Track daily transfer amounts (sourceAccount -> daily total) */
-    private final Map<String, DailyTransferTracker> dailyTransfers = new ConcurrentHashMap<>();
+    /** Maximum number of source accounts with a cached designated set */
+    private static final long MAX_DESIGNATED_ENTRIES = 200_000;
+
+    /**
+     * Ledger entries idle longer than this are dropped. This is longer than a business
+     * day, so only entries of earlier dates expire; a total recorded today is kept
+     * for the rest of the day however long it sits idle.
+     */
+    private static final Duration LEDGER_IDLE_EXPIRY = Duration.ofHours(48);
 
     /**
-     * Daily transfer tracking information.
+     * Default number of source accounts the daily ledger admits. This is an admission
+     * limit, not an eviction size: once reached, new accounts are rejected until
+     * totals from earlier business dates can be purged.
+     */
+    static final long DEFAULT_MAX_LEDGER_ENTRIES = 2_000_000;
+
+    private final DesignatedAccountProvider accountProvider;
+
+    /** Designated account sets (sourceAccount -> immutable hashed set), refreshed ahead of expiry */
+    private final LoadingCache<String, Set<String>> designatedAccounts;
+
+    /** Daily transfer ledger (sourceAccount -> tracker for one business date) */
+    private final Cache<String, DailyTransferTracker> dailyTransfers;
+
+    private final Supplier<LocalDate> businessDate;
+
+    /** Ledger admission limit */
+    private final long maxLedgerEntries;
+
+    /** Bumped by {@link #resetDailyLimits()} so every tracker rolls over lazily */
+    private final AtomicInteger resetGeneration = new AtomicInteger();
+
+    /**
+     * Daily transfer tracking information for one source account and business date.
+     *
+     * <p>Totals are kept in cents and updated by CAS, so recording a transfer
+     * neither locks nor allocates. A tracker never changes business date; a new
+     * one replaces it on the first access after rollover.
      */
     public static class DailyTransferTracker {
-        private BigDecimal designatedTotal = BigDecimal.ZERO;
-        private BigDecimal nonDesignatedTotal = BigDecimal.ZERO;
-        private int designatedCount = 0;
-        private int nonDesignatedCount = 0;
+        private static final AtomicLongFieldUpdater<DailyTransferTracker> DESIGNATED_CENTS =
+                AtomicLongFieldUpdater.newUpdater(DailyTransferTracker.class, "designatedCents");
+        private static final AtomicLongFieldUpdater<DailyTransferTracker> NON_DESIGNATED_CENTS =
+                AtomicLongFieldUpdater.newUpdater(DailyTransferTracker.class, "nonDesignatedCents");
+        private static final AtomicIntegerFieldUpdater<DailyTransferTracker> DESIGNATED_COUNT =
+                AtomicIntegerFieldUpdater.newUpdater(DailyTransferTracker.class, "designatedCount");
+        private static final AtomicIntegerFieldUpdater<DailyTransferTracker> NON_DESIGNATED_COUNT =
+                AtomicIntegerFieldUpdater.newUpdater(DailyTransferTracker.class, "nonDesignatedCount");
+
+        private final LocalDate businessDate;
+        private final int generation;
+        private volatile long designatedCents;
+        private volatile long nonDesignatedCents;
+        private volatile int designatedCount;
+        private volatile int nonDesignatedCount;
+
+        public DailyTransferTracker() {
+            this(LocalDate.now(), 0);
+        }
+
+        DailyTransferTracker(LocalDate businessDate, int generation) {
+            this.businessDate = businessDate;
+            this.generation = generation;
+        }
+
+        public void addDesignated(BigDecimal amount) {
+            addDesignatedCents(toCents(amount));
+        }
 
-        public synchronized void addDesignated(BigDecimal amount) {
-            designatedTotal = designatedTotal.add(amount);
-            designatedCount++;
+        public void addNonDesignated(BigDecimal amount) {
+            addNonDesignatedCents(toCents(amount));
         }
 
-        public synchronized void addNonDesignated(BigDecimal amount) {
-            nonDesignatedTotal = nonDesignatedTotal.add(amount);
-            nonDesignatedCount++;
+        void addDesignatedCents(long cents) {
+            DESIGNATED_CENTS.getAndAdd(this, cents);
+            DESIGNATED_COUNT.incrementAndGet(this);
         }
 
-        public BigDecimal getDesignatedTotal() { return designatedTotal; }
-        public BigDecimal getNonDesignatedTotal() { return nonDesignatedTotal; }
+        void addNonDesignatedCents(long cents) {
+            NON_DESIGNATED_CENTS.getAndAdd(this, cents);
+            NON_DESIGNATED_COUNT.incrementAndGet(this);
+        }
+
+        /**
+         * Adds to the designated total only if the daily limit still holds afterwards.
+         *
+         * @return true if the amount was recorded
+         */
+        boolean tryAddDesignatedCents(long cents, long limitCents) {
+            if (!tryAdd(DESIGNATED_CENTS, cents, limitCents)) {
+                return false;
+            }
+            DESIGNATED_COUNT.incrementAndGet(this);
+            return true;
+        }
+
+        /**
+         * Adds to the non-designated total only if the daily limit still holds afterwards.
+         *
+         * @return true if the amount was recorded
+         */
+        boolean tryAddNonDesignatedCents(long cents, long limitCents) {
+            if (!tryAdd(NON_DESIGNATED_CENTS, cents, limitCents)) {
+                return false;
+            }
+            NON_DESIGNATED_COUNT.incrementAndGet(this);
+            return true;
+        }
+
+        private boolean tryAdd(AtomicLongFieldUpdater<DailyTransferTracker> total, long cents, long limitCents) {
+            long current;
+            do {
+                current = total.get(this);
+                if (current + cents > limitCents) {
+                    return false;
+                }
+            } while (!total.compareAndSet(this, current, current + cents));
+            return true;
+        }
+
+        public BigDecimal getDesignatedTotal() { return fromCents(designatedCents); }
+        public BigDecimal getNonDesignatedTotal() { return fromCents(nonDesignatedCents); }
         public int getDesignatedCount() { return designatedCount; }
         public int getNonDesignatedCount() { return nonDesignatedCount; }
+        public LocalDate getBusinessDate() { return businessDate; }
+
+        long getDesignatedCents() { return designatedCents; }
+        long getNonDesignatedCents() { return nonDesignatedCents; }
+
+        boolean isCurrent(LocalDate date, int resetGeneration) {
+            return generation == resetGeneration && businessDate.equals(date);
+        }
 
         public void reset() {
-            designatedTotal = BigDecimal.ZERO;
-            nonDesignatedTotal = BigDecimal.ZERO;
-            designatedCount = 0;
-            nonDesignatedCount = 0;
+            DESIGNATED_CENTS.set(this, 0);
+            NON_DESIGNATED_CENTS.set(this, 0);
+            DESIGNATED_COUNT.set(this, 0);
+            NON_DESIGNATED_COUNT.set(this, 0);
         }
     }
 
+    /**
+     * Ledger and designated account cache statistics.
+     */
+    public record DesignatedAccountStats(
+            long ledgerAccounts,
+            long designatedCacheSize,
+            long designatedHits,
+            long designatedMisses,
+            double designatedHitRate,
+            long designatedLoadFailures
+    ) {}
+
+    /**
+     * Creates a validator backed by an in-memory designated account registry.
+     */
+    public DesignatedAccountValidator() {
+        this(DesignatedAccountProvider.inMemory());
+    }
+
+    /**
+     * Creates a validator that loads designated accounts from the given provider.
+     *
+     * @param accountProvider the designated account source, normally the core system
+     */
+    public DesignatedAccountValidator(DesignatedAccountProvider accountProvider) {
+        this(accountProvider, LocalDate::now, DEFAULT_DESIGNATED_REFRESH, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    DesignatedAccountValidator(DesignatedAccountProvider accountProvider,
+                               Supplier<LocalDate> businessDate,
+                               Duration designatedRefresh,
+                               Ticker ticker,
+                               Executor refreshExecutor) {
+        this(accountProvider, businessDate, designatedRefresh, ticker, refreshExecutor, DEFAULT_MAX_LEDGER_ENTRIES);
+    }
+
+    DesignatedAccountValidator(DesignatedAccountProvider accountProvider,
+                               Supplier<LocalDate> businessDate,
+                               Duration designatedRefresh,
+                               Ticker ticker,
+                               Executor refreshExecutor,
+                               long maxLedgerEntries) {
+        this.accountProvider = accountProvider;
+        this.businessDate = businessDate;
+        this.maxLedgerEntries = maxLedgerEntries;
+        this.designatedAccounts = Caffeine.newBuilder()
+                .maximumSize(MAX_DESIGNATED_ENTRIES)
+                .refreshAfterWrite(designatedRefresh)
+                .expireAfterAccess(DESIGNATED_IDLE_EXPIRY)
+                .ticker(ticker)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(this::loadDesignatedAccounts);
+        this.dailyTransfers = Caffeine.newBuilder()
+                .expireAfterAccess(LEDGER_IDLE_EXPIRY)
+                .ticker(ticker)
+                .build();
+    }
+
     @Override
     public void validate(TransactionRequest request) {
         // Only validate applicable transaction types
@@ -149,19 +344,20 @@ public class DesignatedAccountValidator implements TransactionValidator {
         }
 
         // Check daily limit
-        DailyTransferTracker tracker = getOrCreateTracker(request.getSourceAccount());
-        BigDecimal projectedTotal = tracker.getDesignatedTotal().add(amount);
+        DailyTransferTracker tracker = currentTracker(request.getSourceAccount());
+        long usedCents = tracker != null ? tracker.getDesignatedCents() : 0;
+        long projectedCents = usedCents + toCents(amount);
 
-        if (projectedTotal.compareTo(DAILY_DESIGNATED_LIMIT) > 0) {
+        if (projectedCents > DAILY_DESIGNATED_LIMIT_CENTS) {
             throw TransactionException.invalidRequest(
                     "Exceeds daily designated transfer limit (remaining: " +
-                    DAILY_DESIGNATED_LIMIT.subtract(tracker.getDesignatedTotal()) + " TWD)");
+                    fromCents(DAILY_DESIGNATED_LIMIT_CENTS - usedCents) + " TWD)");
         }
 
         log.debug("[{}] Designated transfer validated: amount={}, daily total={}",
                 request.getTransactionId(),
                 amount,
-                projectedTotal);
+                fromCents(projectedCents));
     }
 
     /**
@@ -189,20 +385,21 @@ public class DesignatedAccountValidator implements TransactionValidator {
         }
 
         // Check daily limit
-        DailyTransferTracker tracker = getOrCreateTracker(request.getSourceAccount());
-        BigDecimal projectedTotal = tracker.getNonDesignatedTotal().add(amount);
+        DailyTransferTracker tracker = currentTracker(request.getSourceAccount());
+        long usedCents = tracker != null ? tracker.getNonDesignatedCents() : 0;
+        long projectedCents = usedCents + toCents(amount);
 
-        if (projectedTotal.compareTo(DAILY_NON_DESIGNATED_LIMIT) > 0) {
+        if (projectedCents > DAILY_NON_DESIGNATED_LIMIT_CENTS) {
             throw TransactionException.invalidRequest(
                     "Exceeds daily non-designated transfer limit (remaining: " +
-                    DAILY_NON_DESIGNATED_LIMIT.subtract(tracker.getNonDesignatedTotal()) + " TWD)");
+                    fromCents(DAILY_NON_DESIGNATED_LIMIT_CENTS - usedCents) + " TWD)");
         }
 
         log.debug("[{}] Non-designated transfer validated: amount={}, channel limit={}, daily total={}",
                 request.getTransactionId(),
                 amount,
                 channelLimit,
-                projectedTotal);
+                fromCents(projectedCents));
     }
 
     /**
@@ -225,8 +422,7 @@ public class DesignatedAccountValidator implements TransactionValidator {
      * Checks if the destination account is designated for the source account.
      */
     public boolean isDesignatedAccount(String sourceAccount, String destinationAccount) {
-        Set<String> designated = designatedAccounts.get(sourceAccount);
-        return designated != null && designated.contains(destinationAccount);
+        return getDesignatedAccounts(sourceAccount).contains(destinationAccount);
     }
 
     /**
@@ -236,8 +432,16 @@ public class DesignatedAccountValidator implements TransactionValidator {
      * @param destinationAccount the destination account to designate
      */
     public void registerDesignatedAccount(String sourceAccount, String destinationAccount) {
-        designatedAccounts.computeIfAbsent(sourceAccount, k -> ConcurrentHashMap.newKeySet())
-                .add(destinationAccount);
+        accountProvider.register(sourceAccount, destinationAccount);
+        designatedAccounts.asMap().compute(sourceAccount, (k, current) -> {
+            Set<String> base = current != null ? current : loadDesignatedAccounts(k);
+            if (base.contains(destinationAccount)) {
+                return base;
+            }
+            Set<String> updated = new HashSet<>(base);
+            updated.add(destinationAccount);
+            return Set.copyOf(updated);
+        });
         log.info("Registered designated account: {} -> {}",
                 maskAccount(sourceAccount), maskAccount(destinationAccount));
     }
@@ -249,9 +453,16 @@ public class DesignatedAccountValidator implements TransactionValidator {
      * @param destinationAccount the destination account to remove
      */
     public void removeDesignatedAccount(String sourceAccount, String destinationAccount) {
-        Set<String> designated = designatedAccounts.get(sourceAccount);
-        if (designated != null) {
-            designated.remove(destinationAccount);
+        accountProvider.remove(sourceAccount, destinationAccount);
+        Set<String> updated = designatedAccounts.asMap().computeIfPresent(sourceAccount, (k, current) -> {
+            if (!current.contains(destinationAccount)) {
+                return current;
+            }
+            Set<String> copy = new HashSet<>(current);
+            copy.remove(destinationAccount);
+            return Set.copyOf(copy);
+        });
+        if (updated != null) {
             log.info("Removed designated account: {} -> {}",
                     maskAccount(sourceAccount), maskAccount(destinationAccount));
         }
@@ -260,11 +471,34 @@ public class DesignatedAccountValidator implements TransactionValidator {
     /**
      * Gets all designated accounts for a source account.
      *
+     * <p>The set is served from cache and reloaded from the provider in the
+     * background once it is older than the refresh interval. If the provider
+     * fails on first load the account is treated as having no designated
+     * accounts, so the lower non-designated limits apply.
+     *
      * @param sourceAccount the source account
      * @return set of designated destination accounts
      */
     public Set<String> getDesignatedAccounts(String sourceAccount) {
-        return designatedAccounts.getOrDefault(sourceAccount, Set.of());
+        if (sourceAccount == null) {
+            return Set.of();
+        }
+        try {
+            return designatedAccounts.get(sourceAccount);
+        } catch (RuntimeException e) {
+            log.warn("Failed to load designated accounts for {}: {}",
+                    maskAccount(sourceAccount), e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * Drops the cached designated accounts so the next lookup reloads them.
+     *
+     * @param sourceAccount the source account
+     */
+    public void invalidateDesignatedAccounts(String sourceAccount) {
+        designatedAccounts.invalidate(sourceAccount);
     }
 
     /**
@@ -277,35 +511,142 @@ public class DesignatedAccountValidator implements TransactionValidator {
     public void recordTransfer(String sourceAccount, BigDecimal amount, boolean isDesignated) {
         DailyTransferTracker tracker = getOrCreateTracker(sourceAccount);
         if (isDesignated) {
-            tracker.addDesignated(amount);
+            tracker.addDesignatedCents(toCents(amount));
         } else {
-            tracker.addNonDesignated(amount);
+            tracker.addNonDesignatedCents(toCents(amount));
         }
     }
 
+    /**
+     * Records a transfer only if it keeps the account within its daily limit.
+     *
+     * <p>The check and the update are a single CAS, so concurrent transfers
+     * from the same account cannot together exceed the limit.
+     *
+     * @param sourceAccount the source account
+     * @param amount the transfer amount
+     * @param isDesignated whether it's a designated transfer
+     * @return true if recorded, false if the daily limit would be exceeded
+     */
+    public boolean tryRecordTransfer(String sourceAccount, BigDecimal amount, boolean isDesignated) {
+        DailyTransferTracker tracker = getOrCreateTracker(sourceAccount);
+        long cents = toCents(amount);
+        return isDesignated
+                ? tracker.tryAddDesignatedCents(cents, DAILY_DESIGNATED_LIMIT_CENTS)
+                : tracker.tryAddNonDesignatedCents(cents, DAILY_NON_DESIGNATED_LIMIT_CENTS);
+    }
+
     /**
      * Gets daily transfer statistics for an account.
      *
      * @param sourceAccount the source account
-     * @return the daily transfer tracker
+     * @return the tracker for the current business date, or null if the account is not tracked
      */
     public DailyTransferTracker getDailyTransferStats(String sourceAccount) {
-        return dailyTransfers.get(sourceAccount);
+        if (dailyTransfers.getIfPresent(sourceAccount) == null) {
+            return null;
+        }
+        return getOrCreateTracker(sourceAccount);
     }
 
     /**
-     * Resets daily limits (should be called at day boundary).
+     * Resets daily limits for all accounts.
+     *
+     * <p>Trackers also roll over on their own when the business date changes;
+     * this forces an early rollover. It only bumps a generation counter, and each
+     * tracker is replaced on its next access.
      */
     public void resetDailyLimits() {
-        dailyTransfers.values().forEach(DailyTransferTracker::reset);
-        log.info("Daily transfer limits reset for {} accounts", dailyTransfers.size());
+        resetGeneration.incrementAndGet();
+        log.info("Daily transfer limits reset for {} accounts", dailyTransfers.estimatedSize());
+    }
+
+    /**
+     * Gets ledger size and designated account cache metrics.
+     */
+    public DesignatedAccountStats getStats() {
+        CacheStats stats = designatedAccounts.stats();
+        return new DesignatedAccountStats(
+                dailyTransfers.estimatedSize(),
+                designatedAccounts.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.loadFailureCount());
     }
 
     /**
-     * Gets or creates a daily tracker for the account.
+     * Gets the tracker for the current business date, or null if the account
+     * has nothing recorded for that date. Never creates an entry.
+     */
+    private DailyTransferTracker currentTracker(String sourceAccount) {
+        DailyTransferTracker tracker = dailyTransfers.getIfPresent(sourceAccount);
+        if (tracker == null || !tracker.isCurrent(businessDate.get(), resetGeneration.get())) {
+            return null;
+        }
+        return tracker;
+    }
+
+    /**
+     * Gets or creates the daily tracker for the account, rolling over a tracker
+     * left from an earlier business date or reset generation.
      */
     private DailyTransferTracker getOrCreateTracker(String sourceAccount) {
-        return dailyTransfers.computeIfAbsent(sourceAccount, k -> new DailyTransferTracker());
+        LocalDate today = businessDate.get();
+        int generation = resetGeneration.get();
+        if (dailyTransfers.getIfPresent(sourceAccount) == null) {
+            ensureLedgerCapacity(today, generation);
+        }
+        DailyTransferTracker tracker = dailyTransfers.get(sourceAccount, k -> new DailyTransferTracker(today, generation));
+        if (tracker.isCurrent(today, generation)) {
+            return tracker;
+        }
+        return dailyTransfers.asMap().compute(sourceAccount, (k, current) ->
+                current != null && current.isCurrent(today, generation)
+                        ? current
+                        : new DailyTransferTracker(today, generation));
+    }
+
+    /**
+     * Makes room for a new account in the ledger. Totals of the current business
+     * date are never evicted; if the ledger is still full after purging earlier
+     * dates, the transfer is rejected so the daily limit cannot be bypassed.
+     */
+    private void ensureLedgerCapacity(LocalDate today, int generation) {
+        if (dailyTransfers.estimatedSize() < maxLedgerEntries) {
+            return;
+        }
+        synchronized (dailyTransfers) {
+            dailyTransfers.cleanUp();
+            if (dailyTransfers.estimatedSize() < maxLedgerEntries) {
+                return;
+            }
+            dailyTransfers.asMap().values().removeIf(tracker -> !tracker.isCurrent(today, generation));
+            if (dailyTransfers.estimatedSize() >= maxLedgerEntries) {
+                log.error("Daily transfer ledger full ({} accounts on {}); rejecting new account",
+                        dailyTransfers.estimatedSize(), today);
+                throw TransactionException.systemError("Daily transfer ledger is full");
+            }
+        }
+    }
+
+    private Set<String> loadDesignatedAccounts(String sourceAccount) {
+        Set<String> loaded = accountProvider.loadDesignatedAccounts(sourceAccount);
+        return loaded == null || loaded.isEmpty() ? Set.of() : Set.copyOf(loaded);
+    }
+
+    /**
+     * Converts an amount to whole cents.
+     */
+    static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Converts cents back to an amount, dropping the fraction when it is zero.
+     */
+    static BigDecimal fromCents(long cents) {
+        return cents % 100 == 0 ? BigDecimal.valueOf(cents / 100) : BigDecimal.valueOf(cents, 2);
     }
 
     /**
@@ -6,6 +6,8 @@ import com.fep.transaction.domain.TransactionRequest;
 import com.fep.transaction.domain.TransactionResponse;
 import com.fep.transaction.enums.TransactionType;
 import com.fep.transaction.service.TransactionService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
 import org.junit.jupiter.api.*;
 
 import java.math.BigDecimal;
@@ -42,7 +44,8 @@ class PerformanceStressTest {
         final AtomicLong totalTransactions = new AtomicLong(0);
         final AtomicLong successfulTransactions = new AtomicLong(0);
         final AtomicLong failedTransactions = new AtomicLong(0);
-        final List<Long> responseTimes = new CopyOnWriteArrayList<>();
+        // Wait-free recording; a copy-on-write list copied the whole array on every add
+        final Histogram responseTimes = new ConcurrentHistogram(TimeUnit.MINUTES.toMillis(1), 3);
         final AtomicLong totalProcessingTime = new AtomicLong(0);
 
         void recordTransaction(boolean success, long processingTimeMs) {
@@ -52,7 +55,7 @@ class PerformanceStressTest {
             } else {
                 failedTransactions.incrementAndGet();
             }
-            responseTimes.add(processingTimeMs);
+            responseTimes.recordValue(Math.min(processingTimeMs, responseTimes.getHighestTrackableValue()));
             totalProcessingTime.addAndGet(processingTimeMs);
         }
 
@@ -68,24 +71,19 @@ class PerformanceStressTest {
         }
 
         double getAverageResponseTime() {
-            if (responseTimes.isEmpty()) return 0.0;
-            return responseTimes.stream().mapToLong(Long::longValue).average().orElse(0.0);
+            return responseTimes.getTotalCount() == 0 ? 0.0 : responseTimes.getMean();
         }
 
         long getPercentile(double percentile) {
-            if (responseTimes.isEmpty()) return 0L;
-            List<Long> sorted = new ArrayList<>(responseTimes);
-            Collections.sort(sorted);
-            int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
-            return sorted.get(Math.max(0, index));
+            return responseTimes.getValueAtPercentile(percentile);
         }
 
         long getMinResponseTime() {
-            return responseTimes.stream().mapToLong(Long::longValue).min().orElse(0L);
+            return responseTimes.getTotalCount() == 0 ? 0L : responseTimes.getMinValue();
         }
 
         long getMaxResponseTime() {
-            return responseTimes.stream().mapToLong(Long::longValue).max().orElse(0L);
+            return responseTimes.getMaxValue();
         }
     }
 
@@ -6,8 +6,16 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -236,6 +244,38 @@ class CircuitBreakerTest {
             assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
         }
 
+        @Test
+        @DisplayName("Should not count rejected attempts as half-open trial calls")
+        void shouldNotCountRejectedHalfOpenAttempts() throws InterruptedException {
+            // Open the circuit
+            for (int i = 0; i < 5; i++) {
+                try {
+                    circuitBreaker.execute(() -> {
+                        throw new RuntimeException("Failure");
+                    });
+                } catch (RuntimeException ignored) {}
+            }
+            Thread.sleep(600);
+
+            // First trial call enters half-open
+            circuitBreaker.execute(() -> "success");
+
+            // While the second trial call runs, the last permit is taken and further attempts are rejected
+            int[] permitted = new int[1];
+            circuitBreaker.execute(() -> {
+                for (int i = 0; i < 5; i++) {
+                    if (circuitBreaker.isCallPermitted()) {
+                        permitted[0]++;
+                    }
+                }
+                return "success";
+            });
+
+            // 2 successes out of 3 trial calls = 66.7% >= 66%
+            assertEquals(1, permitted[0]);
+            assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+        }
+
         @Test
         @DisplayName("Should reopen circuit on failure in half-open")
         void shouldReopenCircuitOnFailureInHalfOpen() throws InterruptedException {
@@ -396,6 +436,177 @@ class CircuitBreakerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Async Execution")
+    class AsyncExecutionTests {
+
+        @Test
+        @DisplayName("Should complete with result of async call")
+        void shouldCompleteWithResultOfAsyncCall() throws Exception {
+            CompletableFuture<String> future = circuitBreaker.executeAsync(
+                    () -> CompletableFuture.completedFuture("success"));
+
+            assertEquals("success", future.get(1, TimeUnit.SECONDS));
+            assertEquals(1, circuitBreaker.getMetrics().getSuccessfulCalls().get());
+        }
+
+        @Test
+        @DisplayName("Should record outcome when async call completes")
+        void shouldRecordOutcomeWhenAsyncCallCompletes() {
+            CompletableFuture<String> pending = new CompletableFuture<>();
+            CompletableFuture<String> future = circuitBreaker.executeAsync(() -> pending);
+
+            assertEquals(0, circuitBreaker.getMetrics().getTotalCalls().get());
+
+            pending.completeExceptionally(new RuntimeException("Failure"));
+
+            assertTrue(future.isCompletedExceptionally());
+            assertEquals(1, circuitBreaker.getMetrics().getFailedCalls().get());
+        }
+
+        @Test
+        @DisplayName("Should open circuit on async failures and fail fast")
+        void shouldOpenCircuitOnAsyncFailures() {
+            for (int i = 0; i < 5; i++) {
+                circuitBreaker.executeAsync(
+                        () -> CompletableFuture.failedFuture(new RuntimeException("Failure")));
+            }
+
+            assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+
+            AtomicBoolean invoked = new AtomicBoolean(false);
+            CompletableFuture<String> future = circuitBreaker.executeAsync(() -> {
+                invoked.set(true);
+                return CompletableFuture.completedFuture("should not execute");
+            });
+
+            assertFalse(invoked.get());
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(CircuitBreakerException.class, e.getCause());
+            assertEquals(1, circuitBreaker.getMetrics().getRejectedCalls().get());
+        }
+
+        @Test
+        @DisplayName("Should record failure when supplier throws")
+        void shouldRecordFailureWhenSupplierThrows() {
+            CompletableFuture<String> future = circuitBreaker.executeAsync(() -> {
+                throw new IllegalStateException("Not connected");
+            });
+
+            assertTrue(future.isCompletedExceptionally());
+            assertEquals(1, circuitBreaker.getMetrics().getFailedCalls().get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Sliding Window")
+    class SlidingWindowTests {
+
+        @Test
+        @DisplayName("Should evict oldest outcomes from count based window")
+        void shouldEvictOldestOutcomesFromCountBasedWindow() {
+            CountBasedSlidingWindow window = new CountBasedSlidingWindow(4);
+            window.record(true, false);
+            window.record(true, true);
+            for (int i = 0; i < 4; i++) {
+                window.record(false, false);
+            }
+
+            SlidingWindow.Snapshot snapshot = window.snapshot();
+            assertEquals(4, snapshot.totalCalls());
+            assertEquals(0, snapshot.failedCalls());
+            assertEquals(0, snapshot.slowCalls());
+        }
+
+        @Test
+        @DisplayName("Should keep exact counts under concurrent recording")
+        void shouldKeepExactCountsUnderConcurrentRecording() throws InterruptedException {
+            CountBasedSlidingWindow window = new CountBasedSlidingWindow(1000);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            CountDownLatch done = new CountDownLatch(8);
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 125; i++) {
+                        window.record(i % 5 == 0, false);
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            executor.shutdown();
+
+            SlidingWindow.Snapshot snapshot = window.snapshot();
+            assertEquals(1000, snapshot.totalCalls());
+            assertEquals(200, snapshot.failedCalls());
+            assertEquals(20.0, snapshot.failureRate(), 0.01);
+        }
+
+        @Test
+        @DisplayName("Should expire buckets from time based window")
+        void shouldExpireBucketsFromTimeBasedWindow() {
+            AtomicLong clock = new AtomicLong(0);
+            TimeBasedSlidingWindow window = new TimeBasedSlidingWindow(3, clock::get);
+
+            window.record(true, true);
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            window.record(false, false);
+            window.record(false, true);
+
+            SlidingWindow.Snapshot snapshot = window.snapshot();
+            assertEquals(3, snapshot.totalCalls());
+            assertEquals(1, snapshot.failedCalls());
+            assertEquals(2, snapshot.slowCalls());
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+            snapshot = window.snapshot();
+            assertEquals(2, snapshot.totalCalls());
+            assertEquals(0, snapshot.failedCalls());
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+            assertEquals(0, window.snapshot().totalCalls());
+        }
+
+        @Test
+        @DisplayName("Should count more than two million calls in one bucket")
+        void shouldCountBeyondTwentyOneBitsPerBucket() {
+            TimeBasedSlidingWindow window = new TimeBasedSlidingWindow(1, () -> 0L);
+            int calls = (1 << 21) + 10;
+
+            for (int i = 0; i < calls; i++) {
+                window.record(i % 2 == 0, i % 4 == 0);
+            }
+
+            SlidingWindow.Snapshot snapshot = window.snapshot();
+            assertEquals(calls, snapshot.totalCalls());
+            assertEquals(calls / 2, snapshot.failedCalls());
+            assertEquals((calls + 3) / 4, snapshot.slowCalls());
+        }
+
+        @Test
+        @DisplayName("Should open circuit on slow call rate")
+        void shouldOpenCircuitOnSlowCallRate() {
+            CircuitBreaker slowBreaker = new CircuitBreaker(CircuitBreakerConfig.builder()
+                    .name("slow-circuit")
+                    .slidingWindowType(SlidingWindowType.TIME_BASED)
+                    .slidingWindowSize(10)
+                    .minimumCalls(3)
+                    .countSlowCallsAsFailures(false)
+                    .slowCallThreshold(Duration.ZERO)
+                    .slowCallThresholdPercent(50)
+                    .build());
+
+            for (int i = 0; i < 3; i++) {
+                slowBreaker.execute(() -> {
+                    LockSupport.parkNanos(1_000);
+                    return "slow";
+                });
+            }
+
+            assertEquals(CircuitState.OPEN, slowBreaker.getState());
+            assertEquals(0, slowBreaker.getMetrics().getFailedCalls().get());
+        }
+    }
+
     @Nested
     @DisplayName("Registry")
     class RegistryTests {
@@ -434,5 +645,19 @@ class CircuitBreakerTest {
             assertEquals(2, stats.get("totalCircuits"));
             assertNotNull(stats.get("circuits"));
         }
+
+        @Test
+        @DisplayName("Should manage channel circuit breakers")
+        void shouldManageChannelCircuitBreakers() {
+            CircuitBreakerRegistry registry = new CircuitBreakerRegistry();
+
+            CircuitBreaker cb = registry.getOrCreateForChannel("FISC_INTERBANK_V1");
+
+            assertSame(cb, registry.getOrCreateForChannel("FISC_INTERBANK_V1"));
+            assertEquals(SlidingWindowType.TIME_BASED, cb.getConfig().getSlidingWindowType());
+            assertTrue(registry.get(CircuitBreakerRegistry.channelCircuitName("FISC_INTERBANK_V1")).isPresent());
+            assertTrue(registry.removeForChannel("FISC_INTERBANK_V1"));
+            assertFalse(registry.removeForChannel("FISC_INTERBANK_V1"));
+        }
     }
 }
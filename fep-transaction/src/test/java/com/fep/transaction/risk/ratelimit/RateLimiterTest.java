@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -322,6 +325,164 @@ class RateLimiterTest {
         }
     }
 
+    @Nested
+    @DisplayName("Async Acquire")
+    class AsyncAcquireTests {
+
+        @Test
+        @DisplayName("Should delay queued requests instead of rejecting")
+        void shouldDelayQueuedRequests() throws Exception {
+            RateLimitConfig config = RateLimitConfig.builder()
+                    .name("async-test")
+                    .type(RateLimitType.TOKEN_BUCKET)
+                    .bucketCapacity(2)
+                    .refillRate(20.0)
+                    .queueExcessRequests(true)
+                    .maxQueueWait(Duration.ofSeconds(1))
+                    .build();
+            RateLimiter limiter = new RateLimiter(config);
+
+            assertTrue(limiter.acquireAsync(2).get(1, TimeUnit.SECONDS).isAllowed());
+
+            CompletableFuture<RateLimitResult> queued = limiter.acquireAsync(1);
+            RateLimitResult result = queued.get(1, TimeUnit.SECONDS);
+            assertTrue(result.isAllowed());
+            assertTrue(result.getWaitTimeMs() > 0);
+            assertTrue(result.getWaitTimeMs() <= 50);
+        }
+
+        @Test
+        @DisplayName("Should reject when wait exceeds max queue wait")
+        void shouldRejectWhenWaitExceedsMaxQueueWait() throws Exception {
+            RateLimitConfig config = RateLimitConfig.builder()
+                    .name("async-reject-test")
+                    .type(RateLimitType.TOKEN_BUCKET)
+                    .bucketCapacity(1)
+                    .refillRate(1.0)
+                    .queueExcessRequests(true)
+                    .maxQueueWait(Duration.ofMillis(100))
+                    .build();
+            RateLimiter limiter = new RateLimiter(config);
+
+            assertTrue(limiter.acquireAsync(1).get().isAllowed());
+            assertFalse(limiter.acquireAsync(1).get().isAllowed());
+            assertEquals(1, limiter.getStats().rejectedRequests());
+        }
+
+        @Test
+        @DisplayName("Should wait out the reservation when interrupted and keep the interrupt")
+        void shouldWaitOutReservationWhenInterrupted() {
+            RateLimitConfig config = RateLimitConfig.builder()
+                    .name("interrupt-test")
+                    .type(RateLimitType.TOKEN_BUCKET)
+                    .bucketCapacity(1)
+                    .refillRate(20.0)
+                    .queueExcessRequests(true)
+                    .maxQueueWait(Duration.ofSeconds(1))
+                    .build();
+            RateLimiter limiter = new RateLimiter(config);
+            assertTrue(limiter.acquire(1).isAllowed());
+
+            Thread.currentThread().interrupt();
+            long start = System.nanoTime();
+            RateLimitResult result = limiter.acquire(1);
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(Thread.interrupted());
+            assertTrue(result.isAllowed());
+            assertTrue(waitedMs >= result.getWaitTimeMs());
+            assertEquals(2, limiter.getStats().allowedRequests());
+            assertEquals(0, limiter.getStats().rejectedRequests());
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyed Rate Limiter")
+    class KeyedRateLimiterTests {
+
+        @Test
+        @DisplayName("Should limit each key independently")
+        void shouldLimitEachKeyIndependently() {
+            KeyedRateLimiter limiter = new KeyedRateLimiter(RateLimitConfig.perKey("per-terminal", 1, 3));
+
+            for (int i = 0; i < 3; i++) {
+                assertTrue(limiter.tryAcquire("ATM00001").isAllowed());
+            }
+            assertFalse(limiter.tryAcquire("ATM00001").isAllowed());
+            assertTrue(limiter.tryAcquire("ATM00002").isAllowed());
+
+            KeyedRateLimiter.KeyedRateLimiterStats stats = limiter.getStats();
+            assertEquals(5, stats.totalRequests());
+            assertEquals(1, stats.rejectedRequests());
+        }
+
+        @Test
+        @DisplayName("Should refill per-key bucket over time")
+        void shouldRefillPerKeyBucketOverTime() {
+            AtomicLong clock = new AtomicLong(0);
+            LocalRateLimitStateStore store = new LocalRateLimitStateStore(100, Duration.ofMinutes(1), clock::get);
+            KeyedRateLimiter limiter = new KeyedRateLimiter(RateLimitConfig.perKey("per-card", 10, 1), store);
+
+            assertTrue(limiter.tryAcquire("card-hash").isAllowed());
+            assertFalse(limiter.tryAcquire("card-hash").isAllowed());
+
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            assertTrue(limiter.tryAcquire("card-hash").isAllowed());
+        }
+
+        @Test
+        @DisplayName("Should return reservation delay from reserve")
+        void shouldReturnReservationDelayFromReserve() {
+            AtomicLong clock = new AtomicLong(0);
+            LocalRateLimitStateStore store = new LocalRateLimitStateStore(100, Duration.ofMinutes(1), clock::get);
+            RateLimitConfig config = RateLimitConfig.builder()
+                    .name("per-bank")
+                    .bucketCapacity(1)
+                    .refillRate(10.0)
+                    .queueExcessRequests(true)
+                    .maxQueueWait(Duration.ofMillis(250))
+                    .build();
+            KeyedRateLimiter limiter = new KeyedRateLimiter(config, store);
+
+            assertEquals(0, limiter.reserve("004", 1));
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve("004", 1));
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.reserve("004", 1));
+
+            long rejected = limiter.reserve("004", 1);
+            assertFalse(RateLimitStateStore.isPermitted(rejected));
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(300), RateLimitStateStore.delayNanos(rejected));
+        }
+
+        @Test
+        @DisplayName("Should reset all keys")
+        void shouldResetAllKeys() {
+            RateLimitConfig config = RateLimitConfig.builder()
+                    .name("bounded")
+                    .maxKeys(10)
+                    .build();
+            KeyedRateLimiter limiter = new KeyedRateLimiter(config);
+
+            for (int i = 0; i < 1000; i++) {
+                limiter.tryAcquire("T" + i);
+            }
+
+            limiter.reset();
+            assertEquals(0, limiter.getStats().totalRequests());
+            assertEquals(0, limiter.getStats().trackedKeys());
+        }
+
+        @Test
+        @DisplayName("Should check keyed limiter through registry")
+        void shouldCheckKeyedLimiterThroughRegistry() {
+            RateLimiterRegistry registry = new RateLimiterRegistry();
+            registry.initializeDefaultLimiters();
+
+            assertTrue(registry.getKeyed("per-terminal").isPresent());
+            assertTrue(registry.checkKeyed("per-card", "card-1").isAllowed());
+            assertTrue(registry.checkKeyed("unknown", "card-1").isAllowed());
+        }
+    }
+
     @Nested
     @DisplayName("Registry")
     class RegistryTests {
@@ -6,7 +6,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -196,6 +201,142 @@ class TransactionRouterTest {
         assertEquals("interbank-withdrawal", result.getMatchedRule().getRuleName());
     }
 
+    @Test
+    void testRouteByChannelAndBankCode() {
+        router.addRule(RoutingRule.builder()
+                .ruleName("mobile-transfer-to-822")
+                .priority(8)
+                .transactionTypes(Set.of(TransactionType.TRANSFER))
+                .channels(Set.of("MOBILE"))
+                .bankCodes(Set.of("822"))
+                .destination(RoutingDestination.OPEN_SYSTEM_API)
+                .build());
+        router.addRule(RoutingRule.builder()
+                .ruleName("any-transfer-to-004")
+                .priority(9)
+                .bankCodes(Set.of("004"))
+                .destination(RoutingDestination.EXTERNAL_SERVICE)
+                .build());
+
+        assertEquals("mobile-transfer-to-822",
+                router.route(createRequest(TransactionType.TRANSFER, "MOBILE", "822")).getMatchedRule().getRuleName());
+        assertEquals("interbank-transfer",
+                router.route(createRequest(TransactionType.TRANSFER, "ATM", "822")).getMatchedRule().getRuleName());
+        assertEquals("any-transfer-to-004",
+                router.route(createRequest(TransactionType.TRANSFER, "MOBILE", "004")).getMatchedRule().getRuleName());
+        assertEquals("any-transfer-to-004",
+                router.route(createRequest(TransactionType.DEPOSIT, null, "004")).getMatchedRule().getRuleName());
+    }
+
+    @Test
+    void testResidualConditionOnlyEvaluatedForCandidates() {
+        AtomicInteger evaluations = new AtomicInteger();
+        router.addRule(RoutingRule.builder()
+                .ruleName("large-atm-withdrawal")
+                .priority(1)
+                .transactionTypes(Set.of(TransactionType.WITHDRAWAL))
+                .channels(Set.of("ATM"))
+                .condition(r -> {
+                    evaluations.incrementAndGet();
+                    return r.getAmount().compareTo(new BigDecimal("20000")) > 0;
+                })
+                .destination(RoutingDestination.MAINFRAME_CBS)
+                .build());
+
+        router.route(createRequest(TransactionType.DEPOSIT, "ATM", null));
+        router.route(createRequest(TransactionType.WITHDRAWAL, "POS", null));
+        assertEquals(0, evaluations.get());
+
+        RoutingResult result = router.route(createRequest(TransactionType.WITHDRAWAL, "ATM", null));
+        assertEquals(1, evaluations.get());
+        assertEquals("interbank-withdrawal", result.getMatchedRule().getRuleName());
+    }
+
+    @Test
+    void testInactiveRuleIsSkipped() {
+        RoutingRule rule = router.getActiveRules().stream()
+                .filter(r -> "interbank-withdrawal".equals(r.getRuleName()))
+                .findFirst()
+                .orElseThrow();
+        rule.setActive(false);
+
+        RoutingResult result = router.route(createRequest(TransactionType.WITHDRAWAL));
+
+        assertEquals(RoutingDestination.MAINFRAME_CBS, result.getDestination());
+        assertNull(result.getMatchedRule());
+    }
+
+    @Test
+    void testRuleHitCounts() {
+        router.route(createRequest(TransactionType.WITHDRAWAL));
+        router.route(createRequest(TransactionType.WITHDRAWAL));
+        router.route(createRequest(TransactionType.PIN_CHANGE));
+
+        Map<String, Long> hits = router.getRuleHitCounts();
+        assertEquals(2L, hits.get("interbank-withdrawal"));
+        assertEquals(0L, hits.get("interbank-transfer"));
+        assertEquals(1L, hits.get(TransactionRouter.DEFAULT_ROUTE));
+
+        router.resetHitCounts();
+        assertEquals(0L, router.getRuleHitCounts().get("interbank-withdrawal"));
+    }
+
+    @Test
+    void testReplaceRules() {
+        router.replaceRules(List.of(RoutingRule.builder()
+                .ruleName("everything-internal")
+                .destination(RoutingDestination.INTERNAL)
+                .build()));
+
+        assertEquals(1, router.getRuleCount());
+        assertEquals(RoutingDestination.INTERNAL,
+                router.route(createRequest(TransactionType.WITHDRAWAL)).getDestination());
+    }
+
+    @Test
+    void testRouteWhileRulesChange() throws InterruptedException {
+        AtomicBoolean failed = new AtomicBoolean(false);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20000; i++) {
+                    if (!router.route(createRequest(TransactionType.TRANSFER)).isRouted()) {
+                        failed.set(true);
+                    }
+                }
+            } catch (RuntimeException e) {
+                failed.set(true);
+            } finally {
+                done.countDown();
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 200; i++) {
+            router.addRule(RoutingRule.builder()
+                    .ruleName("bank-" + i)
+                    .priority(50)
+                    .bankCodes(Set.of(String.format("%03d", i)))
+                    .destination(RoutingDestination.FISC_INTERBANK)
+                    .build());
+        }
+
+        done.await();
+        assertFalse(failed.get());
+        assertEquals(208, router.getRuleCount());
+    }
+
+    private TransactionRequest createRequest(TransactionType type, String channel, String bankCode) {
+        return TransactionRequest.builder()
+                .transactionId("TXN-" + System.currentTimeMillis())
+                .transactionType(type)
+                .channel(channel)
+                .destinationBankCode(bankCode)
+                .pan("4111111111111111")
+                .amount(new BigDecimal("1000"))
+                .build();
+    }
+
     private TransactionRequest createRequest(TransactionType type) {
         return TransactionRequest.builder()
                 .transactionId("TXN-" + System.currentTimeMillis())
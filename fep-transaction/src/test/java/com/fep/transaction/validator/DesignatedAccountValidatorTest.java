@@ -8,7 +8,19 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import com.github.benmanes.caffeine.cache.Ticker;
+
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -323,6 +335,170 @@ class DesignatedAccountValidatorTest {
         }
     }
 
+    @Nested
+    @DisplayName("Ledger Rollover Tests")
+    class LedgerRolloverTests {
+
+        @Test
+        @DisplayName("Should roll over totals when business date changes")
+        void shouldRollOverOnBusinessDateChange() {
+            AtomicReference<LocalDate> date = new AtomicReference<>(LocalDate.of(2026, 1, 5));
+            DesignatedAccountValidator ledger = new DesignatedAccountValidator(
+                    DesignatedAccountProvider.inMemory(), date::get,
+                    Duration.ofMinutes(5), Ticker.systemTicker(), Runnable::run);
+
+            ledger.recordTransfer(SOURCE_ACCOUNT, new BigDecimal("9990000"), true);
+            TransactionRequest request = createTransferRequest("TXN010", SOURCE_ACCOUNT, DEST_ACCOUNT_1,
+                    new BigDecimal("20000"));
+            request.setIsDesignatedAccount(true);
+            assertThrows(TransactionException.class, () -> ledger.validate(request));
+
+            date.set(LocalDate.of(2026, 1, 6));
+
+            assertDoesNotThrow(() -> ledger.validate(request));
+            var tracker = ledger.getDailyTransferStats(SOURCE_ACCOUNT);
+            assertEquals(BigDecimal.ZERO, tracker.getDesignatedTotal());
+            assertEquals(0, tracker.getDesignatedCount());
+            assertEquals(LocalDate.of(2026, 1, 6), tracker.getBusinessDate());
+        }
+
+        @Test
+        @DisplayName("Should reject new accounts instead of evicting today's totals when the ledger is full")
+        void shouldNotEvictCurrentTotalsWhenLedgerFull() {
+            AtomicReference<LocalDate> date = new AtomicReference<>(LocalDate.of(2026, 1, 5));
+            DesignatedAccountValidator ledger = new DesignatedAccountValidator(
+                    DesignatedAccountProvider.inMemory(), date::get,
+                    Duration.ofMinutes(5), Ticker.systemTicker(), Runnable::run, 2);
+
+            ledger.recordTransfer("ACC-1", new BigDecimal("90000"), false);
+            ledger.recordTransfer("ACC-2", new BigDecimal("50000"), false);
+
+            // A third account must not push out a live total
+            assertThrows(TransactionException.class,
+                    () -> ledger.recordTransfer("ACC-3", new BigDecimal("100"), false));
+            assertEquals(new BigDecimal("90000"), ledger.getDailyTransferStats("ACC-1").getNonDesignatedTotal());
+            assertFalse(ledger.tryRecordTransfer("ACC-1", new BigDecimal("20000"), false));
+
+            // Totals of an earlier business date are purged to make room
+            date.set(LocalDate.of(2026, 1, 6));
+            assertTrue(ledger.tryRecordTransfer("ACC-3", new BigDecimal("100"), false));
+            assertEquals(new BigDecimal("100"), ledger.getDailyTransferStats("ACC-3").getNonDesignatedTotal());
+        }
+
+        @Test
+        @DisplayName("Should keep cent precision")
+        void shouldKeepCentPrecision() {
+            validator.recordTransfer(SOURCE_ACCOUNT, new BigDecimal("100.25"), true);
+            validator.recordTransfer(SOURCE_ACCOUNT, new BigDecimal("0.75"), true);
+            validator.recordTransfer(SOURCE_ACCOUNT, new BigDecimal("0.10"), true);
+
+            assertEquals(new BigDecimal("101.10"), validator.getDailyTransferStats(SOURCE_ACCOUNT).getDesignatedTotal());
+            assertEquals(3, validator.getDailyTransferStats(SOURCE_ACCOUNT).getDesignatedCount());
+        }
+
+        @Test
+        @DisplayName("Should not exceed daily limit under concurrent recording")
+        void shouldNotExceedDailyLimitConcurrently() throws Exception {
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger accepted = new AtomicInteger();
+            try {
+                for (int i = 0; i < 40; i++) {
+                    executor.submit(() -> {
+                        start.await();
+                        if (validator.tryRecordTransfer(SOURCE_ACCOUNT, new BigDecimal("10000"), false)) {
+                            accepted.incrementAndGet();
+                        }
+                        return null;
+                    });
+                }
+                start.countDown();
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(10, accepted.get());
+            var tracker = validator.getDailyTransferStats(SOURCE_ACCOUNT);
+            assertEquals(new BigDecimal("100000"), tracker.getNonDesignatedTotal());
+            assertEquals(10, tracker.getNonDesignatedCount());
+        }
+
+        @Test
+        @DisplayName("Should not create ledger entries during validation")
+        void shouldNotCreateLedgerEntriesOnValidate() {
+            TransactionRequest request = createTransferRequest("TXN011", SOURCE_ACCOUNT, DEST_ACCOUNT_2,
+                    new BigDecimal("1000"));
+            request.setChannel("COUNTER");
+            request.setIsDesignatedAccount(true);
+
+            validator.validate(request);
+
+            assertNull(validator.getDailyTransferStats(SOURCE_ACCOUNT));
+            assertEquals(0, validator.getStats().ledgerAccounts());
+        }
+    }
+
+    @Nested
+    @DisplayName("Designated Account Provider Tests")
+    class DesignatedAccountProviderTests {
+
+        @Test
+        @DisplayName("Should load designated accounts once and serve hits from cache")
+        void shouldCacheProviderLookups() {
+            AtomicInteger loads = new AtomicInteger();
+            DesignatedAccountValidator cached = new DesignatedAccountValidator(source -> {
+                loads.incrementAndGet();
+                return Set.of(DEST_ACCOUNT_1);
+            });
+
+            assertTrue(cached.isDesignatedAccount(SOURCE_ACCOUNT, DEST_ACCOUNT_1));
+            assertFalse(cached.isDesignatedAccount(SOURCE_ACCOUNT, DEST_ACCOUNT_2));
+            assertTrue(cached.isDesignatedAccount(SOURCE_ACCOUNT, DEST_ACCOUNT_1));
+
+            assertEquals(1, loads.get());
+            var stats = cached.getStats();
+            assertEquals(1, stats.designatedCacheSize());
+            assertEquals(1, stats.designatedMisses());
+            assertEquals(2, stats.designatedHits());
+        }
+
+        @Test
+        @DisplayName("Should refresh designated accounts ahead of expiry")
+        void shouldRefreshAhead() {
+            AtomicLong nanos = new AtomicLong();
+            AtomicReference<Set<String>> coreSystem = new AtomicReference<>(Set.of(DEST_ACCOUNT_1));
+            DesignatedAccountValidator cached = new DesignatedAccountValidator(
+                    source -> coreSystem.get(), LocalDate::now,
+                    Duration.ofMinutes(5), nanos::get, Runnable::run);
+
+            assertTrue(cached.isDesignatedAccount(SOURCE_ACCOUNT, DEST_ACCOUNT_1));
+
+            coreSystem.set(Set.of(DEST_ACCOUNT_2));
+            nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+            // A stale read triggers the reload without evicting the entry
+            cached.getDesignatedAccounts(SOURCE_ACCOUNT);
+            assertEquals(1, cached.getStats().designatedMisses());
+            assertTrue(cached.isDesignatedAccount(SOURCE_ACCOUNT, DEST_ACCOUNT_2));
+            assertFalse(cached.isDesignatedAccount(SOURCE_ACCOUNT, DEST_ACCOUNT_1));
+        }
+
+        @Test
+        @DisplayName("Should treat provider failure as non-designated")
+        void shouldTreatProviderFailureAsNonDesignated() {
+            DesignatedAccountValidator failing = new DesignatedAccountValidator(source -> {
+                throw new IllegalStateException("core system unavailable");
+            });
+
+            assertFalse(failing.isDesignatedAccount(SOURCE_ACCOUNT, DEST_ACCOUNT_1));
+            assertEquals(Set.of(), failing.getDesignatedAccounts(SOURCE_ACCOUNT));
+            assertEquals(2, failing.getStats().designatedLoadFailures());
+        }
+    }
+
     // Helper method to create transfer request
     private TransactionRequest createTransferRequest(
             String txnId,